@@ -0,0 +1,45 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+/**
+ * Event class for use by benchmarks, representing a trade of a symbol.
+ */
+public class BenchmarkEvent {
+    private final String symbol;
+    private final double price;
+    private final long volume;
+
+    /**
+     * Ctor.
+     *
+     * @param symbol symbol
+     * @param price  price
+     * @param volume volume
+     */
+    public BenchmarkEvent(String symbol, double price, long volume) {
+        this.symbol = symbol;
+        this.price = price;
+        this.volume = volume;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.apache.avro.Schema;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.espertech.esper.avro.core.AvroConstant.PROP_JAVA_STRING_KEY;
+import static com.espertech.esper.avro.core.AvroConstant.PROP_JAVA_STRING_VALUE;
+import static org.apache.avro.SchemaBuilder.record;
+
+/**
+ * Helpers shared by benchmarks for obtaining an engine and for declaring the benchmark event types.
+ */
+public class BenchmarkSupport {
+    /**
+     * Number of pre-allocated events that benchmarks cycle through.
+     */
+    public final static int NUM_EVENTS = 1024;
+
+    /**
+     * Event type name of the bean event type.
+     */
+    public final static String EVENT_BEAN = "BenchmarkEvent";
+
+    /**
+     * Event type name of the Map event type.
+     */
+    public final static String EVENT_MAP = "BenchmarkMapEvent";
+
+    /**
+     * Event type name of the object-array event type.
+     */
+    public final static String EVENT_OBJECTARRAY = "BenchmarkObjectArrayEvent";
+
+    /**
+     * Event type name of the Avro event type.
+     */
+    public final static String EVENT_AVRO = "BenchmarkAvroEvent";
+
+    /**
+     * Avro schema of the Avro event type.
+     */
+    public final static Schema AVRO_SCHEMA = record(EVENT_AVRO).fields()
+            .name("symbol").type().stringBuilder().prop(PROP_JAVA_STRING_KEY, PROP_JAVA_STRING_VALUE).endString().noDefault()
+            .requiredDouble("price")
+            .requiredLong("volume")
+            .endRecord();
+
+    private final static AtomicInteger ENGINE_NUM = new AtomicInteger();
+
+    /**
+     * Returns a configuration with the internal timer disabled and all benchmark event types declared.
+     *
+     * @return configuration
+     */
+    public static Configuration getConfiguration() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getLogging().setEnableExecutionDebug(false);
+        configuration.getEngineDefaults().getLogging().setEnableTimerDebug(false);
+        configuration.addEventType(EVENT_BEAN, BenchmarkEvent.class);
+
+        Map<String, Object> mapType = new LinkedHashMap<String, Object>();
+        mapType.put("symbol", String.class);
+        mapType.put("price", double.class);
+        mapType.put("volume", long.class);
+        configuration.addEventType(EVENT_MAP, mapType);
+
+        configuration.addEventType(EVENT_OBJECTARRAY, new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, long.class});
+        configuration.addEventTypeAvro(EVENT_AVRO, new ConfigurationEventTypeAvro(AVRO_SCHEMA));
+        return configuration;
+    }
+
+    /**
+     * Returns a new engine instance for the configuration, with the engine time set to zero.
+     *
+     * @param configuration configuration
+     * @return engine
+     */
+    public static EPServiceProvider getEngine(Configuration configuration) {
+        EPServiceProvider epService = EPServiceProviderManager.getProvider("benchmark" + ENGINE_NUM.incrementAndGet(), configuration);
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        return epService;
+    }
+
+    /**
+     * Returns the symbol for a number.
+     *
+     * @param num number
+     * @return symbol
+     */
+    public static String getSymbol(int num) {
+        return "S" + num;
+    }
+
+    /**
+     * Listener that counts delivered events.
+     */
+    public static class CountingListener implements UpdateListener {
+        private long count;
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            if (newEvents != null) {
+                count += newEvents.length;
+            }
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
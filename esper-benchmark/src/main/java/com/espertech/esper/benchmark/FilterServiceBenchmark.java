@@ -0,0 +1,105 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for matching an event against the filters of {@link FilterServiceLockFine}, for equals and for range filters.
+ * Each event matches a single filter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterServiceBenchmark {
+    @Param({"1000", "100000"})
+    private int numFilters;
+
+    @Param({"equal", "range"})
+    private String filterOperator;
+
+    private EPServiceProvider epService;
+    private FilterServiceLockFine filterService;
+    private EventBean[] events;
+    private List<FilterHandle> matches;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkSupport.getEngine(BenchmarkSupport.getConfiguration());
+        EventType eventType = epService.getEPAdministrator().getConfiguration().getEventType(BenchmarkSupport.EVENT_BEAN);
+        filterService = new FilterServiceLockFine(false);
+
+        for (int i = 0; i < numFilters; i++) {
+            FilterValueSetParam param;
+            if (filterOperator.equals("equal")) {
+                FilterSpecLookupable lookupable = new FilterSpecLookupable("volume", eventType.getGetter("volume"), long.class, false);
+                param = new FilterValueSetParamImpl(lookupable, FilterOperator.EQUAL, (long) i);
+            } else if (filterOperator.equals("range")) {
+                FilterSpecLookupable lookupable = new FilterSpecLookupable("price", eventType.getGetter("price"), double.class, false);
+                param = new FilterValueSetParamImpl(lookupable, FilterOperator.RANGE_HALF_OPEN, new DoubleRange(i * 10d, i * 10d + 10));
+            } else {
+                throw new IllegalArgumentException("Unrecognized filter operator '" + filterOperator + "'");
+            }
+            FilterValueSet filterValueSet = new FilterValueSetImpl(eventType, new FilterValueSetParam[][]{{param}});
+            filterService.add(filterValueSet, new BenchmarkFilterHandle(i));
+        }
+
+        Random random = new Random(1);
+        events = new EventBean[BenchmarkSupport.NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            int value = random.nextInt(numFilters);
+            BenchmarkEvent theEvent = new BenchmarkEvent(BenchmarkSupport.getSymbol(value), value * 10d + 5, value);
+            events[i] = ((EPServiceProviderSPI) epService).getEventAdapterService().adapterForBean(theEvent);
+        }
+        matches = new ArrayList<FilterHandle>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        filterService.destroy();
+        epService.destroy();
+    }
+
+    @Benchmark
+    public int evaluate() {
+        EventBean theEvent = events[index];
+        index = (index + 1) & (BenchmarkSupport.NUM_EVENTS - 1);
+        matches.clear();
+        filterService.evaluate(theEvent, matches);
+        return matches.size();
+    }
+
+    private static class BenchmarkFilterHandle implements FilterHandle {
+        private final int statementId;
+
+        private BenchmarkFilterHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for a fully-aggregated and grouped statement with two group-by expressions,
+ * with and without code generation for the result set processor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupedAggregationBenchmark {
+    @Param({"100", "10000"})
+    private int numGroups;
+
+    @Param({"false", "true"})
+    private boolean codegenResultSetProcessor;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private BenchmarkSupport.CountingListener listener;
+    private BenchmarkEvent[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = BenchmarkSupport.getConfiguration();
+        configuration.getEngineDefaults().getCodeGeneration().setEnableResultSetProcessor(codegenResultSetProcessor);
+        epService = BenchmarkSupport.getEngine(configuration);
+        runtime = epService.getEPRuntime();
+        listener = new BenchmarkSupport.CountingListener();
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select symbol, volume, sum(price) as total, count(*) as cnt from " + BenchmarkSupport.EVENT_BEAN + " group by symbol, volume");
+        stmt.addListener(listener);
+
+        events = new BenchmarkEvent[BenchmarkSupport.NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            int group = i * 31 % numGroups;
+            events[i] = new BenchmarkEvent(BenchmarkSupport.getSymbol(group / 10), i, group % 10);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        runtime.sendEvent(events[index]);
+        index = (index + 1) & (BenchmarkSupport.NUM_EVENTS - 1);
+        return listener.getCount();
+    }
+}
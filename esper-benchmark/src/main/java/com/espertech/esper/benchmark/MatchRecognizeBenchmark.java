@@ -0,0 +1,77 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for match-recognize pattern matching partitioned by symbol, for a pattern of a price increase followed by
+ * one or more further increases and a drop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchRecognizeBenchmark {
+    @Param({"10", "1000"})
+    private int numPartitions;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private BenchmarkSupport.CountingListener listener;
+    private BenchmarkEvent[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkSupport.getEngine(BenchmarkSupport.getConfiguration());
+        runtime = epService.getEPRuntime();
+        listener = new BenchmarkSupport.CountingListener();
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select * from " + BenchmarkSupport.EVENT_BEAN + " " +
+                "match_recognize (" +
+                "  partition by symbol" +
+                "  measures A.price as startPrice, last(B.price) as topPrice, C.price as endPrice" +
+                "  pattern (A B+ C)" +
+                "  define" +
+                "    B as B.price > prev(B.price)," +
+                "    C as C.price < prev(C.price)" +
+                ")");
+        stmt.addListener(listener);
+
+        // per symbol, prices rise for three events and drop on the fourth
+        events = new BenchmarkEvent[BenchmarkSupport.NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            int partition = i % numPartitions;
+            int step = (i / numPartitions) % 4;
+            double price = step == 3 ? 0 : 10 + step;
+            events[i] = new BenchmarkEvent(BenchmarkSupport.getSymbol(partition), price, i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        runtime.sendEvent(events[index]);
+        index = (index + 1) & (BenchmarkSupport.NUM_EVENTS - 1);
+        return listener.getCount();
+    }
+}
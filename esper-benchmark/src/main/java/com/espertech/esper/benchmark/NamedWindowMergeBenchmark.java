@@ -0,0 +1,67 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for on-merge into a named window keyed by symbol, updating the row when matched and inserting a row when not matched.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamedWindowMergeBenchmark {
+    @Param({"100", "10000"})
+    private int numKeys;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private BenchmarkSupport.CountingListener listener;
+    private BenchmarkEvent[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkSupport.getEngine(BenchmarkSupport.getConfiguration());
+        runtime = epService.getEPRuntime();
+        listener = new BenchmarkSupport.CountingListener();
+        epService.getEPAdministrator().createEPL("create window MyWindow#unique(symbol) as (symbol string, price double, volume long)");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("on " + BenchmarkSupport.EVENT_BEAN + " as e merge MyWindow as w where w.symbol = e.symbol " +
+                "when matched then update set price = e.price, volume = w.volume + e.volume " +
+                "when not matched then insert select e.symbol as symbol, e.price as price, e.volume as volume");
+        stmt.addListener(listener);
+
+        events = new BenchmarkEvent[BenchmarkSupport.NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new BenchmarkEvent(BenchmarkSupport.getSymbol(i * 31 % numKeys), i, 1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        runtime.sendEvent(events[index]);
+        index = (index + 1) & (BenchmarkSupport.NUM_EVENTS - 1);
+        return listener.getCount();
+    }
+}
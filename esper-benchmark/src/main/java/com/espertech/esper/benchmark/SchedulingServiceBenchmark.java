@@ -0,0 +1,130 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.schedule.*;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for adding, removing and evaluating schedules of the scheduling service, for each scheduling service implementation.
+ * The scheduling service holds a number of outstanding schedules throughout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingServiceBenchmark {
+    private final static int NUM_EVALUATE = 100;
+
+    @Param({"treemap", "timingwheel"})
+    private String implementation;
+
+    @Param({"10000"})
+    private int numOutstanding;
+
+    private SchedulingServiceSPI schedulingService;
+    private BenchmarkScheduleHandle[] handles;
+    private long[] slots;
+    private BenchmarkScheduleHandle[] evaluateHandles;
+    private long[] evaluateSlots;
+    private List<ScheduleHandle> triggered;
+    private int index;
+    private long time;
+
+    @Setup
+    public void setup() {
+        if (implementation.equals("treemap")) {
+            schedulingService = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        } else if (implementation.equals("timingwheel")) {
+            schedulingService = new SchedulingServiceTimingWheelImpl(new TimeSourceServiceImpl());
+        } else {
+            throw new IllegalArgumentException("Unrecognized implementation '" + implementation + "'");
+        }
+        schedulingService.setTime(0);
+
+        // outstanding schedules far in the future
+        handles = new BenchmarkScheduleHandle[numOutstanding];
+        slots = new long[numOutstanding];
+        for (int i = 0; i < numOutstanding; i++) {
+            handles[i] = new BenchmarkScheduleHandle(i);
+            slots[i] = new ScheduleBucket(i).allocateSlot();
+            schedulingService.add(Integer.MAX_VALUE + (long) i, handles[i], slots[i]);
+        }
+
+        evaluateHandles = new BenchmarkScheduleHandle[NUM_EVALUATE];
+        evaluateSlots = new long[NUM_EVALUATE];
+        for (int i = 0; i < NUM_EVALUATE; i++) {
+            evaluateHandles[i] = new BenchmarkScheduleHandle(numOutstanding + i);
+            evaluateSlots[i] = new ScheduleBucket(numOutstanding + i).allocateSlot();
+        }
+        triggered = new ArrayList<ScheduleHandle>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        schedulingService.destroy();
+    }
+
+    /**
+     * Removes an outstanding schedule and adds it back with a different time.
+     *
+     * @return next index
+     */
+    @Benchmark
+    public int addRemove() {
+        BenchmarkScheduleHandle handle = handles[index];
+        long slot = slots[index];
+        index = index + 1 == numOutstanding ? 0 : index + 1;
+        schedulingService.remove(handle, slot);
+        schedulingService.add(Integer.MAX_VALUE + (long) (index * 7 % numOutstanding), handle, slot);
+        return index;
+    }
+
+    /**
+     * Adds schedules for the next milliseconds, advances time and evaluates the triggered schedules.
+     *
+     * @return number of triggered schedules
+     */
+    @Benchmark
+    public int evaluate() {
+        for (int i = 0; i < NUM_EVALUATE; i++) {
+            schedulingService.add(i + 1, evaluateHandles[i], evaluateSlots[i]);
+        }
+        time += NUM_EVALUATE;
+        schedulingService.setTime(time);
+        triggered.clear();
+        schedulingService.evaluate(triggered);
+        return triggered.size();
+    }
+
+    private static class BenchmarkScheduleHandle implements ScheduleHandle {
+        private final int statementId;
+
+        private BenchmarkScheduleHandle(int statementId) {
+            this.statementId = statementId;
+        }
+
+        public int getStatementId() {
+            return statementId;
+        }
+
+        public int getAgentInstanceId() {
+            return -1;
+        }
+    }
+}
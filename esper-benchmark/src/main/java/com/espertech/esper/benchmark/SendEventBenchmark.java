@@ -0,0 +1,109 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import org.apache.avro.generic.GenericData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for sending an event into the engine through {@link EPRuntime#sendEvent}, for each event representation,
+ * for a statement that filters by price.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendEventBenchmark {
+    @Param({"bean", "map", "objectarray", "avro"})
+    private String representation;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private BenchmarkSupport.CountingListener listener;
+    private Object[] events;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkSupport.getEngine(BenchmarkSupport.getConfiguration());
+        runtime = epService.getEPRuntime();
+        listener = new BenchmarkSupport.CountingListener();
+
+        String eventTypeName;
+        if (representation.equals("bean")) {
+            eventTypeName = BenchmarkSupport.EVENT_BEAN;
+        } else if (representation.equals("map")) {
+            eventTypeName = BenchmarkSupport.EVENT_MAP;
+        } else if (representation.equals("objectarray")) {
+            eventTypeName = BenchmarkSupport.EVENT_OBJECTARRAY;
+        } else if (representation.equals("avro")) {
+            eventTypeName = BenchmarkSupport.EVENT_AVRO;
+        } else {
+            throw new IllegalArgumentException("Unrecognized representation '" + representation + "'");
+        }
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select symbol, price from " + eventTypeName + "(price > 50)");
+        stmt.addListener(listener);
+
+        events = new Object[BenchmarkSupport.NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            String symbol = BenchmarkSupport.getSymbol(i % 100);
+            double price = i % 100;
+            long volume = i;
+            if (representation.equals("bean")) {
+                events[i] = new BenchmarkEvent(symbol, price, volume);
+            } else if (representation.equals("map")) {
+                Map<String, Object> map = new HashMap<String, Object>();
+                map.put("symbol", symbol);
+                map.put("price", price);
+                map.put("volume", volume);
+                events[i] = map;
+            } else if (representation.equals("objectarray")) {
+                events[i] = new Object[]{symbol, price, volume};
+            } else {
+                GenericData.Record record = new GenericData.Record(BenchmarkSupport.AVRO_SCHEMA);
+                record.put("symbol", symbol);
+                record.put("price", price);
+                record.put("volume", volume);
+                events[i] = record;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        Object theEvent = events[index];
+        index = (index + 1) & (BenchmarkSupport.NUM_EVENTS - 1);
+        if (representation.equals("bean")) {
+            runtime.sendEvent(theEvent);
+        } else if (representation.equals("map")) {
+            runtime.sendEvent((Map) theEvent, BenchmarkSupport.EVENT_MAP);
+        } else if (representation.equals("objectarray")) {
+            runtime.sendEvent((Object[]) theEvent, BenchmarkSupport.EVENT_OBJECTARRAY);
+        } else {
+            runtime.sendEventAvro(theEvent, BenchmarkSupport.EVENT_AVRO);
+        }
+        return listener.getCount();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for a time window, with and without ring-array storage. Time advances by one millisecond for each event
+ * such that the window holds ten thousand events and each event expires one event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeWindowBenchmark {
+    @Param({"false", "true"})
+    private boolean timeWindowRing;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private BenchmarkSupport.CountingListener listener;
+    private BenchmarkEvent[] events;
+    private int index;
+    private long time;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = BenchmarkSupport.getConfiguration();
+        configuration.getEngineDefaults().getViewResources().setTimeWindowRing(timeWindowRing);
+        epService = BenchmarkSupport.getEngine(configuration);
+        runtime = epService.getEPRuntime();
+        listener = new BenchmarkSupport.CountingListener();
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select count(*) as cnt from " + BenchmarkSupport.EVENT_BEAN + "#time(10 sec)");
+        stmt.addListener(listener);
+
+        events = new BenchmarkEvent[BenchmarkSupport.NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new BenchmarkEvent(BenchmarkSupport.getSymbol(i % 100), i, i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        time++;
+        runtime.sendEvent(new CurrentTimeEvent(time));
+        runtime.sendEvent(events[index]);
+        index = (index + 1) & (BenchmarkSupport.NUM_EVENTS - 1);
+        return listener.getCount();
+    }
+}
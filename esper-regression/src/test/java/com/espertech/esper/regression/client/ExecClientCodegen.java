@@ -13,8 +13,16 @@ package com.espertech.esper.regression.client;
 import com.espertech.esper.client.Configuration;
 import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
 import com.espertech.esper.supportregression.execution.RegressionExecution;
+import com.espertech.esper.util.EventRepresentationChoice;
+
+import static org.junit.Assert.assertTrue;
 
 public class ExecClientCodegen implements RegressionExecution {
     public void configure(Configuration configuration) throws Exception {
@@ -25,11 +33,14 @@ public class ExecClientCodegen implements RegressionExecution {
         codegen.setIncludeDebugSymbols(true);
         codegen.setIncludeComments(true);
         codegen.setEnableExpression(true);
+        codegen.setEnableResultSetProcessor(true);
         codegen.setEnableFallback(false);
     }
 
     public void run(EPServiceProvider epService) throws Exception {
         runAssertionLogGeneratedCode(epService);
+        runAssertionGroupKeyMultiple(epService);
+        runAssertionResultSetProcessor(epService);
     }
 
     private void runAssertionLogGeneratedCode(EPServiceProvider epService) {
@@ -39,4 +50,85 @@ public class ExecClientCodegen implements RegressionExecution {
         EventType eventType = epService.getEPAdministrator().getConfiguration().getEventType("MyEvent10Props");
         eventType.getGetter("p0");
     }
+
+    private void runAssertionGroupKeyMultiple(EPServiceProvider epService) {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        String[] fields = "theString,intPrimitive,total".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, intPrimitive, sum(longPrimitive) as total from SupportBean#length(3) group by theString, intPrimitive");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(makeEvent("E1", 1, 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E1", 1, 10L});
+
+        epService.getEPRuntime().sendEvent(makeEvent("E1", 2, 20));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E1", 2, 20L});
+
+        epService.getEPRuntime().sendEvent(makeEvent("E1", 1, 30));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E1", 1, 40L});
+
+        epService.getEPRuntime().sendEvent(makeEvent("E2", 1, 40));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getAndResetLastNewData(), fields, new Object[][]{{"E2", 1, 40L}, {"E1", 1, 30L}});
+
+        stmt.destroy();
+    }
+
+    private void runAssertionResultSetProcessor(EPServiceProvider epService) {
+        for (EventRepresentationChoice rep : new EventRepresentationChoice[]{EventRepresentationChoice.MAP, EventRepresentationChoice.ARRAY}) {
+            tryAssertionRowPerGroup(epService, rep);
+            tryAssertionAggregateGrouped(epService, rep);
+        }
+    }
+
+    private void tryAssertionRowPerGroup(EPServiceProvider epService, EventRepresentationChoice rep) {
+        String[] fields = "theString,total,cnt,cntFiltered,maxLong,lastInt".split(",");
+        String epl = rep.getAnnotationText() + " select theString, sum(intPrimitive) as total, count(*) as cnt, count(*, intPrimitive > 10) as cntFiltered, max(longPrimitive) as maxLong, lastever(intPrimitive) as lastInt " +
+                "from SupportBean#length(3) group by theString having sum(intPrimitive) < 100";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(makeEvent("E1", 10, 5));
+        EventBean event = listener.assertOneGetNewAndReset();
+        assertTrue(rep.matchesClass(event.getUnderlying().getClass()));
+        EPAssertionUtil.assertProps(event, fields, new Object[]{"E1", 10, 1L, 0L, 5L, 10});
+
+        epService.getEPRuntime().sendEvent(makeEvent("E1", 20, 3));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E1", 30, 2L, 1L, 5L, 20});
+
+        epService.getEPRuntime().sendEvent(makeEvent("E2", 90, 1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E2", 90, 1L, 1L, 1L, 90});
+
+        epService.getEPRuntime().sendEvent(makeEvent("E2", 5, 2));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getAndResetLastNewData(), fields, new Object[][]{{"E2", 95, 2L, 1L, 2L, 5}, {"E1", 20, 1L, 1L, 3L, 20}});
+
+        stmt.destroy();
+    }
+
+    private void tryAssertionAggregateGrouped(EPServiceProvider epService, EventRepresentationChoice rep) {
+        String[] fields = "theString,intPrimitive,total,average".split(",");
+        String epl = rep.getAnnotationText() + " select theString, intPrimitive, sum(longPrimitive) as total, avg(intPrimitive) as average from SupportBean#keepall group by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(makeEvent("E1", 10, 5));
+        EventBean event = listener.assertOneGetNewAndReset();
+        assertTrue(rep.matchesClass(event.getUnderlying().getClass()));
+        EPAssertionUtil.assertProps(event, fields, new Object[]{"E1", 10, 5L, 10d});
+
+        epService.getEPRuntime().sendEvent(makeEvent("E1", 20, 7));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E1", 20, 12L, 15d});
+
+        epService.getEPRuntime().sendEvent(makeEvent("E2", 30, 1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E2", 30, 1L, 30d});
+
+        stmt.destroy();
+    }
+
+    private SupportBean makeEvent(String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        return bean;
+    }
 }
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.regression.client;
 
+import com.espertech.esper.client.Configuration;
 import com.espertech.esper.client.EPServiceProvider;
 import com.espertech.esper.client.deploy.*;
 import com.espertech.esper.client.scopetest.EPAssertionUtil;
@@ -29,6 +30,10 @@ import static org.junit.Assert.assertNotNull;
 public class ExecClientDeployAdmin implements RegressionExecution {
     private final static String NEWLINE = System.getProperty("line.separator");
 
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getExecution().setParseCacheSize(100);
+    }
+
     public void run(EPServiceProvider epService) throws Exception {
         runAssertionUserObjectAndStatementNameResolver(epService);
         runAssertionExplicitDeploymentId(epService);
@@ -45,6 +50,9 @@ public class ExecClientDeployAdmin implements RegressionExecution {
         runAssertionFlagValidateOnly(epService);
         runAssertionFlagIsolated(epService);
         runAssertionFlagUndeployNoDestroy(epService);
+        runAssertionFlagParallelParse(epService);
+        runAssertionFlagParallelParseDependent(epService);
+        runAssertionParseCacheScript(epService);
     }
 
     private void runAssertionUserObjectAndStatementNameResolver(EPServiceProvider epService) throws Exception {
@@ -510,6 +518,84 @@ public class ExecClientDeployAdmin implements RegressionExecution {
         assertNotNull(epService.getEPAdministrator().getStatement("S1"));
     }
 
+    private void runAssertionFlagParallelParse(EPServiceProvider epService) throws Exception {
+        undeployRemoveAll(epService);
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+
+        DeploymentOptions options = new DeploymentOptions();
+        options.setParallelParse(true);
+        Module module = makeModule("mymodule.parallel",
+                "@Name('P0') create schema MySchemaParallel (col1 int)",
+                "@Name('P1') select * from MySchemaParallel",
+                "@Name('P2') select theString from SupportBean",
+                "@Name('P3') select theString from SupportBean");
+        DeploymentResult result = epService.getEPAdministrator().getDeploymentAdmin().deploy(module, options);
+        assertEquals(4, result.getStatements().size());
+        EPAssertionUtil.assertEqualsAnyOrder(new String[]{"P0", "P1", "P2", "P3"}, epService.getEPAdministrator().getStatementNames());
+
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().getStatement("P3").addListener(listener);
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertEquals("E1", listener.assertOneGetNewAndReset().get("theString"));
+        epService.getEPAdministrator().getDeploymentAdmin().undeployRemove(result.getDeploymentId());
+
+        // syntax errors are reported as without parallel parse
+        try {
+            epService.getEPAdministrator().getDeploymentAdmin().deploy(makeModule("mymodule.parallelinvalid", "select * from SupportBean", "XX\nX"), options);
+            fail();
+        } catch (DeploymentException ex) {
+            SupportMessageAssertUtil.assertMessage(ex, "Compilation failed in module 'mymodule.parallelinvalid' in expression 'XX X' : Incorrect syntax near 'XX' [");
+        }
+        assertEquals(0, epService.getEPAdministrator().getStatementNames().length);
+    }
+
+    private void runAssertionFlagParallelParseDependent(EPServiceProvider epService) throws Exception {
+        undeployRemoveAll(epService);
+        epService.getEPAdministrator().destroyAllStatements();
+
+        // statements referring to the variable and expression that the module defines compile after these are created
+        DeploymentOptions options = new DeploymentOptions();
+        options.setParallelParse(true);
+        Module module = makeModule("mymodule.paralleldependent",
+                "create variable int myvarparallel = 10",
+                "@Name('V1') select myvarparallel as c0 from SupportBean",
+                "create expression twiceparallel { sb => sb.intPrimitive * 2 }",
+                "@Name('E1') select twiceparallel(sb) as c0 from SupportBean as sb",
+                "@Name('I1') select intPrimitive as c0 from SupportBean",
+                "@Name('I2') select theString as c0 from SupportBean");
+        DeploymentResult result = epService.getEPAdministrator().getDeploymentAdmin().deploy(module, options);
+        assertEquals(6, result.getStatements().size());
+
+        String[] names = "V1,E1,I1,I2".split(",");
+        SupportUpdateListener[] listeners = new SupportUpdateListener[names.length];
+        for (int i = 0; i < names.length; i++) {
+            listeners[i] = new SupportUpdateListener();
+            epService.getEPAdministrator().getStatement(names[i]).addListener(listeners[i]);
+        }
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 5));
+        assertEquals(10, listeners[0].assertOneGetNewAndReset().get("c0"));
+        assertEquals(10, listeners[1].assertOneGetNewAndReset().get("c0"));
+        assertEquals(5, listeners[2].assertOneGetNewAndReset().get("c0"));
+        assertEquals("E1", listeners[3].assertOneGetNewAndReset().get("c0"));
+
+        epService.getEPAdministrator().getDeploymentAdmin().undeployRemove(result.getDeploymentId());
+    }
+
+    private void runAssertionParseCacheScript(EPServiceProvider epService) {
+        epService.getEPAdministrator().destroyAllStatements();
+
+        // walking consumes the scripts of a parse result, a cached parse result provides them for each compile
+        String epl = "@Name('S1') expression double js:twiceScript(num) [ num * 2 ] select twiceScript(intPrimitive) as c0 from SupportBean";
+        for (int i = 0; i < 2; i++) {
+            SupportUpdateListener listener = new SupportUpdateListener();
+            epService.getEPAdministrator().createEPL(epl).addListener(listener);
+            epService.getEPRuntime().sendEvent(new SupportBean("E1", 3));
+            assertEquals(6d, listener.assertOneGetNewAndReset().get("c0"));
+            epService.getEPAdministrator().destroyAllStatements();
+        }
+    }
+
     private Module makeModule(String name, String... statements) {
 
         ModuleItem[] items = new ModuleItem[statements.length];
@@ -0,0 +1,119 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ExecClientSendEvents implements RegressionExecution {
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType("SupportBean", SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType("SupportBean_S0", SupportBean_S0.class);
+
+        runAssertionSendEventsBean(epService);
+        runAssertionSendEventsMap(epService);
+        runAssertionSendEventsObjectArray(epService);
+        runAssertionSendEventsInvalid(epService);
+    }
+
+    private void runAssertionSendEventsBean(EPServiceProvider epService) {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString as c0, intPrimitive as c1 from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select c0, sum(c1) as c1 from MyStream").addListener(listener);
+        SupportUpdateListener listenerTime = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select current_timestamp() as c0, id as c1 from SupportBean_S0").addListener(listenerTime);
+
+        epService.getEPRuntime().sendEvents(new Object[]{
+            new SupportBean("E1", 10), new SupportBean_S0(1), null, new CurrentTimeEvent(1000), new SupportBean("E2", 20), new SupportBean_S0(2)});
+
+        // one dispatch per event
+        assertEquals(2, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "c0,c1".split(","), new Object[][]{{"E1", 10}, {"E2", 30}});
+        EPAssertionUtil.assertPropsPerRow(listenerTime.getNewDataListFlattened(), "c0,c1".split(","), new Object[][]{{0L, 1}, {1000L, 2}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionSendEventsMap(EPServiceProvider epService) {
+        Map<String, Object> type = new HashMap<String, Object>();
+        type.put("id", String.class);
+        type.put("value", int.class);
+        epService.getEPAdministrator().getConfiguration().addEventType("MyMapEvent", type);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select id as c0, sum(value) as c1 from MyMapEvent(value > 0)").addListener(listener);
+
+        List<Map<String, Object>> events = new ArrayList<Map<String, Object>>();
+        events.add(makeMap("E1", 1));
+        events.add(makeMap("E2", -1));
+        events.add(makeMap("E3", 3));
+        epService.getEPRuntime().sendEvents(events, "MyMapEvent");
+        assertEquals(2, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "c0,c1".split(","), new Object[][]{{"E1", 1}, {"E3", 4}});
+
+        epService.getEPRuntime().sendEvents(Collections.<Map<String, Object>>emptyList(), "MyMapEvent");
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionSendEventsObjectArray(EPServiceProvider epService) {
+        epService.getEPAdministrator().getConfiguration().addEventType("MyOAEvent", new String[]{"id", "value"}, new Object[]{String.class, int.class});
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select id as c0, sum(value) as c1 from MyOAEvent").addListener(listener);
+
+        epService.getEPRuntime().sendEvents(new Object[][]{{"E1", 1}, {"E2", 2}}, "MyOAEvent");
+        assertEquals(2, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "c0,c1".split(","), new Object[][]{{"E1", 1}, {"E2", 3}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionSendEventsInvalid(EPServiceProvider epService) {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select * from MyOAEvent").addListener(listener);
+
+        try {
+            epService.getEPRuntime().sendEvents(new Object[][]{{"E1", 1}}, "SupportBean");
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Event type named 'SupportBean' has not been defined or is not a Object-array event type, the name 'SupportBean' refers to a " + SupportBean.class.getName() + " event type", ex.getMessage());
+        }
+
+        // the batch is validated before any event is processed
+        try {
+            epService.getEPRuntime().sendEvents(new Object[][]{{"E1", 1}, null}, "MyOAEvent");
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Invalid null event object", ex.getMessage());
+        }
+        assertEquals(0, listener.getNewDataList().size());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private Map<String, Object> makeMap(String id, int value) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("id", id);
+        map.put("value", value);
+        return map;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExecClientSendEventsCoalesce implements RegressionExecution {
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getThreading().setListenerDispatchBatchCoalesce(true);
+        configuration.addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select theString as c0, sum(intPrimitive) as c1 from SupportBean").addListener(listener);
+        SupportUpdateListener listenerInsert = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("insert into MyStream select theString from SupportBean(intPrimitive > 1)");
+        epService.getEPAdministrator().createEPL("select * from MyStream").addListener(listenerInsert);
+
+        // a single dispatch for the batch delivers the results of all events
+        epService.getEPRuntime().sendEvents(new Object[]{new SupportBean("E1", 1), new SupportBean("E2", 2), new SupportBean("E3", 3)});
+        assertEquals(1, listener.getNewDataList().size());
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "c0,c1".split(","), new Object[][]{{"E1", 1}, {"E2", 3}, {"E3", 6}});
+        EPAssertionUtil.assertPropsPerRow(listenerInsert.getNewDataListFlattened(), "theString".split(","), new Object[][]{{"E2"}, {"E3"}});
+        listener.reset();
+
+        // single events dispatch as before
+        epService.getEPRuntime().sendEvent(new SupportBean("E4", 4));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[]{"E4", 10});
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.snapshot.EPSnapshotDescriptor;
+import com.espertech.esper.client.snapshot.EPSnapshotException;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExecClientSnapshot implements RegressionExecution {
+    private final static String MODULE = "create variable int myvar = 1;\n" +
+            "create constant variable string myconst = 'c';\n" +
+            "create objectarray schema MyEvent(id string, value int);\n" +
+            "create window MyKeepAll#keepall as SupportBean;\n" +
+            "create window MyLength#length(2) as MyEvent;\n" +
+            "create window MyTime#time(10 sec) as SupportBean;\n" +
+            "create window MyUnique#unique(id) as (id string, value int);\n" +
+            "create table MyTable(id string primary key, value int);\n" +
+            "insert into MyKeepAll select * from SupportBean;\n" +
+            "insert into MyLength select theString as id, intPrimitive as value from SupportBean;\n" +
+            "insert into MyTime select * from SupportBean;\n" +
+            "insert into MyUnique select theString as id, intPrimitive as value from SupportBean;\n" +
+            "on SupportBean merge MyTable where id = theString when not matched then insert select theString as id, intPrimitive as value;\n";
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionWriteRestore(epService);
+        runAssertionRestoreAtomic(epService);
+        runAssertionSkipAggregatedTable(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionWriteRestore(EPServiceProvider epService) throws Exception {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().getDeploymentAdmin().parseDeploy(MODULE);
+        epService.getEPRuntime().setVariableValue("myvar", 10);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(5000));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 3));
+        assertState(epService);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EPSnapshotDescriptor written = epService.getEPAdministrator().getSnapshotAdmin().writeSnapshot(out);
+        assertEquals(5000, written.getEngineTime());
+        assertEquals(3, (int) written.getNamedWindowEventCounts().get("MyKeepAll"));
+        assertEquals(2, (int) written.getNamedWindowEventCounts().get("MyLength"));
+        assertEquals(2, (int) written.getNamedWindowEventCounts().get("MyUnique"));
+        assertEquals(2, (int) written.getTableRowCounts().get("MyTable"));
+        assertEquals(Collections.<String, Object>singletonMap("myvar", 10), written.getVariableValues());
+
+        // recreate the engine state from the same module, at an earlier engine time
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getDeploymentAdmin().parseDeploy(MODULE);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select count(*) as cnt from MyKeepAll").addListener(listener);
+
+        EPSnapshotDescriptor restored = epService.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(written.getNamedWindowEventCounts(), restored.getNamedWindowEventCounts());
+        assertEquals(written.getTableRowCounts(), restored.getTableRowCounts());
+        assertEquals(5000, restored.getEngineTime());
+        assertEquals(5000, epService.getEPRuntime().getCurrentTime());
+        assertState(epService);
+        assertEquals(3L, listener.assertOneGetNewAndReset().get("cnt"));
+
+        // restored events are retained by time windows according to their original arrival time
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(9999));
+        assertEquals(3, epService.getEPRuntime().executeQuery("select * from MyTime").getArray().length);
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(10000));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTime").getArray(), "theString,intPrimitive".split(","),
+                new Object[][]{{"E1", 3}});
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(15000));
+        assertEquals(0, epService.getEPRuntime().executeQuery("select * from MyTime").getArray().length);
+
+        // restored windows continue to apply their retention
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 4));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyLength").getArray(), "id,value".split(","),
+                new Object[][]{{"E1", 3}, {"E3", 4}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionRestoreAtomic(EPServiceProvider epService) throws Exception {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().getDeploymentAdmin().parseDeploy(MODULE);
+        epService.getEPRuntime().setVariableValue("myvar", 10);
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(2000));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        epService.getEPAdministrator().getSnapshotAdmin().writeSnapshot(out);
+
+        // the table row conflicts with the snapshot row, which the snapshot stream has after the named window events
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(3000));
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getDeploymentAdmin().parseDeploy(MODULE);
+        epService.getEPRuntime().executeQuery("insert into MyTable select 'E1' as id, 100 as value");
+        try {
+            epService.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(new ByteArrayInputStream(out.toByteArray()));
+            fail();
+        } catch (EPSnapshotException ex) {
+            assertEquals("Table by name 'MyTable' already has a row for primary key 'E1'", ex.getMessage());
+        }
+
+        // no state changed
+        assertEquals(3000, epService.getEPRuntime().getCurrentTime());
+        assertEquals(0, epService.getEPRuntime().executeQuery("select * from MyKeepAll").getArray().length);
+        assertEquals(1, epService.getEPRuntime().getVariableValue("myvar"));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTable").getArray(), "id,value".split(","),
+                new Object[][]{{"E1", 100}});
+
+        // restores once the conflicting row is removed
+        epService.getEPRuntime().executeQuery("delete from MyTable");
+        epService.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(2000, epService.getEPRuntime().getCurrentTime());
+        assertEquals(1, epService.getEPRuntime().executeQuery("select * from MyKeepAll").getArray().length);
+        assertEquals(10, epService.getEPRuntime().getVariableValue("myvar"));
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionSkipAggregatedTable(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().createEPL("create table MyAggTable(cnt count(*))");
+        epService.getEPAdministrator().createEPL("into table MyAggTable select count(*) as cnt from SupportBean");
+        epService.getEPAdministrator().createEPL("create table MyPlainTable(id string primary key)");
+        epService.getEPAdministrator().createEPL("on SupportBean merge MyPlainTable where id = theString when not matched then insert select theString as id");
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EPSnapshotDescriptor written = epService.getEPAdministrator().getSnapshotAdmin().writeSnapshot(out);
+        assertEquals(Collections.singleton("MyAggTable"), written.getSkippedTables());
+        assertEquals(Collections.singletonMap("MyPlainTable", 1), written.getTableRowCounts());
+
+        epService.getEPRuntime().executeQuery("delete from MyPlainTable");
+        EPSnapshotDescriptor restored = epService.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(restored.getSkippedTables().isEmpty());
+        assertEquals(1, epService.getEPRuntime().executeQuery("select * from MyPlainTable").getArray().length);
+        assertEquals(1L, epService.getEPRuntime().executeQuery("select cnt from MyAggTable").getArray()[0].get("cnt"));
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) throws Exception {
+        // not a snapshot
+        try {
+            epService.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+            fail();
+        } catch (EPSnapshotException ex) {
+            // expected
+        }
+
+        // named window that does not exist at restore time
+        EPStatement stmt = epService.getEPAdministrator().createEPL("create window MyWindowInvalid#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindowInvalid select * from SupportBean");
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        epService.getEPAdministrator().getSnapshotAdmin().writeSnapshot(out);
+        epService.getEPAdministrator().destroyAllStatements();
+        assertTrue(stmt.isDestroyed());
+        try {
+            epService.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(new ByteArrayInputStream(out.toByteArray()));
+            fail();
+        } catch (EPSnapshotException ex) {
+            assertEquals("Named window by name 'MyWindowInvalid' has not been declared", ex.getMessage());
+        }
+    }
+
+    private static void assertState(EPServiceProvider epService) {
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyKeepAll").getArray(), "theString,intPrimitive".split(","),
+                new Object[][]{{"E1", 1}, {"E2", 2}, {"E1", 3}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyLength").getArray(), "id,value".split(","),
+                new Object[][]{{"E2", 2}, {"E1", 3}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTime").getArray(), "theString,intPrimitive".split(","),
+                new Object[][]{{"E1", 1}, {"E2", 2}, {"E1", 3}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyUnique").getArray(), "id,value".split(","),
+                new Object[][]{{"E2", 2}, {"E1", 3}});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyTable").getArray(), "id,value".split(","),
+                new Object[][]{{"E1", 1}, {"E2", 2}});
+        assertEquals(10, epService.getEPRuntime().getVariableValue("myvar"));
+    }
+}
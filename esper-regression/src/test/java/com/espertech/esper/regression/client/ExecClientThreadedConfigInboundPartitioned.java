@@ -0,0 +1,170 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.thread.ThreadingService;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ExecClientThreadedConfigInboundPartitioned implements RegressionExecution {
+    private final static int NUM_KEYS = 20;
+    private final static int NUM_EVENTS_PER_KEY = 50;
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        configuration.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        configuration.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(100);
+        configuration.getEngineDefaults().getThreading().setThreadPoolInboundPartitioned(true);
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addEventType("MyMap", Collections.<String, Object>singletonMap("key", String.class));
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionKeyedSegmented(epService);
+        runAssertionHash(epService);
+        runAssertionMapEvents(epService);
+    }
+
+    private void runAssertionKeyedSegmented(EPServiceProvider epService) throws Exception {
+        EPStatement stmtContext = epService.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context SegmentedByString select theString, intPrimitive from SupportBean");
+        assertPerKeyWorker(epService, stmt);
+
+        stmt.destroy();
+        stmtContext.destroy();
+        assertTrue(getThreadingService(epService).getInboundPartitionKeys().isEmpty());
+    }
+
+    private void runAssertionHash(EPServiceProvider epService) throws Exception {
+        EPStatement stmtContext = epService.getEPAdministrator().createEPL("create context HashByString coalesce by consistent_hash_crc32(theString) from SupportBean granularity 16");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context HashByString select theString, intPrimitive from SupportBean");
+        assertPerKeyWorker(epService, stmt);
+
+        stmt.destroy();
+        stmtContext.destroy();
+        assertTrue(getThreadingService(epService).getInboundPartitionKeys().isEmpty());
+    }
+
+    private void runAssertionMapEvents(EPServiceProvider epService) throws Exception {
+        EPStatement stmtContext = epService.getEPAdministrator().createEPL("create context SegmentedByKey partition by key from MyMap");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context SegmentedByKey select key, count(*) as cnt from MyMap");
+        MyThreadRecordingListener listener = new MyThreadRecordingListener("key");
+        stmt.addListener(listener);
+
+        for (int i = 0; i < NUM_EVENTS_PER_KEY; i++) {
+            for (int key = 0; key < NUM_KEYS; key++) {
+                epService.getEPRuntime().sendEvent(Collections.<String, Object>singletonMap("key", "K" + key), "MyMap");
+            }
+        }
+        listener.waitForEvents(NUM_KEYS * NUM_EVENTS_PER_KEY);
+        listener.assertSingleThreadPerKey(NUM_KEYS);
+
+        stmt.destroy();
+        stmtContext.destroy();
+    }
+
+    private void assertPerKeyWorker(EPServiceProvider epService, EPStatement stmt) throws Exception {
+        MyThreadRecordingListener listener = new MyThreadRecordingListener("theString");
+        stmt.addListener(listener);
+
+        for (int i = 0; i < NUM_EVENTS_PER_KEY; i++) {
+            for (int key = 0; key < NUM_KEYS; key++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("K" + key, i));
+            }
+        }
+        listener.waitForEvents(NUM_KEYS * NUM_EVENTS_PER_KEY);
+        listener.assertSingleThreadPerKey(NUM_KEYS);
+
+        // events of the same key processed in the order sent
+        for (List<Integer> values : listener.getValuesPerKey().values()) {
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals(i, (int) values.get(i));
+            }
+        }
+
+        // workers other than the first one are used
+        Set<Thread> threads = new HashSet<Thread>(listener.getThreadPerKey().values());
+        assertTrue(threads.size() > 1);
+
+        ThreadingService threadingService = getThreadingService(epService);
+        assertNull(threadingService.getInboundThreadPool());
+        assertEquals(4, threadingService.getInboundPartitionThreadPools().length);
+    }
+
+    private static ThreadingService getThreadingService(EPServiceProvider epService) {
+        return ((EPServiceProviderSPI) epService).getThreadingService();
+    }
+
+    private static class MyThreadRecordingListener implements UpdateListener {
+        private final String keyProperty;
+        private final Map<Object, Thread> threadPerKey = new HashMap<Object, Thread>();
+        private final Map<Object, List<Integer>> valuesPerKey = new HashMap<Object, List<Integer>>();
+        private final Set<Object> keysMultipleThreads = new HashSet<Object>();
+        private int count;
+
+        private MyThreadRecordingListener(String keyProperty) {
+            this.keyProperty = keyProperty;
+        }
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            for (EventBean event : newEvents) {
+                Object key = event.get(keyProperty);
+                Thread existing = threadPerKey.put(key, Thread.currentThread());
+                if (existing != null && existing != Thread.currentThread()) {
+                    keysMultipleThreads.add(key);
+                }
+                if (event.getEventType().isProperty("intPrimitive")) {
+                    List<Integer> values = valuesPerKey.get(key);
+                    if (values == null) {
+                        values = new ArrayList<Integer>();
+                        valuesPerKey.put(key, values);
+                    }
+                    values.add((Integer) event.get("intPrimitive"));
+                }
+                count++;
+            }
+        }
+
+        private void waitForEvents(int expected) throws InterruptedException {
+            long start = System.currentTimeMillis();
+            while (getCount() < expected) {
+                if (System.currentTimeMillis() - start > 10000) {
+                    fail("Received " + getCount() + " events but expected " + expected);
+                }
+                Thread.sleep(10);
+            }
+        }
+
+        private synchronized void assertSingleThreadPerKey(int numKeys) {
+            assertEquals(numKeys, threadPerKey.size());
+            assertTrue("Keys processed by multiple threads " + keysMultipleThreads, keysMultipleThreads.isEmpty());
+        }
+
+        private synchronized int getCount() {
+            return count;
+        }
+
+        private synchronized Map<Object, Thread> getThreadPerKey() {
+            return threadPerKey;
+        }
+
+        private synchronized Map<Object, List<Integer>> getValuesPerKey() {
+            return valuesPerKey;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.thread.OutboundRingBuffer;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ExecClientThreadedConfigOutboundStatementAffine implements RegressionExecution {
+    private final static int NUM_STATEMENTS = 6;
+    private final static int NUM_EVENTS = 500;
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutbound(true);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutboundNumThreads(3);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutboundCapacity(16);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutboundStatementAffine(true);
+        configuration.getEngineDefaults().getThreading().setThreadPoolOutboundWaitStrategy(ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD);
+        configuration.addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        OutboundRingBuffer[] ringBuffers = ((EPServiceProviderSPI) epService).getThreadingService().getOutboundRingBuffers();
+        assertEquals(3, ringBuffers.length);
+        assertEquals(16, ringBuffers[0].getCapacity());
+        assertNull(((EPServiceProviderSPI) epService).getThreadingService().getOutboundQueue());
+
+        MyOrderRecordingListener[] listeners = new MyOrderRecordingListener[NUM_STATEMENTS];
+        for (int i = 0; i < NUM_STATEMENTS; i++) {
+            listeners[i] = new MyOrderRecordingListener();
+            epService.getEPAdministrator().createEPL("select intPrimitive from SupportBean").addListener(listeners[i]);
+        }
+
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+        }
+
+        Set<Thread> threads = new HashSet<Thread>();
+        for (MyOrderRecordingListener listener : listeners) {
+            listener.waitForEvents(NUM_EVENTS);
+            listener.assertInOrderSingleThread(NUM_EVENTS);
+            threads.add(listener.getThreads().iterator().next());
+        }
+        assertEquals(3, threads.size());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    public static class MyOrderRecordingListener implements UpdateListener {
+        private final List<Integer> values = Collections.synchronizedList(new ArrayList<Integer>());
+        private final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            threads.add(Thread.currentThread());
+            for (EventBean event : newEvents) {
+                values.add((Integer) event.get("intPrimitive"));
+            }
+        }
+
+        public void waitForEvents(int numEvents) throws InterruptedException {
+            long start = System.currentTimeMillis();
+            while (values.size() < numEvents) {
+                if (System.currentTimeMillis() - start > 10000) {
+                    fail("Timeout waiting for events, received " + values.size());
+                }
+                Thread.sleep(10);
+            }
+        }
+
+        public void assertInOrderSingleThread(int numEvents) {
+            assertEquals(1, threads.size());
+            assertEquals(numEvents, values.size());
+            for (int i = 0; i < numEvents; i++) {
+                assertEquals(i, (int) values.get(i));
+            }
+        }
+
+        public Set<Thread> getThreads() {
+            return threads;
+        }
+    }
+}
@@ -142,6 +142,14 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientPriorityAndDropInstructions());
     }
 
+    public void testExecClientSendEvents() {
+        RegressionRunner.run(new ExecClientSendEvents());
+    }
+
+    public void testExecClientSendEventsCoalesce() {
+        RegressionRunner.run(new ExecClientSendEventsCoalesce());
+    }
+
     public void testExecClientSingleRowFunctionPlugIn() {
         RegressionRunner.run(new ExecClientSingleRowFunctionPlugIn());
     }
@@ -150,6 +158,10 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientSolutionPatternPortScan());
     }
 
+    public void testExecClientSnapshot() {
+        RegressionRunner.run(new ExecClientSnapshot());
+    }
+
     public void testExecClientStatementAnnotation() {
         RegressionRunner.run(new ExecClientStatementAnnotation());
     }
@@ -182,6 +194,10 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientThreadedConfigInbound());
     }
 
+    public void testExecClientThreadedConfigInboundPartitioned() {
+        RegressionRunner.run(new ExecClientThreadedConfigInboundPartitioned());
+    }
+
     public void testExecClientThreadedConfigInboundFastShutdown() {
         RegressionRunner.run(new ExecClientThreadedConfigInboundFastShutdown());
     }
@@ -190,6 +206,10 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientThreadedConfigOutbound());
     }
 
+    public void testExecClientThreadedConfigOutboundStatementAffine() {
+        RegressionRunner.run(new ExecClientThreadedConfigOutboundStatementAffine());
+    }
+
     public void testExecClientThreadedConfigRoute() {
         RegressionRunner.run(new ExecClientThreadedConfigRoute());
     }
@@ -0,0 +1,69 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.epl.fromclausemethod;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationMethodRef;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.epl.SupportStaticMethodInvocations;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExecFromClauseMethodPollBatch implements RegressionExecution {
+    public void configure(Configuration configuration) throws Exception {
+        ConfigurationMethodRef methodConfig = new ConfigurationMethodRef();
+        methodConfig.setPollBatchSize(3);
+        configuration.addMethodRef(SupportStaticMethodInvocations.class.getName(), methodConfig);
+        configuration.addImport(SupportStaticMethodInvocations.class.getPackage().getName() + ".*");
+        configuration.addEventType(SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        String epl = "select theString, p00 from SupportBean#length_batch(4) as s1, " +
+                "method:SupportStaticMethodInvocations.fetchObjectPolled(theString) order by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        SupportStaticMethodInvocations.getInvocationSizeReset();
+        SupportStaticMethodInvocations.getBatchInvocationsReset();
+        String[] fields = "theString,p00".split(",");
+
+        // distinct keys of the batch are fetched by a single invocation
+        sendBeanEvents(epService, "E1", "E2", "E1", "E3");
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields,
+                new Object[][]{{"E1", "|E1|"}, {"E1", "|E1|"}, {"E2", "|E2|"}, {"E3", "|E3|"}});
+        assertEquals(Collections.singletonList(3), SupportStaticMethodInvocations.getBatchInvocationsReset());
+        assertEquals(0, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        // more distinct keys than the batch size, and a key without result (the removed events join in one more batch)
+        sendBeanEvents(epService, "E4", "none", "E5", "E6");
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields,
+                new Object[][]{{"E4", "|E4|"}, {"E5", "|E5|"}, {"E6", "|E6|"}});
+        assertEquals(Arrays.asList(3, 3), SupportStaticMethodInvocations.getBatchInvocationsReset());
+        assertEquals(1, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        stmt.destroy();
+    }
+
+    private void sendBeanEvents(EPServiceProvider epService, String... theStrings) {
+        for (String theString : theStrings) {
+            epService.getEPRuntime().sendEvent(new SupportBean(theString, 0));
+        }
+    }
+}
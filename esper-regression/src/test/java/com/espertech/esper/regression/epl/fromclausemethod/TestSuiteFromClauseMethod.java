@@ -38,6 +38,10 @@ public class TestSuiteFromClauseMethod extends TestCase {
         RegressionRunner.run(new ExecFromClauseMethodVariable());
     }
 
+    public void testExecFromClauseMethodPollBatch() {
+        RegressionRunner.run(new ExecFromClauseMethodPollBatch());
+    }
+
     public void testExecFromClauseMethodJoinPerformance() {
         RegressionRunner.run(new ExecFromClauseMethodJoinPerformance());
     }
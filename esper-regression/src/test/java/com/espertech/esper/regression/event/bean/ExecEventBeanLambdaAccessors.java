@@ -0,0 +1,69 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.event.bean;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.event.bean.BeanEventType;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBeanComplexProps;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExecEventBeanLambdaAccessors implements RegressionExecution {
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getEventMeta().setDefaultCodeGeneration(ConfigurationEventTypeLegacy.CodeGeneration.LAMBDA);
+        configuration.addEventType("SupportBeanComplexProps", SupportBeanComplexProps.class);
+        configuration.addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionGetters(epService);
+        runAssertionInsertInto(epService);
+    }
+
+    private void runAssertionGetters(EPServiceProvider epService) {
+        EventType type = epService.getEPAdministrator().getConfiguration().getEventType("SupportBeanComplexProps");
+        assertTrue(((BeanEventType) type).isLambdaAccessors());
+
+        String[] fields = "simpleProperty,nested.nestedValue,nested.nestedNested.nestedNestedValue,indexed[1],mapped('keyOne'),arrayProperty[2],mapProperty('xOne')".split(",");
+        String epl = "select simpleProperty, nested.nestedValue, nested.nestedNested.nestedNestedValue, indexed[1], mapped('keyOne'), arrayProperty[2], mapProperty('xOne') from SupportBeanComplexProps";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        SupportBeanComplexProps bean = SupportBeanComplexProps.makeDefaultBean();
+        epService.getEPRuntime().sendEvent(bean);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields,
+                new Object[]{bean.getSimpleProperty(), bean.getNested().getNestedValue(), bean.getNested().getNestedNested().getNestedNestedValue(),
+                    bean.getIndexed(1), bean.getMapped("keyOne"), bean.getArrayProperty()[2], bean.getMapProperty().get("xOne")});
+
+        stmt.destroy();
+    }
+
+    private void runAssertionInsertInto(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("insert into SupportBean(theString, intPrimitive) select simpleProperty, indexed[0] from SupportBeanComplexProps");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select * from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        SupportBeanComplexProps bean = SupportBeanComplexProps.makeDefaultBean();
+        epService.getEPRuntime().sendEvent(bean);
+        SupportBean result = (SupportBean) listener.assertOneGetNewAndReset().getUnderlying();
+        assertEquals(bean.getSimpleProperty(), result.getTheString());
+        assertEquals(bean.getIndexed(0), result.getIntPrimitive());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+}
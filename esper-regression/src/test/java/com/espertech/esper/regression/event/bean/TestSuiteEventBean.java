@@ -89,6 +89,10 @@ public class TestSuiteEventBean extends TestCase {
         RegressionRunner.run(new ExecEventBeanPropertyIterableMapList());
     }
 
+    public void testExecEventBeanLambdaAccessors() {
+        RegressionRunner.run(new ExecEventBeanLambdaAccessors());
+    }
+
     public void testInvalidConfig() {
         Properties properties = new Properties();
         properties.put("astring", "XXXX");
@@ -0,0 +1,197 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable.infra;
+
+import com.espertech.esper.client.BulkLoadOptions;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.context.SupportSelectorById;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+import com.espertech.esper.supportregression.util.SupportMessageAssertUtil;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ExecNWTableInfraBulkLoad implements RegressionExecution {
+    private static final String[] FIELDS = "pkey0,pkey1,c0".split(",");
+
+    public void run(EPServiceProvider epService) throws Exception {
+        for (Class clazz : new Class[]{SupportBean.class, SupportBean_S0.class}) {
+            epService.getEPAdministrator().getConfiguration().addEventType(clazz);
+        }
+
+        runAssertionLoadIndexed(epService, true);
+        runAssertionLoadIndexed(epService, false);
+        runAssertionLengthWindow(epService);
+        runAssertionContextParallel(epService, true);
+        runAssertionContextParallel(epService, false);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionLoadIndexed(EPServiceProvider epService, boolean namedWindow) {
+        String eplCreate = namedWindow ?
+                "@Name('create') create window MyInfra#keepall as (pkey0 string, pkey1 int, c0 long)" :
+                "@Name('create') create table MyInfra as (pkey0 string primary key, pkey1 int primary key, c0 long)";
+        epService.getEPAdministrator().createEPL(eplCreate);
+        epService.getEPAdministrator().createEPL("create index MyInfraIndexC0 on MyInfra(c0 btree)");
+        epService.getEPAdministrator().createEPL("create index MyInfraIndexP0 on MyInfra(pkey0)");
+
+        SupportUpdateListener listenerCreate = new SupportUpdateListener();
+        epService.getEPAdministrator().getStatement("create").addListener(listenerCreate);
+        SupportUpdateListener listenerConsumer = new SupportUpdateListener();
+        if (namedWindow) {
+            epService.getEPAdministrator().createEPL("select * from MyInfra").addListener(listenerConsumer);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < 10; i++) {
+            rows.add(makeRow("E" + (i % 5), i, i * 100L));
+        }
+        assertEquals(10, epService.getEPRuntime().bulkLoad("MyInfra", rows.iterator()));
+        assertFalse(listenerCreate.isInvoked());
+        assertFalse(listenerConsumer.isInvoked());
+
+        assertFAF(epService, "select * from MyInfra where c0 > 650", new Object[][]{{"E2", 7, 700L}, {"E3", 8, 800L}, {"E4", 9, 900L}});
+        assertFAF(epService, "select * from MyInfra where pkey0 = 'E1'", new Object[][]{{"E1", 1, 100L}, {"E1", 6, 600L}});
+        assertFAF(epService, "select * from MyInfra where c0 between 200 and 300", new Object[][]{{"E2", 2, 200L}, {"E3", 3, 300L}});
+
+        // indexes remain consistent for regular processing after the load
+        epService.getEPRuntime().executeQuery("delete from MyInfra where c0 = 200");
+        epService.getEPRuntime().executeQuery("insert into MyInfra select 'E9' as pkey0, 99 as pkey1, 250L as c0");
+        assertFAF(epService, "select * from MyInfra where c0 between 200 and 300", new Object[][]{{"E9", 99, 250L}, {"E3", 3, 300L}});
+        assertFAF(epService, "select * from MyInfra where pkey0 = 'E2'", new Object[][]{{"E2", 7, 700L}});
+        assertEquals(10L, epService.getEPRuntime().executeQuery("select count(*) as cnt from MyInfra").getArray()[0].get("cnt"));
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyInfra", false);
+    }
+
+    private void runAssertionLengthWindow(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create window MyWindowLen#length(2) as SupportBean");
+        epService.getEPAdministrator().createEPL("create index MyWindowLenIndex on MyWindowLen(theString)");
+        epService.getEPAdministrator().createEPL("insert into MyWindowLen select * from SupportBean");
+        SupportUpdateListener listenerConsumer = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select irstream theString from MyWindowLen").addListener(listenerConsumer);
+        SupportUpdateListener listenerCount = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select count(*) as cnt from MyWindowLen").addListener(listenerCount);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E0", 0));
+        EPAssertionUtil.assertProps(listenerConsumer.assertOneGetNewAndReset(), "theString".split(","), new Object[]{"E0"});
+        assertEquals(1L, listenerCount.assertOneGetNewAndReset().get("cnt"));
+
+        // consumers receive the removal of the event that was in the window before the load, but not the loaded events
+        List<SupportBean> rows = Arrays.asList(new SupportBean("E1", 1), new SupportBean("E2", 2), new SupportBean("E3", 3));
+        assertEquals(3, epService.getEPRuntime().bulkLoad("MyWindowLen", rows.iterator()));
+        assertNull(listenerConsumer.getLastNewData());
+        EPAssertionUtil.assertProps(listenerConsumer.assertOneGetOldAndReset(), "theString".split(","), new Object[]{"E0"});
+        assertEquals(0L, listenerCount.assertOneGetNewAndReset().get("cnt"));
+
+        assertEquals(0, epService.getEPRuntime().executeQuery("select * from MyWindowLen where theString = 'E0'").getArray().length);
+        assertEquals(0, epService.getEPRuntime().executeQuery("select * from MyWindowLen where theString = 'E1'").getArray().length);
+        assertEquals(1, epService.getEPRuntime().executeQuery("select * from MyWindowLen where theString = 'E2'").getArray().length);
+        assertEquals(1, epService.getEPRuntime().executeQuery("select * from MyWindowLen where theString = 'E3'").getArray().length);
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionContextParallel(EPServiceProvider epService, boolean namedWindow) {
+        epService.getEPAdministrator().createEPL("create schema MyRowType (pkey0 string, pkey1 int, c0 long)");
+        epService.getEPAdministrator().createEPL("create context MyContext partition by pkey0 from MyRowType");
+        String eplCreate = namedWindow ?
+                "context MyContext create window MyInfraCtx#keepall as MyRowType" :
+                "context MyContext create table MyInfraCtx as (pkey0 string primary key, pkey1 int primary key, c0 long)";
+        epService.getEPAdministrator().createEPL(eplCreate);
+        for (String key : new String[]{"A", "B", "C"}) {
+            epService.getEPRuntime().sendEvent(makeRow(key, 0, 0L), "MyRowType");
+        }
+
+        List<Map<String, Object>> rows = Arrays.asList(makeRow("E1", 1, 10L), makeRow("E2", 2, 20L));
+        BulkLoadOptions options = new BulkLoadOptions();
+        options.setParallel(true);
+        assertEquals(2, epService.getEPRuntime().bulkLoad("MyInfraCtx", rows.iterator(), options));
+        assertEquals(6, epService.getEPRuntime().executeQuery("select * from MyInfraCtx").getArray().length);
+
+        options.setContextPartitionSelector(new SupportSelectorById(1));
+        assertEquals(1, epService.getEPRuntime().bulkLoad("MyInfraCtx", Collections.singletonList(makeRow("E3", 3, 30L)).iterator(), options));
+        assertEquals(3, epService.getEPRuntime().executeQuery("select * from MyInfraCtx", new SupportSelectorById[]{new SupportSelectorById(1)}).getArray().length);
+        assertEquals(2, epService.getEPRuntime().executeQuery("select * from MyInfraCtx", new SupportSelectorById[]{new SupportSelectorById(2)}).getArray().length);
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyInfraCtx", false);
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyRowType", false);
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create table MyTableInvalid as (pkey0 string primary key, c0 long, cnt count(*))");
+        epService.getEPAdministrator().createEPL("create window MyWindowInvalid#keepall as SupportBean");
+
+        tryInvalid(epService, "Dummy", makeRow("E1", 1, 1L),
+                "A table or named window by name 'Dummy' does not exist");
+        tryInvalid(epService, "MyTableInvalid", makeRow("E1", 1, 1L),
+                "Table 'MyTableInvalid' does not have a non-aggregation column by name 'pkey1'");
+        tryInvalid(epService, "MyTableInvalid", Collections.singletonMap("cnt", 1L),
+                "Table 'MyTableInvalid' does not have a non-aggregation column by name 'cnt'");
+        tryInvalid(epService, "MyTableInvalid", Collections.singletonMap("c0", "x"),
+                "Value of type 'java.lang.String' for column 'c0' of table 'MyTableInvalid' is not assignable to type 'java.lang.Long'");
+        tryInvalid(epService, "MyWindowInvalid", makeRow("E1", 1, 1L),
+                "Row for named window 'MyWindowInvalid' of type 'java.util.HashMap' does not match the underlying type '" + SupportBean.class.getName() + "' of event type 'MyWindowInvalid'");
+
+        // a duplicate primary key fails the load
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        Map<String, Object> row = new HashMap<String, Object>();
+        row.put("pkey0", "E1");
+        row.put("c0", 10);
+        rows.add(row);
+        rows.add(row);
+        try {
+            epService.getEPRuntime().bulkLoad("MyTableInvalid", rows.iterator());
+            fail();
+        } catch (EPException ex) {
+            SupportMessageAssertUtil.assertMessage(ex, "Unique index violation, index 'primary-MyTableInvalid' is a unique index and key 'E1' already exists");
+        }
+        assertEquals(0, epService.getEPRuntime().executeQuery("select * from MyTableInvalid").getArray().length);
+
+        // aggregation columns start with the initial state, numeric values are coerced
+        assertEquals(1, epService.getEPRuntime().bulkLoad("MyTableInvalid", Collections.singletonList(row).iterator()));
+        EventBean result = epService.getEPRuntime().executeQuery("select * from MyTableInvalid").getArray()[0];
+        EPAssertionUtil.assertProps(result, "pkey0,c0,cnt".split(","), new Object[]{"E1", 10L, 0L});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void tryInvalid(EPServiceProvider epService, String name, Object row, String message) {
+        try {
+            epService.getEPRuntime().bulkLoad(name, Collections.singletonList(row).iterator());
+            fail();
+        } catch (EPException ex) {
+            SupportMessageAssertUtil.assertMessage(ex, message);
+        }
+    }
+
+    private static void assertFAF(EPServiceProvider epService, String epl, Object[][] expected) {
+        EventBean[] result = epService.getEPRuntime().executeQuery(epl).getArray();
+        EPAssertionUtil.assertPropsPerRowAnyOrder(result, FIELDS, expected);
+    }
+
+    private static Map<String, Object> makeRow(String pkey0, int pkey1, long c0) {
+        Map<String, Object> row = new HashMap<String, Object>();
+        row.put("pkey0", pkey0);
+        row.put("pkey1", pkey1);
+        row.put("c0", c0);
+        return row;
+    }
+}
@@ -14,6 +14,10 @@ import com.espertech.esper.supportregression.execution.RegressionRunner;
 import junit.framework.TestCase;
 
 public class TestSuiteInfra extends TestCase {
+    public void testExecNWTableInfraBulkLoad() {
+        RegressionRunner.run(new ExecNWTableInfraBulkLoad());
+    }
+
     public void testExecNWTableInfraComparative() {
         RegressionRunner.run(new ExecNWTableInfraComparative());
     }
@@ -0,0 +1,128 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable.namedwindow;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.epl.named.NamedWindowOffHeapEventBean;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_A;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.Map;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExecNamedWindowOffHeap implements RegressionExecution {
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType("SupportBean", SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType("SupportBean_A", SupportBean_A.class);
+        epService.getEPAdministrator().getConfiguration().addEventType("SupportBean_S0", SupportBean_S0.class);
+
+        runAssertionKeepAllMap(epService);
+        runAssertionUniqueObjectArray(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionKeepAllMap(EPServiceProvider epService) {
+        String[] fields = "theString,intPrimitive,longBoxed".split(",");
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("@Hint('enable_window_offheap') create window MyWindowKA#keepall as (theString string, intPrimitive int, longBoxed Long)");
+        SupportUpdateListener listenerWindow = new SupportUpdateListener();
+        stmtWindow.addListener(listenerWindow);
+        epService.getEPAdministrator().createEPL("insert into MyWindowKA select theString, intPrimitive, longBoxed from SupportBean");
+        epService.getEPAdministrator().createEPL("create index MyIndexKA on MyWindowKA(theString)");
+        epService.getEPAdministrator().createEPL("on SupportBean_A delete from MyWindowKA where theString = id");
+        EPStatement stmtSelect = epService.getEPAdministrator().createEPL("on SupportBean_S0 select mw.intPrimitive as c0 from MyWindowKA as mw where theString = p00");
+        SupportUpdateListener listenerSelect = new SupportUpdateListener();
+        stmtSelect.addListener(listenerSelect);
+
+        sendSupportBean(epService, "E1", 10, 100L);
+        sendSupportBean(epService, "E2", 20, null);
+        listenerWindow.reset();
+        sendSupportBean(epService, "E3", 30, 300L);
+        EventBean received = listenerWindow.assertOneGetNewAndReset();
+        assertTrue(received instanceof NamedWindowOffHeapEventBean);
+        assertTrue(received.getUnderlying() instanceof Map);
+        EPAssertionUtil.assertProps(received, fields, new Object[]{"E3", 30, 300L});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E1", 10, 100L}, {"E2", 20, null}, {"E3", 30, 300L}});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E2"));
+        assertEquals(20, listenerSelect.assertOneGetNewAndReset().get("c0"));
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E2"));
+        EPAssertionUtil.assertProps(listenerWindow.assertOneGetOldAndReset(), fields, new Object[]{"E2", 20, null});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E1", 10, 100L}, {"E3", 30, 300L}});
+
+        EventBean[] result = epService.getEPRuntime().executeQuery("select * from MyWindowKA where theString = 'E3'").getArray();
+        EPAssertionUtil.assertPropsPerRow(result, fields, new Object[][]{{"E3", 30, 300L}});
+
+        epService.getEPRuntime().executeQuery("insert into MyWindowKA select 'E4' as theString, 40 as intPrimitive");
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E1", 10, 100L}, {"E3", 30, 300L}, {"E4", 40, null}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionUniqueObjectArray(EPServiceProvider epService) {
+        String[] fields = "theString,intPrimitive,doublePrimitive".split(",");
+        epService.getEPAdministrator().createEPL("create objectarray schema MyEventOA(theString string, intPrimitive int, doublePrimitive double)");
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("@Hint('enable_window_offheap') create window MyWindowUQ#unique(theString) as MyEventOA");
+        SupportUpdateListener listenerWindow = new SupportUpdateListener();
+        stmtWindow.addListener(listenerWindow);
+        epService.getEPAdministrator().createEPL("insert into MyWindowUQ select theString, intPrimitive, doublePrimitive from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_A update MyWindowUQ set intPrimitive = intPrimitive * 100 where theString = id");
+        EPStatement stmtConsumer = epService.getEPAdministrator().createEPL("select sum(intPrimitive) as c0 from MyWindowUQ");
+        SupportUpdateListener listenerConsumer = new SupportUpdateListener();
+        stmtConsumer.addListener(listenerConsumer);
+
+        sendSupportBean(epService, "E1", 1, 0L);
+        listenerWindow.reset();
+        sendSupportBean(epService, "E2", 2, 0L);
+        EventBean received = listenerWindow.assertOneGetNewAndReset();
+        assertTrue(received instanceof NamedWindowOffHeapEventBean);
+        assertTrue(received.getUnderlying() instanceof Object[]);
+        assertEquals(3, listenerConsumer.getAndResetLastNewData()[0].get("c0"));
+
+        sendSupportBean(epService, "E1", 5, 0L);
+        EPAssertionUtil.assertProps(listenerWindow.getLastNewData()[0], fields, new Object[]{"E1", 5, 1.5d});
+        EPAssertionUtil.assertProps(listenerWindow.getAndResetLastOldData()[0], fields, new Object[]{"E1", 1, 1.5d});
+        assertEquals(7, listenerConsumer.getAndResetLastNewData()[0].get("c0"));
+
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E2"));
+        EPAssertionUtil.assertProps(listenerWindow.getLastNewData()[0], fields, new Object[]{"E2", 200, 1.5d});
+        EPAssertionUtil.assertProps(listenerWindow.getAndResetLastOldData()[0], fields, new Object[]{"E2", 2, 1.5d});
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmtWindow.iterator(), fields, new Object[][]{{"E1", 5, 1.5d}, {"E2", 200, 1.5d}});
+        assertEquals(205, listenerConsumer.getAndResetLastNewData()[0].get("c0"));
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        tryInvalid(epService, "@Hint('enable_window_offheap') create window MyWindowInv#keepall as SupportBean",
+                "Error starting statement: Off-heap storage requires a Map or object-array event type for the named window [");
+        tryInvalid(epService, "@Hint('enable_window_offheap') create window MyWindowInvTime#time(10) as (theString string)",
+                "Error starting statement: Off-heap storage requires a single keep-all or unique data window [");
+        tryInvalid(epService, "@Hint('enable_window_offheap') create window MyWindowInvProp#keepall as (bean SupportBean)",
+                "Error starting statement: Off-heap storage does not support property 'bean'");
+    }
+
+    private static void sendSupportBean(EPServiceProvider epService, String theString, int intPrimitive, Long longBoxed) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongBoxed(longBoxed);
+        bean.setDoublePrimitive(1.5d);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
@@ -95,6 +95,10 @@ public class TestSuiteNamedWindow extends TestCase {
         RegressionRunner.run(new ExecNamedWindowViews());
     }
 
+    public void testExecNamedWindowOffHeap() {
+        RegressionRunner.run(new ExecNamedWindowOffHeap());
+    }
+
     public void testExecNamedWindowPerformance() {
         RegressionRunner.run(new ExecNamedWindowPerformance());
     }
@@ -0,0 +1,102 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable.tbl;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPOnDemandQueryResult;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExecTableFAFColumnar implements RegressionExecution {
+    private static final String[] QUERIES = new String[]{
+        "select count(*) as c0, count(intBoxed) as c1, sum(intBoxed) as c2, avg(longPrimitive) as c3, min(doubleBoxed) as c4, max(floatPrimitive) as c5, sum(shortPrimitive) as c6 from TABLE",
+        "select sum(doubleBoxed) as c0, sum(floatPrimitive) as c1, avg(intBoxed) as c2, max(longPrimitive) as c3, min(shortPrimitive) as c4 from TABLE where intBoxed > 10 and doubleBoxed <= 50.5",
+        "select sum(longPrimitive), min(intBoxed), max(id) from TABLE where 5 < id and longPrimitive != 3",
+        "select count(*) as c0, sum(intBoxed) as c1 from TABLE where intBoxed = 20.0",
+        "select count(*) as c0, min(doubleBoxed) as c1 from TABLE where doubleBoxed < 0",
+        "select count(*) as c0, max(intBoxed) as c1 from TABLE where id = 5",
+        "select id, theString, total from TABLE where intBoxed >= 20 and id < 150 order by id",
+        "select * from TABLE where doubleBoxed = 25 or intBoxed = 3 order by id",
+        "select theString, sum(longPrimitive) as c0 from TABLE where floatPrimitive > 7 group by theString order by theString",
+    };
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+        configuration.addEventType(SupportBean_S0.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        for (String table : new String[]{"ColTbl", "PlainTbl"}) {
+            String hint = table.equals("ColTbl") ? "@Hint('table_columnar') " : "";
+            epService.getEPAdministrator().createEPL(hint + "create table " + table + " (id int primary key, theString string, intBoxed int, longPrimitive long, " +
+                    "doubleBoxed double, floatPrimitive float, shortPrimitive short, total sum(int))");
+            epService.getEPAdministrator().createEPL("insert into " + table + " select intPrimitive as id, theString, intBoxed, longPrimitive, doubleBoxed, floatPrimitive, shortPrimitive from SupportBean");
+            epService.getEPAdministrator().createEPL("into table " + table + " select sum(id) as total from SupportBean_S0 group by id");
+        }
+
+        for (int i = 0; i < 200; i++) {
+            SupportBean bean = new SupportBean("G" + (i % 7), i);
+            bean.setIntBoxed(i % 5 == 0 ? null : i % 40);
+            bean.setLongPrimitive(i % 9);
+            bean.setDoubleBoxed(i % 6 == 0 ? null : (i % 50) * 0.5 - 3);
+            bean.setFloatPrimitive(i % 17);
+            bean.setShortPrimitive((short) (i % 11));
+            epService.getEPRuntime().sendEvent(bean);
+            if (i % 3 == 0) {
+                epService.getEPRuntime().sendEvent(new SupportBean_S0(i));
+            }
+        }
+        // rows created by into-table have null plain columns
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(500));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(501));
+        assertQueries(epService);
+
+        // updates of plain columns, of the primary key, and deletes
+        for (String table : new String[]{"ColTbl", "PlainTbl"}) {
+            epService.getEPRuntime().executeQuery("update " + table + " set intBoxed = 99, doubleBoxed = null where id < 10");
+            epService.getEPRuntime().executeQuery("update " + table + " set id = 1000 where id = 12");
+            epService.getEPRuntime().executeQuery("delete from " + table + " where id between 50 and 80");
+        }
+        assertQueries(epService);
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select count(*) as c0, max(intBoxed) as c1, max(id) as c2 from ColTbl where id > 0");
+        EPAssertionUtil.assertProps(result.getArray()[0], "c0,c1,c2".split(","), new Object[]{170L, 99, 1000});
+
+        // empty table
+        for (String table : new String[]{"ColTbl", "PlainTbl"}) {
+            epService.getEPRuntime().executeQuery("delete from " + table);
+        }
+        assertQueries(epService);
+        result = epService.getEPRuntime().executeQuery("select count(*) as c0, sum(intBoxed) as c1 from ColTbl where id > 0");
+        EPAssertionUtil.assertProps(result.getArray()[0], "c0,c1".split(","), new Object[]{0L, null});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void assertQueries(EPServiceProvider epService) {
+        for (String query : QUERIES) {
+            EPOnDemandQueryResult expected = epService.getEPRuntime().executeQuery(query.replace("TABLE", "PlainTbl"));
+            EPOnDemandQueryResult received = epService.getEPRuntime().executeQuery(query.replace("TABLE", "ColTbl"));
+            String[] fields = expected.getEventType().getPropertyNames();
+            EPAssertionUtil.assertEqualsExactOrder(fields, received.getEventType().getPropertyNames());
+            assertEquals(query, expected.getArray().length, received.getArray().length);
+            for (int i = 0; i < expected.getArray().length; i++) {
+                for (String field : fields) {
+                    assertEquals(query + " field " + field, expected.getArray()[i].get(field), received.getArray()[i].get(field));
+                }
+            }
+        }
+    }
+}
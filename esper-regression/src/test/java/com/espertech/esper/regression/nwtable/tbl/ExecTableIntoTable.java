@@ -33,6 +33,24 @@ public class ExecTableIntoTable implements RegressionExecution {
 
         runAssertionIntoTableWindowSortedFromJoin(epService);
         runAssertionBoundUnbound(epService);
+        runAssertionLockStripesReadSameTable(epService);
+    }
+
+    private void runAssertionLockStripesReadSameTable(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("@Hint('table_lock_stripes=4') create table MyTableStriped(key string primary key, total sum(int))");
+        epService.getEPAdministrator().createEPL("into table MyTableStriped " +
+                "select sum(intPrimitive + coalesce((select total from MyTableStriped as mt where mt.key = sb.theString), 0)) as total " +
+                "from SupportBean as sb group by theString");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 5));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 20));
+
+        EPOnDemandQueryResult result = epService.getEPRuntime().executeQuery("select key, total from MyTableStriped order by key");
+        EPAssertionUtil.assertPropsPerRow(result.getArray(), "key,total".split(","),
+                new Object[][]{{"E1", 40}, {"E2", 5}});
+
+        epService.getEPAdministrator().destroyAllStatements();
     }
 
     private void runAssertionIntoTableWindowSortedFromJoin(EPServiceProvider epService) {
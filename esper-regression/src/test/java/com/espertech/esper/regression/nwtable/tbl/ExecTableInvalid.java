@@ -196,6 +196,16 @@ public class ExecTableInvalid implements RegressionExecution {
         // unknown type provided
         SupportMessageAssertUtil.tryInvalid(epService, "create table v1 (abc window(*) @type(xx))",
                 "Error starting statement: For column 'abc' failed to find event type 'xx' [");
+
+        // lock stripes require a primary key and a positive number of stripes
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('table_lock_stripes=4') create table v1 (total count(*))",
+                "Error starting statement: Hint 'TABLE_LOCK_STRIPES' requires a table that has primary key columns [");
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('table_lock_stripes=x') create table v1 (key string primary key, total count(*))",
+                "Error starting statement: Hint 'TABLE_LOCK_STRIPES' requires a positive integer value but received 'x' [");
+
+        // columnar tables require a primary key
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('table_columnar') create table v1 (total count(*))",
+                "Error starting statement: Hint 'TABLE_COLUMNAR' requires a table that has primary key columns [");
     }
 
     private void runAssertionInvalid(EPServiceProvider epService) {
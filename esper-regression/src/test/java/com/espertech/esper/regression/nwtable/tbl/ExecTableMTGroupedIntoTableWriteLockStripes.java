@@ -0,0 +1,166 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable.tbl;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExecTableMTGroupedIntoTableWriteLockStripes implements RegressionExecution {
+    private static final Logger log = LoggerFactory.getLogger(ExecTableMTGroupedIntoTableWriteLockStripes.class);
+
+    private static final int NUM_KEYS = 100;
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+        configuration.addEventType(SupportBean_S0.class);
+    }
+
+    /**
+     * Table:
+     * create table varTotal (key string primary key, total sum(int), cnt count(*)) with row lock stripes.
+     * <p>
+     * For a given number of events
+     * - Configurable number of into-writers update rows of a shared key space, creating rows as they go.
+     * - Single reader reads rows and asserts that the columns of a row are consistent.
+     * At the end of the test we read all rows and assert.
+     */
+    public void run(EPServiceProvider epService) throws Exception {
+        tryMT(epService, 4, 10000);
+    }
+
+    private void tryMT(EPServiceProvider epService, int numWriters, int numEvents) throws Exception {
+        String epl =
+                "@Hint('table_lock_stripes=16') create table varTotal (key string primary key, total sum(int), cnt count(*));\n" +
+                        "into table varTotal select sum(intPrimitive) as total, count(*) as cnt from SupportBean group by theString;\n" +
+                        "@Name('listen') select varTotal[p00] as c0 from SupportBean_S0;\n";
+        epService.getEPAdministrator().getDeploymentAdmin().parseDeploy(epl);
+
+        Thread[] threads = new Thread[numWriters + 1];
+        WriteRunnable[] writers = new WriteRunnable[numWriters];
+        for (int i = 0; i < numWriters; i++) {
+            writers[i] = new WriteRunnable(epService, numEvents, i);
+            threads[i] = new Thread(writers[i]);
+        }
+        ReadRunnable reader = new ReadRunnable(epService, numEvents);
+        threads[numWriters] = new Thread(reader);
+
+        // start
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        // join
+        log.info("Waiting for completion");
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (WriteRunnable writer : writers) {
+            assertNull(writer.getException());
+        }
+        assertNull(reader.getException());
+
+        // verify
+        EventBean[] rows = epService.getEPRuntime().executeQuery("select * from varTotal").getArray();
+        assertEquals(NUM_KEYS, rows.length);
+        long count = 0;
+        for (EventBean row : rows) {
+            long cnt = (Long) row.get("cnt");
+            assertEquals(cnt * 10, ((Integer) row.get("total")).longValue());
+            count += cnt;
+        }
+        assertEquals(numWriters * numEvents, count);
+    }
+
+    public static class WriteRunnable implements Runnable {
+
+        private final EPServiceProvider epService;
+        private final int numEvents;
+        private final int threadNum;
+        private RuntimeException exception;
+
+        public WriteRunnable(EPServiceProvider epService, int numEvents, int threadNum) {
+            this.epService = epService;
+            this.numEvents = numEvents;
+            this.threadNum = threadNum;
+        }
+
+        public void run() {
+            log.info("Started event send for write");
+
+            try {
+                for (int i = 0; i < numEvents; i++) {
+                    epService.getEPRuntime().sendEvent(new SupportBean("K" + ((i + threadNum) % NUM_KEYS), 10));
+                }
+            } catch (RuntimeException ex) {
+                log.error("Exception encountered: " + ex.getMessage(), ex);
+                exception = ex;
+            }
+
+            log.info("Completed event send for write");
+        }
+
+        public RuntimeException getException() {
+            return exception;
+        }
+    }
+
+    public static class ReadRunnable implements Runnable {
+
+        private final EPServiceProvider epService;
+        private final int numEvents;
+        private RuntimeException exception;
+
+        public ReadRunnable(EPServiceProvider epService, int numEvents) {
+            this.epService = epService;
+            this.numEvents = numEvents;
+        }
+
+        public void run() {
+            log.info("Started event send for read");
+            SupportUpdateListener listener = new SupportUpdateListener();
+            epService.getEPAdministrator().getStatement("listen").addListener(listener);
+
+            try {
+                for (int i = 0; i < numEvents; i++) {
+                    epService.getEPRuntime().sendEvent(new SupportBean_S0(0, "K" + (i % NUM_KEYS)));
+                    Map<String, Object> row = (Map<String, Object>) listener.assertOneGetNewAndReset().get("c0");
+                    if (row != null) {
+                        assertEquals(((Long) row.get("cnt")) * 10, ((Integer) row.get("total")).longValue());
+                    }
+                }
+            } catch (RuntimeException ex) {
+                log.error("Exception encountered: " + ex.getMessage(), ex);
+                exception = ex;
+            } catch (AssertionError ex) {
+                log.error("Assertion failed: " + ex.getMessage(), ex);
+                exception = new RuntimeException(ex);
+            }
+
+            log.info("Completed event send for read");
+        }
+
+        public RuntimeException getException() {
+            return exception;
+        }
+    }
+}
@@ -47,6 +47,10 @@ public class TestSuiteTable extends TestCase {
         RegressionRunner.run(new ExecTableFAFExecuteQuery());
     }
 
+    public void testExecTableFAFColumnar() {
+        RegressionRunner.run(new ExecTableFAFColumnar());
+    }
+
     public void testExecTableFilters() {
         RegressionRunner.run(new ExecTableFilters());
     }
@@ -135,6 +139,10 @@ public class TestSuiteTable extends TestCase {
         RegressionRunner.run(new ExecTableMTGroupedFAFReadFAFWriteChain());
     }
 
+    public void testExecTableMTGroupedIntoTableWriteLockStripes() {
+        RegressionRunner.run(new ExecTableMTGroupedIntoTableWriteLockStripes());
+    }
+
     public void testExecTableMTGroupedJoinReadMergeWriteSecondaryIndexUpd() {
         RegressionRunner.run(new ExecTableMTGroupedJoinReadMergeWriteSecondaryIndexUpd());
     }
@@ -0,0 +1,169 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.pattern;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.FilterServiceSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ExecPatternFilterIndex implements RegressionExecution {
+    private static final String HINT = "@Hint('enable_pattern_filter_index') ";
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addEventType("SupportBean_S0", SupportBean_S0.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionFollowedBy(epService);
+        runAssertionEveryFilter(epService);
+        runAssertionCoercion(epService);
+        runAssertionNullKey(epService);
+        runAssertionSameTypeNotIndexed(epService);
+    }
+
+    private void runAssertionFollowedBy(EPServiceProvider epService) {
+        FilterServiceSPI filterService = (FilterServiceSPI) ((EPServiceProviderSPI) epService).getFilterService();
+        int countBefore = filterService.getFilterCountApprox();
+
+        String[] fields = "a.p00,b.intPrimitive".split(",");
+        String pattern = "select * from pattern[every a=SupportBean_S0 -> b=SupportBean(intPrimitive=a.id, theString='X')]";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(HINT + pattern);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        EPStatement stmtPlain = epService.getEPAdministrator().createEPL(pattern);
+        SupportUpdateListener listenerPlain = new SupportUpdateListener();
+        stmtPlain.addListener(listenerPlain);
+
+        long versionBefore = filterService.getFiltersVersion();
+        for (int i = 0; i < 100; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S0(i % 10, "S0_" + i));
+        }
+        // hinted: one shared filter added, plain: one filter added per waiting sub-expression
+        assertEquals(1 + 100, filterService.getFiltersVersion() - versionBefore);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("Y", 1));
+        assertFalse(listener.isInvoked() || listenerPlain.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportBean("X", 1));
+        Object[][] expected = new Object[10][];
+        for (int i = 0; i < 10; i++) {
+            expected[i] = new Object[]{"S0_" + (i * 10 + 1), 1};
+        }
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields, expected);
+        EPAssertionUtil.assertPropsPerRow(listenerPlain.getAndResetLastNewData(), fields, expected);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("X", 1));
+        assertFalse(listener.isInvoked() || listenerPlain.isInvoked());
+
+        for (int i = 0; i < 10; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("X", i));
+        }
+        assertEquals(90, listener.getNewDataListFlattened().length);
+        assertEquals(90, listenerPlain.getNewDataListFlattened().length);
+        listener.reset();
+        listenerPlain.reset();
+
+        // hinted: the shared filter was removed once, plain: each filter was removed
+        assertEquals(2 * (1 + 100), filterService.getFiltersVersion() - versionBefore);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(5, "S0_A"));
+        stmt.destroy();
+        stmtPlain.destroy();
+        assertEquals(countBefore, filterService.getFilterCountApprox());
+    }
+
+    private void runAssertionEveryFilter(EPServiceProvider epService) {
+        String[] fields = "a.p00,b.theString".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL(HINT + "select * from pattern[every a=SupportBean_S0 -> every b=SupportBean(intPrimitive=a.id)]");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "A1"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2, "A2"));
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B1", 1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A1", "B1"});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B2", 1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A1", "B2"});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B3", 2));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A2", "B3"});
+
+        stmt.destroy();
+    }
+
+    private void runAssertionCoercion(EPServiceProvider epService) {
+        String[] fields = "a.p00,b.theString".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL(HINT + "select * from pattern[every a=SupportBean_S0 -> b=SupportBean(longPrimitive=a.id)]");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(10, "A1"));
+        epService.getEPRuntime().sendEvent(makeBean("B1", 11));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(makeBean("B2", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A1", "B2"});
+
+        stmt.destroy();
+    }
+
+    private void runAssertionNullKey(EPServiceProvider epService) {
+        String[] fields = "a.id,b.intPrimitive".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL(HINT + "select * from pattern[every a=SupportBean_S0 -> b=SupportBean(theString=a.p00)]");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, null));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2, "E1"));
+        epService.getEPRuntime().sendEvent(new SupportBean(null, 10));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 11));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{2, 11});
+
+        stmt.destroy();
+    }
+
+    private void runAssertionSameTypeNotIndexed(EPServiceProvider epService) {
+        // a SupportBean event that starts the sub-expression must not match the sub-expression it started
+        String[] fields = "a.theString,b.theString".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL(HINT + "select * from pattern[every a=SupportBean -> b=SupportBean(intPrimitive=a.intPrimitive)]");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"E1", "E2"});
+
+        stmt.destroy();
+    }
+
+    private SupportBean makeBean(String theString, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, 0);
+        bean.setLongPrimitive(longPrimitive);
+        return bean;
+    }
+}
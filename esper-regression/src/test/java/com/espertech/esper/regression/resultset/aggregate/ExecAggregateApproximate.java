@@ -0,0 +1,134 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.resultset.aggregate;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExecAggregateApproximate implements RegressionExecution {
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+        configuration.addEventType(SupportBean_S0.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionGrouped(epService);
+        runAssertionRollup(epService);
+        runAssertionTable(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionGrouped(EPServiceProvider epService) {
+        String epl = "select theString, " +
+                "approxCountDistinct(intPrimitive) as c0, " +
+                "approxPercentile(intPrimitive,50) as c1, " +
+                "approxPercentiles(intPrimitive,10,90) as c2, " +
+                "approxCountDistinct(intPrimitive,filter:intPrimitive>1) as c3 " +
+                "from SupportBean group by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        assertEquals(Long.class, stmt.getEventType().getPropertyType("c0"));
+        assertEquals(Double[].class, stmt.getEventType().getPropertyType("c2"));
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        runAssertionGroupedValues(epService, listener);
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        assertEquals(epl, model.toEPL());
+        stmt = epService.getEPAdministrator().create(model);
+        stmt.addListener(listener);
+
+        runAssertionGroupedValues(epService, listener);
+
+        stmt.destroy();
+    }
+
+    private void runAssertionGroupedValues(EPServiceProvider epService, SupportUpdateListener listener) {
+        String[] fields = "theString,c0,c1,c2,c3".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A", 1L, 1d, new Double[]{1d, 1d}, 0L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 2));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A", 2L, 1.5d, new Double[]{1d, 2d}, 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 2));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A", 2L, 2d, new Double[]{1d, 2d}, 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 5));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"B", 1L, 5d, new Double[]{5d, 5d}, 1L});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 3));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A", 3L, 2d, new Double[]{1d, 3d}, 2L});
+    }
+
+    private void runAssertionRollup(EPServiceProvider epService) {
+        String[] fields = "theString,c0".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, approxCountDistinct(intPrimitive) as c0 from SupportBean group by rollup(theString)");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 3));
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 2));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields, new Object[][]{{"A", 2L}, {null, 3L}});
+
+        stmt.destroy();
+    }
+
+    private void runAssertionTable(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create table MyApproxTable(cd approxCountDistinct(int), p approxPercentile(int, 50))");
+        epService.getEPAdministrator().createEPL("into table MyApproxTable select approxCountDistinct(intPrimitive) as cd, approxPercentile(intPrimitive, 50) as p from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select MyApproxTable.cd as c0, MyApproxTable.p as c1 from SupportBean_S0");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        for (int i = 0; i < 10000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E", i % 1000));
+        }
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1));
+        EventBean event = listener.assertOneGetNewAndReset();
+        long distinct = (Long) event.get("c0");
+        double median = (Double) event.get("c1");
+        assertTrue("distinct count " + distinct, Math.abs(distinct - 1000) <= 50);
+        assertTrue("median " + median, Math.abs(median - 499.5) <= 10);
+
+        tryInvalid(epService, "into table MyApproxTable select approxCountDistinct(intPrimitive, 14) as cd from SupportBean",
+                "Error starting statement: Incompatible aggregation function for table 'MyApproxTable' column 'cd', expecting 'approxCountDistinct(int)' and received 'approxCountDistinct(intPrimitive,14)': The precision is 12 and provided is 14 [into table MyApproxTable select approxCountDistinct(intPrimitive, 14) as cd from SupportBean]");
+        tryInvalid(epService, "into table MyApproxTable select percentile(intPrimitive, 50) as p from SupportBean",
+                "Error starting statement: Incompatible aggregation function for table 'MyApproxTable' column 'p', expecting 'approxPercentile(int,50)' and received 'percentile(intPrimitive,50)': Not a 'approxPercentile' aggregation [into table MyApproxTable select percentile(intPrimitive, 50) as p from SupportBean]");
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        tryInvalid(epService, "select approxCountDistinct(intPrimitive) from SupportBean#length(2)",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive)': The 'approxCountDistinct' aggregation function does not support removing values and cannot be used with a data window [select approxCountDistinct(intPrimitive) from SupportBean#length(2)]");
+        tryInvalid(epService, "select approxPercentile(distinct intPrimitive, 50) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(distinct intPrimit...(42 chars)': The approxPercentile aggregation function does not support distinct values [select approxPercentile(distinct intPrimitive, 50) from SupportBean]");
+        tryInvalid(epService, "select approxCountDistinct(intPrimitive, 20) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive,20)': The approxCountDistinct aggregation function requires a precision between 4 and 16 but received 20 [select approxCountDistinct(intPrimitive, 20) from SupportBean]");
+    }
+}
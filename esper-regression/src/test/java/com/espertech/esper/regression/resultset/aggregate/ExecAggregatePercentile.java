@@ -0,0 +1,117 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.resultset.aggregate;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
+import static org.junit.Assert.assertEquals;
+
+public class ExecAggregatePercentile implements RegressionExecution {
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+        configuration.addEventType(SupportBean_S0.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionPercentile(epService);
+        runAssertionTable(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionPercentile(EPServiceProvider epService) {
+        String epl = "select " +
+                "percentile(intPrimitive,50) as p50, " +
+                "percentiles(intPrimitive,25,75) as ps, " +
+                "percentile(intPrimitive,50,filter:theString=\"A\") as pf " +
+                "from SupportBean#length(4)";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        assertEquals(Double.class, stmt.getEventType().getPropertyType("p50"));
+        assertEquals(Double[].class, stmt.getEventType().getPropertyType("ps"));
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        runAssertionValues(epService, listener);
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        assertEquals(epl, model.toEPL());
+        stmt = epService.getEPAdministrator().create(model);
+        stmt.addListener(listener);
+
+        runAssertionValues(epService, listener);
+
+        stmt.destroy();
+    }
+
+    private void runAssertionValues(EPServiceProvider epService, SupportUpdateListener listener) {
+        String[] fields = "p50,ps,pf".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{10d, new Double[]{10d, 10d}, 10d});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 20));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{15d, new Double[]{12.5d, 17.5d}, 10d});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 30));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{20d, new Double[]{15d, 25d}, 20d});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 40));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{25d, new Double[]{17.5d, 32.5d}, 20d});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 0));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{25d, new Double[]{15d, 32.5d}, 30d});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 50));
+        listener.reset();
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 60));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{45d, new Double[]{30d, 52.5d}, null});
+    }
+
+    private void runAssertionTable(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create table MyPercentileTable(p90 percentile(int, 90), ps percentiles(int, 10, 50))");
+        epService.getEPAdministrator().createEPL("into table MyPercentileTable select percentile(intPrimitive, 90) as p90, percentiles(intPrimitive, 10, 50) as ps from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select MyPercentileTable.p90 as c0, MyPercentileTable.ps as c1 from SupportBean_S0");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        for (int i = 1; i <= 11; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i * 10));
+        }
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[]{100d, new Double[]{20d, 60d}});
+
+        tryInvalid(epService, "into table MyPercentileTable select percentile(intPrimitive, 95) as p90 from SupportBean",
+                "Error starting statement: Incompatible aggregation function for table 'MyPercentileTable' column 'p90', expecting 'percentile(int,90)' and received 'percentile(intPrimitive,95)': The percentiles are [90.0] and provided are [95.0] [into table MyPercentileTable select percentile(intPrimitive, 95) as p90 from SupportBean]");
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        tryInvalid(epService, "select percentile(intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(intPrimitive)': The percentile aggregation function requires two parameters, an expression returning aggregation values and a percentile constant [select percentile(intPrimitive) from SupportBean]");
+        tryInvalid(epService, "select percentiles(intPrimitive, intBoxed) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentiles(intPrimitive,intBoxed)': The percentiles aggregation function requires an expression returning aggregation values and one or more percentile constants [select percentiles(intPrimitive, intBoxed) from SupportBean]");
+        tryInvalid(epService, "select percentile(intPrimitive, 101) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(intPrimitive,101)': The percentile aggregation function requires a percentile constant between 0 and 100 but received 101 [select percentile(intPrimitive, 101) from SupportBean]");
+        tryInvalid(epService, "select percentile(theString, 50) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(theString,50)': Implicit conversion from datatype 'String' to numeric is not allowed for aggregation function 'percentile' [select percentile(theString, 50) from SupportBean]");
+    }
+}
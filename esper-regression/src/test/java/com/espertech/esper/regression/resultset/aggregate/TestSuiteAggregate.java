@@ -58,6 +58,10 @@ public class TestSuiteAggregate extends TestCase {
         RegressionRunner.run(new ExecAggregateFirstEverLastEver());
     }
 
+    public void testExecAggregateApproximate() {
+        RegressionRunner.run(new ExecAggregateApproximate());
+    }
+
     public void testExecAggregateCount() {
         RegressionRunner.run(new ExecAggregateCount());
     }
@@ -74,6 +78,10 @@ public class TestSuiteAggregate extends TestCase {
         RegressionRunner.run(new ExecAggregateMedianAndDeviation());
     }
 
+    public void testExecAggregatePercentile() {
+        RegressionRunner.run(new ExecAggregatePercentile());
+    }
+
     public void testExecAggregateMinMax() {
         RegressionRunner.run(new ExecAggregateMinMax());
     }
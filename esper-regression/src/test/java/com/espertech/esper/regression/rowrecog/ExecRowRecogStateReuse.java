@@ -0,0 +1,166 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.rowrecog;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+import com.espertech.esper.supportregression.rowrecog.SupportRecogBean;
+
+import static org.junit.Assert.assertFalse;
+
+public class ExecRowRecogStateReuse implements RegressionExecution {
+
+    private static final String[] FIELDS = "a,b0,b1,b2,c".split(",");
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType("MyEvent", SupportRecogBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionReuseTerminatedPartitioned(epService);
+        runAssertionReuseManyPartitions(epService);
+        runAssertionCompositePartitionKey(epService, "cat, cat.length()");
+        runAssertionCompositePartitionKey(epService, "cat.length(), value - value");
+    }
+
+    private void runAssertionReuseTerminatedPartitioned(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL(getEPL("cat"));
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        // partial matches of both partitions are in progress concurrently, the greedy B+ keeps a B- and a C-state entry
+        sendEvent(epService, "A1", "P1", 1);
+        sendEvent(epService, "A2", "P2", 1);
+        sendEvent(epService, "B1", "P1", 2);
+        sendEvent(epService, "X1", "P2", 9); // terminates the partial match of P2
+        sendEvent(epService, "B2", "P1", 2);
+        sendEvent(epService, "B3", "P1", 2);
+        assertFalse(listener.isInvoked());
+
+        // entries of terminated partial matches are reused for new partial matches, which must not see earlier events
+        sendEvent(epService, "A3", "P2", 1);
+        sendEvent(epService, "B4", "P2", 2);
+        sendEvent(epService, "C1", "P1", 3);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS,
+                new Object[][]{{"A1", "B1", "B2", "B3", "C1"}});
+
+        sendEvent(epService, "C2", "P2", 3);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS,
+                new Object[][]{{"A3", "B4", null, null, "C2"}});
+
+        sendEvent(epService, "A4", "P1", 1);
+        sendEvent(epService, "B5", "P1", 2);
+        sendEvent(epService, "B6", "P1", 2);
+        sendEvent(epService, "X2", "P1", 9);
+        sendEvent(epService, "A5", "P1", 1);
+        sendEvent(epService, "B7", "P1", 2);
+        sendEvent(epService, "C3", "P1", 3);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS,
+                new Object[][]{{"A5", "B7", null, null, "C3"}});
+
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmt.iterator(), FIELDS,
+                new Object[][]{{"A1", "B1", "B2", "B3", "C1"}, {"A3", "B4", null, null, "C2"}, {"A5", "B7", null, null, "C3"}});
+
+        stmt.destroy();
+    }
+
+    private void runAssertionReuseManyPartitions(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL(getEPL("cat"));
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        int numPartitions = 100;
+        for (int round = 0; round < 3; round++) {
+            // each partition has a partial match with a varying number of B-events that terminates
+            for (int i = 0; i < numPartitions; i++) {
+                sendEvent(epService, "A" + i, "P" + i, 1);
+            }
+            for (int i = 0; i < numPartitions; i++) {
+                for (int j = 0; j < i % 3 + 1; j++) {
+                    sendEvent(epService, "B" + i + "_" + j, "P" + i, 2);
+                }
+            }
+            for (int i = 0; i < numPartitions; i++) {
+                sendEvent(epService, "X" + i, "P" + i, 9);
+            }
+            assertFalse(listener.isInvoked());
+
+            // each partition has a partial match with a number of B-events that differs from the terminated one
+            for (int i = 0; i < numPartitions; i++) {
+                sendEvent(epService, "A" + i + "r" + round, "P" + i, 1);
+            }
+            for (int i = 0; i < numPartitions; i++) {
+                for (int j = 0; j < (i + round) % 3 + 1; j++) {
+                    sendEvent(epService, "B" + i + "r" + round + "_" + j, "P" + i, 2);
+                }
+            }
+            for (int i = 0; i < numPartitions; i++) {
+                sendEvent(epService, "C" + i + "r" + round, "P" + i, 3);
+                int numB = (i + round) % 3 + 1;
+                Object[] expected = new Object[5];
+                expected[0] = "A" + i + "r" + round;
+                for (int j = 0; j < numB; j++) {
+                    expected[j + 1] = "B" + i + "r" + round + "_" + j;
+                }
+                expected[4] = "C" + i + "r" + round;
+                EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS, new Object[][]{expected});
+            }
+        }
+
+        stmt.destroy();
+    }
+
+    private void runAssertionCompositePartitionKey(EPServiceProvider epService, String partitionBy) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL(getEPL(partitionBy));
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        // partitions of categories of different length, partial matches interleave
+        sendEvent(epService, "A1", "P1", 1);
+        sendEvent(epService, "A2", "P22", 1);
+        sendEvent(epService, "B1", "P1", 2);
+        sendEvent(epService, "B2", "P22", 2);
+        sendEvent(epService, "B3", "P22", 2);
+        sendEvent(epService, "C1", "P333", 3);
+        assertFalse(listener.isInvoked());
+
+        sendEvent(epService, "C2", "P22", 3);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS,
+                new Object[][]{{"A2", "B2", "B3", null, "C2"}});
+
+        sendEvent(epService, "C3", "P1", 3);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), FIELDS,
+                new Object[][]{{"A1", "B1", null, null, "C3"}});
+
+        stmt.destroy();
+    }
+
+    private String getEPL(String partitionBy) {
+        return "select * from MyEvent#keepall " +
+                "match_recognize (" +
+                "  partition by " + partitionBy + " " +
+                "  measures A.theString as a, B[0].theString as b0, B[1].theString as b1, B[2].theString as b2, C.theString as c " +
+                "  pattern (A B+ C) " +
+                "  define " +
+                "   A as A.value = 1," +
+                "   B as B.value = 2," +
+                "   C as C.value = 3" +
+                ")";
+    }
+
+    private void sendEvent(EPServiceProvider epService, String theString, String cat, int value) {
+        epService.getEPRuntime().sendEvent(new SupportRecogBean(theString, cat, value));
+    }
+}
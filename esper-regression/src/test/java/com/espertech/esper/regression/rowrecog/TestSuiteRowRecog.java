@@ -110,6 +110,10 @@ public class TestSuiteRowRecog extends TestCase {
         RegressionRunner.run(new ExecRowRecogRepetition());
     }
 
+    public void testExecRowRecogStateReuse() {
+        RegressionRunner.run(new ExecRowRecogStateReuse());
+    }
+
     public void testExecRowRecogVariantStream() {
         RegressionRunner.run(new ExecRowRecogVariantStream());
     }
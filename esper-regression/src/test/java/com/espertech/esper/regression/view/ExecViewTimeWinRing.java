@@ -0,0 +1,134 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static org.junit.Assert.assertFalse;
+
+public class ExecViewTimeWinRing implements RegressionExecution {
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getViewResources().setTimeWindowRing(true);
+        configuration.addEventType(SupportBean.class);
+        configuration.addEventType(SupportBean_S0.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionTimeWindow(epService);
+        runAssertionNamedWindowDelete(epService);
+        runAssertionExtTimed(epService);
+    }
+
+    private void runAssertionTimeWindow(EPServiceProvider epService) {
+        String[] fields = "theString".split(",");
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select irstream theString from SupportBean#time(10 sec)");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        // more events than the initial ring capacity, several per timestamp
+        for (int i = 0; i < 40; i++) {
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000 * (i / 4)));
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+        listener.reset();
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), fields, makeRows(0, 40));
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(10000));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastOldData(), fields, makeRows(0, 4));
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(14500));
+        EPAssertionUtil.assertPropsPerRow(listener.getOldDataListFlattened(), fields, makeRows(4, 20));
+        listener.reset();
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), fields, makeRows(20, 40));
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(30000));
+        EPAssertionUtil.assertPropsPerRow(listener.getOldDataListFlattened(), fields, makeRows(20, 40));
+        assertFalse(stmt.iterator().hasNext());
+
+        stmt.destroy();
+    }
+
+    private void runAssertionNamedWindowDelete(EPServiceProvider epService) {
+        String[] fields = "theString".split(",");
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("create window MyWindow#time(10 sec) as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 as s0 delete from MyWindow as w where w.intPrimitive = s0.id");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmtWindow.addListener(listener);
+
+        for (int i = 0; i < 6; i++) {
+            epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000 * (i / 2)));
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(3));
+        EPAssertionUtil.assertPropsPerRow(listener.getOldDataListFlattened(), fields, new Object[][]{{"E0"}, {"E3"}});
+        listener.reset();
+        EPAssertionUtil.assertPropsPerRow(stmtWindow.iterator(), fields, new Object[][]{{"E1"}, {"E2"}, {"E4"}, {"E5"}});
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(11000));
+        EPAssertionUtil.assertPropsPerRow(listener.getOldDataListFlattened(), fields, new Object[][]{{"E1"}, {"E2"}});
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(12000));
+        EPAssertionUtil.assertPropsPerRow(listener.getOldDataListFlattened(), fields, new Object[][]{{"E4"}, {"E5"}});
+        assertFalse(stmtWindow.iterator().hasNext());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionExtTimed(EPServiceProvider epService) {
+        String[] fields = "theString".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select irstream theString from SupportBean#ext_timed(longPrimitive, 10 sec)");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        sendEvent(epService, "E1", 1000);
+        sendEvent(epService, "E2", 1000);
+        sendEvent(epService, "E3", 5000);
+        listener.reset();
+
+        sendEvent(epService, "E4", 11000);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastOldData(), fields, new Object[][]{{"E1"}, {"E2"}});
+
+        sendEvent(epService, "E5", 20000);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastOldData(), fields, new Object[][]{{"E3"}});
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), fields, new Object[][]{{"E4"}, {"E5"}});
+
+        stmt.destroy();
+    }
+
+    private void sendEvent(EPServiceProvider epService, String theString, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, 0);
+        bean.setLongPrimitive(longPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+
+    private static Object[][] makeRows(int start, int end) {
+        Object[][] rows = new Object[end - start][];
+        for (int i = start; i < end; i++) {
+            rows[i - start] = new Object[]{"E" + i};
+        }
+        return rows;
+    }
+}
@@ -139,6 +139,10 @@ public class TestSuiteView extends TestCase {
         RegressionRunner.run(new ExecViewTimeWin());
     }
 
+    public void testExecViewTimeWinRing() {
+        RegressionRunner.run(new ExecViewTimeWinRing());
+    }
+
     public void testExecViewTimeWindowMicrosecondResolution() {
         RegressionRunner.run(new ExecViewTimeWindowMicrosecondResolution());
     }
@@ -13,10 +13,13 @@ package com.espertech.esper.supportregression.epl;
 import com.espertech.esper.supportregression.bean.SupportBean_S0;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class SupportStaticMethodInvocations {
     private static List<String> invocations = new ArrayList<String>();
+    private static List<Integer> batchInvocations = new ArrayList<Integer>();
 
     public static int getInvocationSizeReset() {
         int size = invocations.size();
@@ -24,8 +27,30 @@ public class SupportStaticMethodInvocations {
         return size;
     }
 
+    public static List<Integer> getBatchInvocationsReset() {
+        List<Integer> sizes = new ArrayList<Integer>(batchInvocations);
+        batchInvocations.clear();
+        return sizes;
+    }
+
     public static SupportBean_S0 fetchObjectLog(String fetchId, int passThroughNumber) {
         invocations.add(fetchId);
         return new SupportBean_S0(passThroughNumber, "|" + fetchId + "|");
     }
+
+    public static SupportBean_S0 fetchObjectPolled(String fetchId) {
+        invocations.add(fetchId);
+        return new SupportBean_S0(0, "|" + fetchId + "|");
+    }
+
+    public static Map<String, SupportBean_S0> fetchObjectPolledBatch(String[] fetchIds) {
+        batchInvocations.add(fetchIds.length);
+        Map<String, SupportBean_S0> result = new HashMap<String, SupportBean_S0>();
+        for (String fetchId : fetchIds) {
+            if (!fetchId.equals("none")) {
+                result.put(fetchId, new SupportBean_S0(0, "|" + fetchId + "|"));
+            }
+        }
+        return result;
+    }
 }
@@ -25,7 +25,9 @@ public class RegressionRunner {
     private static void runInternal(RegressionExecution execution, boolean codegen) {
         Configuration configuration = SupportConfigFactory.getConfiguration();
 
-        if (!codegen) {
+        if (codegen) {
+            configuration.getEngineDefaults().getCodeGeneration().setEnableResultSetProcessor(true);
+        } else {
             configuration.getEngineDefaults().getCodeGeneration().setEnablePropertyGetter(true);
             configuration.getEngineDefaults().getCodeGeneration().setEnableExpression(false);
         }
@@ -0,0 +1,64 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client;
+
+import com.espertech.esper.client.context.ContextPartitionSelector;
+
+import java.io.Serializable;
+
+/**
+ * Options for use with {@link EPRuntime#bulkLoad(String, java.util.Iterator, BulkLoadOptions)}.
+ */
+public class BulkLoadOptions implements Serializable {
+    private static final long serialVersionUID = 3506016924651815395L;
+
+    private ContextPartitionSelector contextPartitionSelector;
+    private boolean parallel;
+
+    /**
+     * Returns the selector for the context partitions to load, for named windows and tables that are declared with a context.
+     * Null (the default) selects all context partitions.
+     *
+     * @return selector or null for all context partitions
+     */
+    public ContextPartitionSelector getContextPartitionSelector() {
+        return contextPartitionSelector;
+    }
+
+    /**
+     * Sets the selector for the context partitions to load, for named windows and tables that are declared with a context.
+     * Each selected context partition receives all rows. Null (the default) selects all context partitions.
+     *
+     * @param contextPartitionSelector selector or null for all context partitions
+     */
+    public void setContextPartitionSelector(ContextPartitionSelector contextPartitionSelector) {
+        this.contextPartitionSelector = contextPartitionSelector;
+    }
+
+    /**
+     * Returns indicator whether context partitions are loaded in parallel.
+     *
+     * @return parallel indicator
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Set to true to load context partitions in parallel using the common fork-join pool.
+     * The default is false and loads context partitions by the calling thread.
+     *
+     * @param parallel parallel indicator
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+}
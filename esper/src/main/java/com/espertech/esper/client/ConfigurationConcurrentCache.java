@@ -0,0 +1,80 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client;
+
+import java.io.Serializable;
+
+/**
+ * Concurrent cache settings, for a lock-striped cache that is bounded by the number of rows cached,
+ * with frequency-based admission and an optional maximum age for entries.
+ */
+public class ConfigurationConcurrentCache implements ConfigurationDataCache, Serializable {
+    private int maxRows;
+    private double maxAgeSeconds;
+    private int numSegments;
+    private boolean admission;
+    private static final long serialVersionUID = 5523096837456278817L;
+
+    /**
+     * Ctor.
+     *
+     * @param maxRows       is the maximum number of rows, summed over all cached entries, before entries are evicted
+     * @param maxAgeSeconds is the maximum age in seconds of an entry, or zero for no maximum age
+     * @param numSegments   is the number of segments, each with its own lock
+     * @param admission     true to admit new entries only if they are used more frequently than the entries they would evict
+     */
+    public ConfigurationConcurrentCache(int maxRows, double maxAgeSeconds, int numSegments, boolean admission) {
+        this.maxRows = maxRows;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.numSegments = numSegments;
+        this.admission = admission;
+    }
+
+    /**
+     * Returns the maximum number of rows.
+     *
+     * @return max rows
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Returns the maximum age in seconds, or zero for no maximum age.
+     *
+     * @return number of seconds
+     */
+    public double getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return segments
+     */
+    public int getNumSegments() {
+        return numSegments;
+    }
+
+    /**
+     * Returns true if frequency-based admission is enabled.
+     *
+     * @return admission flag
+     */
+    public boolean isAdmission() {
+        return admission;
+    }
+
+    public String toString() {
+        return "ConcurrentCacheDesc maxRows=" + maxRows + " maxAgeSeconds=" + maxAgeSeconds + " numSegments=" + numSegments + " admission=" + admission;
+    }
+}
@@ -28,6 +28,8 @@ public class ConfigurationDBRef implements Serializable {
     private ConnectionFactoryDesc connectionFactoryDesc;
     private ConnectionSettings connectionSettings;
     private ConnectionLifecycleEnum connectionLifecycleEnum;
+    private int connectionRetainPoolSize;
+    private int pollBatchSize;
     private ConfigurationDataCache dataCacheDesc;
     private MetadataOriginEnum metadataOrigin;
     private ColumnChangeCaseEnum columnChangeCase;
@@ -38,6 +40,7 @@ public class ConfigurationDBRef implements Serializable {
      */
     public ConfigurationDBRef() {
         connectionLifecycleEnum = ConnectionLifecycleEnum.RETAIN;
+        connectionRetainPoolSize = 1;
         connectionSettings = new ConnectionSettings();
         metadataOrigin = MetadataOriginEnum.DEFAULT;
         columnChangeCase = ColumnChangeCaseEnum.NONE;
@@ -178,6 +181,52 @@ public class ConfigurationDBRef implements Serializable {
         this.connectionLifecycleEnum = connectionLifecycleEnum;
     }
 
+    /**
+     * Returns the maximum number of connections retained between lookups when retaining connections, one by default.
+     *
+     * @return number of retained connections
+     */
+    public int getConnectionRetainPoolSize() {
+        return connectionRetainPoolSize;
+    }
+
+    /**
+     * Sets the maximum number of connections retained between lookups when retaining connections.
+     * <p>
+     * When retaining a single connection, lookups by multiple threads execute one after the other.
+     * When retaining more than one connection, or when obtaining a new connection for each lookup,
+     * lookups by multiple threads execute concurrently.
+     *
+     * @param connectionRetainPoolSize number of retained connections
+     */
+    public void setConnectionRetainPoolSize(int connectionRetainPoolSize) {
+        this.connectionRetainPoolSize = connectionRetainPoolSize;
+    }
+
+    /**
+     * Returns the maximum number of distinct lookup keys queried by a single batch query, or zero if batching is disabled.
+     *
+     * @return poll batch size
+     */
+    public int getPollBatchSize() {
+        return pollBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of distinct lookup keys queried by a single batch query.
+     * <p>
+     * The engine collects the distinct lookup keys of the events of a batch that are not found in the cache,
+     * and executes a single query for each group of up to the given number of keys that combines
+     * the statement's query for each key using "union all". The database must support "union all"
+     * of the query as a derived table.
+     * The default is zero, which disables batching.
+     *
+     * @param pollBatchSize poll batch size
+     */
+    public void setPollBatchSize(int pollBatchSize) {
+        this.pollBatchSize = pollBatchSize;
+    }
+
     /**
      * Returns the descriptor controlling connection creation settings.
      *
@@ -221,6 +270,34 @@ public class ConfigurationDBRef implements Serializable {
         dataCacheDesc = new ConfigurationExpiryTimeCache(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType);
     }
 
+    /**
+     * Configures a concurrent cache that is bounded by the number of rows cached, for use when
+     * multiple threads execute the statements.
+     * <p>
+     * The cache consists of the given number of segments, each with its own lock, and admits new entries only
+     * if they are used more frequently than the entries they would evict.
+     *
+     * @param maxRows       is the maximum number of rows, summed over all cached entries, before entries are evicted
+     * @param maxAgeSeconds is the maximum number of seconds before a query result is considered stale, or zero for no maximum age
+     * @param numSegments   is the number of segments
+     */
+    public void setConcurrentCache(int maxRows, double maxAgeSeconds, int numSegments) {
+        dataCacheDesc = new ConfigurationConcurrentCache(maxRows, maxAgeSeconds, numSegments, true);
+    }
+
+    /**
+     * Configures a concurrent cache that is bounded by the number of rows cached, for use when
+     * multiple threads execute the statements.
+     *
+     * @param maxRows       is the maximum number of rows, summed over all cached entries, before entries are evicted
+     * @param maxAgeSeconds is the maximum number of seconds before a query result is considered stale, or zero for no maximum age
+     * @param numSegments   is the number of segments
+     * @param admission     true to admit new entries only if they are used more frequently than the entries they would evict, false to always admit
+     */
+    public void setConcurrentCache(int maxRows, double maxAgeSeconds, int numSegments, boolean admission) {
+        dataCacheDesc = new ConfigurationConcurrentCache(maxRows, maxAgeSeconds, numSegments, admission);
+    }
+
     /**
      * Return a query result data cache descriptor.
      *
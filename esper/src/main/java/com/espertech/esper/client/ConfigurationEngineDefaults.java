@@ -304,6 +304,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         private boolean isListenerDispatchPreserveOrder;
         private long listenerDispatchTimeout;
         private Locking listenerDispatchLocking;
+        private boolean isListenerDispatchBatchCoalesce;
 
         private boolean isInsertIntoDispatchPreserveOrder;
         private long insertIntoDispatchTimeout;
@@ -318,8 +319,11 @@ public class ConfigurationEngineDefaults implements Serializable {
 
         private boolean isThreadPoolTimerExec;
         private boolean isThreadPoolInbound;
+        private boolean isThreadPoolInboundPartitioned;
         private boolean isThreadPoolRouteExec;
         private boolean isThreadPoolOutbound;
+        private boolean isThreadPoolOutboundStatementAffine;
+        private WaitStrategy threadPoolOutboundWaitStrategy;
         private int threadPoolTimerExecNumThreads;
         private int threadPoolInboundNumThreads;
         private int threadPoolRouteExecNumThreads;
@@ -359,6 +363,7 @@ public class ConfigurationEngineDefaults implements Serializable {
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+            threadPoolOutboundWaitStrategy = WaitStrategy.PARK;
         }
 
         /**
@@ -383,6 +388,28 @@ public class ConfigurationEngineDefaults implements Serializable {
             listenerDispatchTimeout = value;
         }
 
+        /**
+         * Returns true to indicate that, for events sent as a batch, dispatches to listeners take place
+         * once per batch and deliver the results of all events of the batch together,
+         * or false (the default) to dispatch to listeners after each event of the batch.
+         *
+         * @return indicator whether listener dispatch is coalesced per batch
+         */
+        public boolean isListenerDispatchBatchCoalesce() {
+            return isListenerDispatchBatchCoalesce;
+        }
+
+        /**
+         * Set to true to indicate that, for events sent as a batch, dispatches to listeners take place
+         * once per batch and deliver the results of all events of the batch together,
+         * or false (the default) to dispatch to listeners after each event of the batch.
+         *
+         * @param listenerDispatchBatchCoalesce indicator whether listener dispatch is coalesced per batch
+         */
+        public void setListenerDispatchBatchCoalesce(boolean listenerDispatchBatchCoalesce) {
+            isListenerDispatchBatchCoalesce = listenerDispatchBatchCoalesce;
+        }
+
         /**
          * In multithreaded environments, this setting controls whether insert-into streams preserve
          * the order of events inserted into them by one or more statements
@@ -546,6 +573,28 @@ public class ConfigurationEngineDefaults implements Serializable {
             isThreadPoolInbound = threadPoolInbound;
         }
 
+        /**
+         * Returns true for inbound threading that assigns each inbound event to one of a set of single-threaded workers
+         * by the event's hash or keyed-segmented context partition key, the default is false for a shared inbound thread pool.
+         *
+         * @return indicator whether inbound threading is partitioned
+         */
+        public boolean isThreadPoolInboundPartitioned() {
+            return isThreadPoolInboundPartitioned;
+        }
+
+        /**
+         * Set to true for inbound threading that assigns each inbound event to one of a set of single-threaded workers
+         * by the event's hash or keyed-segmented context partition key, the default is false for a shared inbound thread pool.
+         * Takes effect only when inbound threading is enabled. The number of workers is the number of inbound threads
+         * and the inbound capacity applies to the queue of each worker.
+         *
+         * @param threadPoolInboundPartitioned indicator whether inbound threading is partitioned
+         */
+        public void setThreadPoolInboundPartitioned(boolean threadPoolInboundPartitioned) {
+            isThreadPoolInboundPartitioned = threadPoolInboundPartitioned;
+        }
+
         /**
          * Returns true for timer execution threading enabled, the default is false for not enabled.
          *
@@ -600,6 +649,48 @@ public class ConfigurationEngineDefaults implements Serializable {
             isThreadPoolOutbound = threadPoolOutbound;
         }
 
+        /**
+         * Returns true for outbound threading that assigns each statement to one of a set of outbound threads,
+         * each thread draining its own lock-free ring buffer, the default is false for a shared outbound thread pool.
+         *
+         * @return indicator whether outbound threading is statement-affine
+         */
+        public boolean isThreadPoolOutboundStatementAffine() {
+            return isThreadPoolOutboundStatementAffine;
+        }
+
+        /**
+         * Set to true for outbound threading that assigns each statement to one of a set of outbound threads,
+         * each thread draining its own lock-free ring buffer, the default is false for a shared outbound thread pool.
+         * Takes effect only when outbound threading is enabled. The number of outbound threads is the number of ring buffers
+         * and the outbound capacity, rounded up to a power of two, applies to each ring buffer.
+         *
+         * @param threadPoolOutboundStatementAffine indicator whether outbound threading is statement-affine
+         */
+        public void setThreadPoolOutboundStatementAffine(boolean threadPoolOutboundStatementAffine) {
+            isThreadPoolOutboundStatementAffine = threadPoolOutboundStatementAffine;
+        }
+
+        /**
+         * Returns the strategy by which statement-affine outbound threads wait for results and by which
+         * producing threads wait for space in a full ring buffer, the default is {@link WaitStrategy#PARK}.
+         *
+         * @return wait strategy
+         */
+        public WaitStrategy getThreadPoolOutboundWaitStrategy() {
+            return threadPoolOutboundWaitStrategy;
+        }
+
+        /**
+         * Sets the strategy by which statement-affine outbound threads wait for results and by which
+         * producing threads wait for space in a full ring buffer, the default is {@link WaitStrategy#PARK}.
+         *
+         * @param threadPoolOutboundWaitStrategy wait strategy
+         */
+        public void setThreadPoolOutboundWaitStrategy(WaitStrategy threadPoolOutboundWaitStrategy) {
+            this.threadPoolOutboundWaitStrategy = threadPoolOutboundWaitStrategy;
+        }
+
         /**
          * Returns the number of thread in the inbound threading pool.
          *
@@ -844,6 +935,27 @@ public class ConfigurationEngineDefaults implements Serializable {
              */
             SUSPEND
         }
+
+        /**
+         * Enumeration of waiting techniques for statement-affine outbound threading.
+         */
+        public enum WaitStrategy {
+            /**
+             * Busy-spin waiting gives the lowest latency but occupies a processor for each outbound thread.
+             */
+            BUSYSPIN,
+
+            /**
+             * Waiting that yields the processor between checks.
+             */
+            YIELD,
+
+            /**
+             * Waiting that parks the thread for a short time between checks, using the least processor time,
+             * and is therefore the default.
+             */
+            PARK
+        }
     }
 
     /**
@@ -853,6 +965,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         private boolean shareViews;
         private boolean allowMultipleExpiryPolicies;
         private boolean iterableUnbound;
+        private boolean timeWindowRing;
         private static final long serialVersionUID = 2527853225433208362L;
 
         /**
@@ -862,6 +975,7 @@ public class ConfigurationEngineDefaults implements Serializable {
             shareViews = false;
             allowMultipleExpiryPolicies = false;
             iterableUnbound = false;
+            timeWindowRing = false;
         }
 
         /**
@@ -929,6 +1043,26 @@ public class ConfigurationEngineDefaults implements Serializable {
         public void setIterableUnbound(boolean iterableUnbound) {
             this.iterableUnbound = iterableUnbound;
         }
+
+        /**
+         * Returns flag to indicate whether time windows keep events in ring arrays of timestamps and events
+         * (false by default), instead of keeping a holder per distinct timestamp.
+         *
+         * @return indicator
+         */
+        public boolean isTimeWindowRing() {
+            return timeWindowRing;
+        }
+
+        /**
+         * Sets flag to indicate whether time windows keep events in ring arrays of timestamps and events
+         * (false by default), instead of keeping a holder per distinct timestamp.
+         *
+         * @param timeWindowRing to set
+         */
+        public void setTimeWindowRing(boolean timeWindowRing) {
+            this.timeWindowRing = timeWindowRing;
+        }
     }
 
     /**
@@ -939,6 +1073,7 @@ public class ConfigurationEngineDefaults implements Serializable {
 
         private Configuration.PropertyResolutionStyle classPropertyResolutionStyle;
         private ConfigurationEventTypeLegacy.AccessorStyle defaultAccessorStyle;
+        private ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration;
         private EventUnderlyingType defaultEventRepresentation;
         private int anonymousCacheSize = 5;
         private AvroSettings avroSettings;
@@ -949,6 +1084,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         public EventMeta() {
             this.classPropertyResolutionStyle = Configuration.PropertyResolutionStyle.getDefault();
             this.defaultAccessorStyle = ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN;
+            this.defaultCodeGeneration = ConfigurationEventTypeLegacy.CodeGeneration.ENABLED;
             this.defaultEventRepresentation = EventUnderlyingType.getDefault();
             this.avroSettings = new AvroSettings();
         }
@@ -971,6 +1107,26 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.defaultAccessorStyle = defaultAccessorStyle;
         }
 
+        /**
+         * Returns the default code generation for Java class event types that are not configured
+         * otherwise, enabled (CGLib) unless changed.
+         *
+         * @return code generation enum
+         */
+        public ConfigurationEventTypeLegacy.CodeGeneration getDefaultCodeGeneration() {
+            return defaultCodeGeneration;
+        }
+
+        /**
+         * Sets the default code generation for Java class event types that are not configured
+         * otherwise, enabled (CGLib) unless changed.
+         *
+         * @param defaultCodeGeneration code generation enum
+         */
+        public void setDefaultCodeGeneration(ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration) {
+            this.defaultCodeGeneration = defaultCodeGeneration;
+        }
+
         /**
          * Returns the property resolution style to use for resolving property names
          * of Java classes.
@@ -1791,7 +1947,9 @@ public class ConfigurationEngineDefaults implements Serializable {
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
         private int filterServiceMaxFilterWidth = 16;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
         private int declaredExprValueCacheSize = 1;
+        private int parseCacheSize = 0;
 
         private static final long serialVersionUID = 0L;
 
@@ -1936,6 +2094,24 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.filterServiceMaxFilterWidth = filterServiceMaxFilterWidth;
         }
 
+        /**
+         * Returns the scheduling service profile for tuning schedule operations.
+         *
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Set the scheduling service profile for tuning schedule operations.
+         *
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
+
         /**
          * Returns the cache size for declared expression values
          *
@@ -1953,6 +2129,26 @@ public class ConfigurationEngineDefaults implements Serializable {
         public void setDeclaredExprValueCacheSize(int declaredExprValueCacheSize) {
             this.declaredExprValueCacheSize = declaredExprValueCacheSize;
         }
+
+        /**
+         * Returns the number of parsed EPL statement texts that the engine retains for reuse
+         * when the same statement text is compiled again, or zero when disabled (the default).
+         *
+         * @return parse cache size
+         */
+        public int getParseCacheSize() {
+            return parseCacheSize;
+        }
+
+        /**
+         * Sets the number of parsed EPL statement texts that the engine retains for reuse
+         * when the same statement text is compiled again, or zero to disable.
+         *
+         * @param parseCacheSize parse cache size
+         */
+        public void setParseCacheSize(int parseCacheSize) {
+            this.parseCacheSize = parseCacheSize;
+        }
     }
 
     /**
@@ -1982,7 +2178,28 @@ public class ConfigurationEngineDefaults implements Serializable {
         /**
          * For very dynamic filters that come and go in a highly threaded environment.
          */
-        READWRITE
+        READWRITE,
+
+        /**
+         * If filters are mostly static and many threads send events: evaluation takes no locks
+         * and filter changes copy the filter index nodes that change.
+         */
+        LOCKFREE
+    }
+
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile {
+        /**
+         * Schedules kept in a sorted map of times, the default.
+         */
+        SORTED,
+
+        /**
+         * Schedules kept in a hierarchical timing wheel, for a very large number of schedules that come and go.
+         */
+        TIMINGWHEEL
     }
 
     /**
@@ -2301,6 +2518,7 @@ public class ConfigurationEngineDefaults implements Serializable {
     public static class CodeGeneration implements Serializable {
         private boolean enablePropertyGetter = false;
         private boolean enableExpression = true;
+        private boolean enableResultSetProcessor = false;
         private boolean enableFallback = true;
         private boolean includeDebugSymbols = false;
         private boolean includeComments = false;
@@ -2339,6 +2557,28 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.enableExpression = enableExpression;
         }
 
+        /**
+         * Returns indicator whether to enable code generation for the result set processors
+         * of fully-aggregated and aggregated grouped statements (false by default).
+         * When enabled, the group key, the aggregation function calls and the select clause of a statement are generated as a single class,
+         * for statements without rollup that use only method aggregation functions and select no wildcard or streams.
+         * @return indicator
+         */
+        public boolean isEnableResultSetProcessor() {
+            return enableResultSetProcessor;
+        }
+
+        /**
+         * Sets indicator whether to enable code generation for the result set processors
+         * of fully-aggregated and aggregated grouped statements (false by default).
+         * When enabled, the group key, the aggregation function calls and the select clause of a statement are generated as a single class,
+         * for statements without rollup that use only method aggregation functions and select no wildcard or streams.
+         * @param enableResultSetProcessor indicator
+         */
+        public void setEnableResultSetProcessor(boolean enableResultSetProcessor) {
+            this.enableResultSetProcessor = enableResultSetProcessor;
+        }
+
         /**
          * Returns indicator whether to fall back to non-generated evaluation
          * in the case that code generation failed (true by default).
@@ -72,7 +72,13 @@ public class ConfigurationEventTypeLegacy implements Serializable {
         /**
          * Dispables code generation.
          */
-        DISABLED
+        DISABLED,
+
+        /**
+         * Enables code generation and binds property getter methods and the no-arg constructor through
+         * lambda metafactory, so that property access and instantiation do not require reflection or CGLib fast methods.
+         */
+        LAMBDA
     }
 
     /**
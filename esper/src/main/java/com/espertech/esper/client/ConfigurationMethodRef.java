@@ -17,6 +17,7 @@ import java.io.Serializable;
  */
 public class ConfigurationMethodRef implements Serializable {
     private ConfigurationDataCache dataCacheDesc;
+    private int pollBatchSize;
     private static final long serialVersionUID = -9178934436665140004L;
 
     /**
@@ -53,6 +54,34 @@ public class ConfigurationMethodRef implements Serializable {
         dataCacheDesc = new ConfigurationExpiryTimeCache(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType);
     }
 
+    /**
+     * Configures a concurrent cache that is bounded by the number of rows cached, for use when
+     * multiple threads execute the statements.
+     * <p>
+     * The cache consists of the given number of segments, each with its own lock, and admits new entries only
+     * if they are used more frequently than the entries they would evict.
+     *
+     * @param maxRows       is the maximum number of rows, summed over all cached entries, before entries are evicted
+     * @param maxAgeSeconds is the maximum number of seconds before a method invocation result is considered stale, or zero for no maximum age
+     * @param numSegments   is the number of segments
+     */
+    public void setConcurrentCache(int maxRows, double maxAgeSeconds, int numSegments) {
+        dataCacheDesc = new ConfigurationConcurrentCache(maxRows, maxAgeSeconds, numSegments, true);
+    }
+
+    /**
+     * Configures a concurrent cache that is bounded by the number of rows cached, for use when
+     * multiple threads execute the statements.
+     *
+     * @param maxRows       is the maximum number of rows, summed over all cached entries, before entries are evicted
+     * @param maxAgeSeconds is the maximum number of seconds before a method invocation result is considered stale, or zero for no maximum age
+     * @param numSegments   is the number of segments
+     * @param admission     true to admit new entries only if they are used more frequently than the entries they would evict, false to always admit
+     */
+    public void setConcurrentCache(int maxRows, double maxAgeSeconds, int numSegments, boolean admission) {
+        dataCacheDesc = new ConfigurationConcurrentCache(maxRows, maxAgeSeconds, numSegments, admission);
+    }
+
     /**
      * Return a method invocation result data cache descriptor.
      *
@@ -61,4 +90,28 @@ public class ConfigurationMethodRef implements Serializable {
     public ConfigurationDataCache getDataCacheDesc() {
         return dataCacheDesc;
     }
+
+    /**
+     * Returns the maximum number of distinct lookup keys passed to a single invocation of the batch method, or zero if batching is disabled.
+     *
+     * @return poll batch size
+     */
+    public int getPollBatchSize() {
+        return pollBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of distinct lookup keys passed to a single invocation of the batch method.
+     * <p>
+     * Applies to methods that take a single parameter, when the class also provides a method named like the method
+     * with the "Batch" suffix, that takes an array of the parameter type and that returns a {@link java.util.Map} of lookup key to result.
+     * The engine collects the distinct lookup keys of the events of a batch that are not found in the cache,
+     * and invokes the batch method once for each group of up to the given number of keys.
+     * The default is zero, which disables batching.
+     *
+     * @param pollBatchSize poll batch size
+     */
+    public void setPollBatchSize(int pollBatchSize) {
+        this.pollBatchSize = pollBatchSize;
+    }
 }
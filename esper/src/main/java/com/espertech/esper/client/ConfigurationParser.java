@@ -436,6 +436,10 @@ class ConfigurationParser {
             } else if (subElement.getNodeName().equals("connection-lifecycle")) {
                 String value = getRequiredAttribute(subElement, "value");
                 configDBRef.setConnectionLifecycleEnum(ConfigurationDBRef.ConnectionLifecycleEnum.valueOf(value.toUpperCase(Locale.ENGLISH)));
+                if (subElement.getAttributes().getNamedItem("pool-size") != null) {
+                    String poolSize = subElement.getAttributes().getNamedItem("pool-size").getTextContent();
+                    configDBRef.setConnectionRetainPoolSize(Integer.parseInt(poolSize));
+                }
             } else if (subElement.getNodeName().equals("connection-settings")) {
                 if (subElement.getAttributes().getNamedItem("auto-commit") != null) {
                     String autoCommit = subElement.getAttributes().getNamedItem("auto-commit").getTextContent();
@@ -483,6 +487,12 @@ class ConfigurationParser {
             } else if (subElement.getNodeName().equals("lru-cache")) {
                 String size = getRequiredAttribute(subElement, "size");
                 configDBRef.setLRUCache(Integer.parseInt(size));
+            } else if (subElement.getNodeName().equals("concurrent-cache")) {
+                ConfigurationConcurrentCache cache = handleConcurrentCache(subElement);
+                configDBRef.setConcurrentCache(cache.getMaxRows(), cache.getMaxAgeSeconds(), cache.getNumSegments(), cache.isAdmission());
+            } else if (subElement.getNodeName().equals("poll-batch")) {
+                String size = getRequiredAttribute(subElement, "size");
+                configDBRef.setPollBatchSize(Integer.parseInt(size));
             }
         }
     }
@@ -507,10 +517,33 @@ class ConfigurationParser {
             } else if (subElement.getNodeName().equals("lru-cache")) {
                 String size = getRequiredAttribute(subElement, "size");
                 configMethodRef.setLRUCache(Integer.parseInt(size));
+            } else if (subElement.getNodeName().equals("concurrent-cache")) {
+                ConfigurationConcurrentCache cache = handleConcurrentCache(subElement);
+                configMethodRef.setConcurrentCache(cache.getMaxRows(), cache.getMaxAgeSeconds(), cache.getNumSegments(), cache.isAdmission());
+            } else if (subElement.getNodeName().equals("poll-batch")) {
+                String size = getRequiredAttribute(subElement, "size");
+                configMethodRef.setPollBatchSize(Integer.parseInt(size));
             }
         }
     }
 
+    private static ConfigurationConcurrentCache handleConcurrentCache(Element element) {
+        String maxRows = getRequiredAttribute(element, "max-rows");
+        double maxAgeSeconds = 0;
+        if (element.getAttributes().getNamedItem("max-age-seconds") != null) {
+            maxAgeSeconds = Double.parseDouble(element.getAttributes().getNamedItem("max-age-seconds").getTextContent());
+        }
+        int segments = 16;
+        if (element.getAttributes().getNamedItem("segments") != null) {
+            segments = Integer.parseInt(element.getAttributes().getNamedItem("segments").getTextContent());
+        }
+        boolean admission = true;
+        if (element.getAttributes().getNamedItem("admission") != null) {
+            admission = Boolean.parseBoolean(element.getAttributes().getNamedItem("admission").getTextContent());
+        }
+        return new ConfigurationConcurrentCache(Integer.parseInt(maxRows), maxAgeSeconds, segments, admission);
+    }
+
     private static void handlePlugInView(Configuration configuration, Element element) {
         String namespace = getRequiredAttribute(element, "namespace");
         String name = getRequiredAttribute(element, "name");
@@ -899,6 +932,11 @@ class ConfigurationParser {
                     configuration.getEngineDefaults().getThreading().setListenerDispatchLocking(
                             ConfigurationEngineDefaults.Threading.Locking.valueOf(value.toUpperCase(Locale.ENGLISH)));
                 }
+
+                if (subElement.getAttributes().getNamedItem("batch-coalesce") != null) {
+                    String value = subElement.getAttributes().getNamedItem("batch-coalesce").getTextContent();
+                    configuration.getEngineDefaults().getThreading().setListenerDispatchBatchCoalesce(Boolean.parseBoolean(value));
+                }
             }
             if (subElement.getNodeName().equals("insert-into-dispatch")) {
                 String preserveOrderText = getRequiredAttribute(subElement, "preserve-order");
@@ -947,12 +985,25 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolInbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(result.getCapacity());
+                String partitionedStr = getOptionalAttribute(subElement, "partitioned");
+                if (partitionedStr != null) {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolInboundPartitioned(Boolean.parseBoolean(partitionedStr));
+                }
             }
             if (subElement.getNodeName().equals("threadpool-outbound")) {
                 ThreadPoolConfig result = parseThreadPoolConfig(subElement);
                 configuration.getEngineDefaults().getThreading().setThreadPoolOutbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolOutboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolOutboundCapacity(result.getCapacity());
+                String statementAffineStr = getOptionalAttribute(subElement, "statement-affine");
+                if (statementAffineStr != null) {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolOutboundStatementAffine(Boolean.parseBoolean(statementAffineStr));
+                }
+                String waitStrategyStr = getOptionalAttribute(subElement, "wait-strategy");
+                if (waitStrategyStr != null) {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolOutboundWaitStrategy(
+                            ConfigurationEngineDefaults.Threading.WaitStrategy.valueOf(waitStrategyStr.toUpperCase(Locale.ENGLISH)));
+                }
             }
             if (subElement.getNodeName().equals("threadpool-timerexec")) {
                 ThreadPoolConfig result = parseThreadPoolConfig(subElement);
@@ -1004,6 +1055,11 @@ class ConfigurationParser {
                 Boolean value = Boolean.parseBoolean(valueText);
                 configuration.getEngineDefaults().getViewResources().setIterableUnbound(value);
             }
+            if (subElement.getNodeName().equals("time-window-ring")) {
+                String valueText = getRequiredAttribute(subElement, "enabled");
+                Boolean value = Boolean.parseBoolean(valueText);
+                configuration.getEngineDefaults().getViewResources().setTimeWindowRing(value);
+            }
         }
     }
 
@@ -1274,6 +1330,11 @@ class ConfigurationParser {
             codegen.setEnablePropertyGetter(Boolean.parseBoolean(enablePropertyGetterStr));
         }
 
+        String enableResultSetProcessorStr = getOptionalAttribute(parentElement, "enable-resultsetprocessor");
+        if (enableResultSetProcessorStr != null) {
+            codegen.setEnableResultSetProcessor(Boolean.parseBoolean(enableResultSetProcessorStr));
+        }
+
         String enableFallbackStr = getOptionalAttribute(parentElement, "enable-fallback");
         if (enableFallbackStr != null) {
             codegen.setEnableFallback(Boolean.parseBoolean(enableFallbackStr));
@@ -1320,6 +1381,11 @@ class ConfigurationParser {
         if (filterServiceMaxFilterWidthStr != null) {
             configuration.getEngineDefaults().getExecution().setFilterServiceMaxFilterWidth(Integer.parseInt(filterServiceMaxFilterWidthStr));
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null) {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase(Locale.ENGLISH));
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
         String allowIsolatedServiceStr = getOptionalAttribute(parentElement, "allow-isolated-service");
         if (allowIsolatedServiceStr != null) {
             boolean isAllowIsolatedService = Boolean.parseBoolean(allowIsolatedServiceStr);
@@ -1329,6 +1395,10 @@ class ConfigurationParser {
         if (declExprValueCacheSizeStr != null) {
             configuration.getEngineDefaults().getExecution().setDeclaredExprValueCacheSize(Integer.parseInt(declExprValueCacheSizeStr));
         }
+        String parseCacheSizeStr = getOptionalAttribute(parentElement, "parse-cache-size");
+        if (parseCacheSizeStr != null) {
+            configuration.getEngineDefaults().getExecution().setParseCacheSize(Integer.parseInt(parseCacheSizeStr));
+        }
     }
 
     private static void handleDefaultScriptConfig(Configuration configuration, Element parentElement) {
@@ -1392,6 +1462,13 @@ class ConfigurationParser {
                     ConfigurationEventTypeLegacy.AccessorStyle value = ConfigurationEventTypeLegacy.AccessorStyle.valueOf(accessorStyleText.toUpperCase(Locale.ENGLISH));
                     configuration.getEngineDefaults().getEventMeta().setDefaultAccessorStyle(value);
                 }
+
+                Node codeGenerationNode = subElement.getAttributes().getNamedItem("code-generation");
+                if (codeGenerationNode != null) {
+                    String codeGenerationText = codeGenerationNode.getTextContent();
+                    ConfigurationEventTypeLegacy.CodeGeneration value = ConfigurationEventTypeLegacy.CodeGeneration.valueOf(codeGenerationText.toUpperCase(Locale.ENGLISH));
+                    configuration.getEngineDefaults().getEventMeta().setDefaultCodeGeneration(value);
+                }
             }
 
             if (subElement.getNodeName().equals("event-representation")) {
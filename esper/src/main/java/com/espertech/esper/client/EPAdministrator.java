@@ -12,6 +12,7 @@ package com.espertech.esper.client;
 
 import com.espertech.esper.client.context.EPContextPartitionAdmin;
 import com.espertech.esper.client.deploy.EPDeploymentAdmin;
+import com.espertech.esper.client.snapshot.EPSnapshotAdmin;
 import com.espertech.esper.client.soda.EPStatementObjectModel;
 
 /**
@@ -297,4 +298,11 @@ public interface EPAdministrator {
      * @return context partition administrative interface
      */
     public EPContextPartitionAdmin getContextPartitionAdmin();
+
+    /**
+     * Returns the administrative interface for writing and restoring engine state snapshots.
+     *
+     * @return snapshot administrative interface
+     */
+    public EPSnapshotAdmin getSnapshotAdmin();
 }
@@ -17,6 +17,7 @@ import com.espertech.esper.client.soda.EPStatementObjectModel;
 import com.espertech.esper.client.util.EventRenderer;
 
 import java.net.URI;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -77,6 +78,48 @@ public interface EPRuntime {
      */
     public void sendEvent(org.w3c.dom.Node node) throws EPException;
 
+    /**
+     * Send a batch of events represented by plain Java objects to the event stream processing runtime.
+     * <p>
+     * Each event is processed in the order provided, with the same outcome as sending each event via {@link #sendEvent(Object)},
+     * however the per-event processing overhead is amortized over the batch: the event type is resolved once for consecutive
+     * events of the same class and per-thread processing buffers are obtained once for the batch.
+     * When listener dispatch batch coalescing is configured, listeners receive the results of all events of the batch
+     * by means of a single dispatch after the batch was processed.
+     *
+     * @param events are the events to send to the runtime
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public void sendEvents(Object[] events) throws EPException;
+
+    /**
+     * Send a batch of maps containing event property values to the event stream processing runtime.
+     * <p>
+     * Each event is processed in the order provided, with the same outcome as sending each event via {@link #sendEvent(java.util.Map, String)},
+     * however the event type is resolved once for the batch and the per-event processing overhead is amortized over the batch.
+     * When listener dispatch batch coalescing is configured, listeners receive the results of all events of the batch
+     * by means of a single dispatch after the batch was processed.
+     *
+     * @param maps             - maps that contain event property values
+     * @param mapEventTypeName - the name for the Map event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    public void sendEvents(List<? extends Map> maps, String mapEventTypeName) throws EPException;
+
+    /**
+     * Send a batch of object arrays containing event property values to the event stream processing runtime.
+     * <p>
+     * Each event is processed in the order provided, with the same outcome as sending each event via {@link #sendEvent(Object[], String)},
+     * however the event type is resolved once for the batch and the per-event processing overhead is amortized over the batch.
+     * When listener dispatch batch coalescing is configured, listeners receive the results of all events of the batch
+     * by means of a single dispatch after the batch was processed.
+     *
+     * @param objectArrays             - arrays that contain event property values
+     * @param objectArrayEventTypeName - the name for the Object-array event type that was previously configured
+     * @throws EPException - when the processing of an event leads to an error
+     */
+    public void sendEvents(Object[][] objectArrays, String objectArrayEventTypeName) throws EPException;
+
     /**
      * Number of events evaluated over the lifetime of the event stream processing runtime,
      * or since the last resetStats() call.
@@ -329,6 +372,38 @@ public interface EPRuntime {
      */
     public EventSender getEventSender(URI[] uris) throws EventTypeException;
 
+    /**
+     * Loads rows into a named window or table, for example for loading reference data.
+     * <p>
+     * For a named window provide underlying event objects of the named window event type, such as a {@link java.util.Map},
+     * Object[] or JavaBean object. For a table provide a {@link java.util.Map} of column name and value per row;
+     * aggregation columns start out with the initial aggregation state.
+     * </p>
+     * <p>
+     * Loaded rows are not processed by filters, are not output by the create-window statement and are
+     * not dispatched to consuming statements. Indexes receive the loaded rows in one pass per index.
+     * When the data window of a named window removes events that were in the window before the load, such as
+     * for a full length window, the removal of these events is output and dispatched to consuming statements.
+     * </p>
+     *
+     * @param namedWindowOrTableName named window or table name
+     * @param rows                   rows to load
+     * @return number of rows loaded
+     * @throws EPException if the named window or table cannot be found or a row is invalid
+     */
+    public int bulkLoad(String namedWindowOrTableName, Iterator<?> rows) throws EPException;
+
+    /**
+     * Loads rows into a named window or table, see {@link #bulkLoad(String, Iterator)}, using the options provided.
+     *
+     * @param namedWindowOrTableName named window or table name
+     * @param rows                   rows to load
+     * @param options                options such as the context partitions to load
+     * @return number of rows loaded
+     * @throws EPException if the named window or table cannot be found or a row is invalid
+     */
+    public int bulkLoad(String namedWindowOrTableName, Iterator<?> rows, BulkLoadOptions options) throws EPException;
+
     /**
      * Execute an on-demand query.
      * <p>
@@ -61,6 +61,26 @@ public enum HintEnum {
      */
     DISABLE_WINDOW_SUBQUERY_INDEXSHARE("DISABLE_WINDOW_SUBQUERY_INDEXSHARE", false, false, false),
 
+    /**
+     * For use with create-named-window statements only, to indicate that the named window keeps events off-heap.
+     * <p>
+     * Requires a keep-all or unique data window and a Map or object-array event type with primitive, boxed or string properties.
+     * Events are encoded into rows of direct-memory segments and the data window, indexes and consumers receive flyweight events that
+     * decode property values upon access. The flyweight events and the keys of indexes remain on-heap.
+     * </p>
+     */
+    ENABLE_WINDOW_OFFHEAP("ENABLE_WINDOW_OFFHEAP", false, false, false),
+
+    /**
+     * For use with patterns, to indicate that filters correlating to a tagged event by equality, such as "b=Fill(orderId = a.id)",
+     * share a single filter registration per pattern instead of registering a filter for each waiting sub-expression.
+     * <p>
+     * Waiting sub-expressions are kept in a hash index keyed by the correlated value. Applies to filters with a single
+     * equality correlation and otherwise constant filter criteria, when no other filter of the pattern is for the same or a related event type.
+     * </p>
+     */
+    ENABLE_PATTERN_FILTER_INDEX("ENABLE_PATTERN_FILTER_INDEX", false, false, false),
+
     /**
      * For use with subqueries and on-select, on-merge, on-update and on-delete to specify the query engine neither
      * build an implicit index nor use an existing index, always performing a full table scan.
@@ -105,7 +125,17 @@ public enum HintEnum {
     /**
      * For use with output rate limiting to enable certain optimization that may however change output.
      */
-    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false);
+    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false),
+
+    /**
+     * For use with create-table for keyed tables to lock rows by stripes of the primary key rather than locking the table.
+     */
+    TABLE_LOCK_STRIPES("TABLE_LOCK_STRIPES", true, true, false),
+
+    /**
+     * For use with create-table for keyed tables to keep numeric columns in columnar form for vectorized fire-and-forget scans.
+     */
+    TABLE_COLUMNAR("TABLE_COLUMNAR", false, false, false);
 
     private final String value;
     private final boolean acceptsParameters;
@@ -21,6 +21,7 @@ public class DeploymentOptions implements Serializable {
 
     private boolean compile = true;
     private boolean compileOnly = false;
+    private boolean parallelParse = false;
     private boolean rollbackOnFail = true;
     private boolean failFast = true;
     private String isolatedServiceProvider = null;
@@ -113,6 +114,33 @@ public class DeploymentOptions implements Serializable {
         this.compileOnly = compileOnly;
     }
 
+    /**
+     * Returns true to indicate that the deploy operation parses the statements of the module in parallel
+     * before compiling and starting statements, or false (the default) to indicate that statements are parsed in the
+     * deploying thread.
+     *
+     * @return indicator
+     */
+    public boolean isParallelParse() {
+        return parallelParse;
+    }
+
+    /**
+     * Set this indicator to true to indicate that the deploy operation parses the statements of the module in parallel
+     * before compiling and starting statements, or false (the default) to indicate that statements are parsed in the
+     * deploying thread.
+     * <p>
+     * Parallel parsing uses the common fork-join pool. The deploy operation also walks, in parallel, the statements that
+     * cannot refer to names, such as streams, windows, tables, variables or expressions, that earlier statements of the
+     * module define. Validating and starting statements remains sequential in the order of the module.
+     * </p>
+     *
+     * @param parallelParse indicator
+     */
+    public void setParallelParse(boolean parallelParse) {
+        this.parallelParse = parallelParse;
+    }
+
     /**
      * Returns the isolated service provider to deploy to, if specified.
      *
@@ -0,0 +1,71 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.snapshot;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Administrative interface for writing the named window, table and variable state of an engine instance to a compact
+ * binary snapshot and for restoring that state from such a snapshot, for example to seed an engine that runs the same modules.
+ * A snapshot is not a complete engine checkpoint, see below for the state that it does not contain.
+ * <p>
+ * A snapshot contains the events held by named windows, the rows held by tables, the values of variables and the
+ * engine time at the time of the snapshot. Named windows and tables that are declared with a context, tables that have
+ * aggregation columns, as well as constants and context-partitioned variables, are not part of the snapshot.
+ * </p>
+ * <p>
+ * Taking and restoring a snapshot both obtain the engine-wide event processing lock and therefore block event processing
+ * for the duration of the operation.
+ * </p>
+ * <p>
+ * Restoring a snapshot requires that the named windows, tables and variables of the snapshot have been created, for
+ * example by deploying the same modules, and does not change statements. When the engine uses external timer events,
+ * restoring first sets the engine time to the snapshot time. Events restored into a named window that has a time window
+ * retain their original arrival time and expire accordingly. Events restored into other named windows
+ * are treated as newly inserted: data windows retain them according to the engine time and the data window order and
+ * consuming statements receive them as insert stream. Scheduled callbacks, pattern state, the internal state of views
+ * other than time windows (such as the batch reference point of batch windows), the data windows of statements
+ * other than named windows and the aggregation state of statements are not part of the snapshot.
+ * </p>
+ * <p>
+ * Restoring validates the complete snapshot before changing state, so that a snapshot that cannot be restored leaves
+ * the engine state unchanged.
+ * </p>
+ */
+public interface EPSnapshotAdmin {
+    /**
+     * Writes a snapshot of the engine state to the output stream.
+     * <p>
+     * The output stream is not closed.
+     * </p>
+     *
+     * @param outputStream to write to
+     * @return descriptor of the snapshot written
+     * @throws EPSnapshotException if the state cannot be written, for example when an event
+     *                             underlying object or a column value is not serializable
+     */
+    public EPSnapshotDescriptor writeSnapshot(OutputStream outputStream) throws EPSnapshotException;
+
+    /**
+     * Reads a snapshot from the input stream and restores the engine state.
+     * <p>
+     * The input stream is not closed.
+     * </p>
+     *
+     * @param inputStream to read from
+     * @return descriptor of the snapshot restored
+     * @throws EPSnapshotException if the snapshot cannot be read or refers to a named window, table or variable
+     *                             that does not exist or that has a different event representation, or if a table
+     *                             already holds a row for the primary key of a snapshot row
+     */
+    public EPSnapshotDescriptor restoreSnapshot(InputStream inputStream) throws EPSnapshotException;
+}
@@ -0,0 +1,88 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.snapshot;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes the content of an engine state snapshot that was written or restored.
+ */
+public class EPSnapshotDescriptor {
+    private final long engineTime;
+    private final Map<String, Integer> namedWindowEventCounts;
+    private final Map<String, Integer> tableRowCounts;
+    private final Map<String, Object> variableValues;
+    private final Set<String> skippedTables;
+
+    /**
+     * Ctor.
+     *
+     * @param engineTime             engine time at the time of the snapshot
+     * @param namedWindowEventCounts number of events per named window
+     * @param tableRowCounts         number of rows per table
+     * @param variableValues         variable values
+     * @param skippedTables          names of tables that are not part of the snapshot
+     */
+    public EPSnapshotDescriptor(long engineTime, Map<String, Integer> namedWindowEventCounts, Map<String, Integer> tableRowCounts, Map<String, Object> variableValues, Set<String> skippedTables) {
+        this.engineTime = engineTime;
+        this.namedWindowEventCounts = namedWindowEventCounts;
+        this.tableRowCounts = tableRowCounts;
+        this.variableValues = variableValues;
+        this.skippedTables = skippedTables;
+    }
+
+    /**
+     * Returns the engine time at the time the snapshot was written.
+     *
+     * @return engine time
+     */
+    public long getEngineTime() {
+        return engineTime;
+    }
+
+    /**
+     * Returns the number of events per named window.
+     *
+     * @return event count per named window name
+     */
+    public Map<String, Integer> getNamedWindowEventCounts() {
+        return namedWindowEventCounts;
+    }
+
+    /**
+     * Returns the number of rows per table.
+     *
+     * @return row count per table name
+     */
+    public Map<String, Integer> getTableRowCounts() {
+        return tableRowCounts;
+    }
+
+    /**
+     * Returns the variable values.
+     *
+     * @return value per variable name
+     */
+    public Map<String, Object> getVariableValues() {
+        return variableValues;
+    }
+
+    /**
+     * Returns the names of the tables that were not written as they have aggregation columns, the aggregation state of
+     * which is not part of a snapshot. Empty for a restored snapshot.
+     *
+     * @return table names
+     */
+    public Set<String> getSkippedTables() {
+        return skippedTables;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client.snapshot;
+
+import com.espertech.esper.client.EPException;
+
+/**
+ * This exception is thrown to indicate a problem writing or restoring an engine state snapshot.
+ */
+public class EPSnapshotException extends EPException {
+    private static final long serialVersionUID = 6120465702396733561L;
+
+    /**
+     * Ctor.
+     *
+     * @param message - error message
+     */
+    public EPSnapshotException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Ctor for an inner exception and message.
+     *
+     * @param message - error message
+     * @param cause   - inner exception
+     */
+    public EPSnapshotException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,820 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.*;
+
+/**
+ * Sorted map of sort key to events based on a B+-tree, for use by sorted and ranked data windows.
+ * <p>
+ * The value for each key is either a single {@link EventBean} or a {@link List} of events that share the key,
+ * same as the TreeMap-based lazy-list maps of {@link com.espertech.esper.util.CollectionUtil}.
+ * Each node keeps its keys and values in arrays and the number of events held by its subtree,
+ * so that besides lookup, insert and remove by key, the event at a given position in the sort order
+ * can be obtained in O(log n) time.
+ * </p>
+ * <p>
+ * The tree keeps the number of events for each key. When changing a list value in place, call {@link #put}
+ * with the list afterwards, or use {@link #addEventFront}, {@link #addEventBack} and {@link #removeEvent},
+ * so that positions remain correct. The map views are read-only.
+ * </p>
+ * <p>
+ * For keys that are non-null integral or floating-point numbers the tree can compare keys as primitive values:
+ * each node then also keeps the keys encoded as {@code long} values in ascending or descending sort order,
+ * and lookups search these arrays without calling the comparator.
+ * </p>
+ * <p>
+ * Range indexes use the tree with values that are sets of events. Such values count as one event each.
+ * </p>
+ */
+public class BPlusTreeEventMap extends AbstractMap<Object, Object> {
+    private final static int MAX_ENTRIES = 32;
+    private final static int MIN_ENTRIES = MAX_ENTRIES / 4;
+
+    private final Comparator<Object> comparator;
+    private final boolean coded;
+    private final boolean codedDouble;
+    private final boolean descending;
+    private Node root;
+    private int keyCount;
+
+    /**
+     * Ctor.
+     *
+     * @param comparator for sort keys, or null for the natural order of keys
+     */
+    public BPlusTreeEventMap(Comparator<Object> comparator) {
+        this(comparator, null, false);
+    }
+
+    /**
+     * Ctor for keys of a given type. Keys of type byte, short, int or long and their boxed types compare as long values,
+     * keys of type float or double and their boxed types compare as double values, as by {@link Double#compare},
+     * and all keys must then be non-null. Keys of other types compare using the comparator.
+     *
+     * @param comparator for sort keys of other types, or null for the natural order of keys
+     * @param keyType    type of keys, or null when not known
+     * @param descending true to order numeric keys in descending order
+     */
+    public BPlusTreeEventMap(Comparator<Object> comparator, Class keyType, boolean descending) {
+        Class boxed = JavaClassHelper.getBoxedType(keyType);
+        this.comparator = comparator;
+        this.codedDouble = boxed == Double.class || boxed == Float.class;
+        this.coded = codedDouble || boxed == Long.class || boxed == Integer.class || boxed == Short.class || boxed == Byte.class;
+        this.descending = descending;
+        this.root = new Node(true, coded);
+    }
+
+    public int size() {
+        return keyCount;
+    }
+
+    public boolean isEmpty() {
+        return keyCount == 0;
+    }
+
+    /**
+     * Returns the number of events.
+     *
+     * @return event count
+     */
+    public int getEventCount() {
+        return root.events;
+    }
+
+    public Object get(Object key) {
+        long code = code(key);
+        Node leaf = findLeaf(key, code);
+        int index = find(leaf, key, code);
+        return index >= 0 ? leaf.values[index] : null;
+    }
+
+    public boolean containsKey(Object key) {
+        long code = code(key);
+        Node leaf = findLeaf(key, code);
+        return find(leaf, key, code) >= 0;
+    }
+
+    /**
+     * Associates the value, which must be an event or list of events, with the key.
+     *
+     * @param key   sort key
+     * @param value event or list of events
+     * @return prior value or null if none
+     */
+    public Object put(Object key, Object value) {
+        long code = code(key);
+        Node leaf = findLeaf(key, code);
+        int index = find(leaf, key, code);
+        Object prior = null;
+        int delta = count(value);
+        if (index >= 0) {
+            prior = leaf.values[index];
+            delta -= leaf.counts[index];
+        } else {
+            keyCount++;
+        }
+        Node split = insert(root, key, code, value, delta);
+        if (split != null) {
+            Node newRoot = new Node(false, coded);
+            copyKey(root, 0, newRoot, 0);
+            newRoot.children[0] = root;
+            copyKey(split, 0, newRoot, 1);
+            newRoot.children[1] = split;
+            newRoot.size = 2;
+            newRoot.events = root.events + split.events;
+            root = newRoot;
+        }
+        return prior;
+    }
+
+    public Object remove(Object key) {
+        long code = code(key);
+        Node leaf = findLeaf(key, code);
+        int index = find(leaf, key, code);
+        if (index < 0) {
+            return null;
+        }
+        Object prior = leaf.values[index];
+        delete(root, key, code, -leaf.counts[index]);
+        keyCount--;
+        while (!root.leaf && root.size == 1) {
+            root = root.children[0];
+        }
+        return prior;
+    }
+
+    public void clear() {
+        root = new Node(true, coded);
+        keyCount = 0;
+    }
+
+    /**
+     * Builds the tree from keys in ascending sort order in linear time. Requires an empty map.
+     *
+     * @param keys   distinct keys in sort order
+     * @param values value for each key
+     * @param count  number of keys
+     */
+    public void putAllSorted(Object[] keys, Object[] values, int count) {
+        if (keyCount != 0) {
+            throw new IllegalStateException("Map is not empty");
+        }
+        if (count == 0) {
+            return;
+        }
+        int numNodes = (count + MAX_ENTRIES - 1) / MAX_ENTRIES;
+        Node[] level = new Node[numNodes];
+        int position = 0;
+        Node prev = null;
+        for (int i = 0; i < numNodes; i++) {
+            Node leaf = new Node(true, coded);
+            int size = count / numNodes + (i < count % numNodes ? 1 : 0);
+            for (int j = 0; j < size; j++) {
+                leaf.keys[j] = keys[position];
+                if (coded) {
+                    leaf.codes[j] = code(keys[position]);
+                }
+                leaf.values[j] = values[position];
+                leaf.counts[j] = count(values[position]);
+                leaf.events += leaf.counts[j];
+                position++;
+            }
+            leaf.size = size;
+            leaf.prev = prev;
+            if (prev != null) {
+                prev.next = leaf;
+            }
+            prev = leaf;
+            level[i] = leaf;
+        }
+
+        while (level.length > 1) {
+            int numParents = (level.length + MAX_ENTRIES - 1) / MAX_ENTRIES;
+            Node[] parents = new Node[numParents];
+            position = 0;
+            for (int i = 0; i < numParents; i++) {
+                Node parent = new Node(false, coded);
+                int size = level.length / numParents + (i < level.length % numParents ? 1 : 0);
+                for (int j = 0; j < size; j++) {
+                    Node child = level[position++];
+                    copyKey(child, 0, parent, j);
+                    parent.children[j] = child;
+                    parent.events += child.events;
+                }
+                parent.size = size;
+                parents[i] = parent;
+            }
+            level = parents;
+        }
+        root = level[0];
+        keyCount = count;
+    }
+
+    /**
+     * Compares two keys in the sort order of the map.
+     *
+     * @param first  key
+     * @param second key
+     * @return negative, zero or positive
+     */
+    public int compareKeys(Object first, Object second) {
+        if (coded) {
+            return Long.compare(code(first), code(second));
+        }
+        return compare(first, second);
+    }
+
+    /**
+     * Returns the values of the keys within the range, in sort order.
+     *
+     * @param fromKey       lower bound, or null for no lower bound
+     * @param fromInclusive true to include the lower bound
+     * @param toKey         upper bound, or null for no upper bound
+     * @param toInclusive   true to include the upper bound
+     * @return read-only iterator of values
+     */
+    public Iterator<Object> rangeValues(Object fromKey, boolean fromInclusive, Object toKey, boolean toInclusive) {
+        Node leaf;
+        int index;
+        if (fromKey == null) {
+            leaf = firstLeaf();
+            index = 0;
+        } else {
+            long code = code(fromKey);
+            leaf = findLeaf(fromKey, code);
+            index = find(leaf, fromKey, code);
+            if (index >= 0) {
+                if (!fromInclusive) {
+                    index++;
+                }
+            } else {
+                index = -(index + 1);
+            }
+        }
+        return new RangeValueIterator(leaf, index, toKey, toKey == null ? 0 : code(toKey), toInclusive);
+    }
+
+    /**
+     * Add an event for a key, listing it before events of the same key.
+     *
+     * @param key   sort key
+     * @param event to add
+     */
+    public void addEventFront(Object key, EventBean event) {
+        Object existing = get(key);
+        if (existing == null) {
+            put(key, event);
+        } else if (existing instanceof List) {
+            List<EventBean> events = (List<EventBean>) existing;
+            events.add(0, event);
+            put(key, events);
+        } else {
+            List<EventBean> events = new ArrayList<EventBean>(4);
+            events.add(event);
+            events.add((EventBean) existing);
+            put(key, events);
+        }
+    }
+
+    /**
+     * Add an event for a key, listing it after events of the same key.
+     *
+     * @param key   sort key
+     * @param event to add
+     */
+    public void addEventBack(Object key, EventBean event) {
+        Object existing = get(key);
+        if (existing == null) {
+            put(key, event);
+        } else if (existing instanceof List) {
+            List<EventBean> events = (List<EventBean>) existing;
+            events.add(event);
+            put(key, events);
+        } else {
+            List<EventBean> events = new ArrayList<EventBean>(4);
+            events.add((EventBean) existing);
+            events.add(event);
+            put(key, events);
+        }
+    }
+
+    /**
+     * Remove an event for a key, removing the key when no events remain.
+     *
+     * @param key   sort key
+     * @param event to remove
+     * @return true if removed, false if not found
+     */
+    public boolean removeEvent(Object key, EventBean event) {
+        Object existing = get(key);
+        if (existing == null) {
+            return false;
+        }
+        if (existing instanceof List) {
+            List<EventBean> events = (List<EventBean>) existing;
+            if (!events.remove(event)) {
+                return false;
+            }
+            if (events.isEmpty()) {
+                remove(key);
+            } else {
+                put(key, events);
+            }
+            return true;
+        }
+        if (existing.equals(event)) {
+            remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the event at the position in sort order, with events of the same key in list order.
+     *
+     * @param index position
+     * @return event or null if the index is out of range
+     */
+    public EventBean getEvent(int index) {
+        if (index < 0 || index >= root.events) {
+            return null;
+        }
+        Node node = root;
+        while (!node.leaf) {
+            int i = 0;
+            while (index >= node.children[i].events) {
+                index -= node.children[i].events;
+                i++;
+            }
+            node = node.children[i];
+        }
+        int i = 0;
+        while (index >= node.counts[i]) {
+            index -= node.counts[i];
+            i++;
+        }
+        Object value = node.values[i];
+        if (value instanceof List) {
+            return ((List<EventBean>) value).get(index);
+        }
+        return (EventBean) value;
+    }
+
+    /**
+     * Returns the first key.
+     *
+     * @return first key
+     * @throws NoSuchElementException if empty
+     */
+    public Object firstKey() {
+        if (keyCount == 0) {
+            throw new NoSuchElementException();
+        }
+        Node node = root;
+        while (!node.leaf) {
+            node = node.children[0];
+        }
+        return node.keys[0];
+    }
+
+    /**
+     * Returns the last key.
+     *
+     * @return last key
+     * @throws NoSuchElementException if empty
+     */
+    public Object lastKey() {
+        if (keyCount == 0) {
+            throw new NoSuchElementException();
+        }
+        Node node = root;
+        while (!node.leaf) {
+            node = node.children[node.size - 1];
+        }
+        return node.keys[node.size - 1];
+    }
+
+    public Set<Entry<Object, Object>> entrySet() {
+        return new AbstractSet<Entry<Object, Object>>() {
+            public Iterator<Entry<Object, Object>> iterator() {
+                return new EntryIterator(firstLeaf());
+            }
+
+            public int size() {
+                return keyCount;
+            }
+        };
+    }
+
+    private Node insert(Node node, Object key, long code, Object value, int delta) {
+        node.events += delta;
+        if (node.leaf) {
+            int index = find(node, key, code);
+            if (index >= 0) {
+                node.values[index] = value;
+                node.counts[index] = count(value);
+                return null;
+            }
+            index = -(index + 1);
+            System.arraycopy(node.keys, index, node.keys, index + 1, node.size - index);
+            System.arraycopy(node.values, index, node.values, index + 1, node.size - index);
+            System.arraycopy(node.counts, index, node.counts, index + 1, node.size - index);
+            if (coded) {
+                System.arraycopy(node.codes, index, node.codes, index + 1, node.size - index);
+                node.codes[index] = code;
+            }
+            node.keys[index] = key;
+            node.values[index] = value;
+            node.counts[index] = count(value);
+            node.size++;
+        } else {
+            int index = childIndex(node, key, code);
+            Node split = insert(node.children[index], key, code, value, delta);
+            copyKey(node.children[index], 0, node, index);
+            if (split == null) {
+                return null;
+            }
+            System.arraycopy(node.keys, index + 1, node.keys, index + 2, node.size - index - 1);
+            if (coded) {
+                System.arraycopy(node.codes, index + 1, node.codes, index + 2, node.size - index - 1);
+            }
+            System.arraycopy(node.children, index + 1, node.children, index + 2, node.size - index - 1);
+            copyKey(split, 0, node, index + 1);
+            node.children[index + 1] = split;
+            node.size++;
+        }
+        return node.size > MAX_ENTRIES ? split(node) : null;
+    }
+
+    private void delete(Node node, Object key, long code, int delta) {
+        node.events += delta;
+        if (node.leaf) {
+            int index = find(node, key, code);
+            removeAt(node, index);
+            return;
+        }
+        int index = childIndex(node, key, code);
+        Node child = node.children[index];
+        delete(child, key, code, delta);
+        if (child.size == 0) {
+            if (child.leaf) {
+                unlink(child);
+            }
+            removeAt(node, index);
+            return;
+        }
+        copyKey(child, 0, node, index);
+        if (child.size < MIN_ENTRIES) {
+            rebalance(node, index);
+        }
+    }
+
+    private Node split(Node node) {
+        Node right = new Node(node.leaf, coded);
+        int half = node.size / 2;
+        int moved = node.size - half;
+        moveEntries(node, half, right, 0, moved);
+        if (node.leaf) {
+            right.next = node.next;
+            if (right.next != null) {
+                right.next.prev = right;
+            }
+            right.prev = node;
+            node.next = right;
+        }
+        right.size = moved;
+        node.size = half;
+        clearFrom(node, half, moved);
+        right.events = sumEvents(right, 0, moved);
+        node.events -= right.events;
+        return right;
+    }
+
+    // merges the child at the index with a sibling, or moves entries from a sibling when both are too large to merge
+    private void rebalance(Node parent, int index) {
+        if (parent.size < 2) {
+            return;
+        }
+        int leftIndex = index > 0 ? index - 1 : index;
+        Node left = parent.children[leftIndex];
+        Node right = parent.children[leftIndex + 1];
+        int total = left.size + right.size;
+        if (total <= MAX_ENTRIES) {
+            moveEntries(right, 0, left, left.size, right.size);
+            left.size = total;
+            left.events += right.events;
+            if (left.leaf) {
+                unlink(right);
+            }
+            removeAt(parent, leftIndex + 1);
+            return;
+        }
+
+        int target = total / 2;
+        if (left.size < target) {
+            int moved = target - left.size;
+            int movedEvents = sumEvents(right, 0, moved);
+            moveEntries(right, 0, left, left.size, moved);
+            left.size += moved;
+            removeRange(right, 0, moved);
+            left.events += movedEvents;
+            right.events -= movedEvents;
+        } else {
+            int moved = left.size - target;
+            int movedEvents = sumEvents(left, target, moved);
+            shiftRight(right, moved);
+            moveEntries(left, target, right, 0, moved);
+            right.size += moved;
+            left.size = target;
+            clearFrom(left, target, moved);
+            left.events -= movedEvents;
+            right.events += movedEvents;
+        }
+        copyKey(right, 0, parent, leftIndex + 1);
+    }
+
+    private static void moveEntries(Node from, int fromIndex, Node to, int toIndex, int length) {
+        System.arraycopy(from.keys, fromIndex, to.keys, toIndex, length);
+        if (from.codes != null) {
+            System.arraycopy(from.codes, fromIndex, to.codes, toIndex, length);
+        }
+        if (from.leaf) {
+            System.arraycopy(from.values, fromIndex, to.values, toIndex, length);
+            System.arraycopy(from.counts, fromIndex, to.counts, toIndex, length);
+        } else {
+            System.arraycopy(from.children, fromIndex, to.children, toIndex, length);
+        }
+    }
+
+    private static void copyKey(Node from, int fromIndex, Node to, int toIndex) {
+        to.keys[toIndex] = from.keys[fromIndex];
+        if (from.codes != null) {
+            to.codes[toIndex] = from.codes[fromIndex];
+        }
+    }
+
+    private static void shiftRight(Node node, int distance) {
+        moveEntries(node, 0, node, distance, node.size);
+    }
+
+    private static void removeRange(Node node, int index, int length) {
+        moveEntries(node, index + length, node, index, node.size - index - length);
+        node.size -= length;
+        clearFrom(node, node.size, length);
+    }
+
+    private static void removeAt(Node node, int index) {
+        removeRange(node, index, 1);
+    }
+
+    private static void clearFrom(Node node, int index, int length) {
+        Arrays.fill(node.keys, index, index + length, null);
+        if (node.leaf) {
+            Arrays.fill(node.values, index, index + length, null);
+        } else {
+            Arrays.fill(node.children, index, index + length, null);
+        }
+    }
+
+    private static int sumEvents(Node node, int index, int length) {
+        int sum = 0;
+        for (int i = index; i < index + length; i++) {
+            sum += node.leaf ? node.counts[i] : node.children[i].events;
+        }
+        return sum;
+    }
+
+    private static void unlink(Node leaf) {
+        if (leaf.prev != null) {
+            leaf.prev.next = leaf.next;
+        }
+        if (leaf.next != null) {
+            leaf.next.prev = leaf.prev;
+        }
+        leaf.prev = null;
+        leaf.next = null;
+    }
+
+    private Node findLeaf(Object key, long code) {
+        Node node = root;
+        while (!node.leaf) {
+            node = node.children[childIndex(node, key, code)];
+        }
+        return node;
+    }
+
+    private Node firstLeaf() {
+        Node node = root;
+        while (!node.leaf) {
+            node = node.children[0];
+        }
+        return node;
+    }
+
+    // index of the last child whose first key is less than or equal to the key, or zero
+    private int childIndex(Node node, Object key, long code) {
+        int low = 1;
+        int high = node.size - 1;
+        if (coded) {
+            long[] codes = node.codes;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (codes[mid] <= code) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low - 1;
+        }
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(node.keys[mid], key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    // index of the key in the leaf, or (-(insertion point) - 1) when not found
+    private int find(Node leaf, Object key, long code) {
+        int low = 0;
+        int high = leaf.size - 1;
+        if (coded) {
+            long[] codes = leaf.codes;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midCode = codes[mid];
+                if (midCode < code) {
+                    low = mid + 1;
+                } else if (midCode > code) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compared = compare(leaf.keys[mid], key);
+            if (compared < 0) {
+                low = mid + 1;
+            } else if (compared > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int compare(Object first, Object second) {
+        if (comparator != null) {
+            return comparator.compare(first, second);
+        }
+        return ((Comparable<Object>) first).compareTo(second);
+    }
+
+    // the key as a long value in sort order, for primitive comparison
+    private long code(Object key) {
+        if (!coded) {
+            return 0;
+        }
+        long code;
+        if (codedDouble) {
+            long bits = Double.doubleToLongBits(((Number) key).doubleValue());
+            code = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        } else {
+            code = ((Number) key).longValue();
+        }
+        return descending ? ~code : code;
+    }
+
+    private static int count(Object value) {
+        if (value instanceof List) {
+            return ((List) value).size();
+        }
+        return value == null ? 0 : 1;
+    }
+
+    private static class Node {
+        private final boolean leaf;
+        private final Object[] keys = new Object[MAX_ENTRIES + 1];
+        private final long[] codes;
+        private final Object[] values;
+        private final int[] counts;
+        private final Node[] children;
+        private int size;
+        private int events;
+        private Node prev;
+        private Node next;
+
+        private Node(boolean leaf, boolean coded) {
+            this.leaf = leaf;
+            this.codes = coded ? new long[MAX_ENTRIES + 1] : null;
+            this.values = leaf ? new Object[MAX_ENTRIES + 1] : null;
+            this.counts = leaf ? new int[MAX_ENTRIES + 1] : null;
+            this.children = leaf ? null : new Node[MAX_ENTRIES + 1];
+        }
+    }
+
+    private static class EntryIterator implements Iterator<Entry<Object, Object>> {
+        private Node leaf;
+        private int index;
+
+        private EntryIterator(Node leaf) {
+            this.leaf = leaf;
+            skipEmpty();
+        }
+
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        public Entry<Object, Object> next() {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<Object, Object> entry = new SimpleImmutableEntry<Object, Object>(leaf.keys[index], leaf.values[index]);
+            index++;
+            skipEmpty();
+            return entry;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("Read-only iterator");
+        }
+
+        private void skipEmpty() {
+            while (leaf != null && index >= leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+    }
+
+    private class RangeValueIterator implements Iterator<Object> {
+        private final Object toKey;
+        private final long toCode;
+        private final boolean toInclusive;
+        private Node leaf;
+        private int index;
+
+        private RangeValueIterator(Node leaf, int index, Object toKey, long toCode, boolean toInclusive) {
+            this.leaf = leaf;
+            this.index = index;
+            this.toKey = toKey;
+            this.toCode = toCode;
+            this.toInclusive = toInclusive;
+            advance();
+        }
+
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        public Object next() {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            Object value = leaf.values[index];
+            index++;
+            advance();
+            return value;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("Read-only iterator");
+        }
+
+        // moves to the next entry, ending the iteration after the upper bound
+        private void advance() {
+            while (leaf != null && index >= leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            if (leaf == null || toKey == null) {
+                return;
+            }
+            int compared = coded ? Long.compare(leaf.codes[index], toCode) : compare(leaf.keys[index], toKey);
+            if (compared > 0 || (compared == 0 && !toInclusive)) {
+                leaf = null;
+            }
+        }
+    }
+}
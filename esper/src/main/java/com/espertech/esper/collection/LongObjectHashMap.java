@@ -0,0 +1,238 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Hash map with primitive long keys and non-null object values, based on open addressing with linear probing.
+ * <p>
+ * Lookups do not allocate. Slots can be iterated without allocation by means of {@link #getCapacity()},
+ * {@link #getKeyAt(int)} and {@link #getValueAt(int)}, wherein a null value indicates an unused slot.
+ * <p>
+ * Not thread-safe.
+ */
+public class LongObjectHashMap<V> {
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int shift;
+    private int resizeAt;
+
+    /**
+     * Ctor.
+     */
+    public LongObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param expectedSize number of entries to size the map for
+     */
+    public LongObjectHashMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Copy-ctor.
+     *
+     * @param other map to copy
+     */
+    public LongObjectHashMap(LongObjectHashMap<V> other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        size = other.size;
+        mask = other.mask;
+        shift = other.shift;
+        resizeAt = other.resizeAt;
+    }
+
+    /**
+     * Returns the value for the key.
+     *
+     * @param key to look up
+     * @return value or null if not found
+     */
+    public V get(long key) {
+        int slot = hash(key);
+        Object value;
+        while ((value = values[slot]) != null) {
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns indicator whether the key exists.
+     *
+     * @param key to look up
+     * @return true when found
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Add or replace the value for a key.
+     *
+     * @param key   key
+     * @param value value, cannot be null
+     * @return prior value or null if none
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        int slot = hash(key);
+        Object existing;
+        while ((existing = values[slot]) != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return (V) existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Remove the key.
+     *
+     * @param key to remove
+     * @return removed value or null if not found
+     */
+    public V remove(long key) {
+        int slot = hash(key);
+        Object existing;
+        while ((existing = values[slot]) != null) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return (V) existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns indicator whether there are no entries.
+     *
+     * @return true for empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return values.length;
+    }
+
+    /**
+     * Returns the key at the slot, only meaningful when the value at the slot is not null.
+     *
+     * @param slot slot number
+     * @return key
+     */
+    public long getKeyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Returns the value at the slot.
+     *
+     * @param slot slot number
+     * @return value or null for an unused slot
+     */
+    public V getValueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private int hash(long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> shift);
+    }
+
+    private void shiftBack(int slot) {
+        // backward-shift deletion keeps probe sequences intact without tombstones
+        int free = slot;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            if (values[current] == null) {
+                break;
+            }
+            int ideal = hash(keys[current]);
+            boolean movable = free <= current ? (ideal <= free || ideal > current) : (ideal <= free && ideal > current);
+            if (movable) {
+                keys[free] = keys[current];
+                values[free] = values[current];
+                free = current;
+            }
+        }
+        values[free] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]);
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        resizeAt = capacity * 3 / 4;
+    }
+}
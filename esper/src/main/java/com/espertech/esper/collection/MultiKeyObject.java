@@ -0,0 +1,88 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.util.MetaDefItem;
+
+import java.io.Serializable;
+
+/**
+ * Base class for composite keys that hold object key values, such as string values, for use where the key values
+ * are not all primitive.
+ * <p>
+ * The keys of two or three key values hold the key values in fields, see {@link MultiKeyObject2} and {@link MultiKeyObject3}.
+ * The hashCode mixes the hash codes of all key values in the manner of the Murmur3 32-bit hash, see {@link MultiKeyPrimitive},
+ * so that keys that differ in any key value spread across hash buckets. Keys of a different number of key values are not equal.
+ * </p>
+ */
+public abstract class MultiKeyObject implements MetaDefItem, Serializable {
+    private static final long serialVersionUID = 5290360829391815587L;
+
+    /**
+     * Returns a key for the key values.
+     *
+     * @param keys key values
+     * @return key
+     */
+    public static MultiKeyObject make(Object[] keys) {
+        if (keys.length == 2) {
+            return new MultiKeyObject2(keys[0], keys[1]);
+        }
+        if (keys.length == 3) {
+            return new MultiKeyObject3(keys[0], keys[1], keys[2]);
+        }
+        return new MultiKeyObjectArray(keys);
+    }
+
+    /**
+     * Returns the number of key values.
+     *
+     * @return number of key values
+     */
+    public abstract int size();
+
+    /**
+     * Returns the key value at the index.
+     *
+     * @param index index of key value
+     * @return key value
+     */
+    public abstract Object get(int index);
+
+    /**
+     * Returns the key values.
+     *
+     * @return key values
+     */
+    public abstract Object[] getKeys();
+
+    /**
+     * Mixes a key value into a hash code.
+     *
+     * @param hash  hash code so far
+     * @param value key value
+     * @return hash code
+     */
+    protected static int mixHash(int hash, Object value) {
+        return MultiKeyPrimitive.mixHash(hash, value == null ? 0 : value.hashCode());
+    }
+
+    /**
+     * Compares key values.
+     *
+     * @param value key value
+     * @param other other key value
+     * @return equals indicator
+     */
+    protected static boolean equalsValue(Object value, Object other) {
+        return value == null ? other == null : value.equals(other);
+    }
+}
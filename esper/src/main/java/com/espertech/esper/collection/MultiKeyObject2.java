@@ -0,0 +1,71 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Composite key of two object key values, see {@link MultiKeyObject}.
+ */
+public final class MultiKeyObject2 extends MultiKeyObject {
+    private static final long serialVersionUID = -1793012417425283264L;
+    private final Object k0;
+    private final Object k1;
+    private final int hashCode;
+
+    /**
+     * Ctor.
+     *
+     * @param k0 first key value
+     * @param k1 second key value
+     */
+    public MultiKeyObject2(Object k0, Object k1) {
+        this.k0 = k0;
+        this.k1 = k1;
+        this.hashCode = MultiKeyPrimitive.finishHash(mixHash(mixHash(0, k0), k1), 2);
+    }
+
+    public int size() {
+        return 2;
+    }
+
+    public Object get(int index) {
+        switch (index) {
+            case 0:
+                return k0;
+            case 1:
+                return k1;
+            default:
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size 2");
+        }
+    }
+
+    public Object[] getKeys() {
+        return new Object[]{k0, k1};
+    }
+
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof MultiKeyObject2)) {
+            return false;
+        }
+        MultiKeyObject2 that = (MultiKeyObject2) other;
+        return hashCode == that.hashCode && equalsValue(k0, that.k0) && equalsValue(k1, that.k1);
+    }
+
+    public int hashCode() {
+        return hashCode;
+    }
+
+    public String toString() {
+        return "MultiKeyObject2[" + k0 + ", " + k1 + "]";
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Composite key of three object key values, see {@link MultiKeyObject}.
+ */
+public final class MultiKeyObject3 extends MultiKeyObject {
+    private static final long serialVersionUID = 8316095447380286512L;
+    private final Object k0;
+    private final Object k1;
+    private final Object k2;
+    private final int hashCode;
+
+    /**
+     * Ctor.
+     *
+     * @param k0 first key value
+     * @param k1 second key value
+     * @param k2 third key value
+     */
+    public MultiKeyObject3(Object k0, Object k1, Object k2) {
+        this.k0 = k0;
+        this.k1 = k1;
+        this.k2 = k2;
+        this.hashCode = MultiKeyPrimitive.finishHash(mixHash(mixHash(mixHash(0, k0), k1), k2), 3);
+    }
+
+    public int size() {
+        return 3;
+    }
+
+    public Object get(int index) {
+        switch (index) {
+            case 0:
+                return k0;
+            case 1:
+                return k1;
+            case 2:
+                return k2;
+            default:
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size 3");
+        }
+    }
+
+    public Object[] getKeys() {
+        return new Object[]{k0, k1, k2};
+    }
+
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof MultiKeyObject3)) {
+            return false;
+        }
+        MultiKeyObject3 that = (MultiKeyObject3) other;
+        return hashCode == that.hashCode && equalsValue(k0, that.k0) && equalsValue(k1, that.k1) && equalsValue(k2, that.k2);
+    }
+
+    public int hashCode() {
+        return hashCode;
+    }
+
+    public String toString() {
+        return "MultiKeyObject3[" + k0 + ", " + k1 + ", " + k2 + "]";
+    }
+}
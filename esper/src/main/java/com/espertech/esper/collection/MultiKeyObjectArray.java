@@ -0,0 +1,70 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.Arrays;
+
+/**
+ * Composite key of any number of object key values held in an array, see {@link MultiKeyObject}.
+ */
+public final class MultiKeyObjectArray extends MultiKeyObject {
+    private static final long serialVersionUID = 2451869047707413969L;
+    private final Object[] keys;
+    private final int hashCode;
+
+    /**
+     * Ctor.
+     *
+     * @param keys key values
+     */
+    public MultiKeyObjectArray(Object[] keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("The array of keys must not be null");
+        }
+        int hash = 0;
+        for (Object key : keys) {
+            hash = mixHash(hash, key);
+        }
+        this.keys = keys;
+        this.hashCode = MultiKeyPrimitive.finishHash(hash, keys.length);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public Object get(int index) {
+        return keys[index];
+    }
+
+    public Object[] getKeys() {
+        return keys;
+    }
+
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof MultiKeyObjectArray)) {
+            return false;
+        }
+        MultiKeyObjectArray that = (MultiKeyObjectArray) other;
+        return hashCode == that.hashCode && Arrays.equals(keys, that.keys);
+    }
+
+    public int hashCode() {
+        return hashCode;
+    }
+
+    public String toString() {
+        return "MultiKeyObjectArray" + Arrays.asList(keys).toString();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.util.MetaDefItem;
+
+import java.io.Serializable;
+
+/**
+ * Base class for fixed-arity composite keys that hold primitive key values.
+ * <p>
+ * Each key value is held as the bits of a long value, and a null value is marked by a bit of the null mask,
+ * see {@link MultiKeyPrimitiveFactory} for the encoding. The keys do not box their values and the hashCode
+ * mixes the bits of all key values in the manner of the Murmur3 32-bit hash.
+ * </p>
+ */
+public abstract class MultiKeyPrimitive implements MetaDefItem, Serializable {
+    private static final long serialVersionUID = -6218461520457339613L;
+
+    /**
+     * Mask wherein bit n is set when the key value at index n is null.
+     */
+    protected final int nullMask;
+
+    /**
+     * Ctor.
+     *
+     * @param nullMask bit set of null key values
+     */
+    protected MultiKeyPrimitive(int nullMask) {
+        this.nullMask = nullMask;
+    }
+
+    /**
+     * Returns the number of key values.
+     *
+     * @return number of key values
+     */
+    public abstract int size();
+
+    /**
+     * Returns the bits of the key value at the index.
+     *
+     * @param index index of key value
+     * @return bits, zero for a null value
+     */
+    public abstract long getBits(int index);
+
+    /**
+     * Returns true when the key value at the index is null.
+     *
+     * @param index index of key value
+     * @return null indicator
+     */
+    public boolean isNull(int index) {
+        return (nullMask & (1 << index)) != 0;
+    }
+
+    /**
+     * Mixes a key value into a hash code.
+     *
+     * @param hash hash code so far
+     * @param value key value bits
+     * @return hash code
+     */
+    public static int mixHash(int hash, long value) {
+        return mixHash(hash, (int) (value ^ (value >>> 32)));
+    }
+
+    /**
+     * Mixes a key hash code into a hash code.
+     *
+     * @param hash hash code so far
+     * @param value key hash code
+     * @return hash code
+     */
+    public static int mixHash(int hash, int value) {
+        int k = value * 0xcc9e2d51;
+        k = Integer.rotateLeft(k, 15);
+        k *= 0x1b873593;
+        hash ^= k;
+        hash = Integer.rotateLeft(hash, 13);
+        return hash * 5 + 0xe6546b64;
+    }
+
+    /**
+     * Applies the finalization mix to a hash code.
+     *
+     * @param hash hash code so far
+     * @param length number of values mixed into the hash code
+     * @return hash code
+     */
+    public static int finishHash(int hash, int length) {
+        hash ^= length;
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
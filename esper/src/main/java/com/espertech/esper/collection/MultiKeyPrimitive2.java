@@ -0,0 +1,69 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Composite key of two primitive key values, see {@link MultiKeyPrimitive}.
+ */
+public final class MultiKeyPrimitive2 extends MultiKeyPrimitive {
+    private static final long serialVersionUID = 3406719426310458316L;
+    private final long k0;
+    private final long k1;
+    private final int hashCode;
+
+    /**
+     * Ctor.
+     *
+     * @param k0 first key value bits
+     * @param k1 second key value bits
+     * @param nullMask bit set of null key values
+     */
+    public MultiKeyPrimitive2(long k0, long k1, int nullMask) {
+        super(nullMask);
+        this.k0 = k0;
+        this.k1 = k1;
+        this.hashCode = finishHash(mixHash(mixHash(mixHash(0, k0), k1), nullMask), 2);
+    }
+
+    public int size() {
+        return 2;
+    }
+
+    public long getBits(int index) {
+        switch (index) {
+            case 0:
+                return k0;
+            case 1:
+                return k1;
+            default:
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size 2");
+        }
+    }
+
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof MultiKeyPrimitive2)) {
+            return false;
+        }
+        MultiKeyPrimitive2 that = (MultiKeyPrimitive2) other;
+        return k0 == that.k0 && k1 == that.k1 && nullMask == that.nullMask;
+    }
+
+    public int hashCode() {
+        return hashCode;
+    }
+
+    public String toString() {
+        return "MultiKeyPrimitive2[" + k0 + ", " + k1 + ", nullMask=" + nullMask + "]";
+    }
+}
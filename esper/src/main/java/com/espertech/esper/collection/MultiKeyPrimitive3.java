@@ -0,0 +1,74 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Composite key of three primitive key values, see {@link MultiKeyPrimitive}.
+ */
+public final class MultiKeyPrimitive3 extends MultiKeyPrimitive {
+    private static final long serialVersionUID = -2739017659244357312L;
+    private final long k0;
+    private final long k1;
+    private final long k2;
+    private final int hashCode;
+
+    /**
+     * Ctor.
+     *
+     * @param k0 first key value bits
+     * @param k1 second key value bits
+     * @param k2 third key value bits
+     * @param nullMask bit set of null key values
+     */
+    public MultiKeyPrimitive3(long k0, long k1, long k2, int nullMask) {
+        super(nullMask);
+        this.k0 = k0;
+        this.k1 = k1;
+        this.k2 = k2;
+        this.hashCode = finishHash(mixHash(mixHash(mixHash(mixHash(0, k0), k1), k2), nullMask), 3);
+    }
+
+    public int size() {
+        return 3;
+    }
+
+    public long getBits(int index) {
+        switch (index) {
+            case 0:
+                return k0;
+            case 1:
+                return k1;
+            case 2:
+                return k2;
+            default:
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size 3");
+        }
+    }
+
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof MultiKeyPrimitive3)) {
+            return false;
+        }
+        MultiKeyPrimitive3 that = (MultiKeyPrimitive3) other;
+        return k0 == that.k0 && k1 == that.k1 && k2 == that.k2 && nullMask == that.nullMask;
+    }
+
+    public int hashCode() {
+        return hashCode;
+    }
+
+    public String toString() {
+        return "MultiKeyPrimitive3[" + k0 + ", " + k1 + ", " + k2 + ", nullMask=" + nullMask + "]";
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.io.Serializable;
+
+/**
+ * Makes composite keys that hold primitive key values without boxing, for two or three key values of
+ * boolean, character, byte, short, int, long, float or double type.
+ * <p>
+ * Integral and character values are held as their long value, floating-point values as their raw bits
+ * and boolean values as one or zero, so that two keys are equal exactly when the key values are equal
+ * according to the equals-method of the boxed type.
+ * </p>
+ * <p>
+ * A key value that is not of the declared type, for example a subclass value of an expression declared to return {@link Number},
+ * cannot be encoded and the factory returns a {@link MultiKeyObject} instead. Such a key is never equal to a
+ * primitive key, which is consistent with the boxed values not being equal either.
+ * </p>
+ */
+public final class MultiKeyPrimitiveFactory implements Serializable {
+    private static final long serialVersionUID = -2063154383214318006L;
+
+    private static final int KIND_INT = 0;
+    private static final int KIND_LONG = 1;
+    private static final int KIND_SHORT = 2;
+    private static final int KIND_BYTE = 3;
+    private static final int KIND_DOUBLE = 4;
+    private static final int KIND_FLOAT = 5;
+    private static final int KIND_BOOLEAN = 6;
+    private static final int KIND_CHAR = 7;
+
+    private final Class[] types;
+    private final int[] kinds;
+
+    private MultiKeyPrimitiveFactory(Class[] types, int[] kinds) {
+        this.types = types;
+        this.kinds = kinds;
+    }
+
+    /**
+     * Returns a factory for the key value types, or null if the key value types or the number of key values are not supported.
+     *
+     * @param types key value types, boxed or unboxed
+     * @return factory or null
+     */
+    public static MultiKeyPrimitiveFactory make(Class[] types) {
+        if (types == null || types.length < 2 || types.length > 3) {
+            return null;
+        }
+        Class[] boxed = new Class[types.length];
+        int[] kinds = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == null) {
+                return null;
+            }
+            boxed[i] = JavaClassHelper.getBoxedType(types[i]);
+            kinds[i] = getKind(boxed[i]);
+            if (kinds[i] == -1) {
+                return null;
+            }
+        }
+        return new MultiKeyPrimitiveFactory(boxed, kinds);
+    }
+
+    /**
+     * Returns the key for two key values.
+     *
+     * @param v0 first key value
+     * @param v1 second key value
+     * @return key
+     */
+    public Object makeKey(Object v0, Object v1) {
+        if (!isEncodable(0, v0) || !isEncodable(1, v1)) {
+            return new MultiKeyObject2(v0, v1);
+        }
+        int nullMask = (v0 == null ? 1 : 0) | (v1 == null ? 2 : 0);
+        return new MultiKeyPrimitive2(encode(0, v0), encode(1, v1), nullMask);
+    }
+
+    /**
+     * Returns the key for three key values.
+     *
+     * @param v0 first key value
+     * @param v1 second key value
+     * @param v2 third key value
+     * @return key
+     */
+    public Object makeKey(Object v0, Object v1, Object v2) {
+        if (!isEncodable(0, v0) || !isEncodable(1, v1) || !isEncodable(2, v2)) {
+            return new MultiKeyObject3(v0, v1, v2);
+        }
+        int nullMask = (v0 == null ? 1 : 0) | (v1 == null ? 2 : 0) | (v2 == null ? 4 : 0);
+        return new MultiKeyPrimitive3(encode(0, v0), encode(1, v1), encode(2, v2), nullMask);
+    }
+
+    /**
+     * Returns the key for key values.
+     *
+     * @param values key values, as many as the factory has key value types
+     * @return key
+     */
+    public Object makeKey(Object[] values) {
+        if (types.length == 2) {
+            return makeKey(values[0], values[1]);
+        }
+        return makeKey(values[0], values[1], values[2]);
+    }
+
+    /**
+     * Returns the key values of a key made by this factory.
+     *
+     * @param key key
+     * @return key values
+     */
+    public Object[] getKeys(Object key) {
+        if (key instanceof MultiKeyObject) {
+            return ((MultiKeyObject) key).getKeys();
+        }
+        MultiKeyPrimitive mk = (MultiKeyPrimitive) key;
+        Object[] values = new Object[mk.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = mk.isNull(i) ? null : decode(i, mk.getBits(i));
+        }
+        return values;
+    }
+
+    /**
+     * Returns the number of key values.
+     *
+     * @return number of key values
+     */
+    public int size() {
+        return types.length;
+    }
+
+    private boolean isEncodable(int index, Object value) {
+        return value == null || value.getClass() == types[index];
+    }
+
+    private long encode(int index, Object value) {
+        if (value == null) {
+            return 0;
+        }
+        switch (kinds[index]) {
+            case KIND_INT:
+                return (Integer) value;
+            case KIND_LONG:
+                return (Long) value;
+            case KIND_SHORT:
+                return (Short) value;
+            case KIND_BYTE:
+                return (Byte) value;
+            case KIND_DOUBLE:
+                return Double.doubleToLongBits((Double) value);
+            case KIND_FLOAT:
+                return Float.floatToIntBits((Float) value);
+            case KIND_BOOLEAN:
+                return (Boolean) value ? 1 : 0;
+            default:
+                return (Character) value;
+        }
+    }
+
+    private Object decode(int index, long bits) {
+        switch (kinds[index]) {
+            case KIND_INT:
+                return (int) bits;
+            case KIND_LONG:
+                return bits;
+            case KIND_SHORT:
+                return (short) bits;
+            case KIND_BYTE:
+                return (byte) bits;
+            case KIND_DOUBLE:
+                return Double.longBitsToDouble(bits);
+            case KIND_FLOAT:
+                return Float.intBitsToFloat((int) bits);
+            case KIND_BOOLEAN:
+                return bits != 0;
+            default:
+                return (char) bits;
+        }
+    }
+
+    private static int getKind(Class boxed) {
+        if (boxed == Integer.class) {
+            return KIND_INT;
+        } else if (boxed == Long.class) {
+            return KIND_LONG;
+        } else if (boxed == Short.class) {
+            return KIND_SHORT;
+        } else if (boxed == Byte.class) {
+            return KIND_BYTE;
+        } else if (boxed == Double.class) {
+            return KIND_DOUBLE;
+        } else if (boxed == Float.class) {
+            return KIND_FLOAT;
+        } else if (boxed == Boolean.class) {
+            return KIND_BOOLEAN;
+        } else if (boxed == Character.class) {
+            return KIND_CHAR;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Sorted, reference-counting collection of double values based on an order-statistic tree, i.e. a balanced (AVL)
+ * binary tree of distinct values in which each node keeps the number of values in its subtree.
+ * Add, remove, rank and retrieving the value at an index take O(log n) time.
+ * <p>
+ * NaN values are ignored, same as {@link SortedDoubleVector}.
+ * </p>
+ */
+public class OrderStatisticDoubleTree {
+    private Node root;
+
+    /**
+     * Clear out the collection.
+     */
+    public void clear() {
+        root = null;
+    }
+
+    /**
+     * Returns the number of items in the collection.
+     *
+     * @return size
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Add a value to the collection.
+     *
+     * @param value is the double-type value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        root = insert(root, value);
+    }
+
+    /**
+     * Remove a value from the collection.
+     *
+     * @param value to remove
+     * @throws IllegalStateException if the value has not been added
+     */
+    public void remove(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        root = delete(root, value);
+    }
+
+    /**
+     * Returns the value at a given index in ascending order.
+     *
+     * @param index for which to return value for
+     * @return value at index
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the size
+     */
+    public double getValue(int index) {
+        if (index < 0 || index >= size(root)) {
+            throw new IndexOutOfBoundsException("Index " + index + " for size " + size(root));
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index < leftSize + node.count) {
+                return node.value;
+            } else {
+                index -= leftSize + node.count;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of values that are less than the value provided.
+     *
+     * @param value to compare to
+     * @return rank
+     */
+    public int rank(double value) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            if (value <= node.value) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + node.count;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the percentile by linear interpolation between the closest ranks, with a percentile of 50 returning
+     * the median.
+     *
+     * @param percent percentile between zero and 100
+     * @return value, or null if the collection is empty
+     */
+    public Double getPercentile(double percent) {
+        int size = size(root);
+        if (size == 0) {
+            return null;
+        }
+        double position = percent / 100d * (size - 1);
+        int lower = (int) Math.floor(position);
+        double lowerValue = getValue(lower);
+        double fraction = position - lower;
+        if (fraction == 0 || lower + 1 >= size) {
+            return lowerValue;
+        }
+        return lowerValue + (getValue(lower + 1) - lowerValue) * fraction;
+    }
+
+    private static Node insert(Node node, double value) {
+        if (node == null) {
+            return new Node(value);
+        }
+        if (value < node.value) {
+            node.left = insert(node.left, value);
+        } else if (value > node.value) {
+            node.right = insert(node.right, value);
+        } else {
+            node.count++;
+            node.size++;
+            return node;
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, double value) {
+        if (node == null) {
+            throw new IllegalStateException("Value not found in collection");
+        }
+        if (value < node.value) {
+            node.left = delete(node.left, value);
+        } else if (value > node.value) {
+            node.right = delete(node.right, value);
+        } else {
+            if (node.count > 1) {
+                node.count--;
+                node.size--;
+                return node;
+            }
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = node.count + size(node.left) + size(node.right);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node {
+        private final double value;
+        private int count = 1;
+        private int size = 1;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(double value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.*;
+
+/**
+ * Immutable hash map that shares structure between versions, based on a hash trie of 32-way nodes.
+ * <p>
+ * {@link #plus(Object, Object)} and {@link #minus(Object)} return a new map that copies only the nodes
+ * along the path of the changed key, i.e. at most one node per 5 bits of hash code, and shares all other nodes
+ * with this map. Suitable for copy-on-write use wherein a writer publishes a new version and readers read a version
+ * without locking.
+ * <p>
+ * Null keys and values are allowed. The map-changing methods of {@link Map} are unsupported.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentHashMap EMPTY = new PersistentHashMap(null, 0);
+
+    // node slots hold null, a Leaf or a child node
+    private final Object[] root;
+    private final int size;
+
+    private PersistentHashMap(Object[] root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <K> key type
+     * @param <V> value type
+     * @return empty map
+     */
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public V get(Object key) {
+        Leaf<K, V> leaf = find(key);
+        return leaf == null ? null : leaf.getValue();
+    }
+
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    /**
+     * Returns a map that has the key mapped to the value and otherwise the entries of this map.
+     *
+     * @param key   key
+     * @param value value
+     * @return changed map
+     */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        int hash = hash(key);
+        int newSize = find(key) == null ? size + 1 : size;
+        Object[] node = put(root, 0, new Leaf<K, V>(hash, key, value, null));
+        return new PersistentHashMap<K, V>(node, newSize);
+    }
+
+    /**
+     * Returns a map that has the entries of this map other then the key, or this map if it does not contain the key.
+     *
+     * @param key key
+     * @return changed map
+     */
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (find(key) == null) {
+            return this;
+        }
+        if (size == 1) {
+            return empty();
+        }
+        int hash = hash(key);
+        Object result = remove(root, 0, hash, key);
+        Object[] node;
+        if (result instanceof Leaf) {
+            node = new Object[WIDTH];
+            node[((Leaf) result).hash & MASK] = result;
+        } else {
+            node = (Object[]) result;
+        }
+        return new PersistentHashMap<K, V>(node, size - 1);
+    }
+
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            public Iterator<Entry<K, V>> iterator() {
+                return new LeafIterator<K, V>(root);
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private Leaf<K, V> find(Object key) {
+        int hash = hash(key);
+        Object[] node = root;
+        int shift = 0;
+        while (node != null) {
+            Object slot = node[(hash >>> shift) & MASK];
+            if (slot instanceof Leaf) {
+                for (Leaf<K, V> leaf = (Leaf<K, V>) slot; leaf != null; leaf = leaf.next) {
+                    if (leaf.hash == hash && eq(leaf.getKey(), key)) {
+                        return leaf;
+                    }
+                }
+                return null;
+            }
+            node = (Object[]) slot;
+            shift += BITS;
+        }
+        return null;
+    }
+
+    private static Object[] put(Object[] node, int shift, Leaf leaf) {
+        int index = (leaf.hash >>> shift) & MASK;
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        Object slot = copy[index];
+        if (slot == null) {
+            copy[index] = leaf;
+        } else if (slot instanceof Leaf) {
+            Leaf existing = (Leaf) slot;
+            if (existing.hash == leaf.hash) {
+                copy[index] = existing.withReplaced(leaf);
+            } else {
+                // hash codes are equal for the bits consumed so far and differ in the remaining bits
+                copy[index] = put(put(null, shift + BITS, existing), shift + BITS, leaf);
+            }
+        } else {
+            copy[index] = put((Object[]) slot, shift + BITS, leaf);
+        }
+        return copy;
+    }
+
+    // returns null for no entries, a Leaf when the node would only hold that leaf, or the changed node
+    private static Object remove(Object[] node, int shift, int hash, Object key) {
+        int index = (hash >>> shift) & MASK;
+        Object slot = node[index];
+        Object changed;
+        if (slot instanceof Leaf) {
+            changed = ((Leaf) slot).without(key);
+        } else {
+            changed = remove((Object[]) slot, shift + BITS, hash, key);
+        }
+
+        Object single = changed;
+        int count = changed == null ? 0 : 1;
+        for (int i = 0; i < node.length; i++) {
+            if (i != index && node[i] != null) {
+                single = node[i];
+                count++;
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        if (count == 1 && single instanceof Leaf) {
+            return single;
+        }
+        Object[] copy = node.clone();
+        copy[index] = changed;
+        return copy;
+    }
+
+    private static int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean eq(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // entry of the map, chained with entries of the same hash code
+    private static final class Leaf<K, V> extends AbstractMap.SimpleImmutableEntry<K, V> {
+        private final int hash;
+        private final Leaf<K, V> next;
+
+        private Leaf(int hash, K key, V value, Leaf<K, V> next) {
+            super(key, value);
+            this.hash = hash;
+            this.next = next;
+        }
+
+        private Leaf<K, V> withReplaced(Leaf<K, V> leaf) {
+            Leaf<K, V> rest = without(leaf.getKey());
+            return new Leaf<K, V>(leaf.hash, leaf.getKey(), leaf.getValue(), rest);
+        }
+
+        private Leaf<K, V> without(Object key) {
+            if (eq(getKey(), key)) {
+                return next;
+            }
+            if (next == null) {
+                return this;
+            }
+            Leaf<K, V> rest = next.without(key);
+            return rest == next ? this : new Leaf<K, V>(hash, getKey(), getValue(), rest);
+        }
+    }
+
+    private static final class LeafIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final ArrayDeque<Object> pending = new ArrayDeque<Object>();
+        private Leaf<K, V> nextLeaf;
+
+        private LeafIterator(Object[] root) {
+            if (root != null) {
+                pending.push(root);
+            }
+            advance();
+        }
+
+        public boolean hasNext() {
+            return nextLeaf != null;
+        }
+
+        public Entry<K, V> next() {
+            if (nextLeaf == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf<K, V> leaf = nextLeaf;
+            if (leaf.next != null) {
+                nextLeaf = leaf.next;
+            } else {
+                advance();
+            }
+            return leaf;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            nextLeaf = null;
+            while (!pending.isEmpty()) {
+                Object item = pending.pop();
+                if (item instanceof Leaf) {
+                    nextLeaf = (Leaf<K, V>) item;
+                    return;
+                }
+                for (Object slot : (Object[]) item) {
+                    if (slot != null) {
+                        pending.push(slot);
+                    }
+                }
+            }
+        }
+    }
+}
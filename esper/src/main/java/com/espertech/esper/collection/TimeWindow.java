@@ -26,7 +26,7 @@ import java.util.*;
  * It is assumed that the timestamp passed to the add method is ascending. The window is backed by a
  * collection reflecting the timestamp order rather then any sorted map or linked hash map for performance reasons.
  */
-public final class TimeWindow implements Iterable {
+public final class TimeWindow implements TimeWindowStorage {
     private ArrayDeque<TimeWindowPair> window;
     private Map<EventBean, TimeWindowPair> reverseIndex;
     private int size;
@@ -213,6 +213,21 @@ public final class TimeWindow implements Iterable {
         return null;
     }
 
+    public long[] getTimestamps() {
+        long[] timestamps = new long[size];
+        int count = 0;
+        for (TimeWindowPair pair : window) {
+            if (pair.getEventHolder() == null) {
+                continue;
+            }
+            int num = pair.getEventHolder() instanceof EventBean ? 1 : ((List<EventBean>) pair.getEventHolder()).size();
+            for (int i = 0; i < num; i++) {
+                timestamps[count++] = pair.getTimestamp();
+            }
+        }
+        return timestamps;
+    }
+
     /**
      * Returns true if the window is currently empty.
      *
@@ -0,0 +1,277 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.view.DataWindowViewFactory;
+import com.espertech.esper.view.ViewDataVisitor;
+
+import java.util.*;
+
+/**
+ * Container for events of a time window that is backed by parallel ring arrays of timestamps and events.
+ * <p>
+ * Events are appended to the ring without allocating any holder per timestamp. When timestamps are ascending,
+ * expiry finds the expiry boundary by binary search and removes all events before the boundary at once.
+ * Else, as for {@link TimeWindow}, expiry removes leading events until reaching an event with a timestamp
+ * at or after the expiry timestamp.
+ * </p>
+ * <p>
+ * When the time window supports removal of events, the reverse index from event to position is built
+ * only upon the first removal, i.e. only when remove stream events are actually received such as for named window deletes.
+ * A removed event leaves an empty slot that gets discarded when it becomes the oldest slot or expires.
+ * </p>
+ */
+public final class TimeWindowRing implements TimeWindowStorage {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean isSupportRemoveStream;
+    private long[] timestamps;
+    private EventBean[] events;
+    private int head;
+    private int count;
+    private int size;
+    private long headSequence;
+    private boolean ascending = true;
+    private Map<EventBean, Long> reverseIndex;
+
+    /**
+     * Ctor.
+     *
+     * @param isSupportRemoveStream true to indicate the time window should support effective removal of events
+     *                              in the window based on the remove stream events received, or false to not accomodate removal at all
+     */
+    public TimeWindowRing(boolean isSupportRemoveStream) {
+        this.isSupportRemoveStream = isSupportRemoveStream;
+        this.timestamps = new long[INITIAL_CAPACITY];
+        this.events = new EventBean[INITIAL_CAPACITY];
+    }
+
+    public void adjust(long delta) {
+        int mask = events.length - 1;
+        for (int i = 0; i < count; i++) {
+            timestamps[(head + i) & mask] += delta;
+        }
+    }
+
+    public final void add(long timestamp, EventBean bean) {
+        if (count == events.length) {
+            grow();
+        }
+        int index = (head + count) & (events.length - 1);
+        if (count > 0 && timestamp < timestamps[(index - 1) & (events.length - 1)]) {
+            ascending = false;
+        }
+        timestamps[index] = timestamp;
+        events[index] = bean;
+        if (reverseIndex != null) {
+            reverseIndex.put(bean, headSequence + count);
+        }
+        count++;
+        size++;
+    }
+
+    public final void remove(EventBean theEvent) {
+        if (!isSupportRemoveStream) {
+            throw new UnsupportedOperationException("Time window does not accept event removal");
+        }
+        if (reverseIndex == null) {
+            buildReverseIndex();
+        }
+        Long sequence = reverseIndex.remove(theEvent);
+        if (sequence == null) {
+            return;
+        }
+        int index = (head + (int) (sequence - headSequence)) & (events.length - 1);
+        if (events[index] != null) {
+            events[index] = null;
+            size--;
+        }
+        discardEmptyHead();
+    }
+
+    public final ArrayDeque<EventBean> expireEvents(long expireBefore) {
+        if (count == 0) {
+            return null;
+        }
+
+        int numExpired = ascending ? findFirstAtOrAfter(expireBefore) : countLeadingBefore(expireBefore);
+        if (numExpired == 0) {
+            return null;
+        }
+
+        ArrayDeque<EventBean> resultBeans = new ArrayDeque<EventBean>(numExpired);
+        int mask = events.length - 1;
+        for (int i = 0; i < numExpired; i++) {
+            int index = (head + i) & mask;
+            EventBean bean = events[index];
+            if (bean != null) {
+                resultBeans.add(bean);
+                if (reverseIndex != null) {
+                    reverseIndex.remove(bean);
+                }
+                events[index] = null;
+            }
+        }
+
+        head = (head + numExpired) & mask;
+        count -= numExpired;
+        headSequence += numExpired;
+        size -= resultBeans.size();
+        discardEmptyHead();
+        return resultBeans;
+    }
+
+    public final Iterator<EventBean> iterator() {
+        return new TimeWindowRingIterator();
+    }
+
+    public final Long getOldestTimestamp() {
+        if (count == 0) {
+            return null;
+        }
+        return timestamps[head];
+    }
+
+    public long[] getTimestamps() {
+        long[] result = new long[size];
+        int mask = events.length - 1;
+        int num = 0;
+        for (int i = 0; i < count; i++) {
+            int index = (head + i) & mask;
+            if (events[index] != null) {
+                result[num++] = timestamps[index];
+            }
+        }
+        return result;
+    }
+
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the reverse index, for testing purposes.
+     *
+     * @return reverse index or null if not yet built
+     */
+    public Map<EventBean, Long> getReverseIndex() {
+        return reverseIndex;
+    }
+
+    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
+        List<EventBean> contents = new ArrayList<EventBean>(size);
+        for (EventBean bean : this) {
+            contents.add(bean);
+        }
+        viewDataVisitor.visitPrimary(contents, true, viewFactory.getViewName(), size);
+    }
+
+    /**
+     * Returns the number of leading slots with a timestamp before (less then) the timestamp passed in,
+     * by binary search since timestamps are ascending.
+     *
+     * @param timestamp to search
+     * @return number of slots before the timestamp
+     */
+    private int findFirstAtOrAfter(long timestamp) {
+        int mask = events.length - 1;
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[(head + mid) & mask] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int countLeadingBefore(long timestamp) {
+        int mask = events.length - 1;
+        int num = 0;
+        while (num < count && timestamps[(head + num) & mask] < timestamp) {
+            num++;
+        }
+        return num;
+    }
+
+    private void discardEmptyHead() {
+        int mask = events.length - 1;
+        while (count > 0 && events[head] == null) {
+            head = (head + 1) & mask;
+            count--;
+            headSequence++;
+        }
+        if (count == 0) {
+            ascending = true;
+        }
+    }
+
+    private void buildReverseIndex() {
+        reverseIndex = new HashMap<EventBean, Long>(Math.max(16, size * 2));
+        int mask = events.length - 1;
+        for (int i = 0; i < count; i++) {
+            EventBean bean = events[(head + i) & mask];
+            if (bean != null) {
+                reverseIndex.put(bean, headSequence + i);
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = events.length;
+        long[] newTimestamps = new long[capacity << 1];
+        EventBean[] newEvents = new EventBean[capacity << 1];
+        int firstPart = capacity - head;
+        System.arraycopy(timestamps, head, newTimestamps, 0, firstPart);
+        System.arraycopy(timestamps, 0, newTimestamps, firstPart, head);
+        System.arraycopy(events, head, newEvents, 0, firstPart);
+        System.arraycopy(events, 0, newEvents, firstPart, head);
+        timestamps = newTimestamps;
+        events = newEvents;
+        head = 0;
+    }
+
+    private class TimeWindowRingIterator implements Iterator<EventBean> {
+        private int position;
+
+        private TimeWindowRingIterator() {
+            skipEmpty();
+        }
+
+        public boolean hasNext() {
+            return position < count;
+        }
+
+        public EventBean next() {
+            if (position >= count) {
+                throw new NoSuchElementException();
+            }
+            EventBean bean = events[(head + position) & (events.length - 1)];
+            position++;
+            skipEmpty();
+            return bean;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void skipEmpty() {
+            while (position < count && events[(head + position) & (events.length - 1)] == null) {
+                position++;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.view.DataWindowViewFactory;
+import com.espertech.esper.view.ViewDataVisitor;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Container for events of a time window that keeps events in timestamp order.
+ * <p>
+ * The time is provided as long milliseconds by client classes and it is assumed that the timestamp
+ * passed to the add method is ascending. Events can be expired from the window via the expireEvents method
+ * when their timestamp is before (or less then) an expiry timestamp passed in. Expiry removes the event from the window.
+ * The window allows iteration through its contents.
+ * </p>
+ */
+public interface TimeWindowStorage extends Iterable<EventBean> {
+    /**
+     * Adjust expiry dates.
+     *
+     * @param delta delta to adjust for
+     */
+    void adjust(long delta);
+
+    /**
+     * Adds event to the time window for the specified timestamp.
+     *
+     * @param timestamp - the time slot for the event
+     * @param bean      - event to add
+     */
+    void add(long timestamp, EventBean bean);
+
+    /**
+     * Removes the event from the window, if remove stream handling is enabled.
+     *
+     * @param theEvent to remove
+     */
+    void remove(EventBean theEvent);
+
+    /**
+     * Return and remove events in time-slots earlier (less) then the timestamp passed in,
+     * returning the list of events expired.
+     *
+     * @param expireBefore is the timestamp from which on to keep events in the window
+     * @return a list of events expired and removed from the window, or null if none expired
+     */
+    ArrayDeque<EventBean> expireEvents(long expireBefore);
+
+    /**
+     * Returns event iterator.
+     *
+     * @return iterator over events currently in window
+     */
+    Iterator<EventBean> iterator();
+
+    /**
+     * Returns the oldest timestamp in the collection if there is at least one entry,
+     * else it returns null if the window is empty.
+     *
+     * @return null if empty, oldest timestamp if not empty
+     */
+    Long getOldestTimestamp();
+
+    /**
+     * Returns the timestamp of each event currently in the window, in the order of the event iterator.
+     *
+     * @return timestamps
+     */
+    long[] getTimestamps();
+
+    /**
+     * Returns true if the window is currently empty.
+     *
+     * @return true if empty, false if not
+     */
+    boolean isEmpty();
+
+    /**
+     * Visit the window contents.
+     *
+     * @param viewDataVisitor visitor
+     * @param viewFactory     view factory
+     */
+    void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory);
+}
@@ -196,6 +196,11 @@ public abstract class ContextControllerHashFactoryBase extends ContextController
             item.setLookupable(lookupable);
             factoryContext.getServicesContext().getFilterNonPropertyRegisteryService().registerNonPropertyExpression(factoryContext.getAgentInstanceContextCreate().getStatementName(), item.getFilterSpecCompiled().getFilterForEventType(), lookupable);
             nonPropertyExpressions.put(item.getFilterSpecCompiled().getFilterForEventType(), lookupable);
+
+            // register hash code as the partition key for partitioned inbound threading
+            if (factoryContext.getServicesContext().getThreadingService().isInboundPartitioned()) {
+                factoryContext.getServicesContext().getThreadingService().getInboundPartitionKeys().register(factoryContext.getAgentInstanceContextCreate().getStatementName(), item.getFilterSpecCompiled().getFilterForEventType(), new EventPropertyGetter[]{getter});
+            }
         }
     }
 
@@ -12,7 +12,7 @@ package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.context.*;
-import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyObject;
 import com.espertech.esper.core.context.util.ContextControllerSelectorUtil;
 import com.espertech.esper.core.context.util.StatementAgentInstanceUtil;
 import com.espertech.esper.epl.spec.ContextDetailPartitionItem;
@@ -172,8 +172,8 @@ public class ContextControllerPartitioned implements ContextController, ContextC
     }
 
     private Object[] getKeyObjectsAccountForMultikey(Object key) {
-        if (key instanceof MultiKeyUntyped) {
-            return ((MultiKeyUntyped) key).getKeys();
+        if (key instanceof MultiKeyObject) {
+            return ((MultiKeyObject) key).getKeys();
         } else {
             return new Object[]{key};
         }
@@ -181,7 +181,7 @@ public class ContextControllerPartitioned implements ContextController, ContextC
 
     private Object getKeyObjectForLookup(Object[] keyObjects) {
         if (keyObjects.length > 1) {
-            return new MultiKeyUntyped(keyObjects);
+            return MultiKeyObject.make(keyObjects);
         } else {
             return keyObjects[0];
         }
@@ -10,10 +10,11 @@
  */
 package com.espertech.esper.core.context.mgr;
 
+import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.context.ContextPartitionIdentifier;
 import com.espertech.esper.client.context.ContextPartitionIdentifierPartitioned;
-import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyObject;
 import com.espertech.esper.core.context.stmt.AIRegistryAggregationMultiPerm;
 import com.espertech.esper.core.context.stmt.AIRegistryExprMultiPerm;
 import com.espertech.esper.core.context.stmt.StatementAIResourceRegistry;
@@ -50,6 +51,18 @@ public abstract class ContextControllerPartitionedFactoryBase extends ContextCon
     public void validateFactory() throws ExprValidationException {
         Class[] propertyTypes = ContextControllerPartitionedUtil.validateContextDesc(factoryContext.getContextName(), segmentedSpec);
         contextBuiltinProps = ContextPropertyEventType.getPartitionType(segmentedSpec, propertyTypes);
+
+        // register partition properties as the partition key for partitioned inbound threading
+        if (factoryContext.getServicesContext().getThreadingService().isInboundPartitioned()) {
+            for (ContextDetailPartitionItem item : segmentedSpec.getItems()) {
+                EventType eventType = item.getFilterSpecCompiled().getFilterForEventType();
+                EventPropertyGetter[] getters = new EventPropertyGetter[item.getPropertyNames().size()];
+                for (int i = 0; i < getters.length; i++) {
+                    getters[i] = eventType.getGetter(item.getPropertyNames().get(i));
+                }
+                factoryContext.getServicesContext().getThreadingService().getInboundPartitionKeys().register(factoryContext.getAgentInstanceContextCreate().getStatementName(), eventType, getters);
+            }
+        }
     }
 
     public ContextControllerStatementCtxCache validateStatement(ContextControllerStatementBase statement) throws ExprValidationException {
@@ -106,8 +119,8 @@ public abstract class ContextControllerPartitionedFactoryBase extends ContextCon
         if (payload instanceof Object[]) {
             return new ContextPartitionIdentifierPartitioned((Object[]) payload);
         }
-        if (payload instanceof MultiKeyUntyped) {
-            return new ContextPartitionIdentifierPartitioned(((MultiKeyUntyped) payload).getKeys());
+        if (payload instanceof MultiKeyObject) {
+            return new ContextPartitionIdentifierPartitioned(((MultiKeyObject) payload).getKeys());
         }
         return new ContextPartitionIdentifierPartitioned(new Object[]{payload});
     }
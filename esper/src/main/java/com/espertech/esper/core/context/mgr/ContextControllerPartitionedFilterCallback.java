@@ -12,7 +12,7 @@ package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
-import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyObject;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.EPServicesContext;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
@@ -56,7 +56,7 @@ public class ContextControllerPartitionedFilterCallback implements FilterHandleC
             for (int i = 0; i < keys.length; i++) {
                 keys[i] = getters[i].get(theEvent);
             }
-            key = new MultiKeyUntyped(keys);
+            key = MultiKeyObject.make(keys);
         } else {
             key = getters[0].get(theEvent);
         }
@@ -12,7 +12,7 @@ package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyObject;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.named.NamedWindowMgmtService;
 import com.espertech.esper.epl.named.NamedWindowProcessor;
@@ -226,7 +226,7 @@ public class ContextControllerPartitionedUtil {
             FilterValueSetParam filter = getFilterMayEqualOrNull(lookupable, keyValue);
             addendumFilters.add(filter);
         } else {
-            Object[] keys = ((MultiKeyUntyped) keyValue).getKeys();
+            Object[] keys = ((MultiKeyObject) keyValue).getKeys();
             for (int i = 0; i < foundPartition.getPropertyNames().size(); i++) {
                 String partitionPropertyName = foundPartition.getPropertyNames().get(i);
                 EventPropertyGetter getter = foundPartition.getFilterSpecCompiled().getFilterForEventType().getGetter(partitionPropertyName);
@@ -12,7 +12,7 @@ package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyObject;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.spec.ContextDetailCondition;
@@ -126,7 +126,7 @@ public class ContextPropertyEventType {
         if (propertyNames.size() == 1) {
             agentInstanceProperties = new Object[]{keyValue};
         } else {
-            agentInstanceProperties = ((MultiKeyUntyped) keyValue).getKeys();
+            agentInstanceProperties = ((MultiKeyObject) keyValue).getKeys();
         }
 
         Map<String, Object> props = new HashMap<String, Object>();
@@ -15,10 +15,14 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPServiceProviderIsolated;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.deploy.*;
+import com.espertech.esper.core.service.EPAdministratorHelper;
 import com.espertech.esper.core.service.EPAdministratorSPI;
 import com.espertech.esper.core.service.StatementEventTypeRef;
 import com.espertech.esper.core.service.StatementIsolationService;
 import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.epl.parse.ParseResult;
+import com.espertech.esper.epl.parse.ParseResultCache;
+import com.espertech.esper.epl.spec.StatementSpecRaw;
 import com.espertech.esper.filter.FilterService;
 import com.espertech.esper.util.DependencyGraph;
 import com.espertech.esper.util.ManagedReadWriteLock;
@@ -30,6 +34,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Deployment administrative implementation.
@@ -46,8 +54,9 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
     private final FilterService filterService;
     private final TimeZone timeZone;
     private final ConfigurationEngineDefaults.ExceptionHandling.UndeployRethrowPolicy undeployRethrowPolicy;
+    private final ParseResultCache parseResultCache;
 
-    public EPDeploymentAdminImpl(EPAdministratorSPI epService, ManagedReadWriteLock eventProcessingRWLock, DeploymentStateService deploymentStateService, StatementEventTypeRef statementEventTypeRef, EventAdapterService eventAdapterService, StatementIsolationService statementIsolationService, FilterService filterService, TimeZone timeZone, ConfigurationEngineDefaults.ExceptionHandling.UndeployRethrowPolicy undeployRethrowPolicy) {
+    public EPDeploymentAdminImpl(EPAdministratorSPI epService, ManagedReadWriteLock eventProcessingRWLock, DeploymentStateService deploymentStateService, StatementEventTypeRef statementEventTypeRef, EventAdapterService eventAdapterService, StatementIsolationService statementIsolationService, FilterService filterService, TimeZone timeZone, ConfigurationEngineDefaults.ExceptionHandling.UndeployRethrowPolicy undeployRethrowPolicy, ParseResultCache parseResultCache) {
         this.epService = epService;
         this.eventProcessingRWLock = eventProcessingRWLock;
         this.deploymentStateService = deploymentStateService;
@@ -57,6 +66,7 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
         this.filterService = filterService;
         this.timeZone = timeZone;
         this.undeployRethrowPolicy = undeployRethrowPolicy;
+        this.parseResultCache = parseResultCache;
     }
 
     public Module read(InputStream stream, String uri) throws IOException, ParseException {
@@ -104,15 +114,132 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
             options = new DeploymentOptions();
         }
 
-        options.getDeploymentLockStrategy().acquire(eventProcessingRWLock);
+        // parse ahead of taking the lock, compile and start use the pinned parse results
+        Map<String, ParseResult> parsed = parseModule(module, options.isParallelParse());
         try {
-            return deployInternalLockTaken(module, options, deploymentId, addedDate);
+            options.getDeploymentLockStrategy().acquire(eventProcessingRWLock);
+            try {
+                return deployInternalLockTaken(module, options, deploymentId, addedDate, parsed);
+            } finally {
+                options.getDeploymentLockStrategy().release(eventProcessingRWLock);
+            }
         } finally {
-            options.getDeploymentLockStrategy().release(eventProcessingRWLock);
+            for (Map.Entry<String, ParseResult> entry : parsed.entrySet()) {
+                parseResultCache.unpin(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private Map<String, ParseResult> parseModule(Module module, boolean parallel) throws InterruptedException {
+        Set<String> expressions = new LinkedHashSet<String>();
+        for (ModuleItem item : module.getItems()) {
+            if (!item.isCommentOnly()) {
+                expressions.add(item.getExpression());
+            }
+        }
+
+        Map<String, ParseResult> parsed = new HashMap<String, ParseResult>();
+        if (!parallel || expressions.size() < 2) {
+            for (String expression : expressions) {
+                try {
+                    parsed.put(expression, EPAdministratorHelper.parseEPL(expression, expression, true));
+                } catch (RuntimeException ex) {
+                    // compiling the statement reports the parse error
+                }
+            }
+        } else {
+            List<Callable<ParseResult>> tasks = new ArrayList<Callable<ParseResult>>(expressions.size());
+            for (final String expression : expressions) {
+                tasks.add(new Callable<ParseResult>() {
+                    public ParseResult call() {
+                        return EPAdministratorHelper.parseEPL(expression, expression, true);
+                    }
+                });
+            }
+            List<Future<ParseResult>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+            Iterator<String> expressionIt = expressions.iterator();
+            for (Future<ParseResult> future : futures) {
+                String expression = expressionIt.next();
+                try {
+                    parsed.put(expression, future.get());
+                } catch (ExecutionException ex) {
+                    // compiling the statement reports the parse error
+                }
+            }
         }
+
+        for (Map.Entry<String, ParseResult> entry : parsed.entrySet()) {
+            parseResultCache.pin(entry.getKey(), entry.getValue());
+        }
+        return parsed;
+    }
+
+    /**
+     * Walks, in parallel, the statements that cannot refer to names defined by earlier statements of the module.
+     * Walking a statement depends on engine state, such as variables, tables and declared expressions, that earlier
+     * statements of the module may create. A statement depends on an earlier statement that has a create-clause or
+     * inserts into a stream or table, and that shares an identifier with the statement. Statements without
+     * dependencies are walked against the engine state before creating any statement of the module, which for them
+     * is the same as the engine state at their creation.
+     *
+     * @param module module
+     * @param parsed pinned parse results
+     * @return statement specification per module item number, for statements that were walked successfully
+     * @throws InterruptedException when interrupted
+     */
+    private Map<Integer, StatementSpecRaw> walkIndependent(Module module, Map<String, ParseResult> parsed) throws InterruptedException {
+        List<ModuleItem> items = module.getItems();
+        DependencyGraph graph = new DependencyGraph(items.size(), false);
+        List<Set<String>> definingIdentifiers = new ArrayList<Set<String>>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            ModuleItem item = items.get(i);
+            ParseResult parseResult = item.isCommentOnly() ? null : parsed.get(item.getExpression());
+            if (parseResult == null) {
+                // comments and statements that do not parse define nothing
+                definingIdentifiers.add(null);
+                continue;
+            }
+            Set<String> identifiers = EPLModuleUtil.getIdentifiers(parseResult);
+            for (int j = 0; j < i; j++) {
+                Set<String> defining = definingIdentifiers.get(j);
+                if (defining != null && !Collections.disjoint(defining, identifiers)) {
+                    graph.addDependency(i, j);
+                }
+            }
+            definingIdentifiers.add(EPLModuleUtil.isDefining(parseResult) ? identifiers : null);
+        }
+
+        List<Integer> independent = new ArrayList<Integer>();
+        List<Callable<StatementSpecRaw>> tasks = new ArrayList<Callable<StatementSpecRaw>>();
+        for (int i = 0; i < items.size(); i++) {
+            final ModuleItem item = items.get(i);
+            if (item.isCommentOnly() || !parsed.containsKey(item.getExpression()) || graph.hasDependency(i)) {
+                continue;
+            }
+            independent.add(i);
+            tasks.add(new Callable<StatementSpecRaw>() {
+                public StatementSpecRaw call() {
+                    return epService.compileEPLToRaw(item.getExpression());
+                }
+            });
+        }
+        if (tasks.size() < 2) {
+            return Collections.emptyMap();
+        }
+
+        Map<Integer, StatementSpecRaw> walked = new HashMap<Integer, StatementSpecRaw>();
+        List<Future<StatementSpecRaw>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                walked.put(independent.get(i), futures.get(i).get());
+            } catch (ExecutionException ex) {
+                // creating the statement reports the error
+            }
+        }
+        return walked;
     }
 
-    private DeploymentResult deployInternalLockTaken(Module module, DeploymentOptions options, String deploymentId, Calendar addedDate) throws DeploymentActionException {
+    private DeploymentResult deployInternalLockTaken(Module module, DeploymentOptions options, String deploymentId, Calendar addedDate, Map<String, ParseResult> parsed) throws DeploymentActionException, InterruptedException {
 
         if (log.isDebugEnabled()) {
             log.debug("Deploying module " + module);
@@ -153,12 +280,18 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
             return null;
         }
 
+        Map<Integer, StatementSpecRaw> walked = Collections.emptyMap();
+        if (options.isParallelParse() && options.getIsolatedServiceProvider() == null) {
+            walked = walkIndependent(module, parsed);
+        }
+
         List<DeploymentItemException> exceptions = new ArrayList<DeploymentItemException>();
         List<DeploymentInformationItem> statementNames = new ArrayList<DeploymentInformationItem>();
         List<EPStatement> statements = new ArrayList<EPStatement>();
         Set<String> eventTypesReferenced = new HashSet<String>();
 
-        for (ModuleItem item : module.getItems()) {
+        for (int i = 0; i < module.getItems().size(); i++) {
+            ModuleItem item = module.getItems().get(i);
             if (item.isCommentOnly()) {
                 continue;
             }
@@ -173,7 +306,10 @@ public class EPDeploymentAdminImpl implements EPDeploymentAdminSPI {
 
             try {
                 EPStatement stmt;
-                if (options.getIsolatedServiceProvider() == null) {
+                StatementSpecRaw statementSpec = walked.get(i);
+                if (statementSpec != null) {
+                    stmt = epService.createEPLRaw(statementSpec, item.getExpression(), statementName, userObject);
+                } else if (options.getIsolatedServiceProvider() == null) {
                     stmt = epService.createEPL(item.getExpression(), statementName, userObject);
                 } else {
                     EPServiceProviderIsolated unit = statementIsolationService.getIsolationUnit(options.getIsolatedServiceProvider(), -1);
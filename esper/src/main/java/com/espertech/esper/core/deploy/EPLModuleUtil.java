@@ -20,10 +20,13 @@ import com.espertech.esper.epl.generated.EsperEPL2GrammarLexer;
 import com.espertech.esper.epl.generated.EsperEPL2GrammarParser;
 import com.espertech.esper.epl.parse.NoCaseSensitiveStream;
 import com.espertech.esper.epl.parse.ParseHelper;
+import com.espertech.esper.epl.parse.ParseResult;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.EventTypeSPI;
 import com.espertech.esper.filter.FilterService;
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.Tree;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -141,6 +144,53 @@ public class EPLModuleUtil {
         return undeployedTypes;
     }
 
+    /**
+     * Returns the identifiers of a parsed statement, in lowercase and including keywords used as identifiers,
+     * for determining whether a statement may refer to names that another statement defines.
+     *
+     * @param parseResult parse result
+     * @return identifiers
+     */
+    public static Set<String> getIdentifiers(ParseResult parseResult) {
+        Set<String> identifiers = new HashSet<String>();
+        collectIdentifiers(parseResult.getTree(), false, identifiers);
+        return identifiers;
+    }
+
+    /**
+     * Returns true if a parsed statement may define names that other statements refer to, i.e. when it
+     * has a create-clause or inserts into a stream or table.
+     *
+     * @param parseResult parse result
+     * @return indicator
+     */
+    public static boolean isDefining(ParseResult parseResult) {
+        for (Token token : parseResult.getTokenStream().getTokens()) {
+            if (token.getType() == EsperEPL2GrammarParser.CREATE || token.getType() == EsperEPL2GrammarParser.INTO) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void collectIdentifiers(Tree tree, boolean keywordAllowed, Set<String> identifiers) {
+        if (tree instanceof TerminalNode) {
+            Token token = ((TerminalNode) tree).getSymbol();
+            if (token.getType() == EsperEPL2GrammarParser.TICKED_STRING_LITERAL) {
+                identifiers.add(token.getText().replace("`", "").toLowerCase(Locale.ENGLISH));
+            } else if (keywordAllowed || token.getType() == EsperEPL2GrammarParser.IDENT) {
+                identifiers.add(token.getText().toLowerCase(Locale.ENGLISH));
+            }
+            return;
+        }
+        boolean childKeywordAllowed = keywordAllowed ||
+                tree instanceof EsperEPL2GrammarParser.KeywordAllowedIdentContext ||
+                tree instanceof EsperEPL2GrammarParser.EscapableStrContext;
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            collectIdentifiers(tree.getChild(i), childKeywordAllowed, identifiers);
+        }
+    }
+
     public static ParseNode getModule(EPLModuleParseItem item, String resourceName) throws ParseException, IOException {
         CharStream input = new NoCaseSensitiveStream(new StringReader(item.getExpression()));
 
@@ -65,10 +65,37 @@ public class EPAdministratorHelper {
      * @return compiled statement
      */
     public static StatementSpecRaw compileEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck, String statementName, EPServicesContext services, SelectClauseStreamSelectorEnum defaultStreamSelector) {
-        return compileEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck, statementName, defaultStreamSelector,
+        // a cached parse result may be in use by other threads, walk the parse tree using a copy
+        ParseResultCache parseResultCache = services.getParseResultCache();
+        ParseResult parseResult = parseResultCache.get(eplStatement);
+        if (parseResult != null) {
+            parseResult = parseResult.copyForWalk();
+        } else {
+            parseResult = parseEPL(eplStatement, eplStatementForErrorMsg, addPleaseCheck);
+            if (parseResultCache.getCacheSize() > 0) {
+                parseResultCache.put(eplStatement, parseResult);
+                parseResult = parseResult.copyForWalk();
+            }
+        }
+        return compileEPL(parseResult, eplStatement, eplStatementForErrorMsg, statementName, defaultStreamSelector,
                 services.getEngineImportService(), services.getVariableService(), services.getSchedulingService(), services.getEngineURI(), services.getConfigSnapshot(), services.getPatternNodeFactory(), services.getContextManagementService(), services.getExprDeclaredService(), services.getTableService());
     }
 
+    /**
+     * Parse an EPL statement, without walking the parse tree.
+     * Parsing does not depend on engine state and may run in any thread.
+     *
+     * @param eplStatement            statement to parse
+     * @param eplStatementForErrorMsg the statement to use for indicating error messages
+     * @param addPleaseCheck          true to add please-check message text
+     * @return parse result
+     */
+    public static ParseResult parseEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck) {
+        ParseResult parseResult = ParseHelper.parse(eplStatement, eplStatementForErrorMsg, addPleaseCheck, eplParseRule, true);
+        parseResult.getTokenStream().fill();
+        return parseResult;
+    }
+
     public static StatementSpecRaw compileEPL(String eplStatement, String eplStatementForErrorMsg, boolean addPleaseCheck, String statementName, SelectClauseStreamSelectorEnum defaultStreamSelector,
                                               EngineImportService engineImportService,
                                               VariableService variableService,
@@ -79,11 +106,25 @@ public class EPAdministratorHelper {
                                               ContextManagementService contextManagementService,
                                               ExprDeclaredService exprDeclaredService,
                                               TableService tableService) {
+        ParseResult parseResult = ParseHelper.parse(eplStatement, eplStatementForErrorMsg, addPleaseCheck, eplParseRule, true);
+        return compileEPL(parseResult, eplStatement, eplStatementForErrorMsg, statementName, defaultStreamSelector,
+                engineImportService, variableService, schedulingService, engineURI, configSnapshot, patternNodeFactory, contextManagementService, exprDeclaredService, tableService);
+    }
+
+    private static StatementSpecRaw compileEPL(ParseResult parseResult, String eplStatement, String eplStatementForErrorMsg, String statementName, SelectClauseStreamSelectorEnum defaultStreamSelector,
+                                               EngineImportService engineImportService,
+                                               VariableService variableService,
+                                               SchedulingService schedulingService,
+                                               String engineURI,
+                                               ConfigurationInformation configSnapshot,
+                                               PatternNodeFactory patternNodeFactory,
+                                               ContextManagementService contextManagementService,
+                                               ExprDeclaredService exprDeclaredService,
+                                               TableService tableService) {
         if (log.isDebugEnabled()) {
             log.debug(".createEPLStmt statementName=" + statementName + " eplStatement=" + eplStatement);
         }
 
-        ParseResult parseResult = ParseHelper.parse(eplStatement, eplStatementForErrorMsg, addPleaseCheck, eplParseRule, true);
         Tree ast = parseResult.getTree();
 
         EPLTreeWalkerListener walker = new EPLTreeWalkerListener(parseResult.getTokenStream(), engineImportService, variableService, schedulingService, defaultStreamSelector, engineURI, configSnapshot, patternNodeFactory, contextManagementService, parseResult.getScripts(), exprDeclaredService, tableService);
@@ -16,6 +16,7 @@ import com.espertech.esper.client.EPPreparedStatement;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.context.EPContextPartitionAdmin;
 import com.espertech.esper.client.deploy.EPDeploymentAdmin;
+import com.espertech.esper.client.snapshot.EPSnapshotAdmin;
 import com.espertech.esper.client.soda.*;
 import com.espertech.esper.core.deploy.EPDeploymentAdminImpl;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -46,7 +47,7 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
         this.defaultStreamSelector = adminContext.getDefaultStreamSelector();
 
         this.deploymentAdminService = new EPDeploymentAdminImpl(this, services.getEventProcessingRWLock(), adminContext.getServices().getDeploymentStateService(), adminContext.getServices().getStatementEventTypeRefService(), adminContext.getServices().getEventAdapterService(), adminContext.getServices().getStatementIsolationService(), adminContext.getServices().getFilterService(),
-                services.getConfigSnapshot().getEngineDefaults().getExpression().getTimeZone(), services.getConfigSnapshot().getEngineDefaults().getExceptionHandling().getUndeployRethrowPolicy());
+                services.getConfigSnapshot().getEngineDefaults().getExpression().getTimeZone(), services.getConfigSnapshot().getEngineDefaults().getExceptionHandling().getUndeployRethrowPolicy(), services.getParseResultCache());
     }
 
     public EPDeploymentAdmin getDeploymentAdmin() {
@@ -98,6 +99,13 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
         return services.getStatementLifecycleSvc().createAndStart(rawPattern, expression, true, statementName, userObject, null, optionalStatementId, null);
     }
 
+    public EPStatement createEPLRaw(StatementSpecRaw statementSpec, String eplStatement, String statementName, Object userObject) throws EPException {
+        EPStatement statement = services.getStatementLifecycleSvc().createAndStart(statementSpec, eplStatement, false, statementName, userObject, null, null, null);
+
+        log.debug(".createEPLRaw Statement created and started");
+        return statement;
+    }
+
     private EPStatement createEPLStmt(String eplStatement, String statementName, Object userObject, Integer optionalStatementId) throws EPException {
         StatementSpecRaw statementSpec = EPAdministratorHelper.compileEPL(eplStatement, eplStatement, true, statementName, services, defaultStreamSelector);
         EPStatement statement = services.getStatementLifecycleSvc().createAndStart(statementSpec, eplStatement, false, statementName, userObject, null, optionalStatementId, null);
@@ -291,5 +299,9 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
         return new EPContextPartitionAdminImpl(services);
     }
 
+    public EPSnapshotAdmin getSnapshotAdmin() {
+        return new EPSnapshotAdminImpl(services);
+    }
+
     private static Logger log = LoggerFactory.getLogger(EPAdministratorImpl.class);
 }
@@ -96,6 +96,8 @@ public interface EPAdministratorSPI extends EPAdministrator {
 
     public EPStatement createEPLStatementId(String eplStatement, String statementName, Object userObject, int statementId) throws EPException;
 
+    public EPStatement createEPLRaw(StatementSpecRaw statementSpec, String eplStatement, String statementName, Object userObject) throws EPException;
+
     public EPStatement createModelStatementId(EPStatementObjectModel sodaStatement, String statementName, Object userObject, int statementId) throws EPException;
 
     public EPStatement createPatternStatementId(String pattern, String statementName, Object userObject, int statementId) throws EPException;
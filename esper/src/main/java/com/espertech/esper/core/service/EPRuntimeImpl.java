@@ -43,6 +43,9 @@ import com.espertech.esper.epl.spec.util.StatementSpecRawAnalyzer;
 import com.espertech.esper.epl.table.mgmt.TableExprEvaluatorContext;
 import com.espertech.esper.epl.variable.VariableMetaData;
 import com.espertech.esper.epl.variable.VariableReader;
+import com.espertech.esper.event.EventAdapterServiceHelper;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
 import com.espertech.esper.event.util.EventRendererImpl;
 import com.espertech.esper.filter.FilterHandle;
 import com.espertech.esper.filter.FilterHandleCallback;
@@ -75,6 +78,12 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     protected boolean isLatchStatementInsertStream;
     protected boolean isUsingExternalClocking;
     protected boolean isPrioritized;
+    protected boolean isListenerDispatchBatchCoalesce;
+    protected final ThreadLocal<Boolean> isDispatchDeferred = new ThreadLocal<Boolean>() {
+        protected synchronized Boolean initialValue() {
+            return Boolean.FALSE;
+        }
+    };
     protected volatile UnmatchedListener unmatchedListener;
     protected AtomicLong routedInternal;
     protected AtomicLong routedExternal;
@@ -98,6 +107,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         isLatchStatementInsertStream = this.services.getEngineSettingsService().getEngineSettings().getThreading().isInsertIntoDispatchPreserveOrder();
         isUsingExternalClocking = !this.services.getEngineSettingsService().getEngineSettings().getThreading().isInternalTimerEnabled();
         isPrioritized = services.getEngineSettingsService().getEngineSettings().getExecution().isPrioritized();
+        isListenerDispatchBatchCoalesce = services.getEngineSettingsService().getEngineSettings().getThreading().isListenerDispatchBatchCoalesce();
         routedInternal = new AtomicLong();
         routedExternal = new AtomicLong();
         engineFilterAndDispatchTimeContext = new ExprEvaluatorContext() {
@@ -197,7 +207,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
-            services.getThreadingService().submitInbound(new InboundUnitSendAvro(avroGenericDataDotRecord, avroEventTypeName, services, this));
+            if (services.getThreadingService().isInboundPartitioned()) {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEventAvro(avroGenericDataDotRecord, avroEventTypeName), this));
+            } else {
+                services.getThreadingService().submitInbound(new InboundUnitSendAvro(avroGenericDataDotRecord, avroEventTypeName, services, this));
+            }
         } else {
             // Process event
             EventBean eventBean = wrapEventAvro(avroGenericDataDotRecord, avroEventTypeName);
@@ -219,7 +233,12 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
-            services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            if (services.getThreadingService().isInboundPartitioned() && !(theEvent instanceof TimerEvent)) {
+                EventBean eventBean = theEvent instanceof EventBean ? (EventBean) theEvent : wrapEvent(theEvent);
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(eventBean, this));
+            } else {
+                services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            }
         } else {
             processEvent(theEvent);
         }
@@ -237,7 +256,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
-            services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
+            if (services.getThreadingService().isInboundPartitioned()) {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEvent(document), this));
+            } else {
+                services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
+            }
         } else {
             // Get it wrapped up, process event
             EventBean eventBean = wrapEvent(document);
@@ -289,7 +312,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
-            services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            if (services.getThreadingService().isInboundPartitioned()) {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEvent(map, mapEventTypeName), this));
+            } else {
+                services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            }
         } else {
             // Process event
             EventBean eventBean = wrapEvent(map, mapEventTypeName);
@@ -307,7 +334,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
-            services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            if (services.getThreadingService().isInboundPartitioned()) {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEvent(propertyValues, objectArrayEventTypeName), this));
+            } else {
+                services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            }
         } else {
             // Process event
             EventBean eventBean = wrapEvent(propertyValues, objectArrayEventTypeName);
@@ -315,6 +346,126 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEvents(Object[] events) throws EPException {
+        if (events == null) {
+            throw new IllegalArgumentException("Invalid null event array");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendEvents Processing " + events.length + " events");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            for (Object theEvent : events) {
+                sendEvent(theEvent);
+            }
+            return;
+        }
+
+        // Obtain the per-thread match buffers once for the batch
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+
+        boolean deferredAlready = deferDispatch();
+        try {
+            // Consecutive events of the same class share the event type
+            Class lastClass = null;
+            EventType lastEventType = null;
+            for (Object theEvent : events) {
+                if (theEvent == null) {
+                    log.error(".sendEvents Null object supplied");
+                    continue;
+                }
+                if (theEvent instanceof TimerEvent) {
+                    processTimeEvent((TimerEvent) theEvent);
+                    continue;
+                }
+
+                EventBean eventBean;
+                if (theEvent instanceof EventBean) {
+                    eventBean = (EventBean) theEvent;
+                } else if (theEvent.getClass() == lastClass) {
+                    eventBean = services.getEventAdapterService().adapterForTypedBean(theEvent, lastEventType);
+                } else {
+                    eventBean = wrapEvent(theEvent);
+                    lastClass = theEvent.getClass();
+                    lastEventType = eventBean.getEventType();
+                }
+                processWrappedEvent(eventBean, matches, stmtCallbacks);
+            }
+        } finally {
+            restoreDispatch(deferredAlready);
+        }
+
+        // Dispatch results of the batch to listeners, unless deferred by an enclosing batch
+        dispatch();
+    }
+
+    public void sendEvents(List<? extends Map> maps, String mapEventTypeName) throws EPException {
+        if (maps == null) {
+            throw new IllegalArgumentException("Invalid null event list");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendEvents Processing " + maps.size() + " events");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            for (Map map : maps) {
+                sendEvent(map, mapEventTypeName);
+            }
+            return;
+        }
+
+        // Resolve the event type once and wrap all events before processing any
+        EventType eventType = services.getEventAdapterService().getExistsTypeByName(mapEventTypeName);
+        if (!(eventType instanceof MapEventType)) {
+            throw new EPException(EventAdapterServiceHelper.getMessageExpecting(mapEventTypeName, eventType, "Map"));
+        }
+        EventBean[] eventBeans = new EventBean[maps.size()];
+        int count = 0;
+        for (Map map : maps) {
+            if (map == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            eventBeans[count++] = services.getEventAdapterService().adapterForTypedMap(map, eventType);
+        }
+
+        processWrappedEvents(eventBeans);
+    }
+
+    public void sendEvents(Object[][] objectArrays, String objectArrayEventTypeName) throws EPException {
+        if (objectArrays == null) {
+            throw new IllegalArgumentException("Invalid null event array");
+        }
+
+        if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
+            log.debug(".sendEvents Processing " + objectArrays.length + " events");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            for (Object[] objectArray : objectArrays) {
+                sendEvent(objectArray, objectArrayEventTypeName);
+            }
+            return;
+        }
+
+        // Resolve the event type once and wrap all events before processing any
+        EventType eventType = services.getEventAdapterService().getExistsTypeByName(objectArrayEventTypeName);
+        if (!(eventType instanceof ObjectArrayEventType)) {
+            throw new EPException(EventAdapterServiceHelper.getMessageExpecting(objectArrayEventTypeName, eventType, "Object-array"));
+        }
+        EventBean[] eventBeans = new EventBean[objectArrays.length];
+        for (int i = 0; i < objectArrays.length; i++) {
+            if (objectArrays[i] == null) {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            eventBeans[i] = services.getEventAdapterService().adapterForTypedObjectArray(objectArrays[i], eventType);
+        }
+
+        processWrappedEvents(eventBeans);
+    }
+
     public EventBean wrapEvent(Map map, String eventTypeName) {
         return services.getEventAdapterService().adapterForMap(map, eventTypeName);
     }
@@ -449,6 +600,52 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     }
 
     public void processWrappedEvent(EventBean eventBean) {
+        processWrappedEvent(eventBean, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get());
+    }
+
+    /**
+     * Process a batch of wrapped events, dispatching to listeners after each event or,
+     * when listener dispatch is coalesced, once after all events.
+     *
+     * @param eventBeans events to process
+     */
+    private void processWrappedEvents(EventBean[] eventBeans) {
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+        boolean deferredAlready = deferDispatch();
+        try {
+            for (EventBean eventBean : eventBeans) {
+                processWrappedEvent(eventBean, matches, stmtCallbacks);
+            }
+        } finally {
+            restoreDispatch(deferredAlready);
+        }
+
+        // Dispatch results of the batch to listeners, unless deferred by an enclosing batch
+        dispatch();
+    }
+
+    /**
+     * Defers listener dispatch for the current thread when listener dispatch is coalesced per batch.
+     *
+     * @return indicator whether dispatch was already deferred, i.e. for nested batches
+     */
+    private boolean deferDispatch() {
+        if (!isListenerDispatchBatchCoalesce) {
+            return false;
+        }
+        boolean deferredAlready = isDispatchDeferred.get();
+        isDispatchDeferred.set(true);
+        return deferredAlready;
+    }
+
+    private void restoreDispatch(boolean deferredAlready) {
+        if (isListenerDispatchBatchCoalesce) {
+            isDispatchDeferred.set(deferredAlready);
+        }
+    }
+
+    private void processWrappedEvent(EventBean eventBean, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qStimulantEvent(eventBean, services.getEngineURI());
         }
@@ -466,9 +663,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
         services.getEventProcessingRWLock().acquireReadLock();
         try {
-            processMatches(eventBean);
+            processMatches(eventBean, matches, stmtCallbacks);
         } catch (RuntimeException ex) {
-            matchesArrayThreadLocal.get().clear();
+            matches.clear();
             throw new EPException(ex);
         } finally {
             services.getEventProcessingRWLock().releaseReadLock();
@@ -878,8 +1075,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     }
 
     protected void processMatches(EventBean theEvent) {
+        processMatches(theEvent, matchesArrayThreadLocal.get(), matchesPerStmtThreadLocal.get());
+    }
+
+    private void processMatches(EventBean theEvent, ArrayBackedCollection<FilterHandle> matches, Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks) {
         // get matching filters
-        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
         long version = services.getFilterService().evaluate(theEvent, matches);
 
         if (ThreadLogUtil.ENABLED_TRACE) {
@@ -901,7 +1101,6 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             return;
         }
 
-        Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
         Object[] matchArray = matches.getArray();
         int entryCount = matches.size();
 
@@ -1220,6 +1419,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
      * Dispatch events.
      */
     public void dispatch() {
+        if (isListenerDispatchBatchCoalesce && isDispatchDeferred.get()) {
+            return;
+        }
         try {
             services.getDispatchService().dispatch();
         } catch (RuntimeException ex) {
@@ -1394,6 +1596,14 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         return executeQueryInternal(epl, null, null, contextPartitionSelectors);
     }
 
+    public int bulkLoad(String namedWindowOrTableName, Iterator<?> rows) throws EPException {
+        return FireAndForgetBulkLoad.bulkLoad(namedWindowOrTableName, rows, new BulkLoadOptions(), services);
+    }
+
+    public int bulkLoad(String namedWindowOrTableName, Iterator<?> rows, BulkLoadOptions options) throws EPException {
+        return FireAndForgetBulkLoad.bulkLoad(namedWindowOrTableName, rows, options == null ? new BulkLoadOptions() : options, services);
+    }
+
     public EPOnDemandQueryResult executeQuery(String epl) {
         return executeQueryInternal(epl, null, null, null);
     }
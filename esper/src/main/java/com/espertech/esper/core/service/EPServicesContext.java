@@ -33,6 +33,7 @@ import com.espertech.esper.epl.metric.MetricReportingServiceSPI;
 import com.espertech.esper.epl.named.NamedWindowConsumerMgmtService;
 import com.espertech.esper.epl.named.NamedWindowDispatchService;
 import com.espertech.esper.epl.named.NamedWindowMgmtService;
+import com.espertech.esper.epl.parse.ParseResultCache;
 import com.espertech.esper.epl.spec.PluggableObjectCollection;
 import com.espertech.esper.epl.table.mgmt.TableService;
 import com.espertech.esper.epl.variable.VariableService;
@@ -123,6 +124,7 @@ public final class EPServicesContext {
     private DataFlowService dataFlowService;
     private ExprDeclaredService exprDeclaredService;
     private ExpressionResultCacheService expressionResultCacheSharable;
+    private final ParseResultCache parseResultCache;
 
     public EPServicesContext(String engineURI,
                              SchedulingServiceSPI schedulingService,
@@ -222,6 +224,7 @@ public final class EPServicesContext {
         this.dataFlowService = dataFlowService;
         this.exprDeclaredService = exprDeclaredService;
         this.expressionResultCacheSharable = new ExpressionResultCacheService(configSnapshot.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
+        this.parseResultCache = new ParseResultCache(configSnapshot.getEngineDefaults().getExecution().getParseCacheSize());
         this.contextControllerFactoryFactorySvc = contextControllerFactoryFactorySvc;
         this.contextManagerFactoryService = contextManagerFactoryService;
         this.epStatementFactory = epStatementFactory;
@@ -699,6 +702,10 @@ public final class EPServicesContext {
         return epStatementFactory;
     }
 
+    public ParseResultCache getParseResultCache() {
+        return parseResultCache;
+    }
+
     public RegexHandlerFactory getRegexHandlerFactory() {
         return regexHandlerFactory;
     }
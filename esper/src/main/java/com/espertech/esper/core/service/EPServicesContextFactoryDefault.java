@@ -129,7 +129,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         ManagedReadWriteLock eventProcessingRWLock = new ManagedReadWriteLock("EventProcLock", false);
 
         TimeSourceService timeSourceService = makeTimeSource(configSnapshot);
-        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(timeSourceService);
+        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getSchedulingServiceProfile(), timeSourceService);
         SchedulingMgmtService schedulingMgmtService = new SchedulingMgmtServiceImpl();
         EngineSettingsService engineSettingsService = new EngineSettingsService(configSnapshot.getEngineDefaults(), configSnapshot.getPlugInEventTypeResolutionURIs());
         DatabaseConfigService databaseConfigService = makeDatabaseRefService(configSnapshot, schedulingService, schedulingMgmtService, engineImportService);
@@ -351,6 +351,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         eventAdapterService.setClassLegacyConfigs(classLegacyInfo);
         eventAdapterService.setDefaultPropertyResolutionStyle(configSnapshot.getEngineDefaults().getEventMeta().getClassPropertyResolutionStyle());
         eventAdapterService.setDefaultAccessorStyle(configSnapshot.getEngineDefaults().getEventMeta().getDefaultAccessorStyle());
+        eventAdapterService.setDefaultCodeGeneration(configSnapshot.getEngineDefaults().getEventMeta().getDefaultCodeGeneration());
 
         for (String javaPackage : configSnapshot.getEventTypeAutoNamePackages()) {
             eventAdapterService.addAutoNamePackage(javaPackage);
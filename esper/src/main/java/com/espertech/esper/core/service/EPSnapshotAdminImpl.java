@@ -0,0 +1,489 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.snapshot.EPSnapshotAdmin;
+import com.espertech.esper.client.snapshot.EPSnapshotDescriptor;
+import com.espertech.esper.client.snapshot.EPSnapshotException;
+import com.espertech.esper.core.start.EPStatementStartMethod;
+import com.espertech.esper.epl.agg.service.AggregationRowPair;
+import com.espertech.esper.epl.named.NamedWindowProcessor;
+import com.espertech.esper.epl.named.NamedWindowProcessorInstance;
+import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumn;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumnAggregation;
+import com.espertech.esper.epl.table.mgmt.TableRowKeyFactory;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.epl.variable.VariableMetaData;
+import com.espertech.esper.epl.variable.VariableReader;
+import com.espertech.esper.util.JavaClassHelper;
+import com.espertech.esper.view.DataWindowViewWithTimestamps;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Writes and restores engine state snapshots.
+ * <p>
+ * The snapshot is a single object stream that starts with a magic number and format version followed by the engine time,
+ * the named window events, the table rows and the variable values. Event underlying objects, table rows and variable values
+ * are written using Java serialization, sharing class descriptors within the stream.
+ * </p>
+ * <p>
+ * Tables that have aggregation columns are skipped when writing as their aggregation state is not serializable.
+ * Restoring reads and validates the complete snapshot before changing any state. It then sets the engine time when
+ * the engine uses external timer events, assigns variables, adds table rows and lastly inserts named window events.
+ * A failure when assigning variables or adding table rows undoes the changes made by the restore.
+ * </p>
+ * <p>
+ * A named window whose data window implements {@link DataWindowViewWithTimestamps} also writes the arrival time of each
+ * event, and restoring into the empty data window retains each event according to its arrival time.
+ * Other named windows receive the events in data window order as new events. The snapshot does not contain
+ * aggregation state, pattern and schedule state or view-internal state other than the arrival times.
+ * </p>
+ */
+public class EPSnapshotAdminImpl implements EPSnapshotAdmin {
+    private final static int MAGIC = 0x45534e50;
+    private final static int VERSION = 2;
+
+    private final EPServicesContext services;
+
+    public EPSnapshotAdminImpl(EPServicesContext services) {
+        this.services = services;
+    }
+
+    public EPSnapshotDescriptor writeSnapshot(OutputStream outputStream) throws EPSnapshotException {
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try {
+            ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(outputStream));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            long engineTime = services.getSchedulingService().getTime();
+            out.writeLong(engineTime);
+            Map<String, Integer> namedWindowCounts = writeNamedWindows(out);
+            Set<String> skippedTables = new LinkedHashSet<String>();
+            Map<String, Integer> tableCounts = writeTables(out, skippedTables);
+            Map<String, Object> variableValues = writeVariables(out);
+            out.flush();
+            return new EPSnapshotDescriptor(engineTime, namedWindowCounts, tableCounts, variableValues, skippedTables);
+        } catch (IOException ex) {
+            throw new EPSnapshotException("Failed to write snapshot: " + ex.getMessage(), ex);
+        } finally {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+    }
+
+    public EPSnapshotDescriptor restoreSnapshot(InputStream inputStream) throws EPSnapshotException {
+        EPSnapshotDescriptor descriptor;
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try {
+            // read and validate the complete snapshot before changing any state
+            long engineTime;
+            List<NamedWindowRestore> namedWindows;
+            List<TableRestore> tables;
+            Map<String, Object> variableValues;
+            try {
+                ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(inputStream)) {
+                    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                        try {
+                            return Class.forName(desc.getName(), false, services.getEngineImportService().getClassLoader());
+                        } catch (ClassNotFoundException ex) {
+                            return super.resolveClass(desc);
+                        }
+                    }
+                };
+                if (in.readInt() != MAGIC) {
+                    throw new EPSnapshotException("Input is not an engine snapshot");
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new EPSnapshotException("Unsupported snapshot version " + version + ", expected version " + VERSION);
+                }
+                engineTime = in.readLong();
+                namedWindows = readNamedWindows(in);
+                tables = readTables(in);
+                variableValues = readVariables(in);
+            } catch (IOException ex) {
+                throw new EPSnapshotException("Failed to read snapshot: " + ex.getMessage(), ex);
+            } catch (ClassNotFoundException ex) {
+                throw new EPSnapshotException("Failed to read snapshot, class not found: " + ex.getMessage(), ex);
+            }
+
+            // the engine time applies before inserting events, so that data windows retain them relative to the snapshot time
+            long timeBefore = services.getSchedulingService().getTime();
+            boolean externalTime = !services.getEngineSettingsService().getEngineSettings().getThreading().isInternalTimerEnabled();
+            if (externalTime) {
+                services.getSchedulingService().setTime(engineTime);
+            }
+            try {
+                applyVariablesAndTables(variableValues, tables);
+            } catch (RuntimeException ex) {
+                if (externalTime) {
+                    services.getSchedulingService().setTime(timeBefore);
+                }
+                throw ex;
+            }
+            Map<String, Integer> namedWindowCounts = applyNamedWindows(namedWindows);
+
+            Map<String, Integer> tableCounts = new LinkedHashMap<String, Integer>();
+            for (TableRestore table : tables) {
+                tableCounts.put(table.instance.getTableMetadata().getTableName(), table.rows.size());
+            }
+            descriptor = new EPSnapshotDescriptor(engineTime, namedWindowCounts, tableCounts, variableValues, Collections.<String>emptySet());
+        } finally {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+
+        // dispatch restored named window events to consuming statements
+        services.getInternalEventEngineRouteDest().processThreadWorkQueue();
+        return descriptor;
+    }
+
+    private Map<String, Integer> writeNamedWindows(ObjectOutputStream out) throws IOException {
+        Map<String, NamedWindowProcessorInstance> instances = new LinkedHashMap<String, NamedWindowProcessorInstance>();
+        for (String name : services.getNamedWindowMgmtService().getNamedWindows()) {
+            NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(name);
+            if (processor == null || processor.getContextName() != null || processor.isVirtualDataWindow()) {
+                continue;
+            }
+            NamedWindowProcessorInstance instance = processor.getProcessorInstanceNoContext();
+            if (instance != null) {
+                instances.put(name, instance);
+            }
+        }
+
+        Map<String, Integer> counts = new LinkedHashMap<String, Integer>();
+        out.writeInt(instances.size());
+        for (Map.Entry<String, NamedWindowProcessorInstance> entry : instances.entrySet()) {
+            String name = entry.getKey();
+            DataWindowViewWithTimestamps dataWindow = entry.getValue().getRootViewInstance().getDataWindowWithTimestamps();
+            Iterable<EventBean> contents = dataWindow != null ? dataWindow : entry.getValue().getTailViewInstance();
+            List<Object> underlyings = new ArrayList<Object>();
+            for (EventBean event : contents) {
+                underlyings.add(event.getUnderlying());
+            }
+            out.writeUTF(name);
+            out.writeInt(underlyings.size());
+            for (Object underlying : underlyings) {
+                writeValue(out, underlying, "named window", name);
+            }
+            out.writeBoolean(dataWindow != null);
+            if (dataWindow != null) {
+                long[] timestamps = dataWindow.getTimestamps();
+                for (int i = 0; i < underlyings.size(); i++) {
+                    out.writeLong(timestamps[i]);
+                }
+            }
+            counts.put(name, underlyings.size());
+        }
+        return counts;
+    }
+
+    private List<NamedWindowRestore> readNamedWindows(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        List<NamedWindowRestore> windows = new ArrayList<NamedWindowRestore>();
+        int numWindows = in.readInt();
+        for (int i = 0; i < numWindows; i++) {
+            String name = in.readUTF();
+            int numEvents = in.readInt();
+            NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(name);
+            if (processor == null) {
+                throw new EPSnapshotException("Named window by name '" + name + "' has not been declared");
+            }
+            NamedWindowProcessorInstance instance = processor.getProcessorInstanceNoContext();
+            if (instance == null || processor.isVirtualDataWindow()) {
+                throw new EPSnapshotException("Named window by name '" + name + "' is declared with a context or is a virtual data window and cannot be restored");
+            }
+
+            EventType eventType = processor.getNamedWindowType();
+            EventBean[] events = new EventBean[numEvents];
+            for (int j = 0; j < numEvents; j++) {
+                Object underlying = in.readObject();
+                checkUnderlying(underlying, eventType, "named window", name);
+                events[j] = services.getEventAdapterService().adapterForType(underlying, eventType);
+            }
+            long[] timestamps = null;
+            if (in.readBoolean()) {
+                timestamps = new long[numEvents];
+                for (int j = 0; j < numEvents; j++) {
+                    timestamps[j] = in.readLong();
+                }
+            }
+            windows.add(new NamedWindowRestore(name, instance, events, timestamps));
+        }
+        return windows;
+    }
+
+    private Map<String, Integer> applyNamedWindows(List<NamedWindowRestore> windows) {
+        Map<String, Integer> counts = new LinkedHashMap<String, Integer>();
+        for (NamedWindowRestore window : windows) {
+            if (window.events.length > 0) {
+                StatementAgentInstanceLock lock = window.instance.getTailViewInstance().getAgentInstanceContext().getAgentInstanceLock();
+                lock.acquireWriteLock();
+                try {
+                    DataWindowViewWithTimestamps dataWindow = window.timestamps == null ? null : window.instance.getRootViewInstance().getDataWindowWithTimestamps();
+                    if (dataWindow != null && !dataWindow.iterator().hasNext()) {
+                        window.instance.getRootViewInstance().restore(window.events, window.timestamps, dataWindow);
+                    } else {
+                        window.instance.getRootViewInstance().update(window.events, null);
+                    }
+                } finally {
+                    lock.releaseWriteLock();
+                }
+            }
+            counts.put(window.name, window.events.length);
+        }
+        return counts;
+    }
+
+    private Map<String, Integer> writeTables(ObjectOutputStream out, Set<String> skippedTables) throws IOException {
+        List<TableStateInstance> instances = new ArrayList<TableStateInstance>();
+        for (String name : services.getTableService().getTables()) {
+            TableMetadata metadata = services.getTableService().getTableMetadata(name);
+            if (metadata == null || metadata.getContextName() != null) {
+                continue;
+            }
+            if (getAggregationColumn(metadata) != null) {
+                skippedTables.add(name);
+                continue;
+            }
+            TableStateInstance instance = metadata.getState(EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID);
+            if (instance != null) {
+                instances.add(instance);
+            }
+        }
+
+        Map<String, Integer> counts = new LinkedHashMap<String, Integer>();
+        out.writeInt(instances.size());
+        for (TableStateInstance instance : instances) {
+            String name = instance.getTableMetadata().getTableName();
+            List<Object[]> rows = new ArrayList<Object[]>();
+            for (EventBean event : instance.getEventCollection()) {
+                Object[] row = ((Object[]) event.getUnderlying()).clone();
+                row[0] = null; // the aggregation row is not written
+                rows.add(row);
+            }
+            out.writeUTF(name);
+            out.writeInt(rows.size());
+            for (Object[] row : rows) {
+                writeValue(out, row, "table", name);
+            }
+            counts.put(name, rows.size());
+        }
+        return counts;
+    }
+
+    private List<TableRestore> readTables(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        List<TableRestore> tables = new ArrayList<TableRestore>();
+        int numTables = in.readInt();
+        for (int i = 0; i < numTables; i++) {
+            String name = in.readUTF();
+            int numRows = in.readInt();
+            TableMetadata metadata = services.getTableService().getTableMetadata(name);
+            if (metadata == null) {
+                throw new EPSnapshotException("Table by name '" + name + "' has not been declared");
+            }
+            TableStateInstance instance = metadata.getContextName() != null ? null : metadata.getState(EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID);
+            if (instance == null) {
+                throw new EPSnapshotException("Table by name '" + name + "' is declared with a context and cannot be restored");
+            }
+            TableMetadataColumn aggregationColumn = getAggregationColumn(metadata);
+            if (aggregationColumn != null) {
+                throw new EPSnapshotException("Table by name '" + name + "' has aggregation column '" + aggregationColumn.getColumnName() + "', snapshots are not supported for tables with aggregation columns");
+            }
+
+            int numColumns = metadata.getInternalEventType().getPropertyNames().length;
+            List<Object[]> rows = new ArrayList<Object[]>(numRows);
+            for (int j = 0; j < numRows; j++) {
+                Object[] row = (Object[]) in.readObject();
+                if (row.length != numColumns) {
+                    throw new EPSnapshotException("Table by name '" + name + "' has " + numColumns + " columns however the snapshot row has " + row.length + " columns");
+                }
+                rows.add(row);
+            }
+            checkTableKeys(name, metadata, instance, rows);
+            tables.add(new TableRestore(instance, rows));
+        }
+        return tables;
+    }
+
+    private void applyVariablesAndTables(Map<String, Object> variableValues, List<TableRestore> tables) {
+        services.getVariableService().getReadWriteLock().writeLock().lock();
+        try {
+            // variable values remain uncommitted until the table rows have been added
+            for (Map.Entry<String, Object> entry : variableValues.entrySet()) {
+                try {
+                    services.getVariableService().checkAndWrite(entry.getKey(), EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID, entry.getValue());
+                } catch (RuntimeException ex) {
+                    services.getVariableService().rollback();
+                    throw new EPSnapshotException("Failed to restore variable '" + entry.getKey() + "': " + ex.getMessage(), ex);
+                }
+            }
+
+            TableRestore current = null;
+            try {
+                for (TableRestore table : tables) {
+                    current = table;
+                    addTableRows(table);
+                }
+            } catch (RuntimeException ex) {
+                services.getVariableService().rollback();
+                for (TableRestore table : tables) {
+                    removeTableRows(table);
+                }
+                throw new EPSnapshotException("Failed to restore table '" + current.instance.getTableMetadata().getTableName() + "': " + ex.getMessage(), ex);
+            }
+            services.getVariableService().commit();
+        } finally {
+            services.getVariableService().getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    private void addTableRows(TableRestore table) {
+        TableMetadata metadata = table.instance.getTableMetadata();
+        table.instance.getTableLevelRWLock().writeLock().lock();
+        try {
+            for (Object[] row : table.rows) {
+                AggregationRowPair aggs = metadata.getRowFactory().makeAggs(EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID, null, null, table.instance.getAggregationServicePassThru());
+                row[0] = aggs;
+                EventBean event = services.getEventAdapterService().adapterForTypedObjectArray(row, metadata.getInternalEventType());
+                table.instance.addEvent(event);
+                table.added.add(event);
+            }
+        } finally {
+            table.instance.getTableLevelRWLock().writeLock().unlock();
+        }
+    }
+
+    private void removeTableRows(TableRestore table) {
+        table.instance.getTableLevelRWLock().writeLock().lock();
+        try {
+            for (EventBean event : table.added) {
+                table.instance.deleteEvent(event);
+            }
+            table.added.clear();
+        } finally {
+            table.instance.getTableLevelRWLock().writeLock().unlock();
+        }
+    }
+
+    private Map<String, Object> writeVariables(ObjectOutputStream out) throws IOException {
+        services.getVariableService().setLocalVersion();
+        Map<String, Object> values = new TreeMap<String, Object>();
+        for (Map.Entry<String, VariableReader> entry : services.getVariableService().getVariableReadersNonCP().entrySet()) {
+            VariableMetaData metaData = entry.getValue().getVariableMetaData();
+            if (metaData.isConstant()) {
+                continue;
+            }
+            Object value = entry.getValue().getValue();
+            if (value != null && metaData.getEventType() != null) {
+                value = ((EventBean) value).getUnderlying();
+            }
+            values.put(entry.getKey(), value);
+        }
+
+        out.writeInt(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeValue(out, entry.getValue(), "variable", entry.getKey());
+        }
+        return values;
+    }
+
+    private Map<String, Object> readVariables(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+        int numVariables = in.readInt();
+        for (int i = 0; i < numVariables; i++) {
+            String name = in.readUTF();
+            Object value = in.readObject();
+            VariableMetaData metaData = services.getVariableService().getVariableMetaData(name);
+            if (metaData == null) {
+                throw new EPSnapshotException("Variable by name '" + name + "' has not been declared");
+            }
+            if (metaData.isConstant() || metaData.getContextPartitionName() != null) {
+                throw new EPSnapshotException("Variable by name '" + name + "' is a constant or is declared with a context and cannot be restored");
+            }
+            values.put(name, value);
+        }
+        return values;
+    }
+
+    private static void writeValue(ObjectOutputStream out, Object value, String kind, String name) throws IOException {
+        try {
+            out.writeObject(value);
+        } catch (NotSerializableException ex) {
+            throw new EPSnapshotException("Failed to write snapshot for " + kind + " '" + name + "', value of type '" + ex.getMessage() + "' is not serializable", ex);
+        }
+    }
+
+    private static void checkUnderlying(Object underlying, EventType eventType, String kind, String name) {
+        if (underlying == null || !JavaClassHelper.isSubclassOrImplementsInterface(underlying.getClass(), eventType.getUnderlyingType())) {
+            throw new EPSnapshotException("Snapshot event for " + kind + " '" + name + "' of type '" + (underlying == null ? "null" : underlying.getClass().getName()) +
+                    "' does not match the underlying type '" + eventType.getUnderlyingType().getName() + "' of event type '" + eventType.getName() + "'");
+        }
+    }
+
+    private static TableMetadataColumn getAggregationColumn(TableMetadata metadata) {
+        for (TableMetadataColumn column : metadata.getTableColumns().values()) {
+            if (column instanceof TableMetadataColumnAggregation) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private static void checkTableKeys(String name, TableMetadata metadata, TableStateInstance instance, List<Object[]> rows) {
+        TableRowKeyFactory keyFactory = metadata.getTableRowKeyFactory();
+        if (keyFactory == null) {
+            if (rows.size() > 1 || (!rows.isEmpty() && instance.getRowCount() > 0)) {
+                throw new EPSnapshotException("Table by name '" + name + "' does not declare a primary key and cannot hold more than one row");
+            }
+            return;
+        }
+
+        Set<Object> keys = new HashSet<Object>();
+        for (EventBean existing : instance.getEventCollection()) {
+            keys.add(keyFactory.getTableRowKey((Object[]) existing.getUnderlying()));
+        }
+        for (Object[] row : rows) {
+            Object key = keyFactory.getTableRowKey(row);
+            if (!keys.add(key)) {
+                throw new EPSnapshotException("Table by name '" + name + "' already has a row for primary key '" + key + "'");
+            }
+        }
+    }
+
+    private static class NamedWindowRestore {
+        private final String name;
+        private final NamedWindowProcessorInstance instance;
+        private final EventBean[] events;
+        private final long[] timestamps;
+
+        private NamedWindowRestore(String name, NamedWindowProcessorInstance instance, EventBean[] events, long[] timestamps) {
+            this.name = name;
+            this.instance = instance;
+            this.events = events;
+            this.timestamps = timestamps;
+        }
+    }
+
+    private static class TableRestore {
+        private final TableStateInstance instance;
+        private final List<Object[]> rows;
+        private final List<EventBean> added = new ArrayList<EventBean>();
+
+        private TableRestore(TableStateInstance instance, List<Object[]> rows) {
+            this.instance = instance;
+            this.rows = rows;
+        }
+    }
+}
@@ -723,6 +723,7 @@ public class StatementLifecycleSvcImpl implements StatementLifecycleSvc {
         services.getStatementEventTypeRefService().removeReferencesStatement(statementName);
         services.getStatementVariableRefService().removeReferencesStatement(statementName);
         services.getFilterNonPropertyRegisteryService().removeReferencesStatement(statementName);
+        services.getThreadingService().getInboundPartitionKeys().removeReferencesStatement(statementName);
         services.getNamedWindowConsumerMgmtService().removeReferences(statementName);
     }
 
@@ -1449,6 +1450,9 @@ public class StatementLifecycleSvcImpl implements StatementLifecycleSvc {
             // remove referenced non-property getters (after stop to allow lookup of these during stop)
             services.getFilterNonPropertyRegisteryService().removeReferencesStatement(desc.getEpStatement().getName());
 
+            // remove partition keys for partitioned inbound threading
+            services.getThreadingService().getInboundPartitionKeys().removeReferencesStatement(desc.getEpStatement().getName());
+
             // remove referenced variables (after stop to allow lookup of these during stop)
             services.getStatementVariableRefService().removeReferencesStatement(desc.getEpStatement().getName());
 
@@ -12,6 +12,8 @@ package com.espertech.esper.core.service;
 
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.subquery.ExprSubselectNode;
+import com.espertech.esper.epl.expression.table.ExprTableAccessNode;
 import com.espertech.esper.epl.expression.visitor.ExprNodeSubselectDeclaredDotVisitor;
 import com.espertech.esper.epl.spec.*;
 import com.espertech.esper.epl.table.mgmt.TableService;
@@ -270,6 +272,46 @@ public class StatementLifecycleSvcUtil {
         return false;
     }
 
+    /**
+     * Determine whether the statement reads the table, by table-access expression, from-clause or subquery.
+     *
+     * @param statementSpec compiled statement
+     * @param tableName     table name
+     * @return indicator
+     */
+    public static boolean isReadsTable(StatementSpecCompiled statementSpec, String tableName) {
+        if (statementSpec.getTableNodes() != null) {
+            for (ExprTableAccessNode tableNode : statementSpec.getTableNodes()) {
+                if (tableNode.getTableName().equals(tableName)) {
+                    return true;
+                }
+            }
+        }
+        if (isStreamsReadTable(statementSpec.getStreamSpecs(), tableName)) {
+            return true;
+        }
+        if (statementSpec.getSubSelectExpressions() != null) {
+            for (ExprSubselectNode subselect : statementSpec.getSubSelectExpressions()) {
+                if (subselect.getStatementSpecCompiled() != null && isReadsTable(subselect.getStatementSpecCompiled(), tableName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isStreamsReadTable(StreamSpecCompiled[] streamSpecs, String tableName) {
+        if (streamSpecs == null) {
+            return false;
+        }
+        for (StreamSpecCompiled streamSpec : streamSpecs) {
+            if (streamSpec instanceof TableQueryStreamSpec && ((TableQueryStreamSpec) streamSpec).getTableName().equals(tableName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static boolean isTable(String name, TableService tableService) {
         return tableService.getTableMetadata(name) != null;
     }
@@ -21,6 +21,7 @@ import com.espertech.esper.core.service.*;
 import com.espertech.esper.epl.core.*;
 import com.espertech.esper.epl.expression.core.*;
 import com.espertech.esper.epl.expression.table.ExprTableAccessNode;
+import com.espertech.esper.epl.fafquery.FireAndForgetColumnarPlan;
 import com.espertech.esper.epl.join.base.*;
 import com.espertech.esper.epl.join.hint.ExcludePlanHint;
 import com.espertech.esper.epl.join.plan.FilterExprAnalyzer;
@@ -29,6 +30,7 @@ import com.espertech.esper.epl.spec.NamedWindowConsumerStreamSpec;
 import com.espertech.esper.epl.spec.StatementSpecCompiled;
 import com.espertech.esper.epl.spec.StreamSpecCompiled;
 import com.espertech.esper.epl.spec.TableQueryStreamSpec;
+import com.espertech.esper.epl.table.mgmt.TableColumnarStore;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
 import com.espertech.esper.epl.virtualdw.VirtualDWViewProviderForAgentInstance;
 import com.espertech.esper.event.EventBeanReader;
@@ -58,6 +60,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
     private JoinSetComposerPrototype joinSetComposerPrototype;
     private final QueryGraph queryGraph;
     private boolean hasTableAccess;
+    private FireAndForgetColumnarPlan columnarPlan;
 
     /**
      * Ctor.
@@ -141,6 +144,11 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
             }
         }
 
+        // plan scans over the column arrays of a columnar table
+        if (numStreams == 1 && processors[0] instanceof FireAndForgetProcessorTable) {
+            columnarPlan = FireAndForgetColumnarPlan.plan(statementSpec, ((FireAndForgetProcessorTable) processors[0]).getTableMetadata(), resultSetProcessor.getResultEventType());
+        }
+
         // check context partition use
         if (statementSpec.getOptionalContextName() != null) {
             if (numStreams > 1) {
@@ -197,6 +205,13 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
             // handle non-context case
             if (statementSpec.getOptionalContextName() == null) {
 
+                if (columnarPlan != null) {
+                    EPPreparedQueryResult result = executeColumnar();
+                    if (result != null) {
+                        return result;
+                    }
+                }
+
                 Collection<EventBean>[] snapshots = new Collection[numStreams];
                 for (int i = 0; i < numStreams; i++) {
 
@@ -246,6 +261,32 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
         }
     }
 
+    private EPPreparedQueryResult executeColumnar() {
+        FireAndForgetInstance processorInstance = processors[0].getProcessorInstance(agentInstanceContext);
+        if (processorInstance == null) {
+            return null;
+        }
+        TableColumnarStore store = ((FireAndForgetInstanceTable) processorInstance).snapshotColumnar(this, queryGraph, statementSpec.getAnnotations());
+        if (store == null) {
+            return null;
+        }
+
+        EventType resultEventType = resultSetProcessor.getResultEventType();
+        if (columnarPlan.isAggregating()) {
+            EventBean row = columnarPlan.aggregate(store, resultEventType, services.getEventAdapterService());
+            return new EPPreparedQueryResult(resultEventType, new EventBean[]{row});
+        }
+
+        EPPreparedExecuteTableHelper.assignTableAccessStrategies(services, statementSpec.getTableNodes(), agentInstanceContext);
+        EventBean[] rows = columnarPlan.select(store);
+        resultSetProcessor.clear();
+        UniformPair<EventBean[]> results = resultSetProcessor.processViewResult(rows, null, true);
+        if (statementSpec.getSelectClauseSpec().isDistinct()) {
+            results.setFirst(EventBeanUtility.getDistinctByProp(results.getFirst(), eventBeanReader));
+        }
+        return new EPPreparedQueryResult(resultEventType, results.getFirst());
+    }
+
     private Collection<EventBean> getStreamFilterSnapshot(int streamNum, ContextPartitionSelector contextPartitionSelector) {
         final StreamSpecCompiled streamSpec = statementSpec.getStreamSpecs()[streamNum];
         List<ExprNode> filterExpressions = Collections.emptyList();
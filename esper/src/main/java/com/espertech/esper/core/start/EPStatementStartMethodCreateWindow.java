@@ -27,6 +27,7 @@ import com.espertech.esper.epl.core.StreamTypeService;
 import com.espertech.esper.epl.core.StreamTypeServiceImpl;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.named.NamedWindowMgmtService;
+import com.espertech.esper.epl.named.NamedWindowOffHeapLayout;
 import com.espertech.esper.epl.named.NamedWindowProcessor;
 import com.espertech.esper.epl.spec.FilterStreamSpecCompiled;
 import com.espertech.esper.epl.spec.SelectClauseElementWildcard;
@@ -40,6 +41,8 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationAgent;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.*;
+import com.espertech.esper.view.std.UniqueByPropertyViewFactory;
+import com.espertech.esper.view.window.KeepAllViewFactory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -98,7 +101,11 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         boolean isBatchingDataWindow = determineBatchingDataWindow(unmaterializedViewChain.getViewFactoryChain());
         final VirtualDWViewFactory virtualDataWindowFactory = determineVirtualDataWindow(unmaterializedViewChain.getViewFactoryChain());
         Set<String> optionalUniqueKeyProps = ViewServiceHelper.getUniqueCandidateProperties(unmaterializedViewChain.getViewFactoryChain(), statementSpec.getAnnotations());
-        NamedWindowProcessor processor = services.getNamedWindowMgmtService().addProcessor(windowName, contextName, filterStreamSpec.getFilterSpec().getResultEventType(), statementContext.getStatementResultService(), optionalRevisionProcessor, statementContext.getExpression(), statementContext.getStatementName(), isPrioritized, isEnableSubqueryIndexShare, isBatchingDataWindow, virtualDataWindowFactory != null, optionalUniqueKeyProps,
+        NamedWindowOffHeapLayout optionalOffHeapLayout = null;
+        if (HintEnum.ENABLE_WINDOW_OFFHEAP.getHint(statementSpec.getAnnotations()) != null) {
+            optionalOffHeapLayout = determineOffHeapLayout(unmaterializedViewChain.getViewFactoryChain(), optionalRevisionProcessor, filterStreamSpec.getFilterSpec().getResultEventType());
+        }
+        NamedWindowProcessor processor = services.getNamedWindowMgmtService().addProcessor(windowName, contextName, filterStreamSpec.getFilterSpec().getResultEventType(), statementContext.getStatementResultService(), optionalRevisionProcessor, statementContext.getExpression(), statementContext.getStatementName(), isPrioritized, isEnableSubqueryIndexShare, isBatchingDataWindow, virtualDataWindowFactory != null, optionalUniqueKeyProps, optionalOffHeapLayout,
                 statementSpec.getCreateWindowDesc().getAsEventTypeName(),
                 statementContext, services.getNamedWindowDispatchService());
 
@@ -203,6 +210,16 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         return null;
     }
 
+    private static NamedWindowOffHeapLayout determineOffHeapLayout(List<ViewFactory> viewFactoryChain, ValueAddEventProcessor optionalRevisionProcessor, EventType eventType) throws ExprValidationException {
+        if (viewFactoryChain.size() != 1 || !(viewFactoryChain.get(0) instanceof KeepAllViewFactory || viewFactoryChain.get(0) instanceof UniqueByPropertyViewFactory)) {
+            throw new ExprValidationException("Off-heap storage requires a single keep-all or unique data window");
+        }
+        if (optionalRevisionProcessor != null) {
+            throw new ExprValidationException("Off-heap storage is not supported for revision event types");
+        }
+        return NamedWindowOffHeapLayout.make(eventType);
+    }
+
     private static boolean determineBatchingDataWindow(List<ViewFactory> viewFactoryChain) {
         for (ViewFactory viewFactory : viewFactoryChain) {
             if (viewFactory instanceof DataWindowBatchingViewFactory) {
@@ -0,0 +1,157 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.start;
+
+import com.espertech.esper.client.BulkLoadOptions;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPServicesContext;
+import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumn;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumnPlain;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk load of rows into a named window or table, for each selected context partition.
+ */
+public class FireAndForgetBulkLoad {
+
+    public static int bulkLoad(String namedWindowOrTableName, Iterator<?> rows, BulkLoadOptions options, EPServicesContext services) throws EPException {
+        if (namedWindowOrTableName == null || rows == null) {
+            throw new IllegalArgumentException("Named window or table name and rows must be provided");
+        }
+        FireAndForgetProcessor processor = FireAndForgetProcessorFactory.resolveProcessor(namedWindowOrTableName, services);
+        if (processor == null) {
+            throw new EPException("A table or named window by name '" + namedWindowOrTableName + "' does not exist");
+        }
+
+        Object[] loaded;
+        if (processor instanceof FireAndForgetProcessorTable) {
+            loaded = toTableRows(((FireAndForgetProcessorTable) processor).getTableMetadata(), rows);
+        } else {
+            FireAndForgetProcessorNamedWindow namedWindow = (FireAndForgetProcessorNamedWindow) processor;
+            if (namedWindow.isVirtualDataWindow() || namedWindow.getNamedWindowProcessor().getRootView().getRevisionProcessor() != null) {
+                throw new EPException("Named window '" + namedWindowOrTableName + "' is a virtual data window or revision window and does not support bulk load");
+            }
+            loaded = toNamedWindowRows(processor.getEventTypePublic(), namedWindowOrTableName, rows);
+        }
+        if (loaded.length == 0) {
+            return 0;
+        }
+
+        List<FireAndForgetInstance> instances = new ArrayList<FireAndForgetInstance>();
+        if (processor.getContextName() == null) {
+            FireAndForgetInstance instance = processor.getProcessorInstanceNoContext();
+            if (instance != null) {
+                instances.add(instance);
+            }
+        } else {
+            Collection<Integer> agentInstanceIds = EPPreparedExecuteMethodHelper.getAgentInstanceIds(processor, options.getContextPartitionSelector(), services.getContextManagementService(), processor.getContextName());
+            for (int agentInstanceId : agentInstanceIds) {
+                FireAndForgetInstance instance = processor.getProcessorInstanceContextById(agentInstanceId);
+                if (instance != null) {
+                    instances.add(instance);
+                }
+            }
+        }
+
+        if (!options.isParallel() || instances.size() < 2) {
+            for (FireAndForgetInstance instance : instances) {
+                instance.processBulkLoad(loaded);
+            }
+        } else {
+            loadParallel(instances, loaded);
+        }
+        return loaded.length;
+    }
+
+    private static void loadParallel(List<FireAndForgetInstance> instances, final Object[] loaded) {
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(instances.size());
+        for (final FireAndForgetInstance instance : instances) {
+            tasks.add(new Callable<Object>() {
+                public Object call() {
+                    instance.processBulkLoad(loaded);
+                    return null;
+                }
+            });
+        }
+
+        List<Future<Object>> futures = ForkJoinPool.commonPool().invokeAll(tasks);
+        for (Future<Object> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new EPException("Interrupted while loading context partitions", ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw new EPException("Failed to load context partition: " + ex.getCause().getMessage(), ex.getCause());
+            }
+        }
+    }
+
+    private static Object[] toNamedWindowRows(EventType eventType, String namedWindowName, Iterator<?> rows) {
+        List<Object> result = new ArrayList<Object>();
+        while (rows.hasNext()) {
+            Object underlying = rows.next();
+            if (underlying == null || !JavaClassHelper.isSubclassOrImplementsInterface(underlying.getClass(), eventType.getUnderlyingType())) {
+                throw new EPException("Row for named window '" + namedWindowName + "' of type '" + (underlying == null ? "null" : underlying.getClass().getName()) +
+                        "' does not match the underlying type '" + eventType.getUnderlyingType().getName() + "' of event type '" + eventType.getName() + "'");
+            }
+            result.add(underlying);
+        }
+        return result.toArray();
+    }
+
+    private static Object[] toTableRows(TableMetadata metadata, Iterator<?> rows) {
+        EventType internalType = metadata.getInternalEventType();
+        int numColumns = internalType.getPropertyNames().length;
+        List<Object> result = new ArrayList<Object>();
+        while (rows.hasNext()) {
+            Object next = rows.next();
+            if (!(next instanceof Map)) {
+                throw new EPException("Row for table '" + metadata.getTableName() + "' is not a Map of column name and value");
+            }
+            Object[] row = new Object[numColumns];
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) next).entrySet()) {
+                TableMetadataColumn column = metadata.getTableColumns().get(entry.getKey());
+                if (!(column instanceof TableMetadataColumnPlain)) {
+                    throw new EPException("Table '" + metadata.getTableName() + "' does not have a non-aggregation column by name '" + entry.getKey() + "'");
+                }
+                row[((TableMetadataColumnPlain) column).getIndexPlain()] = coerceColumnValue(metadata, column.getColumnName(), entry.getValue());
+            }
+            result.add(row);
+        }
+        return result.toArray();
+    }
+
+    private static Object coerceColumnValue(TableMetadata metadata, String columnName, Object value) {
+        if (value == null) {
+            return null;
+        }
+        Class columnType = JavaClassHelper.getBoxedType(metadata.getInternalEventType().getPropertyType(columnName));
+        if (JavaClassHelper.isSubclassOrImplementsInterface(value.getClass(), columnType)) {
+            return value;
+        }
+        if (value instanceof Number && JavaClassHelper.isNumeric(columnType) && JavaClassHelper.canCoerce(value.getClass(), columnType)) {
+            return JavaClassHelper.coerceBoxed((Number) value, columnType);
+        }
+        throw new EPException("Value of type '" + value.getClass().getName() + "' for column '" + columnName + "' of table '" + metadata.getTableName() + "' is not assignable to type '" + columnType.getName() + "'");
+    }
+}
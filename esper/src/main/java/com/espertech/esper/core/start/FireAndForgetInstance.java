@@ -26,6 +26,8 @@ public abstract class FireAndForgetInstance {
 
     public abstract EventBean[] processUpdate(EPPreparedExecuteIUDSingleStreamExecUpdate update);
 
+    public abstract void processBulkLoad(Object[] rows);
+
     public abstract Collection<EventBean> snapshotBestEffort(EPPreparedExecuteMethodQuery epPreparedExecuteMethodQuery, QueryGraph queryGraph, Annotation[] annotations);
 
     public abstract AgentInstanceContext getAgentInstanceContext();
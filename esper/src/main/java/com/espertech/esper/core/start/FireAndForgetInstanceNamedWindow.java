@@ -12,6 +12,7 @@ package com.espertech.esper.core.start;
 
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.StatementAgentInstanceLock;
 import com.espertech.esper.epl.join.plan.QueryGraph;
@@ -65,6 +66,26 @@ public class FireAndForgetInstanceNamedWindow extends FireAndForgetInstance {
         return processorInstance.getTailViewInstance().snapshotUpdate(update.getQueryGraph(), update.getOptionalWhereClause(), update.getUpdateHelper(), update.getAnnotations());
     }
 
+    public void processBulkLoad(Object[] rows) {
+        AgentInstanceContext ctx = processorInstance.getTailViewInstance().getAgentInstanceContext();
+        EventType eventType = processorInstance.getRootViewInstance().getEventType();
+        EventBean[] events = new EventBean[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            events[i] = ctx.getStatementContext().getEventAdapterService().adapterForType(rows[i], eventType);
+        }
+
+        StatementAgentInstanceLock ailock = ctx.getAgentInstanceLock();
+        ailock.acquireWriteLock();
+        try {
+            processorInstance.getRootViewInstance().bulkLoad(events);
+        } finally {
+            ailock.releaseWriteLock();
+        }
+
+        // dispatch the removal of events that the data window removed to make room for loaded events
+        ctx.getStatementContext().getInternalEventEngineRouteDest().processThreadWorkQueue();
+    }
+
     public Collection<EventBean> snapshotBestEffort(EPPreparedExecuteMethodQuery query, QueryGraph queryGraph, Annotation[] annotations) {
         EPPreparedExecuteTableHelper.assignTableAccessStrategies(query.getServices(), query.getTableNodes(), processorInstance.getTailViewInstance().getAgentInstanceContext());
         return processorInstance.getTailViewInstance().snapshot(queryGraph, annotations);
@@ -17,6 +17,7 @@ import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.fafquery.FireAndForgetQueryExec;
 import com.espertech.esper.epl.join.plan.QueryGraph;
+import com.espertech.esper.epl.table.mgmt.TableColumnarStore;
 import com.espertech.esper.epl.table.mgmt.TableServiceImpl;
 import com.espertech.esper.epl.table.mgmt.TableStateInstance;
 import com.espertech.esper.epl.table.strategy.ExprTableEvalLockUtil;
@@ -29,6 +30,7 @@ import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.concurrent.locks.Lock;
 
 public class FireAndForgetInstanceTable extends FireAndForgetInstance {
     private final TableStateInstance instance;
@@ -78,8 +80,24 @@ public class FireAndForgetInstanceTable extends FireAndForgetInstance {
         return CollectionUtil.EVENTBEANARRAY_EMPTY;
     }
 
+    public void processBulkLoad(Object[] rows) {
+        EventBean[] events = new EventBean[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            Object[] row = ((Object[]) rows[i]).clone();
+            row[0] = instance.getTableMetadata().getRowFactory().makeAggs(instance.getAgentInstanceContext().getAgentInstanceId(), null, null, instance.getAggregationServicePassThru());
+            events[i] = instance.getAgentInstanceContext().getStatementContext().getEventAdapterService().adapterForTypedObjectArray(row, instance.getTableMetadata().getInternalEventType());
+        }
+
+        instance.getTableLevelRWLock().writeLock().lock();
+        try {
+            instance.addEvents(events);
+        } finally {
+            instance.getTableLevelRWLock().writeLock().unlock();
+        }
+    }
+
     public Collection<EventBean> snapshotBestEffort(EPPreparedExecuteMethodQuery query, QueryGraph queryGraph, Annotation[] annotations) {
-        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelRWLock().readLock(), query.getAgentInstanceContext());
+        obtainSnapshotLock(query);
         Collection<EventBean> events = snapshotNullWhenNoIndex(queryGraph, annotations, null, null);
         if (events != null) {
             return events;
@@ -87,6 +105,32 @@ public class FireAndForgetInstanceTable extends FireAndForgetInstance {
         return instance.getEventCollection();
     }
 
+    /**
+     * Returns the column arrays for a scan by a columnar plan, or null when the table is not columnar or when an index serves the query.
+     *
+     * @param query       query
+     * @param queryGraph  query graph
+     * @param annotations annotations
+     * @return columnar store or null
+     */
+    public TableColumnarStore snapshotColumnar(EPPreparedExecuteMethodQuery query, QueryGraph queryGraph, Annotation[] annotations) {
+        TableColumnarStore store = instance.getColumnarStore();
+        if (store == null) {
+            return null;
+        }
+        obtainSnapshotLock(query);
+        if (FireAndForgetQueryExec.isIndexed(queryGraph, annotations, instance.getIndexRepository())) {
+            return null;
+        }
+        return store;
+    }
+
+    private void obtainSnapshotLock(EPPreparedExecuteMethodQuery query) {
+        // when rows are locked by stripes, into-table writers hold the read lock, so a consistent snapshot requires the write lock
+        Lock lock = instance.getRowLockStripes() == null ? instance.getTableLevelRWLock().readLock() : instance.getTableLevelRWLock().writeLock();
+        ExprTableEvalLockUtil.obtainLockUnless(lock, query.getAgentInstanceContext());
+    }
+
     private Collection<EventBean> snapshotAndApplyFilter(QueryGraph queryGraph, Annotation[] annotations, ExprNode filterExpr, AgentInstanceContext agentInstanceContext) {
         Collection<EventBean> indexedResult = snapshotNullWhenNoIndex(queryGraph, annotations, null, null);
         if (indexedResult != null) {
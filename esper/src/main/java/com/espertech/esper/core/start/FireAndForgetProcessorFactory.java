@@ -32,15 +32,29 @@ public class FireAndForgetProcessorFactory {
         }
 
         // get processor instance
+        FireAndForgetProcessor processor = resolveProcessor(processorName, services);
+        if (processor == null) {
+            throw new ExprValidationException("A table or named window by name '" + processorName + "' does not exist");
+        }
+        return processor;
+    }
+
+    /**
+     * Returns the processor for a table or named window.
+     *
+     * @param processorName table or named window name
+     * @param services      services
+     * @return processor or null if neither a table nor a named window exists by that name
+     */
+    public static FireAndForgetProcessor resolveProcessor(String processorName, EPServicesContext services) {
         TableMetadata tableMetadata = services.getTableService().getTableMetadata(processorName);
         if (tableMetadata != null) {
             return new FireAndForgetProcessorTable(services.getTableService(), tableMetadata);
-        } else {
-            NamedWindowProcessor nwprocessor = services.getNamedWindowMgmtService().getProcessor(processorName);
-            if (nwprocessor == null) {
-                throw new ExprValidationException("A table or named window by name '" + processorName + "' does not exist");
-            }
-            return new FireAndForgetProcessorNamedWindow(nwprocessor);
         }
+        NamedWindowProcessor nwprocessor = services.getNamedWindowMgmtService().getProcessor(processorName);
+        if (nwprocessor == null) {
+            return null;
+        }
+        return new FireAndForgetProcessorNamedWindow(nwprocessor);
     }
 }
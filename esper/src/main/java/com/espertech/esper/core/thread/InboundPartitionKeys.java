@@ -0,0 +1,129 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.MultiKeyPrimitive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partition keys of hash and keyed-segmented contexts per event type, for use in assigning inbound events
+ * to partitioned inbound workers such that all events of the same context partition are processed by the same worker.
+ * <p>
+ * The map of keys is replaced by a changed copy upon register and remove, so that obtaining the partition
+ * of an inbound event does not require locking.
+ * </p>
+ */
+public class InboundPartitionKeys {
+    private volatile Map<EventType, List<InboundPartitionKey>> keys = Collections.emptyMap();
+
+    /**
+     * Register the partition key of a context for an event type.
+     *
+     * @param statementName name of the statement declaring the context
+     * @param eventType     event type
+     * @param getters       getters returning the partition key values
+     */
+    public synchronized void register(String statementName, EventType eventType, EventPropertyGetter[] getters) {
+        Map<EventType, List<InboundPartitionKey>> copy = new IdentityHashMap<EventType, List<InboundPartitionKey>>(keys);
+        List<InboundPartitionKey> existing = copy.get(eventType);
+        List<InboundPartitionKey> list = existing == null ? new ArrayList<InboundPartitionKey>(1) : new ArrayList<InboundPartitionKey>(existing);
+        list.add(new InboundPartitionKey(statementName, getters));
+        copy.put(eventType, list);
+        keys = copy;
+    }
+
+    /**
+     * Remove the partition keys registered by a statement.
+     *
+     * @param statementName statement name
+     */
+    public synchronized void removeReferencesStatement(String statementName) {
+        Map<EventType, List<InboundPartitionKey>> copy = new IdentityHashMap<EventType, List<InboundPartitionKey>>();
+        boolean removed = false;
+        for (Map.Entry<EventType, List<InboundPartitionKey>> entry : keys.entrySet()) {
+            List<InboundPartitionKey> list = new ArrayList<InboundPartitionKey>(entry.getValue().size());
+            for (InboundPartitionKey key : entry.getValue()) {
+                if (key.statementName.equals(statementName)) {
+                    removed = true;
+                } else {
+                    list.add(key);
+                }
+            }
+            if (!list.isEmpty()) {
+                copy.put(entry.getKey(), list);
+            }
+        }
+        if (removed) {
+            keys = copy;
+        }
+    }
+
+    /**
+     * Returns the partition of an event among the given number of partitions.
+     * When multiple contexts register a key for the same event type the first registered key applies.
+     * Events of a type without a registered key are assigned by event type, preserving per-type ordering.
+     *
+     * @param theEvent      event
+     * @param numPartitions number of partitions
+     * @return partition number
+     */
+    public int getPartition(EventBean theEvent, int numPartitions) {
+        EventType eventType = theEvent.getEventType();
+        List<InboundPartitionKey> list = keys.get(eventType);
+        int hash;
+        if (list == null) {
+            hash = eventType.getName() == null ? 0 : eventType.getName().hashCode();
+        } else {
+            hash = list.get(0).hash(theEvent);
+        }
+        return (hash & Integer.MAX_VALUE) % numPartitions;
+    }
+
+    /**
+     * Returns true when no keys are registered.
+     *
+     * @return indicator
+     */
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    private static class InboundPartitionKey {
+        private final String statementName;
+        private final EventPropertyGetter[] getters;
+
+        private InboundPartitionKey(String statementName, EventPropertyGetter[] getters) {
+            this.statementName = statementName;
+            this.getters = getters;
+        }
+
+        private int hash(EventBean theEvent) {
+            if (getters.length == 1) {
+                Object value = getters[0].get(theEvent);
+                return value == null ? 0 : value.hashCode();
+            }
+            int hash = 0;
+            for (int i = 0; i < getters.length; i++) {
+                Object value = getters[i].get(theEvent);
+                hash = MultiKeyPrimitive.mixHash(hash, value == null ? 0 : value.hashCode());
+            }
+            return MultiKeyPrimitive.finishHash(hash, getters.length);
+        }
+    }
+}
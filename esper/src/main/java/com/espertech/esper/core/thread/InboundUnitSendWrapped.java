@@ -34,6 +34,15 @@ public class InboundUnitSendWrapped implements InboundUnitRunnable {
         this.runtime = runtime;
     }
 
+    /**
+     * Returns the inbound event.
+     *
+     * @return event
+     */
+    public EventBean getEventBean() {
+        return eventBean;
+    }
+
     public void run() {
         try {
             runtime.processWrappedEvent(eventBean);
@@ -0,0 +1,53 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+/**
+ * Outbound thread for statement-affine outbound threading, draining a single ring buffer in order.
+ */
+public class OutboundAffineWorker implements Runnable {
+    private final OutboundRingBuffer ringBuffer;
+    private volatile boolean shutdown;
+
+    /**
+     * Ctor.
+     *
+     * @param ringBuffer buffer to drain
+     */
+    public OutboundAffineWorker(OutboundRingBuffer ringBuffer) {
+        this.ringBuffer = ringBuffer;
+    }
+
+    public void run() {
+        while (true) {
+            Runnable unit = ringBuffer.poll();
+            if (unit != null) {
+                unit.run();
+            } else if (shutdown && ringBuffer.size() == 0) {
+                // exit only when no unit is claimed or published, so the buffer is drained
+                return;
+            } else {
+                ringBuffer.idle();
+            }
+        }
+    }
+
+    /**
+     * Stops the worker after it processed the units in the buffer.
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    public OutboundRingBuffer getRingBuffer() {
+        return ringBuffer;
+    }
+}
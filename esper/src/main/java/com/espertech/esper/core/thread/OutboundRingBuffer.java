@@ -0,0 +1,145 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free ring buffer for outbound work units that allows multiple producing threads and a single consuming thread.
+ * <p>
+ * Producers claim a sequence number by compare-and-set on the tail and then publish the unit into the slot of the sequence.
+ * The consumer takes units in sequence order, so units are consumed in the order in which producers claimed sequences.
+ * A slot that is claimed but not yet published reads as empty to the consumer, which retries after waiting.
+ * </p>
+ */
+public class OutboundRingBuffer {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long PARK_NANOS = 50000;
+
+    private final AtomicReferenceArray<Runnable> slots;
+    private final int mask;
+    private final ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Ctor.
+     *
+     * @param capacity     requested capacity, rounded up to a power of two, or null or non-positive for the default capacity
+     * @param waitStrategy strategy for waiting for units and for space
+     */
+    public OutboundRingBuffer(Integer capacity, ConfigurationEngineDefaults.Threading.WaitStrategy waitStrategy) {
+        int size = DEFAULT_CAPACITY;
+        if (capacity != null && capacity > 0 && capacity != Integer.MAX_VALUE) {
+            size = 1;
+            while (size < capacity && size < (1 << 30)) {
+                size <<= 1;
+            }
+        }
+        this.slots = new AtomicReferenceArray<Runnable>(size);
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy == null ? ConfigurationEngineDefaults.Threading.WaitStrategy.PARK : waitStrategy;
+    }
+
+    /**
+     * Adds a unit unless the buffer is full, for use by any thread.
+     *
+     * @param unit to add
+     * @return true if added, false if the buffer is full
+     */
+    public boolean offer(Runnable unit) {
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                return false;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                slots.lazySet((int) sequence & mask, unit);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds a unit, waiting for space according to the wait strategy when the buffer is full, for use by any thread.
+     *
+     * @param unit to add
+     * @throws InterruptedException when interrupted waiting for space
+     */
+    public void put(Runnable unit) throws InterruptedException {
+        while (!offer(unit)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            idle();
+        }
+    }
+
+    /**
+     * Removes and returns the next unit, for use by the consuming thread only.
+     *
+     * @return unit or null if there is no published unit
+     */
+    public Runnable poll() {
+        long sequence = head.get();
+        int index = (int) sequence & mask;
+        Runnable unit = slots.get(index);
+        if (unit == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(sequence + 1);
+        return unit;
+    }
+
+    /**
+     * Waits according to the wait strategy.
+     */
+    public void idle() {
+        switch (waitStrategy) {
+            case BUSYSPIN:
+                break;
+            case YIELD:
+                Thread.yield();
+                break;
+            default:
+                LockSupport.parkNanos(PARK_NANOS);
+                break;
+        }
+    }
+
+    /**
+     * Returns the number of claimed sequences not yet consumed.
+     *
+     * @return size
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return size < 0 ? 0 : (int) size;
+    }
+
+    /**
+     * Returns the capacity.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public ConfigurationEngineDefaults.Threading.WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+}
@@ -43,4 +43,8 @@ public class OutboundUnitRunnable implements Runnable {
             log.error("Unexpected error processing dispatch: " + e.getMessage(), e);
         }
     }
+
+    public StatementResultServiceImpl getStatementResultService() {
+        return statementResultService;
+    }
 }
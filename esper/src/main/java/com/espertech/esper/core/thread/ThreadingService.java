@@ -61,6 +61,20 @@ public interface ThreadingService {
      */
     public void submitInbound(InboundUnitRunnable unit);
 
+    /**
+     * Returns true for inbound threading that assigns inbound events to single-threaded workers by partition key.
+     *
+     * @return indicator
+     */
+    public boolean isInboundPartitioned();
+
+    /**
+     * Returns the partition keys of hash and keyed-segmented contexts used to assign inbound events to workers.
+     *
+     * @return partition keys
+     */
+    public InboundPartitionKeys getInboundPartitionKeys();
+
     /**
      * Returns true for route execution threading enabled.
      *
@@ -89,6 +103,20 @@ public interface ThreadingService {
      */
     public void submitOutbound(OutboundUnitRunnable unit);
 
+    /**
+     * Returns true for outbound threading that assigns each statement to one outbound thread draining its own ring buffer.
+     *
+     * @return indicator
+     */
+    public boolean isOutboundStatementAffine();
+
+    /**
+     * Returns the ring buffers of the statement-affine outbound threads, or null if outbound threading is not statement-affine.
+     *
+     * @return ring buffer per outbound thread
+     */
+    public OutboundRingBuffer[] getOutboundRingBuffers();
+
     /**
      * Returns the outbound queue.
      *
@@ -145,5 +173,20 @@ public interface ThreadingService {
      */
     public ThreadPoolExecutor getInboundThreadPool();
 
+    /**
+     * Returns the queues of the partitioned inbound workers, or null if inbound threading is not partitioned.
+     *
+     * @return queue per worker
+     */
+    public BlockingQueue<Runnable>[] getInboundPartitionQueues();
+
+    /**
+     * Returns the thread pools of the partitioned inbound workers, each having a single thread,
+     * or null if inbound threading is not partitioned.
+     *
+     * @return thread pool per worker
+     */
+    public ThreadPoolExecutor[] getInboundPartitionThreadPools();
+
     public Thread makeEventSourceThread(String engineURI, String sourceName, Runnable runnable);
 }
@@ -29,6 +29,9 @@ public class ThreadingServiceImpl implements ThreadingService {
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isInboundPartitioned;
+    private final boolean isOutboundStatementAffine;
+    private final InboundPartitionKeys inboundPartitionKeys = new InboundPartitionKeys();
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
@@ -40,6 +43,13 @@ public class ThreadingServiceImpl implements ThreadingService {
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
 
+    private BlockingQueue<Runnable>[] inboundPartitionQueues;
+    private ThreadPoolExecutor[] inboundPartitionThreadPools;
+
+    private OutboundRingBuffer[] outboundRingBuffers;
+    private OutboundAffineWorker[] outboundAffineWorkers;
+    private Thread[] outboundAffineThreads;
+
     /**
      * Ctor.
      *
@@ -52,11 +62,15 @@ public class ThreadingServiceImpl implements ThreadingService {
             isInboundThreading = threadingConfig.isThreadPoolInbound();
             isRouteThreading = threadingConfig.isThreadPoolRouteExec();
             isOutboundThreading = threadingConfig.isThreadPoolOutbound();
+            isInboundPartitioned = isInboundThreading && threadingConfig.isThreadPoolInboundPartitioned();
+            isOutboundStatementAffine = isOutboundThreading && threadingConfig.isThreadPoolOutboundStatementAffine();
         } else {
             isTimerThreading = false;
             isInboundThreading = false;
             isRouteThreading = false;
             isOutboundThreading = false;
+            isInboundPartitioned = false;
+            isOutboundStatementAffine = false;
         }
     }
 
@@ -68,6 +82,14 @@ public class ThreadingServiceImpl implements ThreadingService {
         return isInboundThreading;
     }
 
+    public boolean isInboundPartitioned() {
+        return isInboundPartitioned;
+    }
+
+    public InboundPartitionKeys getInboundPartitionKeys() {
+        return inboundPartitionKeys;
+    }
+
     public boolean isTimerThreading() {
         return isTimerThreading;
     }
@@ -76,8 +98,20 @@ public class ThreadingServiceImpl implements ThreadingService {
         return isOutboundThreading;
     }
 
+    public boolean isOutboundStatementAffine() {
+        return isOutboundStatementAffine;
+    }
+
     public void initThreading(EPServicesContext services, EPRuntimeImpl runtime) {
-        if (isInboundThreading) {
+        if (isInboundPartitioned) {
+            int numWorkers = config.getThreadPoolInboundNumThreads();
+            inboundPartitionQueues = new BlockingQueue[numWorkers];
+            inboundPartitionThreadPools = new ThreadPoolExecutor[numWorkers];
+            for (int i = 0; i < numWorkers; i++) {
+                inboundPartitionQueues[i] = makeQueue(config.getThreadPoolInboundCapacity());
+                inboundPartitionThreadPools[i] = getThreadPool(services.getEngineURI(), "Inbound-" + i, inboundPartitionQueues[i], 1);
+            }
+        } else if (isInboundThreading) {
             inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
             inboundThreadPool = getThreadPool(services.getEngineURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
         }
@@ -92,12 +126,36 @@ public class ThreadingServiceImpl implements ThreadingService {
             routeThreadPool = getThreadPool(services.getEngineURI(), "RouteExec", routeQueue, config.getThreadPoolRouteExecNumThreads());
         }
 
-        if (isOutboundThreading) {
+        if (isOutboundStatementAffine) {
+            startOutboundAffine(services.getEngineURI(), config.getThreadPoolOutboundNumThreads());
+        } else if (isOutboundThreading) {
             outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
             outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
         }
     }
 
+    private void startOutboundAffine(String engineURI, int numThreads) {
+        if (log.isInfoEnabled()) {
+            log.info("Starting statement-affine outbound threads with " + numThreads + " threads");
+        }
+
+        if (engineURI == null) {
+            engineURI = "default";
+        }
+        ThreadGroup threadGroup = new ThreadGroup("com.espertech.esper." + engineURI + "-Outbound");
+        EngineThreadFactory threadFactory = new EngineThreadFactory(engineURI, "Outbound", threadGroup, Thread.NORM_PRIORITY);
+
+        outboundRingBuffers = new OutboundRingBuffer[numThreads];
+        outboundAffineWorkers = new OutboundAffineWorker[numThreads];
+        outboundAffineThreads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            outboundRingBuffers[i] = new OutboundRingBuffer(config.getThreadPoolOutboundCapacity(), config.getThreadPoolOutboundWaitStrategy());
+            outboundAffineWorkers[i] = new OutboundAffineWorker(outboundRingBuffers[i]);
+            outboundAffineThreads[i] = threadFactory.newThread(outboundAffineWorkers[i]);
+            outboundAffineThreads[i].start();
+        }
+    }
+
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity) {
         if ((threadPoolTimerExecCapacity == null) ||
                 (threadPoolTimerExecCapacity <= 0) ||
@@ -118,6 +176,15 @@ public class ThreadingServiceImpl implements ThreadingService {
 
     public void submitInbound(InboundUnitRunnable unit) {
         try {
+            if (isInboundPartitioned) {
+                // wrapped events go to the worker owning the partition, other work goes to the first worker
+                int partition = 0;
+                if (unit instanceof InboundUnitSendWrapped) {
+                    partition = inboundPartitionKeys.getPartition(((InboundUnitSendWrapped) unit).getEventBean(), inboundPartitionQueues.length);
+                }
+                inboundPartitionQueues[partition].put(unit);
+                return;
+            }
             inboundQueue.put(unit);
         } catch (InterruptedException e) {
             log.info("Submit interrupted:" + e);
@@ -126,6 +193,12 @@ public class ThreadingServiceImpl implements ThreadingService {
 
     public void submitOutbound(OutboundUnitRunnable unit) {
         try {
+            if (isOutboundStatementAffine) {
+                // all results of a statement go to the same ring buffer and are therefore delivered in order
+                int statementId = unit.getStatementResultService().getStatementId();
+                outboundRingBuffers[(statementId & Integer.MAX_VALUE) % outboundRingBuffers.length].put(unit);
+                return;
+            }
             outboundQueue.put(unit);
         } catch (InterruptedException e) {
             log.info("Submit interrupted:" + e);
@@ -148,6 +221,10 @@ public class ThreadingServiceImpl implements ThreadingService {
         return outboundThreadPool;
     }
 
+    public OutboundRingBuffer[] getOutboundRingBuffers() {
+        return outboundRingBuffers;
+    }
+
     public BlockingQueue<Runnable> getRouteQueue() {
         return routeQueue;
     }
@@ -172,6 +249,14 @@ public class ThreadingServiceImpl implements ThreadingService {
         return inboundThreadPool;
     }
 
+    public BlockingQueue<Runnable>[] getInboundPartitionQueues() {
+        return inboundPartitionQueues;
+    }
+
+    public ThreadPoolExecutor[] getInboundPartitionThreadPools() {
+        return inboundPartitionThreadPools;
+    }
+
     public synchronized void destroy() {
         if (timerThreadPool != null) {
             stopPool(timerThreadPool, timerQueue, "TimerExec");
@@ -182,14 +267,26 @@ public class ThreadingServiceImpl implements ThreadingService {
         if (outboundThreadPool != null) {
             stopPool(outboundThreadPool, outboundQueue, "Outbound");
         }
+        if (outboundAffineWorkers != null) {
+            stopOutboundAffine();
+        }
         if (inboundThreadPool != null) {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
+        if (inboundPartitionThreadPools != null) {
+            for (int i = 0; i < inboundPartitionThreadPools.length; i++) {
+                stopPool(inboundPartitionThreadPools[i], inboundPartitionQueues[i], "Inbound-" + i);
+            }
+        }
 
         timerThreadPool = null;
         routeThreadPool = null;
         outboundThreadPool = null;
+        outboundRingBuffers = null;
+        outboundAffineWorkers = null;
+        outboundAffineThreads = null;
         inboundThreadPool = null;
+        inboundPartitionThreadPools = null;
     }
 
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads) {
@@ -219,6 +316,24 @@ public class ThreadingServiceImpl implements ThreadingService {
         return new Thread(threadGroup, runnable);
     }
 
+    private void stopOutboundAffine() {
+        if (log.isInfoEnabled()) {
+            log.info("Shutting down statement-affine outbound threads");
+        }
+
+        // workers drain their buffer before exiting
+        for (OutboundAffineWorker worker : outboundAffineWorkers) {
+            worker.shutdown();
+        }
+        try {
+            for (Thread thread : outboundAffineThreads) {
+                thread.join(10000);
+            }
+        } catch (InterruptedException e) {
+            log.error("Interruped awaiting termination", e);
+        }
+    }
+
     private void stopPool(ThreadPoolExecutor threadPool, BlockingQueue<Runnable> queue, String name) {
         if (log.isInfoEnabled()) {
             log.info("Shutting down pool " + name);
@@ -0,0 +1,54 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.HyperLogLogState;
+
+/**
+ * Approximate count of distinct values based on HyperLogLog. Values cannot be removed.
+ */
+public class AggregatorApproxCountDistinct implements AggregationMethod {
+    protected final HyperLogLogState state;
+
+    /**
+     * Ctor.
+     *
+     * @param precision number of bits of the hash that select the register
+     */
+    public AggregatorApproxCountDistinct(int precision) {
+        this.state = new HyperLogLogState(precision);
+    }
+
+    public void clear() {
+        state.clear();
+    }
+
+    public void enter(Object object) {
+        state.add(object);
+    }
+
+    public void leave(Object object) {
+        // validation ensures there is no remove stream
+    }
+
+    public Object getValue() {
+        return state.estimate();
+    }
+
+    /**
+     * Returns the sketch.
+     *
+     * @return state
+     */
+    public HyperLogLogState getState() {
+        return state;
+    }
+}
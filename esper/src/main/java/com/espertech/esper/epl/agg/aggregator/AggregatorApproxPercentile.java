@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.TDigestState;
+
+/**
+ * Approximate percentile aggregation based on a t-digest. Values cannot be removed.
+ */
+public class AggregatorApproxPercentile implements AggregationMethod {
+    protected final TDigestState digest;
+    protected final double[] percents;
+    protected final boolean multiple;
+
+    /**
+     * Ctor.
+     *
+     * @param percents percentiles between zero and 100
+     * @param multiple true to return an array of values
+     */
+    public AggregatorApproxPercentile(double[] percents, boolean multiple) {
+        this.digest = new TDigestState(TDigestState.COMPRESSION_DEFAULT);
+        this.percents = percents;
+        this.multiple = multiple;
+    }
+
+    public void clear() {
+        digest.clear();
+    }
+
+    public void enter(Object object) {
+        if (object == null) {
+            return;
+        }
+        digest.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object) {
+        // validation ensures there is no remove stream
+    }
+
+    public Object getValue() {
+        if (!multiple) {
+            return digest.quantile(percents[0] / 100d);
+        }
+        if (digest.size() == 0) {
+            return null;
+        }
+        Double[] result = new Double[percents.length];
+        for (int i = 0; i < percents.length; i++) {
+            result[i] = digest.quantile(percents[i] / 100d);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the digest.
+     *
+     * @return digest
+     */
+    public TDigestState getDigest() {
+        return digest;
+    }
+}
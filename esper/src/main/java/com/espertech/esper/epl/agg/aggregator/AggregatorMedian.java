@@ -10,13 +10,13 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
-import com.espertech.esper.collection.SortedDoubleVector;
+import com.espertech.esper.collection.OrderStatisticDoubleTree;
 
 /**
- * Median aggregation.
+ * Median aggregation, based on an order-statistic tree so that enter, leave and getting the value take O(log n) time.
  */
 public class AggregatorMedian implements AggregationMethod {
-    protected SortedDoubleVector vector;
+    protected OrderStatisticDoubleTree vector;
 
     public void clear() {
         vector.clear();
@@ -26,7 +26,7 @@ public class AggregatorMedian implements AggregationMethod {
      * Ctor.
      */
     public AggregatorMedian() {
-        this.vector = new SortedDoubleVector();
+        this.vector = new OrderStatisticDoubleTree();
     }
 
     public void enter(Object object) {
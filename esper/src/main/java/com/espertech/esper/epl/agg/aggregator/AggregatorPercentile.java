@@ -0,0 +1,66 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.collection.OrderStatisticDoubleTree;
+
+/**
+ * Percentile aggregation, computing one or more percentiles by linear interpolation between the closest ranks.
+ */
+public class AggregatorPercentile implements AggregationMethod {
+    protected final OrderStatisticDoubleTree tree;
+    protected final double[] percents;
+    protected final boolean multiple;
+
+    /**
+     * Ctor.
+     *
+     * @param percents percentiles between zero and 100
+     * @param multiple true to return an array of values
+     */
+    public AggregatorPercentile(double[] percents, boolean multiple) {
+        this.tree = new OrderStatisticDoubleTree();
+        this.percents = percents;
+        this.multiple = multiple;
+    }
+
+    public void clear() {
+        tree.clear();
+    }
+
+    public void enter(Object object) {
+        if (object == null) {
+            return;
+        }
+        tree.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object) {
+        if (object == null) {
+            return;
+        }
+        tree.remove(((Number) object).doubleValue());
+    }
+
+    public Object getValue() {
+        if (!multiple) {
+            return tree.getPercentile(percents[0]);
+        }
+        if (tree.size() == 0) {
+            return null;
+        }
+        Double[] result = new Double[percents.length];
+        for (int i = 0; i < percents.length; i++) {
+            result[i] = tree.getPercentile(percents[i]);
+        }
+        return result;
+    }
+}
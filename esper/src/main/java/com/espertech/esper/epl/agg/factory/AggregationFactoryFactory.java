@@ -35,6 +35,8 @@ public interface AggregationFactoryFactory {
 
     AggregationMethodFactory makeSum(StatementExtensionSvcContext statementExtensionSvcContext, ExprSumNode exprSumNode, Class childType);
 
+    AggregationMethodFactory makeApproxCountDistinct(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxCountDistinctNode exprApproxCountDistinctNode, Class childType, int precision);
+
     AggregationMethodFactory makeAvedev(StatementExtensionSvcContext statementExtensionSvcContext, ExprAvedevNode exprAvedevNode, Class childType, ExprNode[] positionalParams);
 
     AggregationMethodFactory makeAvg(StatementExtensionSvcContext statementExtensionSvcContext, ExprAvgNode exprAvgNode, Class childType, MathContext optionalMathContext);
@@ -53,6 +55,8 @@ public interface AggregationFactoryFactory {
 
     AggregationMethodFactory makeNth(StatementExtensionSvcContext statementExtensionSvcContext, ExprNthAggNode exprNthAggNode, Class type, int size);
 
+    AggregationMethodFactory makePercentile(StatementExtensionSvcContext statementExtensionSvcContext, ExprPercentileNode exprPercentileNode, Class childType, double[] percents);
+
     AggregationMethodFactory makePlugInMethod(StatementExtensionSvcContext statementExtensionSvcContext, ExprPlugInAggNode expr, AggregationFunctionFactory factory, Class childType);
 
     AggregationMethodFactory makeRate(StatementExtensionSvcContext statementExtensionSvcContext, ExprRateAggNode exprRateAggNode, boolean isEver, long intervalMsec, TimeProvider timeProvider, TimeAbacus timeAbacus);
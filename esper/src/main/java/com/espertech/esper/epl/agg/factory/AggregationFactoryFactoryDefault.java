@@ -42,6 +42,10 @@ public class AggregationFactoryFactoryDefault implements AggregationFactoryFacto
         return new AggregationMethodFactorySum(exprSumNode, childType);
     }
 
+    public AggregationMethodFactory makeApproxCountDistinct(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxCountDistinctNode exprApproxCountDistinctNode, Class childType, int precision) {
+        return new AggregationMethodFactoryApproxCountDistinct(exprApproxCountDistinctNode, childType, precision);
+    }
+
     public AggregationMethodFactory makeAvedev(StatementExtensionSvcContext statementExtensionSvcContext, ExprAvedevNode exprAvedevNode, Class childType, ExprNode[] positionalParams) {
         return new AggregationMethodFactoryAvedev(exprAvedevNode, childType, positionalParams);
     }
@@ -78,6 +82,10 @@ public class AggregationFactoryFactoryDefault implements AggregationFactoryFacto
         return new AggregationMethodFactoryNth(exprNthAggNode, type, size);
     }
 
+    public AggregationMethodFactory makePercentile(StatementExtensionSvcContext statementExtensionSvcContext, ExprPercentileNode exprPercentileNode, Class childType, double[] percents) {
+        return new AggregationMethodFactoryPercentile(exprPercentileNode, childType, percents);
+    }
+
     public AggregationMethodFactory makePlugInMethod(StatementExtensionSvcContext statementExtensionSvcContext, ExprPlugInAggNode expr, AggregationFunctionFactory factory, Class childType) {
         return new AggregationMethodFactoryPlugIn(expr, factory, childType);
     }
@@ -0,0 +1,96 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.factory;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.agg.access.AggregationAccessor;
+import com.espertech.esper.epl.agg.access.AggregationAgent;
+import com.espertech.esper.epl.agg.access.AggregationStateKey;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregatorApproxCountDistinct;
+import com.espertech.esper.epl.agg.aggregator.AggregatorApproxCountDistinctFilter;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationStateFactory;
+import com.espertech.esper.epl.agg.service.AggregationValidationUtil;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.methodagg.ExprApproxCountDistinctNode;
+import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
+
+public class AggregationMethodFactoryApproxCountDistinct implements AggregationMethodFactory {
+    protected final ExprApproxCountDistinctNode parent;
+    protected final Class aggregatedValueType;
+    protected final int precision;
+
+    public AggregationMethodFactoryApproxCountDistinct(ExprApproxCountDistinctNode parent, Class aggregatedValueType, int precision) {
+        this.parent = parent;
+        this.aggregatedValueType = aggregatedValueType;
+        this.precision = precision;
+    }
+
+    public boolean isAccessAggregation() {
+        return false;
+    }
+
+    public Class getResultType() {
+        return Long.class;
+    }
+
+    public AggregationStateKey getAggregationStateKey(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationStateFactory getAggregationStateFactory(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationAccessor getAccessor() {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationMethod make() {
+        if (parent.getOptionalFilter() != null) {
+            return new AggregatorApproxCountDistinctFilter(precision);
+        }
+        return new AggregatorApproxCountDistinct(precision);
+    }
+
+    public ExprAggregateNodeBase getAggregationExpression() {
+        return parent;
+    }
+
+    public void validateIntoTableCompatible(AggregationMethodFactory intoTableAgg) throws ExprValidationException {
+        AggregationValidationUtil.validateAggregationType(this, intoTableAgg);
+        AggregationMethodFactoryApproxCountDistinct that = (AggregationMethodFactoryApproxCountDistinct) intoTableAgg;
+        AggregationValidationUtil.validateAggregationInputType(aggregatedValueType, that.aggregatedValueType);
+        AggregationValidationUtil.validateAggregationFilter(parent.getOptionalFilter() != null, that.parent.getOptionalFilter() != null);
+        if (precision != that.precision) {
+            throw new ExprValidationException("The precision is " +
+                    precision +
+                    " and provided is " +
+                    that.precision);
+        }
+    }
+
+    public AggregationAgent getAggregationStateAgent(EngineImportService engineImportService, String statementName) {
+        return null;
+    }
+
+    public ExprEvaluator getMethodAggregationEvaluator(boolean join, EventType[] typesPerStream) throws ExprValidationException {
+        // the precision constant is not evaluated per event
+        ExprNode value = parent.getPositionalParams()[0];
+        ExprNode[] params = parent.getOptionalFilter() == null ? new ExprNode[] {value} : new ExprNode[] {value, parent.getOptionalFilter()};
+        return ExprMethodAggUtil.getDefaultEvaluator(params, join, typesPerStream);
+    }
+}
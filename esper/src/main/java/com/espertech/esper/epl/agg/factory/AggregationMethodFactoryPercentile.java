@@ -0,0 +1,113 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.factory;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.agg.access.AggregationAccessor;
+import com.espertech.esper.epl.agg.access.AggregationAgent;
+import com.espertech.esper.epl.agg.access.AggregationStateKey;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregatorApproxPercentile;
+import com.espertech.esper.epl.agg.aggregator.AggregatorApproxPercentileFilter;
+import com.espertech.esper.epl.agg.aggregator.AggregatorPercentile;
+import com.espertech.esper.epl.agg.aggregator.AggregatorPercentileFilter;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationStateFactory;
+import com.espertech.esper.epl.agg.service.AggregationValidationUtil;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
+import com.espertech.esper.epl.expression.methodagg.ExprPercentileNode;
+
+import java.util.Arrays;
+
+public class AggregationMethodFactoryPercentile implements AggregationMethodFactory {
+    protected final ExprPercentileNode parent;
+    protected final Class aggregatedValueType;
+    protected final double[] percents;
+
+    public AggregationMethodFactoryPercentile(ExprPercentileNode parent, Class aggregatedValueType, double[] percents) {
+        this.parent = parent;
+        this.aggregatedValueType = aggregatedValueType;
+        this.percents = percents;
+    }
+
+    public boolean isAccessAggregation() {
+        return false;
+    }
+
+    public Class getResultType() {
+        return parent.isMultiple() ? Double[].class : Double.class;
+    }
+
+    public AggregationStateKey getAggregationStateKey(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationStateFactory getAggregationStateFactory(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationAccessor getAccessor() {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationMethod make() {
+        boolean hasFilter = parent.getOptionalFilter() != null;
+        if (parent.isApproximate()) {
+            return hasFilter ? new AggregatorApproxPercentileFilter(percents, parent.isMultiple()) : new AggregatorApproxPercentile(percents, parent.isMultiple());
+        }
+        AggregationMethod method;
+        if (hasFilter) {
+            method = new AggregatorPercentileFilter(percents, parent.isMultiple());
+        } else {
+            method = new AggregatorPercentile(percents, parent.isMultiple());
+        }
+        if (!parent.isDistinct()) {
+            return method;
+        }
+        return AggregationMethodFactoryUtil.makeDistinctAggregator(method, hasFilter);
+    }
+
+    public ExprAggregateNodeBase getAggregationExpression() {
+        return parent;
+    }
+
+    public void validateIntoTableCompatible(AggregationMethodFactory intoTableAgg) throws ExprValidationException {
+        AggregationValidationUtil.validateAggregationType(this, intoTableAgg);
+        AggregationMethodFactoryPercentile that = (AggregationMethodFactoryPercentile) intoTableAgg;
+        if (!parent.getAggregationFunctionName().equals(that.parent.getAggregationFunctionName())) {
+            throw new ExprValidationException("Not a '" + parent.getAggregationFunctionName() + "' aggregation");
+        }
+        AggregationValidationUtil.validateAggregationInputType(aggregatedValueType, that.aggregatedValueType);
+        AggregationValidationUtil.validateAggregationFilter(parent.getOptionalFilter() != null, that.parent.getOptionalFilter() != null);
+        if (!Arrays.equals(percents, that.percents)) {
+            throw new ExprValidationException("The percentiles are " +
+                    Arrays.toString(percents) +
+                    " and provided are " +
+                    Arrays.toString(that.percents));
+        }
+    }
+
+    public AggregationAgent getAggregationStateAgent(EngineImportService engineImportService, String statementName) {
+        return null;
+    }
+
+    public ExprEvaluator getMethodAggregationEvaluator(boolean join, EventType[] typesPerStream) throws ExprValidationException {
+        // the percentile constants are not evaluated per event
+        ExprNode value = parent.getPositionalParams()[0];
+        ExprNode[] params = parent.getOptionalFilter() == null ? new ExprNode[] {value} : new ExprNode[] {value, parent.getOptionalFilter()};
+        return ExprMethodAggUtil.getDefaultEvaluator(params, join, typesPerStream);
+    }
+}
@@ -18,17 +18,22 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  * Implementation for handling aggregation with grouping by group-keys.
  */
 public class AggSvcGroupByNoAccessFactory extends AggregationServiceFactoryBase {
+    private final AggregationMethodRowApplier optionalApplier;
+
     /**
      * Ctor.
      *
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
+     * @param optionalApplier - code-generated applier for the evaluators and prototypes, or null
      */
-    public AggSvcGroupByNoAccessFactory(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes) {
+    public AggSvcGroupByNoAccessFactory(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes,
+                                        AggregationMethodRowApplier optionalApplier) {
         super(evaluators, prototypes);
+        this.optionalApplier = optionalApplier;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
-        return new AggSvcGroupByNoAccessImpl(evaluators, aggregators);
+        return new AggSvcGroupByNoAccessImpl(evaluators, aggregators, optionalApplier);
     }
 }
@@ -32,15 +32,20 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped {
     private AggregationMethod[] currentAggregatorRow;
     private Object currentGroupKey;
 
+    private final AggregationMethodRowApplier optionalApplier;
+
     /**
      * Ctor.
      *
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      *                   aggregation states for each group
+     * @param optionalApplier - code-generated applier for the evaluators and prototypes, or null
      */
-    public AggSvcGroupByNoAccessImpl(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes) {
+    public AggSvcGroupByNoAccessImpl(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes,
+                                     AggregationMethodRowApplier optionalApplier) {
         super(evaluators, prototypes);
+        this.optionalApplier = optionalApplier;
         this.aggregatorsPerGroup = new HashMap<Object, AggregationMethod[]>();
     }
 
@@ -62,14 +67,18 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped {
 
         // For this row, evaluate sub-expressions, enter result
         currentAggregatorRow = groupAggregators;
-        for (int i = 0; i < evaluators.length; i++) {
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());
-            }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggregators[i].enter(columnResult);
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);
+        if (optionalApplier != null && !InstrumentationHelper.ENABLED) {
+            optionalApplier.applyEnter(groupAggregators, eventsPerStream, exprEvaluatorContext);
+        } else {
+            for (int i = 0; i < evaluators.length; i++) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());
+                }
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                groupAggregators[i].enter(columnResult);
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);
+                }
             }
         }
         if (InstrumentationHelper.ENABLED) {
@@ -91,14 +100,18 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped {
 
         // For this row, evaluate sub-expressions, enter result
         currentAggregatorRow = groupAggregators;
-        for (int i = 0; i < evaluators.length; i++) {
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());
-            }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggregators[i].leave(columnResult);
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);
+        if (optionalApplier != null && !InstrumentationHelper.ENABLED) {
+            optionalApplier.applyLeave(groupAggregators, eventsPerStream, exprEvaluatorContext);
+        } else {
+            for (int i = 0; i < evaluators.length; i++) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());
+                }
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                groupAggregators[i].leave(columnResult);
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);
+                }
             }
         }
         if (InstrumentationHelper.ENABLED) {
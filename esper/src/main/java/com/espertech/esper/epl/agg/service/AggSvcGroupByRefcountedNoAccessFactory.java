@@ -18,19 +18,24 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  * Implementation for handling aggregation with grouping by group-keys.
  */
 public class AggSvcGroupByRefcountedNoAccessFactory extends AggregationServiceFactoryBase {
+    private final AggregationMethodRowApplier optionalApplier;
+
     /**
      * Ctor.
      *
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      *                   aggregation states for each group
+     * @param optionalApplier - code-generated applier for the evaluators and prototypes, or null
      */
     public AggSvcGroupByRefcountedNoAccessFactory(ExprEvaluator[] evaluators,
-                                                  AggregationMethodFactory[] prototypes) {
+                                                  AggregationMethodFactory[] prototypes,
+                                                  AggregationMethodRowApplier optionalApplier) {
         super(evaluators, prototypes);
+        this.optionalApplier = optionalApplier;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
-        return new AggSvcGroupByRefcountedNoAccessImpl(evaluators, aggregators);
+        return new AggSvcGroupByRefcountedNoAccessImpl(evaluators, aggregators, optionalApplier);
     }
 }
@@ -30,6 +30,8 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
     private AggregationMethod[] currentAggregatorRow;
     private Object currentGroupKey;
 
+    private final AggregationMethodRowApplier optionalApplier;
+
     private List<Object> removedKeys;
 
     /**
@@ -38,10 +40,13 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      *                   aggregation states for each group
+     * @param optionalApplier - code-generated applier for the evaluators and prototypes, or null
      */
     public AggSvcGroupByRefcountedNoAccessImpl(ExprEvaluator[] evaluators,
-                                               AggregationMethodFactory[] prototypes) {
+                                               AggregationMethodFactory[] prototypes,
+                                               AggregationMethodRowApplier optionalApplier) {
         super(evaluators, prototypes);
+        this.optionalApplier = optionalApplier;
         this.aggregatorsPerGroup = new HashMap<Object, AggregationMethodRow>();
         removedKeys = new ArrayList<Object>();
     }
@@ -71,14 +76,18 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
 
         // For this row, evaluate sub-expressions, enter result
         currentAggregatorRow = groupAggregators;
-        for (int i = 0; i < evaluators.length; i++) {
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());
-            }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggregators[i].enter(columnResult);
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);
+        if (optionalApplier != null && !InstrumentationHelper.ENABLED) {
+            optionalApplier.applyEnter(groupAggregators, eventsPerStream, exprEvaluatorContext);
+        } else {
+            for (int i = 0; i < evaluators.length; i++) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());
+                }
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                groupAggregators[i].enter(columnResult);
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);
+                }
             }
         }
         if (InstrumentationHelper.ENABLED) {
@@ -104,14 +113,18 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
 
         // For this row, evaluate sub-expressions, enter result
         currentAggregatorRow = groupAggregators;
-        for (int i = 0; i < evaluators.length; i++) {
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());
-            }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggregators[i].leave(columnResult);
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);
+        if (optionalApplier != null && !InstrumentationHelper.ENABLED) {
+            optionalApplier.applyLeave(groupAggregators, eventsPerStream, exprEvaluatorContext);
+        } else {
+            for (int i = 0; i < evaluators.length; i++) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());
+                }
+                Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                groupAggregators[i].leave(columnResult);
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);
+                }
             }
         }
 
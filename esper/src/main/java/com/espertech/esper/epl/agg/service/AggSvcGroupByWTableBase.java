@@ -24,7 +24,10 @@ import com.espertech.esper.epl.table.strategy.ExprTableEvalLockUtil;
 import com.espertech.esper.event.ObjectArrayBackedEventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Implementation for handling aggregation with grouping by group-keys.
@@ -38,14 +41,18 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     protected final int[] targetStates;
     protected final ExprNode[] accessStateExpr;
     private final AggregationAgent[] agents;
+    // rows are updated holding the stripe lock of the row, i.e. the table has stripes and the statement does not read the table
+    protected final boolean rowLocking;
 
     // maintain a current row for random access into the aggregator state table
     // (row=groups, columns=expression nodes that have aggregation functions)
     protected AggregationMethod[] currentAggregatorMethods;
     protected AggregationState[] currentAggregatorStates;
     protected Object currentGroupKey;
+    // stripe lock of the current row when rows are locked by stripes, held for each read of the current row
+    protected Lock currentRowLock;
 
-    public AggSvcGroupByWTableBase(TableMetadata tableMetadata, TableColumnMethodPair[] methodPairs, AggregationAccessorSlotPair[] accessors, boolean join, TableStateInstanceGrouped tableStateInstance, int[] targetStates, ExprNode[] accessStateExpr, AggregationAgent[] agents) {
+    public AggSvcGroupByWTableBase(TableMetadata tableMetadata, TableColumnMethodPair[] methodPairs, AggregationAccessorSlotPair[] accessors, boolean join, TableStateInstanceGrouped tableStateInstance, int[] targetStates, ExprNode[] accessStateExpr, AggregationAgent[] agents, boolean rowLocking) {
         this.tableMetadata = tableMetadata;
         this.methodPairs = methodPairs;
         this.accessors = accessors;
@@ -54,6 +61,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
         this.targetStates = targetStates;
         this.accessStateExpr = accessStateExpr;
         this.agents = agents;
+        this.rowLocking = rowLocking;
     }
 
     public abstract void applyEnterInternal(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext);
@@ -61,19 +69,82 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     public abstract void applyLeaveInternal(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext);
 
     public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
-        // acquire table-level write lock
-        ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        // acquire table-level write lock, unless rows are locked by stripes
+        if (!rowLocking) {
+            ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        }
         applyEnterInternal(eventsPerStream, groupByKey, exprEvaluatorContext);
     }
 
     public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
-        // acquire table-level write lock
-        ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        // acquire table-level write lock, unless rows are locked by stripes
+        if (!rowLocking) {
+            ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        }
         applyLeaveInternal(eventsPerStream, groupByKey, exprEvaluatorContext);
     }
 
     protected void applyEnterGroupKey(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (rowLocking) {
+            applyGroupKeyRowLocked(true, eventsPerStream, groupByKey, exprEvaluatorContext);
+            return;
+        }
         ObjectArrayBackedEventBean bean = tableStateInstance.getCreateRowIntoTable(groupByKey, exprEvaluatorContext);
+        currentRowLock = null;
+        applyEnterRow(eventsPerStream, groupByKey, bean, exprEvaluatorContext);
+    }
+
+    protected void applyLeaveGroupKey(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (rowLocking) {
+            applyGroupKeyRowLocked(false, eventsPerStream, groupByKey, exprEvaluatorContext);
+            return;
+        }
+        ObjectArrayBackedEventBean bean = tableStateInstance.getCreateRowIntoTable(groupByKey, exprEvaluatorContext);
+        currentRowLock = null;
+        applyLeaveRow(eventsPerStream, groupByKey, bean, exprEvaluatorContext);
+    }
+
+    // Applies to a row while holding the table-level read lock and the row's stripe lock, for the duration of the row update only.
+    // A row that does not exist is created and receives its first update holding the table-level write lock, as creating
+    // changes the table's indexes and readers must not see the row before its first update.
+    private void applyGroupKeyRowLocked(boolean enter, EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        ReentrantReadWriteLock tableLock = tableStateInstance.getTableLevelRWLock();
+        tableLock.readLock().lock();
+        try {
+            ObjectArrayBackedEventBean bean = tableStateInstance.getRowForGroupKey(groupByKey);
+            if (bean != null) {
+                applyRowStripeLocked(enter, eventsPerStream, groupByKey, bean, exprEvaluatorContext);
+                return;
+            }
+        } finally {
+            tableLock.readLock().unlock();
+        }
+
+        tableLock.writeLock().lock();
+        try {
+            ObjectArrayBackedEventBean bean = tableStateInstance.getCreateRowIntoTable(groupByKey, exprEvaluatorContext);
+            applyRowStripeLocked(enter, eventsPerStream, groupByKey, bean, exprEvaluatorContext);
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+
+    private void applyRowStripeLocked(boolean enter, EventBean[] eventsPerStream, Object groupByKey, ObjectArrayBackedEventBean bean, ExprEvaluatorContext exprEvaluatorContext) {
+        Lock rowLock = tableStateInstance.getRowLockStripes().getLock(groupByKey);
+        currentRowLock = rowLock;
+        rowLock.lock();
+        try {
+            if (enter) {
+                applyEnterRow(eventsPerStream, groupByKey, bean, exprEvaluatorContext);
+            } else {
+                applyLeaveRow(eventsPerStream, groupByKey, bean, exprEvaluatorContext);
+            }
+        } finally {
+            rowLock.unlock();
+        }
+    }
+
+    private void applyEnterRow(EventBean[] eventsPerStream, Object groupByKey, ObjectArrayBackedEventBean bean, ExprEvaluatorContext exprEvaluatorContext) {
         AggregationRowPair row = (AggregationRowPair) bean.getProperties()[0];
 
         currentAggregatorMethods = row.getMethods();
@@ -113,8 +184,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
         }
     }
 
-    protected void applyLeaveGroupKey(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
-        ObjectArrayBackedEventBean bean = tableStateInstance.getCreateRowIntoTable(groupByKey, exprEvaluatorContext);
+    private void applyLeaveRow(EventBean[] eventsPerStream, Object groupByKey, ObjectArrayBackedEventBean bean, ExprEvaluatorContext exprEvaluatorContext) {
         AggregationRowPair row = (AggregationRowPair) bean.getProperties()[0];
 
         currentAggregatorMethods = row.getMethods();
@@ -154,8 +224,22 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
         }
     }
 
+    /**
+     * Sets the current row.
+     * <p>
+     * When rows are locked by stripes each read of the current row holds the row's stripe lock, so that a read does not see
+     * a partial update by another statement and does not iterate access state that another statement changes.
+     * The stripe lock is not held from the update until the read, as the statement may lock the table while
+     * reading, which could deadlock with a statement that holds the table-level lock and waits for the row.
+     * </p>
+     *
+     * @param groupByKey      group key
+     * @param agentInstanceId agent instance id
+     * @param rollupLevel     rollup level
+     */
     public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel) {
-        ObjectArrayBackedEventBean bean = tableStateInstance.getRowForGroupKey(groupByKey);
+        ObjectArrayBackedEventBean bean = getRowForGroupKey(groupByKey);
+        currentRowLock = rowLocking ? tableStateInstance.getRowLockStripes().getLock(groupByKey) : null;
 
         if (bean != null) {
             AggregationRowPair row = (AggregationRowPair) bean.getProperties()[0];
@@ -169,6 +253,60 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     }
 
     public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+        Lock rowLock = currentRowLock;
+        if (rowLock == null) {
+            return getValueInternal(column, eventsPerStream, isNewData, exprEvaluatorContext);
+        }
+        rowLock.lock();
+        try {
+            return getValueInternal(column, eventsPerStream, isNewData, exprEvaluatorContext);
+        } finally {
+            rowLock.unlock();
+        }
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        Lock rowLock = currentRowLock;
+        if (rowLock == null) {
+            return getCollectionOfEventsInternal(column, eventsPerStream, isNewData, context);
+        }
+        rowLock.lock();
+        try {
+            Collection<EventBean> events = getCollectionOfEventsInternal(column, eventsPerStream, isNewData, context);
+            return events == null ? null : new ArrayList<EventBean>(events);
+        } finally {
+            rowLock.unlock();
+        }
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        Lock rowLock = currentRowLock;
+        if (rowLock == null) {
+            return getCollectionScalarInternal(column, eventsPerStream, isNewData, context);
+        }
+        rowLock.lock();
+        try {
+            Collection<Object> values = getCollectionScalarInternal(column, eventsPerStream, isNewData, context);
+            return values == null ? null : new ArrayList<Object>(values);
+        } finally {
+            rowLock.unlock();
+        }
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        Lock rowLock = currentRowLock;
+        if (rowLock == null) {
+            return getEventBeanInternal(column, eventsPerStream, isNewData, context);
+        }
+        rowLock.lock();
+        try {
+            return getEventBeanInternal(column, eventsPerStream, isNewData, context);
+        } finally {
+            rowLock.unlock();
+        }
+    }
+
+    private Object getValueInternal(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
         if (column < currentAggregatorMethods.length) {
             return currentAggregatorMethods[column].getValue();
         } else {
@@ -177,7 +315,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
         }
     }
 
-    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+    private Collection<EventBean> getCollectionOfEventsInternal(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
         if (column < currentAggregatorMethods.length) {
             return null;
         } else {
@@ -186,7 +324,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
         }
     }
 
-    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+    private Collection<Object> getCollectionScalarInternal(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
         if (column < currentAggregatorMethods.length) {
             return null;
         } else {
@@ -195,7 +333,7 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
         }
     }
 
-    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+    private EventBean getEventBeanInternal(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
         if (column < currentAggregatorMethods.length) {
             return null;
         } else {
@@ -225,13 +363,43 @@ public abstract class AggSvcGroupByWTableBase implements AggregationService {
     }
 
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
-        return tableStateInstance.getGroupKeys();
+        if (tableStateInstance.getRowLockStripes() == null) {
+            return tableStateInstance.getGroupKeys();
+        }
+        tableStateInstance.getTableLevelRWLock().readLock().lock();
+        try {
+            return new ArrayList<Object>(tableStateInstance.getGroupKeys());
+        } finally {
+            tableStateInstance.getTableLevelRWLock().readLock().unlock();
+        }
     }
 
     public void clearResults(ExprEvaluatorContext exprEvaluatorContext) {
+        if (rowLocking) {
+            ExprTableEvalLockUtil.obtainLockUnless(tableStateInstance.getTableLevelRWLock().writeLock(), exprEvaluatorContext);
+        }
         tableStateInstance.clear();
     }
 
+    /**
+     * Returns the row for the group key, obtaining the table-level read lock for the lookup when rows are locked by stripes
+     * and the statement therefore does not hold a table-level lock.
+     *
+     * @param groupByKey group key
+     * @return row or null if not found
+     */
+    protected ObjectArrayBackedEventBean getRowForGroupKey(Object groupByKey) {
+        if (tableStateInstance.getRowLockStripes() == null) {
+            return tableStateInstance.getRowForGroupKey(groupByKey);
+        }
+        tableStateInstance.getTableLevelRWLock().readLock().lock();
+        try {
+            return tableStateInstance.getRowForGroupKey(groupByKey);
+        } finally {
+            tableStateInstance.getTableLevelRWLock().readLock().unlock();
+        }
+    }
+
     public void stop() {
     }
 
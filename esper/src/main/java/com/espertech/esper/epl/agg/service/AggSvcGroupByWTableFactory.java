@@ -11,6 +11,8 @@
 package com.espertech.esper.epl.agg.service;
 
 import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.core.service.StatementLifecycleSvcUtil;
 import com.espertech.esper.epl.agg.access.AggregationAccessorSlotPair;
 import com.espertech.esper.epl.agg.access.AggregationAgent;
 import com.espertech.esper.epl.core.EngineImportService;
@@ -44,17 +46,24 @@ public class AggSvcGroupByWTableFactory implements AggregationServiceFactory {
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
-        TableStateInstanceGrouped tableState = (TableStateInstanceGrouped) agentInstanceContext.getStatementContext().getTableService().getState(tableMetadata.getTableName(), agentInstanceContext.getAgentInstanceId());
+        StatementContext statementContext = agentInstanceContext.getStatementContext();
+        TableStateInstanceGrouped tableState = (TableStateInstanceGrouped) statementContext.getTableService().getState(tableMetadata.getTableName(), agentInstanceContext.getAgentInstanceId());
+
+        // a statement that also reads the table holds the table-level write lock while reading,
+        // which cannot be obtained while holding the read lock for a row update, therefore such statements lock the table
+        boolean rowLocking = tableState.getRowLockStripes() != null &&
+                (statementContext.getStatementSpecCompiled() == null || !StatementLifecycleSvcUtil.isReadsTable(statementContext.getStatementSpecCompiled(), tableMetadata.getTableName()));
+
         if (groupByRollupDesc == null) {
             return new AggSvcGroupByWTableImpl(tableMetadata, methodPairs, accessors, isJoin,
-                    tableState, targetStates, accessStateExpr, agents);
+                    tableState, targetStates, accessStateExpr, agents, rowLocking);
         }
         if (tableMetadata.getKeyTypes().length > 1) {
             return new AggSvcGroupByWTableRollupMultiKeyImpl(tableMetadata, methodPairs, accessors, isJoin,
-                    tableState, targetStates, accessStateExpr, agents, groupByRollupDesc);
+                    tableState, targetStates, accessStateExpr, agents, rowLocking, groupByRollupDesc);
         } else {
             return new AggSvcGroupByWTableRollupSingleKeyImpl(tableMetadata, methodPairs, accessors, isJoin,
-                    tableState, targetStates, accessStateExpr, agents);
+                    tableState, targetStates, accessStateExpr, agents, rowLocking);
         }
     }
 }
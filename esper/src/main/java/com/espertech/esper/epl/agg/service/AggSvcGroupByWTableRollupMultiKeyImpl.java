@@ -27,8 +27,8 @@ import com.espertech.esper.event.ObjectArrayBackedEventBean;
 public class AggSvcGroupByWTableRollupMultiKeyImpl extends AggSvcGroupByWTableBase {
     private final AggregationGroupByRollupDesc groupByRollupDesc;
 
-    public AggSvcGroupByWTableRollupMultiKeyImpl(TableMetadata tableMetadata, TableColumnMethodPair[] methodPairs, AggregationAccessorSlotPair[] accessors, boolean join, TableStateInstanceGrouped tableStateInstance, int[] targetStates, ExprNode[] accessStateExpr, AggregationAgent[] agents, AggregationGroupByRollupDesc groupByRollupDesc) {
-        super(tableMetadata, methodPairs, accessors, join, tableStateInstance, targetStates, accessStateExpr, agents);
+    public AggSvcGroupByWTableRollupMultiKeyImpl(TableMetadata tableMetadata, TableColumnMethodPair[] methodPairs, AggregationAccessorSlotPair[] accessors, boolean join, TableStateInstanceGrouped tableStateInstance, int[] targetStates, ExprNode[] accessStateExpr, AggregationAgent[] agents, boolean rowLocking, AggregationGroupByRollupDesc groupByRollupDesc) {
+        super(tableMetadata, methodPairs, accessors, join, tableStateInstance, targetStates, accessStateExpr, agents, rowLocking);
         this.groupByRollupDesc = groupByRollupDesc;
     }
 
@@ -53,7 +53,7 @@ public class AggSvcGroupByWTableRollupMultiKeyImpl extends AggSvcGroupByWTableBa
     @Override
     public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel) {
         MultiKeyUntyped key = rollupLevel.computeMultiKey(groupByKey, tableMetadata.getKeyTypes().length);
-        ObjectArrayBackedEventBean bean = tableStateInstance.getRowForGroupKey(key);
+        ObjectArrayBackedEventBean bean = getRowForGroupKey(key);
 
         if (bean != null) {
             AggregationRowPair row = (AggregationRowPair) bean.getProperties()[0];
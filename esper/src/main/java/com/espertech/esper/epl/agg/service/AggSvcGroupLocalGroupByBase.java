@@ -11,7 +11,7 @@
 package com.espertech.esper.epl.agg.service;
 
 import com.espertech.esper.client.EventBean;
-import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyObject;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.epl.agg.access.AggregationState;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
@@ -222,7 +222,7 @@ public abstract class AggSvcGroupLocalGroupByBase implements AggregationService
         for (int i = 0; i < keys.length; i++) {
             keys[i] = partitionEval[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
         }
-        return new MultiKeyUntyped(keys);
+        return MultiKeyObject.make(keys);
     }
 
     public static void aggregateIntoEnter(AggregationLocalGroupByLevel level, AggregationMethod[] methods, AggregationState[] states, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
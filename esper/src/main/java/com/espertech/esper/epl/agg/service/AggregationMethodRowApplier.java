@@ -0,0 +1,39 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+/**
+ * Enters and leaves the values of all method aggregation functions into a row of aggregators,
+ * in place of one evaluator per aggregation function.
+ */
+public interface AggregationMethodRowApplier {
+    /**
+     * Evaluate the aggregation function parameters for new data and enter the values into the aggregators.
+     *
+     * @param row                  aggregators of the group, in column order
+     * @param eventsPerStream      event tuple
+     * @param exprEvaluatorContext context for expression evaluation
+     */
+    public void applyEnter(AggregationMethod[] row, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext);
+
+    /**
+     * Evaluate the aggregation function parameters for old data and leave the values from the aggregators.
+     *
+     * @param row                  aggregators of the group, in column order
+     * @param eventsPerStream      event tuple
+     * @param exprEvaluatorContext context for expression evaluation
+     */
+    public void applyLeave(AggregationMethod[] row, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext);
+}
@@ -41,4 +41,12 @@ public abstract class AggregationServiceFactoryBase implements AggregationServic
             throw new IllegalArgumentException("Expected the same number of evaluates as computer prototypes");
         }
     }
+
+    public ExprEvaluator[] getEvaluators() {
+        return evaluators;
+    }
+
+    public AggregationMethodFactory[] getAggregators() {
+        return aggregators;
+    }
 }
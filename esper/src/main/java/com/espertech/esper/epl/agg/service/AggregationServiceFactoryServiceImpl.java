@@ -43,7 +43,7 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
     }
 
     public AggregationServiceFactory getGroupedNoReclaimNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupByNoAccessFactory(evaluatorsArr, aggregatorsArr);
+        return new AggSvcGroupByNoAccessFactory(evaluatorsArr, aggregatorsArr, null);
     }
 
     public AggregationServiceFactory getGroupNoReclaimAccessOnly(ExprNode[] groupByNodes, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggSpecs, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
@@ -59,7 +59,7 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
     }
 
     public AggregationServiceFactory getGroupReclaimNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
-        return new AggSvcGroupByRefcountedNoAccessFactory(evaluatorsArr, aggregatorsArr);
+        return new AggSvcGroupByRefcountedNoAccessFactory(evaluatorsArr, aggregatorsArr, null);
     }
 
     public AggregationServiceFactory getGroupReclaimMixable(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
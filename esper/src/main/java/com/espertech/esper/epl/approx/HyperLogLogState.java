@@ -0,0 +1,245 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * HyperLogLog is a probabilistic sub-linear space streaming algorithm estimating the number of distinct values
+ * (source: Wikipedia, see https://en.wikipedia.org/wiki/HyperLogLog)
+ * </p>
+ * <p>
+ * Values are hashed to 64 bits. The state keeps 2^precision registers, for a relative standard error of
+ * 1.04 / sqrt(2^precision). Following HyperLogLog++ the registers are first kept in a sparse sorted array of
+ * (register, value) pairs and converted to a dense array of registers when the sparse array would use more memory,
+ * so that states of groups with few distinct values stay small. Small cardinalities use linear counting.
+ * </p>
+ * <p>
+ * States of the same precision are mergeable: the merged state estimates the number of distinct values of the union.
+ * Values cannot be removed.
+ * </p>
+ * <p>
+ * Paper:
+ * Stefan Heule, Marc Nunkesser and Alexander Hall. HyperLogLog in Practice: Algorithmic Engineering of a State
+ * of The Art Cardinality Estimation Algorithm. 2013. 10.1145/2452376.2452456
+ * </p>
+ */
+public class HyperLogLogState {
+    /**
+     * Lowest precision.
+     */
+    public final static int PRECISION_MIN = 4;
+
+    /**
+     * Highest precision.
+     */
+    public final static int PRECISION_MAX = 16;
+
+    /**
+     * Default precision, using 4096 registers for a relative standard error of about 1.6%.
+     */
+    public final static int PRECISION_DEFAULT = 12;
+
+    private final int precision;
+    private int[] sparse;
+    private int sparseSize;
+    private byte[] registers;
+
+    /**
+     * Ctor.
+     *
+     * @param precision number of bits of the hash that select the register
+     */
+    public HyperLogLogState(int precision) {
+        if (precision < PRECISION_MIN || precision > PRECISION_MAX) {
+            throw new IllegalArgumentException("Precision must be between " + PRECISION_MIN + " and " + PRECISION_MAX + " but received " + precision);
+        }
+        this.precision = precision;
+        this.sparse = new int[4];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value to add, ignored when null
+     */
+    public void add(Object value) {
+        if (value == null) {
+            return;
+        }
+        addHash(hash(value));
+    }
+
+    /**
+     * Add a 64-bit hash value.
+     *
+     * @param hash to add
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        long rest = (hash << precision) | (1L << (precision - 1));
+        int rank = Long.numberOfLeadingZeros(rest) + 1;
+        update(index, rank);
+    }
+
+    /**
+     * Merge another state into this state.
+     *
+     * @param other to merge
+     * @throws IllegalArgumentException if the precision differs
+     */
+    public void merge(HyperLogLogState other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge states of precision " + precision + " and " + other.precision);
+        }
+        if (other.registers != null) {
+            for (int i = 0; i < other.registers.length; i++) {
+                if (other.registers[i] != 0) {
+                    update(i, other.registers[i]);
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                update(other.sparse[i] >>> 8, other.sparse[i] & 0xFF);
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct values.
+     *
+     * @return estimate
+     */
+    public long estimate() {
+        int m = 1 << precision;
+        double sum = 0;
+        int zeros = 0;
+        if (registers != null) {
+            for (byte register : registers) {
+                sum += 1d / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = m - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1d / (1L << (sparse[i] & 0xFF));
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Clear the state.
+     */
+    public void clear() {
+        registers = null;
+        sparse = new int[4];
+        sparseSize = 0;
+    }
+
+    private void update(int index, int rank) {
+        if (registers != null) {
+            if (registers[index] < rank) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+
+        // sparse entries are sorted by register and hold the register index in the upper bits and the rank in the lowest 8 bits
+        int pos = Arrays.binarySearch(sparse, 0, sparseSize, index << 8);
+        int insertAt = pos >= 0 ? pos : -(pos + 1);
+        if (insertAt < sparseSize && (sparse[insertAt] >>> 8) == index) {
+            if ((sparse[insertAt] & 0xFF) < rank) {
+                sparse[insertAt] = (index << 8) | rank;
+            }
+            return;
+        }
+
+        // convert to dense when the sparse array would take more memory than the registers
+        if (sparseSize + 1 > (1 << precision) / 4) {
+            registers = new byte[1 << precision];
+            for (int i = 0; i < sparseSize; i++) {
+                registers[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+            }
+            sparse = null;
+            sparseSize = 0;
+            registers[index] = (byte) rank;
+            return;
+        }
+
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        }
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = (index << 8) | rank;
+        sparseSize++;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * Returns a 64-bit hash for a value. Integral numbers of different types hash the same for the same value.
+     *
+     * @param value to hash
+     * @return hash
+     */
+    public static long hash(Object value) {
+        long bits;
+        if (value instanceof String) {
+            String text = (String) value;
+            bits = 0xcbf29ce484222325L;
+            for (int i = 0; i < text.length(); i++) {
+                bits = (bits ^ text.charAt(i)) * 0x100000001b3L;
+            }
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            bits = ((Number) value).longValue();
+        } else if (value instanceof Double || value instanceof Float) {
+            bits = Double.doubleToLongBits(((Number) value).doubleValue());
+        } else {
+            bits = value.hashCode();
+        }
+        return mix(bits);
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * T-digest is a probabilistic sub-linear space streaming algorithm estimating quantiles
+ * (source: https://github.com/tdunning/t-digest)
+ * </p>
+ * <p>
+ * The digest keeps a sorted array of centroids, each a mean and a weight. Added values are buffered and merged
+ * into the centroids when the buffer is full. Centroids near the tails are kept small so that extreme quantiles
+ * are accurate. The number of centroids is bounded by about the compression.
+ * </p>
+ * <p>
+ * Digests are mergeable: merging adds the centroids of another digest. Values cannot be removed.
+ * </p>
+ * <p>
+ * Paper:
+ * Ted Dunning and Otmar Ertl. Computing Extremely Accurate Quantiles Using t-Digests. 2019. arXiv:1902.04023
+ * </p>
+ */
+public class TDigestState {
+    /**
+     * Default compression.
+     */
+    public final static double COMPRESSION_DEFAULT = 100;
+
+    private final double compression;
+    private final int bufferCapacity;
+
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private int numCentroids;
+
+    private double[] bufferMeans = new double[4];
+    private double[] bufferWeights = new double[4];
+    private int numBuffered;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Ctor.
+     *
+     * @param compression bounds the number of centroids, higher values give more accuracy at the cost of memory
+     */
+    public TDigestState(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression must be at least 10 but received " + compression);
+        }
+        this.compression = compression;
+        this.bufferCapacity = (int) compression;
+    }
+
+    public double getCompression() {
+        return compression;
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return count
+     */
+    public long size() {
+        return Math.round(totalWeight);
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value to add, NaN values are ignored
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Merge another digest into this digest.
+     *
+     * @param other to merge
+     */
+    public void merge(TDigestState other) {
+        other.compress();
+        for (int i = 0; i < other.numCentroids; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        if (other.totalWeight > 0) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    /**
+     * Returns the estimated quantile.
+     *
+     * @param q quantile between zero and one
+     * @return estimated value at quantile or null if empty
+     */
+    public Double quantile(double q) {
+        compress();
+        if (numCentroids == 0) {
+            return null;
+        }
+        if (numCentroids == 1) {
+            return means[0];
+        }
+
+        // interpolate between the centers of adjacent centroids, and between the extremes and the first and last centroid
+        double index = q * totalWeight;
+        if (index <= weights[0] / 2) {
+            return min + (means[0] - min) * (index / (weights[0] / 2));
+        }
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < numCentroids - 1; i++) {
+            double delta = (weights[i] + weights[i + 1]) / 2;
+            if (index <= cumulative + delta) {
+                double fraction = (index - cumulative) / delta;
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            cumulative += delta;
+        }
+        double lastHalf = weights[numCentroids - 1] / 2;
+        double fraction = Math.min(1, (index - cumulative) / lastHalf);
+        return means[numCentroids - 1] + (max - means[numCentroids - 1]) * fraction;
+    }
+
+    /**
+     * Clear the digest.
+     */
+    public void clear() {
+        means = new double[0];
+        weights = new double[0];
+        numCentroids = 0;
+        bufferMeans = new double[4];
+        bufferWeights = new double[4];
+        numBuffered = 0;
+        totalWeight = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    private void add(double value, double weight) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (numBuffered == bufferMeans.length) {
+            if (numBuffered >= bufferCapacity) {
+                compress();
+            } else {
+                int capacity = Math.min(bufferCapacity, numBuffered * 2);
+                bufferMeans = Arrays.copyOf(bufferMeans, capacity);
+                bufferWeights = Arrays.copyOf(bufferWeights, capacity);
+            }
+        }
+        bufferMeans[numBuffered] = value;
+        bufferWeights[numBuffered] = weight;
+        numBuffered++;
+        totalWeight += weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    private void compress() {
+        if (numBuffered == 0) {
+            return;
+        }
+
+        // sort the buffered values by mean and merge with the already-sorted centroids
+        sort(bufferMeans, bufferWeights, 0, numBuffered - 1);
+        int count = numCentroids + numBuffered;
+        double[] allMeans = new double[count];
+        double[] allWeights = new double[count];
+        int c = 0;
+        int b = 0;
+        for (int i = 0; i < count; i++) {
+            if (b == numBuffered || (c < numCentroids && means[c] <= bufferMeans[b])) {
+                allMeans[i] = means[c];
+                allWeights[i] = weights[c++];
+            } else {
+                allMeans[i] = bufferMeans[b];
+                allWeights[i] = bufferWeights[b++];
+            }
+        }
+        numBuffered = 0;
+
+        // merge neighbours while the centroid spans no more than one unit of the scale function k(q) = compression / (2 * pi) * asin(2q - 1)
+        double[] newMeans = new double[Math.min(count, (int) (2 * compression) + 1)];
+        double[] newWeights = new double[newMeans.length];
+        int current = 0;
+        newMeans[0] = allMeans[0];
+        newWeights[0] = allWeights[0];
+        double weightBefore = 0;
+        double kLeft = scale(0);
+        for (int i = 1; i < count; i++) {
+            double proposed = newWeights[current] + allWeights[i];
+            double kRight = scale((weightBefore + proposed) / totalWeight);
+            if (kRight - kLeft <= 1 || current == newMeans.length - 1) {
+                newMeans[current] += (allMeans[i] - newMeans[current]) * allWeights[i] / proposed;
+                newWeights[current] = proposed;
+            } else {
+                weightBefore += newWeights[current];
+                kLeft = scale(weightBefore / totalWeight);
+                current++;
+                newMeans[current] = allMeans[i];
+                newWeights[current] = allWeights[i];
+            }
+        }
+        numCentroids = current + 1;
+        means = newMeans.length == numCentroids ? newMeans : Arrays.copyOf(newMeans, numCentroids);
+        weights = newWeights.length == numCentroids ? newWeights : Arrays.copyOf(newWeights, numCentroids);
+    }
+
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(Math.max(-1, Math.min(1, 2 * q - 1)));
+    }
+
+    private static void sort(double[] keys, double[] values, int low, int high) {
+        while (low < high) {
+            double pivot = keys[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    double key = keys[i];
+                    keys[i] = keys[j];
+                    keys[j] = key;
+                    double value = values[i];
+                    values[i] = values[j];
+                    values[j] = value;
+                    i++;
+                    j--;
+                }
+            }
+            // recurse into the smaller part
+            if (j - low < high - i) {
+                sort(keys, values, low, j);
+                low = i;
+            } else {
+                sort(keys, values, i, high);
+                high = j;
+            }
+        }
+    }
+}
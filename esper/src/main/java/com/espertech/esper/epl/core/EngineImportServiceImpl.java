@@ -461,6 +461,21 @@ public class EngineImportServiceImpl implements EngineImportService, ClassLoader
         if (nameLowerCase.equals("nth")) {
             return new ExprNthAggNode(isDistinct);
         }
+        if (nameLowerCase.equals("percentile")) {
+            return new ExprPercentileNode(isDistinct, false, false);
+        }
+        if (nameLowerCase.equals("percentiles")) {
+            return new ExprPercentileNode(isDistinct, true, false);
+        }
+        if (nameLowerCase.equals("approxpercentile")) {
+            return new ExprPercentileNode(isDistinct, false, true);
+        }
+        if (nameLowerCase.equals("approxpercentiles")) {
+            return new ExprPercentileNode(isDistinct, true, true);
+        }
+        if (nameLowerCase.equals("approxcountdistinct")) {
+            return new ExprApproxCountDistinctNode(isDistinct);
+        }
         if (nameLowerCase.equals("leaving")) {
             return new ExprLeavingAggNode(isDistinct);
         }
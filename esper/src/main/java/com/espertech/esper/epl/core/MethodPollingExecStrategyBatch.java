@@ -0,0 +1,139 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.core;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.db.PollExecStrategyBatch;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Polling strategy for a method taking a single parameter, that polls multiple keys by invoking a batch method,
+ * named like the method with the "Batch" suffix, that takes an array of keys and returns a map of key to result.
+ */
+public class MethodPollingExecStrategyBatch implements PollExecStrategyBatch {
+    private final MethodPollingExecStrategyBase single;
+    private final Method batchMethod;
+    private final Class keyType;
+    private final int pollBatchSize;
+
+    /**
+     * Ctor.
+     *
+     * @param single        strategy for invoking the method for a single key, also provides result conversion
+     * @param batchMethod   batch method
+     * @param pollBatchSize maximum number of keys
+     */
+    public MethodPollingExecStrategyBatch(MethodPollingExecStrategyBase single, Method batchMethod, int pollBatchSize) {
+        this.single = single;
+        this.batchMethod = batchMethod;
+        this.keyType = batchMethod.getParameterTypes()[0].getComponentType();
+        this.pollBatchSize = pollBatchSize;
+    }
+
+    /**
+     * Suffix of the name of the batch method.
+     */
+    public static final String BATCH_METHOD_SUFFIX = "Batch";
+
+    /**
+     * Returns the batch method for the method, if any: a public method of the same class and static-ness
+     * named like the method with the "Batch" suffix, that takes an array of the parameter type and returns a map.
+     *
+     * @param method single-key method
+     * @return batch method or null if none found
+     */
+    public static Method findBatchMethod(Method method) {
+        if (method.getParameterTypes().length != 1) {
+            return null;
+        }
+        Class paramType = JavaClassHelper.getBoxedType(method.getParameterTypes()[0]);
+        for (Method candidate : method.getDeclaringClass().getMethods()) {
+            if (!candidate.getName().equals(method.getName() + BATCH_METHOD_SUFFIX) ||
+                    candidate.getParameterTypes().length != 1 ||
+                    !candidate.getParameterTypes()[0].isArray() ||
+                    Modifier.isStatic(candidate.getModifiers()) != Modifier.isStatic(method.getModifiers()) ||
+                    !Map.class.isAssignableFrom(candidate.getReturnType())) {
+                continue;
+            }
+            Class componentType = JavaClassHelper.getBoxedType(candidate.getParameterTypes()[0].getComponentType());
+            if (componentType == paramType) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    public int getPollBatchSize() {
+        return pollBatchSize;
+    }
+
+    public void start() {
+        single.start();
+    }
+
+    public List<EventBean> poll(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        return single.poll(lookupValues, exprEvaluatorContext);
+    }
+
+    public List<EventBean>[] pollBatch(List<Object[]> lookupValuesPerKey, ExprEvaluatorContext exprEvaluatorContext) {
+        List<EventBean>[] results = (List<EventBean>[]) new List[lookupValuesPerKey.size()];
+
+        // null keys cannot be passed in an array of primitives and are polled separately
+        Object keys = Array.newInstance(keyType, lookupValuesPerKey.size());
+        for (int i = 0; i < lookupValuesPerKey.size(); i++) {
+            Object key = lookupValuesPerKey.get(i)[0];
+            if (key == null && keyType.isPrimitive()) {
+                results[i] = single.poll(lookupValuesPerKey.get(i), exprEvaluatorContext);
+            } else {
+                Array.set(keys, i, key);
+            }
+        }
+
+        Map<?, ?> invocationResult;
+        try {
+            invocationResult = (Map<?, ?>) batchMethod.invoke(single.invocationTarget, keys);
+        } catch (InvocationTargetException ex) {
+            throw new EPException("Method '" + batchMethod.getName() + "' of class '" + batchMethod.getDeclaringClass().getName() +
+                    "' reported an exception: " + ex.getTargetException(), ex.getTargetException());
+        } catch (IllegalAccessException ex) {
+            throw new EPException("Failed to invoke method '" + batchMethod.getName() + "' of class '" + batchMethod.getDeclaringClass().getName() + "': " + ex.getMessage(), ex);
+        }
+
+        for (int i = 0; i < lookupValuesPerKey.size(); i++) {
+            Object key = lookupValuesPerKey.get(i)[0];
+            if (key == null && keyType.isPrimitive()) {
+                continue;
+            }
+            Object value = invocationResult == null ? null : invocationResult.get(key);
+            if (value != null) {
+                results[i] = single.handleResult(value);
+            }
+        }
+        return results;
+    }
+
+    public void done() {
+        single.done();
+    }
+
+    public void destroy() {
+        single.destroy();
+    }
+}
@@ -19,6 +19,8 @@ import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.epl.db.DataCache;
 import com.espertech.esper.epl.db.PollExecStrategy;
+import com.espertech.esper.epl.db.PollExecStrategyBatch;
+import com.espertech.esper.epl.db.PollExecStrategyBatchCollector;
 import com.espertech.esper.epl.expression.core.*;
 import com.espertech.esper.epl.expression.visitor.ExprNodeIdentifierVisitor;
 import com.espertech.esper.epl.join.pollindex.PollResultIndexingStrategy;
@@ -37,6 +39,7 @@ import com.espertech.esper.view.View;
 import com.espertech.esper.view.ViewSupport;
 import net.sf.cglib.reflect.FastMethod;
 
+import java.lang.reflect.Method;
 import java.util.*;
 
 /**
@@ -179,6 +182,14 @@ public class MethodPollingViewable implements HistoricalEventViewable {
                     pollExecStrategy = new MethodPollingExecStrategyPOJOPlain(eventAdapterService, methodFastClass, eventType, invocationTarget, strategy, variableReader, variableName, variableService);
                 }
             }
+
+            // use the batch method, if batching is configured and the class provides a batch method
+            if (metadata.getPollBatchSize() > 1 && strategy == MethodPollingExecStrategyEnum.TARGET_CONST) {
+                Method batchMethod = MethodPollingExecStrategyBatch.findBatchMethod(methodFastClass.getJavaMethod());
+                if (batchMethod != null) {
+                    pollExecStrategy = new MethodPollingExecStrategyBatch((MethodPollingExecStrategyBase) pollExecStrategy, batchMethod, metadata.getPollBatchSize());
+                }
+            }
         } else {
             // script-based evaluation
             pollExecStrategy = new MethodPollingExecStrategyScript(metadata.getScriptExpression());
@@ -189,6 +200,7 @@ public class MethodPollingViewable implements HistoricalEventViewable {
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext) {
         DataCache localDataCache = dataCacheThreadLocal.get();
         boolean strategyStarted = false;
+        PollExecStrategyBatchCollector batchCollector = null;
 
         EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
 
@@ -220,6 +232,12 @@ public class MethodPollingViewable implements HistoricalEventViewable {
             if (result != null) {
                 // found in cache
                 resultPerInputRow[row] = result;
+            } else if (pollExecStrategy instanceof PollExecStrategyBatch) {
+                // not found in cache, collect the distinct keys for polling in batches
+                if (batchCollector == null) {
+                    batchCollector = new PollExecStrategyBatchCollector(methodStreamSpec.getExpressions().size());
+                }
+                batchCollector.add(methodParams, row);
             } else {
                 // not found in cache, get from actual polling (db query)
                 try {
@@ -256,6 +274,10 @@ public class MethodPollingViewable implements HistoricalEventViewable {
             pollExecStrategy.done();
         }
 
+        if (batchCollector != null) {
+            batchCollector.poll((PollExecStrategyBatch) pollExecStrategy, resultPerInputRow, indexingStrategy, dataCache, localDataCache, statementContext, exprEvaluatorContext);
+        }
+
         return resultPerInputRow;
     }
 
@@ -30,8 +30,9 @@ public class MethodPollingViewableMeta {
     private final String variableName;
     private final EventType eventTypeEventBeanArray;
     private final ExprNodeScript scriptExpression;
+    private final int pollBatchSize;
 
-    public MethodPollingViewableMeta(Class methodProviderClass, boolean isStaticMethod, Map<String, Object> optionalMapType, LinkedHashMap<String, Object> optionalOaType, Object invocationTarget, MethodPollingExecStrategyEnum strategy, boolean isCollection, boolean isIterator, VariableReader variableReader, String variableName, EventType eventTypeEventBeanArray, ExprNodeScript scriptExpression) {
+    public MethodPollingViewableMeta(Class methodProviderClass, boolean isStaticMethod, Map<String, Object> optionalMapType, LinkedHashMap<String, Object> optionalOaType, Object invocationTarget, MethodPollingExecStrategyEnum strategy, boolean isCollection, boolean isIterator, VariableReader variableReader, String variableName, EventType eventTypeEventBeanArray, ExprNodeScript scriptExpression, int pollBatchSize) {
         this.methodProviderClass = methodProviderClass;
         this.isStaticMethod = isStaticMethod;
         this.optionalMapType = optionalMapType;
@@ -44,6 +45,7 @@ public class MethodPollingViewableMeta {
         this.variableName = variableName;
         this.eventTypeEventBeanArray = eventTypeEventBeanArray;
         this.scriptExpression = scriptExpression;
+        this.pollBatchSize = pollBatchSize;
     }
 
     public Map<String, Object> getOptionalMapType() {
@@ -93,4 +95,8 @@ public class MethodPollingViewableMeta {
     public boolean isStaticMethod() {
         return isStaticMethod;
     }
+
+    public int getPollBatchSize() {
+        return pollBatchSize;
+    }
 }
@@ -43,6 +43,7 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
     public ResultSetProcessorAggregateGroupedFactory(SelectExprProcessor selectExprProcessor,
                                                      ExprNode[] groupKeyNodeExpressions,
                                                      ExprEvaluator[] groupKeyNodes,
+                                                     ExprEvaluator optionalGroupKeyMultiEval,
                                                      ExprEvaluator optionalHavingNode,
                                                      boolean isSelectRStream,
                                                      boolean isUnidirectional,
@@ -55,7 +56,9 @@ public class ResultSetProcessorAggregateGroupedFactory implements ResultSetProce
                                                      int numStreams) {
         this.selectExprProcessor = selectExprProcessor;
         this.groupKeyNodeExpressions = groupKeyNodeExpressions;
-        if (groupKeyNodes.length == 1) {
+        if (optionalGroupKeyMultiEval != null) {
+            groupKeyNode = optionalGroupKeyMultiEval;
+        } else if (groupKeyNodes.length == 1) {
             groupKeyNode = groupKeyNodes[0];
         } else {
             groupKeyNode = null;
@@ -16,6 +16,7 @@ import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.annotation.HookType;
 import com.espertech.esper.client.annotation.IterableUnbound;
+import com.espertech.esper.collection.MultiKeyPrimitiveFactory;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.ContextPropertyRegistry;
 import com.espertech.esper.core.service.ExprEvaluatorContextStatement;
@@ -286,6 +287,9 @@ public class ResultSetProcessorFactoryFactory {
         ExprNode[] groupByNodesValidated = groupByRollupInfo == null ? new ExprNode[0] : groupByRollupInfo.getExprNodes();
         ExprEvaluator[] groupByNodeEvals = ExprNodeUtility.getEvaluatorsMayCompile(groupByNodesValidated, stmtContext.getEngineImportService(), ResultSetProcessorFactoryFactory.class, isFireAndForget, stmtContext.getStatementName());
         AggregationGroupByRollupDesc groupByRollupDesc = groupByRollupInfo == null ? null : groupByRollupInfo.getRollupDesc();
+        boolean groupByKeyTyped = groupByRollupDesc == null && statementSpec.getIntoTableSpec() == null;
+        MultiKeyPrimitiveFactory groupByKeyFactory = groupByKeyTyped ? ExprNodeUtilMultiKeyPrimitiveEvaluator.getFactory(groupByNodesValidated) : null;
+        ExprEvaluator groupByMultiKeyEval = groupByKeyTyped ? ExprNodeUtilMultiKeyObjectEvaluator.getEvaluator(groupByNodesValidated, groupByNodeEvals) : null;
 
         // Construct the appropriate aggregation service
         boolean hasGroupBy = groupByNodesValidated.length > 0;
@@ -312,6 +316,16 @@ public class ResultSetProcessorFactoryFactory {
         SelectExprProcessor selectExprProcessor = SelectExprProcessorFactory.getProcessor(Collections.<Integer>emptyList(), selectClauseSpec.getSelectExprList(), isUsingWildcard, insertIntoDesc, null, statementSpec.getForClauseSpec(), typeService, stmtContext.getEventAdapterService(), stmtContext.getStatementResultService(), stmtContext.getValueAddEventService(), selectExprEventTypeRegistry, stmtContext.getEngineImportService(), evaluatorContextStmt,
                 stmtContext.getVariableService(), stmtContext.getTableService(), stmtContext.getTimeProvider(), stmtContext.getEngineURI(), stmtContext.getStatementId(), stmtContext.getStatementName(), stmtContext.getAnnotations(), stmtContext.getContextDescriptor(), stmtContext.getConfigSnapshot(), selectExprProcessorCallback, stmtContext.getNamedWindowMgmtService(), statementSpec.getIntoTableSpec(), groupByRollupInfo, stmtContext.getStatementExtensionServicesContext());
 
+        // Generate the group key, aggregation function calls and select clause of a grouped statement, when enabled
+        if (hasGroupBy && groupByRollupDesc == null) {
+            ResultSetProcessorGroupedCompiled compiled = ResultSetProcessorGroupedCompiler.allocate(ExprNodeUtility.getForges(groupByNodesValidated), groupByKeyFactory, aggregationServiceFactory, selectExprProcessor, stmtContext.getEngineImportService(), isFireAndForget, stmtContext.getStatementName());
+            if (compiled != null) {
+                groupByMultiKeyEval = compiled;
+                aggregationServiceFactory = ResultSetProcessorGroupedCompiler.getAggregationServiceFactory(aggregationServiceFactory, compiled);
+                selectExprProcessor = ResultSetProcessorGroupedCompiler.getSelectExprProcessor(selectExprProcessor, compiled);
+            }
+        }
+
         // Get a list of event properties being aggregated in the select clause, if any
         ExprNodePropOrStreamSet propertiesGroupBy = ExprNodeUtility.getGroupByPropertiesValidateHasOne(groupByNodesValidated);
         // Figure out all non-aggregated event properties in the select clause (props not under a sum/avg/max aggregation node)
@@ -447,7 +461,7 @@ public class ResultSetProcessorFactoryFactory {
                 GroupByRollupPerLevelExpression perLevelExpression = getRollUpPerLevelExpressions(statementSpec, groupByNodesValidated, groupByRollupDesc, stmtContext, selectExprEventTypeRegistry, evaluatorContextStmt, insertIntoDesc, typeService, validationContext, groupByRollupInfo);
                 factory = new ResultSetProcessorRowPerGroupRollupFactory(perLevelExpression, groupByNodesValidated, groupByNodeEvals, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, noDataWindowSingleStream, groupByRollupDesc, typeService.getEventTypes().length > 1, isHistoricalOnly, iterateUnbounded, optionalOutputFirstConditionFactory, resultSetProcessorHelperFactory, hasOutputLimitOptHint, numStreams);
             } else {
-                factory = new ResultSetProcessorRowPerGroupFactory(selectExprProcessor, groupByNodesValidated, groupByNodeEvals, optionalHavingEval, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, noDataWindowSingleStream, isHistoricalOnly, iterateUnbounded, resultSetProcessorHelperFactory, hasOutputLimitOptHint, numStreams, optionalOutputFirstConditionFactory);
+                factory = new ResultSetProcessorRowPerGroupFactory(selectExprProcessor, groupByNodesValidated, groupByNodeEvals, groupByMultiKeyEval, optionalHavingEval, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, noDataWindowSingleStream, isHistoricalOnly, iterateUnbounded, resultSetProcessorHelperFactory, hasOutputLimitOptHint, numStreams, optionalOutputFirstConditionFactory);
             }
             return new ResultSetProcessorFactoryDesc(factory, orderByProcessorFactory, aggregationServiceFactory);
         }
@@ -460,7 +474,7 @@ public class ResultSetProcessorFactoryFactory {
         // There is a group-by clause, and one or more event properties in the select clause that are not under an aggregation
         // function are not listed in the group-by clause (output one row per event, not one row per group)
         log.debug(".getProcessor Using ResultSetProcessorAggregateGrouped");
-        ResultSetProcessorAggregateGroupedFactory factory = new ResultSetProcessorAggregateGroupedFactory(selectExprProcessor, groupByNodesValidated, groupByNodeEvals, optionalHavingEval, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, isHistoricalOnly, resultSetProcessorHelperFactory, optionalOutputFirstConditionFactory, hasOutputLimitOptHint, numStreams);
+        ResultSetProcessorAggregateGroupedFactory factory = new ResultSetProcessorAggregateGroupedFactory(selectExprProcessor, groupByNodesValidated, groupByNodeEvals, groupByMultiKeyEval, optionalHavingEval, isSelectRStream, isUnidirectional, outputLimitSpec, orderByProcessorFactory != null, isHistoricalOnly, resultSetProcessorHelperFactory, optionalOutputFirstConditionFactory, hasOutputLimitOptHint, numStreams);
         return new ResultSetProcessorFactoryDesc(factory, orderByProcessorFactory, aggregationServiceFactory);
     }
 
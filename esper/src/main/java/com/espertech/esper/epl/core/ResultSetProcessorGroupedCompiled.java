@@ -0,0 +1,22 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.core;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodRowApplier;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+/**
+ * Code-generated part of a grouped result set processor: evaluating returns the group key,
+ * applying enters and leaves the aggregation function values into the aggregators of a group and processing
+ * assembles the output row from the select clause.
+ */
+public interface ResultSetProcessorGroupedCompiled extends ExprEvaluator, AggregationMethodRowApplier, SelectExprProcessor {
+}
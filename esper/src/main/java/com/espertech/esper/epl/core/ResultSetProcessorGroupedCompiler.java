@@ -0,0 +1,349 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.core;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.codegen.compile.CodegenClassGenerator;
+import com.espertech.esper.codegen.compile.CodegenCompilerException;
+import com.espertech.esper.codegen.compile.CodegenMessageUtil;
+import com.espertech.esper.codegen.core.*;
+import com.espertech.esper.codegen.model.expression.CodegenExpression;
+import com.espertech.esper.codegen.model.method.CodegenParamSet;
+import com.espertech.esper.codegen.model.method.CodegenParamSetExprPremade;
+import com.espertech.esper.codegen.model.method.CodegenParamSetMulti;
+import com.espertech.esper.collection.MultiKeyObject2;
+import com.espertech.esper.collection.MultiKeyObject3;
+import com.espertech.esper.collection.MultiKeyObjectArray;
+import com.espertech.esper.collection.MultiKeyPrimitiveFactory;
+import com.espertech.esper.core.service.StatementResultService;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.factory.*;
+import com.espertech.esper.epl.agg.service.*;
+import com.espertech.esper.epl.core.eval.EvalSelectNoWildcardMap;
+import com.espertech.esper.epl.core.eval.EvalSelectNoWildcardObjectArray;
+import com.espertech.esper.epl.core.eval.SelectExprContext;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.event.EventAdapterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.StringWriter;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
+
+/**
+ * Generates, for a grouped statement with aggregation, a single class that computes the group key, enters and leaves
+ * the values of the method aggregation functions into the aggregators of a group and assembles the output row
+ * of the select clause, with all expressions inlined.
+ * <p>
+ * The result set processor itself, including its output rate limiting, ordering and iteration logic, remains
+ * hand-written and calls the generated class through the group key evaluator, the aggregation service and the
+ * select-clause processor.
+ * </p>
+ */
+public class ResultSetProcessorGroupedCompiler {
+    private static final Logger log = LoggerFactory.getLogger(ResultSetProcessorGroupedCompiler.class);
+
+    private final static String ROW_NAME = "row";
+
+    private final static Set<Class> DEFAULT_EVALUATOR_FACTORIES = new HashSet<>(Arrays.<Class>asList(
+            AggregationMethodFactoryAvg.class, AggregationMethodFactoryCountEver.class, AggregationMethodFactoryFirstEver.class,
+            AggregationMethodFactoryLastEver.class, AggregationMethodFactoryLeaving.class, AggregationMethodFactoryMedian.class,
+            AggregationMethodFactoryMinMax.class, AggregationMethodFactoryNth.class, AggregationMethodFactoryPlugIn.class,
+            AggregationMethodFactoryRate.class, AggregationMethodFactoryStddev.class, AggregationMethodFactorySum.class));
+
+    /**
+     * Generate the class when enabled and when the statement qualifies: the aggregation service must be one of
+     * the grouped services for method aggregation functions only, each aggregation function must evaluate its
+     * parameters by the default evaluator, and the select clause must consist of expressions only, for
+     * a map or object-array result event.
+     *
+     * @param groupKeyForges       group-by expression forges, at least one
+     * @param optionalKeyFactory   primitive key factory or null for object keys
+     * @param aggregationDesc      aggregation service
+     * @param selectExprProcessor  select-clause processor
+     * @param engineImportService  engine imports
+     * @param onDemandQuery        fire-and-forget indicator
+     * @param statementName        statement name
+     * @return generated class or null when not generated
+     */
+    public static ResultSetProcessorGroupedCompiled allocate(ExprForge[] groupKeyForges,
+                                                             MultiKeyPrimitiveFactory optionalKeyFactory,
+                                                             AggregationServiceFactoryDesc aggregationDesc,
+                                                             SelectExprProcessor selectExprProcessor,
+                                                             EngineImportService engineImportService,
+                                                             boolean onDemandQuery,
+                                                             String statementName) {
+        if (!engineImportService.getCodeGeneration().isEnableResultSetProcessor() || onDemandQuery || groupKeyForges.length == 0) {
+            return null;
+        }
+
+        // determine aggregation function parameters, by column
+        Class serviceFactoryClass = aggregationDesc.getAggregationServiceFactory().getClass();
+        if (serviceFactoryClass != AggSvcGroupByRefcountedNoAccessFactory.class && serviceFactoryClass != AggSvcGroupByNoAccessFactory.class) {
+            return null;
+        }
+        List<ExprNode[]> aggregationParams = new ArrayList<>();
+        for (AggregationServiceAggExpressionDesc aggregation : aggregationDesc.getExpressions()) {
+            ExprNode[] params = getMethodAggregationParams(aggregation.getFactory());
+            if (params == null) {
+                return null;
+            }
+            aggregationParams.add(params);
+        }
+
+        // determine select clause
+        SelectExprProcessor synthetic = selectExprProcessor instanceof SelectExprResultProcessor ? ((SelectExprResultProcessor) selectExprProcessor).getSyntheticProcessor() : selectExprProcessor;
+        SelectExprContext selectExprContext;
+        boolean objectArray;
+        if (synthetic.getClass() == EvalSelectNoWildcardMap.class) {
+            selectExprContext = ((EvalSelectNoWildcardMap) synthetic).getSelectExprContext();
+            objectArray = false;
+        } else if (synthetic.getClass() == EvalSelectNoWildcardObjectArray.class) {
+            selectExprContext = ((EvalSelectNoWildcardObjectArray) synthetic).getSelectExprContext();
+            objectArray = true;
+        } else {
+            return null;
+        }
+
+        // void-typed expressions have no value to inline
+        if (hasVoid(groupKeyForges) || hasVoid(selectExprContext.getForges())) {
+            return null;
+        }
+        for (ExprNode[] params : aggregationParams) {
+            for (ExprNode param : params) {
+                if (!(param instanceof ExprWildcard) && param.getForge().getEvaluationType() == void.class) {
+                    return null;
+                }
+            }
+        }
+
+        Supplier<String> debugInformationProvider = new Supplier<String>() {
+            public String get() {
+                StringWriter writer = new StringWriter();
+                writer.append("statement '")
+                        .append(statementName)
+                        .append("' result set processor for group key '");
+                String delimiter = "";
+                for (ExprForge forge : groupKeyForges) {
+                    writer.append(delimiter);
+                    try {
+                        forge.getForgeRenderable().toEPL(writer, ExprPrecedenceEnum.MINIMUM);
+                    } catch (Throwable t) {
+                        log.warn("Exception rendering expression: " + t.getMessage(), t);
+                        writer.append("(exception rendering expression) ");
+                        writer.append(forge.getClass().getSimpleName());
+                    }
+                    delimiter = ", ";
+                }
+                writer.append("' requestor-class '")
+                        .append(ResultSetProcessorGroupedCompiler.class.getSimpleName())
+                        .append("'");
+                return writer.toString();
+            }
+        };
+
+        try {
+            CodegenContext context = new CodegenContext(engineImportService.getCodeGeneration().isIncludeComments());
+            CodegenMethod evaluate = makeEvaluate(groupKeyForges, optionalKeyFactory, context);
+            CodegenMethod applyEnter = makeApply(true, aggregationParams, context);
+            CodegenMethod applyLeave = makeApply(false, aggregationParams, context);
+            CodegenMember resultEventType = context.makeAddMember(EventType.class, synthetic.getResultEventType());
+            CodegenMethod process = makeProcess(selectExprContext, objectArray, resultEventType, context);
+            CodegenMethod getResultEventType = new CodegenMethod(new CodegenMethodFootprint(EventType.class, "getResultEventType", Collections.<CodegenParamSet>emptyList(), null), ref(resultEventType.getMemberName()));
+            CodegenClass clazz = new CodegenClass(ResultSetProcessorGroupedCompiled.class, context, engineImportService.getEngineURI(), evaluate, applyEnter, applyLeave, process, getResultEventType);
+            return CodegenClassGenerator.compile(clazz, engineImportService, ResultSetProcessorGroupedCompiled.class, debugInformationProvider);
+        } catch (CodegenCompilerException ex) {
+            boolean fallback = engineImportService.getCodeGeneration().isEnableFallback();
+            String message = CodegenMessageUtil.getFailedCompileLogMessageWithCode(ex, debugInformationProvider, fallback);
+            if (fallback) {
+                log.warn(message, ex);
+            } else {
+                log.error(message, ex);
+            }
+            return handleThrowable(engineImportService, ex, debugInformationProvider);
+        } catch (Throwable t) {
+            return handleThrowable(engineImportService, t, debugInformationProvider);
+        }
+    }
+
+    /**
+     * Returns the select-clause processor that assembles output rows by the generated class, keeping the
+     * natural-event handling of the original processor.
+     *
+     * @param selectExprProcessor original select-clause processor
+     * @param compiled            generated class
+     * @return processor
+     */
+    public static SelectExprProcessor getSelectExprProcessor(SelectExprProcessor selectExprProcessor, ResultSetProcessorGroupedCompiled compiled) {
+        if (selectExprProcessor instanceof SelectExprResultProcessor) {
+            SelectExprResultProcessor resultProcessor = (SelectExprResultProcessor) selectExprProcessor;
+            StatementResultService statementResultService = resultProcessor.getStatementResultService();
+            return new SelectExprResultProcessor(statementResultService, compiled, resultProcessor.getBindProcessor());
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns the aggregation service factory that applies aggregation function values by the generated class.
+     *
+     * @param aggregationDesc original aggregation service
+     * @param compiled        generated class
+     * @return aggregation service
+     */
+    public static AggregationServiceFactoryDesc getAggregationServiceFactory(AggregationServiceFactoryDesc aggregationDesc, ResultSetProcessorGroupedCompiled compiled) {
+        AggregationServiceFactoryBase base = (AggregationServiceFactoryBase) aggregationDesc.getAggregationServiceFactory();
+        AggregationServiceFactory serviceFactory;
+        if (base instanceof AggSvcGroupByRefcountedNoAccessFactory) {
+            serviceFactory = new AggSvcGroupByRefcountedNoAccessFactory(base.getEvaluators(), base.getAggregators(), compiled);
+        } else {
+            serviceFactory = new AggSvcGroupByNoAccessFactory(base.getEvaluators(), base.getAggregators(), compiled);
+        }
+        return new AggregationServiceFactoryDesc(serviceFactory, aggregationDesc.getExpressions(), aggregationDesc.getGroupKeyExpressions());
+    }
+
+    private static CodegenMethod makeEvaluate(ExprForge[] forges, MultiKeyPrimitiveFactory optionalKeyFactory, CodegenContext context) {
+        CodegenMethod method = new CodegenMethod(new CodegenMethodFootprint(Object.class, "evaluate", Collections.<CodegenParamSet>singletonList(CodegenParamSetExprPremade.INSTANCE), null));
+        if (forges.length == 1) {
+            method.statements().methodReturn(forges[0].evaluateCodegen(CodegenParamSetExprPremade.INSTANCE, context));
+            return method;
+        }
+        if (optionalKeyFactory != null || forges.length <= 3) {
+            CodegenExpression[] values = new CodegenExpression[forges.length];
+            for (int i = 0; i < forges.length; i++) {
+                values[i] = forges[i].evaluateCodegen(CodegenParamSetExprPremade.INSTANCE, context);
+            }
+            if (optionalKeyFactory != null) {
+                CodegenMember factory = context.makeAddMember(MultiKeyPrimitiveFactory.class, optionalKeyFactory);
+                method.statements().methodReturn(exprDotMethod(ref(factory.getMemberName()), "makeKey", values));
+            } else {
+                method.statements().methodReturn(newInstance(forges.length == 2 ? MultiKeyObject2.class : MultiKeyObject3.class, values));
+            }
+            return method;
+        }
+        CodegenBlock block = method.statements()
+                .declareVar(Object[].class, "keys", newArray(Object.class, constant(forges.length)));
+        for (int i = 0; i < forges.length; i++) {
+            block.assignArrayElement("keys", constant(i), forges[i].evaluateCodegen(CodegenParamSetExprPremade.INSTANCE, context));
+        }
+        block.methodReturn(newInstance(MultiKeyObjectArray.class, ref("keys")));
+        return method;
+    }
+
+    private static CodegenMethod makeApply(boolean enter, List<ExprNode[]> aggregationParams, CodegenContext context) {
+        CodegenParamSetExprPremade premade = CodegenParamSetExprPremade.INSTANCE;
+        List<CodegenNamedParam> params = Arrays.asList(new CodegenNamedParam(AggregationMethod[].class, ROW_NAME), premade.receiveEPS(), premade.receiveEvalCtx());
+        CodegenMethod method = new CodegenMethod(new CodegenMethodFootprint(void.class, enter ? "applyEnter" : "applyLeave", Collections.<CodegenParamSet>singletonList(new CodegenParamSetMulti(params)), null));
+
+        // the parameter expressions receive the new-data flag of the enter or leave
+        CodegenBlock block = method.statements().declareVar(boolean.class, "isNewData", enter ? constantTrue() : constantFalse());
+        for (int i = 0; i < aggregationParams.size(); i++) {
+            block.declareVar(Object.class, "value" + i, codegenDefaultEvaluator(aggregationParams.get(i), context))
+                    .expression(exprDotMethod(arrayAtIndex(ref(ROW_NAME), constant(i)), enter ? "enter" : "leave", ref("value" + i)));
+        }
+        block.methodEnd();
+        return method;
+    }
+
+    private static CodegenMethod makeProcess(SelectExprContext selectExprContext, boolean objectArray, CodegenMember resultEventType, CodegenContext context) {
+        CodegenParamSetExprPremade premade = CodegenParamSetExprPremade.INSTANCE;
+        List<CodegenNamedParam> params = Arrays.asList(premade.receiveEPS(), new CodegenNamedParam(boolean.class, "isNewData"), new CodegenNamedParam(boolean.class, "isSynthesize"), premade.receiveEvalCtx());
+        CodegenMethod method = new CodegenMethod(new CodegenMethodFootprint(EventBean.class, "process", Collections.<CodegenParamSet>singletonList(new CodegenParamSetMulti(params)), null));
+        CodegenMember eventAdapterService = context.makeAddMember(EventAdapterService.class, selectExprContext.getEventAdapterService());
+        ExprForge[] forges = selectExprContext.getForges();
+        String[] columnNames = selectExprContext.getColumnNames();
+
+        CodegenBlock block = method.statements();
+        if (objectArray) {
+            block.declareVar(Object[].class, "props", newArray(Object.class, constant(forges.length)));
+            for (int i = 0; i < forges.length; i++) {
+                block.assignArrayElement("props", constant(i), forges[i].evaluateCodegen(premade, context));
+            }
+            block.methodReturn(exprDotMethod(ref(eventAdapterService.getMemberName()), "adapterForTypedObjectArray", ref("props"), ref(resultEventType.getMemberName())));
+        } else {
+            block.declareVar(Map.class, "props", newInstance(HashMap.class));
+            for (int i = 0; i < forges.length; i++) {
+                block.declareVar(Object.class, "value" + i, forges[i].evaluateCodegen(premade, context))
+                        .expression(exprDotMethod(ref("props"), "put", constant(columnNames[i]), ref("value" + i)));
+            }
+            block.methodReturn(exprDotMethod(ref(eventAdapterService.getMemberName()), "adapterForTypedMap", ref("props"), ref(resultEventType.getMemberName())));
+        }
+        return method;
+    }
+
+    /**
+     * Inline the same value as {@link com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil#getDefaultEvaluator}:
+     * null for no parameters, the value of the single parameter or an object array of all parameter values.
+     */
+    private static CodegenExpression codegenDefaultEvaluator(ExprNode[] childNodes, CodegenContext context) {
+        if (childNodes.length == 0) {
+            return constantNull();
+        }
+        if (childNodes.length == 1) {
+            return codegenParameter(childNodes[0], context);
+        }
+        CodegenBlock block = context.addMethod(Object[].class, ResultSetProcessorGroupedCompiler.class).add(CodegenParamSetExprPremade.INSTANCE).begin()
+                .declareVar(Object[].class, "values", newArray(Object.class, constant(childNodes.length)));
+        for (int i = 0; i < childNodes.length; i++) {
+            block.assignArrayElement("values", constant(i), codegenParameter(childNodes[i], context));
+        }
+        String method = block.methodReturn(ref("values"));
+        return localMethodBuild(method).passAll(CodegenParamSetExprPremade.INSTANCE).call();
+    }
+
+    private static CodegenExpression codegenParameter(ExprNode childNode, CodegenContext context) {
+        if (childNode instanceof ExprWildcard) {
+            CodegenExpression event = arrayAtIndex(ref(CodegenParamSetExprPremade.EPS_NAME), constant(0));
+            return conditional(equalsNull(event), constantNull(), exprDotUnderlying(event));
+        }
+        return childNode.getForge().evaluateCodegen(CodegenParamSetExprPremade.INSTANCE, context);
+    }
+
+    private static ExprNode[] getMethodAggregationParams(AggregationMethodFactory factory) {
+        if (factory.getClass() == AggregationMethodFactoryCount.class) {
+            ExprNode[] childNodes = factory.getAggregationExpression().getPositionalParams();
+            if (childNodes.length == 0) {
+                return childNodes;
+            }
+            if (childNodes[0] instanceof ExprWildcard && childNodes.length == 2) {
+                return new ExprNode[]{childNodes[1]};
+            }
+            if (childNodes[0] instanceof ExprWildcard && childNodes.length == 1) {
+                return new ExprNode[0];
+            }
+            return childNodes;
+        }
+        if (DEFAULT_EVALUATOR_FACTORIES.contains(factory.getClass())) {
+            return factory.getAggregationExpression().getPositionalParams();
+        }
+        return null;
+    }
+
+    private static boolean hasVoid(ExprForge[] forges) {
+        for (ExprForge forge : forges) {
+            if (forge.getEvaluationType() == void.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResultSetProcessorGroupedCompiled handleThrowable(EngineImportService engineImportService, Throwable t, Supplier<String> debugInformationProvider) {
+        if (engineImportService.getCodeGeneration().isEnableFallback()) {
+            return null;
+        }
+        throw new EPException("Fatal exception during code-generation for " + debugInformationProvider.get() + " (see error log for further details): " + t.getMessage(), t);
+    }
+}
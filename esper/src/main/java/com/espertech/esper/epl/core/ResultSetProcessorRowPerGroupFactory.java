@@ -44,6 +44,7 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
     public ResultSetProcessorRowPerGroupFactory(SelectExprProcessor selectExprProcessor,
                                                 ExprNode[] groupKeyNodeExpressions,
                                                 ExprEvaluator[] groupKeyNodes,
+                                                ExprEvaluator optionalGroupKeyMultiEval,
                                                 ExprEvaluator optionalHavingNode,
                                                 boolean isSelectRStream,
                                                 boolean isUnidirectional,
@@ -59,7 +60,9 @@ public class ResultSetProcessorRowPerGroupFactory implements ResultSetProcessorF
         this.groupKeyNodeExpressions = groupKeyNodeExpressions;
         this.selectExprProcessor = selectExprProcessor;
         this.groupKeyNodes = groupKeyNodes;
-        if (groupKeyNodes.length == 1) {
+        if (optionalGroupKeyMultiEval != null) {
+            this.groupKeyNode = optionalGroupKeyMultiEval;
+        } else if (groupKeyNodes.length == 1) {
             this.groupKeyNode = groupKeyNodes[0];
         } else {
             this.groupKeyNode = null;
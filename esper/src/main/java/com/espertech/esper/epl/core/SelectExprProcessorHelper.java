@@ -465,7 +465,7 @@ public class SelectExprProcessorHelper {
         for (int i = 0; i < exprForges.length; i++) {
             exprEvaluators[i] = ExprNodeCompiler.allocateEvaluator(exprForges[i], engineImportService, this.getClass(), typeService.isOnDemandStreams(), statementName);
         }
-        SelectExprContext selectExprContext = new SelectExprContext(exprEvaluators, columnNames, eventAdapterService);
+        SelectExprContext selectExprContext = new SelectExprContext(exprEvaluators, exprForges, columnNames, eventAdapterService);
 
         if (insertIntoDesc == null) {
             if (!selectedStreams.isEmpty()) {
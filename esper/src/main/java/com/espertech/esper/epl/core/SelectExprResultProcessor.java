@@ -45,6 +45,18 @@ public class SelectExprResultProcessor implements SelectExprProcessor {
         return syntheticProcessor.getResultEventType();
     }
 
+    public StatementResultService getStatementResultService() {
+        return statementResultService;
+    }
+
+    public SelectExprProcessor getSyntheticProcessor() {
+        return syntheticProcessor;
+    }
+
+    public BindProcessor getBindProcessor() {
+        return bindProcessor;
+    }
+
     public EventBean process(EventBean[] eventsPerStream, boolean isNewData, boolean isSynthesize, ExprEvaluatorContext exprEvaluatorContext) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qSelectClause(eventsPerStream, isNewData, isSynthesize, exprEvaluatorContext);
@@ -48,4 +48,8 @@ public class EvalSelectNoWildcardMap implements SelectExprProcessor {
     public EventType getResultEventType() {
         return resultEventType;
     }
+
+    public SelectExprContext getSelectExprContext() {
+        return selectExprContext;
+    }
 }
\ No newline at end of file
@@ -48,4 +48,8 @@ public class EvalSelectNoWildcardObjectArray implements SelectExprProcessor {
     public EventType getResultEventType() {
         return resultEventType;
     }
+
+    public SelectExprContext getSelectExprContext() {
+        return selectExprContext;
+    }
 }
@@ -11,15 +11,18 @@
 package com.espertech.esper.epl.core.eval;
 
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprForge;
 import com.espertech.esper.event.EventAdapterService;
 
 public class SelectExprContext {
     private ExprEvaluator[] expressionNodes;
+    private final ExprForge[] forges;
     private final String[] columnNames;
     private final EventAdapterService eventAdapterService;
 
-    public SelectExprContext(ExprEvaluator[] expressionNodes, String[] columnNames, EventAdapterService eventAdapterService) {
+    public SelectExprContext(ExprEvaluator[] expressionNodes, ExprForge[] forges, String[] columnNames, EventAdapterService eventAdapterService) {
         this.expressionNodes = expressionNodes;
+        this.forges = forges;
         this.columnNames = columnNames;
         this.eventAdapterService = eventAdapterService;
     }
@@ -28,6 +31,10 @@ public class SelectExprContext {
         return expressionNodes;
     }
 
+    public ExprForge[] getForges() {
+        return forges;
+    }
+
     public String[] getColumnNames() {
         return columnNames;
     }
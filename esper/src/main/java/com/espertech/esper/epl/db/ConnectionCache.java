@@ -51,6 +51,16 @@ public abstract class ConnectionCache {
      */
     public abstract void destroy();
 
+    /**
+     * Returns true if multiple threads may each obtain a connection and statement pair and use it at the same time,
+     * or false if threads share the same pair and must use it one after the other.
+     *
+     * @return indicator whether pairs can be used concurrently
+     */
+    public boolean isConcurrent() {
+        return false;
+    }
+
     /**
      * Ctor.
      *
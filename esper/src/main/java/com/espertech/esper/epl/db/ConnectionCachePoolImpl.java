@@ -0,0 +1,82 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.collection.Pair;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retains up to a maximum number of Connection and PreparedStatement instances for reuse,
+ * allowing multiple threads to each use a connection at the same time.
+ * <p>
+ * Threads obtain an idle pair if one is available or a new pair otherwise. Pairs returned
+ * when the maximum number of idle pairs is already retained are closed.
+ */
+public class ConnectionCachePoolImpl extends ConnectionCache {
+    private final int maxRetained;
+    private final ConcurrentLinkedQueue<Pair<Connection, PreparedStatement>> idle = new ConcurrentLinkedQueue<Pair<Connection, PreparedStatement>>();
+    private final AtomicInteger numIdle = new AtomicInteger();
+
+    /**
+     * Ctor.
+     *
+     * @param databaseConnectionFactory - connection factory
+     * @param sql                       - statement sql
+     * @param maxRetained               - maximum number of connections retained
+     */
+    public ConnectionCachePoolImpl(DatabaseConnectionFactory databaseConnectionFactory, String sql, int maxRetained) {
+        super(databaseConnectionFactory, sql);
+        this.maxRetained = maxRetained;
+    }
+
+    public Pair<Connection, PreparedStatement> getConnection() {
+        Pair<Connection, PreparedStatement> pair = idle.poll();
+        if (pair != null) {
+            numIdle.decrementAndGet();
+            return pair;
+        }
+        return makeNew();
+    }
+
+    public void doneWith(Pair<Connection, PreparedStatement> pair) {
+        if (numIdle.incrementAndGet() <= maxRetained) {
+            idle.offer(pair);
+            return;
+        }
+        numIdle.decrementAndGet();
+        close(pair);
+    }
+
+    public void destroy() {
+        Pair<Connection, PreparedStatement> pair;
+        while ((pair = idle.poll()) != null) {
+            numIdle.decrementAndGet();
+            close(pair);
+        }
+    }
+
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    /**
+     * Returns the number of idle connections retained.
+     *
+     * @return count
+     */
+    public int getNumIdle() {
+        return numIdle.get();
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.core.service.EngineLevelExtensionServicesContext;
+import com.espertech.esper.epl.expression.time.TimeAbacus;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.schedule.ScheduleHandleCallback;
+import com.espertech.esper.schedule.SchedulingService;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Query result data cache implementation for use by multiple threads, that is bounded by the number of rows cached
+ * and optionally evicts entries after a maximum age.
+ * <p>
+ * Keys are assigned to segments by hash code and each segment has its own lock, so threads looking up keys of
+ * different segments do not contend. Each segment keeps new entries in a small least-recently-used admission window.
+ * Entries leaving the window enter the least-recently-used main area only if they are used more frequently than the
+ * entries they would evict, as estimated by a frequency sketch of 4-bit counters that are periodically halved, so that
+ * one-time lookups do not evict frequently-used entries.
+ * </p>
+ * <p>
+ * The weight of an entry is the number of rows, or one for entries with zero rows.
+ * </p>
+ * <p>
+ * With a maximum age, a lookup removes the entry it finds expired, and a purge scheduled the maximum age after a put
+ * removes all expired entries so that a cache that is no longer looked up does not keep stale rows.
+ * </p>
+ */
+public class DataCacheConcurrentImpl implements DataCache, ScheduleHandleCallback {
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final SchedulingService schedulingService;
+    private final long maxAgeTime;
+    private final long scheduleSlot;
+    private final EPStatementAgentInstanceHandle epStatementAgentInstanceHandle;
+    private final AtomicBoolean isScheduled = new AtomicBoolean();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+
+    /**
+     * Ctor.
+     *
+     * @param maxRows                        is the maximum number of rows, summed over all cached entries
+     * @param maxAgeSec                      is the maximum age in seconds, or zero for no maximum age
+     * @param numSegments                    is the number of segments, rounded up to the next power of two
+     * @param admission                      true to admit entries into the main area by frequency, false to always admit
+     * @param schedulingService              is a service for obtaining the time and for call backs at a scheduled time, for maximum age
+     * @param scheduleSlot                   slot for scheduling callbacks for this cache
+     * @param epStatementAgentInstanceHandle is the statements-own handle for use in registering callbacks with services
+     * @param timeAbacus                     time abacus
+     */
+    public DataCacheConcurrentImpl(int maxRows, double maxAgeSec, int numSegments, boolean admission, SchedulingService schedulingService,
+                                   long scheduleSlot, EPStatementAgentInstanceHandle epStatementAgentInstanceHandle, TimeAbacus timeAbacus) {
+        int size = 1;
+        while (size < numSegments) {
+            size <<= 1;
+        }
+        this.segments = new Segment[size];
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(size);
+        int maxRowsPerSegment = Math.max(2, maxRows / size);
+        for (int i = 0; i < size; i++) {
+            segments[i] = new Segment(maxRowsPerSegment, admission);
+        }
+        this.schedulingService = schedulingService;
+        this.scheduleSlot = scheduleSlot;
+        this.epStatementAgentInstanceHandle = epStatementAgentInstanceHandle;
+        this.maxAgeTime = maxAgeSec <= 0 ? 0 : timeAbacus.deltaForSecondsDouble(maxAgeSec);
+    }
+
+    public EventTable[] getCached(Object[] methodParams, int numLookupKeys) {
+        Object key = DataCacheUtil.getLookupKey(methodParams, numLookupKeys);
+        int hash = spread(key);
+        long now = maxAgeTime == 0 ? 0 : schedulingService.getTime();
+        EventTable[] rows = segmentFor(hash).get(key, hash, now);
+        if (rows == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return rows;
+    }
+
+    public void put(Object[] methodParams, int numLookupKeys, EventTable[] rows) {
+        Object key = DataCacheUtil.getLookupKey(methodParams, numLookupKeys);
+        int hash = spread(key);
+        long expiryTime = maxAgeTime == 0 ? Long.MAX_VALUE : schedulingService.getTime() + maxAgeTime;
+        segmentFor(hash).put(new Entry(key, hash, rows, weigh(rows), expiryTime));
+
+        if (maxAgeTime != 0 && isScheduled.compareAndSet(false, true)) {
+            EPStatementHandleCallback callback = new EPStatementHandleCallback(epStatementAgentInstanceHandle, this);
+            schedulingService.add(maxAgeTime, callback, scheduleSlot);
+        }
+    }
+
+    public void scheduledTrigger(EngineLevelExtensionServicesContext engineLevelExtensionServicesContext) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qHistoricalScheduledEval();
+        }
+        // purge expired
+        long now = schedulingService.getTime();
+        for (Segment segment : segments) {
+            segment.purge(now);
+        }
+
+        isScheduled.set(false);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aHistoricalScheduledEval();
+        }
+    }
+
+    public boolean isActive() {
+        return true;
+    }
+
+    public void destroy() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found a cached entry.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find a cached entry.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted, or not admitted, because of the maximum number of rows.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Returns the number of entries removed because of the maximum age.
+     *
+     * @return expired count
+     */
+    public long getExpiredCount() {
+        return expiredCount.sum();
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return number of entries
+     */
+    public int getSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of rows of all cached entries.
+     *
+     * @return number of rows
+     */
+    public long getNumRows() {
+        long rows = 0;
+        for (Segment segment : segments) {
+            rows += segment.weight();
+        }
+        return rows;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private static int spread(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int weigh(EventTable[] rows) {
+        if (rows == null || rows.length == 0) {
+            return 1;
+        }
+        Integer numEvents = rows[0].getNumberOfEvents();
+        return numEvents == null ? 1 : Math.max(1, numEvents);
+    }
+
+    private static class Entry {
+        private final Object key;
+        private final int hash;
+        private final EventTable[] rows;
+        private final int weight;
+        private final long expiryTime;
+
+        private Entry(Object key, int hash, EventTable[] rows, int weight, long expiryTime) {
+            this.key = key;
+            this.hash = hash;
+            this.rows = rows;
+            this.weight = weight;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    private class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Object, Entry> window = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+        private final LinkedHashMap<Object, Entry> main = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+        private final long maxWindowWeight;
+        private final long maxMainWeight;
+        private final FrequencySketch sketch;
+        private long windowWeight;
+        private long mainWeight;
+
+        private Segment(int maxRows, boolean admission) {
+            this.maxWindowWeight = Math.max(1, maxRows / 100);
+            this.maxMainWeight = maxRows - maxWindowWeight;
+            this.sketch = admission ? new FrequencySketch(maxRows) : null;
+        }
+
+        private EventTable[] get(Object key, int hash, long now) {
+            lock.lock();
+            try {
+                if (sketch != null) {
+                    sketch.increment(hash);
+                }
+                boolean inWindow = true;
+                Entry entry = window.get(key);
+                if (entry == null) {
+                    inWindow = false;
+                    entry = main.get(key);
+                    if (entry == null) {
+                        return null;
+                    }
+                }
+                if (entry.expiryTime <= now) {
+                    if (inWindow) {
+                        window.remove(key);
+                        windowWeight -= entry.weight;
+                    } else {
+                        main.remove(key);
+                        mainWeight -= entry.weight;
+                    }
+                    expiredCount.increment();
+                    return null;
+                }
+                return entry.rows;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void put(Entry entry) {
+            if (entry.weight > maxWindowWeight + maxMainWeight) {
+                evictionCount.increment();
+                return;
+            }
+            lock.lock();
+            try {
+                if (sketch != null) {
+                    sketch.increment(entry.hash);
+                }
+                Entry existing = window.remove(entry.key);
+                if (existing != null) {
+                    windowWeight -= existing.weight;
+                } else {
+                    existing = main.remove(entry.key);
+                    if (existing != null) {
+                        mainWeight -= existing.weight;
+                    }
+                }
+
+                window.put(entry.key, entry);
+                windowWeight += entry.weight;
+                while (windowWeight > maxWindowWeight) {
+                    Iterator<Map.Entry<Object, Entry>> it = window.entrySet().iterator();
+                    Entry candidate = it.next().getValue();
+                    it.remove();
+                    windowWeight -= candidate.weight;
+                    admit(candidate);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void admit(Entry candidate) {
+            if (candidate.weight > maxMainWeight) {
+                evictionCount.increment();
+                return;
+            }
+            Iterator<Map.Entry<Object, Entry>> it = main.entrySet().iterator();
+            while (mainWeight + candidate.weight > maxMainWeight) {
+                Entry victim = it.next().getValue();
+                if (sketch != null && sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+                    // the candidate is not used more frequently than the least-recently-used entry, do not admit
+                    evictionCount.increment();
+                    return;
+                }
+                it.remove();
+                mainWeight -= victim.weight;
+                evictionCount.increment();
+            }
+            main.put(candidate.key, candidate);
+            mainWeight += candidate.weight;
+        }
+
+        private void purge(long now) {
+            lock.lock();
+            try {
+                windowWeight -= purge(window, now);
+                mainWeight -= purge(main, now);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long purge(LinkedHashMap<Object, Entry> entries, long now) {
+            long removed = 0;
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (entry.expiryTime <= now) {
+                    it.remove();
+                    removed += entry.weight;
+                    expiredCount.increment();
+                }
+            }
+            return removed;
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return window.size() + main.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long weight() {
+            lock.lock();
+            try {
+                return windowWeight + mainWeight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear() {
+            lock.lock();
+            try {
+                window.clear();
+                main.clear();
+                windowWeight = 0;
+                mainWeight = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters estimating the frequency of keys, with counters halved
+     * after a sample of increments so that the estimate favors recent use.
+     */
+    protected static class FrequencySketch {
+        private static final int[] SEEDS = new int[]{0x97cb3127, 0xc2b2ae35, 0x85ebca6b, 0x27d4eb2f};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        /**
+         * Ctor.
+         *
+         * @param capacity expected number of distinct keys
+         */
+        protected FrequencySketch(int capacity) {
+            int size = 16;
+            while (size < capacity && size < (1 << 24)) {
+                size <<= 1;
+            }
+            this.table = new long[size];
+            this.mask = size - 1;
+            this.sampleSize = size * 10;
+        }
+
+        /**
+         * Returns the estimated frequency, between zero and 15.
+         *
+         * @param hash key hash
+         * @return frequency
+         */
+        protected int frequency(int hash) {
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int h = rehash(hash, i);
+                int count = (int) ((table[h & mask] >>> offset(h)) & 0xFL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        /**
+         * Increment the frequency.
+         *
+         * @param hash key hash
+         */
+        protected void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int h = rehash(hash, i);
+                int index = h & mask;
+                int offset = offset(h);
+                if (((table[index] >>> offset) & 0xFL) != 0xFL) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions = additions / 2;
+            }
+        }
+
+        private static int rehash(int hash, int i) {
+            int h = hash * SEEDS[i];
+            return h ^ (h >>> 17);
+        }
+
+        private static int offset(int h) {
+            // one of the sixteen 4-bit counters of the long
+            return (h >>> 28) << 2;
+        }
+    }
+}
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.epl.db;
 
+import com.espertech.esper.client.ConfigurationConcurrentCache;
 import com.espertech.esper.client.ConfigurationDataCache;
 import com.espertech.esper.client.ConfigurationExpiryTimeCache;
 import com.espertech.esper.client.ConfigurationLRUCache;
@@ -53,6 +54,12 @@ public class DataCacheFactory {
             return makeTimeCache(expCache, statementContext, epStatementAgentInstanceHandle, schedulingService, scheduleBucket, streamNum);
         }
 
+        if (cacheDesc instanceof ConfigurationConcurrentCache) {
+            ConfigurationConcurrentCache concurrentCache = (ConfigurationConcurrentCache) cacheDesc;
+            return new DataCacheConcurrentImpl(concurrentCache.getMaxRows(), concurrentCache.getMaxAgeSeconds(), concurrentCache.getNumSegments(),
+                    concurrentCache.isAdmission(), schedulingService, scheduleBucket.allocateSlot(), epStatementAgentInstanceHandle, statementContext.getTimeAbacus());
+        }
+
         throw new IllegalStateException("Cache implementation class not configured");
     }
 
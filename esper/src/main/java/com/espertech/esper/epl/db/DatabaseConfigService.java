@@ -36,6 +36,15 @@ public interface DatabaseConfigService {
      */
     public ColumnSettings getQuerySetting(String databaseName) throws DatabaseConfigException;
 
+    /**
+     * Returns the maximum number of keys to query in a single batch query, or zero if batching is disabled.
+     *
+     * @param databaseName is the name of the database
+     * @return poll batch size
+     * @throws DatabaseConfigException is thrown to indicate database configuration errors
+     */
+    public int getPollBatchSize(String databaseName) throws DatabaseConfigException;
+
     /**
      * Returns true to indicate a setting to retain connections between lookups.
      *
@@ -60,7 +60,9 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigService {
         DatabaseConnectionFactory connectionFactory = getConnectionFactory(databaseName);
 
         boolean retain = config.getConnectionLifecycleEnum().equals(ConfigurationDBRef.ConnectionLifecycleEnum.RETAIN);
-        if (retain) {
+        if (retain && config.getConnectionRetainPoolSize() > 1) {
+            return new ConnectionCachePoolImpl(connectionFactory, preparedStatementText, config.getConnectionRetainPoolSize());
+        } else if (retain) {
             return new ConnectionCacheImpl(connectionFactory, preparedStatementText);
         } else {
             return new ConnectionNoCacheImpl(connectionFactory, preparedStatementText);
@@ -117,4 +119,12 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigService {
         }
         return new ColumnSettings(config.getMetadataRetrievalEnum(), config.getColumnChangeCase(), config.getSqlTypesMapping());
     }
+
+    public int getPollBatchSize(String databaseName) throws DatabaseConfigException {
+        ConfigurationDBRef config = mapDatabaseRef.get(databaseName);
+        if (config == null) {
+            throw new DatabaseConfigException("Cannot locate configuration information for database '" + databaseName + '\'');
+        }
+        return config.getPollBatchSize();
+    }
 }
@@ -139,6 +139,7 @@ public class DatabasePollingViewable implements HistoricalEventViewable {
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext) {
         DataCache localDataCache = dataCacheThreadLocal.get();
         boolean strategyStarted = false;
+        PollExecStrategyBatchCollector batchCollector = null;
 
         EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
 
@@ -177,6 +178,12 @@ public class DatabasePollingViewable implements HistoricalEventViewable {
             if (result != null) {
                 // found in cache
                 resultPerInputRow[row] = result;
+            } else if (pollExecStrategy instanceof PollExecStrategyBatch) {
+                // not found in cache, collect the distinct keys for polling in batches
+                if (batchCollector == null) {
+                    batchCollector = new PollExecStrategyBatchCollector(lookupValues.length);
+                }
+                batchCollector.add(lookupValues, row);
             } else {
                 // not found in cache, get from actual polling (db query)
                 try {
@@ -213,6 +220,10 @@ public class DatabasePollingViewable implements HistoricalEventViewable {
             pollExecStrategy.done();
         }
 
+        if (batchCollector != null) {
+            batchCollector.poll((PollExecStrategyBatch) pollExecStrategy, resultPerInputRow, indexingStrategy, dataCache, localDataCache, statementContext, exprEvaluatorContext);
+        }
+
         return resultPerInputRow;
     }
 
@@ -220,8 +220,10 @@ public class DatabasePollingViewableFactory {
         // Get a proper connection and data cache
         ConnectionCache connectionCache;
         DataCache dataCache;
+        int pollBatchSize;
         try {
             connectionCache = databaseConfigService.getConnectionCache(databaseName, preparedStatementText);
+            pollBatchSize = databaseConfigService.getPollBatchSize(databaseName);
             dataCache = databaseConfigService.getDataCache(databaseName, statementContext, epStatementAgentInstanceHandle, dataCacheFactory, streamNumber);
         } catch (DatabaseConfigException e) {
             String text = "Error obtaining cache configuration";
@@ -229,8 +231,14 @@ public class DatabasePollingViewableFactory {
             throw new ExprValidationException(text + ", reason: " + e.getMessage(), e);
         }
 
-        PollExecStrategyDBQuery dbPollStrategy = new PollExecStrategyDBQuery(eventAdapterService,
-                eventType, connectionCache, preparedStatementText, queryMetaData.getOutputParameters(), columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging);
+        PollExecStrategyDBQuery dbPollStrategy;
+        if (pollBatchSize > 1 && !queryMetaData.getInputParameters().isEmpty()) {
+            dbPollStrategy = new PollExecStrategyDBQueryBatch(eventAdapterService,
+                    eventType, connectionCache, preparedStatementText, queryMetaData.getOutputParameters(), columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging, pollBatchSize);
+        } else {
+            dbPollStrategy = new PollExecStrategyDBQuery(eventAdapterService,
+                    eventType, connectionCache, preparedStatementText, queryMetaData.getOutputParameters(), columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging);
+        }
 
         return new DatabasePollingViewable(streamNumber, queryMetaData.getInputParameters(), dbPollStrategy, dataCache, eventType);
     }
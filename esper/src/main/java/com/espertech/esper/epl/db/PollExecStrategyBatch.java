@@ -0,0 +1,37 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.List;
+
+/**
+ * Polling strategy that can poll for multiple distinct keys in a single query or invocation.
+ */
+public interface PollExecStrategyBatch extends PollExecStrategy {
+    /**
+     * Returns the maximum number of keys to poll at a time.
+     *
+     * @return batch size
+     */
+    public int getPollBatchSize();
+
+    /**
+     * Poll events using the keys provided, between start and done.
+     *
+     * @param lookupValuesPerKey   is the keys, at most batch-size keys
+     * @param exprEvaluatorContext context
+     * @return list of events for each of the keys, in the same order as the keys
+     */
+    public List<EventBean>[] pollBatch(List<Object[]> lookupValuesPerKey, ExprEvaluatorContext exprEvaluatorContext);
+}
@@ -0,0 +1,126 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.join.pollindex.PollResultIndexingStrategy;
+import com.espertech.esper.epl.join.table.EventTable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Collects the distinct lookup keys not found in cache for the rows of a single poll,
+ * for polling the keys in batches and assigning the indexed results to each row.
+ */
+public class PollExecStrategyBatchCollector {
+    private final int numLookupKeys;
+    private final LinkedHashMap<Object, DeferredKey> deferred = new LinkedHashMap<Object, DeferredKey>();
+
+    /**
+     * Ctor.
+     *
+     * @param numLookupKeys number of lookup values that make up the cache key
+     */
+    public PollExecStrategyBatchCollector(int numLookupKeys) {
+        this.numLookupKeys = numLookupKeys;
+    }
+
+    /**
+     * Add a row for which the lookup values were not found in cache.
+     *
+     * @param lookupValues lookup values
+     * @param row          row number
+     */
+    public void add(Object[] lookupValues, int row) {
+        Object key = DataCacheUtil.getLookupKey(lookupValues, numLookupKeys);
+        DeferredKey existing = deferred.get(key);
+        if (existing == null) {
+            existing = new DeferredKey(lookupValues);
+            deferred.put(key, existing);
+        }
+        existing.rows.add(row);
+    }
+
+    /**
+     * Poll for the collected keys, index and cache the results and assign them to the rows.
+     *
+     * @param strategy             batch poll strategy
+     * @param resultPerInputRow    results to assign to
+     * @param indexingStrategy     indexing strategy
+     * @param dataCache            cache
+     * @param localDataCache       thread-local iteration cache or null
+     * @param statementContext     statement context
+     * @param exprEvaluatorContext evaluation context
+     */
+    public void poll(PollExecStrategyBatch strategy,
+                     EventTable[][] resultPerInputRow,
+                     PollResultIndexingStrategy indexingStrategy,
+                     DataCache dataCache,
+                     DataCache localDataCache,
+                     StatementContext statementContext,
+                     ExprEvaluatorContext exprEvaluatorContext) {
+        int batchSize = Math.max(1, strategy.getPollBatchSize());
+        strategy.start();
+        try {
+            Iterator<DeferredKey> it = deferred.values().iterator();
+            List<DeferredKey> batch = new ArrayList<DeferredKey>(Math.min(batchSize, deferred.size()));
+            List<Object[]> batchLookupValues = new ArrayList<Object[]>(Math.min(batchSize, deferred.size()));
+            while (it.hasNext()) {
+                DeferredKey key = it.next();
+                batch.add(key);
+                batchLookupValues.add(key.lookupValues);
+                if (batch.size() == batchSize || !it.hasNext()) {
+                    if (batch.size() == 1) {
+                        List<EventBean> pollResult = strategy.poll(key.lookupValues, exprEvaluatorContext);
+                        assign(key, pollResult, resultPerInputRow, indexingStrategy, dataCache, localDataCache, statementContext);
+                    } else {
+                        List<EventBean>[] pollResults = strategy.pollBatch(batchLookupValues, exprEvaluatorContext);
+                        for (int i = 0; i < batch.size(); i++) {
+                            assign(batch.get(i), pollResults[i], resultPerInputRow, indexingStrategy, dataCache, localDataCache, statementContext);
+                        }
+                    }
+                    batch.clear();
+                    batchLookupValues.clear();
+                }
+            }
+        } catch (EPException ex) {
+            strategy.done();
+            throw ex;
+        }
+        strategy.done();
+    }
+
+    private void assign(DeferredKey key, List<EventBean> pollResult, EventTable[][] resultPerInputRow, PollResultIndexingStrategy indexingStrategy, DataCache dataCache, DataCache localDataCache, StatementContext statementContext) {
+        EventTable[] indexTable = indexingStrategy.index(pollResult, dataCache.isActive(), statementContext);
+        for (int row : key.rows) {
+            resultPerInputRow[row] = indexTable;
+        }
+        dataCache.put(key.lookupValues, numLookupKeys, indexTable);
+        if (localDataCache != null) {
+            localDataCache.put(key.lookupValues, numLookupKeys, indexTable);
+        }
+    }
+
+    private static class DeferredKey {
+        private final Object[] lookupValues;
+        private final List<Integer> rows = new ArrayList<Integer>(1);
+
+        private DeferredKey(Object[] lookupValues) {
+            this.lookupValues = lookupValues;
+        }
+    }
+}
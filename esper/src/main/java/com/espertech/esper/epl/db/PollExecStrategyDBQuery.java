@@ -32,19 +32,19 @@ import java.util.Date;
  * Viewable providing historical data from a database.
  */
 public class PollExecStrategyDBQuery implements PollExecStrategy {
-    private static final Logger JDBC_PERF_LOG = LoggerFactory.getLogger(AuditPath.JDBC_LOG);
+    protected static final Logger JDBC_PERF_LOG = LoggerFactory.getLogger(AuditPath.JDBC_LOG);
 
     private static final Logger log = LoggerFactory.getLogger(PollExecStrategyDBQuery.class);
     private final EventAdapterService eventAdapterService;
-    private final String preparedStatementText;
+    protected final String preparedStatementText;
     private final Map<String, DBOutputTypeDesc> outputTypes;
-    private final ConnectionCache connectionCache;
+    protected final ConnectionCache connectionCache;
     private final EventType eventType;
     private final SQLColumnTypeConversion columnTypeConversionHook;
     private final SQLOutputRowConversion outputRowConversionHook;
-    private final boolean enableJDBCLogging;
+    protected final boolean enableJDBCLogging;
 
-    private Pair<Connection, PreparedStatement> resources;
+    protected final ThreadLocal<Pair<Connection, PreparedStatement>> resources = new ThreadLocal<Pair<Connection, PreparedStatement>>();
 
     /**
      * Ctor.
@@ -77,11 +77,15 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
     }
 
     public void start() {
-        resources = connectionCache.getConnection();
+        resources.set(connectionCache.getConnection());
     }
 
     public void done() {
-        connectionCache.doneWith(resources);
+        Pair<Connection, PreparedStatement> pair = resources.get();
+        if (pair != null) {
+            resources.remove();
+            connectionCache.doneWith(pair);
+        }
     }
 
     public void destroy() {
@@ -89,19 +93,27 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
     }
 
     public List<EventBean> poll(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        Pair<Connection, PreparedStatement> pair = resources.get();
         List<EventBean> result;
         try {
-            result = execute(resources.getSecond(), lookupValues);
+            // connection and statement pairs that are shared between threads are used one thread at a time
+            if (connectionCache.isConcurrent()) {
+                result = execute(pair.getSecond(), lookupValues);
+            } else {
+                synchronized (this) {
+                    result = execute(pair.getSecond(), lookupValues);
+                }
+            }
         } catch (EPException ex) {
-            connectionCache.doneWith(resources);
+            done();
             throw ex;
         }
 
         return result;
     }
 
-    private synchronized List<EventBean> execute(PreparedStatement preparedStatement,
-                                                 Object[] lookupValuePerStream) {
+    private List<EventBean> execute(PreparedStatement preparedStatement,
+                                    Object[] lookupValuePerStream) {
         if (ExecutionPathDebugLog.isDebugEnabled && log.isInfoEnabled()) {
             log.info(".execute Executing prepared statement '" + preparedStatementText + "'");
         }
@@ -109,16 +121,47 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
         boolean hasJDBCLogging = enableJDBCLogging && JDBC_PERF_LOG.isInfoEnabled();
 
         // set parameters
+        Object[] parameters = null;
+        if (hasJDBCLogging) {
+            parameters = new Object[lookupValuePerStream.length];
+        }
+        setParameters(preparedStatement, lookupValuePerStream, 0, parameters);
+
+        // execute
+        ResultSet resultSet = executeQuery(preparedStatement, preparedStatementText, hasJDBCLogging, parameters);
+
+        // generate events for result set
+        List<EventBean> rows = new LinkedList<EventBean>();
+        readRows(resultSet, preparedStatementText, false, new List[]{rows});
+
+        if (enableJDBCLogging && JDBC_PERF_LOG.isInfoEnabled()) {
+            JDBC_PERF_LOG.info("Statement '" + preparedStatementText + "' " + rows.size() + " rows");
+        }
+
+        try {
+            resultSet.close();
+        } catch (SQLException ex) {
+            throw new EPException("Error closing statement '" + preparedStatementText + '\'', ex);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Set the lookup values as parameters of the statement.
+     *
+     * @param preparedStatement    statement
+     * @param lookupValuePerStream lookup values
+     * @param offset               number of parameters preceding the lookup values
+     * @param parameters           parameters for logging, or null if not logging
+     */
+    protected void setParameters(PreparedStatement preparedStatement, Object[] lookupValuePerStream, int offset, Object[] parameters) {
         SQLInputParameterContext inputParameterContext = null;
         if (columnTypeConversionHook != null) {
             inputParameterContext = new SQLInputParameterContext();
         }
 
-        int count = 1;
-        Object[] parameters = null;
-        if (hasJDBCLogging) {
-            parameters = new Object[lookupValuePerStream.length];
-        }
+        int count = offset + 1;
         for (int i = 0; i < lookupValuePerStream.length; i++) {
             try {
                 Object parameter = lookupValuePerStream[i];
@@ -134,7 +177,7 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
 
                 setObject(preparedStatement, count, parameter);
                 if (parameters != null) {
-                    parameters[i] = parameter;
+                    parameters[offset + i] = parameter;
                 }
             } catch (SQLException ex) {
                 throw new EPException("Error setting parameter " + count, ex);
@@ -142,8 +185,18 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
 
             count++;
         }
+    }
 
-        // execute
+    /**
+     * Execute the statement.
+     *
+     * @param preparedStatement statement
+     * @param statementText     statement text for logging
+     * @param hasJDBCLogging    jdbc logging flag
+     * @param parameters        parameters for logging
+     * @return result set
+     */
+    protected ResultSet executeQuery(PreparedStatement preparedStatement, String statementText, boolean hasJDBCLogging, Object[] parameters) {
         ResultSet resultSet;
         if (hasJDBCLogging) {
             long startTimeNS = System.nanoTime();
@@ -151,23 +204,32 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
             try {
                 resultSet = preparedStatement.executeQuery();
             } catch (SQLException ex) {
-                throw new EPException("Error executing statement '" + preparedStatementText + '\'', ex);
+                throw new EPException("Error executing statement '" + statementText + '\'', ex);
             }
             long endTimeNS = System.nanoTime();
             long endTimeMS = System.currentTimeMillis();
-            JDBC_PERF_LOG.info("Statement '" + preparedStatementText + "' delta nanosec " + (endTimeNS - startTimeNS) +
+            JDBC_PERF_LOG.info("Statement '" + statementText + "' delta nanosec " + (endTimeNS - startTimeNS) +
                     " delta msec " + (endTimeMS - startTimeMS) +
                     " parameters " + Arrays.toString(parameters));
         } else {
             try {
                 resultSet = preparedStatement.executeQuery();
             } catch (SQLException ex) {
-                throw new EPException("Error executing statement '" + preparedStatementText + '\'', ex);
+                throw new EPException("Error executing statement '" + statementText + '\'', ex);
             }
         }
+        return resultSet;
+    }
 
-        // generate events for result set
-        List<EventBean> rows = new LinkedList<EventBean>();
+    /**
+     * Generate events for the rows of the result set.
+     *
+     * @param resultSet     result set
+     * @param statementText statement text for logging
+     * @param batch         true if the first column is the index of the key the row is for
+     * @param rowsPerKey    lists to add events to, one list per key
+     */
+    protected void readRows(ResultSet resultSet, String statementText, boolean batch, List<EventBean>[] rowsPerKey) {
         try {
             SQLColumnValueContext valueContext = null;
             if (columnTypeConversionHook != null) {
@@ -179,8 +241,9 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
                 rowContext = new SQLOutputRowValueContext();
             }
 
-            int rowNum = 0;
+            int[] rowNums = new int[rowsPerKey.length];
             while (resultSet.next()) {
+                int key = batch ? resultSet.getInt(1) : 0;
                 int colNum = 1;
                 Map<String, Object> row = new HashMap<String, Object>();
                 for (Map.Entry<String, DBOutputTypeDesc> entry : outputTypes.entrySet()) {
@@ -211,7 +274,7 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
                     eventBeanRow = eventAdapterService.adapterForTypedMap(row, eventType);
                 } else {
                     rowContext.setValues(row);
-                    rowContext.setRowNum(rowNum);
+                    rowContext.setRowNum(rowNums[key]);
                     rowContext.setResultSet(resultSet);
                     Object rowData = outputRowConversionHook.getOutputRow(rowContext);
                     if (rowData != null) {
@@ -220,25 +283,13 @@ public class PollExecStrategyDBQuery implements PollExecStrategy {
                 }
 
                 if (eventBeanRow != null) {
-                    rows.add(eventBeanRow);
-                    rowNum++;
+                    rowsPerKey[key].add(eventBeanRow);
+                    rowNums[key]++;
                 }
             }
         } catch (SQLException ex) {
-            throw new EPException("Error reading results for statement '" + preparedStatementText + '\'', ex);
-        }
-
-        if (enableJDBCLogging && JDBC_PERF_LOG.isInfoEnabled()) {
-            JDBC_PERF_LOG.info("Statement '" + preparedStatementText + "' " + rows.size() + " rows");
-        }
-
-        try {
-            resultSet.close();
-        } catch (SQLException ex) {
-            throw new EPException("Error closing statement '" + preparedStatementText + '\'', ex);
+            throw new EPException("Error reading results for statement '" + statementText + '\'', ex);
         }
-
-        return rows;
     }
 
     private void setObject(PreparedStatement preparedStatement, int column, Object value) throws SQLException {
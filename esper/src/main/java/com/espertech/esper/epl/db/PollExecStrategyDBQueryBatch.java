@@ -0,0 +1,238 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.hook.SQLColumnTypeConversion;
+import com.espertech.esper.client.hook.SQLOutputRowConversion;
+import com.espertech.esper.collection.Pair;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.event.EventAdapterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database polling strategy that queries multiple keys in a single query, by combining the query for each key
+ * using "union all" and selecting the index of the key as the first column.
+ * <p>
+ * The query for each number of keys is prepared once per connection and kept until the connection is closed
+ * or the strategy is destroyed, so at most as many statements per connection as the poll batch size.
+ * </p>
+ */
+public class PollExecStrategyDBQueryBatch extends PollExecStrategyDBQuery implements PollExecStrategyBatch {
+    private static final Logger log = LoggerFactory.getLogger(PollExecStrategyDBQueryBatch.class);
+
+    /**
+     * Name of the column holding the index of the key in a batch query.
+     */
+    public static final String BATCH_KEY_COLUMN = "esper_batch_key";
+
+    private final int pollBatchSize;
+    private final String[] batchSQLPerNumKeys;
+    private final Map<Connection, Map<Integer, PreparedStatement>> batchStatements = new IdentityHashMap<Connection, Map<Integer, PreparedStatement>>();
+
+    /**
+     * Ctor.
+     *
+     * @param eventAdapterService      for generating event beans
+     * @param eventType                is the event type that this poll generates
+     * @param connectionCache          caches Connection and PreparedStatement
+     * @param preparedStatementText    is the SQL to use for polling
+     * @param outputTypes              describe columns selected by the SQL
+     * @param outputRowConversionHook  hook to convert rows, if any hook is registered
+     * @param columnTypeConversionHook hook to convert columns, if any hook is registered
+     * @param enableJDBCLogging        jdbc logging flag
+     * @param pollBatchSize            maximum number of keys per query
+     */
+    public PollExecStrategyDBQueryBatch(EventAdapterService eventAdapterService,
+                                        EventType eventType,
+                                        ConnectionCache connectionCache,
+                                        String preparedStatementText,
+                                        Map<String, DBOutputTypeDesc> outputTypes,
+                                        SQLColumnTypeConversion columnTypeConversionHook,
+                                        SQLOutputRowConversion outputRowConversionHook,
+                                        boolean enableJDBCLogging,
+                                        int pollBatchSize) {
+        super(eventAdapterService, eventType, connectionCache, preparedStatementText, outputTypes, columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging);
+        this.pollBatchSize = pollBatchSize;
+        this.batchSQLPerNumKeys = new String[pollBatchSize + 1];
+    }
+
+    public int getPollBatchSize() {
+        return pollBatchSize;
+    }
+
+    public void done() {
+        Pair<Connection, PreparedStatement> pair = resources.get();
+        super.done();
+        if (pair == null) {
+            return;
+        }
+        // statements of a connection closed by the connection cache are closed with it
+        boolean closed;
+        try {
+            closed = pair.getFirst().isClosed();
+        } catch (SQLException ex) {
+            closed = true;
+        }
+        if (closed) {
+            synchronized (batchStatements) {
+                batchStatements.remove(pair.getFirst());
+            }
+        }
+    }
+
+    public void destroy() {
+        synchronized (batchStatements) {
+            for (Map<Integer, PreparedStatement> statements : batchStatements.values()) {
+                for (PreparedStatement statement : statements.values()) {
+                    closeStatement(statement);
+                }
+            }
+            batchStatements.clear();
+        }
+        super.destroy();
+    }
+
+    public List<EventBean>[] pollBatch(List<Object[]> lookupValuesPerKey, ExprEvaluatorContext exprEvaluatorContext) {
+        Pair<Connection, PreparedStatement> pair = resources.get();
+        try {
+            if (connectionCache.isConcurrent()) {
+                return executeBatch(pair.getFirst(), lookupValuesPerKey);
+            }
+            synchronized (this) {
+                return executeBatch(pair.getFirst(), lookupValuesPerKey);
+            }
+        } catch (EPException ex) {
+            done();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the query combining the query for each key.
+     *
+     * @param preparedStatementText query for a single key
+     * @param numKeys               number of keys
+     * @return batch query
+     */
+    public static String getBatchSQL(String preparedStatementText, int numKeys) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < numKeys; i++) {
+            if (i > 0) {
+                builder.append(" union all ");
+            }
+            builder.append("select ").append(i).append(" as ").append(BATCH_KEY_COLUMN)
+                    .append(", esper_batch_").append(i).append(".* from (")
+                    .append(preparedStatementText)
+                    .append(") esper_batch_").append(i);
+        }
+        return builder.toString();
+    }
+
+    private List<EventBean>[] executeBatch(Connection connection, List<Object[]> lookupValuesPerKey) {
+        String batchSQL = batchSQLPerNumKeys[lookupValuesPerKey.size()];
+        if (batchSQL == null) {
+            batchSQL = getBatchSQL(preparedStatementText, lookupValuesPerKey.size());
+            batchSQLPerNumKeys[lookupValuesPerKey.size()] = batchSQL;
+        }
+        boolean hasJDBCLogging = enableJDBCLogging && JDBC_PERF_LOG.isInfoEnabled();
+
+        PreparedStatement preparedStatement = getBatchStatement(connection, lookupValuesPerKey.size(), batchSQL);
+        boolean success = false;
+        try {
+            Object[] parameters = null;
+            if (hasJDBCLogging) {
+                int numParameters = 0;
+                for (Object[] lookupValues : lookupValuesPerKey) {
+                    numParameters += lookupValues.length;
+                }
+                parameters = new Object[numParameters];
+            }
+            int offset = 0;
+            for (Object[] lookupValues : lookupValuesPerKey) {
+                setParameters(preparedStatement, lookupValues, offset, parameters);
+                offset += lookupValues.length;
+            }
+
+            ResultSet resultSet = executeQuery(preparedStatement, batchSQL, hasJDBCLogging, parameters);
+
+            List<EventBean>[] rowsPerKey = (List<EventBean>[]) new List[lookupValuesPerKey.size()];
+            for (int i = 0; i < rowsPerKey.length; i++) {
+                rowsPerKey[i] = new LinkedList<EventBean>();
+            }
+            readRows(resultSet, batchSQL, true, rowsPerKey);
+
+            if (hasJDBCLogging) {
+                JDBC_PERF_LOG.info("Statement '" + batchSQL + "' for " + rowsPerKey.length + " keys");
+            }
+
+            try {
+                resultSet.close();
+            } catch (SQLException ex) {
+                throw new EPException("Error closing statement '" + batchSQL + '\'', ex);
+            }
+            success = true;
+            return rowsPerKey;
+        } finally {
+            if (!success) {
+                // do not reuse a statement that failed
+                synchronized (batchStatements) {
+                    Map<Integer, PreparedStatement> statements = batchStatements.get(connection);
+                    if (statements != null) {
+                        statements.remove(lookupValuesPerKey.size());
+                    }
+                }
+                closeStatement(preparedStatement);
+            }
+        }
+    }
+
+    private PreparedStatement getBatchStatement(Connection connection, int numKeys, String batchSQL) {
+        synchronized (batchStatements) {
+            Map<Integer, PreparedStatement> statements = batchStatements.get(connection);
+            if (statements == null) {
+                statements = new HashMap<Integer, PreparedStatement>();
+                batchStatements.put(connection, statements);
+            }
+            PreparedStatement preparedStatement = statements.get(numKeys);
+            if (preparedStatement == null) {
+                try {
+                    preparedStatement = connection.prepareStatement(batchSQL);
+                } catch (SQLException ex) {
+                    throw new EPException("Error preparing statement '" + batchSQL + '\'', ex);
+                }
+                statements.put(numKeys, preparedStatement);
+            }
+            return preparedStatement;
+        }
+    }
+
+    private static void closeStatement(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch (SQLException ex) {
+            log.warn("Error closing statement: " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -239,6 +239,23 @@ public abstract class ExprAggregateNodeBase extends ExprNodeBase implements Expr
         return childType;
     }
 
+    /**
+     * For use by aggregation functions that cannot remove values, such as sketch-based approximate aggregations,
+     * validates that the child expression does not receive a remove stream.
+     *
+     * @param child             expression providing aggregated values
+     * @param validationContext validation context
+     * @throws ExprValidationException if a data window or other remove stream applies
+     */
+    protected final void validateNoRemoveStream(ExprNode child, ExprValidationContext validationContext) throws ExprValidationException {
+        if (validationContext.getExprEvaluatorContext().getStatementType() == StatementType.CREATE_TABLE) {
+            return;
+        }
+        if (ExprNodeUtility.hasRemoveStreamForAggregations(child, validationContext.getStreamTypeService(), validationContext.isResettingAggregations())) {
+            throw new ExprValidationException("The '" + getAggregationFunctionName() + "' aggregation function does not support removing values and cannot be used with a data window");
+        }
+    }
+
     protected ExprValidationException makeExceptionExpectedParamNum(int lower, int upper) {
         String message = "The '" + getAggregationFunctionName() + "' function expects ";
         if (lower == 0 && upper == 0) {
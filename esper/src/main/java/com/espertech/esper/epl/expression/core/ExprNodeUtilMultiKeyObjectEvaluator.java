@@ -0,0 +1,63 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKeyObject;
+import com.espertech.esper.collection.MultiKeyObject2;
+import com.espertech.esper.collection.MultiKeyObject3;
+import com.espertech.esper.collection.MultiKeyObjectArray;
+import com.espertech.esper.collection.MultiKeyPrimitiveFactory;
+
+/**
+ * Evaluates two or more expressions into a composite key of {@link MultiKeyObject} type, for expressions that
+ * do not all return a primitive type or that are more than three.
+ */
+public class ExprNodeUtilMultiKeyObjectEvaluator implements ExprEvaluator {
+    private final ExprEvaluator[] evaluators;
+
+    public ExprNodeUtilMultiKeyObjectEvaluator(ExprEvaluator[] evaluators) {
+        this.evaluators = evaluators;
+    }
+
+    public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        if (evaluators.length == 2) {
+            return new MultiKeyObject2(evaluators[0].evaluate(eventsPerStream, isNewData, context), evaluators[1].evaluate(eventsPerStream, isNewData, context));
+        }
+        if (evaluators.length == 3) {
+            return new MultiKeyObject3(evaluators[0].evaluate(eventsPerStream, isNewData, context), evaluators[1].evaluate(eventsPerStream, isNewData, context), evaluators[2].evaluate(eventsPerStream, isNewData, context));
+        }
+        Object[] keys = new Object[evaluators.length];
+        for (int i = 0; i < evaluators.length; i++) {
+            keys[i] = evaluators[i].evaluate(eventsPerStream, isNewData, context);
+        }
+        return new MultiKeyObjectArray(keys);
+    }
+
+    /**
+     * Returns the composite key evaluator for the expressions: a primitive key evaluator when the expressions
+     * qualify for a primitive key, an object key evaluator otherwise, or null for fewer than two expressions.
+     *
+     * @param nodes      expressions
+     * @param evaluators expression evaluators
+     * @return evaluator or null
+     */
+    public static ExprEvaluator getEvaluator(ExprNode[] nodes, ExprEvaluator[] evaluators) {
+        if (nodes.length < 2) {
+            return null;
+        }
+        MultiKeyPrimitiveFactory keyFactory = ExprNodeUtilMultiKeyPrimitiveEvaluator.getFactory(nodes);
+        if (keyFactory != null) {
+            return new ExprNodeUtilMultiKeyPrimitiveEvaluator(evaluators, keyFactory);
+        }
+        return new ExprNodeUtilMultiKeyObjectEvaluator(evaluators);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKeyPrimitiveFactory;
+
+/**
+ * Evaluates two or three expressions of primitive type into a composite key made by {@link MultiKeyPrimitiveFactory}.
+ */
+public class ExprNodeUtilMultiKeyPrimitiveEvaluator implements ExprEvaluator {
+    private final ExprEvaluator[] evaluators;
+    private final MultiKeyPrimitiveFactory factory;
+
+    public ExprNodeUtilMultiKeyPrimitiveEvaluator(ExprEvaluator[] evaluators, MultiKeyPrimitiveFactory factory) {
+        this.evaluators = evaluators;
+        this.factory = factory;
+    }
+
+    public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        Object v0 = evaluators[0].evaluate(eventsPerStream, isNewData, context);
+        Object v1 = evaluators[1].evaluate(eventsPerStream, isNewData, context);
+        if (evaluators.length == 2) {
+            return factory.makeKey(v0, v1);
+        }
+        return factory.makeKey(v0, v1, evaluators[2].evaluate(eventsPerStream, isNewData, context));
+    }
+
+    /**
+     * Returns the key factory for the expression result types, or null when the expressions do not qualify for a primitive key.
+     *
+     * @param nodes expressions
+     * @return factory or null
+     */
+    public static MultiKeyPrimitiveFactory getFactory(ExprNode[] nodes) {
+        if (nodes.length < 2 || nodes.length > 3) {
+            return null;
+        }
+        return MultiKeyPrimitiveFactory.make(ExprNodeUtility.getExprResultTypes(nodes));
+    }
+}
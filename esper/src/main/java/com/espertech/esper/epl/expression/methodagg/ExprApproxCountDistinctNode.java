@@ -0,0 +1,85 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.approx.HyperLogLogState;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the approxCountDistinct(...) aggregate function, estimating the number of distinct values using
+ * HyperLogLog, is an expression tree.
+ */
+public class ExprApproxCountDistinctNode extends ExprAggregateNodeBase {
+    private static final long serialVersionUID = -6318416620946207350L;
+
+    /**
+     * Ctor.
+     *
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprApproxCountDistinctNode(boolean distinct) {
+        super(distinct);
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException {
+        String message = "The " + getAggregationFunctionName() + " aggregation function requires an expression returning aggregation values and an optional precision constant";
+        if (positionalParams.length == 0 || positionalParams.length > 2) {
+            throw new ExprValidationException(message);
+        }
+        if (isDistinct()) {
+            throw new ExprValidationException("The " + getAggregationFunctionName() + " aggregation function does not support distinct values");
+        }
+
+        ExprNode first = positionalParams[0];
+        Class childType = first.getForge().getEvaluationType();
+
+        int precision = HyperLogLogState.PRECISION_DEFAULT;
+        if (positionalParams.length == 2) {
+            ExprNode second = positionalParams[1];
+            if (!second.isConstantResult() || !JavaClassHelper.isNumericNonFP(second.getForge().getEvaluationType())) {
+                throw new ExprValidationException(message);
+            }
+            Number num = (Number) second.getForge().getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+            if (num == null || num.intValue() < HyperLogLogState.PRECISION_MIN || num.intValue() > HyperLogLogState.PRECISION_MAX) {
+                throw new ExprValidationException("The " + getAggregationFunctionName() + " aggregation function requires a precision between " +
+                        HyperLogLogState.PRECISION_MIN + " and " + HyperLogLogState.PRECISION_MAX + " but received " + num);
+            }
+            precision = num.intValue();
+        }
+        validateNoRemoveStream(first, validationContext);
+
+        if (optionalFilter != null) {
+            validateFilter(optionalFilter.getForge());
+            this.positionalParams = ExprNodeUtility.addExpression(positionalParams, optionalFilter);
+        }
+
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeApproxCountDistinct(validationContext.getStatementExtensionSvcContext(), this, childType, precision);
+    }
+
+    public String getAggregationFunctionName() {
+        return "approxCountDistinct";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node) {
+        return node instanceof ExprApproxCountDistinctNode;
+    }
+
+    protected boolean isFilterExpressionAsLastParameter() {
+        return false;
+    }
+}
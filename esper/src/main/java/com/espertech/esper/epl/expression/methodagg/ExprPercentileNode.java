@@ -0,0 +1,124 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the percentile(...) and percentiles(...) aggregate functions, and their approxPercentile(...) and
+ * approxPercentiles(...) t-digest counterparts, is an expression tree.
+ */
+public class ExprPercentileNode extends ExprAggregateNodeBase {
+    private static final long serialVersionUID = 3950338512744623718L;
+
+    private final boolean multiple;
+    private final boolean approximate;
+
+    /**
+     * Ctor.
+     *
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     * @param multiple - true for percentiles(...) returning an array of values, false for percentile(...) returning a single value
+     * @param approximate - true for the approximate functions that keep a t-digest instead of all values
+     */
+    public ExprPercentileNode(boolean distinct, boolean multiple, boolean approximate) {
+        super(distinct);
+        this.multiple = multiple;
+        this.approximate = approximate;
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException {
+        String message = multiple ?
+                "The " + getAggregationFunctionName() + " aggregation function requires an expression returning aggregation values and one or more percentile constants" :
+                "The " + getAggregationFunctionName() + " aggregation function requires two parameters, an expression returning aggregation values and a percentile constant";
+        if (positionalParams.length < 2 || (!multiple && positionalParams.length != 2)) {
+            throw new ExprValidationException(message);
+        }
+
+        ExprNode first = positionalParams[0];
+        Class childType = first.getForge().getEvaluationType();
+        if (!JavaClassHelper.isNumeric(childType)) {
+            throw new ExprValidationException("Implicit conversion from datatype '" +
+                    (childType == null ? "null" : childType.getSimpleName()) +
+                    "' to numeric is not allowed for aggregation function '" + getAggregationFunctionName() + "'");
+        }
+        if (approximate) {
+            if (isDistinct()) {
+                throw new ExprValidationException("The " + getAggregationFunctionName() + " aggregation function does not support distinct values");
+            }
+            validateNoRemoveStream(first, validationContext);
+        }
+
+        double[] percents = new double[positionalParams.length - 1];
+        for (int i = 1; i < positionalParams.length; i++) {
+            ExprNode param = positionalParams[i];
+            if (!param.isConstantResult() || !JavaClassHelper.isNumeric(param.getForge().getEvaluationType())) {
+                throw new ExprValidationException(message);
+            }
+            Number num = (Number) param.getForge().getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+            if (num == null || num.doubleValue() < 0 || num.doubleValue() > 100) {
+                throw new ExprValidationException("The " + getAggregationFunctionName() + " aggregation function requires a percentile constant between 0 and 100 but received " + num);
+            }
+            percents[i - 1] = num.doubleValue();
+        }
+
+        if (optionalFilter != null) {
+            validateFilter(optionalFilter.getForge());
+            this.positionalParams = ExprNodeUtility.addExpression(positionalParams, optionalFilter);
+        }
+
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makePercentile(validationContext.getStatementExtensionSvcContext(), this, childType, percents);
+    }
+
+    public String getAggregationFunctionName() {
+        if (approximate) {
+            return multiple ? "approxPercentiles" : "approxPercentile";
+        }
+        return multiple ? "percentiles" : "percentile";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node) {
+        if (!(node instanceof ExprPercentileNode)) {
+            return false;
+        }
+        ExprPercentileNode other = (ExprPercentileNode) node;
+        return other.multiple == multiple && other.approximate == approximate;
+    }
+
+    /**
+     * Returns true for percentiles(...) returning an array of values.
+     *
+     * @return multiple flag
+     */
+    public boolean isMultiple() {
+        return multiple;
+    }
+
+    /**
+     * Returns true for the approximate functions that keep a t-digest.
+     *
+     * @return approximate flag
+     */
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    protected boolean isFilterExpressionAsLastParameter() {
+        return false;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.fafquery;
+
+import com.espertech.esper.epl.table.mgmt.TableColumnarStore;
+import com.espertech.esper.util.SimpleNumberCoercer;
+import com.espertech.esper.util.SimpleNumberCoercerFactory;
+
+/**
+ * Aggregation function evaluated over the column array of a columnar table, for the slots that pass the where-clause.
+ * <p>
+ * Results are the same as those of the aggregators: null values are ignored, sum, average, minimum and maximum
+ * are null when there are no non-null values, and values are returned as the result type of the aggregation function.
+ * </p>
+ */
+public class FireAndForgetColumnarAggregation {
+
+    public enum Kind {
+        COUNT_ALL,
+        COUNT,
+        SUM,
+        AVG,
+        MIN,
+        MAX
+    }
+
+    private final Kind kind;
+    private final String columnName;
+    private final SimpleNumberCoercer coercer;
+
+    /**
+     * Ctor.
+     *
+     * @param kind       aggregation function
+     * @param columnName column name, or null for count of rows
+     * @param resultType boxed result type of the aggregation function
+     */
+    public FireAndForgetColumnarAggregation(Kind kind, String columnName, Class resultType) {
+        this.kind = kind;
+        this.columnName = columnName;
+        this.coercer = SimpleNumberCoercerFactory.getCoercer(null, resultType);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * Aggregates the slots.
+     *
+     * @param store columnar store
+     * @param sel   slots to aggregate, or null to aggregate slots zero to count less one
+     * @param count number of slots
+     * @return aggregation result
+     */
+    public Object aggregate(TableColumnarStore store, int[] sel, int count) {
+        if (kind == Kind.COUNT_ALL) {
+            return coercer.coerceBoxed((long) count);
+        }
+        int columnNum = store.getColumnNum(columnName);
+        boolean[] nulls = store.getNulls(columnNum);
+        Number result;
+        if (store.isFloating(columnNum)) {
+            result = aggregateDouble(store.getDoubles(columnNum), nulls, sel, count, store.getColumnType(columnNum) == Float.class);
+        } else {
+            result = aggregateLong(store.getLongs(columnNum), nulls, sel, count);
+        }
+        return result == null ? null : coercer.coerceBoxed(result);
+    }
+
+    private Number aggregateLong(long[] values, boolean[] nulls, int[] sel, int count) {
+        long numValues = 0;
+        switch (kind) {
+            case COUNT:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        numValues++;
+                    }
+                }
+                return numValues;
+            case SUM:
+                long sum = 0;
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        sum += values[i];
+                        numValues++;
+                    }
+                }
+                return numValues == 0 ? null : sum;
+            case AVG:
+                double total = 0;
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        total += (double) values[i];
+                        numValues++;
+                    }
+                }
+                return numValues == 0 ? null : total / numValues;
+            case MIN:
+                long min = Long.MAX_VALUE;
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        if (values[i] < min) {
+                            min = values[i];
+                        }
+                        numValues++;
+                    }
+                }
+                return numValues == 0 ? null : min;
+            case MAX:
+                long max = Long.MIN_VALUE;
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        if (values[i] > max) {
+                            max = values[i];
+                        }
+                        numValues++;
+                    }
+                }
+                return numValues == 0 ? null : max;
+            default:
+                throw new IllegalStateException("Unrecognized aggregation " + kind);
+        }
+    }
+
+    private Number aggregateDouble(double[] values, boolean[] nulls, int[] sel, int count, boolean isFloat) {
+        long numValues = 0;
+        switch (kind) {
+            case COUNT:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        numValues++;
+                    }
+                }
+                return numValues;
+            case SUM:
+                if (isFloat) {
+                    // the float aggregator sums in float precision
+                    float sumFloat = 0;
+                    for (int k = 0; k < count; k++) {
+                        int i = sel == null ? k : sel[k];
+                        if (!nulls[i]) {
+                            sumFloat += (float) values[i];
+                            numValues++;
+                        }
+                    }
+                    return numValues == 0 ? null : sumFloat;
+                }
+                double sum = 0;
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        sum += values[i];
+                        numValues++;
+                    }
+                }
+                return numValues == 0 ? null : sum;
+            case AVG:
+                double total = 0;
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        total += values[i];
+                        numValues++;
+                    }
+                }
+                return numValues == 0 ? null : total / numValues;
+            case MIN:
+                double min = 0;
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        if (numValues == 0 || Double.compare(values[i], min) < 0) {
+                            min = values[i];
+                        }
+                        numValues++;
+                    }
+                }
+                return numValues == 0 ? null : min;
+            case MAX:
+                double max = 0;
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i]) {
+                        if (numValues == 0 || Double.compare(values[i], max) > 0) {
+                            max = values[i];
+                        }
+                        numValues++;
+                    }
+                }
+                return numValues == 0 ? null : max;
+            default:
+                throw new IllegalStateException("Unrecognized aggregation " + kind);
+        }
+    }
+}
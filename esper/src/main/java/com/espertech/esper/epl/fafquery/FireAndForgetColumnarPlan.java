@@ -0,0 +1,303 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.fafquery;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.core.ExprConstantNode;
+import com.espertech.esper.epl.expression.core.ExprIdentNode;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprWildcard;
+import com.espertech.esper.epl.expression.methodagg.ExprAvgNode;
+import com.espertech.esper.epl.expression.methodagg.ExprCountNode;
+import com.espertech.esper.epl.expression.methodagg.ExprMinMaxAggrNode;
+import com.espertech.esper.epl.expression.methodagg.ExprSumNode;
+import com.espertech.esper.epl.expression.ops.ExprAndNode;
+import com.espertech.esper.epl.expression.ops.ExprEqualsNode;
+import com.espertech.esper.epl.expression.ops.ExprRelationalOpNode;
+import com.espertech.esper.epl.spec.SelectClauseElementCompiled;
+import com.espertech.esper.epl.spec.SelectClauseExprCompiledSpec;
+import com.espertech.esper.epl.spec.StatementSpecCompiled;
+import com.espertech.esper.epl.spec.TableQueryStreamSpec;
+import com.espertech.esper.epl.table.mgmt.TableColumnarStore;
+import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumn;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumnPlain;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.type.MinMaxTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plan for a fire-and-forget query against a single columnar table that runs as loops over the column arrays.
+ * <p>
+ * Planning succeeds when the where-clause is absent or a conjunction of comparisons between a numeric column and a constant,
+ * and when either the where-clause is present or the select-clause consists of count, sum, avg, min and max of numeric columns only.
+ * For aggregating queries the plan computes the single result row. Other queries receive the rows that pass the where-clause
+ * for processing by the result set processor, in place of evaluating the where-clause for each row.
+ * </p>
+ */
+public class FireAndForgetColumnarPlan {
+    private final FireAndForgetColumnarPredicate[] predicates;
+    private final FireAndForgetColumnarAggregation[] aggregations;
+
+    private FireAndForgetColumnarPlan(FireAndForgetColumnarPredicate[] predicates, FireAndForgetColumnarAggregation[] aggregations) {
+        this.predicates = predicates;
+        this.aggregations = aggregations;
+    }
+
+    /**
+     * Plans the query.
+     *
+     * @param statementSpec   validated query
+     * @param tableMetadata   table
+     * @param resultEventType result event type of the query
+     * @return plan or null when the query does not run against column arrays
+     */
+    public static FireAndForgetColumnarPlan plan(StatementSpecCompiled statementSpec, TableMetadata tableMetadata, EventType resultEventType) {
+        if (!tableMetadata.isColumnar() || tableMetadata.getContextName() != null || statementSpec.getOptionalContextName() != null) {
+            return null;
+        }
+        if (statementSpec.getStreamSpecs().length != 1 || !(statementSpec.getStreamSpecs()[0] instanceof TableQueryStreamSpec)) {
+            return null;
+        }
+        if (!((TableQueryStreamSpec) statementSpec.getStreamSpecs()[0]).getFilterExpressions().isEmpty()) {
+            return null;
+        }
+
+        List<FireAndForgetColumnarPredicate> predicates = new ArrayList<FireAndForgetColumnarPredicate>();
+        if (statementSpec.getFilterRootNode() != null && !planPredicates(statementSpec.getFilterRootNode(), tableMetadata, predicates)) {
+            return null;
+        }
+        FireAndForgetColumnarAggregation[] aggregations = planAggregations(statementSpec, tableMetadata, resultEventType);
+        if (aggregations == null && predicates.isEmpty()) {
+            return null;
+        }
+        return new FireAndForgetColumnarPlan(predicates.toArray(new FireAndForgetColumnarPredicate[predicates.size()]), aggregations);
+    }
+
+    /**
+     * Returns indicator whether the plan computes the result row, or whether it returns rows for the result set processor.
+     *
+     * @return indicator
+     */
+    public boolean isAggregating() {
+        return aggregations != null;
+    }
+
+    /**
+     * Returns the result row of an aggregating plan.
+     *
+     * @param store               columnar store
+     * @param resultEventType     result event type
+     * @param eventAdapterService event adapters
+     * @return result row
+     */
+    public EventBean aggregate(TableColumnarStore store, EventType resultEventType, EventAdapterService eventAdapterService) {
+        int count = store.getSize();
+        int[] sel = null;
+        if (predicates.length > 0) {
+            sel = new int[count];
+            count = filter(store, sel);
+        }
+
+        Object[] values = new Object[aggregations.length];
+        for (int i = 0; i < aggregations.length; i++) {
+            values[i] = aggregations[i].aggregate(store, sel, count);
+        }
+        if (resultEventType instanceof ObjectArrayEventType) {
+            return eventAdapterService.adapterForTypedObjectArray(values, resultEventType);
+        }
+        String[] propertyNames = resultEventType.getPropertyNames();
+        Map<String, Object> props = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < values.length; i++) {
+            props.put(propertyNames[i], values[i]);
+        }
+        return eventAdapterService.adapterForTypedMap(props, resultEventType);
+    }
+
+    /**
+     * Returns the rows that pass the where-clause.
+     *
+     * @param store columnar store
+     * @return rows
+     */
+    public EventBean[] select(TableColumnarStore store) {
+        int[] sel = new int[store.getSize()];
+        int count = filter(store, sel);
+        EventBean[] rows = store.getRows();
+        EventBean[] result = new EventBean[count];
+        for (int k = 0; k < count; k++) {
+            result[k] = rows[sel[k]];
+        }
+        return result;
+    }
+
+    private int filter(TableColumnarStore store, int[] out) {
+        int count = store.getSize();
+        int[] sel = null;
+        for (FireAndForgetColumnarPredicate predicate : predicates) {
+            count = predicate.filter(store, sel, count, out);
+            sel = out;
+        }
+        return count;
+    }
+
+    private static boolean planPredicates(ExprNode node, TableMetadata tableMetadata, List<FireAndForgetColumnarPredicate> predicates) {
+        if (node instanceof ExprAndNode) {
+            for (ExprNode child : node.getChildNodes()) {
+                if (!planPredicates(child, tableMetadata, predicates)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        FireAndForgetColumnarPredicate.Op op;
+        if (node instanceof ExprEqualsNode) {
+            ExprEqualsNode equals = (ExprEqualsNode) node;
+            if (equals.isIs()) {
+                return false;
+            }
+            op = equals.isNotEquals() ? FireAndForgetColumnarPredicate.Op.NE : FireAndForgetColumnarPredicate.Op.EQ;
+        } else if (node instanceof ExprRelationalOpNode) {
+            op = null;
+        } else {
+            return false;
+        }
+
+        ExprNode lhs = node.getChildNodes()[0];
+        ExprNode rhs = node.getChildNodes()[1];
+        boolean reversed = false;
+        String columnName = getColumnarColumn(lhs, tableMetadata);
+        Number constant = getNumericConstant(rhs);
+        if (columnName == null || constant == null) {
+            columnName = getColumnarColumn(rhs, tableMetadata);
+            constant = getNumericConstant(lhs);
+            reversed = true;
+        }
+        if (columnName == null || constant == null) {
+            return false;
+        }
+
+        if (op == null) {
+            RelationalOpEnum relOp = ((ExprRelationalOpNode) node).getRelationalOpEnum();
+            if (reversed) {
+                relOp = relOp.reversed();
+            }
+            if (relOp == RelationalOpEnum.GT) {
+                op = FireAndForgetColumnarPredicate.Op.GT;
+            } else if (relOp == RelationalOpEnum.GE) {
+                op = FireAndForgetColumnarPredicate.Op.GE;
+            } else if (relOp == RelationalOpEnum.LT) {
+                op = FireAndForgetColumnarPredicate.Op.LT;
+            } else {
+                op = FireAndForgetColumnarPredicate.Op.LE;
+            }
+        }
+        predicates.add(new FireAndForgetColumnarPredicate(columnName, op, constant, JavaClassHelper.isFloatingPointClass(constant.getClass())));
+        return true;
+    }
+
+    private static FireAndForgetColumnarAggregation[] planAggregations(StatementSpecCompiled statementSpec, TableMetadata tableMetadata, EventType resultEventType) {
+        if (statementSpec.getGroupByExpressions() != null && statementSpec.getGroupByExpressions().getGroupByNodes().length > 0) {
+            return null;
+        }
+        if (statementSpec.getHavingExprRootNode() != null || statementSpec.getRowLimitSpec() != null || statementSpec.getSelectClauseSpec().isDistinct()) {
+            return null;
+        }
+        if (statementSpec.getOrderByList() != null && statementSpec.getOrderByList().length > 0) {
+            return null;
+        }
+        if (!(resultEventType instanceof ObjectArrayEventType) && !(resultEventType instanceof MapEventType)) {
+            return null;
+        }
+
+        SelectClauseElementCompiled[] elements = statementSpec.getSelectClauseSpec().getSelectExprList();
+        if (elements.length == 0 || resultEventType.getPropertyNames().length != elements.length) {
+            return null;
+        }
+        FireAndForgetColumnarAggregation[] aggregations = new FireAndForgetColumnarAggregation[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            if (!(elements[i] instanceof SelectClauseExprCompiledSpec)) {
+                return null;
+            }
+            ExprNode expression = ((SelectClauseExprCompiledSpec) elements[i]).getSelectExpression();
+            if (!(expression instanceof ExprAggregateNode)) {
+                return null;
+            }
+            ExprAggregateNode aggregateNode = (ExprAggregateNode) expression;
+            if (aggregateNode.isDistinct() || aggregateNode.getOptionalLocalGroupBy() != null || aggregateNode.getPositionalParams().length != 1) {
+                return null;
+            }
+
+            ExprNode param = aggregateNode.getPositionalParams()[0];
+            String columnName = getColumnarColumn(param, tableMetadata);
+            FireAndForgetColumnarAggregation.Kind kind;
+            if (aggregateNode instanceof ExprCountNode) {
+                if (param instanceof ExprWildcard) {
+                    kind = FireAndForgetColumnarAggregation.Kind.COUNT_ALL;
+                } else {
+                    kind = FireAndForgetColumnarAggregation.Kind.COUNT;
+                }
+            } else if (aggregateNode instanceof ExprSumNode) {
+                kind = FireAndForgetColumnarAggregation.Kind.SUM;
+            } else if (aggregateNode instanceof ExprAvgNode) {
+                kind = FireAndForgetColumnarAggregation.Kind.AVG;
+            } else if (aggregateNode instanceof ExprMinMaxAggrNode) {
+                kind = ((ExprMinMaxAggrNode) aggregateNode).getMinMaxTypeEnum() == MinMaxTypeEnum.MIN ? FireAndForgetColumnarAggregation.Kind.MIN : FireAndForgetColumnarAggregation.Kind.MAX;
+            } else {
+                return null;
+            }
+            if (kind != FireAndForgetColumnarAggregation.Kind.COUNT_ALL && columnName == null) {
+                return null;
+            }
+            Class resultType = JavaClassHelper.getBoxedType(aggregateNode.getForge().getEvaluationType());
+            aggregations[i] = new FireAndForgetColumnarAggregation(kind, columnName, resultType);
+        }
+        return aggregations;
+    }
+
+    private static String getColumnarColumn(ExprNode node, TableMetadata tableMetadata) {
+        if (!(node instanceof ExprIdentNode)) {
+            return null;
+        }
+        ExprIdentNode identNode = (ExprIdentNode) node;
+        if (identNode.getStreamId() != 0) {
+            return null;
+        }
+        TableMetadataColumn column = tableMetadata.getTableColumns().get(identNode.getResolvedPropertyName());
+        if (!(column instanceof TableMetadataColumnPlain)) {
+            return null;
+        }
+        Class type = JavaClassHelper.getBoxedType(tableMetadata.getInternalEventType().getPropertyType(column.getColumnName()));
+        return TableColumnarStore.isColumnarType(type) ? column.getColumnName() : null;
+    }
+
+    private static Number getNumericConstant(ExprNode node) {
+        if (!(node instanceof ExprConstantNode) || !((ExprConstantNode) node).isConstantValue()) {
+            return null;
+        }
+        Object value = ((ExprConstantNode) node).getConstantValue(null);
+        if (value == null || !TableColumnarStore.isColumnarType(value.getClass())) {
+            return null;
+        }
+        return (Number) value;
+    }
+}
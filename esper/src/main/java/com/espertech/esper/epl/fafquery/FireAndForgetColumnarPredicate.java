@@ -0,0 +1,246 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.fafquery;
+
+import com.espertech.esper.epl.table.mgmt.TableColumnarStore;
+
+/**
+ * Comparison of a numeric table column against a constant, evaluated over the column array of a columnar table.
+ * <p>
+ * Comparisons follow the coercion of the equals and relational operators: integral column values compare as long
+ * unless the constant is floating-point, in which case values compare as double. Equality of double values
+ * compares as {@link Double#equals(Object)} does. Null column values never pass.
+ * </p>
+ */
+public class FireAndForgetColumnarPredicate {
+
+    public enum Op {
+        EQ,
+        NE,
+        LT,
+        LE,
+        GT,
+        GE
+    }
+
+    private final String columnName;
+    private final Op op;
+    private final boolean constantFloating;
+    private final long longConstant;
+    private final double doubleConstant;
+
+    public FireAndForgetColumnarPredicate(String columnName, Op op, Number constant, boolean constantFloating) {
+        this.columnName = columnName;
+        this.op = op;
+        this.constantFloating = constantFloating;
+        this.longConstant = constant.longValue();
+        this.doubleConstant = constant.doubleValue();
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    /**
+     * Retains the slots that pass the comparison.
+     *
+     * @param store columnar store
+     * @param sel   slots to test, or null to test slots zero to count less one
+     * @param count number of slots to test
+     * @param out   receives passing slots, may be the same array as the slots to test
+     * @return number of passing slots
+     */
+    public int filter(TableColumnarStore store, int[] sel, int count, int[] out) {
+        int columnNum = store.getColumnNum(columnName);
+        boolean[] nulls = store.getNulls(columnNum);
+        if (store.isFloating(columnNum)) {
+            return filterDouble(store.getDoubles(columnNum), nulls, doubleConstant, op, sel, count, out);
+        }
+        if (constantFloating) {
+            return filterLongAsDouble(store.getLongs(columnNum), nulls, doubleConstant, op, sel, count, out);
+        }
+        return filterLong(store.getLongs(columnNum), nulls, longConstant, op, sel, count, out);
+    }
+
+    private static int filterLong(long[] values, boolean[] nulls, long constant, Op op, int[] sel, int count, int[] out) {
+        int n = 0;
+        switch (op) {
+            case EQ:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] == constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case NE:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] != constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case LT:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] < constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case LE:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] <= constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case GT:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] > constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case GE:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] >= constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            default:
+                throw new IllegalStateException("Unrecognized operator " + op);
+        }
+    }
+
+    private static int filterLongAsDouble(long[] values, boolean[] nulls, double constant, Op op, int[] sel, int count, int[] out) {
+        int n = 0;
+        long constantBits = Double.doubleToLongBits(constant);
+        switch (op) {
+            case EQ:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && Double.doubleToLongBits((double) values[i]) == constantBits) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case NE:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && Double.doubleToLongBits((double) values[i]) != constantBits) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case LT:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && (double) values[i] < constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case LE:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && (double) values[i] <= constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case GT:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && (double) values[i] > constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case GE:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && (double) values[i] >= constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            default:
+                throw new IllegalStateException("Unrecognized operator " + op);
+        }
+    }
+
+    private static int filterDouble(double[] values, boolean[] nulls, double constant, Op op, int[] sel, int count, int[] out) {
+        int n = 0;
+        long constantBits = Double.doubleToLongBits(constant);
+        switch (op) {
+            case EQ:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && Double.doubleToLongBits(values[i]) == constantBits) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case NE:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && Double.doubleToLongBits(values[i]) != constantBits) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case LT:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] < constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case LE:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] <= constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case GT:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] > constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            case GE:
+                for (int k = 0; k < count; k++) {
+                    int i = sel == null ? k : sel[k];
+                    if (!nulls[i] && values[i] >= constant) {
+                        out[n++] = i;
+                    }
+                }
+                return n;
+            default:
+                throw new IllegalStateException("Unrecognized operator " + op);
+        }
+    }
+}
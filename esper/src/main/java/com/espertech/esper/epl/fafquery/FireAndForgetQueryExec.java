@@ -94,6 +94,27 @@ public class FireAndForgetQueryExec {
         return null;
     }
 
+    /**
+     * Returns indicator whether an index serves the hash-key and range entries of the query graph,
+     * for use by queries that would otherwise scan the table.
+     *
+     * @param queryGraph      query graph
+     * @param annotations     annotations
+     * @param indexRepository indexes
+     * @return indicator whether a snapshot would look up an index
+     */
+    public static boolean isIndexed(QueryGraph queryGraph, Annotation[] annotations, EventTableIndexRepository indexRepository) {
+        QueryGraphValue queryGraphValue = queryGraph == null ? null : queryGraph.getGraphValue(QueryGraph.SELF_STREAM, 0);
+        if (queryGraphValue == null || queryGraphValue.getItems().isEmpty()) {
+            return false;
+        }
+        QueryGraphValuePairHashKeyIndex keysAvailable = queryGraphValue.getHashKeyProps();
+        Set<String> keyNamesAvailable = keysAvailable.getIndexed().length == 0 ? Collections.<String>emptySet() : new HashSet<>(Arrays.asList(keysAvailable.getIndexed()));
+        QueryGraphValuePairRangeIndex rangesAvailable = queryGraphValue.getRangeProps();
+        Set<String> rangeNamesAvailable = rangesAvailable.getIndexed().length == 0 ? Collections.<String>emptySet() : new HashSet<>(Arrays.asList(rangesAvailable.getIndexed()));
+        return findIndex(keyNamesAvailable, rangeNamesAvailable, indexRepository, null, annotations) != null;
+    }
+
     private static Pair<IndexMultiKey, EventTableAndNamePair> findIndex(Set<String> keyNamesAvailable, Set<String> rangeNamesAvailable, EventTableIndexRepository indexRepository, VirtualDWView virtualDataWindow, Annotation[] annotations) {
         if (virtualDataWindow != null) {
             Pair<IndexMultiKey, EventTable> tablePairNoName = virtualDataWindow.getFireAndForgetDesc(keyNamesAvailable, rangeNamesAvailable);
@@ -12,6 +12,10 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.MultiKeyObject;
+import com.espertech.esper.collection.MultiKeyObject2;
+import com.espertech.esper.collection.MultiKeyObject3;
+import com.espertech.esper.collection.MultiKeyPrimitiveFactory;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.event.EventBeanUtility;
@@ -22,7 +26,8 @@ import java.util.Set;
 
 /**
  * Index that organizes events by the event property values into hash buckets. Based on a HashMap
- * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * with {@link com.espertech.esper.collection.MultiKeyObject} keys that store the property values,
+ * or with {@link com.espertech.esper.collection.MultiKeyPrimitive} keys when a primitive key factory is provided.
  * <p>
  * Takes a list of property names as parameter. Doesn't care which event type the events have as long as the properties
  * exist. If the same event is added twice, the class throws an exception on add.
@@ -30,12 +35,32 @@ import java.util.Set;
 public abstract class PropertyIndexedEventTable implements EventTable {
     protected final EventPropertyGetter[] propertyGetters;
     protected final EventTableOrganization organization;
+    protected final MultiKeyPrimitiveFactory keyFactory;
+    protected final boolean keyUntyped;
 
     public abstract Set<EventBean> lookup(Object[] keys);
 
     public PropertyIndexedEventTable(EventPropertyGetter[] propertyGetters, EventTableOrganization organization) {
+        this(propertyGetters, organization, null);
+    }
+
+    public PropertyIndexedEventTable(EventPropertyGetter[] propertyGetters, EventTableOrganization organization, MultiKeyPrimitiveFactory keyFactory) {
+        this(propertyGetters, organization, keyFactory, false);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param propertyGetters getters
+     * @param organization    organization
+     * @param keyFactory      primitive key factory or null
+     * @param keyUntyped      true for {@link MultiKeyUntyped} keys, for an index that shares the row map of a table, which is keyed by such keys
+     */
+    public PropertyIndexedEventTable(EventPropertyGetter[] propertyGetters, EventTableOrganization organization, MultiKeyPrimitiveFactory keyFactory, boolean keyUntyped) {
         this.propertyGetters = propertyGetters;
         this.organization = organization;
+        this.keyFactory = keyFactory;
+        this.keyUntyped = keyUntyped;
     }
 
     /**
@@ -44,8 +69,59 @@ public abstract class PropertyIndexedEventTable implements EventTable {
      * @param theEvent to get properties from for key
      * @return multi key
      */
-    protected MultiKeyUntyped getMultiKey(EventBean theEvent) {
-        return EventBeanUtility.getMultiKey(theEvent, propertyGetters);
+    protected Object getMultiKey(EventBean theEvent) {
+        if (keyFactory != null) {
+            if (propertyGetters.length == 2) {
+                return keyFactory.makeKey(propertyGetters[0].get(theEvent), propertyGetters[1].get(theEvent));
+            }
+            return keyFactory.makeKey(propertyGetters[0].get(theEvent), propertyGetters[1].get(theEvent), propertyGetters[2].get(theEvent));
+        }
+        if (keyUntyped) {
+            return EventBeanUtility.getMultiKey(theEvent, propertyGetters);
+        }
+        if (propertyGetters.length == 2) {
+            return new MultiKeyObject2(propertyGetters[0].get(theEvent), propertyGetters[1].get(theEvent));
+        }
+        if (propertyGetters.length == 3) {
+            return new MultiKeyObject3(propertyGetters[0].get(theEvent), propertyGetters[1].get(theEvent), propertyGetters[2].get(theEvent));
+        }
+        Object[] keys = new Object[propertyGetters.length];
+        for (int i = 0; i < propertyGetters.length; i++) {
+            keys[i] = propertyGetters[i].get(theEvent);
+        }
+        return MultiKeyObject.make(keys);
+    }
+
+    /**
+     * Determine multikey for index lookup.
+     *
+     * @param keys key values
+     * @return multi key
+     */
+    protected Object getMultiKey(Object[] keys) {
+        if (keyFactory != null) {
+            return keyFactory.makeKey(keys);
+        }
+        if (keyUntyped) {
+            return new MultiKeyUntyped(keys);
+        }
+        return MultiKeyObject.make(keys);
+    }
+
+    /**
+     * Returns the key values of a key made by this index.
+     *
+     * @param key multi key
+     * @return key values
+     */
+    protected Object[] getKeyValues(Object key) {
+        if (keyFactory != null) {
+            return keyFactory.getKeys(key);
+        }
+        if (keyUntyped) {
+            return ((MultiKeyUntyped) key).getKeys();
+        }
+        return ((MultiKeyObject) key).getKeys();
     }
 
     public void addRemove(EventBean[] newData, EventBean[] oldData, ExprEvaluatorContext exprEvaluatorContext) {
@@ -12,12 +12,11 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.util.SimpleNumberCoercer;
 
 /**
  * Index that organizes events by the event property values into hash buckets. Based on a HashMap
- * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * with {@link com.espertech.esper.collection.MultiKeyObject} keys that store the property values.
  * <p>
  * Performs coercion of the index keys before storing the keys.
  * <p>
@@ -35,7 +34,7 @@ public class PropertyIndexedEventTableCoerceAdd extends PropertyIndexedEventTabl
     }
 
     @Override
-    protected MultiKeyUntyped getMultiKey(EventBean theEvent) {
+    protected Object getMultiKey(EventBean theEvent) {
         Object[] keyValues = new Object[propertyGetters.length];
         for (int i = 0; i < propertyGetters.length; i++) {
             Object value = propertyGetters[i].get(theEvent);
@@ -46,6 +45,6 @@ public class PropertyIndexedEventTableCoerceAdd extends PropertyIndexedEventTabl
             }
             keyValues[i] = value;
         }
-        return new MultiKeyUntyped(keyValues);
+        return getMultiKey(keyValues);
     }
 }
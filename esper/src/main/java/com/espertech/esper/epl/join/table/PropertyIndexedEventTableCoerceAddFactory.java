@@ -18,7 +18,7 @@ import com.espertech.esper.util.SimpleNumberCoercerFactory;
 
 /**
  * Index that organizes events by the event property values into hash buckets. Based on a HashMap
- * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * with {@link com.espertech.esper.collection.MultiKeyObject} keys that store the property values.
  * <p>
  * Performs coercion of the index keys before storing the keys.
  * <p>
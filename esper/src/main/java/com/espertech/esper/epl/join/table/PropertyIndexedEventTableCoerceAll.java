@@ -12,7 +12,6 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.util.JavaClassHelper;
 import com.espertech.esper.util.SimpleNumberCoercer;
 
@@ -20,7 +19,7 @@ import java.util.Set;
 
 /**
  * Index that organizes events by the event property values into hash buckets. Based on a HashMap
- * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * with {@link com.espertech.esper.collection.MultiKeyObject} keys that store the property values.
  * <p>
  * Performs coercion of the index keys before storing the keys, and coercion of the lookup keys before lookup.
  * <p>
@@ -49,8 +48,7 @@ public class PropertyIndexedEventTableCoerceAll extends PropertyIndexedEventTabl
                 }
             }
         }
-        MultiKeyUntyped key = new MultiKeyUntyped(keys);
-        return propertyIndex.get(key);
+        return propertyIndex.get(getMultiKey(keys));
     }
 
 }
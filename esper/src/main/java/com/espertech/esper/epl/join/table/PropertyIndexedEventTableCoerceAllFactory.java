@@ -15,7 +15,7 @@ import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 
 /**
  * Index that organizes events by the event property values into hash buckets. Based on a HashMap
- * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * with {@link com.espertech.esper.collection.MultiKeyObject} keys that store the property values.
  * <p>
  * Performs coercion of the index keys before storing the keys, and coercion of the lookup keys before lookup.
  * <p>
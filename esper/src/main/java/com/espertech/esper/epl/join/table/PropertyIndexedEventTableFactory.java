@@ -12,6 +12,7 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.MultiKeyPrimitiveFactory;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,7 +21,7 @@ import java.util.Arrays;
 
 /**
  * Index factory that organizes events by the event property values into hash buckets. Based on a HashMap
- * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * with {@link com.espertech.esper.collection.MultiKeyObject} keys that store the property values.
  * <p>
  * Takes a list of property names as parameter. Doesn't care which event type the events have as long as the properties
  * exist. If the same event is added twice, the class throws an exception on add.
@@ -36,6 +37,11 @@ public class PropertyIndexedEventTableFactory implements EventTableFactory {
      */
     protected final EventPropertyGetter[] propertyGetters;
 
+    /**
+     * Factory for primitive keys, or null when the property types do not allow primitive keys.
+     */
+    protected final MultiKeyPrimitiveFactory keyFactory;
+
     /**
      * Ctor.
      *
@@ -53,17 +59,20 @@ public class PropertyIndexedEventTableFactory implements EventTableFactory {
 
         // Init getters
         propertyGetters = new EventPropertyGetter[propertyNames.length];
+        Class[] propertyTypes = new Class[propertyNames.length];
         for (int i = 0; i < propertyNames.length; i++) {
             propertyGetters[i] = eventType.getGetter(propertyNames[i]);
+            propertyTypes[i] = eventType.getPropertyType(propertyNames[i]);
         }
+        keyFactory = MultiKeyPrimitiveFactory.make(propertyTypes);
     }
 
     public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent, ExprEvaluatorContext exprEvaluatorContext) {
         EventTableOrganization organization = getOrganization();
         if (unique) {
-            return new EventTable[]{new PropertyIndexedEventTableUnique(propertyGetters, organization)};
+            return new EventTable[]{new PropertyIndexedEventTableUnique(propertyGetters, organization, keyFactory)};
         } else {
-            return new EventTable[]{new PropertyIndexedEventTableUnadorned(propertyGetters, organization)};
+            return new EventTable[]{new PropertyIndexedEventTableUnadorned(propertyGetters, organization, keyFactory)};
         }
     }
 
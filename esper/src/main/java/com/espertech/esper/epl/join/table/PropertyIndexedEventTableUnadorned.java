@@ -12,17 +12,21 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
-import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyPrimitiveFactory;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 
 import java.util.*;
 
 public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTable {
-    protected final Map<MultiKeyUntyped, Set<EventBean>> propertyIndex;
+    protected final Map<Object, Set<EventBean>> propertyIndex;
 
     public PropertyIndexedEventTableUnadorned(EventPropertyGetter[] propertyGetters, EventTableOrganization organization) {
-        super(propertyGetters, organization);
-        propertyIndex = new HashMap<MultiKeyUntyped, Set<EventBean>>();
+        this(propertyGetters, organization, null);
+    }
+
+    public PropertyIndexedEventTableUnadorned(EventPropertyGetter[] propertyGetters, EventTableOrganization organization, MultiKeyPrimitiveFactory keyFactory) {
+        super(propertyGetters, organization, keyFactory);
+        propertyIndex = new HashMap<Object, Set<EventBean>>();
     }
 
     /**
@@ -32,12 +36,12 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
      * @return set of events with property value, or null if none found (never returns zero-sized set)
      */
     public Set<EventBean> lookup(Object[] keys) {
-        MultiKeyUntyped key = new MultiKeyUntyped(keys);
+        Object key = getMultiKey(keys);
         return propertyIndex.get(key);
     }
 
     public void add(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        Object key = getMultiKey(theEvent);
 
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null) {
@@ -49,7 +53,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
     }
 
     public void remove(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        Object key = getMultiKey(theEvent);
 
         Set<EventBean> events = propertyIndex.get(key);
         if (events == null) {
@@ -72,7 +76,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
     }
 
     public Iterator<EventBean> iterator() {
-        return new PropertyIndexedEventTableIterator<MultiKeyUntyped>(propertyIndex);
+        return new PropertyIndexedEventTableIterator<Object>(propertyIndex);
     }
 
     public void clear() {
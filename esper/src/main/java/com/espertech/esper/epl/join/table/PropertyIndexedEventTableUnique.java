@@ -13,6 +13,7 @@ package com.espertech.esper.epl.join.table;
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.MultiKeyPrimitiveFactory;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
@@ -20,17 +21,21 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import java.util.*;
 
 public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable implements EventTableAsSet {
-    protected final Map<MultiKeyUntyped, EventBean> propertyIndex;
+    protected final Map<Object, EventBean> propertyIndex;
     private final boolean canClear;
 
     public PropertyIndexedEventTableUnique(EventPropertyGetter[] propertyGetters, EventTableOrganization organization) {
-        super(propertyGetters, organization);
-        propertyIndex = new HashMap<MultiKeyUntyped, EventBean>();
+        this(propertyGetters, organization, (MultiKeyPrimitiveFactory) null);
+    }
+
+    public PropertyIndexedEventTableUnique(EventPropertyGetter[] propertyGetters, EventTableOrganization organization, MultiKeyPrimitiveFactory keyFactory) {
+        super(propertyGetters, organization, keyFactory);
+        propertyIndex = new HashMap<Object, EventBean>();
         this.canClear = true;
     }
 
-    public PropertyIndexedEventTableUnique(EventPropertyGetter[] propertyGetters, EventTableOrganization organization, Map<MultiKeyUntyped, EventBean> propertyIndex) {
-        super(propertyGetters, organization);
+    public PropertyIndexedEventTableUnique(EventPropertyGetter[] propertyGetters, EventTableOrganization organization, Map<Object, EventBean> propertyIndex) {
+        super(propertyGetters, organization, null, true);
         this.propertyIndex = propertyIndex;
         this.canClear = false;
     }
@@ -62,7 +67,7 @@ public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable i
     }
 
     public Set<EventBean> lookup(Object[] keys) {
-        MultiKeyUntyped key = new MultiKeyUntyped(keys);
+        Object key = getMultiKey(keys);
         EventBean event = propertyIndex.get(key);
         if (event != null) {
             return Collections.singleton(event);
@@ -71,11 +76,11 @@ public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable i
     }
 
     public void add(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        Object key = getMultiKey(theEvent);
 
         EventBean existing = propertyIndex.put(key, theEvent);
         if (existing != null && !existing.equals(theEvent)) {
-            throw handleUniqueIndexViolation(organization.getIndexName(), key);
+            throw handleUniqueIndexViolation(organization.getIndexName(), new MultiKeyUntyped(getKeyValues(key)));
         }
     }
 
@@ -85,7 +90,7 @@ public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable i
     }
 
     public void remove(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        Object key = getMultiKey(theEvent);
         propertyIndex.remove(key);
     }
 
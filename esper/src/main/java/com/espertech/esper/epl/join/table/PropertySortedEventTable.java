@@ -19,7 +19,7 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import java.util.*;
 
 /**
- * Index that organizes events by the event property values into a single TreeMap sortable non-nested index
+ * Index that organizes events by the event property values into a single sorted non-nested index
  * with Object keys that store the property values.
  */
 public abstract class PropertySortedEventTable implements EventTable {
@@ -142,64 +142,66 @@ public abstract class PropertySortedEventTable implements EventTable {
         return null;
     }
 
-    protected static Set<EventBean> normalize(SortedMap<Object, Set<EventBean>> submap) {
-        if (submap.size() == 0) {
+    protected static Set<EventBean> normalize(Iterator<Object> values) {
+        if (!values.hasNext()) {
             return null;
         }
-        if (submap.size() == 1) {
-            return submap.get(submap.firstKey());
+        Set<EventBean> first = (Set<EventBean>) values.next();
+        if (!values.hasNext()) {
+            return first;
         }
-        Set<EventBean> result = new LinkedHashSet<EventBean>();
-        for (Map.Entry<Object, Set<EventBean>> entry : submap.entrySet()) {
-            result.addAll(entry.getValue());
+        Set<EventBean> result = new LinkedHashSet<EventBean>(first);
+        while (values.hasNext()) {
+            result.addAll((Set<EventBean>) values.next());
         }
         return result;
     }
 
-    protected static Collection<EventBean> normalizeCollection(SortedMap<Object, Set<EventBean>> submap) {
-        if (submap.size() == 0) {
+    protected static Collection<EventBean> normalizeCollection(Iterator<Object> values) {
+        if (!values.hasNext()) {
             return null;
         }
-        if (submap.size() == 1) {
-            return submap.get(submap.firstKey());
+        Set<EventBean> first = (Set<EventBean>) values.next();
+        if (!values.hasNext()) {
+            return first;
         }
-        Deque<EventBean> result = new ArrayDeque<EventBean>();
-        for (Map.Entry<Object, Set<EventBean>> entry : submap.entrySet()) {
-            result.addAll(entry.getValue());
+        Deque<EventBean> result = new ArrayDeque<EventBean>(first);
+        while (values.hasNext()) {
+            result.addAll((Set<EventBean>) values.next());
         }
         return result;
     }
 
-    protected static Collection<EventBean> normalizeCollection(SortedMap<Object, Set<EventBean>> submapOne, SortedMap<Object, Set<EventBean>> submapTwo) {
-        if (submapOne.size() == 0) {
-            return normalizeCollection(submapTwo);
+    protected static Collection<EventBean> normalizeCollection(Iterator<Object> valuesOne, Iterator<Object> valuesTwo) {
+        if (!valuesOne.hasNext()) {
+            return normalizeCollection(valuesTwo);
         }
-        if (submapTwo.size() == 0) {
-            return normalizeCollection(submapOne);
+        if (!valuesTwo.hasNext()) {
+            return normalizeCollection(valuesOne);
         }
         ArrayDeque<EventBean> result = new ArrayDeque<EventBean>();
-        for (Map.Entry<Object, Set<EventBean>> entry : submapOne.entrySet()) {
-            result.addAll(entry.getValue());
+        while (valuesOne.hasNext()) {
+            result.addAll((Set<EventBean>) valuesOne.next());
         }
-        for (Map.Entry<Object, Set<EventBean>> entry : submapTwo.entrySet()) {
-            result.addAll(entry.getValue());
+        while (valuesTwo.hasNext()) {
+            result.addAll((Set<EventBean>) valuesTwo.next());
         }
         return result;
     }
 
-    protected static Set<EventBean> normalize(SortedMap<Object, Set<EventBean>> submapOne, SortedMap<Object, Set<EventBean>> submapTwo) {
-        if (submapOne.size() == 0) {
-            return normalize(submapTwo);
+    protected static Set<EventBean> normalize(Iterator<Object> valuesOne, Iterator<Object> valuesTwo) {
+        if (!valuesOne.hasNext()) {
+            return normalize(valuesTwo);
         }
-        if (submapTwo.size() == 0) {
-            return normalize(submapOne);
+        if (!valuesTwo.hasNext()) {
+            return normalize(valuesOne);
         }
         Set<EventBean> result = new LinkedHashSet<EventBean>();
-        for (Map.Entry<Object, Set<EventBean>> entry : submapOne.entrySet()) {
-            result.addAll(entry.getValue());
+        while (valuesOne.hasNext()) {
+            result.addAll((Set<EventBean>) valuesOne.next());
         }
-        for (Map.Entry<Object, Set<EventBean>> entry : submapTwo.entrySet()) {
-            result.addAll(entry.getValue());
+        while (valuesTwo.hasNext()) {
+            result.addAll((Set<EventBean>) valuesTwo.next());
         }
         return result;
     }
@@ -17,7 +17,7 @@ public class PropertySortedEventTableCoerced extends PropertySortedEventTableImp
     private Class coercionType;
 
     public PropertySortedEventTableCoerced(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class coercionType) {
-        super(propertyGetter, organization);
+        super(propertyGetter, organization, coercionType);
         this.coercionType = coercionType;
     }
 
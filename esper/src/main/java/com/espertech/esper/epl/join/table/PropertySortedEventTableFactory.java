@@ -16,7 +16,7 @@ import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.event.EventBeanUtility;
 
 /**
- * Index that organizes events by the event property values into a single TreeMap sortable non-nested index
+ * Index that organizes events by the event property values into a single sorted non-nested index
  * with Object keys that store the property values.
  */
 public class PropertySortedEventTableFactory implements EventTableFactory {
@@ -28,6 +28,11 @@ public class PropertySortedEventTableFactory implements EventTableFactory {
      */
     protected final EventPropertyGetter propertyGetter;
 
+    /**
+     * Type of the property.
+     */
+    protected final Class propertyType;
+
     /**
      * Ctor.
      *
@@ -39,11 +44,12 @@ public class PropertySortedEventTableFactory implements EventTableFactory {
         this.streamNum = streamNum;
         this.propertyName = propertyName;
         propertyGetter = EventBeanUtility.getAssertPropertyGetter(eventType, propertyName);
+        propertyType = eventType.getPropertyType(propertyName);
     }
 
     public EventTable[] makeEventTables(EventTableFactoryTableIdent tableIdent, ExprEvaluatorContext exprEvaluatorContext) {
         EventTableOrganization organization = getOrganization();
-        return new EventTable[]{new PropertySortedEventTableImpl(propertyGetter, organization)};
+        return new EventTable[]{new PropertySortedEventTableImpl(propertyGetter, organization, propertyType)};
     }
 
     public Class getEventTableClass() {
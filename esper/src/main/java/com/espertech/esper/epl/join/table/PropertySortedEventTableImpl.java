@@ -12,6 +12,7 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.collection.BPlusTreeEventMap;
 import com.espertech.esper.collection.SuperIterator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValue;
@@ -19,18 +20,19 @@ import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValueEquals;
 import com.espertech.esper.epl.join.exec.base.RangeIndexLookupValueRange;
 import com.espertech.esper.epl.join.plan.QueryGraphRangeEnum;
 import com.espertech.esper.filter.Range;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
 
 /**
- * Index that organizes events by the event property values into a single TreeMap sortable non-nested index
- * with Object keys that store the property values.
+ * Index that organizes events by the event property values into a single B+-tree sortable non-nested index
+ * with Object keys that store the property values. Numeric keys compare as primitive values.
  */
 public class PropertySortedEventTableImpl extends PropertySortedEventTable {
     /**
      * Index table.
      */
-    protected final TreeMap<Object, Set<EventBean>> propertyIndex;
+    protected final BPlusTreeEventMap propertyIndex;
 
     protected final HashSet<EventBean> nullKeyedValues;
 
@@ -39,9 +41,9 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
         return value;
     }
 
-    public PropertySortedEventTableImpl(EventPropertyGetter propertyGetter, EventTableOrganization organization) {
+    public PropertySortedEventTableImpl(EventPropertyGetter propertyGetter, EventTableOrganization organization, Class keyType) {
         super(propertyGetter, organization);
-        propertyIndex = new TreeMap<Object, Set<EventBean>>();
+        propertyIndex = new BPlusTreeEventMap(null, keyType, false);
         nullKeyedValues = new LinkedHashSet<EventBean>();
     }
 
@@ -59,17 +61,13 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
         }
         keyStart = coerce(keyStart);
         keyEnd = coerce(keyEnd);
-        SortedMap<Object, Set<EventBean>> submap;
-        try {
-            submap = propertyIndex.subMap(keyStart, includeStart, keyEnd, includeEnd);
-        } catch (IllegalArgumentException ex) {
-            if (allowRangeReversal) {
-                submap = propertyIndex.subMap(keyEnd, includeStart, keyStart, includeEnd);
-            } else {
+        if (propertyIndex.compareKeys(keyStart, keyEnd) > 0) {
+            if (!allowRangeReversal) {
                 return Collections.emptySet();
             }
+            return normalize(propertyIndex.rangeValues(keyEnd, includeStart, keyStart, includeEnd));
         }
-        return normalize(submap);
+        return normalize(propertyIndex.rangeValues(keyStart, includeStart, keyEnd, includeEnd));
     }
 
     public Collection<EventBean> lookupRangeColl(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd, boolean allowRangeReversal) {
@@ -78,17 +76,13 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
         }
         keyStart = coerce(keyStart);
         keyEnd = coerce(keyEnd);
-        SortedMap<Object, Set<EventBean>> submap;
-        try {
-            submap = propertyIndex.subMap(keyStart, includeStart, keyEnd, includeEnd);
-        } catch (IllegalArgumentException ex) {
-            if (allowRangeReversal) {
-                submap = propertyIndex.subMap(keyEnd, includeStart, keyStart, includeEnd);
-            } else {
+        if (propertyIndex.compareKeys(keyStart, keyEnd) > 0) {
+            if (!allowRangeReversal) {
                 return Collections.emptyList();
             }
+            return normalizeCollection(propertyIndex.rangeValues(keyEnd, includeStart, keyStart, includeEnd));
         }
-        return normalizeCollection(submap);
+        return normalizeCollection(propertyIndex.rangeValues(keyStart, includeStart, keyEnd, includeEnd));
     }
 
     public Set<EventBean> lookupRangeInverted(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd) {
@@ -97,9 +91,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
         }
         keyStart = coerce(keyStart);
         keyEnd = coerce(keyEnd);
-        SortedMap<Object, Set<EventBean>> submapOne = propertyIndex.headMap(keyStart, !includeStart);
-        SortedMap<Object, Set<EventBean>> submapTwo = propertyIndex.tailMap(keyEnd, !includeEnd);
-        return normalize(submapOne, submapTwo);
+        return normalize(propertyIndex.rangeValues(null, false, keyStart, !includeStart), propertyIndex.rangeValues(keyEnd, !includeEnd, null, false));
     }
 
     public Collection<EventBean> lookupRangeInvertedColl(Object keyStart, boolean includeStart, Object keyEnd, boolean includeEnd) {
@@ -108,9 +100,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
         }
         keyStart = coerce(keyStart);
         keyEnd = coerce(keyEnd);
-        SortedMap<Object, Set<EventBean>> submapOne = propertyIndex.headMap(keyStart, !includeStart);
-        SortedMap<Object, Set<EventBean>> submapTwo = propertyIndex.tailMap(keyEnd, !includeEnd);
-        return normalizeCollection(submapOne, submapTwo);
+        return normalizeCollection(propertyIndex.rangeValues(null, false, keyStart, !includeStart), propertyIndex.rangeValues(keyEnd, !includeEnd, null, false));
     }
 
     public Set<EventBean> lookupLess(Object keyStart) {
@@ -118,7 +108,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             return Collections.emptySet();
         }
         keyStart = coerce(keyStart);
-        return normalize(propertyIndex.headMap(keyStart));
+        return normalize(propertyIndex.rangeValues(null, false, keyStart, false));
     }
 
     public Collection<EventBean> lookupLessThenColl(Object keyStart) {
@@ -126,7 +116,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             return Collections.emptyList();
         }
         keyStart = coerce(keyStart);
-        return normalizeCollection(propertyIndex.headMap(keyStart));
+        return normalizeCollection(propertyIndex.rangeValues(null, false, keyStart, false));
     }
 
     public Set<EventBean> lookupLessEqual(Object keyStart) {
@@ -134,7 +124,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             return Collections.emptySet();
         }
         keyStart = coerce(keyStart);
-        return normalize(propertyIndex.headMap(keyStart, true));
+        return normalize(propertyIndex.rangeValues(null, false, keyStart, true));
     }
 
     public Collection<EventBean> lookupLessEqualColl(Object keyStart) {
@@ -142,7 +132,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             return Collections.emptyList();
         }
         keyStart = coerce(keyStart);
-        return normalizeCollection(propertyIndex.headMap(keyStart, true));
+        return normalizeCollection(propertyIndex.rangeValues(null, false, keyStart, true));
     }
 
     public Set<EventBean> lookupGreaterEqual(Object keyStart) {
@@ -150,7 +140,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             return Collections.emptySet();
         }
         keyStart = coerce(keyStart);
-        return normalize(propertyIndex.tailMap(keyStart));
+        return normalize(propertyIndex.rangeValues(keyStart, true, null, false));
     }
 
     public Collection<EventBean> lookupGreaterEqualColl(Object keyStart) {
@@ -158,7 +148,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             return Collections.emptyList();
         }
         keyStart = coerce(keyStart);
-        return normalizeCollection(propertyIndex.tailMap(keyStart));
+        return normalizeCollection(propertyIndex.rangeValues(keyStart, true, null, false));
     }
 
     public Set<EventBean> lookupGreater(Object keyStart) {
@@ -166,7 +156,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             return Collections.emptySet();
         }
         keyStart = coerce(keyStart);
-        return normalize(propertyIndex.tailMap(keyStart, false));
+        return normalize(propertyIndex.rangeValues(keyStart, false, null, false));
     }
 
     public Collection<EventBean> lookupGreaterColl(Object keyStart) {
@@ -174,7 +164,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             return Collections.emptyList();
         }
         keyStart = coerce(keyStart);
-        return normalizeCollection(propertyIndex.tailMap(keyStart, false));
+        return normalizeCollection(propertyIndex.rangeValues(keyStart, false, null, false));
     }
 
     public Integer getNumberOfEvents() {
@@ -189,6 +179,55 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
         return propertyIndex;
     }
 
+    /**
+     * Adds events, building the tree from the sorted keys in linear time when the index is empty.
+     *
+     * @param events               to add
+     * @param exprEvaluatorContext evaluator context
+     */
+    @Override
+    public void add(EventBean[] events, ExprEvaluatorContext exprEvaluatorContext) {
+        if (events == null || events.length < 2 || !propertyIndex.isEmpty() || InstrumentationHelper.ENABLED) {
+            super.add(events, exprEvaluatorContext);
+            return;
+        }
+
+        KeyedEvent[] keyed = new KeyedEvent[events.length];
+        int count = 0;
+        for (EventBean theEvent : events) {
+            Object key = coerce(getIndexedValue(theEvent));
+            if (key == null) {
+                nullKeyedValues.add(theEvent);
+            } else {
+                keyed[count++] = new KeyedEvent(key, theEvent);
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+
+        // stable sort, events of the same key retain their order
+        Arrays.sort(keyed, 0, count, new Comparator<KeyedEvent>() {
+            public int compare(KeyedEvent first, KeyedEvent second) {
+                return propertyIndex.compareKeys(first.key, second.key);
+            }
+        });
+        Object[] keys = new Object[count];
+        Object[] values = new Object[count];
+        int numKeys = 0;
+        Set<EventBean> current = null;
+        for (int i = 0; i < count; i++) {
+            if (current == null || propertyIndex.compareKeys(keys[numKeys - 1], keyed[i].key) != 0) {
+                current = new LinkedHashSet<EventBean>();
+                keys[numKeys] = keyed[i].key;
+                values[numKeys] = current;
+                numKeys++;
+            }
+            current.add(keyed[i].event);
+        }
+        propertyIndex.putAllSorted(keys, values, numKeys);
+    }
+
     public void add(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
         Object key = getIndexedValue(theEvent);
 
@@ -199,7 +238,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
             return;
         }
 
-        Set<EventBean> events = propertyIndex.get(key);
+        Set<EventBean> events = (Set<EventBean>) propertyIndex.get(key);
         if (events == null) {
             events = new LinkedHashSet<EventBean>();
             propertyIndex.put(key, events);
@@ -218,7 +257,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
 
         key = coerce(key);
 
-        Set<EventBean> events = propertyIndex.get(key);
+        Set<EventBean> events = (Set<EventBean>) propertyIndex.get(key);
         if (events == null) {
             return;
         }
@@ -240,9 +279,9 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
 
     public Iterator<EventBean> iterator() {
         if (nullKeyedValues.isEmpty()) {
-            return new PropertySortedEventTableIterator(propertyIndex);
+            return new PropertySortedEventTableIterator(propertyIndex.values().iterator());
         }
-        return new SuperIterator<EventBean>(new PropertySortedEventTableIterator(propertyIndex), nullKeyedValues.iterator());
+        return new SuperIterator<EventBean>(new PropertySortedEventTableIterator(propertyIndex.values().iterator()), nullKeyedValues.iterator());
     }
 
     public void clear() {
@@ -257,7 +296,7 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
 
         if (lookupValueBase instanceof RangeIndexLookupValueEquals) {
             RangeIndexLookupValueEquals equals = (RangeIndexLookupValueEquals) lookupValueBase;
-            return propertyIndex.get(equals.getValue());
+            return (Set<EventBean>) propertyIndex.get(equals.getValue());
         }
 
         RangeIndexLookupValueRange lookupValue = (RangeIndexLookupValueRange) lookupValueBase;
@@ -301,4 +340,14 @@ public class PropertySortedEventTableImpl extends PropertySortedEventTable {
     public Class getProviderClass() {
         return PropertySortedEventTable.class;
     }
+
+    private static class KeyedEvent {
+        private final Object key;
+        private final EventBean event;
+
+        private KeyedEvent(Object key, EventBean event) {
+            this.key = key;
+            this.event = event;
+        }
+    }
 }
@@ -13,7 +13,6 @@ package com.espertech.esper.epl.join.table;
 import com.espertech.esper.client.EventBean;
 
 import java.util.Iterator;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
@@ -21,22 +20,18 @@ import java.util.Set;
  * Iterator for use by {@link com.espertech.esper.epl.join.table.PropertySortedEventTable}.
  */
 public final class PropertySortedEventTableIterator implements Iterator<EventBean> {
-    private final Map<Object, Set<EventBean>> window;
-
-    private final Iterator<Object> keyIterator;
+    private final Iterator<Object> valueIterator;
     private Iterator<EventBean> currentListIterator;
 
     /**
      * Ctor.
      *
-     * @param window - sorted map with events
+     * @param valueIterator - iterator of the sets of events in key order
      */
-    public PropertySortedEventTableIterator(Map<Object, Set<EventBean>> window) {
-        this.window = window;
-        keyIterator = window.keySet().iterator();
-        if (keyIterator.hasNext()) {
-            Object initialKey = keyIterator.next();
-            currentListIterator = window.get(initialKey).iterator();
+    public PropertySortedEventTableIterator(Iterator<Object> valueIterator) {
+        this.valueIterator = valueIterator;
+        if (valueIterator.hasNext()) {
+            currentListIterator = ((Set<EventBean>) valueIterator.next()).iterator();
         }
     }
 
@@ -49,9 +44,8 @@ public final class PropertySortedEventTableIterator implements Iterator<EventBea
 
         if (!currentListIterator.hasNext()) {
             currentListIterator = null;
-            if (keyIterator.hasNext()) {
-                Object nextKey = keyIterator.next();
-                currentListIterator = window.get(nextKey).iterator();
+            if (valueIterator.hasNext()) {
+                currentListIterator = ((Set<EventBean>) valueIterator.next()).iterator();
             }
         }
 
@@ -69,7 +63,7 @@ public final class PropertySortedEventTableIterator implements Iterator<EventBea
 
         currentListIterator = null;
 
-        if (!keyIterator.hasNext()) {
+        if (!valueIterator.hasNext()) {
             return false;
         }
 
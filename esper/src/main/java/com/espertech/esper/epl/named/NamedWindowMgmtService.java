@@ -61,6 +61,7 @@ public interface NamedWindowMgmtService {
                                              boolean isBatchingDataWindow,
                                              boolean isVirtualDataWindow,
                                              Set<String> optionalUniqueKeyProps,
+                                             NamedWindowOffHeapLayout optionalOffHeapLayout,
                                              String eventTypeAsName,
                                              StatementContext statementContextCreateWindow,
                                              NamedWindowDispatchService namedWindowDispatchService) throws ViewProcessingException;
@@ -103,14 +103,14 @@ public class NamedWindowMgmtServiceImpl implements NamedWindowMgmtService {
                                              ValueAddEventProcessor revisionProcessor, String eplExpression, String statementName, boolean isPrioritized,
                                              boolean isEnableSubqueryIndexShare, boolean isBatchingDataWindow,
                                              boolean isVirtualDataWindow,
-                                             Set<String> optionalUniqueKeyProps, String eventTypeAsName,
+                                             Set<String> optionalUniqueKeyProps, NamedWindowOffHeapLayout optionalOffHeapLayout, String eventTypeAsName,
                                              StatementContext statementContextCreateWindow,
                                              NamedWindowDispatchService namedWindowDispatchService) throws ViewProcessingException {
         if (processors.containsKey(name)) {
             throw new ViewProcessingException("A named window by name '" + name + "' has already been created");
         }
 
-        NamedWindowProcessor processor = namedWindowDispatchService.createProcessor(name, this, namedWindowDispatchService, contextName, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, optionalUniqueKeyProps, eventTypeAsName, statementContextCreateWindow);
+        NamedWindowProcessor processor = namedWindowDispatchService.createProcessor(name, this, namedWindowDispatchService, contextName, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, optionalUniqueKeyProps, optionalOffHeapLayout, eventTypeAsName, statementContextCreateWindow);
         processors.put(name, processor);
 
         if (!observers.isEmpty()) {
@@ -0,0 +1,32 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.event.DecodingEventBean;
+
+/**
+ * Flyweight event referring to a row of named window off-heap storage.
+ */
+public interface NamedWindowOffHeapEventBean extends DecodingEventBean {
+    /**
+     * Returns the segment currently holding the row.
+     *
+     * @return segment
+     */
+    public NamedWindowOffHeapSegment getSegment();
+
+    /**
+     * Returns the row offset within the segment currently holding the row.
+     *
+     * @return offset
+     */
+    public int getRowOffset();
+}
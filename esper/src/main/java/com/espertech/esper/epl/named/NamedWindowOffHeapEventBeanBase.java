@@ -0,0 +1,144 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+
+import java.util.Map;
+
+/**
+ * Base flyweight event for a row of named window off-heap storage, decoding property values upon access.
+ * <p>
+ * A row that the store relocates to compact its segment keeps its original location for removed events and
+ * receives the new location as a single volatile reference, so that a reader sees either location in full.
+ * The original location is never overwritten.
+ * </p>
+ */
+public abstract class NamedWindowOffHeapEventBeanBase implements NamedWindowOffHeapEventBean {
+    protected final NamedWindowOffHeapLayout layout;
+    private final NamedWindowOffHeapSegment segment;
+    private final int rowOffset;
+    private volatile Relocated relocated;
+    private int segmentSlot = -1;
+
+    protected NamedWindowOffHeapEventBeanBase(NamedWindowOffHeapLayout layout, NamedWindowOffHeapSegment segment, int rowOffset) {
+        this.layout = layout;
+        this.segment = segment;
+        this.rowOffset = rowOffset;
+    }
+
+    public NamedWindowOffHeapSegment getSegment() {
+        Relocated moved = relocated;
+        return moved == null ? segment : moved.segment;
+    }
+
+    public int getRowOffset() {
+        Relocated moved = relocated;
+        return moved == null ? rowOffset : moved.rowOffset;
+    }
+
+    public EventType getEventType() {
+        return layout.getEventType();
+    }
+
+    public Object getDecodedProperty(String propertyName) {
+        int slot = layout.getSlot(propertyName);
+        return slot == -1 ? null : readSlot(slot);
+    }
+
+    public Object getDecodedPropertyAt(int index) {
+        return readSlot(layout.getSlotForArrayIndex(index));
+    }
+
+    public Object get(String property) throws PropertyAccessException {
+        EventPropertyGetter getter = layout.getEventType().getGetter(property);
+        if (getter == null) {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException {
+        EventPropertyGetter getter = layout.getEventType().getGetter(propertyExpression);
+        if (getter == null) {
+            throw PropertyAccessException.notAValidProperty(propertyExpression);
+        }
+        return getter.getFragment(this);
+    }
+
+    protected Object[] readArray() {
+        Relocated moved = relocated;
+        if (moved == null) {
+            return layout.readArray(segment.getBuffer(), rowOffset);
+        }
+        return layout.readArray(moved.segment.getBuffer(), moved.rowOffset);
+    }
+
+    protected Map<String, Object> readMap() {
+        Relocated moved = relocated;
+        if (moved == null) {
+            return layout.readMap(segment.getBuffer(), rowOffset);
+        }
+        return layout.readMap(moved.segment.getBuffer(), moved.rowOffset);
+    }
+
+    private Object readSlot(int slot) {
+        Relocated moved = relocated;
+        if (moved == null) {
+            return layout.readSlot(segment.getBuffer(), rowOffset, slot);
+        }
+        return layout.readSlot(moved.segment.getBuffer(), moved.rowOffset, slot);
+    }
+
+    /**
+     * Returns the row length in bytes.
+     *
+     * @return length
+     */
+    protected int getRowLength() {
+        return layout.getRowLength(getSegment().getBuffer(), getRowOffset());
+    }
+
+    /**
+     * Point the flyweight to a copy of the row.
+     *
+     * @param target segment holding the copy
+     * @param offset row offset of the copy
+     */
+    protected void relocate(NamedWindowOffHeapSegment target, int offset) {
+        relocated = new Relocated(target, offset);
+    }
+
+    /**
+     * Returns the position of the row among the live rows of its segment, or -1 when the row was removed.
+     *
+     * @return position
+     */
+    protected int getSegmentSlot() {
+        return segmentSlot;
+    }
+
+    protected void setSegmentSlot(int segmentSlot) {
+        this.segmentSlot = segmentSlot;
+    }
+
+    private static class Relocated {
+        private final NamedWindowOffHeapSegment segment;
+        private final int rowOffset;
+
+        private Relocated(NamedWindowOffHeapSegment segment, int rowOffset) {
+            this.segment = segment;
+            this.rowOffset = rowOffset;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyDescriptor;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fixed-layout row encoding of a Map or object-array event type for named windows that keep events off-heap.
+ * <p>
+ * A row consists of a null-indicator bitmap followed by one fixed-width slot per property in the order of property
+ * descriptors. String values keep their offset and length within the row in the slot and place the UTF-8 bytes
+ * after the fixed part of the row.
+ * </p>
+ */
+public class NamedWindowOffHeapLayout {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int TYPE_BOOLEAN = 0;
+    private static final int TYPE_BYTE = 1;
+    private static final int TYPE_SHORT = 2;
+    private static final int TYPE_CHAR = 3;
+    private static final int TYPE_INT = 4;
+    private static final int TYPE_LONG = 5;
+    private static final int TYPE_FLOAT = 6;
+    private static final int TYPE_DOUBLE = 7;
+    private static final int TYPE_STRING = 8;
+
+    private final EventType eventType;
+    private final boolean objectArray;
+    private final String[] propertyNames;
+    private final EventPropertyGetter[] getters;
+    private final int[] types;
+    private final int[] slotOffsets;
+    private final int[] arrayIndexes;
+    private final int[] slotsByArrayIndex;
+    private final Map<String, Integer> slotsByName;
+    private final int arrayLength;
+    private final int fixedLength;
+
+    private NamedWindowOffHeapLayout(EventType eventType, boolean objectArray, String[] propertyNames, EventPropertyGetter[] getters, int[] types, int[] arrayIndexes, int arrayLength) {
+        this.eventType = eventType;
+        this.objectArray = objectArray;
+        this.propertyNames = propertyNames;
+        this.getters = getters;
+        this.types = types;
+        this.arrayIndexes = arrayIndexes;
+        this.arrayLength = arrayLength;
+
+        this.slotOffsets = new int[types.length];
+        int offset = (types.length + 7) / 8;
+        for (int i = 0; i < types.length; i++) {
+            slotOffsets[i] = offset;
+            offset += slotWidth(types[i]);
+        }
+        this.fixedLength = offset;
+
+        this.slotsByName = new HashMap<String, Integer>();
+        for (int i = 0; i < propertyNames.length; i++) {
+            slotsByName.put(propertyNames[i], i);
+        }
+        this.slotsByArrayIndex = new int[arrayLength];
+        Arrays.fill(slotsByArrayIndex, -1);
+        if (objectArray) {
+            for (int i = 0; i < arrayIndexes.length; i++) {
+                slotsByArrayIndex[arrayIndexes[i]] = i;
+            }
+        }
+    }
+
+    /**
+     * Determine the row layout for the event type.
+     *
+     * @param eventType named window event type
+     * @return layout
+     * @throws ExprValidationException if the event type cannot be kept off-heap
+     */
+    public static NamedWindowOffHeapLayout make(EventType eventType) throws ExprValidationException {
+        boolean objectArray = eventType instanceof ObjectArrayEventType;
+        if (!objectArray && !(eventType instanceof MapEventType)) {
+            throw new ExprValidationException("Off-heap storage requires a Map or object-array event type for the named window");
+        }
+
+        EventPropertyDescriptor[] descriptors = eventType.getPropertyDescriptors();
+        String[] propertyNames = new String[descriptors.length];
+        EventPropertyGetter[] getters = new EventPropertyGetter[descriptors.length];
+        int[] types = new int[descriptors.length];
+        int[] arrayIndexes = new int[descriptors.length];
+        for (int i = 0; i < descriptors.length; i++) {
+            EventPropertyDescriptor desc = descriptors[i];
+            Integer type = desc.isFragment() ? null : getTypeCode(desc.getPropertyType());
+            if (type == null) {
+                throw new ExprValidationException("Off-heap storage does not support property '" + desc.getPropertyName() + "' of type '" + JavaClassHelper.getClassNameFullyQualPretty(desc.getPropertyType()) + "', only primitive, boxed and string property types are supported");
+            }
+            propertyNames[i] = desc.getPropertyName();
+            getters[i] = eventType.getGetter(desc.getPropertyName());
+            types[i] = type;
+            if (objectArray) {
+                arrayIndexes[i] = ((ObjectArrayEventType) eventType).getPropertiesIndexes().get(desc.getPropertyName());
+            }
+        }
+        int arrayLength = objectArray ? ((ObjectArrayEventType) eventType).getPropertiesIndexes().size() : 0;
+        return new NamedWindowOffHeapLayout(eventType, objectArray, propertyNames, getters, types, arrayIndexes, arrayLength);
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns the slot of a property.
+     *
+     * @param propertyName property name
+     * @return slot or -1 if not a property of the layout
+     */
+    public int getSlot(String propertyName) {
+        Integer slot = slotsByName.get(propertyName);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns the slot of a property of an object-array event type.
+     *
+     * @param index property index within the object-array
+     * @return slot
+     */
+    public int getSlotForArrayIndex(int index) {
+        return slotsByArrayIndex[index];
+    }
+
+    /**
+     * Encode the event into a new row of the store and return the flyweight event for the row.
+     *
+     * @param theEvent event to encode
+     * @param store    to allocate from
+     * @return flyweight
+     */
+    public EventBean write(EventBean theEvent, NamedWindowOffHeapStore store) {
+        Object[] values = new Object[getters.length];
+        byte[][] strings = null;
+        int length = fixedLength;
+        for (int i = 0; i < getters.length; i++) {
+            values[i] = getters[i].get(theEvent);
+            if (types[i] == TYPE_STRING && values[i] != null) {
+                if (strings == null) {
+                    strings = new byte[getters.length][];
+                }
+                strings[i] = values[i].toString().getBytes(UTF8);
+                length += strings[i].length;
+            }
+        }
+
+        NamedWindowOffHeapSegment segment = store.getSegment(length);
+        int row = segment.allocate(length);
+        ByteBuffer buffer = segment.getBuffer();
+        int stringOffset = fixedLength;
+        for (int i = 0; i < getters.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                int bitmapIndex = row + (i >> 3);
+                buffer.put(bitmapIndex, (byte) (buffer.get(bitmapIndex) | (1 << (i & 7))));
+                continue;
+            }
+            int slot = row + slotOffsets[i];
+            switch (types[i]) {
+                case TYPE_BOOLEAN:
+                    buffer.put(slot, (Boolean) value ? (byte) 1 : (byte) 0);
+                    break;
+                case TYPE_BYTE:
+                    buffer.put(slot, ((Number) value).byteValue());
+                    break;
+                case TYPE_SHORT:
+                    buffer.putShort(slot, ((Number) value).shortValue());
+                    break;
+                case TYPE_CHAR:
+                    buffer.putChar(slot, (Character) value);
+                    break;
+                case TYPE_INT:
+                    buffer.putInt(slot, ((Number) value).intValue());
+                    break;
+                case TYPE_LONG:
+                    buffer.putLong(slot, ((Number) value).longValue());
+                    break;
+                case TYPE_FLOAT:
+                    buffer.putFloat(slot, ((Number) value).floatValue());
+                    break;
+                case TYPE_DOUBLE:
+                    buffer.putDouble(slot, ((Number) value).doubleValue());
+                    break;
+                default:
+                    byte[] bytes = strings[i];
+                    buffer.putInt(slot, stringOffset);
+                    buffer.putInt(slot + 4, bytes.length);
+                    for (int j = 0; j < bytes.length; j++) {
+                        buffer.put(row + stringOffset + j, bytes[j]);
+                    }
+                    stringOffset += bytes.length;
+                    break;
+            }
+        }
+
+        NamedWindowOffHeapEventBeanBase flyweight;
+        if (objectArray) {
+            flyweight = new NamedWindowOffHeapObjectArrayEventBean(this, segment, row);
+        } else {
+            flyweight = new NamedWindowOffHeapMapEventBean(this, segment, row);
+        }
+        segment.add(flyweight, length);
+        return flyweight;
+    }
+
+    /**
+     * Decode a row into an object-array that is laid out according to the object-array event type.
+     *
+     * @param buffer segment buffer
+     * @param row    row offset
+     * @return properties
+     */
+    public Object[] readArray(ByteBuffer buffer, int row) {
+        Object[] array = new Object[arrayLength];
+        for (int i = 0; i < types.length; i++) {
+            array[arrayIndexes[i]] = readSlot(buffer, row, i);
+        }
+        return array;
+    }
+
+    /**
+     * Decode a row into a map of property name and value.
+     *
+     * @param buffer segment buffer
+     * @param row    row offset
+     * @return properties
+     */
+    public Map<String, Object> readMap(ByteBuffer buffer, int row) {
+        Map<String, Object> map = new HashMap<String, Object>();
+        for (int i = 0; i < types.length; i++) {
+            map.put(propertyNames[i], readSlot(buffer, row, i));
+        }
+        return map;
+    }
+
+    /**
+     * Returns the length of a row in bytes.
+     *
+     * @param buffer segment buffer
+     * @param row    row offset
+     * @return length
+     */
+    public int getRowLength(ByteBuffer buffer, int row) {
+        int length = fixedLength;
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == TYPE_STRING && (buffer.get(row + (i >> 3)) & (1 << (i & 7))) == 0) {
+                length += buffer.getInt(row + slotOffsets[i] + 4);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Decode the value of a single slot of a row.
+     *
+     * @param buffer segment buffer
+     * @param row    row offset
+     * @param index  slot
+     * @return value
+     */
+    public Object readSlot(ByteBuffer buffer, int row, int index) {
+        if ((buffer.get(row + (index >> 3)) & (1 << (index & 7))) != 0) {
+            return null;
+        }
+        int slot = row + slotOffsets[index];
+        switch (types[index]) {
+            case TYPE_BOOLEAN:
+                return buffer.get(slot) != 0;
+            case TYPE_BYTE:
+                return buffer.get(slot);
+            case TYPE_SHORT:
+                return buffer.getShort(slot);
+            case TYPE_CHAR:
+                return buffer.getChar(slot);
+            case TYPE_INT:
+                return buffer.getInt(slot);
+            case TYPE_LONG:
+                return buffer.getLong(slot);
+            case TYPE_FLOAT:
+                return buffer.getFloat(slot);
+            case TYPE_DOUBLE:
+                return buffer.getDouble(slot);
+            default:
+                int offset = row + buffer.getInt(slot);
+                byte[] bytes = new byte[buffer.getInt(slot + 4)];
+                for (int j = 0; j < bytes.length; j++) {
+                    bytes[j] = buffer.get(offset + j);
+                }
+                return new String(bytes, UTF8);
+        }
+    }
+
+    private static Integer getTypeCode(Class type) {
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        if (boxed == Boolean.class) {
+            return TYPE_BOOLEAN;
+        } else if (boxed == Byte.class) {
+            return TYPE_BYTE;
+        } else if (boxed == Short.class) {
+            return TYPE_SHORT;
+        } else if (boxed == Character.class) {
+            return TYPE_CHAR;
+        } else if (boxed == Integer.class) {
+            return TYPE_INT;
+        } else if (boxed == Long.class) {
+            return TYPE_LONG;
+        } else if (boxed == Float.class) {
+            return TYPE_FLOAT;
+        } else if (boxed == Double.class) {
+            return TYPE_DOUBLE;
+        } else if (boxed == String.class) {
+            return TYPE_STRING;
+        }
+        return null;
+    }
+
+    private static int slotWidth(int type) {
+        switch (type) {
+            case TYPE_BOOLEAN:
+            case TYPE_BYTE:
+                return 1;
+            case TYPE_SHORT:
+            case TYPE_CHAR:
+                return 2;
+            case TYPE_INT:
+            case TYPE_FLOAT:
+                return 4;
+            default:
+                return 8;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.event.MappedEventBean;
+
+import java.util.Map;
+
+/**
+ * Flyweight event for a Map event type row of named window off-heap storage, decoding property values upon access.
+ */
+public class NamedWindowOffHeapMapEventBean extends NamedWindowOffHeapEventBeanBase implements MappedEventBean {
+    public NamedWindowOffHeapMapEventBean(NamedWindowOffHeapLayout layout, NamedWindowOffHeapSegment segment, int rowOffset) {
+        super(layout, segment, rowOffset);
+    }
+
+    public Map<String, Object> getProperties() {
+        return readMap();
+    }
+
+    public Object getUnderlying() {
+        return getProperties();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Flyweight event for an object-array event type row of named window off-heap storage, decoding property values upon access.
+ */
+public class NamedWindowOffHeapObjectArrayEventBean extends NamedWindowOffHeapEventBeanBase implements ObjectArrayBackedEventBean {
+    public NamedWindowOffHeapObjectArrayEventBean(NamedWindowOffHeapLayout layout, NamedWindowOffHeapSegment segment, int rowOffset) {
+        super(layout, segment, rowOffset);
+    }
+
+    public Object[] getProperties() {
+        return readArray();
+    }
+
+    public void setPropertyValues(Object[] objects) {
+        throw new UnsupportedOperationException("Off-heap named window rows cannot be modified");
+    }
+
+    public Object getUnderlying() {
+        return getProperties();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Direct-memory segment holding off-heap named window rows.
+ * <p>
+ * Rows are appended and never overwritten: flyweight events remain readable for as long as they are referenced,
+ * and the memory is returned when the segment and all flyweights referring to it are no longer referenced.
+ * The segment keeps strong references to the flyweights of its live rows so that the store can relocate them when the
+ * segment becomes sparse. These are the same flyweight objects that the data window holds, adding one reference per row.
+ * </p>
+ */
+public class NamedWindowOffHeapSegment {
+    private final ByteBuffer buffer;
+    private int used;
+    private NamedWindowOffHeapEventBeanBase[] liveRows = new NamedWindowOffHeapEventBeanBase[16];
+    private int numLiveRows;
+    private int liveBytes;
+
+    public NamedWindowOffHeapSegment(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    public int getRemaining() {
+        return buffer.capacity() - used;
+    }
+
+    public int getLiveRows() {
+        return numLiveRows;
+    }
+
+    public int getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * Allocate a row.
+     *
+     * @param length row length in bytes
+     * @return row offset
+     */
+    public int allocate(int length) {
+        int offset = used;
+        used += length;
+        return offset;
+    }
+
+    /**
+     * Add the flyweight of a row allocated from this segment to the live rows.
+     *
+     * @param row    flyweight
+     * @param length row length in bytes
+     */
+    public void add(NamedWindowOffHeapEventBeanBase row, int length) {
+        if (numLiveRows == liveRows.length) {
+            liveRows = Arrays.copyOf(liveRows, numLiveRows * 2);
+        }
+        liveRows[numLiveRows] = row;
+        row.setSegmentSlot(numLiveRows);
+        numLiveRows++;
+        liveBytes += length;
+    }
+
+    /**
+     * Indicate that a row of this segment was removed from the named window or relocated.
+     *
+     * @param row    flyweight
+     * @param length row length in bytes
+     * @return remaining number of live rows
+     */
+    public int release(NamedWindowOffHeapEventBeanBase row, int length) {
+        int slot = row.getSegmentSlot();
+        numLiveRows--;
+        NamedWindowOffHeapEventBeanBase last = liveRows[numLiveRows];
+        liveRows[slot] = last;
+        last.setSegmentSlot(slot);
+        liveRows[numLiveRows] = null;
+        row.setSegmentSlot(-1);
+        liveBytes -= length;
+        return numLiveRows;
+    }
+
+    /**
+     * Returns a copy of the live rows.
+     *
+     * @return flyweights
+     */
+    public NamedWindowOffHeapEventBeanBase[] copyLiveRows() {
+        return Arrays.copyOf(liveRows, numLiveRows);
+    }
+}
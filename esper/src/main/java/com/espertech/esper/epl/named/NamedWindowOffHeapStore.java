@@ -0,0 +1,166 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventBean;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Off-heap row storage for a named window instance, allocating rows from direct-memory segments.
+ * <p>
+ * Events entering the named window are encoded into rows and replaced by flyweight events that decode property values
+ * on demand. The flyweights are on-heap objects: the data window, the live rows of the segment and the index entries
+ * reference them, and index keys are decoded property values. Only the property values not used as index keys
+ * are kept off-heap exclusively.
+ * </p>
+ * <p>
+ * When removals leave a segment other than the current segment with less than a quarter of its capacity in live rows,
+ * the store copies the live rows to the current segment and points their flyweights to the copies, so that the
+ * allocated memory remains within a multiple of the live rows. Flyweights of removed rows remain readable.
+ * </p>
+ */
+public class NamedWindowOffHeapStore {
+    /**
+     * Default segment size.
+     */
+    public final static int SEGMENT_SIZE = 1024 * 1024;
+
+    private final static int SPARSE_FRACTION = 4;
+
+    private final NamedWindowOffHeapLayout layout;
+    private final int segmentSize;
+    private NamedWindowOffHeapSegment current;
+    private int numSegments;
+    private long allocatedBytes;
+    private long numRows;
+    private long numRelocatedRows;
+
+    public NamedWindowOffHeapStore(NamedWindowOffHeapLayout layout, int segmentSize) {
+        this.layout = layout;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Encode events into rows, returning the flyweight events.
+     * Events that are not of the named window event type remain on-heap.
+     *
+     * @param events to store
+     * @return flyweights
+     */
+    public EventBean[] store(EventBean[] events) {
+        if (events == null) {
+            return null;
+        }
+        EventBean[] result = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            EventBean theEvent = events[i];
+            if (theEvent instanceof NamedWindowOffHeapEventBean || theEvent.getEventType() != layout.getEventType()) {
+                result[i] = theEvent;
+            } else {
+                result[i] = layout.write(theEvent, this);
+                numRows++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Release the rows of events removed from the named window.
+     *
+     * @param events removed
+     */
+    public void release(EventBean[] events) {
+        if (events == null) {
+            return;
+        }
+        for (EventBean theEvent : events) {
+            if (!(theEvent instanceof NamedWindowOffHeapEventBeanBase)) {
+                continue;
+            }
+            NamedWindowOffHeapEventBeanBase row = (NamedWindowOffHeapEventBeanBase) theEvent;
+            if (row.getSegmentSlot() == -1) {
+                continue;
+            }
+            NamedWindowOffHeapSegment segment = row.getSegment();
+            numRows--;
+            int remaining = segment.release(row, row.getRowLength());
+            if (segment == current) {
+                continue;
+            }
+            if (remaining == 0) {
+                numSegments--;
+                allocatedBytes -= segment.getCapacity();
+            } else if (segment.getLiveBytes() < segment.getCapacity() / SPARSE_FRACTION) {
+                compact(segment);
+            }
+        }
+    }
+
+    /**
+     * Returns the segment to allocate a row of the given length from, allocating a new segment when required.
+     *
+     * @param length row length in bytes
+     * @return segment
+     */
+    public NamedWindowOffHeapSegment getSegment(int length) {
+        if (current != null && current.getRemaining() >= length) {
+            return current;
+        }
+        if (current != null && current.getLiveRows() == 0) {
+            numSegments--;
+            allocatedBytes -= current.getCapacity();
+        }
+        current = new NamedWindowOffHeapSegment(Math.max(segmentSize, length));
+        numSegments++;
+        allocatedBytes += current.getCapacity();
+        return current;
+    }
+
+    // copies the live rows of a sparse segment to the current segment, after which the segment has no live rows
+    private void compact(NamedWindowOffHeapSegment segment) {
+        for (NamedWindowOffHeapEventBeanBase row : segment.copyLiveRows()) {
+            int length = row.getRowLength();
+            NamedWindowOffHeapSegment target = getSegment(length);
+            int offset = target.allocate(length);
+
+            ByteBuffer source = segment.getBuffer().duplicate();
+            source.position(row.getRowOffset());
+            source.limit(row.getRowOffset() + length);
+            ByteBuffer destination = target.getBuffer().duplicate();
+            destination.position(offset);
+            destination.put(source);
+
+            segment.release(row, length);
+            row.relocate(target, offset);
+            target.add(row, length);
+            numRelocatedRows++;
+        }
+        numSegments--;
+        allocatedBytes -= segment.getCapacity();
+    }
+
+    public int getNumSegments() {
+        return numSegments;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getNumRows() {
+        return numRows;
+    }
+
+    public long getNumRelocatedRows() {
+        return numRelocatedRows;
+    }
+}
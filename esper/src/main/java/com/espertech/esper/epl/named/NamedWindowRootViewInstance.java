@@ -23,14 +23,13 @@ import com.espertech.esper.epl.join.table.EventTableUtil;
 import com.espertech.esper.epl.lookup.*;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
 import com.espertech.esper.util.CollectionUtil;
+import com.espertech.esper.view.DataWindowViewWithTimestamps;
+import com.espertech.esper.view.View;
 import com.espertech.esper.view.ViewSupport;
 import com.espertech.esper.view.Viewable;
 
 import java.lang.annotation.Annotation;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.*;
 
 /**
  * The root window in a named window plays multiple roles: It holds the indexes for deleting rows, if any on-delete statement
@@ -44,8 +43,15 @@ public class NamedWindowRootViewInstance extends ViewSupport {
     private final EventTableIndexRepository indexRepository;
     private final Map<SubordWMatchExprLookupStrategy, EventTable[]> tablePerMultiLookup;
 
+    private final NamedWindowOffHeapStore optionalOffHeapStore;
+
     private Iterable<EventBean> dataWindowContents;
 
+    // non-null during a bulk load: the loaded events, those that reached the data window and those that left it
+    private Set<EventBean> bulkLoaded;
+    private List<EventBean> bulkLoadPending;
+    private Set<EventBean> bulkLoadRemoved;
+
     public NamedWindowRootViewInstance(NamedWindowRootView rootView, AgentInstanceContext agentInstanceContext, EventTableIndexMetadata eventTableIndexMetadata) {
         this.rootView = rootView;
         this.agentInstanceContext = agentInstanceContext;
@@ -59,6 +65,7 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         }
 
         this.tablePerMultiLookup = new HashMap<SubordWMatchExprLookupStrategy, EventTable[]>();
+        this.optionalOffHeapStore = rootView.getOptionalOffHeapLayout() == null ? null : new NamedWindowOffHeapStore(rootView.getOptionalOffHeapLayout(), NamedWindowOffHeapStore.SEGMENT_SIZE);
     }
 
     public AgentInstanceContext getAgentInstanceContext() {
@@ -73,6 +80,10 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         return indexRepository.getIndexDescriptors();
     }
 
+    public NamedWindowOffHeapStore getOptionalOffHeapStore() {
+        return optionalOffHeapStore;
+    }
+
     public Iterable<EventBean> getDataWindowContents() {
         return dataWindowContents;
     }
@@ -94,10 +105,15 @@ public class NamedWindowRootViewInstance extends ViewSupport {
     public void removeOldData(EventBean[] oldData) {
         if (rootView.getRevisionProcessor() != null) {
             rootView.getRevisionProcessor().removeOldData(oldData, indexRepository, agentInstanceContext);
+        } else if (bulkLoadPending != null) {
+            removeOldDataBulkLoad(oldData);
         } else {
             for (EventTable table : indexRepository.getTables()) {
                 table.remove(oldData, agentInstanceContext);
             }
+            if (optionalOffHeapStore != null) {
+                optionalOffHeapStore.release(oldData);
+            }
         }
     }
 
@@ -108,6 +124,10 @@ public class NamedWindowRootViewInstance extends ViewSupport {
      */
     public void addNewData(EventBean[] newData) {
         if (rootView.getRevisionProcessor() == null) {
+            if (bulkLoadPending != null) {
+                addPendingBulkLoad(newData);
+                return;
+            }
             // Update indexes for fast deletion, if there are any
             for (EventTable table : indexRepository.getTables()) {
                 table.add(newData, agentInstanceContext);
@@ -115,11 +135,123 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         }
     }
 
+    /**
+     * Loads events into the data window without dispatching to consumers and without index maintenance per event.
+     * Indexes receive the loaded events that remain in the data window in one pass per index after the data window
+     * received all events. Requires the agent instance lock and a named window that is not a revision or virtual data window.
+     *
+     * @param newData events to load
+     */
+    public void bulkLoad(EventBean[] newData) {
+        if (optionalOffHeapStore != null) {
+            newData = optionalOffHeapStore.store(newData);
+        }
+
+        bulkLoaded = Collections.newSetFromMap(new IdentityHashMap<EventBean, Boolean>(newData.length));
+        bulkLoaded.addAll(Arrays.asList(newData));
+        bulkLoadPending = new ArrayList<EventBean>(newData.length);
+        bulkLoadRemoved = Collections.newSetFromMap(new IdentityHashMap<EventBean, Boolean>());
+        EventBean[] retained;
+        try {
+            if (rootView.isChildBatching()) {
+                addPendingBulkLoad(newData);
+            }
+            updateChildren(newData, null);
+
+            // a data window may post a loaded event as removed before posting it as added
+            List<EventBean> retainedList = new ArrayList<EventBean>(bulkLoadPending.size());
+            for (EventBean event : bulkLoadPending) {
+                if (!bulkLoadRemoved.contains(event)) {
+                    retainedList.add(event);
+                }
+            }
+            retained = retainedList.toArray(new EventBean[retainedList.size()]);
+        } finally {
+            bulkLoaded = null;
+            bulkLoadPending = null;
+            bulkLoadRemoved = null;
+        }
+
+        if (retained.length > 0) {
+            for (EventTable table : indexRepository.getTables()) {
+                table.add(retained, agentInstanceContext);
+            }
+        }
+    }
+
+    /**
+     * Returns true while a bulk load is in progress.
+     *
+     * @return bulk load indicator
+     */
+    public boolean isBulkLoading() {
+        return bulkLoadPending != null;
+    }
+
+    /**
+     * Returns, during a bulk load, the removed events that were in the data window before the bulk load,
+     * as consumers received these events before and must receive their removal.
+     *
+     * @param oldData removed stream of the data window
+     * @return removed events not loaded by the bulk load, or null if there are none
+     */
+    public EventBean[] getRemovedNotBulkLoaded(EventBean[] oldData) {
+        if (oldData == null) {
+            return null;
+        }
+        List<EventBean> removed = null;
+        for (EventBean event : oldData) {
+            if (!bulkLoaded.contains(event)) {
+                if (removed == null) {
+                    removed = new ArrayList<EventBean>(oldData.length);
+                }
+                removed.add(event);
+            }
+        }
+        if (removed == null) {
+            return null;
+        }
+        return removed.size() == oldData.length ? oldData : removed.toArray(new EventBean[removed.size()]);
+    }
+
+    private void addPendingBulkLoad(EventBean[] newData) {
+        bulkLoadPending.addAll(Arrays.asList(newData));
+    }
+
+    private void removeOldDataBulkLoad(EventBean[] oldData) {
+        // events loaded by this bulk load are not yet indexed
+        List<EventBean> indexed = null;
+        for (EventBean event : oldData) {
+            if (bulkLoaded.contains(event)) {
+                bulkLoadRemoved.add(event);
+            } else {
+                if (indexed == null) {
+                    indexed = new ArrayList<EventBean>(oldData.length);
+                }
+                indexed.add(event);
+            }
+        }
+        if (indexed != null) {
+            EventBean[] removed = indexed.toArray(new EventBean[indexed.size()]);
+            for (EventTable table : indexRepository.getTables()) {
+                table.remove(removed, agentInstanceContext);
+            }
+        }
+        if (optionalOffHeapStore != null) {
+            optionalOffHeapStore.release(oldData);
+        }
+    }
+
     // Called by deletion strategy and also the insert-into for new events only
     public void update(EventBean[] newData, EventBean[] oldData) {
         if (rootView.getRevisionProcessor() != null) {
             rootView.getRevisionProcessor().onUpdate(newData, oldData, this, indexRepository);
         } else {
+            // Keep new events off-heap, the data window, indexes and consumers receive the flyweight events
+            if (optionalOffHeapStore != null) {
+                newData = optionalOffHeapStore.store(newData);
+            }
+
             // Update indexes for fast deletion, if there are any
             for (EventTable table : indexRepository.getTables()) {
                 if (rootView.isChildBatching()) {
@@ -132,6 +264,40 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         }
     }
 
+    /**
+     * Returns the data window that retains events by arrival time, if the single data window of the named window
+     * provides timestamps and the named window is not a revision window.
+     * @return data window or null if not applicable
+     */
+    public DataWindowViewWithTimestamps getDataWindowWithTimestamps() {
+        if (rootView.getRevisionProcessor() != null) {
+            return null;
+        }
+        View[] views = getViews();
+        if (views.length != 1 || !(views[0] instanceof DataWindowViewWithTimestamps)) {
+            return null;
+        }
+        return (DataWindowViewWithTimestamps) views[0];
+    }
+
+    /**
+     * Restores snapshot events into the data window with their original arrival timestamps.
+     * @param newData events to restore, oldest first
+     * @param timestamps arrival timestamp of each event
+     * @param dataWindow the data window that is the child of this root view
+     */
+    public void restore(EventBean[] newData, long[] timestamps, DataWindowViewWithTimestamps dataWindow) {
+        if (optionalOffHeapStore != null) {
+            newData = optionalOffHeapStore.store(newData);
+        }
+        if (rootView.isChildBatching()) {
+            for (EventTable table : indexRepository.getTables()) {
+                table.add(newData, agentInstanceContext);
+            }
+        }
+        dataWindow.restore(newData, timestamps);
+    }
+
     public void setParent(Viewable parent) {
         super.setParent(parent);
     }
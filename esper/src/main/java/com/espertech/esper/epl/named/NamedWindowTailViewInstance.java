@@ -69,6 +69,15 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
             numberOfEvents += newData.length;
         }
 
+        // a bulk load does not output or dispatch loaded events, only the removal of events that were in the data window before
+        if (rootViewInstance.isBulkLoading()) {
+            oldData = rootViewInstance.getRemovedNotBulkLoaded(oldData);
+            if (oldData == null) {
+                return;
+            }
+            newData = null;
+        }
+
         // Post to child views, only if there are listeners or subscribers
         if (tailView.getStatementResultService().isMakeNatural() || tailView.getStatementResultService().isMakeSynthetic()) {
             updateChildren(newData, oldData);
@@ -13,6 +13,7 @@ package com.espertech.esper.epl.parse;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.tree.Tree;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -64,4 +65,15 @@ public class ParseResult {
     public List<String> getScripts() {
         return scripts;
     }
+
+    /**
+     * Returns a parse result for walking the parse tree that shares the parse tree with this parse result
+     * but has its own token stream and script list, since walking consumes the scripts and positions the token stream.
+     * The token stream of this parse result must have fetched all tokens.
+     *
+     * @return parse result for walking
+     */
+    public ParseResult copyForWalk() {
+        return new ParseResult(tree, expressionWithoutAnnotations, new ParseResultTokenStream(tokenStream), new ArrayList<String>(scripts));
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.parse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of parse results keyed by the statement text, for reuse when the same statement text is compiled again.
+ * <p>
+ * Parse results do not depend on engine state. A cached parse result is shared by all compilations of the statement text,
+ * and each compilation walks the shared parse tree using {@link ParseResult#copyForWalk()}.
+ * The least-recently-used entries are evicted when the cache exceeds its size. A cache size of zero disables
+ * the retention of entries.
+ * </p>
+ * <p>
+ * Pinned entries are held independent of the cache size until unpinned, for use by a deployment that
+ * parses all statements of a module up front.
+ * </p>
+ */
+public class ParseResultCache {
+    private static final float HASH_TABLE_LOAD_FACTOR = 0.75f;
+
+    private final int cacheSize;
+    private final LinkedHashMap<String, ParseResult> cache;
+    private final Map<String, ParseResult> pinned = new ConcurrentHashMap<String, ParseResult>();
+
+    /**
+     * Ctor.
+     *
+     * @param cacheSize is the maximum cache size, or zero for no cache
+     */
+    public ParseResultCache(int cacheSize) {
+        this.cacheSize = cacheSize;
+        if (cacheSize <= 0) {
+            this.cache = null;
+            return;
+        }
+        int hashTableCapacity = (int) Math.ceil(cacheSize / HASH_TABLE_LOAD_FACTOR) + 1;
+        this.cache = new LinkedHashMap<String, ParseResult>(hashTableCapacity, HASH_TABLE_LOAD_FACTOR, true) {
+            private static final long serialVersionUID = 1;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParseResult> eldest) {
+                return size() > ParseResultCache.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the parse result for the statement text, or null if not cached.
+     * The retrieved entry becomes the MRU (most recently used) entry.
+     *
+     * @param expression statement text
+     * @return parse result or null
+     */
+    public ParseResult get(String expression) {
+        if (!pinned.isEmpty()) {
+            ParseResult result = pinned.get(expression);
+            if (result != null) {
+                return result;
+            }
+        }
+        if (cache == null) {
+            return null;
+        }
+        synchronized (this) {
+            return cache.get(expression);
+        }
+    }
+
+    /**
+     * Adds the parse result for the statement text, evicting the LRU (least recently used) entry if the cache is full.
+     *
+     * @param expression  statement text
+     * @param parseResult parse result
+     */
+    public void put(String expression, ParseResult parseResult) {
+        if (cache == null) {
+            return;
+        }
+        synchronized (this) {
+            cache.put(expression, parseResult);
+        }
+    }
+
+    /**
+     * Pins the parse result for the statement text, retaining it until unpinned.
+     *
+     * @param expression  statement text
+     * @param parseResult parse result
+     */
+    public void pin(String expression, ParseResult parseResult) {
+        pinned.put(expression, parseResult);
+    }
+
+    /**
+     * Unpins the parse result for the statement text, if the pinned parse result is the same.
+     *
+     * @param expression  statement text
+     * @param parseResult parse result
+     */
+    public void unpin(String expression, ParseResult parseResult) {
+        pinned.remove(expression, parseResult);
+    }
+
+    /**
+     * Returns the maximum cache size.
+     *
+     * @return maximum cache size
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.parse;
+
+import org.antlr.v4.runtime.CommonTokenStream;
+
+/**
+ * Token stream over the tokens of a filled token stream, for walking a parse tree that is shared
+ * by multiple parse results without sharing the position state of the token stream.
+ */
+public class ParseResultTokenStream extends CommonTokenStream {
+    /**
+     * Ctor.
+     *
+     * @param filled token stream that has fetched all tokens
+     */
+    public ParseResultTokenStream(CommonTokenStream filled) {
+        super(filled.getTokenSource());
+        tokens.addAll(filled.getTokens());
+        fetchedEOF = true;
+    }
+}
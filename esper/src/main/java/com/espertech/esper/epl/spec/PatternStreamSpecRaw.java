@@ -14,6 +14,7 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.annotation.Audit;
 import com.espertech.esper.client.annotation.AuditEnum;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.service.ExprEvaluatorContextStatement;
 import com.espertech.esper.core.service.StatementContext;
@@ -138,6 +139,14 @@ public class PatternStreamSpecRaw extends StreamSpecBase implements StreamSpecRa
 
         recursiveCompile(evalFactoryNode, context, evaluatorContextStmt, eventTypeReferences, isInsertInto, tags, subexpressionIdStack, nodeStack, allTagNamesOrdered);
 
+        if (!isContextDeclaration && HintEnum.ENABLE_PATTERN_FILTER_INDEX.getHint(context.getAnnotations()) != null) {
+            List<EvalFilterFactoryNode> filterNodes = new ArrayList<EvalFilterFactoryNode>();
+            for (EvalFactoryNode filterNode : filterFactoryNodes) {
+                filterNodes.add((EvalFilterFactoryNode) filterNode);
+            }
+            EvalFilterIndexSpec.determineIndexSpecs(filterNodes, tags.getTaggedEventTypes());
+        }
+
         Audit auditPattern = AuditEnum.PATTERN.getAudit(context.getAnnotations());
         Audit auditPatternInstance = AuditEnum.PATTERNINSTANCES.getAudit(context.getAnnotations());
         EvalFactoryNode compiledEvalFactoryNode = evalFactoryNode;
@@ -2187,6 +2187,11 @@ public class StatementSpecMapper {
             return new PlugInProjectionExpression("rate", false);
         } else if (expr instanceof ExprNthAggNode) {
             return new PlugInProjectionExpression("nth", false);
+        } else if (expr instanceof ExprPercentileNode) {
+            ExprPercentileNode percentile = (ExprPercentileNode) expr;
+            return new PlugInProjectionExpression(percentile.getAggregationFunctionName(), percentile.isDistinct());
+        } else if (expr instanceof ExprApproxCountDistinctNode) {
+            return new PlugInProjectionExpression("approxCountDistinct", ((ExprApproxCountDistinctNode) expr).isDistinct());
         } else if (expr instanceof ExprLeavingAggNode) {
             return new PlugInProjectionExpression("leaving", false);
         } else if (expr instanceof ExprAggCountMinSketchNode) {
@@ -0,0 +1,255 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.table.mgmt;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar copy of the numeric plain columns of a keyed table, for vectorized fire-and-forget scans.
+ * <p>
+ * Each row occupies a slot. For each numeric plain column the store keeps the values of all slots in a primitive array,
+ * of type long for integral columns and of type double for floating-point columns, along with null indicators.
+ * Deleting a row moves the row of the last slot into the freed slot so that the occupied slots remain dense.
+ * </p>
+ * <p>
+ * The store changes under the table-level write lock and is read under the table-level lock.
+ * </p>
+ */
+public class TableColumnarStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String[] columnNames;
+    private final int[] propertyIndexes;
+    private final Class[] columnTypes;
+    private final boolean[] floating;
+    private final Map<EventBean, Integer> slots = new IdentityHashMap<EventBean, Integer>();
+
+    private long[][] longColumns;
+    private double[][] doubleColumns;
+    private boolean[][] nullColumns;
+    private EventBean[] rows;
+    private int size;
+
+    public TableColumnarStore(TableMetadata tableMetadata) {
+        List<String> names = new ArrayList<String>();
+        List<Integer> indexes = new ArrayList<Integer>();
+        List<Class> types = new ArrayList<Class>();
+        for (Map.Entry<String, TableMetadataColumn> entry : tableMetadata.getTableColumns().entrySet()) {
+            if (!(entry.getValue() instanceof TableMetadataColumnPlain)) {
+                continue;
+            }
+            Class type = JavaClassHelper.getBoxedType(tableMetadata.getInternalEventType().getPropertyType(entry.getKey()));
+            if (!isColumnarType(type)) {
+                continue;
+            }
+            names.add(entry.getKey());
+            indexes.add(((TableMetadataColumnPlain) entry.getValue()).getIndexPlain());
+            types.add(type);
+        }
+
+        int numColumns = names.size();
+        columnNames = names.toArray(new String[numColumns]);
+        columnTypes = types.toArray(new Class[numColumns]);
+        propertyIndexes = new int[numColumns];
+        floating = new boolean[numColumns];
+        for (int i = 0; i < numColumns; i++) {
+            propertyIndexes[i] = indexes.get(i);
+            floating[i] = JavaClassHelper.isFloatingPointClass(columnTypes[i]);
+        }
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns indicator whether values of the type are kept in columnar form.
+     *
+     * @param boxedType column type
+     * @return indicator
+     */
+    public static boolean isColumnarType(Class boxedType) {
+        return boxedType == Integer.class || boxedType == Long.class || boxedType == Double.class ||
+                boxedType == Short.class || boxedType == Byte.class || boxedType == Float.class;
+    }
+
+    public void add(EventBean row) {
+        if (size == rows.length) {
+            grow();
+        }
+        slots.put(row, size);
+        rows[size] = row;
+        write(size, row);
+        size++;
+    }
+
+    public void remove(EventBean row) {
+        Integer slot = slots.remove(row);
+        if (slot == null) {
+            return;
+        }
+        int last = size - 1;
+        if (slot != last) {
+            EventBean moved = rows[last];
+            rows[slot] = moved;
+            for (int i = 0; i < columnNames.length; i++) {
+                if (floating[i]) {
+                    doubleColumns[i][slot] = doubleColumns[i][last];
+                } else {
+                    longColumns[i][slot] = longColumns[i][last];
+                }
+                nullColumns[i][slot] = nullColumns[i][last];
+            }
+            slots.put(moved, slot);
+        }
+        rows[last] = null;
+        size = last;
+    }
+
+    /**
+     * Copies the column values of a row that was updated in place.
+     *
+     * @param row updated row
+     */
+    public void update(EventBean row) {
+        Integer slot = slots.get(row);
+        if (slot != null) {
+            write(slot, row);
+        }
+    }
+
+    public void clear() {
+        slots.clear();
+        size = 0;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the column number of a column, or -1 if the column is not kept in columnar form.
+     *
+     * @param columnName column name
+     * @return column number
+     */
+    public int getColumnNum(String columnName) {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equals(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isFloating(int columnNum) {
+        return floating[columnNum];
+    }
+
+    public Class getColumnType(int columnNum) {
+        return columnTypes[columnNum];
+    }
+
+    /**
+     * Returns the values of an integral column, valid for the first {@link #getSize()} slots.
+     *
+     * @param columnNum column number
+     * @return values
+     */
+    public long[] getLongs(int columnNum) {
+        return longColumns[columnNum];
+    }
+
+    /**
+     * Returns the values of a floating-point column, valid for the first {@link #getSize()} slots.
+     *
+     * @param columnNum column number
+     * @return values
+     */
+    public double[] getDoubles(int columnNum) {
+        return doubleColumns[columnNum];
+    }
+
+    /**
+     * Returns the null indicators of a column, valid for the first {@link #getSize()} slots.
+     *
+     * @param columnNum column number
+     * @return null indicators
+     */
+    public boolean[] getNulls(int columnNum) {
+        return nullColumns[columnNum];
+    }
+
+    /**
+     * Returns the rows by slot, valid for the first {@link #getSize()} slots.
+     *
+     * @return rows
+     */
+    public EventBean[] getRows() {
+        return rows;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private void write(int slot, EventBean row) {
+        Object[] properties = ((ObjectArrayBackedEventBean) row).getProperties();
+        for (int i = 0; i < columnNames.length; i++) {
+            Object value = properties[propertyIndexes[i]];
+            boolean isNull = value == null;
+            nullColumns[i][slot] = isNull;
+            if (floating[i]) {
+                doubleColumns[i][slot] = isNull ? 0 : ((Number) value).doubleValue();
+            } else {
+                longColumns[i][slot] = isNull ? 0 : ((Number) value).longValue();
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        int numColumns = columnNames.length;
+        longColumns = new long[numColumns][];
+        doubleColumns = new double[numColumns][];
+        nullColumns = new boolean[numColumns][];
+        for (int i = 0; i < numColumns; i++) {
+            if (floating[i]) {
+                doubleColumns[i] = new double[capacity];
+            } else {
+                longColumns[i] = new long[capacity];
+            }
+            nullColumns[i] = new boolean[capacity];
+        }
+        rows = new EventBean[capacity];
+    }
+
+    private void grow() {
+        int capacity = rows.length * 2;
+        for (int i = 0; i < columnNames.length; i++) {
+            if (floating[i]) {
+                double[] doubles = new double[capacity];
+                System.arraycopy(doubleColumns[i], 0, doubles, 0, size);
+                doubleColumns[i] = doubles;
+            } else {
+                long[] longs = new long[capacity];
+                System.arraycopy(longColumns[i], 0, longs, 0, size);
+                longColumns[i] = longs;
+            }
+            boolean[] nulls = new boolean[capacity];
+            System.arraycopy(nullColumns[i], 0, nulls, 0, size);
+            nullColumns[i] = nulls;
+        }
+        EventBean[] grown = new EventBean[capacity];
+        System.arraycopy(rows, 0, grown, 0, size);
+        rows = grown;
+    }
+}
@@ -12,6 +12,8 @@ package com.espertech.esper.epl.table.mgmt;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.resource.StatementResourceHolder;
@@ -44,6 +46,8 @@ public class TableMetadata {
     private final ObjectArrayEventType publicEventType;
     private final TableMetadataInternalEventToPublic eventToPublic;
     private final boolean queryPlanLogging;
+    private final int lockStripes;
+    private final boolean columnar;
 
     private final Map<String, List<TableUpdateStrategyReceiverDesc>> stmtNameToUpdateStrategyReceivers = new HashMap<String, List<TableUpdateStrategyReceiverDesc>>();
     private final EventTableIndexMetadata eventTableIndexMetadataRepo = new EventTableIndexMetadata();
@@ -66,6 +70,8 @@ public class TableMetadata {
         this.publicEventType = publicEventType;
         this.eventToPublic = eventToPublic;
         this.queryPlanLogging = queryPlanLogging;
+        this.lockStripes = getLockStripes(createTableStatementContext, keyTypes);
+        this.columnar = isColumnar(createTableStatementContext, keyTypes);
 
         if (keyTypes.length > 0) {
             Pair<int[], IndexMultiKey> pair = TableServiceUtil.getIndexMultikeyForKeys(tableColumns, internalEventType);
@@ -75,6 +81,24 @@ public class TableMetadata {
         }
     }
 
+    /**
+     * Returns the number of row lock stripes, or zero when rows are protected by the table-level lock only.
+     *
+     * @return lock stripes
+     */
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    /**
+     * Returns indicator whether the table keeps its numeric plain columns in columnar form.
+     *
+     * @return columnar indicator
+     */
+    public boolean isColumnar() {
+        return columnar;
+    }
+
     public Class[] getKeyTypes() {
         return keyTypes;
     }
@@ -266,4 +290,35 @@ public class TableMetadata {
     public StatementContext getStatementContextCreateTable() {
         return statementContextCreateTable;
     }
+
+    private static int getLockStripes(StatementContext statementContext, Class[] keyTypes) throws ExprValidationException {
+        Hint hint = HintEnum.TABLE_LOCK_STRIPES.getHint(statementContext.getAnnotations());
+        if (hint == null) {
+            return 0;
+        }
+        if (keyTypes.length == 0) {
+            throw new ExprValidationException("Hint '" + HintEnum.TABLE_LOCK_STRIPES.getValue() + "' requires a table that has primary key columns");
+        }
+        String value = HintEnum.TABLE_LOCK_STRIPES.getHintAssignedValue(hint);
+        int stripes;
+        try {
+            stripes = Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            stripes = 0;
+        }
+        if (stripes <= 0) {
+            throw new ExprValidationException("Hint '" + HintEnum.TABLE_LOCK_STRIPES.getValue() + "' requires a positive integer value but received '" + value + "'");
+        }
+        return stripes;
+    }
+
+    private static boolean isColumnar(StatementContext statementContext, Class[] keyTypes) throws ExprValidationException {
+        if (HintEnum.TABLE_COLUMNAR.getHint(statementContext.getAnnotations()) == null) {
+            return false;
+        }
+        if (keyTypes.length == 0) {
+            throw new ExprValidationException("Hint '" + HintEnum.TABLE_COLUMNAR.getValue() + "' requires a table that has primary key columns");
+        }
+        return true;
+    }
 }
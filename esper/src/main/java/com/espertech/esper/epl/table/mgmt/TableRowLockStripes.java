@@ -0,0 +1,63 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.table.mgmt;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Row locks for a keyed table that are assigned to rows by the hash code of the primary key.
+ * <p>
+ * Into-table aggregation updates hold the table-level read lock and the lock of the row's stripe,
+ * so that writers to rows of different stripes do not block each other.
+ * Operations that add, remove or iterate rows hold the table-level write lock.
+ * </p>
+ */
+public class TableRowLockStripes {
+    private final Lock[] locks;
+    private final int mask;
+
+    /**
+     * Ctor.
+     *
+     * @param numStripes number of stripes, rounded up to the next power of two
+     */
+    public TableRowLockStripes(int numStripes) {
+        int size = 1;
+        while (size < numStripes) {
+            size <<= 1;
+        }
+        locks = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the lock for the row with the given primary key.
+     *
+     * @param groupKey primary key
+     * @return lock
+     */
+    public Lock getLock(Object groupKey) {
+        if (groupKey == null) {
+            return locks[0];
+        }
+        int hash = groupKey.hashCode();
+        hash ^= hash >>> 16;
+        return locks[hash & mask];
+    }
+
+    public int getNumStripes() {
+        return locks.length;
+    }
+}
@@ -62,6 +62,17 @@ public abstract class TableStateInstance {
         }
     }
 
+    /**
+     * Adds rows as part of a bulk load.
+     *
+     * @param events rows to add
+     */
+    public void addEvents(EventBean[] events) {
+        for (EventBean event : events) {
+            addEvent(event);
+        }
+    }
+
     public void addEventUnadorned(EventBean event) {
         ObjectArrayBackedEventBean oa = (ObjectArrayBackedEventBean) event;
         AggregationRowPair aggs = tableMetadata.getRowFactory().makeAggs(agentInstanceContext.getAgentInstanceId(), null, null, getAggregationServicePassThru());
@@ -87,6 +98,33 @@ public abstract class TableStateInstance {
         return tableLevelRWLock;
     }
 
+    /**
+     * Returns the row locks when the table locks rows by stripes of the primary key.
+     *
+     * @return row lock stripes or null when rows are protected by the table-level lock only
+     */
+    public TableRowLockStripes getRowLockStripes() {
+        return null;
+    }
+
+    /**
+     * Returns the columnar copy of numeric columns when the table keeps columns in columnar form.
+     *
+     * @return columnar store or null when the table is not columnar
+     */
+    public TableColumnarStore getColumnarStore() {
+        return null;
+    }
+
+    /**
+     * Called after an update assigned new values to the columns of a row in place.
+     *
+     * @param row updated row
+     */
+    public void handleRowColumnsAssigned(ObjectArrayBackedEventBean row) {
+        // no action
+    }
+
     public EventTableIndexRepository getIndexRepository() {
         return indexRepository;
     }
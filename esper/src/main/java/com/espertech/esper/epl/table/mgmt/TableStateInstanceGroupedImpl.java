@@ -13,7 +13,6 @@ package com.espertech.esper.epl.table.mgmt;
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.epl.agg.access.AggregationServicePassThru;
@@ -34,6 +33,8 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
 
     private final Map<Object, ObjectArrayBackedEventBean> rows = new HashMap<Object, ObjectArrayBackedEventBean>();
     private final IndexMultiKey primaryIndexKey;
+    private final TableRowLockStripes rowLockStripes;
+    private final TableColumnarStore columnarStore;
 
     public TableStateInstanceGroupedImpl(TableMetadata tableMetadata, AgentInstanceContext agentInstanceContext) {
         super(tableMetadata, agentInstanceContext);
@@ -56,13 +57,33 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
             table = new PropertyIndexedEventTableSingleUnique(indexGetters.get(0), organization, tableMap);
         } else {
             EventPropertyGetter[] getters = indexGetters.toArray(new EventPropertyGetter[indexGetters.size()]);
-            Map<MultiKeyUntyped, EventBean> tableMap = (Map<MultiKeyUntyped, EventBean>) (Map<?, ?>) rows;
+            Map<Object, EventBean> tableMap = (Map<Object, EventBean>) (Map<Object, ?>) rows;
             table = new PropertyIndexedEventTableUnique(getters, organization, tableMap);
         }
 
         Pair<int[], IndexMultiKey> pair = TableServiceUtil.getIndexMultikeyForKeys(tableMetadata.getTableColumns(), tableMetadata.getInternalEventType());
         primaryIndexKey = pair.getSecond();
         indexRepository.addIndex(primaryIndexKey, new EventTableIndexRepositoryEntry(tableName, table));
+
+        rowLockStripes = tableMetadata.getLockStripes() > 0 ? new TableRowLockStripes(tableMetadata.getLockStripes()) : null;
+        columnarStore = tableMetadata.isColumnar() ? new TableColumnarStore(tableMetadata) : null;
+    }
+
+    @Override
+    public TableRowLockStripes getRowLockStripes() {
+        return rowLockStripes;
+    }
+
+    @Override
+    public TableColumnarStore getColumnarStore() {
+        return columnarStore;
+    }
+
+    @Override
+    public void handleRowColumnsAssigned(ObjectArrayBackedEventBean row) {
+        if (columnarStore != null) {
+            columnarStore.update(row);
+        }
     }
 
     public EventTable getIndex(String indexName) {
@@ -84,6 +105,9 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
             for (EventTable table : indexRepository.getTables()) {
                 table.add(theEvent, agentInstanceContext);
             }
+            if (columnarStore != null) {
+                columnarStore.add(theEvent);
+            }
         } catch (EPException ex) {
             for (EventTable table : indexRepository.getTables()) {
                 table.remove(theEvent, agentInstanceContext);
@@ -96,6 +120,32 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
         }
     }
 
+    @Override
+    public void addEvents(EventBean[] events) {
+        // the primary index detects duplicate keys, secondary indexes then receive all rows in one pass
+        EventTable primary = indexRepository.getIndexByDesc(primaryIndexKey);
+        for (int i = 0; i < events.length; i++) {
+            try {
+                primary.add(events[i], agentInstanceContext);
+            } catch (EPException ex) {
+                for (int j = 0; j <= i; j++) {
+                    primary.remove(events[j], agentInstanceContext);
+                }
+                throw ex;
+            }
+        }
+        for (EventTable table : indexRepository.getTables()) {
+            if (table != primary) {
+                table.add(events, agentInstanceContext);
+            }
+        }
+        if (columnarStore != null) {
+            for (EventBean event : events) {
+                columnarStore.add(event);
+            }
+        }
+    }
+
     public void deleteEvent(EventBean matchingEvent) {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qTableDeleteEvent(matchingEvent);
@@ -103,6 +153,9 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
         for (EventTable table : indexRepository.getTables()) {
             table.remove(matchingEvent, agentInstanceContext);
         }
+        if (columnarStore != null) {
+            columnarStore.remove(matchingEvent);
+        }
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().aTableDeleteEvent();
         }
@@ -145,6 +198,9 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
         for (EventTable table : indexRepository.getTables()) {
             table.destroy();
         }
+        if (columnarStore != null) {
+            columnarStore.clear();
+        }
     }
 
     public void destroyInstance() {
@@ -14,7 +14,9 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.view.ViewSupport;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 public class TableStateViewablePublic extends ViewSupport {
 
@@ -35,7 +37,22 @@ public class TableStateViewablePublic extends ViewSupport {
     }
 
     public Iterator<EventBean> iterator() {
-        return new TableToPublicIterator(tableStateInstance);
+        if (tableStateInstance.getRowLockStripes() == null || tableStateInstance.getTableLevelRWLock().getReadHoldCount() > 0) {
+            return new TableToPublicIterator(tableStateInstance);
+        }
+
+        // rows locked by stripes may change while holding the read lock, iterate a snapshot taken holding the write lock
+        List<EventBean> snapshot = new ArrayList<EventBean>(tableStateInstance.getRowCount());
+        tableStateInstance.getTableLevelRWLock().writeLock().lock();
+        try {
+            Iterator<EventBean> it = new TableToPublicIterator(tableStateInstance);
+            while (it.hasNext()) {
+                snapshot.add(it.next());
+            }
+        } finally {
+            tableStateInstance.getTableLevelRWLock().writeLock().unlock();
+        }
+        return snapshot.iterator();
     }
 
     private static class TableToPublicIterator implements Iterator<EventBean> {
@@ -17,6 +17,7 @@ import com.espertech.esper.epl.expression.table.ExprTableAccessEvalStrategy;
 import com.espertech.esper.event.ObjectArrayBackedEventBean;
 
 import java.util.Collection;
+import java.util.concurrent.locks.Lock;
 
 public abstract class ExprTableEvalStrategyGroupByAccessBase extends ExprTableEvalStrategyGroupByBase implements ExprTableAccessEvalStrategy {
 
@@ -32,7 +33,16 @@ public abstract class ExprTableEvalStrategyGroupByAccessBase extends ExprTableEv
         if (row == null) {
             return null;
         }
-        return ExprTableEvalStrategyUtil.evalAccessorGetValue(ExprTableEvalStrategyUtil.getRow(row), pair, eventsPerStream, isNewData, context);
+        Lock rowLock = getRowLock(group);
+        if (rowLock == null) {
+            return ExprTableEvalStrategyUtil.evalAccessorGetValue(ExprTableEvalStrategyUtil.getRow(row), pair, eventsPerStream, isNewData, context);
+        }
+        rowLock.lock();
+        try {
+            return ExprTableEvalStrategyUtil.evalAccessorGetValue(ExprTableEvalStrategyUtil.getRow(row), pair, eventsPerStream, isNewData, context);
+        } finally {
+            rowLock.unlock();
+        }
     }
 
     public Object[] evaluateTypableSingle(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
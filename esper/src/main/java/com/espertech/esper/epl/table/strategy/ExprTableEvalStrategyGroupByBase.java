@@ -11,9 +11,12 @@
 package com.espertech.esper.epl.table.strategy;
 
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.table.mgmt.TableRowLockStripes;
 import com.espertech.esper.epl.table.mgmt.TableStateInstanceGrouped;
 import com.espertech.esper.event.ObjectArrayBackedEventBean;
 
+import java.util.concurrent.locks.Lock;
+
 public abstract class ExprTableEvalStrategyGroupByBase {
 
     private final TableAndLockProviderGrouped provider;
@@ -28,6 +31,18 @@ public abstract class ExprTableEvalStrategyGroupByBase {
         return tableAndLockGrouped.getGrouped().getRowForGroupKey(group);
     }
 
+    /**
+     * Returns the lock of the row when the table locks rows by stripes, for reading the aggregation state of the row
+     * while into-table writers may update the same row.
+     *
+     * @param group primary key
+     * @return row lock or null when the table-level lock protects rows
+     */
+    protected Lock getRowLock(Object group) {
+        TableRowLockStripes stripes = provider.get().getGrouped().getRowLockStripes();
+        return stripes == null ? null : stripes.getLock(group);
+    }
+
     protected TableStateInstanceGrouped lockTableRead(ExprEvaluatorContext context) {
         TableAndLockGrouped tableAndLockGrouped = provider.get();
         ExprTableEvalLockUtil.obtainLockUnless(tableAndLockGrouped.getLock(), context);
@@ -16,6 +16,7 @@ import com.espertech.esper.epl.expression.table.ExprTableAccessEvalStrategy;
 import com.espertech.esper.event.ObjectArrayBackedEventBean;
 
 import java.util.Collection;
+import java.util.concurrent.locks.Lock;
 
 public abstract class ExprTableEvalStrategyGroupByMethodBase extends ExprTableEvalStrategyGroupByBase implements ExprTableAccessEvalStrategy {
 
@@ -31,7 +32,16 @@ public abstract class ExprTableEvalStrategyGroupByMethodBase extends ExprTableEv
         if (row == null) {
             return null;
         }
-        return ExprTableEvalStrategyUtil.evalMethodGetValue(ExprTableEvalStrategyUtil.getRow(row), index);
+        Lock rowLock = getRowLock(groupKey);
+        if (rowLock == null) {
+            return ExprTableEvalStrategyUtil.evalMethodGetValue(ExprTableEvalStrategyUtil.getRow(row), index);
+        }
+        rowLock.lock();
+        try {
+            return ExprTableEvalStrategyUtil.evalMethodGetValue(ExprTableEvalStrategyUtil.getRow(row), index);
+        } finally {
+            rowLock.unlock();
+        }
     }
 
     public Object[] evaluateTypableSingle(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
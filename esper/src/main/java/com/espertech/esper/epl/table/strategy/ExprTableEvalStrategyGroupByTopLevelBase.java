@@ -18,6 +18,7 @@ import com.espertech.esper.event.ObjectArrayBackedEventBean;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
 public abstract class ExprTableEvalStrategyGroupByTopLevelBase extends ExprTableEvalStrategyGroupByBase implements ExprTableAccessEvalStrategy {
 
@@ -33,7 +34,16 @@ public abstract class ExprTableEvalStrategyGroupByTopLevelBase extends ExprTable
         if (row == null) {
             return null;
         }
-        return ExprTableEvalStrategyUtil.evalMap(row, ExprTableEvalStrategyUtil.getRow(row), items, eventsPerStream, isNewData, context);
+        Lock rowLock = getRowLock(groupKey);
+        if (rowLock == null) {
+            return ExprTableEvalStrategyUtil.evalMap(row, ExprTableEvalStrategyUtil.getRow(row), items, eventsPerStream, isNewData, context);
+        }
+        rowLock.lock();
+        try {
+            return ExprTableEvalStrategyUtil.evalMap(row, ExprTableEvalStrategyUtil.getRow(row), items, eventsPerStream, isNewData, context);
+        } finally {
+            rowLock.unlock();
+        }
     }
 
     protected Object[] evaluateTypableSingleInternal(Object groupKey, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
@@ -41,7 +51,16 @@ public abstract class ExprTableEvalStrategyGroupByTopLevelBase extends ExprTable
         if (row == null) {
             return null;
         }
-        return ExprTableEvalStrategyUtil.evalTypable(row, ExprTableEvalStrategyUtil.getRow(row), items, eventsPerStream, isNewData, context);
+        Lock rowLock = getRowLock(groupKey);
+        if (rowLock == null) {
+            return ExprTableEvalStrategyUtil.evalTypable(row, ExprTableEvalStrategyUtil.getRow(row), items, eventsPerStream, isNewData, context);
+        }
+        rowLock.lock();
+        try {
+            return ExprTableEvalStrategyUtil.evalTypable(row, ExprTableEvalStrategyUtil.getRow(row), items, eventsPerStream, isNewData, context);
+        } finally {
+            rowLock.unlock();
+        }
     }
 
     public Collection<EventBean> evaluateGetROCollectionEvents(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
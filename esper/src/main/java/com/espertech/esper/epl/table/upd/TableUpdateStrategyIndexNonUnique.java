@@ -61,6 +61,7 @@ public class TableUpdateStrategyIndexNonUnique implements TableUpdateStrategy {
             // apply in-place updates
             updateHelper.updateNoCopy(updatedEvent, eventsPerStream, exprEvaluatorContext);
             instance.handleRowUpdated(updatedEvent);
+            instance.handleRowColumnsAssigned(updatedEvent);
         }
 
         // add to affected indexes
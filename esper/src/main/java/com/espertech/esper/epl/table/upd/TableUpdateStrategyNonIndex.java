@@ -43,6 +43,7 @@ public class TableUpdateStrategyNonIndex implements TableUpdateStrategy {
             // apply in-place updates
             updateHelper.updateNoCopy(updatedEvent, eventsPerStream, exprEvaluatorContext);
             instance.handleRowUpdated(updatedEvent);
+            instance.handleRowColumnsAssigned(updatedEvent);
         }
     }
 }
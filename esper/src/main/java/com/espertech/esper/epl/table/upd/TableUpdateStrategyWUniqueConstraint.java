@@ -69,6 +69,7 @@ public class TableUpdateStrategyWUniqueConstraint implements TableUpdateStrategy
             instance.handleRowUpdateKeyBeforeUpdate(updatedEvent);
             updateHelper.updateNoCopy(updatedEvent, eventsPerStream, exprEvaluatorContext);
             instance.handleRowUpdateKeyAfterUpdate(updatedEvent);
+            instance.handleRowColumnsAssigned(updatedEvent);
         }
 
         // add to affected indexes
@@ -88,6 +89,7 @@ public class TableUpdateStrategyWUniqueConstraint implements TableUpdateStrategy
             for (int i = 0; i < events.length; i++) {
                 ObjectArrayBackedEventBean oa = (ObjectArrayBackedEventBean) events[i];
                 oa.setPropertyValues(previousData[i]);
+                instance.handleRowColumnsAssigned(oa);
             }
             // add old events
             for (String affectedIndexName : affectedIndexNames) {
@@ -0,0 +1,35 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * For Map and object-array events that keep property values encoded and decode a single property value upon access,
+ * so that the property getters of the event type do not decode the complete underlying.
+ */
+public interface DecodingEventBean extends EventBean {
+    /**
+     * Returns the decoded value of a property of a Map event type.
+     *
+     * @param propertyName property name
+     * @return value
+     */
+    public Object getDecodedProperty(String propertyName);
+
+    /**
+     * Returns the decoded value of a property of an object-array event type.
+     *
+     * @param index property index within the object-array
+     * @return value
+     */
+    public Object getDecodedPropertyAt(int index);
+}
@@ -399,6 +399,8 @@ public interface EventAdapterService extends EventBeanService {
 
     public void setDefaultAccessorStyle(ConfigurationEventTypeLegacy.AccessorStyle defaultAccessorStyle);
 
+    public void setDefaultCodeGeneration(ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration);
+
     public EventType replaceXMLEventType(String xmlEventTypeName, ConfigurationEventTypeXMLDOM config, SchemaModel schemaModel);
 
     public Map<String, EventType> getDeclaredEventTypes();
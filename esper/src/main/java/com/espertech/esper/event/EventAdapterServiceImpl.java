@@ -305,6 +305,10 @@ public class EventAdapterServiceImpl implements EventAdapterService {
         beanEventAdapter.setDefaultAccessorStyle(defaultAccessorStyle);
     }
 
+    public void setDefaultCodeGeneration(ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration) {
+        beanEventAdapter.setDefaultCodeGeneration(defaultCodeGeneration);
+    }
+
     public EventType getExistsTypeByName(String eventTypeName) {
         if (eventTypeName == null) {
             throw new IllegalStateException("Null event type name parameter");
@@ -16,6 +16,7 @@ import com.espertech.esper.codegen.core.CodegenContext;
 import com.espertech.esper.codegen.core.CodegenMember;
 import com.espertech.esper.codegen.model.expression.CodegenExpression;
 import com.espertech.esper.event.BaseNestableEventUtil;
+import com.espertech.esper.event.DecodingEventBean;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.bean.BeanEventType;
 
@@ -51,6 +52,9 @@ public class ObjectArrayEntryPropertyGetter implements ObjectArrayEventPropertyG
     }
 
     public Object get(EventBean obj) {
+        if (obj instanceof DecodingEventBean) {
+            return ((DecodingEventBean) obj).getDecodedPropertyAt(propertyIndex);
+        }
         Object[] arr = BaseNestableEventUtil.checkedCastUnderlyingObjectArray(obj);
         return getObjectArray(arr);
     }
@@ -68,7 +72,11 @@ public class ObjectArrayEntryPropertyGetter implements ObjectArrayEventPropertyG
     }
 
     public CodegenExpression eventBeanGetCodegen(CodegenExpression beanExpression, CodegenContext context) {
-        return underlyingGetCodegen(castUnderlying(Object[].class, beanExpression), context);
+        String method = context.addMethod(Object.class, ObjectArrayEntryPropertyGetter.class).add(EventBean.class, "bean").begin()
+                .ifInstanceOf("bean", DecodingEventBean.class)
+                    .blockReturn(exprDotMethod(cast(DecodingEventBean.class, ref("bean")), "getDecodedPropertyAt", constant(propertyIndex)))
+                .methodReturn(underlyingGetCodegen(castUnderlying(Object[].class, ref("bean")), context));
+        return localMethod(method, beanExpression);
     }
 
     public CodegenExpression eventBeanExistsCodegen(CodegenExpression beanExpression, CodegenContext context) {
@@ -0,0 +1,122 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.codegen.core.CodegenContext;
+import com.espertech.esper.codegen.model.expression.CodegenExpression;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.EventPropertyGetterAndIndexed;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
+
+/**
+ * Getter for an array property identified by a given index, using a function bound by lambda metafactory.
+ */
+public class ArrayLambdaPropertyGetter extends BaseNativePropertyGetter implements BeanEventPropertyGetter, EventPropertyGetterAndIndexed {
+    private final Method method;
+    private final Function<Object, Object> accessor;
+    private final int index;
+
+    /**
+     * Constructor.
+     *
+     * @param method              the underlying method
+     * @param accessor            is the function to use to retrieve a value from the object
+     * @param index               is tge index within the array to get the property from
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public ArrayLambdaPropertyGetter(Method method, Function<Object, Object> accessor, int index, EventAdapterService eventAdapterService) {
+        super(eventAdapterService, method.getReturnType().getComponentType(), null);
+        this.index = index;
+        this.method = method;
+        this.accessor = accessor;
+
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid negative index value");
+        }
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException {
+        return getBeanPropInternal(object, index);
+    }
+
+    public boolean isBeanExistsProperty(Object object) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException {
+        return getBeanProp(obj.getUnderlying());
+    }
+
+    public Object get(EventBean eventBean, int index) throws PropertyAccessException {
+        return getBeanPropInternal(eventBean.getUnderlying(), index);
+    }
+
+    public String toString() {
+        return "ArrayLambdaPropertyGetter " +
+                " method=" + method.toGenericString() +
+                " index=" + index;
+    }
+
+    public boolean isExistsProperty(EventBean eventBean) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public Class getBeanPropType() {
+        return method.getReturnType().getComponentType();
+    }
+
+    public Class getTargetType() {
+        return method.getDeclaringClass();
+    }
+
+    public CodegenExpression eventBeanGetCodegen(CodegenExpression beanExpression, CodegenContext context) {
+        return underlyingGetCodegen(castUnderlying(getTargetType(), beanExpression), context);
+    }
+
+    public CodegenExpression eventBeanExistsCodegen(CodegenExpression beanExpression, CodegenContext context) {
+        return underlyingExistsCodegen(castUnderlying(getTargetType(), beanExpression), context);
+    }
+
+    public CodegenExpression underlyingGetCodegen(CodegenExpression underlyingExpression, CodegenContext context) {
+        return localMethod(ArrayFastPropertyGetter.getBeanPropInternalCode(context, method), underlyingExpression, constant(index));
+    }
+
+    public CodegenExpression underlyingExistsCodegen(CodegenExpression underlyingExpression, CodegenContext context) {
+        return constantTrue();
+    }
+
+    public CodegenExpression eventBeanGetIndexedCodegen(CodegenContext context, CodegenExpression beanExpression, CodegenExpression key) {
+        return localMethod(ArrayFastPropertyGetter.getBeanPropInternalCode(context, method), castUnderlying(getTargetType(), beanExpression), key);
+    }
+
+    private Object getBeanPropInternal(Object object, int index) throws PropertyAccessException {
+        try {
+            Object value = accessor.apply(object);
+            if (Array.getLength(value) <= index) {
+                return null;
+            }
+            return Array.get(value, index);
+        } catch (ClassCastException e) {
+            throw PropertyUtility.getMismatchException(method, object, e);
+        } catch (RuntimeException e) {
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+    }
+}
@@ -36,6 +36,7 @@ public class BeanEventAdapter implements BeanEventTypeFactory {
     private Map<String, ConfigurationEventTypeLegacy> classToLegacyConfigs;
     private Configuration.PropertyResolutionStyle defaultPropertyResolutionStyle;
     private ConfigurationEventTypeLegacy.AccessorStyle defaultAccessorStyle = ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN;
+    private ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration = ConfigurationEventTypeLegacy.CodeGeneration.ENABLED;
 
     /**
      * Ctor.
@@ -68,6 +69,15 @@ public class BeanEventAdapter implements BeanEventTypeFactory {
         this.defaultAccessorStyle = defaultAccessorStyle;
     }
 
+    /**
+     * Sets the default code generation.
+     *
+     * @param defaultCodeGeneration code generation to set
+     */
+    public void setDefaultCodeGeneration(ConfigurationEventTypeLegacy.CodeGeneration defaultCodeGeneration) {
+        this.defaultCodeGeneration = defaultCodeGeneration;
+    }
+
     /**
      * Set the additional mappings for legacy classes.
      *
@@ -131,9 +141,10 @@ public class BeanEventAdapter implements BeanEventTypeFactory {
 
             // Check if we have a legacy type definition for this class
             ConfigurationEventTypeLegacy legacyDef = classToLegacyConfigs.get(clazz.getName());
-            if ((legacyDef == null) && (defaultAccessorStyle != ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN)) {
+            if ((legacyDef == null) && ((defaultAccessorStyle != ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN) || (defaultCodeGeneration != ConfigurationEventTypeLegacy.CodeGeneration.ENABLED))) {
                 legacyDef = new ConfigurationEventTypeLegacy();
                 legacyDef.setAccessorStyle(defaultAccessorStyle);
+                legacyDef.setCodeGeneration(defaultCodeGeneration);
             }
 
             int typeId = eventTypeIdGenerator.getTypeId(name);
@@ -42,6 +42,7 @@ public class BeanEventType implements EventTypeSPI, NativeEventType {
     private Map<String, InternalEventPropDescriptor> indexedPropertyDescriptors;
     private EventType[] superTypes;
     private FastClass fastClass;
+    private boolean lambdaAccessors;
     private Set<EventType> deepSuperTypes;
     private Configuration.PropertyResolutionStyle propertyResolutionStyle;
 
@@ -345,6 +346,15 @@ public class BeanEventType implements EventTypeSPI, NativeEventType {
         return fastClass;
     }
 
+    /**
+     * Returns indicator whether property getters and instantiation use functions bound by lambda metafactory.
+     *
+     * @return lambda indicator
+     */
+    public boolean isLambdaAccessors() {
+        return lambdaAccessors;
+    }
+
     public String toString() {
         return "BeanEventType" +
                 " name=" + getName() +
@@ -387,6 +397,8 @@ public class BeanEventType implements EventTypeSPI, NativeEventType {
             }
         }
 
+        lambdaAccessors = optionalLegacyDef != null && optionalLegacyDef.getCodeGeneration() == ConfigurationEventTypeLegacy.CodeGeneration.LAMBDA;
+
         int count = 0;
         for (InternalEventPropDescriptor desc : properties) {
             String propertyName = desc.getPropertyName();
@@ -402,7 +414,7 @@ public class BeanEventType implements EventTypeSPI, NativeEventType {
                 EventPropertyGetterSPI getter;
                 Class type;
                 if (desc.getReadMethod() != null) {
-                    getter = PropertyHelper.getGetter(desc.getReadMethod(), fastClass, eventAdapterService);
+                    getter = PropertyHelper.getGetter(desc.getReadMethod(), fastClass, lambdaAccessors, eventAdapterService);
                     type = desc.getReadMethod().getReturnType();
                 } else {
                     if (desc.getAccessorField() == null) {
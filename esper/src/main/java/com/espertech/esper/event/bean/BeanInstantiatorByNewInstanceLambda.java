@@ -0,0 +1,38 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Supplier;
+
+public class BeanInstantiatorByNewInstanceLambda implements BeanInstantiator {
+    private static Logger log = LoggerFactory.getLogger(BeanInstantiatorByNewInstanceLambda.class);
+
+    private final Class clazz;
+    private final Supplier<Object> constructor;
+
+    public BeanInstantiatorByNewInstanceLambda(Class clazz, Supplier<Object> constructor) {
+        this.clazz = clazz;
+        this.constructor = constructor;
+    }
+
+    public Object instantiate() {
+        try {
+            return constructor.get();
+        } catch (RuntimeException e) {
+            String message = "Unexpected exception encountered invoking constructor on class '" + clazz.getName() + "': " + e.getMessage();
+            log.error(message, e);
+            return null;
+        }
+    }
+}
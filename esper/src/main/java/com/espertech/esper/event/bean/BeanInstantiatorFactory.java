@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.function.Supplier;
 
 public class BeanInstantiatorFactory {
     private static Logger log = LoggerFactory.getLogger(BeanInstantiatorFactory.class);
@@ -52,7 +53,10 @@ public class BeanInstantiatorFactory {
         EngineImportException ctorNotFoundEx;
         try {
             engineImportService.resolveCtor(beanEventType.getUnderlyingType(), new Class[0]);
-            if (beanEventType.getFastClass() != null) {
+            Supplier<Object> constructor = beanEventType.isLambdaAccessors() ? LambdaAccessorFactory.makeConstructor(beanEventType.getUnderlyingType()) : null;
+            if (constructor != null) {
+                return new BeanInstantiatorByNewInstanceLambda(beanEventType.getUnderlyingType(), constructor);
+            } else if (beanEventType.getFastClass() != null) {
                 return new BeanInstantiatorByNewInstanceFastClass(beanEventType.getFastClass());
             } else {
                 return new BeanInstantiatorByNewInstanceReflection(beanEventType.getUnderlyingType());
@@ -0,0 +1,121 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.codegen.core.CodegenContext;
+import com.espertech.esper.codegen.model.expression.CodegenExpression;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.EventPropertyGetterAndIndexed;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
+import static com.espertech.esper.event.bean.IterableMethodPropertyGetter.getBeanEventIterableValue;
+
+/**
+ * Getter for a iterable property identified by a given index, using a function bound by lambda metafactory.
+ */
+public class IterableLambdaPropertyGetter extends BaseNativePropertyGetter implements BeanEventPropertyGetter, EventPropertyGetterAndIndexed {
+    private final Method method;
+    private final Function<Object, Object> accessor;
+    private final int index;
+
+    /**
+     * Constructor.
+     *
+     * @param method              the underlying method
+     * @param accessor            is the function to use to retrieve a value from the object
+     * @param index               is tge index within the array to get the property from
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public IterableLambdaPropertyGetter(Method method, Function<Object, Object> accessor, int index, EventAdapterService eventAdapterService) {
+        super(eventAdapterService, JavaClassHelper.getGenericReturnType(method, false), null);
+        this.index = index;
+        this.method = method;
+        this.accessor = accessor;
+
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid negative index value");
+        }
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException {
+        return getBeanProp(object, index);
+    }
+
+    public Object getBeanProp(Object object, int index) throws PropertyAccessException {
+        try {
+            Object value = accessor.apply(object);
+            return getBeanEventIterableValue(value, index);
+        } catch (ClassCastException e) {
+            throw PropertyUtility.getMismatchException(method, object, e);
+        } catch (RuntimeException e) {
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+    }
+
+    public Object get(EventBean eventBean, int index) throws PropertyAccessException {
+        return getBeanProp(eventBean.getUnderlying(), index);
+    }
+
+    public boolean isBeanExistsProperty(Object object) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException {
+        Object underlying = obj.getUnderlying();
+        return getBeanProp(underlying);
+    }
+
+    public String toString() {
+        return "ListFastPropertyGetter " +
+                " method=" + method.toGenericString() +
+                " index=" + index;
+    }
+
+    public boolean isExistsProperty(EventBean eventBean) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public Class getBeanPropType() {
+        return JavaClassHelper.getGenericReturnType(method, false);
+    }
+
+    public Class getTargetType() {
+        return method.getDeclaringClass();
+    }
+
+    public CodegenExpression eventBeanGetCodegen(CodegenExpression beanExpression, CodegenContext context) {
+        return underlyingGetCodegen(castUnderlying(getTargetType(), beanExpression), context);
+    }
+
+    public CodegenExpression eventBeanExistsCodegen(CodegenExpression beanExpression, CodegenContext context) {
+        return constantTrue();
+    }
+
+    public CodegenExpression underlyingGetCodegen(CodegenExpression underlyingExpression, CodegenContext context) {
+        return localMethod(IterableMethodPropertyGetter.getBeanPropCodegen(context, getBeanPropType(), getTargetType(), method), underlyingExpression, constant(index));
+    }
+
+    public CodegenExpression underlyingExistsCodegen(CodegenExpression underlyingExpression, CodegenContext context) {
+        return constantTrue();
+    }
+
+    public CodegenExpression eventBeanGetIndexedCodegen(CodegenContext context, CodegenExpression beanExpression, CodegenExpression key) {
+        return localMethod(IterableMethodPropertyGetter.getBeanPropCodegen(context, getBeanPropType(), getTargetType(), method), castUnderlying(getTargetType(), beanExpression), key);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.codegen.core.CodegenContext;
+import com.espertech.esper.codegen.model.expression.CodegenExpression;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.EventPropertyGetterAndMapped;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
+import static com.espertech.esper.event.bean.KeyedMapMethodPropertyGetter.getBeanPropInternalCodegen;
+
+/**
+ * Getter for a key property identified by a given key value of a map, using a function bound by lambda metafactory.
+ */
+public class KeyedMapLambdaPropertyGetter extends BaseNativePropertyGetter implements BeanEventPropertyGetter, EventPropertyGetterAndMapped {
+    private final Method method;
+    private final Function<Object, Object> accessor;
+    private final Object key;
+
+    /**
+     * Constructor.
+     *
+     * @param method              the underlying method
+     * @param accessor            is the function to use to retrieve a value from the object
+     * @param key                 is the key to supply as parameter to the mapped property getter
+     * @param eventAdapterService factory for event beans and event types
+     */
+    public KeyedMapLambdaPropertyGetter(Method method, Function<Object, Object> accessor, Object key, EventAdapterService eventAdapterService) {
+        super(eventAdapterService, JavaClassHelper.getGenericReturnTypeMap(method, false), null);
+        this.key = key;
+        this.method = method;
+        this.accessor = accessor;
+    }
+
+    public boolean isBeanExistsProperty(Object object) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public Object getBeanProp(Object object) throws PropertyAccessException {
+        return getBeanPropInternal(object, key);
+    }
+
+    public Object get(EventBean eventBean, String mapKey) throws PropertyAccessException {
+        return getBeanPropInternal(eventBean.getUnderlying(), mapKey);
+    }
+
+    public Object getBeanPropInternal(Object object, Object key) throws PropertyAccessException {
+        try {
+            Object result = accessor.apply(object);
+            if (!(result instanceof Map)) {
+                return null;
+            }
+            Map resultMap = (Map) result;
+            return resultMap.get(key);
+        } catch (ClassCastException e) {
+            throw PropertyUtility.getMismatchException(method, object, e);
+        } catch (RuntimeException e) {
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException {
+        Object underlying = obj.getUnderlying();
+        return getBeanProp(underlying);
+    }
+
+    public String toString() {
+        return "KeyedMapLambdaPropertyGetter " +
+                " method=" + method.toGenericString() +
+                " key=" + key;
+    }
+
+    public boolean isExistsProperty(EventBean eventBean) {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public Class getBeanPropType() {
+        return JavaClassHelper.getGenericReturnTypeMap(method, false);
+    }
+
+    public Class getTargetType() {
+        return method.getDeclaringClass();
+    }
+
+    public CodegenExpression eventBeanGetCodegen(CodegenExpression beanExpression, CodegenContext context) {
+        return underlyingGetCodegen(castUnderlying(getTargetType(), beanExpression), context);
+    }
+
+    public CodegenExpression eventBeanExistsCodegen(CodegenExpression beanExpression, CodegenContext context) {
+        return constantTrue();
+    }
+
+    public CodegenExpression underlyingGetCodegen(CodegenExpression underlyingExpression, CodegenContext context) {
+        return localMethod(getBeanPropInternalCodegen(context, getBeanPropType(), getTargetType(), method), underlyingExpression, constant(key));
+    }
+
+    public CodegenExpression underlyingExistsCodegen(CodegenExpression underlyingExpression, CodegenContext context) {
+        return constantTrue();
+    }
+
+    public CodegenExpression eventBeanGetMappedCodegen(CodegenContext context, CodegenExpression beanExpression, CodegenExpression key) {
+        return localMethod(getBeanPropInternalCodegen(context, getBeanPropType(), getTargetType(), method), castUnderlying(getTargetType(), beanExpression), key);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.util.JavaClassHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Binds bean accessor methods and constructors into functional interface instances using {@link LambdaMetafactory},
+ * for use by getters and instantiators of bean event types that have the lambda code generation setting.
+ * <p>
+ * Each instance is a separate class generated by the JVM for the method, so that a getter
+ * invokes the method through a monomorphic call that the JIT compiler can inline.
+ * Returns null for methods that cannot be bound, such as methods of non-public classes, methods declaring
+ * checked exceptions or classes not visible to the engine class loader, in which case the caller
+ * falls back to CGLib or reflection.
+ * </p>
+ */
+public class LambdaAccessorFactory {
+    private static final Logger log = LoggerFactory.getLogger(LambdaAccessorFactory.class);
+
+    private static final MethodType FUNCTION_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType BIFUNCTION_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+    private static final MethodType SUPPLIER_TYPE = MethodType.methodType(Object.class);
+
+    /**
+     * Bind a no-parameter method.
+     *
+     * @param method to bind
+     * @return function taking the target object and returning the method return value, or null if the method cannot be bound
+     */
+    public static Function<Object, Object> makeGetter(Method method) {
+        if (!isBindable(method) || method.getParameterTypes().length != 0 || method.getReturnType() == void.class) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(method);
+            MethodType instantiated = MethodType.methodType(JavaClassHelper.getBoxedType(method.getReturnType()), method.getDeclaringClass());
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class), FUNCTION_TYPE, handle, instantiated);
+            return (Function<Object, Object>) site.getTarget().invoke();
+        } catch (Throwable t) {
+            log.warn("Unable to bind method '" + method.getName() + "' of class '" + method.getDeclaringClass().getName() + "' using lambda metafactory, msg=" + t.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Bind a method taking a single parameter, such as an indexed or mapped property method.
+     *
+     * @param method to bind
+     * @return function taking the target object and parameter and returning the method return value, or null if the method cannot be bound
+     */
+    public static BiFunction<Object, Object, Object> makeKeyedGetter(Method method) {
+        if (!isBindable(method) || method.getParameterTypes().length != 1 || method.getReturnType() == void.class) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(method);
+            MethodType instantiated = MethodType.methodType(JavaClassHelper.getBoxedType(method.getReturnType()), method.getDeclaringClass(), JavaClassHelper.getBoxedType(method.getParameterTypes()[0]));
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(BiFunction.class), BIFUNCTION_TYPE, handle, instantiated);
+            return (BiFunction<Object, Object, Object>) site.getTarget().invoke();
+        } catch (Throwable t) {
+            log.warn("Unable to bind method '" + method.getName() + "' of class '" + method.getDeclaringClass().getName() + "' using lambda metafactory, msg=" + t.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Bind the public no-parameter constructor of a class.
+     *
+     * @param clazz to instantiate
+     * @return supplier of new instances, or null if the class cannot be bound
+     */
+    public static Supplier<Object> makeConstructor(Class clazz) {
+        if (!isVisible(clazz) || Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface()) {
+            return null;
+        }
+        try {
+            if (clazz.getConstructor().getExceptionTypes().length != 0) {
+                return null;
+            }
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class), SUPPLIER_TYPE, handle, MethodType.methodType(clazz));
+            return (Supplier<Object>) site.getTarget().invoke();
+        } catch (NoSuchMethodException ex) {
+            return null;
+        } catch (Throwable t) {
+            log.warn("Unable to bind constructor of class '" + clazz.getName() + "' using lambda metafactory, msg=" + t.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isBindable(Method method) {
+        return Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()) &&
+                method.getExceptionTypes().length == 0 && isVisible(method.getDeclaringClass());
+    }
+
+    private static boolean isVisible(Class clazz) {
+        for (Class current = clazz; current != null; current = current.getEnclosingClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+        }
+        // the generated class resolves the target class through the engine class loader
+        try {
+            return Class.forName(clazz.getName(), false, LambdaAccessorFactory.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.beans.*;
 import java.io.StringWriter;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * This class offers utililty methods around introspection and CGLIB interaction.
@@ -37,6 +38,26 @@ public class PropertyHelper {
      * @return property getter
      */
     public static EventPropertyGetterSPI getGetter(Method method, FastClass fastClass, EventAdapterService eventAdapterService) {
+        return getGetter(method, fastClass, false, eventAdapterService);
+    }
+
+    /**
+     * Return getter for the given method, using a function bound by lambda metafactory if requested and else the CGLIB FastClass.
+     *
+     * @param method              to return getter for
+     * @param fastClass           is the CGLIB fast classs to make FastMethod for
+     * @param lambdaAccessors     indicator whether to bind the method by lambda metafactory
+     * @param eventAdapterService factory for event beans and event types
+     * @return property getter
+     */
+    public static EventPropertyGetterSPI getGetter(Method method, FastClass fastClass, boolean lambdaAccessors, EventAdapterService eventAdapterService) {
+        if (lambdaAccessors) {
+            Function<Object, Object> accessor = LambdaAccessorFactory.makeGetter(method);
+            if (accessor != null) {
+                return new LambdaPropertyGetter(method, accessor, eventAdapterService);
+            }
+        }
+
         // Get CGLib fast method handle
         FastMethod fastMethod = null;
         try {
@@ -16,6 +16,7 @@ import com.espertech.esper.codegen.core.CodegenContext;
 import com.espertech.esper.codegen.core.CodegenMember;
 import com.espertech.esper.codegen.model.expression.CodegenExpression;
 import com.espertech.esper.event.BaseNestableEventUtil;
+import com.espertech.esper.event.DecodingEventBean;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.bean.BeanEventType;
 
@@ -67,6 +68,9 @@ public class MapEntryPropertyGetter implements MapEventPropertyGetter {
     }
 
     public Object get(EventBean obj) {
+        if (obj instanceof DecodingEventBean) {
+            return ((DecodingEventBean) obj).getDecodedProperty(propertyName);
+        }
         return getMap(BaseNestableEventUtil.checkedCastUnderlyingMap(obj));
     }
 
@@ -83,7 +87,11 @@ public class MapEntryPropertyGetter implements MapEventPropertyGetter {
     }
 
     public CodegenExpression eventBeanGetCodegen(CodegenExpression beanExpression, CodegenContext context) {
-        return underlyingGetCodegen(castUnderlying(Map.class, beanExpression), context);
+        String method = context.addMethod(Object.class, MapEntryPropertyGetter.class).add(EventBean.class, "bean").begin()
+                .ifInstanceOf("bean", DecodingEventBean.class)
+                    .blockReturn(exprDotMethod(cast(DecodingEventBean.class, ref("bean")), "getDecodedProperty", constant(propertyName)))
+                .methodReturn(underlyingGetCodegen(castUnderlying(Map.class, ref("bean")), context));
+        return localMethod(method, beanExpression);
     }
 
     public CodegenExpression eventBeanExistsCodegen(CodegenExpression beanExpression, CodegenContext context) {
@@ -34,6 +34,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Represents an indexed property or array property, ie. an 'value' property with read method getValue(int index)
@@ -78,6 +80,12 @@ public class IndexedProperty extends PropertyBase implements PropertyWithIndex {
         FastClass fastClass = eventType.getFastClass();
         InternalEventPropDescriptor propertyDesc = eventType.getIndexedProperty(propertyNameAtomic);
         if (propertyDesc != null) {
+            if (eventType.isLambdaAccessors()) {
+                BiFunction<Object, Object, Object> accessor = LambdaAccessorFactory.makeKeyedGetter(propertyDesc.getReadMethod());
+                if (accessor != null) {
+                    return new KeyedLambdaPropertyGetter(propertyDesc.getReadMethod(), accessor, index, eventAdapterService);
+                }
+            }
             if (fastClass != null) {
                 Method method = propertyDesc.getReadMethod();
                 FastMethod fastMethod = fastClass.getMethod(method);
@@ -97,7 +105,10 @@ public class IndexedProperty extends PropertyBase implements PropertyWithIndex {
         if (returnType.isArray()) {
             if (propertyDesc.getReadMethod() != null) {
                 Method method = propertyDesc.getReadMethod();
-                if (fastClass != null) {
+                Function<Object, Object> accessor = eventType.isLambdaAccessors() ? LambdaAccessorFactory.makeGetter(method) : null;
+                if (accessor != null) {
+                    return new ArrayLambdaPropertyGetter(method, accessor, index, eventAdapterService);
+                } else if (fastClass != null) {
                     FastMethod fastMethod = fastClass.getMethod(method);
                     return new ArrayFastPropertyGetter(fastMethod, index, eventAdapterService);
                 } else {
@@ -110,7 +121,10 @@ public class IndexedProperty extends PropertyBase implements PropertyWithIndex {
         } else if (JavaClassHelper.isImplementsInterface(returnType, List.class)) {
             if (propertyDesc.getReadMethod() != null) {
                 Method method = propertyDesc.getReadMethod();
-                if (fastClass != null) {
+                Function<Object, Object> accessor = eventType.isLambdaAccessors() ? LambdaAccessorFactory.makeGetter(method) : null;
+                if (accessor != null) {
+                    return new ListLambdaPropertyGetter(method, accessor, index, eventAdapterService);
+                } else if (fastClass != null) {
                     FastMethod fastMethod = fastClass.getMethod(method);
                     return new ListFastPropertyGetter(method, fastMethod, index, eventAdapterService);
                 } else {
@@ -123,7 +137,10 @@ public class IndexedProperty extends PropertyBase implements PropertyWithIndex {
         } else if (JavaClassHelper.isImplementsInterface(returnType, Iterable.class)) {
             if (propertyDesc.getReadMethod() != null) {
                 Method method = propertyDesc.getReadMethod();
-                if (fastClass != null) {
+                Function<Object, Object> accessor = eventType.isLambdaAccessors() ? LambdaAccessorFactory.makeGetter(method) : null;
+                if (accessor != null) {
+                    return new IterableLambdaPropertyGetter(method, accessor, index, eventAdapterService);
+                } else if (fastClass != null) {
                     FastMethod fastMethod = fastClass.getMethod(method);
                     return new IterableFastPropertyGetter(method, fastMethod, index, eventAdapterService);
                 } else {
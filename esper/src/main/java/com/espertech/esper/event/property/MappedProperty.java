@@ -28,6 +28,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Represents a mapped property or array property, ie. an 'value' property with read method getValue(int index)
@@ -72,6 +74,12 @@ public class MappedProperty extends PropertyBase implements PropertyWithKey {
         InternalEventPropDescriptor propertyDesc = eventType.getMappedProperty(propertyNameAtomic);
         if (propertyDesc != null) {
             Method method = propertyDesc.getReadMethod();
+            if (eventType.isLambdaAccessors()) {
+                BiFunction<Object, Object, Object> accessor = LambdaAccessorFactory.makeKeyedGetter(method);
+                if (accessor != null) {
+                    return new KeyedLambdaPropertyGetter(method, accessor, key, eventAdapterService);
+                }
+            }
             FastClass fastClass = eventType.getFastClass();
             if (fastClass != null) {
                 FastMethod fastMethod = fastClass.getMethod(method);
@@ -95,7 +103,10 @@ public class MappedProperty extends PropertyBase implements PropertyWithKey {
         if (propertyDesc.getReadMethod() != null) {
             FastClass fastClass = eventType.getFastClass();
             Method method = propertyDesc.getReadMethod();
-            if (fastClass != null) {
+            Function<Object, Object> accessor = eventType.isLambdaAccessors() ? LambdaAccessorFactory.makeGetter(method) : null;
+            if (accessor != null) {
+                return new KeyedMapLambdaPropertyGetter(method, accessor, key, eventAdapterService);
+            } else if (fastClass != null) {
                 FastMethod fastMethod = fastClass.getMethod(method);
                 return new KeyedMapFastPropertyGetter(method, fastMethod, key, eventAdapterService);
             } else {
@@ -27,20 +27,27 @@ import java.util.concurrent.locks.ReadWriteLock;
  * and (2) asking the subtree for this event type to evaluate the event.
  * <p>
  * The class performs all the locking required for multithreaded access.
+ * For copy-on-write lock factories the mapping is replaced by a new copy upon change and matching does not lock.
  */
 public class EventTypeIndex implements EventEvaluator {
-    private Map<EventType, FilterHandleSetNode> eventTypes;
+    private volatile Map<EventType, FilterHandleSetNode> eventTypes;
     private ReadWriteLock eventTypesRWLock;
+    private final boolean copyOnWrite;
 
     public EventTypeIndex(FilterServiceGranularLockFactory lockFactory) {
         eventTypes = new HashMap<EventType, FilterHandleSetNode>();
         eventTypesRWLock = lockFactory.obtainNew();
+        copyOnWrite = lockFactory.isCopyOnWrite();
     }
 
     /**
      * Destroy the service.
      */
     public void destroy() {
+        if (copyOnWrite) {
+            eventTypes = new HashMap<EventType, FilterHandleSetNode>();
+            return;
+        }
         eventTypes.clear();
     }
 
@@ -57,6 +64,12 @@ public class EventTypeIndex implements EventEvaluator {
             if (eventTypes.containsKey(eventType)) {
                 throw new IllegalStateException("Event type already in index, add not performed, type=" + eventType);
             }
+            if (copyOnWrite) {
+                Map<EventType, FilterHandleSetNode> copy = new HashMap<EventType, FilterHandleSetNode>(eventTypes);
+                copy.put(eventType, rootNode);
+                eventTypes = copy;
+                return;
+            }
             eventTypes.put(eventType, rootNode);
         } finally {
             eventTypesRWLock.writeLock().unlock();
@@ -67,6 +80,12 @@ public class EventTypeIndex implements EventEvaluator {
     public void removeType(EventType type) {
         eventTypesRWLock.writeLock().lock();
         try {
+            if (copyOnWrite) {
+                Map<EventType, FilterHandleSetNode> copy = new HashMap<EventType, FilterHandleSetNode>(eventTypes);
+                copy.remove(type);
+                eventTypes = copy;
+                return;
+            }
             eventTypes.remove(type);
         } finally {
             eventTypesRWLock.writeLock().unlock();
@@ -131,12 +150,16 @@ public class EventTypeIndex implements EventEvaluator {
     }
 
     private void matchType(EventType eventType, EventBean eventBean, Collection<FilterHandle> matches) {
-        eventTypesRWLock.readLock().lock();
         FilterHandleSetNode rootNode = null;
-        try {
+        if (copyOnWrite) {
             rootNode = eventTypes.get(eventType);
-        } finally {
-            eventTypesRWLock.readLock().unlock();
+        } else {
+            eventTypesRWLock.readLock().lock();
+            try {
+                rootNode = eventTypes.get(eventType);
+            } finally {
+                eventTypesRWLock.readLock().unlock();
+            }
         }
 
         // If the top class node is null, no filters have yet been registered for this event type.
@@ -23,14 +23,23 @@ import java.util.concurrent.locks.ReadWriteLock;
  * but can also be non-leaf (some indizes exist) in a filter evaluation tree.
  * Events are evaluated by asking each of the indizes to evaluate the event and by
  * adding any filter callbacks in this node to the "matches" list of callbacks.
+ * <p>
+ * When copy-on-write, changes to the filter callbacks or indizes replace the respective collection with a changed copy
+ * so that events are evaluated against a consistent snapshot without taking the lock.
  */
 public final class FilterHandleSetNode implements EventEvaluator {
     private final ReadWriteLock nodeRWLock;
-    private final Set<FilterHandle> callbackSet;
-    private final List<FilterParamIndexBase> indizes;
+    private final boolean copyOnWrite;
+    private volatile Set<FilterHandle> callbackSet;
+    private volatile List<FilterParamIndexBase> indizes;
 
     public FilterHandleSetNode(ReadWriteLock nodeRWLock) {
+        this(nodeRWLock, false);
+    }
+
+    public FilterHandleSetNode(ReadWriteLock nodeRWLock, boolean copyOnWrite) {
         this.nodeRWLock = nodeRWLock;
+        this.copyOnWrite = copyOnWrite;
         callbackSet = new LinkedHashSet<FilterHandle>();
         indizes = new LinkedList<FilterParamIndexBase>();
     }
@@ -67,7 +76,8 @@ public final class FilterHandleSetNode implements EventEvaluator {
     }
 
     /**
-     * Returns list of indexes - not returning an iterator. Client classes should not change this collection.
+     * Returns list of indexes - not returning an iterator. Client classes should not change this collection
+     * and use the add and remove methods instead.
      *
      * @return list of indizes
      */
@@ -84,35 +94,14 @@ public final class FilterHandleSetNode implements EventEvaluator {
      * @param matches  is the list of callbacks to add to for any matches found
      */
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        if (copyOnWrite) {
+            matchEventInternal(theEvent, matches, indizes, callbackSet);
+            return;
+        }
+
         nodeRWLock.readLock().lock();
         try {
-            if (InstrumentationHelper.ENABLED) {
-                if (!indizes.isEmpty()) {
-                    InstrumentationHelper.get().qFilterHandleSetIndexes(indizes);
-                }
-            }
-
-            // Ask each of the indizes to match against the attribute values
-            for (FilterParamIndexBase index : indizes) {
-                index.matchEvent(theEvent, matches);
-            }
-
-            if (InstrumentationHelper.ENABLED) {
-                if (!indizes.isEmpty()) {
-                    InstrumentationHelper.get().aFilterHandleSetIndexes();
-                }
-            }
-
-            if (InstrumentationHelper.ENABLED) {
-                if (!callbackSet.isEmpty()) {
-                    InstrumentationHelper.get().qaFilterHandleSetCallbacks(callbackSet);
-                }
-            }
-
-            // Add each filter callback stored in this node to the matching list
-            for (FilterHandle filterCallback : callbackSet) {
-                matches.add(filterCallback);
-            }
+            matchEventInternal(theEvent, matches, indizes, callbackSet);
         } finally {
             nodeRWLock.readLock().unlock();
         }
@@ -138,6 +127,12 @@ public final class FilterHandleSetNode implements EventEvaluator {
      * @param index - index to add
      */
     public final void add(FilterParamIndexBase index) {
+        if (copyOnWrite) {
+            List<FilterParamIndexBase> copy = new ArrayList<FilterParamIndexBase>(indizes);
+            copy.add(index);
+            indizes = copy;
+            return;
+        }
         indizes.add(index);
     }
 
@@ -150,6 +145,12 @@ public final class FilterHandleSetNode implements EventEvaluator {
      * @return true if found, false if not existing
      */
     public final boolean remove(FilterParamIndexBase index) {
+        if (copyOnWrite) {
+            List<FilterParamIndexBase> copy = new ArrayList<FilterParamIndexBase>(indizes);
+            boolean removed = copy.remove(index);
+            indizes = copy;
+            return removed;
+        }
         return indizes.remove(index);
     }
 
@@ -162,6 +163,15 @@ public final class FilterHandleSetNode implements EventEvaluator {
      * @param filterCallback is the callback to add
      */
     public final void add(FilterHandle filterCallback) {
+        if (copyOnWrite) {
+            if (callbackSet.contains(filterCallback)) {
+                return;
+            }
+            Set<FilterHandle> copy = new LinkedHashSet<FilterHandle>(callbackSet);
+            copy.add(filterCallback);
+            callbackSet = copy;
+            return;
+        }
         callbackSet.add(filterCallback);
     }
 
@@ -174,10 +184,49 @@ public final class FilterHandleSetNode implements EventEvaluator {
      * @return true if found, false if not existing
      */
     public final boolean remove(FilterHandle filterCallback) {
+        if (copyOnWrite) {
+            if (!callbackSet.contains(filterCallback)) {
+                return false;
+            }
+            Set<FilterHandle> copy = new LinkedHashSet<FilterHandle>(callbackSet);
+            copy.remove(filterCallback);
+            callbackSet = copy;
+            return true;
+        }
         return callbackSet.remove(filterCallback);
     }
 
     public Set<FilterHandle> getCallbackSet() {
         return callbackSet;
     }
+
+    private static void matchEventInternal(EventBean theEvent, Collection<FilterHandle> matches, List<FilterParamIndexBase> indizes, Set<FilterHandle> callbackSet) {
+        if (InstrumentationHelper.ENABLED) {
+            if (!indizes.isEmpty()) {
+                InstrumentationHelper.get().qFilterHandleSetIndexes(indizes);
+            }
+        }
+
+        // Ask each of the indizes to match against the attribute values
+        for (FilterParamIndexBase index : indizes) {
+            index.matchEvent(theEvent, matches);
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            if (!indizes.isEmpty()) {
+                InstrumentationHelper.get().aFilterHandleSetIndexes();
+            }
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            if (!callbackSet.isEmpty()) {
+                InstrumentationHelper.get().qaFilterHandleSetCallbacks(callbackSet);
+            }
+        }
+
+        // Add each filter callback stored in this node to the matching list
+        for (FilterHandle filterCallback : callbackSet) {
+            matches.add(filterCallback);
+        }
+    }
 }
@@ -20,16 +20,19 @@ import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index that simply maintains a list of boolean expressions.
+ * When copy-on-write, the map is replaced by a changed copy upon put and remove.
  */
 public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
-    private final Map<ExprNodeAdapterBase, EventEvaluator> evaluatorsMap;
+    private volatile Map<ExprNodeAdapterBase, EventEvaluator> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    public FilterParamIndexBooleanExpr(ReadWriteLock readWriteLock) {
+    public FilterParamIndexBooleanExpr(ReadWriteLock readWriteLock, boolean copyOnWrite) {
         super(FilterOperator.BOOLEAN_EXPRESSION);
 
         evaluatorsMap = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant) {
@@ -39,11 +42,26 @@ public final class FilterParamIndexBooleanExpr extends FilterParamIndexBase {
 
     public final void put(Object filterConstant, EventEvaluator evaluator) {
         ExprNodeAdapterBase keys = (ExprNodeAdapterBase) filterConstant;
+        if (copyOnWrite) {
+            Map<ExprNodeAdapterBase, EventEvaluator> copy = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>(evaluatorsMap);
+            copy.put(keys, evaluator);
+            evaluatorsMap = copy;
+            return;
+        }
         evaluatorsMap.put(keys, evaluator);
     }
 
     public final void remove(Object filterConstant) {
         ExprNodeAdapterBase keys = (ExprNodeAdapterBase) filterConstant;
+        if (copyOnWrite) {
+            if (!evaluatorsMap.containsKey(keys)) {
+                return;
+            }
+            Map<ExprNodeAdapterBase, EventEvaluator> copy = new LinkedHashMap<ExprNodeAdapterBase, EventEvaluator>(evaluatorsMap);
+            copy.remove(keys);
+            evaluatorsMap = copy;
+            return;
+        }
         evaluatorsMap.remove(keys);
     }
 
@@ -25,19 +25,22 @@ import java.util.concurrent.locks.ReadWriteLock;
  * The implementation is based on the SortedMap implementation of TreeMap.
  * The index only accepts numeric constants. It keeps a lower and upper bounds of all constants in the index
  * for fast range checking, since the assumption is that frequently values fall within a range.
+ * When copy-on-write, the map is replaced by a changed copy upon put and remove.
  */
 public final class FilterParamIndexCompare extends FilterParamIndexLookupableBase {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private volatile TreeMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    private Double lowerBounds;
-    private Double upperBounds;
+    private volatile Double lowerBounds;
+    private volatile Double upperBounds;
 
-    public FilterParamIndexCompare(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    public FilterParamIndexCompare(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
 
         constantsMap = new TreeMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
 
         if ((filterOperator != FilterOperator.GREATER) &&
                 (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -52,7 +55,13 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
     }
 
     public final void put(Object filterConstant, EventEvaluator matcher) {
-        constantsMap.put(filterConstant, matcher);
+        if (copyOnWrite) {
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.put(filterConstant, matcher);
+            constantsMap = copy;
+        } else {
+            constantsMap.put(filterConstant, matcher);
+        }
 
         // Update bounds
         Double constant = ((Number) filterConstant).doubleValue();
@@ -65,7 +74,14 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
     }
 
     public final void remove(Object filterConstant) {
-        if (constantsMap.remove(filterConstant) == null) {
+        if (copyOnWrite) {
+            if (!constantsMap.containsKey(filterConstant)) {
+                return;
+            }
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.remove(filterConstant);
+            constantsMap = copy;
+        } else if (constantsMap.remove(filterConstant) == null) {
             return;
         }
         updateBounds();
@@ -97,7 +113,9 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
         }
 
         // A undefine lower bound indicates an empty index
-        if (lowerBounds == null) {
+        Double lower = lowerBounds;
+        Double upper = upperBounds;
+        if ((lower == null) || (upper == null)) {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aFilterReverseIndex(false);
             }
@@ -108,30 +126,31 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
         Double propertyValueDouble = ((Number) propertyValue).doubleValue();
 
         // Based on current lower and upper bounds check if the property value falls outside - shortcut submap generation
-        if ((filterOperator == FilterOperator.GREATER) && (propertyValueDouble <= lowerBounds)) {
+        if ((filterOperator == FilterOperator.GREATER) && (propertyValueDouble <= lower)) {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aFilterReverseIndex(false);
             }
             return;
-        } else if ((filterOperator == FilterOperator.GREATER_OR_EQUAL) && (propertyValueDouble < lowerBounds)) {
+        } else if ((filterOperator == FilterOperator.GREATER_OR_EQUAL) && (propertyValueDouble < lower)) {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aFilterReverseIndex(false);
             }
             return;
-        } else if ((filterOperator == FilterOperator.LESS) && (propertyValueDouble >= upperBounds)) {
+        } else if ((filterOperator == FilterOperator.LESS) && (propertyValueDouble >= upper)) {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aFilterReverseIndex(false);
             }
             return;
-        } else if ((filterOperator == FilterOperator.LESS_OR_EQUAL) && (propertyValueDouble > upperBounds)) {
+        } else if ((filterOperator == FilterOperator.LESS_OR_EQUAL) && (propertyValueDouble > upper)) {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aFilterReverseIndex(false);
             }
             return;
         }
 
-        // Look up in table
+        // Look up in table, using the same map throughout as it may be replaced when copy-on-write
         constantsMapRWLock.readLock().lock();
+        TreeMap<Object, EventEvaluator> constants = constantsMap;
         try {
 
             // Get the head or tail end of the map depending on comparison type
@@ -140,15 +159,15 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
             if ((filterOperator == FilterOperator.GREATER) ||
                     (filterOperator == FilterOperator.GREATER_OR_EQUAL)) {
                 // At the head of the map are those with a lower numeric constants
-                subMap = constantsMap.headMap(propertyValue);
+                subMap = constants.headMap(propertyValue);
             } else {
-                subMap = constantsMap.tailMap(propertyValue);
+                subMap = constants.tailMap(propertyValue);
             }
 
             // All entries in the subMap are elgibile, with an exception
             EventEvaluator exactEquals = null;
             if (filterOperator == FilterOperator.LESS) {
-                exactEquals = constantsMap.get(propertyValue);
+                exactEquals = constants.get(propertyValue);
             }
 
             for (EventEvaluator matcher : subMap.values()) {
@@ -163,7 +182,7 @@ public final class FilterParamIndexCompare extends FilterParamIndexLookupableBas
             }
 
             if (filterOperator == FilterOperator.GREATER_OR_EQUAL) {
-                EventEvaluator matcher = constantsMap.get(propertyValue);
+                EventEvaluator matcher = constants.get(propertyValue);
                 if (matcher != null) {
                     matcher.matchEvent(theEvent, matches);
                 }
@@ -25,16 +25,19 @@ import java.util.concurrent.locks.ReadWriteLock;
  * The implementation is based on the SortedMap implementation of TreeMap.
  * The index only accepts String constants. It keeps a lower and upper bounds of all constants in the index
  * for fast range checking, since the assumption is that frequently values fall within a range.
+ * When copy-on-write, the map is replaced by a changed copy upon put and remove.
  */
 public final class FilterParamIndexCompareString extends FilterParamIndexLookupableBase {
-    private final TreeMap<Object, EventEvaluator> constantsMap;
+    private volatile TreeMap<Object, EventEvaluator> constantsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    public FilterParamIndexCompareString(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    public FilterParamIndexCompareString(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
 
         constantsMap = new TreeMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
 
         if ((filterOperator != FilterOperator.GREATER) &&
                 (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
@@ -49,10 +52,25 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
     }
 
     public final void put(Object filterConstant, EventEvaluator matcher) {
+        if (copyOnWrite) {
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.put(filterConstant, matcher);
+            constantsMap = copy;
+            return;
+        }
         constantsMap.put(filterConstant, matcher);
     }
 
     public final void remove(Object filterConstant) {
+        if (copyOnWrite) {
+            if (!constantsMap.containsKey(filterConstant)) {
+                return;
+            }
+            TreeMap<Object, EventEvaluator> copy = new TreeMap<Object, EventEvaluator>(constantsMap);
+            copy.remove(filterConstant);
+            constantsMap = copy;
+            return;
+        }
         constantsMap.remove(filterConstant);
     }
 
@@ -83,8 +101,9 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
 
         FilterOperator filterOperator = this.getFilterOperator();
 
-        // Look up in table
+        // Look up in table, using the same map throughout as it may be replaced when copy-on-write
         constantsMapRWLock.readLock().lock();
+        TreeMap<Object, EventEvaluator> constants = constantsMap;
         try {
 
             // Get the head or tail end of the map depending on comparison type
@@ -93,15 +112,15 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
             if ((filterOperator == FilterOperator.GREATER) ||
                     (filterOperator == FilterOperator.GREATER_OR_EQUAL)) {
                 // At the head of the map are those with a lower numeric constants
-                subMap = constantsMap.headMap(propertyValue);
+                subMap = constants.headMap(propertyValue);
             } else {
-                subMap = constantsMap.tailMap(propertyValue);
+                subMap = constants.tailMap(propertyValue);
             }
 
             // All entries in the subMap are elgibile, with an exception
             EventEvaluator exactEquals = null;
             if (filterOperator == FilterOperator.LESS) {
-                exactEquals = constantsMap.get(propertyValue);
+                exactEquals = constants.get(propertyValue);
             }
 
             for (EventEvaluator matcher : subMap.values()) {
@@ -116,7 +135,7 @@ public final class FilterParamIndexCompareString extends FilterParamIndexLookupa
             }
 
             if (filterOperator == FilterOperator.GREATER_OR_EQUAL) {
-                EventEvaluator matcher = constantsMap.get(propertyValue);
+                EventEvaluator matcher = constants.get(propertyValue);
                 if (matcher != null) {
                     matcher.matchEvent(theEvent, matches);
                 }
@@ -26,8 +26,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  * parameter values of type DoubleRange.
  */
 public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRangeBase {
-    public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
-        super(lookupable, readWriteLock, filterOperator);
+    public FilterParamIndexDoubleRange(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, filterOperator, copyOnWrite);
         if (!(filterOperator.isRangeOperator())) {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
         }
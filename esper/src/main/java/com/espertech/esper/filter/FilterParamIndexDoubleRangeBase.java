@@ -21,16 +21,19 @@ import java.util.concurrent.locks.ReadWriteLock;
  * Index for filter parameter constants for the range operators (range open/closed/half).
  * The implementation is based on the SortedMap implementation of TreeMap and stores only expression
  * parameter values of type DoubleRange.
+ * When copy-on-write, the map is replaced by a changed copy upon put and remove.
  */
 public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLookupableBase {
-    protected final TreeMap<DoubleRange, EventEvaluator> ranges;
+    protected volatile TreeMap<DoubleRange, EventEvaluator> ranges;
     private final IdentityHashMap<DoubleRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
+    private final boolean copyOnWrite;
 
-    protected double largestRangeValueDouble = Double.MIN_VALUE;
+    protected volatile double largestRangeValueDouble = Double.MIN_VALUE;
 
-    protected FilterParamIndexDoubleRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    protected FilterParamIndexDoubleRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
+        this.copyOnWrite = copyOnWrite;
 
         ranges = new TreeMap<DoubleRange, EventEvaluator>(new DoubleRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<DoubleRange, EventEvaluator>();
@@ -65,6 +68,12 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
             largestRangeValueDouble = Math.abs(range.getMax() - range.getMin());
         }
 
+        if (copyOnWrite) {
+            TreeMap<DoubleRange, EventEvaluator> copy = new TreeMap<DoubleRange, EventEvaluator>(ranges);
+            copy.put(range, matcher);
+            ranges = copy;
+            return;
+        }
         ranges.put(range, matcher);
     }
 
@@ -75,6 +84,15 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
             rangesNullEndpoints.remove(range);
             return;
         }
+        if (copyOnWrite) {
+            if (!ranges.containsKey(range)) {
+                return;
+            }
+            TreeMap<DoubleRange, EventEvaluator> copy = new TreeMap<DoubleRange, EventEvaluator>(ranges);
+            copy.remove(range);
+            ranges = copy;
+            return;
+        }
         ranges.remove(range);
     }
 
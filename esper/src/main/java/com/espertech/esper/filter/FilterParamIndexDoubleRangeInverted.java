@@ -23,8 +23,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  * parameter values of type DoubleRange.
  */
 public final class FilterParamIndexDoubleRangeInverted extends FilterParamIndexDoubleRangeBase {
-    public FilterParamIndexDoubleRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
-        super(lookupable, readWriteLock, filterOperator);
+    public FilterParamIndexDoubleRangeInverted(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, filterOperator, copyOnWrite);
         if (!(filterOperator.isInvertedRangeOperator())) {
             throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
         }
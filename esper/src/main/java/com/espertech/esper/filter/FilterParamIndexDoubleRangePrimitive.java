@@ -0,0 +1,317 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants for the range operators (range open/closed/half), for numeric properties.
+ * The implementation is based on sorted primitive arrays of the range start and end values, in the
+ * same order as ranges in {@link FilterParamIndexDoubleRange}, and stores only expression parameter values of type DoubleRange.
+ * When copy-on-write, the arrays are never changed once published and put and remove replace the arrays with changed copies.
+ * Otherwise put and remove shift the array elements in place, under the write lock of the index.
+ */
+public final class FilterParamIndexDoubleRangePrimitive extends FilterParamIndexLookupableBase {
+    private volatile SortedRanges ranges;
+    private final IdentityHashMap<DoubleRange, EventEvaluator> rangesNullEndpoints;
+    private final ReadWriteLock rangesRWLock;
+    private final boolean copyOnWrite;
+
+    private volatile double largestRangeValueDouble = Double.MIN_VALUE;
+
+    public FilterParamIndexDoubleRangePrimitive(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
+        super(filterOperator, lookupable);
+        if (!(filterOperator.isRangeOperator())) {
+            throw new IllegalArgumentException("Invalid filter operator " + filterOperator);
+        }
+
+        ranges = new SortedRanges(new double[0], new double[0], new EventEvaluator[0], 0);
+        rangesNullEndpoints = new IdentityHashMap<DoubleRange, EventEvaluator>();
+        rangesRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    public final EventEvaluator get(Object expressionValue) {
+        if (!(expressionValue instanceof DoubleRange)) {
+            throw new IllegalArgumentException("Supplied expressionValue must be of type DoubleRange");
+        }
+
+        DoubleRange range = (DoubleRange) expressionValue;
+        if ((range.getMax() == null) || (range.getMin() == null)) {
+            return rangesNullEndpoints.get(range);
+        }
+
+        SortedRanges current = ranges;
+        int index = current.find(range.getMin(), range.getMax());
+        return index < 0 ? null : current.evaluators[index];
+    }
+
+    public final void put(Object expressionValue, EventEvaluator matcher) {
+        if (!(expressionValue instanceof DoubleRange)) {
+            throw new IllegalArgumentException("Supplied expressionValue must be of type DoubleRange");
+        }
+
+        DoubleRange range = (DoubleRange) expressionValue;
+        if ((range.getMax() == null) || (range.getMin() == null)) {
+            rangesNullEndpoints.put(range, matcher);     // endpoints null - we don't enter
+            return;
+        }
+
+        double min = range.getMin();
+        double max = range.getMax();
+        if (Math.abs(max - min) > largestRangeValueDouble) {
+            largestRangeValueDouble = Math.abs(max - min);
+        }
+
+        SortedRanges current = ranges;
+        int index = current.find(min, max);
+        if (index >= 0) {
+            if (!copyOnWrite) {
+                current.evaluators[index] = matcher;
+                return;
+            }
+            EventEvaluator[] evaluators = current.evaluators.clone();
+            evaluators[index] = matcher;
+            ranges = new SortedRanges(current.mins, current.maxs, evaluators, current.size);
+            return;
+        }
+
+        int insertAt = -(index + 1);
+        int size = current.size;
+
+        // in place when there is room in the arrays
+        if (!copyOnWrite && size < current.mins.length) {
+            System.arraycopy(current.mins, insertAt, current.mins, insertAt + 1, size - insertAt);
+            System.arraycopy(current.maxs, insertAt, current.maxs, insertAt + 1, size - insertAt);
+            System.arraycopy(current.evaluators, insertAt, current.evaluators, insertAt + 1, size - insertAt);
+            current.mins[insertAt] = min;
+            current.maxs[insertAt] = max;
+            current.evaluators[insertAt] = matcher;
+            current.size = size + 1;
+            return;
+        }
+
+        int capacity = copyOnWrite ? size + 1 : Math.max(4, size * 2);
+        double[] mins = new double[capacity];
+        double[] maxs = new double[capacity];
+        EventEvaluator[] evaluators = new EventEvaluator[capacity];
+        System.arraycopy(current.mins, 0, mins, 0, insertAt);
+        System.arraycopy(current.maxs, 0, maxs, 0, insertAt);
+        System.arraycopy(current.evaluators, 0, evaluators, 0, insertAt);
+        mins[insertAt] = min;
+        maxs[insertAt] = max;
+        evaluators[insertAt] = matcher;
+        System.arraycopy(current.mins, insertAt, mins, insertAt + 1, size - insertAt);
+        System.arraycopy(current.maxs, insertAt, maxs, insertAt + 1, size - insertAt);
+        System.arraycopy(current.evaluators, insertAt, evaluators, insertAt + 1, size - insertAt);
+        ranges = new SortedRanges(mins, maxs, evaluators, size + 1);
+    }
+
+    public final void remove(Object filterConstant) {
+        DoubleRange range = (DoubleRange) filterConstant;
+
+        if ((range.getMax() == null) || (range.getMin() == null)) {
+            rangesNullEndpoints.remove(range);
+            return;
+        }
+
+        SortedRanges current = ranges;
+        int index = current.find(range.getMin(), range.getMax());
+        if (index < 0) {
+            return;
+        }
+
+        int size = current.size;
+        if (!copyOnWrite) {
+            System.arraycopy(current.mins, index + 1, current.mins, index, size - index - 1);
+            System.arraycopy(current.maxs, index + 1, current.maxs, index, size - index - 1);
+            System.arraycopy(current.evaluators, index + 1, current.evaluators, index, size - index - 1);
+            current.evaluators[size - 1] = null;
+            current.size = size - 1;
+            return;
+        }
+
+        double[] mins = new double[size - 1];
+        double[] maxs = new double[size - 1];
+        EventEvaluator[] evaluators = new EventEvaluator[size - 1];
+        System.arraycopy(current.mins, 0, mins, 0, index);
+        System.arraycopy(current.maxs, 0, maxs, 0, index);
+        System.arraycopy(current.evaluators, 0, evaluators, 0, index);
+        System.arraycopy(current.mins, index + 1, mins, index, size - index - 1);
+        System.arraycopy(current.maxs, index + 1, maxs, index, size - index - 1);
+        System.arraycopy(current.evaluators, index + 1, evaluators, index, size - index - 1);
+        ranges = new SortedRanges(mins, maxs, evaluators, size - 1);
+    }
+
+    public final int sizeExpensive() {
+        return ranges.size;
+    }
+
+    public boolean isEmpty() {
+        return ranges.size == 0;
+    }
+
+    public final ReadWriteLock getReadWriteLock() {
+        return rangesRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object objAttributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, objAttributeValue);
+        }
+
+        if (objAttributeValue == null) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        double attributeValue = ((Number) objAttributeValue).doubleValue();
+
+        // when copy-on-write the published arrays never change, else put and remove shift them in place under the write lock
+        if (copyOnWrite) {
+            matchRanges(theEvent, attributeValue, matches);
+        } else {
+            rangesRWLock.readLock().lock();
+            try {
+                matchRanges(theEvent, attributeValue, matches);
+            } finally {
+                rangesRWLock.readLock().unlock();
+            }
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(null);
+        }
+    }
+
+    private void matchRanges(EventBean theEvent, double attributeValue, Collection<FilterHandle> matches) {
+        // ranges starting between the attribute value less the largest range and the attribute value
+        SortedRanges current = ranges;
+        double[] mins = current.mins;
+        double[] maxs = current.maxs;
+        EventEvaluator[] evaluators = current.evaluators;
+        int size = current.size;
+        int start = current.firstMinAtOrAbove(attributeValue - largestRangeValueDouble);
+        FilterOperator filterOperator = this.getFilterOperator();
+
+        if (filterOperator == FilterOperator.RANGE_OPEN) {
+            // include neither endpoint
+            for (int i = start; i < size && mins[i] <= attributeValue; i++) {
+                if ((attributeValue > mins[i]) && (attributeValue < maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
+                }
+            }
+        } else if (filterOperator == FilterOperator.RANGE_CLOSED) {
+            // include all endpoints
+            for (int i = start; i < size && mins[i] <= attributeValue; i++) {
+                if ((attributeValue >= mins[i]) && (attributeValue <= maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
+                }
+            }
+        } else if (filterOperator == FilterOperator.RANGE_HALF_CLOSED) {
+            // include high endpoint not low endpoint
+            for (int i = start; i < size && mins[i] <= attributeValue; i++) {
+                if ((attributeValue > mins[i]) && (attributeValue <= maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
+                }
+            }
+        } else if (filterOperator == FilterOperator.RANGE_HALF_OPEN) {
+            // include low endpoint not high endpoint
+            for (int i = start; i < size && mins[i] <= attributeValue; i++) {
+                if ((attributeValue >= mins[i]) && (attributeValue < maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
+                }
+            }
+        } else {
+            throw new IllegalStateException("Invalid filter operator " + filterOperator);
+        }
+    }
+
+    /**
+     * Ranges sorted by start value and then end value, with the evaluator for each range, in the first size elements of the arrays.
+     */
+    private static class SortedRanges {
+        private final double[] mins;
+        private final double[] maxs;
+        private final EventEvaluator[] evaluators;
+        private int size;
+
+        private SortedRanges(double[] mins, double[] maxs, EventEvaluator[] evaluators, int size) {
+            this.mins = mins;
+            this.maxs = maxs;
+            this.evaluators = evaluators;
+            this.size = size;
+        }
+
+        /**
+         * Binary search for the range.
+         *
+         * @param min start
+         * @param max end
+         * @return index of the range, or (-(insertion point) - 1) when not found
+         */
+        private int find(double min, double max) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int compared = compare(mins[mid], maxs[mid], min, max);
+                if (compared < 0) {
+                    low = mid + 1;
+                } else if (compared > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private int firstMinAtOrAbove(double value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (mins[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // same order as DoubleRangeComparator
+        private static int compare(double minOne, double maxOne, double minTwo, double maxTwo) {
+            if (minOne < minTwo) {
+                return -1;
+            }
+            if (minOne > minTwo) {
+                return 1;
+            }
+            if (maxOne < maxTwo) {
+                return -1;
+            }
+            if (maxOne > maxTwo) {
+                return 1;
+            }
+            return 0;
+        }
+    }
+}
@@ -10,6 +10,8 @@
  */
 package com.espertech.esper.filter;
 
+import com.espertech.esper.collection.PersistentHashMap;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -17,16 +19,20 @@ import java.util.concurrent.locks.ReadWriteLock;
 /**
  * Index for filter parameter constants to match using the equals (=) operator.
  * The implementation is based on a regular HashMap.
+ * When copy-on-write, the map is a {@link PersistentHashMap} that is replaced upon put and remove
+ * by a changed version sharing all but the changed path of nodes.
  */
 public abstract class FilterParamIndexEqualsBase extends FilterParamIndexLookupableBase {
-    protected final Map<Object, EventEvaluator> constantsMap;
+    protected volatile Map<Object, EventEvaluator> constantsMap;
     protected final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    protected FilterParamIndexEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    protected FilterParamIndexEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
 
-        constantsMap = new HashMap<Object, EventEvaluator>();
+        constantsMap = copyOnWrite ? PersistentHashMap.<Object, EventEvaluator>empty() : new HashMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant) {
@@ -34,10 +40,18 @@ public abstract class FilterParamIndexEqualsBase extends FilterParamIndexLookupa
     }
 
     public final void put(Object filterConstant, EventEvaluator evaluator) {
+        if (copyOnWrite) {
+            constantsMap = ((PersistentHashMap<Object, EventEvaluator>) constantsMap).plus(filterConstant, evaluator);
+            return;
+        }
         constantsMap.put(filterConstant, evaluator);
     }
 
     public final void remove(Object filterConstant) {
+        if (copyOnWrite) {
+            constantsMap = ((PersistentHashMap<Object, EventEvaluator>) constantsMap).minus(filterConstant);
+            return;
+        }
         constantsMap.remove(filterConstant);
     }
 
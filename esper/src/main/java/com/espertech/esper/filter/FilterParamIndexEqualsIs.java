@@ -21,8 +21,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  * The implementation is based on a regular HashMap.
  */
 public final class FilterParamIndexEqualsIs extends FilterParamIndexEqualsBase {
-    public FilterParamIndexEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.IS);
+    public FilterParamIndexEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.IS, copyOnWrite);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
@@ -0,0 +1,67 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) operator, for numeric properties.
+ * The implementation is based on an open-addressing hash map keyed by primitive long.
+ */
+public final class FilterParamIndexEqualsPrimitive extends FilterParamIndexEqualsPrimitiveBase {
+    public FilterParamIndexEqualsPrimitive(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.EQUAL, copyOnWrite);
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+        }
+
+        if (attributeValue == null) {   //  null cannot match, not even null: requires use of "is"
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        // Look up in hashtable
+        EventEvaluator evaluator;
+        constantsMapRWLock.readLock().lock();
+        try {
+            if (isPrimitiveKey(attributeValue)) {
+                evaluator = constantsMap.get(toKey(attributeValue));
+            } else {
+                evaluator = otherConstantsMap.get(attributeValue);
+            }
+        } finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+
+        // No listener found for the value, return
+        if (evaluator == null) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        evaluator.matchEvent(theEvent, matches);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(true);
+        }
+    }
+}
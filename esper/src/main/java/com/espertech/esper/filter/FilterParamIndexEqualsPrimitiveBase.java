@@ -0,0 +1,108 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.collection.LongObjectHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) or not-equals (!=) operator,
+ * for numeric properties.
+ * The implementation is based on an open-addressing hash map keyed by primitive long.
+ * Constants that are not of the property type are kept in a regular HashMap.
+ * When copy-on-write, the maps are replaced by a changed copy upon put and remove.
+ */
+public abstract class FilterParamIndexEqualsPrimitiveBase extends FilterParamIndexPrimitiveBase {
+    protected volatile LongObjectHashMap<EventEvaluator> constantsMap;
+    protected volatile Map<Object, EventEvaluator> otherConstantsMap;
+    protected final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
+
+    protected FilterParamIndexEqualsPrimitiveBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
+        super(filterOperator, lookupable);
+
+        constantsMap = new LongObjectHashMap<EventEvaluator>();
+        otherConstantsMap = new HashMap<Object, EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    public final EventEvaluator get(Object filterConstant) {
+        if (isPrimitiveKey(filterConstant)) {
+            return constantsMap.get(toKey(filterConstant));
+        }
+        return otherConstantsMap.get(filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator) {
+        if (isPrimitiveKey(filterConstant)) {
+            if (copyOnWrite) {
+                LongObjectHashMap<EventEvaluator> copy = new LongObjectHashMap<EventEvaluator>(constantsMap);
+                copy.put(toKey(filterConstant), evaluator);
+                constantsMap = copy;
+                return;
+            }
+            constantsMap.put(toKey(filterConstant), evaluator);
+            return;
+        }
+
+        if (copyOnWrite) {
+            Map<Object, EventEvaluator> copy = new HashMap<Object, EventEvaluator>(otherConstantsMap);
+            copy.put(filterConstant, evaluator);
+            otherConstantsMap = copy;
+            return;
+        }
+        otherConstantsMap.put(filterConstant, evaluator);
+    }
+
+    public final void remove(Object filterConstant) {
+        if (isPrimitiveKey(filterConstant)) {
+            long key = toKey(filterConstant);
+            if (copyOnWrite) {
+                if (!constantsMap.containsKey(key)) {
+                    return;
+                }
+                LongObjectHashMap<EventEvaluator> copy = new LongObjectHashMap<EventEvaluator>(constantsMap);
+                copy.remove(key);
+                constantsMap = copy;
+                return;
+            }
+            constantsMap.remove(key);
+            return;
+        }
+
+        if (copyOnWrite) {
+            if (!otherConstantsMap.containsKey(filterConstant)) {
+                return;
+            }
+            Map<Object, EventEvaluator> copy = new HashMap<Object, EventEvaluator>(otherConstantsMap);
+            copy.remove(filterConstant);
+            otherConstantsMap = copy;
+            return;
+        }
+        otherConstantsMap.remove(filterConstant);
+    }
+
+    public final int sizeExpensive() {
+        return constantsMap.size() + otherConstantsMap.size();
+    }
+
+    public boolean isEmpty() {
+        return constantsMap.isEmpty() && otherConstantsMap.isEmpty();
+    }
+
+    public final ReadWriteLock getReadWriteLock() {
+        return constantsMapRWLock;
+    }
+}
@@ -12,6 +12,7 @@ package com.espertech.esper.filter;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.PersistentHashMap;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,18 +24,22 @@ import java.util.concurrent.locks.ReadWriteLock;
  * Index for filter parameter constants to match using the 'in' operator to match against a supplied set of values
  * (i.e. multiple possible exact matches).
  * The implementation is based on a regular HashMap.
+ * When copy-on-write, the map is a {@link PersistentHashMap} that is replaced upon put and remove
+ * by a changed version sharing all but the changed paths of nodes, and changed evaluator lists are replaced by changed copies.
  */
 public final class FilterParamIndexIn extends FilterParamIndexLookupableBase {
-    private final Map<Object, List<EventEvaluator>> constantsMap;
+    private volatile Map<Object, List<EventEvaluator>> constantsMap;
     private final Map<MultiKeyUntyped, EventEvaluator> evaluatorsMap;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    public FilterParamIndexIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+    public FilterParamIndexIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
         super(FilterOperator.IN_LIST_OF_VALUES, lookupable);
 
-        constantsMap = new HashMap<Object, List<EventEvaluator>>();
+        constantsMap = copyOnWrite ? PersistentHashMap.<Object, List<EventEvaluator>>empty() : new HashMap<Object, List<EventEvaluator>>();
         evaluatorsMap = new HashMap<MultiKeyUntyped, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant) {
@@ -50,19 +55,25 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase {
         EventEvaluator oldEvaluator = evaluatorsMap.put(keys, evaluator);
 
         // Store each value to match against in Map with it's evaluator as a list
+        Map<Object, List<EventEvaluator>> constants = constantsMap;
         Object[] keyValues = keys.getKeys();
         for (int i = 0; i < keyValues.length; i++) {
-            List<EventEvaluator> evaluators = constantsMap.get(keyValues[i]);
+            List<EventEvaluator> evaluators = constants.get(keyValues[i]);
             if (evaluators == null) {
                 evaluators = new LinkedList<EventEvaluator>();
-                constantsMap.put(keyValues[i], evaluators);
+                constants = putConstant(constants, keyValues[i], evaluators);
             } else {
+                if (copyOnWrite) {
+                    evaluators = new LinkedList<EventEvaluator>(evaluators);
+                    constants = putConstant(constants, keyValues[i], evaluators);
+                }
                 if (oldEvaluator != null) {
                     evaluators.remove(oldEvaluator);
                 }
             }
             evaluators.add(evaluator);
         }
+        constantsMap = constants;
     }
 
     public final void remove(Object filterConstant) {
@@ -71,17 +82,35 @@ public final class FilterParamIndexIn extends FilterParamIndexLookupableBase {
         // remove the mapping of value set to evaluator
         EventEvaluator eval = evaluatorsMap.remove(keys);
 
+        Map<Object, List<EventEvaluator>> constants = constantsMap;
         Object[] keyValues = keys.getKeys();
         for (int i = 0; i < keyValues.length; i++) {
-            List<EventEvaluator> evaluators = constantsMap.get(keyValues[i]);
+            List<EventEvaluator> evaluators = constants.get(keyValues[i]);
             if (evaluators != null) {
+                if (copyOnWrite) {
+                    evaluators = new LinkedList<EventEvaluator>(evaluators);
+                    constants = putConstant(constants, keyValues[i], evaluators);
+                }
                 // could be removed already as same-value constants existed
                 evaluators.remove(eval);
                 if (evaluators.isEmpty()) {
-                    constantsMap.remove(keyValues[i]);
+                    if (copyOnWrite) {
+                        constants = ((PersistentHashMap<Object, List<EventEvaluator>>) constants).minus(keyValues[i]);
+                    } else {
+                        constants.remove(keyValues[i]);
+                    }
                 }
             }
         }
+        constantsMap = constants;
+    }
+
+    private Map<Object, List<EventEvaluator>> putConstant(Map<Object, List<EventEvaluator>> constants, Object key, List<EventEvaluator> evaluators) {
+        if (copyOnWrite) {
+            return ((PersistentHashMap<Object, List<EventEvaluator>>) constants).plus(key, evaluators);
+        }
+        constants.put(key, evaluators);
+        return constants;
     }
 
     public final int sizeExpensive() {
@@ -0,0 +1,195 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.LongObjectHashMap;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the 'in' operator to match against a supplied set of values
+ * (i.e. multiple possible exact matches), for numeric properties.
+ * The implementation is based on an open-addressing hash map keyed by primitive long that holds evaluator arrays.
+ * Constants that are not of the property type are kept in a regular HashMap.
+ * Evaluator arrays are never changed once stored; put and remove store changed copies.
+ * When copy-on-write, the maps are replaced by changed copies upon put and remove.
+ */
+public final class FilterParamIndexInPrimitive extends FilterParamIndexPrimitiveBase {
+    private static final EventEvaluator[] EMPTY = new EventEvaluator[0];
+
+    private volatile LongObjectHashMap<EventEvaluator[]> constantsMap;
+    private volatile Map<Object, EventEvaluator[]> otherConstantsMap;
+    private final Map<MultiKeyUntyped, EventEvaluator> evaluatorsMap;
+    private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
+
+    public FilterParamIndexInPrimitive(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(FilterOperator.IN_LIST_OF_VALUES, lookupable);
+
+        constantsMap = new LongObjectHashMap<EventEvaluator[]>();
+        otherConstantsMap = new HashMap<Object, EventEvaluator[]>();
+        evaluatorsMap = new HashMap<MultiKeyUntyped, EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    public final EventEvaluator get(Object filterConstant) {
+        MultiKeyUntyped keyValues = (MultiKeyUntyped) filterConstant;
+        return evaluatorsMap.get(keyValues);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator) {
+        // Store evaluator keyed to set of values
+        MultiKeyUntyped keys = (MultiKeyUntyped) filterConstant;
+
+        // make sure to remove the old evaluator for this constant
+        EventEvaluator oldEvaluator = evaluatorsMap.put(keys, evaluator);
+
+        // Store each value to match against in Map with it's evaluator as an array
+        LongObjectHashMap<EventEvaluator[]> constants = copyOnWrite ? new LongObjectHashMap<EventEvaluator[]>(constantsMap) : constantsMap;
+        Map<Object, EventEvaluator[]> otherConstants = copyOnWrite ? new HashMap<Object, EventEvaluator[]>(otherConstantsMap) : otherConstantsMap;
+        Object[] keyValues = keys.getKeys();
+        for (int i = 0; i < keyValues.length; i++) {
+            boolean primitive = isPrimitiveKey(keyValues[i]);
+            long key = primitive ? toKey(keyValues[i]) : 0;
+            EventEvaluator[] evaluators = primitive ? constants.get(key) : otherConstants.get(keyValues[i]);
+            if (evaluators == null) {
+                evaluators = EMPTY;
+            } else if (oldEvaluator != null) {
+                evaluators = removeFirst(evaluators, oldEvaluator);
+            }
+            evaluators = append(evaluators, evaluator);
+            if (primitive) {
+                constants.put(key, evaluators);
+            } else {
+                otherConstants.put(keyValues[i], evaluators);
+            }
+        }
+        constantsMap = constants;
+        otherConstantsMap = otherConstants;
+    }
+
+    public final void remove(Object filterConstant) {
+        MultiKeyUntyped keys = (MultiKeyUntyped) filterConstant;
+
+        // remove the mapping of value set to evaluator
+        EventEvaluator eval = evaluatorsMap.remove(keys);
+
+        LongObjectHashMap<EventEvaluator[]> constants = copyOnWrite ? new LongObjectHashMap<EventEvaluator[]>(constantsMap) : constantsMap;
+        Map<Object, EventEvaluator[]> otherConstants = copyOnWrite ? new HashMap<Object, EventEvaluator[]>(otherConstantsMap) : otherConstantsMap;
+        Object[] keyValues = keys.getKeys();
+        for (int i = 0; i < keyValues.length; i++) {
+            boolean primitive = isPrimitiveKey(keyValues[i]);
+            long key = primitive ? toKey(keyValues[i]) : 0;
+            EventEvaluator[] evaluators = primitive ? constants.get(key) : otherConstants.get(keyValues[i]);
+            if (evaluators == null) {
+                continue;
+            }
+
+            // could be removed already as same-value constants existed
+            evaluators = removeFirst(evaluators, eval);
+            if (primitive) {
+                if (evaluators.length == 0) {
+                    constants.remove(key);
+                } else {
+                    constants.put(key, evaluators);
+                }
+            } else {
+                if (evaluators.length == 0) {
+                    otherConstants.remove(keyValues[i]);
+                } else {
+                    otherConstants.put(keyValues[i], evaluators);
+                }
+            }
+        }
+        constantsMap = constants;
+        otherConstantsMap = otherConstants;
+    }
+
+    public final int sizeExpensive() {
+        return constantsMap.size() + otherConstantsMap.size();
+    }
+
+    public boolean isEmpty() {
+        return constantsMap.isEmpty() && otherConstantsMap.isEmpty();
+    }
+
+    public final ReadWriteLock getReadWriteLock() {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+        }
+
+        if (attributeValue == null) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        // Look up in hashtable
+        constantsMapRWLock.readLock().lock();
+        try {
+            EventEvaluator[] evaluators;
+            if (isPrimitiveKey(attributeValue)) {
+                evaluators = constantsMap.get(toKey(attributeValue));
+            } else {
+                evaluators = otherConstantsMap.get(attributeValue);
+            }
+
+            // No listener found for the value, return
+            if (evaluators == null) {
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aFilterReverseIndex(false);
+                }
+                return;
+            }
+
+            for (EventEvaluator evaluator : evaluators) {
+                evaluator.matchEvent(theEvent, matches);
+            }
+        } finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(null);
+        }
+    }
+
+    private static EventEvaluator[] append(EventEvaluator[] evaluators, EventEvaluator evaluator) {
+        EventEvaluator[] result = new EventEvaluator[evaluators.length + 1];
+        System.arraycopy(evaluators, 0, result, 0, evaluators.length);
+        result[evaluators.length] = evaluator;
+        return result;
+    }
+
+    private static EventEvaluator[] removeFirst(EventEvaluator[] evaluators, EventEvaluator evaluator) {
+        for (int i = 0; i < evaluators.length; i++) {
+            if (evaluators[i].equals(evaluator)) {
+                EventEvaluator[] result = new EventEvaluator[evaluators.length - 1];
+                System.arraycopy(evaluators, 0, result, 0, i);
+                System.arraycopy(evaluators, i + 1, result, i, evaluators.length - i - 1);
+                return result;
+            }
+        }
+        return evaluators;
+    }
+}
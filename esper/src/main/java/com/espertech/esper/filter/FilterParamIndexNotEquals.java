@@ -24,8 +24,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  * The implementation is based on a regular HashMap.
  */
 public final class FilterParamIndexNotEquals extends FilterParamIndexNotEqualsBase {
-    public FilterParamIndexNotEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL);
+    public FilterParamIndexNotEquals(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL, copyOnWrite);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
@@ -17,16 +17,19 @@ import java.util.concurrent.locks.ReadWriteLock;
 /**
  * Index for filter parameter constants to match using the equals (=) operator.
  * The implementation is based on a regular HashMap.
+ * When copy-on-write, the map is replaced by a changed copy upon put and remove.
  */
 public abstract class FilterParamIndexNotEqualsBase extends FilterParamIndexLookupableBase {
-    protected final Map<Object, EventEvaluator> constantsMap;
+    protected volatile Map<Object, EventEvaluator> constantsMap;
     protected final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    protected FilterParamIndexNotEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    protected FilterParamIndexNotEqualsBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
 
         constantsMap = new HashMap<Object, EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant) {
@@ -34,10 +37,25 @@ public abstract class FilterParamIndexNotEqualsBase extends FilterParamIndexLook
     }
 
     public final void put(Object filterConstant, EventEvaluator evaluator) {
+        if (copyOnWrite) {
+            Map<Object, EventEvaluator> copy = new HashMap<Object, EventEvaluator>(constantsMap);
+            copy.put(filterConstant, evaluator);
+            constantsMap = copy;
+            return;
+        }
         constantsMap.put(filterConstant, evaluator);
     }
 
     public final void remove(Object filterConstant) {
+        if (copyOnWrite) {
+            if (!constantsMap.containsKey(filterConstant)) {
+                return;
+            }
+            Map<Object, EventEvaluator> copy = new HashMap<Object, EventEvaluator>(constantsMap);
+            copy.remove(filterConstant);
+            constantsMap = copy;
+            return;
+        }
         constantsMap.remove(filterConstant);
     }
 
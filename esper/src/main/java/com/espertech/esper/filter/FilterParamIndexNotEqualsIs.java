@@ -24,8 +24,8 @@ import java.util.concurrent.locks.ReadWriteLock;
  * The implementation is based on a regular HashMap.
  */
 public final class FilterParamIndexNotEqualsIs extends FilterParamIndexNotEqualsBase {
-    public FilterParamIndexNotEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
-        super(lookupable, readWriteLock, FilterOperator.IS_NOT);
+    public FilterParamIndexNotEqualsIs(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.IS_NOT, copyOnWrite);
     }
 
     public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
@@ -0,0 +1,77 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.LongObjectHashMap;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the not-equals (!=) operator, for numeric properties.
+ * The implementation is based on an open-addressing hash map keyed by primitive long.
+ */
+public final class FilterParamIndexNotEqualsPrimitive extends FilterParamIndexEqualsPrimitiveBase {
+    public FilterParamIndexNotEqualsPrimitive(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
+        super(lookupable, readWriteLock, FilterOperator.NOT_EQUAL, copyOnWrite);
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+        }
+
+        if (attributeValue == null) {   // null cannot match any other value, not even null (use "is" or "is not", i.e. null != null returns null)
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        constantsMapRWLock.readLock().lock();
+        try {
+            // a value not of the property type is not equal to any of the primitive constants
+            boolean primitive = isPrimitiveKey(attributeValue);
+            long key = primitive ? toKey(attributeValue) : 0;
+            LongObjectHashMap<EventEvaluator> constants = constantsMap;
+            int capacity = constants.getCapacity();
+            for (int i = 0; i < capacity; i++) {
+                EventEvaluator evaluator = constants.getValueAt(i);
+                if (evaluator != null && (!primitive || constants.getKeyAt(i) != key)) {
+                    evaluator.matchEvent(theEvent, matches);
+                }
+            }
+
+            Map<Object, EventEvaluator> otherConstants = otherConstantsMap;
+            if (!otherConstants.isEmpty()) {
+                for (Map.Entry<Object, EventEvaluator> entry : otherConstants.entrySet()) {
+                    if (entry.getKey() == null) {
+                        continue;   // null-value cannot match, not even null (use "is" or "is not", i.e. null != null returns null)
+                    }
+
+                    if (!entry.getKey().equals(attributeValue)) {
+                        entry.getValue().matchEvent(theEvent, matches);
+                    }
+                }
+            }
+        } finally {
+            constantsMapRWLock.readLock().unlock();
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(null);
+        }
+    }
+}
@@ -22,20 +22,21 @@ import java.util.concurrent.locks.ReadWriteLock;
 /**
  * Index for filter parameter constants to match using the 'not in' operator to match against a
  * all other values then the supplied set of values.
+ * When copy-on-write, the constants and evaluators are replaced together by a changed copy upon put and remove.
  */
 public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase {
-    private final Map<Object, Set<EventEvaluator>> constantsMap;
+    private volatile NotInEvaluators evaluators;
     private final Map<MultiKeyUntyped, EventEvaluator> filterValueEvaluators;
-    private final Set<EventEvaluator> evaluatorsSet;
     private final ReadWriteLock constantsMapRWLock;
+    private final boolean copyOnWrite;
 
-    public FilterParamIndexNotIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+    public FilterParamIndexNotIn(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, boolean copyOnWrite) {
         super(FilterOperator.NOT_IN_LIST_OF_VALUES, lookupable);
 
-        constantsMap = new HashMap<Object, Set<EventEvaluator>>();
+        evaluators = new NotInEvaluators(new HashMap<Object, Set<EventEvaluator>>(), new HashSet<EventEvaluator>());
         filterValueEvaluators = new HashMap<MultiKeyUntyped, EventEvaluator>();
-        evaluatorsSet = new HashSet<EventEvaluator>();
         constantsMapRWLock = readWriteLock;
+        this.copyOnWrite = copyOnWrite;
     }
 
     public final EventEvaluator get(Object filterConstant) {
@@ -46,19 +47,28 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
     public final void put(Object filterConstant, EventEvaluator evaluator) {
         // Store evaluator keyed to set of values
         MultiKeyUntyped keys = (MultiKeyUntyped) filterConstant;
-        filterValueEvaluators.put(keys, evaluator);
-        evaluatorsSet.add(evaluator);
+        EventEvaluator oldEvaluator = filterValueEvaluators.put(keys, evaluator);
+        NotInEvaluators target = copyOnWrite ? evaluators.copy() : evaluators;
+
+        // when copy-on-write the evaluator for the same constants is replaced without a prior remove
+        if (copyOnWrite && oldEvaluator != null) {
+            removeEvaluator(target, keys, oldEvaluator);
+        }
+        target.evaluatorsSet.add(evaluator);
 
         // Store each value to match against in Map with it's evaluator as a list
         Object[] keyValues = keys.getKeys();
         for (Object keyValue : keyValues) {
-            Set<EventEvaluator> evaluators = constantsMap.get(keyValue);
-            if (evaluators == null) {
-                evaluators = new HashSet<EventEvaluator>();
-                constantsMap.put(keyValue, evaluators);
+            Set<EventEvaluator> evaluatorsForValue = target.constantsMap.get(keyValue);
+            if (evaluatorsForValue == null) {
+                evaluatorsForValue = new HashSet<EventEvaluator>();
+            } else if (copyOnWrite) {
+                evaluatorsForValue = new HashSet<EventEvaluator>(evaluatorsForValue);
             }
-            evaluators.add(evaluator);
+            evaluatorsForValue.add(evaluator);
+            target.constantsMap.put(keyValue, evaluatorsForValue);
         }
+        evaluators = target;
     }
 
     public final void remove(Object filterConstant) {
@@ -66,27 +76,17 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
 
         // remove the mapping of value set to evaluator
         EventEvaluator eval = filterValueEvaluators.remove(keys);
-        evaluatorsSet.remove(eval);
-
-        Object[] keyValues = keys.getKeys();
-        for (Object keyValue : keyValues) {
-            Set<EventEvaluator> evaluators = constantsMap.get(keyValue);
-            if (evaluators != null) {
-                // could already be removed as constants may be the same
-                evaluators.remove(eval);
-                if (evaluators.isEmpty()) {
-                    constantsMap.remove(keyValue);
-                }
-            }
-        }
+        NotInEvaluators target = copyOnWrite ? evaluators.copy() : evaluators;
+        removeEvaluator(target, keys, eval);
+        evaluators = target;
     }
 
     public final int sizeExpensive() {
-        return constantsMap.size();
+        return evaluators.constantsMap.size();
     }
 
     public boolean isEmpty() {
-        return constantsMap.isEmpty();
+        return evaluators.constantsMap.isEmpty();
     }
 
     public final ReadWriteLock getReadWriteLock() {
@@ -108,7 +108,9 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
 
         // Look up in hashtable the set of not-in evaluators
         constantsMapRWLock.readLock().lock();
-        Set<EventEvaluator> evalNotMatching = constantsMap.get(attributeValue);
+        NotInEvaluators current = evaluators;
+        Set<EventEvaluator> evaluatorsSet = current.evaluatorsSet;
+        Set<EventEvaluator> evalNotMatching = current.constantsMap.get(attributeValue);
 
         // if all known evaluators are matching, invoke all
         if (evalNotMatching == null) {
@@ -149,5 +151,39 @@ public final class FilterParamIndexNotIn extends FilterParamIndexLookupableBase
         }
     }
 
+    private void removeEvaluator(NotInEvaluators target, MultiKeyUntyped keys, EventEvaluator eval) {
+        target.evaluatorsSet.remove(eval);
+
+        Object[] keyValues = keys.getKeys();
+        for (Object keyValue : keyValues) {
+            Set<EventEvaluator> evaluatorsForValue = target.constantsMap.get(keyValue);
+            if (evaluatorsForValue != null) {
+                if (copyOnWrite) {
+                    evaluatorsForValue = new HashSet<EventEvaluator>(evaluatorsForValue);
+                    target.constantsMap.put(keyValue, evaluatorsForValue);
+                }
+                // could already be removed as constants may be the same
+                evaluatorsForValue.remove(eval);
+                if (evaluatorsForValue.isEmpty()) {
+                    target.constantsMap.remove(keyValue);
+                }
+            }
+        }
+    }
+
+    private static class NotInEvaluators {
+        private final Map<Object, Set<EventEvaluator>> constantsMap;
+        private final Set<EventEvaluator> evaluatorsSet;
+
+        private NotInEvaluators(Map<Object, Set<EventEvaluator>> constantsMap, Set<EventEvaluator> evaluatorsSet) {
+            this.constantsMap = constantsMap;
+            this.evaluatorsSet = evaluatorsSet;
+        }
+
+        private NotInEvaluators copy() {
+            return new NotInEvaluators(new HashMap<Object, Set<EventEvaluator>>(constantsMap), new HashSet<EventEvaluator>(evaluatorsSet));
+        }
+    }
+
     private static final Logger log = LoggerFactory.getLogger(FilterParamIndexNotIn.class);
 }
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Base for indexes for filter parameter constants that keep constants of the numeric property type
+ * by their primitive long representation, for properties of type int, long, short, byte, double and float
+ * (primitive or boxed).
+ * <p>
+ * Integral values are represented by their long value and floating-point values by their double bits,
+ * that is consistent with the equals-semantics of the boxed type.
+ * Constants of a type other than the property type, and the null constant, are not represented as
+ * primitive long and are kept separately by implementations.
+ */
+public abstract class FilterParamIndexPrimitiveBase extends FilterParamIndexLookupableBase {
+    private final Class keyType;
+    private final boolean floatingPoint;
+
+    protected FilterParamIndexPrimitiveBase(FilterOperator filterOperator, FilterSpecLookupable lookupable) {
+        super(filterOperator, lookupable);
+        keyType = JavaClassHelper.getBoxedType(lookupable.getReturnType());
+        if (!isPrimitiveKeyType(keyType)) {
+            throw new IllegalArgumentException("Unsupported property type " + lookupable.getReturnType());
+        }
+        floatingPoint = keyType == Double.class || keyType == Float.class;
+    }
+
+    /**
+     * Returns indicator whether the type, primitive or boxed, can be represented as primitive long key.
+     *
+     * @param type to check
+     * @return indicator
+     */
+    public static boolean isPrimitiveKeyType(Class type) {
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        return boxed == Integer.class || boxed == Long.class || boxed == Short.class ||
+                boxed == Byte.class || boxed == Double.class || boxed == Float.class;
+    }
+
+    /**
+     * Returns indicator whether the value is of the property type and is therefore represented as primitive long key.
+     *
+     * @param value constant or event property value
+     * @return indicator
+     */
+    protected final boolean isPrimitiveKey(Object value) {
+        return value != null && value.getClass() == keyType;
+    }
+
+    /**
+     * Returns the primitive long key for a value of the property type.
+     *
+     * @param value constant or event property value, must be of the property type
+     * @return key
+     */
+    protected final long toKey(Object value) {
+        if (floatingPoint) {
+            return Double.doubleToLongBits(((Number) value).doubleValue());
+        }
+        return ((Number) value).longValue();
+    }
+}
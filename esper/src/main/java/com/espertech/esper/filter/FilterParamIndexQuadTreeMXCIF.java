@@ -45,7 +45,12 @@ public class FilterParamIndexQuadTreeMXCIF extends FilterParamIndexLookupableBas
         double y = ((Number) advancedIndex.getY().get(theEvent)).doubleValue();
         double width = ((Number) advancedIndex.getWidth().get(theEvent)).doubleValue();
         double height = ((Number) advancedIndex.getHeight().get(theEvent)).doubleValue();
-        MXCIFQuadTreeFilterIndexCollect.collectRange(quadTree, x, y, width, height, theEvent, matches, COLLECTOR);
+        readWriteLock.readLock().lock();
+        try {
+            MXCIFQuadTreeFilterIndexCollect.collectRange(quadTree, x, y, width, height, theEvent, matches, COLLECTOR);
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
     }
 
     public EventEvaluator get(Object filterConstant) {
@@ -45,7 +45,12 @@ public class FilterParamIndexQuadTreePointRegion extends FilterParamIndexLookupa
         double y = ((Number) advancedIndex.getY().get(theEvent)).doubleValue();
         double width = ((Number) advancedIndex.getWidth().get(theEvent)).doubleValue();
         double height = ((Number) advancedIndex.getHeight().get(theEvent)).doubleValue();
-        PointRegionQuadTreeFilterIndexCollect.collectRange(quadTree, x, y, width, height, theEvent, matches, COLLECTOR);
+        readWriteLock.readLock().lock();
+        try {
+            PointRegionQuadTreeFilterIndexCollect.collectRange(quadTree, x, y, width, height, theEvent, matches, COLLECTOR);
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
     }
 
     public EventEvaluator get(Object filterConstant) {
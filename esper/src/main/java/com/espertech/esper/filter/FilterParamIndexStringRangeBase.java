@@ -19,12 +19,14 @@ import java.util.TreeMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLookupableBase {
-    protected final TreeMap<StringRange, EventEvaluator> ranges;
+    protected volatile TreeMap<StringRange, EventEvaluator> ranges;
     private final IdentityHashMap<StringRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
+    private final boolean copyOnWrite;
 
-    protected FilterParamIndexStringRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+    protected FilterParamIndexStringRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator, boolean copyOnWrite) {
         super(filterOperator, lookupable);
+        this.copyOnWrite = copyOnWrite;
 
         ranges = new TreeMap<StringRange, EventEvaluator>(new StringRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<StringRange, EventEvaluator>();
@@ -56,6 +58,12 @@ public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLo
             return;
         }
 
+        if (copyOnWrite) {
+            TreeMap<StringRange, EventEvaluator> copy = new TreeMap<StringRange, EventEvaluator>(ranges);
+            copy.put(range, matcher);
+            ranges = copy;
+            return;
+        }
         ranges.put(range, matcher);
     }
 
@@ -66,6 +74,15 @@ public abstract class FilterParamIndexStringRangeBase extends FilterParamIndexLo
             rangesNullEndpoints.remove(range);
             return;
         }
+        if (copyOnWrite) {
+            if (!ranges.containsKey(range)) {
+                return;
+            }
+            TreeMap<StringRange, EventEvaluator> copy = new TreeMap<StringRange, EventEvaluator>(ranges);
+            copy.remove(range);
+            ranges = copy;
+            return;
+        }
         ranges.remove(range);
     }
 
@@ -23,7 +23,7 @@ import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.LockSupport;
 
 /**
@@ -35,7 +35,7 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
     private static final Logger log = LoggerFactory.getLogger(FilterServiceBase.class);
     private final EventTypeIndexBuilder indexBuilder;
     private final EventTypeIndex eventTypeIndex;
-    private final AtomicLong numEventsEvaluated = new AtomicLong();
+    private final LongAdder numEventsEvaluated = new LongAdder();
     private volatile long filtersVersion = 1;
     private final CopyOnWriteArraySet<FilterServiceListener> filterServiceListeners;
 
@@ -77,10 +77,10 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
         }
 
         long version = filtersVersion;
-        numEventsEvaluated.incrementAndGet();
+        numEventsEvaluated.increment();
 
         // Finds all matching filters and return their callbacks.
-        retryableMatchEvent(theEvent, matches);
+        matchEvent(theEvent, matches);
 
         if ((AuditPath.isAuditEnabled) && (!filterServiceListeners.isEmpty())) {
             for (FilterServiceListener listener : filterServiceListeners) {
@@ -97,12 +97,12 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
 
     protected long evaluateInternal(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
         long version = filtersVersion;
-        numEventsEvaluated.incrementAndGet();
+        numEventsEvaluated.increment();
 
         ArrayDeque<FilterHandle> allMatches = new ArrayDeque<FilterHandle>();
 
         // Finds all matching filters
-        retryableMatchEvent(theEvent, allMatches);
+        matchEvent(theEvent, allMatches);
 
         // Add statement matches to collection passed
         for (FilterHandle match : allMatches) {
@@ -122,12 +122,12 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
 
     @JmxGetter(name = "NumEventsEvaluated", description = "Number of events evaluated (main)")
     public final long getNumEventsEvaluated() {
-        return numEventsEvaluated.get();
+        return numEventsEvaluated.sum();
     }
 
     @JmxOperation(description = "Reset number of events evaluated")
     public void resetStats() {
-        numEventsEvaluated.set(0);
+        numEventsEvaluated.reset();
     }
 
     public void addFilterServiceListener(FilterServiceListener filterServiceListener) {
@@ -166,7 +166,18 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
         eventTypeIndex.removeType(type);
     }
 
-    private void retryableMatchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+    /**
+     * Finds all filters matching the event, adding their callbacks to the matches collection.
+     * Evaluation counts, instrumentation and audit are handled by the caller, once per event.
+     *
+     * @param theEvent event to match
+     * @param matches  collection to add matching callbacks to
+     */
+    protected void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        retryableMatchEvent(theEvent, matches);
+    }
+
+    protected final void retryableMatchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
         // Install lock backoff exception handler that retries the evaluation.
         try {
             eventTypeIndex.matchEvent(theEvent, matches);
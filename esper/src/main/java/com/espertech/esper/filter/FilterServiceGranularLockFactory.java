@@ -14,4 +14,12 @@ import java.util.concurrent.locks.ReadWriteLock;
 
 public interface FilterServiceGranularLockFactory {
     public ReadWriteLock obtainNew();
+
+    /**
+     * Returns indicator whether filter index nodes are copied and republished on change,
+     * allowing event matching to proceed without taking locks.
+     *
+     * @return copy-on-write indicator
+     */
+    public boolean isCopyOnWrite();
 }
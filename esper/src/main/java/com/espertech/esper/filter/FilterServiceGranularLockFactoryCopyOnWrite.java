@@ -0,0 +1,32 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Lock factory for copy-on-write filter indexes: the filter index nodes republish their content
+ * as a new snapshot upon change and therefore granular locks are not required.
+ */
+public class FilterServiceGranularLockFactoryCopyOnWrite implements FilterServiceGranularLockFactory {
+    public static final FilterServiceGranularLockFactoryCopyOnWrite INSTANCE = new FilterServiceGranularLockFactoryCopyOnWrite();
+
+    private FilterServiceGranularLockFactoryCopyOnWrite() {
+    }
+
+    public ReadWriteLock obtainNew() {
+        return FilterServiceGranularLockFactoryNone.INSTANCE.obtainNew();
+    }
+
+    public boolean isCopyOnWrite() {
+        return true;
+    }
+}
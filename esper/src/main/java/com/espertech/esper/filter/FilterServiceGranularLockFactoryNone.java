@@ -57,4 +57,8 @@ public class FilterServiceGranularLockFactoryNone implements FilterServiceGranul
     public ReadWriteLock obtainNew() {
         return RWLOCKNONE;
     }
+
+    public boolean isCopyOnWrite() {
+        return false;
+    }
 }
@@ -17,4 +17,8 @@ public class FilterServiceGranularLockFactoryReentrant implements FilterServiceG
     public ReadWriteLock obtainNew() {
         return new ReentrantReadWriteLock();
     }
+
+    public boolean isCopyOnWrite() {
+        return false;
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Filter service that evaluates events without locking: filter index nodes are copy-on-write and
+ * changes to filters replace the changed nodes along the path of the filter.
+ * <p>
+ * Changes to filters are serialized among each other. When a thread holds the write lock,
+ * an evaluation that overlaps with the write lock is discarded and repeated under the read lock.
+ * Each event counts as evaluated once, including when repeated.
+ * <p>
+ * The equals and in-list indexes keep their constants in a {@link com.espertech.esper.collection.PersistentHashMap}
+ * and a change copies only the changed path of trie nodes. The other indexes copy their map upon change, so a change
+ * costs in the order of the number of constants of the index: the relational and range indexes are sorted maps for which
+ * evaluation takes sub-maps, and the not-equals and not-in indexes evaluate all constants for each event anyway.
+ */
+public final class FilterServiceLockFree extends FilterServiceBase {
+    private final ReentrantLock changeLock = new ReentrantLock();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long writeLockSequence;
+
+    public FilterServiceLockFree(boolean allowIsolation) {
+        super(FilterServiceGranularLockFactoryCopyOnWrite.INSTANCE, allowIsolation);
+    }
+
+    public void acquireWriteLock() {
+        lock.writeLock().lock();
+        writeLockSequence++;
+    }
+
+    public void releaseWriteLock() {
+        lock.writeLock().unlock();
+    }
+
+    public FilterSet take(Set<Integer> statementId) {
+        changeLock.lock();
+        try {
+            return super.takeInternal(statementId);
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    public void apply(FilterSet filterSet) {
+        changeLock.lock();
+        try {
+            super.applyInternal(filterSet);
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches) {
+        return super.evaluateInternal(theEvent, matches);
+    }
+
+    public long evaluate(EventBean theEvent, Collection<FilterHandle> matches, int statementId) {
+        return super.evaluateInternal(theEvent, matches, statementId);
+    }
+
+    protected void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        long sequence = writeLockSequence;
+        if (!lock.isWriteLocked()) {
+            retryableMatchEvent(theEvent, matches);
+            if (sequence == writeLockSequence) {
+                return;
+            }
+            matches.clear();
+        }
+
+        lock.readLock().lock();
+        try {
+            retryableMatchEvent(theEvent, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FilterServiceEntry add(FilterValueSet filterValueSet, FilterHandle callback) {
+        changeLock.lock();
+        try {
+            return super.addInternal(filterValueSet, callback);
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    public void remove(FilterHandle callback, FilterServiceEntry filterServiceEntry) {
+        changeLock.lock();
+        try {
+            super.removeInternal(callback, filterServiceEntry);
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    public void removeType(EventType type) {
+        changeLock.lock();
+        try {
+            super.removeTypeInternal(type);
+        } finally {
+            changeLock.unlock();
+        }
+    }
+}
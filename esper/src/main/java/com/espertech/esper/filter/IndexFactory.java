@@ -12,6 +12,10 @@ package com.espertech.esper.filter;
 
 import com.espertech.esper.epl.index.quadtree.EngineImportApplicationDotMethodPointInsideRectange;
 import com.espertech.esper.epl.index.quadtree.EngineImportApplicationDotMethodRectangeIntersectsRectangle;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Factory for {@link FilterParamIndexBase} instances based on event property name and filter operator type.
@@ -30,26 +34,36 @@ public class IndexFactory {
     public static FilterParamIndexBase createIndex(FilterSpecLookupable lookupable, FilterServiceGranularLockFactory lockFactory, FilterOperator filterOperator) {
         FilterParamIndexBase index;
         Class returnValueType = lookupable.getReturnType();
+        boolean copyOnWrite = lockFactory.isCopyOnWrite();
+
+        // Numeric properties use indexes keyed by primitive values
+        boolean primitiveKey = FilterParamIndexPrimitiveBase.isPrimitiveKeyType(returnValueType);
 
         // Handle all EQUAL comparisons
         if (filterOperator == FilterOperator.EQUAL) {
-            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
+            if (primitiveKey) {
+                return new FilterParamIndexEqualsPrimitive(lookupable, lockFactory.obtainNew(), copyOnWrite);
+            }
+            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
         // Handle all NOT-EQUAL comparisons
         if (filterOperator == FilterOperator.NOT_EQUAL) {
-            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew());
+            if (primitiveKey) {
+                return new FilterParamIndexNotEqualsPrimitive(lookupable, lockFactory.obtainNew(), copyOnWrite);
+            }
+            index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
         if (filterOperator == FilterOperator.IS) {
-            index = new FilterParamIndexEqualsIs(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexEqualsIs(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
         if (filterOperator == FilterOperator.IS_NOT) {
-            index = new FilterParamIndexNotEqualsIs(lookupable, lockFactory.obtainNew());
+            index = new FilterParamIndexNotEqualsIs(lookupable, lockFactory.obtainNew(), copyOnWrite);
             return index;
         }
 
@@ -59,50 +73,56 @@ public class IndexFactory {
                 (filterOperator == FilterOperator.LESS) ||
                 (filterOperator == FilterOperator.LESS_OR_EQUAL)) {
             if (returnValueType != String.class) {
-                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
             } else {
-                index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
             }
             return index;
         }
 
         // Handle all normal and inverted RANGE comparisons
         if (filterOperator.isRangeOperator()) {
-            if (returnValueType != String.class) {
-                index = new FilterParamIndexDoubleRange(lookupable, lockFactory.obtainNew(), filterOperator);
+            if (JavaClassHelper.isNumeric(returnValueType)) {
+                index = new FilterParamIndexDoubleRangePrimitive(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
+            } else if (returnValueType != String.class) {
+                index = new FilterParamIndexDoubleRange(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
             } else {
-                index = new FilterParamIndexStringRange(lookupable, lockFactory.obtainNew(), filterOperator);
+                index = new FilterParamIndexStringRange(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
             }
             return index;
         }
         if (filterOperator.isInvertedRangeOperator()) {
             if (returnValueType != String.class) {
-                return new FilterParamIndexDoubleRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator);
+                return new FilterParamIndexDoubleRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
             } else {
-                return new FilterParamIndexStringRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator);
+                return new FilterParamIndexStringRangeInverted(lookupable, lockFactory.obtainNew(), filterOperator, copyOnWrite);
             }
         }
 
         // Handle all IN and NOT IN comparisons
         if (filterOperator == FilterOperator.IN_LIST_OF_VALUES) {
-            return new FilterParamIndexIn(lookupable, lockFactory.obtainNew());
+            if (primitiveKey) {
+                return new FilterParamIndexInPrimitive(lookupable, lockFactory.obtainNew(), copyOnWrite);
+            }
+            return new FilterParamIndexIn(lookupable, lockFactory.obtainNew(), copyOnWrite);
         }
         if (filterOperator == FilterOperator.NOT_IN_LIST_OF_VALUES) {
-            return new FilterParamIndexNotIn(lookupable, lockFactory.obtainNew());
+            return new FilterParamIndexNotIn(lookupable, lockFactory.obtainNew(), copyOnWrite);
         }
 
         // Handle all boolean expression
         if (filterOperator == FilterOperator.BOOLEAN_EXPRESSION) {
-            return new FilterParamIndexBooleanExpr(lockFactory.obtainNew());
+            return new FilterParamIndexBooleanExpr(lockFactory.obtainNew(), copyOnWrite);
         }
 
-        // Handle advanced-index
+        // Handle advanced-index, the quadtree is changed in place and requires its lock also when copy-on-write
         if (filterOperator == FilterOperator.ADVANCED_INDEX) {
+            ReadWriteLock readWriteLock = copyOnWrite ? new ReentrantReadWriteLock() : lockFactory.obtainNew();
             FilterSpecLookupableAdvancedIndex advLookable = (FilterSpecLookupableAdvancedIndex) lookupable;
             if (advLookable.getIndexType().equals(EngineImportApplicationDotMethodPointInsideRectange.INDEXTYPE_NAME)) {
-                return new FilterParamIndexQuadTreePointRegion(lockFactory.obtainNew(), lookupable);
+                return new FilterParamIndexQuadTreePointRegion(readWriteLock, lookupable);
             } else if (advLookable.getIndexType().equals(EngineImportApplicationDotMethodRectangeIntersectsRectangle.INDEXTYPE_NAME)) {
-                return new FilterParamIndexQuadTreeMXCIF(lockFactory.obtainNew(), lookupable);
+                return new FilterParamIndexQuadTreeMXCIF(readWriteLock, lookupable);
             } else {
                 throw new IllegalStateException("Unrecognized index type " + advLookable.getIndexType());
             }
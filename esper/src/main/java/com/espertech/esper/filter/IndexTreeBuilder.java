@@ -160,7 +160,7 @@ public final class IndexTreeBuilder {
 
             FilterParamIndexBase index = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), lockFactory, parameterPickedForIndex.getFilterOperator());
 
-            currentNode.getIndizes().add(index);
+            currentNode.add(index);
             treePathInfo.add(new EventTypeIndexBuilderIndexLookupablePair(index, parameterPickedForIndex.getFilterForValue()));
             addToIndex(remainingParameters, filterCallback, index, parameterPickedForIndex.getFilterForValue(), treePathInfo, lockFactory);
         } finally {
@@ -331,9 +331,12 @@ public final class IndexTreeBuilder {
 
                 // The found eventEvaluator must be converted to a new FilterHandleSetNode
                 FilterParamIndexBase nextIndex = (FilterParamIndexBase) eventEvaluator;
-                FilterHandleSetNode newNode = new FilterHandleSetNode(lockFactory.obtainNew());
+                FilterHandleSetNode newNode = new FilterHandleSetNode(lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
                 newNode.add(nextIndex);
-                index.remove(filterForValue);
+                if (!lockFactory.isCopyOnWrite()) {
+                    index.remove(filterForValue);
+                }
+                // when copy-on-write the put replaces the entry so that matching never misses it
                 index.put(filterForValue, newNode);
                 addToNode(remainingParameters, filterCallback, newNode, treePathInfo, lockFactory);
 
@@ -343,7 +346,7 @@ public final class IndexTreeBuilder {
             // The index does not currently have this filterCallback value,
             // if there are no remaining parameters, create a node
             if (remainingParameters.isEmpty()) {
-                FilterHandleSetNode node = new FilterHandleSetNode(lockFactory.obtainNew());
+                FilterHandleSetNode node = new FilterHandleSetNode(lockFactory.obtainNew(), lockFactory.isCopyOnWrite());
                 addToNode(remainingParameters, filterCallback, node, treePathInfo, lockFactory);
                 index.put(filterForValue, node);
                 return;
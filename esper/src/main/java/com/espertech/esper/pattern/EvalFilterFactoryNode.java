@@ -27,6 +27,7 @@ public class EvalFilterFactoryNode extends EvalNodeFactoryBase {
     private final String eventAsName;
     private transient FilterSpecCompiled filterSpec;
     private final Integer consumptionLevel;
+    private transient EvalFilterIndexSpec indexSpec;
 
     private int eventAsTagNumber = -1;
 
@@ -86,6 +87,24 @@ public class EvalFilterFactoryNode extends EvalNodeFactoryBase {
         return eventAsName;
     }
 
+    /**
+     * Returns the index specification when waiting state nodes share a filter, or null when each state node registers its own filter.
+     *
+     * @return index spec
+     */
+    public EvalFilterIndexSpec getIndexSpec() {
+        return indexSpec;
+    }
+
+    /**
+     * Sets the index specification.
+     *
+     * @param indexSpec index spec
+     */
+    public void setIndexSpec(EvalFilterIndexSpec indexSpec) {
+        this.indexSpec = indexSpec;
+    }
+
     public Integer getConsumptionLevel() {
         return consumptionLevel;
     }
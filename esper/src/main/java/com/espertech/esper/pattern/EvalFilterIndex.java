@@ -0,0 +1,160 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.filter.FilterHandleCallback;
+import com.espertech.esper.filter.FilterService;
+import com.espertech.esper.filter.FilterServiceEntry;
+import com.espertech.esper.filter.FilterValueSet;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash index of the waiting filter state nodes of a pattern filter that correlates to a tagged event by equality,
+ * keyed by the correlated value, for a pattern agent instance.
+ * <p>
+ * The index registers a single filter with the filter service while there are waiting state nodes, instead of one
+ * filter per state node, and dispatches each matching event to the state nodes waiting for the event's key value.
+ * </p>
+ */
+public class EvalFilterIndex implements FilterHandleCallback {
+    private final EvalFilterNode evalFilterNode;
+    private final EvalFilterIndexSpec indexSpec;
+    private final Map<Object, Set<EvalFilterStateNodeIndexed>> waiting = new HashMap<Object, Set<EvalFilterStateNodeIndexed>>();
+
+    private EPStatementHandleCallback handle;
+    private FilterServiceEntry filterServiceEntry;
+
+    /**
+     * Ctor.
+     *
+     * @param evalFilterNode filter node
+     * @param indexSpec      index specification
+     */
+    public EvalFilterIndex(EvalFilterNode evalFilterNode, EvalFilterIndexSpec indexSpec) {
+        this.evalFilterNode = evalFilterNode;
+        this.indexSpec = indexSpec;
+    }
+
+    /**
+     * Returns the index specification.
+     *
+     * @return spec
+     */
+    public EvalFilterIndexSpec getIndexSpec() {
+        return indexSpec;
+    }
+
+    /**
+     * Add a waiting state node, registering the shared filter if this is the first.
+     *
+     * @param key       correlated value
+     * @param stateNode state node
+     */
+    public void add(Object key, EvalFilterStateNodeIndexed stateNode) {
+        Set<EvalFilterStateNodeIndexed> nodes = waiting.get(key);
+        if (nodes == null) {
+            nodes = new LinkedHashSet<EvalFilterStateNodeIndexed>(4);
+            waiting.put(key, nodes);
+        }
+        nodes.add(stateNode);
+        if (handle == null) {
+            startFiltering();
+        }
+    }
+
+    /**
+     * Remove a waiting state node, unregistering the shared filter if none remain.
+     *
+     * @param key       correlated value
+     * @param stateNode state node
+     */
+    public void remove(Object key, EvalFilterStateNodeIndexed stateNode) {
+        Set<EvalFilterStateNodeIndexed> nodes = waiting.get(key);
+        if (nodes == null) {
+            return;
+        }
+        nodes.remove(stateNode);
+        if (nodes.isEmpty()) {
+            waiting.remove(key);
+            if (waiting.isEmpty()) {
+                stopFiltering();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of distinct key values.
+     *
+     * @return number of keys
+     */
+    public int getNumKeys() {
+        return waiting.size();
+    }
+
+    /**
+     * Returns true if a shared filter is registered.
+     *
+     * @return indicator
+     */
+    public boolean isFiltering() {
+        return handle != null;
+    }
+
+    public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+        Object key = indexSpec.getEventKey(theEvent);
+        if (key == null) {
+            return;
+        }
+        Set<EvalFilterStateNodeIndexed> nodes = waiting.get(key);
+        if (nodes == null) {
+            return;
+        }
+
+        // state nodes may quit, or new state nodes may start, as a result of the match
+        EvalFilterStateNodeIndexed[] matching = nodes.toArray(new EvalFilterStateNodeIndexed[nodes.size()]);
+        for (EvalFilterStateNodeIndexed node : matching) {
+            node.matchFound(theEvent, allStmtMatches);
+        }
+    }
+
+    public boolean isSubSelect() {
+        return false;
+    }
+
+    public int getStatementId() {
+        return evalFilterNode.getContext().getPatternContext().getStatementId();
+    }
+
+    private void startFiltering() {
+        FilterService filterService = evalFilterNode.getContext().getPatternContext().getFilterService();
+        handle = new EPStatementHandleCallback(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
+        FilterValueSet filterValues = indexSpec.getSharedFilterSpec().getValueSet(null, evalFilterNode.getContext().getAgentInstanceContext(), evalFilterNode.getAddendumFilters());
+        filterServiceEntry = filterService.add(filterValues, handle);
+        long filtersVersion = filterService.getFiltersVersion();
+        evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
+    }
+
+    private void stopFiltering() {
+        FilterService filterService = evalFilterNode.getContext().getPatternContext().getFilterService();
+        filterService.remove(handle, filterServiceEntry);
+        handle = null;
+        filterServiceEntry = null;
+        long filtersVersion = filterService.getFiltersVersion();
+        evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
+    }
+}
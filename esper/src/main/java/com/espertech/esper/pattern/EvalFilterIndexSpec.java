@@ -0,0 +1,154 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.Pair;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.event.EventTypeUtility;
+import com.espertech.esper.filter.FilterOperator;
+import com.espertech.esper.filter.FilterSpecCompiled;
+import com.espertech.esper.filter.FilterSpecParam;
+import com.espertech.esper.filter.FilterSpecParamConstant;
+import com.espertech.esper.filter.FilterSpecParamEventProp;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Specification for a pattern filter that correlates to a tagged event by equality, such as "b=Fill(orderId = a.id)",
+ * allowing all waiting filter state nodes of a pattern instance to share one filter registration.
+ * <p>
+ * The shared filter is the filter without the correlating parameter. Waiting state nodes are kept in a hash index
+ * keyed by the correlated value, see {@link EvalFilterIndex}.
+ * </p>
+ */
+public class EvalFilterIndexSpec {
+    private final FilterSpecParamEventProp correlatedParam;
+    private final FilterSpecCompiled sharedFilterSpec;
+
+    /**
+     * Ctor.
+     *
+     * @param correlatedParam  the equality parameter that correlates to a tagged event
+     * @param sharedFilterSpec the filter without the correlating parameter
+     */
+    public EvalFilterIndexSpec(FilterSpecParamEventProp correlatedParam, FilterSpecCompiled sharedFilterSpec) {
+        this.correlatedParam = correlatedParam;
+        this.sharedFilterSpec = sharedFilterSpec;
+    }
+
+    /**
+     * Returns the filter without the correlating parameter.
+     *
+     * @return filter spec
+     */
+    public FilterSpecCompiled getSharedFilterSpec() {
+        return sharedFilterSpec;
+    }
+
+    /**
+     * Returns the key of a waiting state node.
+     *
+     * @param beginState           matches so far
+     * @param agentInstanceContext agent instance context
+     * @return key or null if no event can match
+     */
+    public Object getStateKey(MatchedEventMap beginState, AgentInstanceContext agentInstanceContext) {
+        return correlatedParam.getFilterValue(beginState, agentInstanceContext);
+    }
+
+    /**
+     * Returns the key of an arriving event.
+     *
+     * @param theEvent event
+     * @return key or null if the event cannot match
+     */
+    public Object getEventKey(EventBean theEvent) {
+        return correlatedParam.getLookupable().getGetter().get(theEvent);
+    }
+
+    /**
+     * Determine the index specification for each filter of a pattern that qualifies.
+     * <p>
+     * A filter qualifies if it has a single equality parameter comparing to a property of a tagged event of the same type
+     * and otherwise only constant parameters and no property evaluator, and no other filter of the pattern filters for
+     * the same or a related event type. The latter makes sure that an event cannot start a waiting state node and match
+     * the shared filter at the same time.
+     * </p>
+     *
+     * @param filterNodes       all filter nodes of the pattern
+     * @param taggedEventTypes  tagged event types
+     */
+    public static void determineIndexSpecs(List<EvalFilterFactoryNode> filterNodes, Map<String, Pair<EventType, String>> taggedEventTypes) {
+        for (EvalFilterFactoryNode filterNode : filterNodes) {
+            if (filterNode.getConsumptionLevel() != null) {
+                continue;
+            }
+            FilterSpecCompiled spec = filterNode.getFilterSpec();
+            if (spec.getOptionalPropertyEvaluator() != null || spec.getParameters().length != 1) {
+                continue;
+            }
+
+            FilterSpecParamEventProp correlated = null;
+            List<FilterSpecParam> remaining = new ArrayList<FilterSpecParam>();
+            boolean qualifies = true;
+            for (FilterSpecParam param : spec.getParameters()[0]) {
+                if (param instanceof FilterSpecParamEventProp && param.getFilterOperator() == FilterOperator.EQUAL && correlated == null) {
+                    correlated = (FilterSpecParamEventProp) param;
+                } else if (param instanceof FilterSpecParamConstant) {
+                    remaining.add(param);
+                } else {
+                    qualifies = false;
+                }
+            }
+            if (!qualifies || correlated == null || !isSameKeyType(correlated, taggedEventTypes)) {
+                continue;
+            }
+
+            boolean related = false;
+            EventType type = spec.getFilterForEventType();
+            for (EvalFilterFactoryNode other : filterNodes) {
+                if (other == filterNode) {
+                    continue;
+                }
+                EventType otherType = other.getFilterSpec().getFilterForEventType();
+                if (EventTypeUtility.isTypeOrSubTypeOf(type, otherType) || EventTypeUtility.isTypeOrSubTypeOf(otherType, type)) {
+                    related = true;
+                    break;
+                }
+            }
+            if (related) {
+                continue;
+            }
+
+            List<FilterSpecParam>[] sharedParams = (List<FilterSpecParam>[]) new List[]{remaining};
+            FilterSpecCompiled sharedSpec = new FilterSpecCompiled(type, spec.getFilterForEventTypeName(), sharedParams, null);
+            filterNode.setIndexSpec(new EvalFilterIndexSpec(correlated, sharedSpec));
+        }
+    }
+
+    private static boolean isSameKeyType(FilterSpecParamEventProp correlated, Map<String, Pair<EventType, String>> taggedEventTypes) {
+        Class lookupType = JavaClassHelper.getBoxedType(correlated.getLookupable().getReturnType());
+        if (correlated.isMustCoerce()) {
+            return lookupType == correlated.getCoercionType();
+        }
+        Pair<EventType, String> tagged = taggedEventTypes.get(correlated.getResultEventAsName());
+        if (tagged == null) {
+            return false;
+        }
+        Class tagPropertyType = tagged.getFirst().getPropertyType(correlated.getResultEventProperty());
+        return tagPropertyType != null && lookupType == JavaClassHelper.getBoxedType(tagPropertyType);
+    }
+}
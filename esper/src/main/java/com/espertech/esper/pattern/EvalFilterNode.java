@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 public class EvalFilterNode extends EvalNodeBase {
     protected final EvalFilterFactoryNode factoryNode;
     private final FilterValueSetParam[][] addendumFilters;
+    private final EvalFilterIndex index;
 
     public EvalFilterNode(PatternAgentInstanceContext context, EvalFilterFactoryNode factoryNode) {
         super(context);
@@ -29,6 +30,11 @@ public class EvalFilterNode extends EvalNodeBase {
         } else {
             this.addendumFilters = null;
         }
+        if (factoryNode.getIndexSpec() != null && context.getConsumptionHandler() == null) {
+            this.index = new EvalFilterIndex(this, factoryNode.getIndexSpec());
+        } else {
+            this.index = null;
+        }
     }
 
     public EvalFilterFactoryNode getFactoryNode() {
@@ -39,11 +45,23 @@ public class EvalFilterNode extends EvalNodeBase {
         return addendumFilters;
     }
 
+    /**
+     * Returns the index of waiting state nodes, or null if state nodes register their own filter.
+     *
+     * @return index
+     */
+    public EvalFilterIndex getIndex() {
+        return index;
+    }
+
     public EvalStateNode newState(Evaluator parentNode,
                                   EvalStateNodeNumber stateNodeNumber, long stateNodeId) {
         if (getContext().getConsumptionHandler() != null) {
             return new EvalFilterStateNodeConsumeImpl(parentNode, this);
         }
+        if (index != null) {
+            return new EvalFilterStateNodeIndexed(parentNode, this, index);
+        }
         return new EvalFilterStateNode(parentNode, this);
     }
 
@@ -0,0 +1,50 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+/**
+ * Filter state node for a filter that correlates to a tagged event by equality, which does not register
+ * its own filter but waits in the hash index of the pattern agent instance.
+ */
+public class EvalFilterStateNodeIndexed extends EvalFilterStateNode {
+    private final EvalFilterIndex index;
+    private Object key;
+
+    /**
+     * Constructor.
+     *
+     * @param parentNode     is the parent evaluator to call to indicate truth value
+     * @param evalFilterNode is the factory node associated to the state
+     * @param index          the index of waiting state nodes
+     */
+    public EvalFilterStateNodeIndexed(Evaluator parentNode, EvalFilterNode evalFilterNode, EvalFilterIndex index) {
+        super(parentNode, evalFilterNode);
+        this.index = index;
+    }
+
+    @Override
+    protected void startFiltering() {
+        // a null key cannot match, not even null
+        key = index.getIndexSpec().getStateKey(beginState, evalFilterNode.getContext().getAgentInstanceContext());
+        if (key != null) {
+            index.add(key, this);
+        }
+    }
+
+    @Override
+    protected void stopFiltering() {
+        if (key != null) {
+            index.remove(key, this);
+        }
+        key = null;
+        isStarted = false;
+    }
+}
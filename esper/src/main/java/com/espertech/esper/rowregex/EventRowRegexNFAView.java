@@ -37,6 +37,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
     private static final Logger log = LoggerFactory.getLogger(EventRowRegexNFAView.class);
     private static final boolean IS_DEBUG = false;
     private static final Iterator<EventBean> NULL_ITERATOR = new SingleEventIterator(null);
+    private static final int MAX_POOLED_ENTRIES = 1024;
 
     private final EventRowRegexNFAViewFactory factory;
 
@@ -47,6 +48,8 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
 
     private final RegexPartitionStateRandomAccessGetter prevGetter;
     private final ObjectArrayBackedEventBean compositeEventBean;
+    private final EventBean[] startStateEventsPerStream;
+    private final RegexNFAStateEntryPool entryPool;
 
     // state
     protected RegexPartitionStateRepo regexPartitionStateRepo;
@@ -57,6 +60,9 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                                 EventRowRegexNFAViewScheduler scheduler) {
         this.factory = factory;
         this.compositeEventBean = new ObjectArrayEventBean(new Object[factory.variableStreams.size()], factory.compositeEventType);
+        this.startStateEventsPerStream = new EventBean[factory.numEventsEventsPerStreamDefine];
+        this.entryPool = new RegexNFAStateEntryPool(factory.numEventsEventsPerStreamDefine, factory.allStates.length,
+                factory.isCollectMultimatches ? factory.multimatchVariablesArray.length : -1, MAX_POOLED_ENTRIES);
         this.scheduler = scheduler;
         this.agentInstanceContext = agentInstanceContext;
 
@@ -337,6 +343,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                     RegexNFAStateEntry currentState = stateIter.next();
                     if (currentState.getMatchBeginEventSeqNo() <= endState.getMatchEndEventSeqNo()) {
                         stateIter.remove();
+                        entryPool.recycle(currentState);
                     }
                 }
             }
@@ -355,6 +362,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                     RegexNFAStateEntry currentState = stateIter.next();
                     if (currentState.getMatchBeginEventSeqNo() <= endState.getMatchBeginEventSeqNo()) {
                         stateIter.remove();
+                        entryPool.recycle(currentState);
                     }
                 }
             }
@@ -702,36 +710,33 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 }
                 List<RegexNFAState> nextStatesFromHere = currentState.getState().getNextStates();
 
-                // save state for each next state
-                boolean copy = nextStatesFromHere.size() > 1;
-                for (RegexNFAState next : nextStatesFromHere) {
-                    EventBean[] eventsForState = eventsPerStream;
-                    MultimatchState[] multimatches = currentState.getOptionalMultiMatches();
-                    int[] greedyCounts = currentState.getGreedycountPerState();
-
-                    if (copy) {
-                        eventsForState = new EventBean[eventsForState.length];
-                        System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
-
-                        int[] greedyCountsCopy = new int[greedyCounts.length];
-                        System.arraycopy(greedyCounts, 0, greedyCountsCopy, 0, greedyCounts.length);
-                        greedyCounts = greedyCountsCopy;
+                // save state for each next state, the last next state reuses the entry and its arrays
+                int numNextStates = nextStatesFromHere.size();
+                for (int i = 0; i < numNextStates; i++) {
+                    RegexNFAState next = nextStatesFromHere.get(i);
 
+                    RegexNFAStateEntry entry;
+                    if (i < numNextStates - 1) {
+                        entry = entryPool.allocate(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentState.getState(), partitionKey);
+                        System.arraycopy(eventsPerStream, 0, entry.getEventsPerStream(), 0, eventsPerStream.length);
+                        System.arraycopy(currentState.getGreedycountPerState(), 0, entry.getGreedycountPerState(), 0, entry.getGreedycountPerState().length);
                         if (factory.isCollectMultimatches) {
-                            multimatches = deepCopy(multimatches);
+                            copyMultimatches(currentState.getOptionalMultiMatches(), entry.getOptionalMultiMatches());
                         }
+                    } else {
+                        entry = currentState;
                     }
+                    EventBean[] eventsForState = entry.getEventsPerStream();
 
                     if (factory.isCollectMultimatches && (currentState.getState().isMultiple())) {
-                        multimatches = addTag(currentState.getState().getStreamNum(), theEvent, multimatches);
+                        entry.setOptionalMultiMatches(addTag(currentState.getState().getStreamNum(), theEvent, entry.getOptionalMultiMatches()));
                         eventsForState[currentStateStreamNum] = null; // remove event from evaluation list
                     }
 
                     if ((currentState.getState().isGreedy() != null) && (currentState.getState().isGreedy())) {
-                        greedyCounts[currentState.getState().getNodeNumFlat()]++;
+                        entry.getGreedycountPerState()[currentState.getState().getNodeNumFlat()]++;
                     }
 
-                    RegexNFAStateEntry entry = new RegexNFAStateEntry(currentState.getMatchBeginEventSeqNo(), currentState.getMatchBeginEventTime(), currentState.getState(), eventsForState, greedyCounts, multimatches, partitionKey);
                     if (next instanceof RegexNFAStateEnd) {
                         entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
                         endStates.add(entry);
@@ -743,6 +748,8 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                                 poolSvc.getStmtHandler().increaseCount();
                                 entry.setState(next);
                                 nextStates.add(entry);
+                            } else {
+                                entryPool.recycle(entry);
                             }
                         } else {
                             entry.setState(next);
@@ -777,7 +784,12 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                             terminationStates = new ArrayList<RegexNFAStateEntry>();
                         }
                         terminationStates.add(entry);
+                    } else {
+                        entryPool.recycle(currentState);
                     }
+                } else {
+                    // the partial match terminated and the entry is referenced by the discarded current states only
+                    entryPool.recycle(currentState);
                 }
             }
         }
@@ -788,18 +800,20 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 InstrumentationHelper.get().qRegExStateStart(startState, factory.variableStreams, factory.multimatchStreamNumToVariable);
             }
 
-            EventBean[] eventsPerStream = new EventBean[factory.numEventsEventsPerStreamDefine];
+            // evaluate using the scratch array, an events-per-stream array is only allocated when there is a match
+            EventBean[] eventsPerStream = startStateEventsPerStream;
             int currentStateStreamNum = startState.getStreamNum();
             eventsPerStream[currentStateStreamNum] = theEvent;
+            boolean matches = startState.matches(eventsPerStream, agentInstanceContext);
+            eventsPerStream[currentStateStreamNum] = null;
 
-            if (startState.matches(eventsPerStream, agentInstanceContext)) {
+            if (matches) {
                 if (isRetainEventSet) {
                     this.windowMatchedEventset.add(theEvent);
                 }
                 List<RegexNFAState> nextStatesFromHere = startState.getNextStates();
 
                 // save state for each next state
-                boolean copy = nextStatesFromHere.size() > 1;
                 for (RegexNFAState next : nextStatesFromHere) {
 
                     if (factory.isTrackMaxStates && !skipTrackMaxState) {
@@ -811,34 +825,22 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         poolSvc.getStmtHandler().increaseCount();
                     }
 
-                    EventBean[] eventsForState = eventsPerStream;
-                    MultimatchState[] multimatches = factory.isCollectMultimatches ? new MultimatchState[factory.multimatchVariablesArray.length] : null;
-                    int[] greedyCounts = new int[factory.allStates.length];
-
-                    if (copy) {
-                        eventsForState = new EventBean[eventsForState.length];
-                        System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsForState.length);
-
-                        int[] greedyCountsCopy = new int[greedyCounts.length];
-                        System.arraycopy(greedyCounts, 0, greedyCountsCopy, 0, greedyCounts.length);
-                        greedyCounts = greedyCountsCopy;
+                    long time = 0;
+                    if (factory.matchRecognizeSpec.getInterval() != null) {
+                        time = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
                     }
 
+                    RegexNFAStateEntry entry = entryPool.allocate(currentEventSequenceNumber, time, startState, partitionKey);
                     if (factory.isCollectMultimatches && (startState.isMultiple())) {
-                        multimatches = addTag(startState.getStreamNum(), theEvent, multimatches);
-                        eventsForState[currentStateStreamNum] = null; // remove event from evaluation list
+                        entry.setOptionalMultiMatches(addTag(startState.getStreamNum(), theEvent, entry.getOptionalMultiMatches()));
+                    } else {
+                        entry.getEventsPerStream()[currentStateStreamNum] = theEvent;
                     }
 
                     if ((startState.isGreedy() != null) && (startState.isGreedy())) {
-                        greedyCounts[startState.getNodeNumFlat()]++;
-                    }
-
-                    long time = 0;
-                    if (factory.matchRecognizeSpec.getInterval() != null) {
-                        time = agentInstanceContext.getStatementContext().getSchedulingService().getTime();
+                        entry.getGreedycountPerState()[startState.getNodeNumFlat()]++;
                     }
 
-                    RegexNFAStateEntry entry = new RegexNFAStateEntry(currentEventSequenceNumber, time, startState, eventsForState, greedyCounts, multimatches, partitionKey);
                     if (next instanceof RegexNFAStateEnd) {
                         entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
                         endStates.add(entry);
@@ -874,19 +876,19 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         return factory.defineMultimatchEventBean;
     }
 
-    private MultimatchState[] deepCopy(MultimatchState[] multimatchStates) {
-        if (multimatchStates == null) {
-            return null;
-        }
-
-        MultimatchState[] copy = new MultimatchState[multimatchStates.length];
-        for (int i = 0; i < copy.length; i++) {
-            if (multimatchStates[i] != null) {
-                copy[i] = new MultimatchState(multimatchStates[i]);
+    private void copyMultimatches(MultimatchState[] from, MultimatchState[] to) {
+        for (int i = 0; i < to.length; i++) {
+            MultimatchState source = from == null ? null : from[i];
+            if (source == null || source.getCount() == 0) {
+                if (to[i] != null) {
+                    to[i].clear();
+                }
+            } else if (to[i] == null) {
+                to[i] = new MultimatchState(source);
+            } else {
+                to[i].copyFrom(source);
             }
         }
-
-        return copy;
     }
 
     private MultimatchState[] addTag(int streamNum, EventBean theEvent, MultimatchState[] multimatches) {
@@ -901,7 +903,7 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
             return multimatches;
         }
 
-        multimatches[index].add(theEvent);
+        state.add(theEvent);
         return multimatches;
     }
 
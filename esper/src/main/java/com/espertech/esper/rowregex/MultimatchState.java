@@ -13,10 +13,15 @@ package com.espertech.esper.rowregex;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.util.CollectionUtil;
 
+import java.util.Arrays;
+
 /**
  * State holder for matches, backed by an array, for fast copying and writing.
  */
 public class MultimatchState {
+    private static final int INITIAL_CAPACITY = 3;
+    private static final int MAX_RETAINED_CAPACITY = 16;
+
     private int count;
     private EventBean[] events;
 
@@ -31,7 +36,7 @@ public class MultimatchState {
      * @param theEvent first event to hold
      */
     public MultimatchState(EventBean theEvent) {
-        events = new EventBean[3];
+        events = new EventBean[INITIAL_CAPACITY];
         add(theEvent);
     }
 
@@ -41,13 +46,42 @@ public class MultimatchState {
      * @param state to copy
      */
     public MultimatchState(MultimatchState state) {
-        EventBean[] copyArray = new EventBean[state.getBuffer().length];
+        // size the copy for the contained events and one more, as a copy usually receives a further event
+        EventBean[] copyArray = new EventBean[state.getCount() + 1];
         System.arraycopy(state.getBuffer(), 0, copyArray, 0, state.getCount());
 
         count = state.getCount();
         events = copyArray;
     }
 
+    /**
+     * Replaces the events held with the events of the other state, reusing the buffer if it is large enough.
+     *
+     * @param state to copy
+     */
+    public void copyFrom(MultimatchState state) {
+        int copyCount = state.getCount();
+        if (events.length < copyCount) {
+            events = new EventBean[copyCount + 1];
+        } else if (count > copyCount) {
+            Arrays.fill(events, copyCount, count, null);
+        }
+        System.arraycopy(state.getBuffer(), 0, events, 0, copyCount);
+        count = copyCount;
+    }
+
+    /**
+     * Removes all events, keeping the buffer for reuse unless it has grown large.
+     */
+    public void clear() {
+        if (events.length > MAX_RETAINED_CAPACITY) {
+            events = new EventBean[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(events, 0, count, null);
+        }
+        count = 0;
+    }
+
     /**
      * Add an event.
      *
@@ -12,17 +12,19 @@ package com.espertech.esper.rowregex;
 
 import com.espertech.esper.client.EventBean;
 
+import java.util.Arrays;
+
 /**
  * State for a partial NFA match.
  */
 public class RegexNFAStateEntry {
-    private final int matchBeginEventSeqNo;
-    private final long matchBeginEventTime;
+    private int matchBeginEventSeqNo;
+    private long matchBeginEventTime;
     private RegexNFAState state;
     private final EventBean[] eventsPerStream;
     private final int[] greedycountPerState;
-    private final MultimatchState[] optionalMultiMatches;
-    private final Object partitionKey;
+    private MultimatchState[] optionalMultiMatches;
+    private Object partitionKey;
     private int matchEndEventSeqNo;
 
     /**
@@ -97,6 +99,15 @@ public class RegexNFAStateEntry {
         return optionalMultiMatches;
     }
 
+    /**
+     * Sets the multirow-variable matches, for use when the entry transitions to its next state.
+     *
+     * @param optionalMultiMatches matches
+     */
+    public void setOptionalMultiMatches(MultimatchState[] optionalMultiMatches) {
+        this.optionalMultiMatches = optionalMultiMatches;
+    }
+
     /**
      * Returns the count of greedy matches per state.
      *
@@ -133,6 +144,39 @@ public class RegexNFAStateEntry {
         return partitionKey;
     }
 
+    /**
+     * Prepares a recycled entry for a new partial match, the entry must have been cleared before.
+     *
+     * @param matchBeginEventSeqNo the event number where the match started
+     * @param matchBeginEventTime  the time the first match occured
+     * @param state                the current match state
+     * @param partitionKey         key of partition
+     */
+    public void reuse(int matchBeginEventSeqNo, long matchBeginEventTime, RegexNFAState state, Object partitionKey) {
+        this.matchBeginEventSeqNo = matchBeginEventSeqNo;
+        this.matchBeginEventTime = matchBeginEventTime;
+        this.state = state;
+        this.partitionKey = partitionKey;
+    }
+
+    /**
+     * Releases the events and the partition key held by the entry and resets its counts, retaining the arrays for reuse.
+     */
+    public void clear() {
+        Arrays.fill(eventsPerStream, null);
+        Arrays.fill(greedycountPerState, 0);
+        if (optionalMultiMatches != null) {
+            for (MultimatchState multimatch : optionalMultiMatches) {
+                if (multimatch != null) {
+                    multimatch.clear();
+                }
+            }
+        }
+        state = null;
+        partitionKey = null;
+        matchEndEventSeqNo = 0;
+    }
+
     public String toString() {
         return "Entry " + state.toString();
     }
@@ -0,0 +1,85 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.rowregex;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of state entries for a match-recognize view, for reuse of the entries of partial matches that terminated.
+ * <p>
+ * Only entries that are no longer referenced by any current state, end state or output row may be returned to the pool.
+ * All entries of a pool have arrays of the same size. The pool is not thread-safe and is used under the statement lock.
+ */
+public class RegexNFAStateEntryPool {
+    private final int numEventsPerStream;
+    private final int numStates;
+    private final int numMultimatches;
+    private final int maxPooled;
+    private final ArrayDeque<RegexNFAStateEntry> pooled = new ArrayDeque<RegexNFAStateEntry>();
+
+    /**
+     * Ctor.
+     *
+     * @param numEventsPerStream size of the events-per-stream array
+     * @param numStates          size of the greedy count array
+     * @param numMultimatches    size of the multimatch array, or -1 if not collecting multimatches
+     * @param maxPooled          maximum number of entries held for reuse
+     */
+    public RegexNFAStateEntryPool(int numEventsPerStream, int numStates, int numMultimatches, int maxPooled) {
+        this.numEventsPerStream = numEventsPerStream;
+        this.numStates = numStates;
+        this.numMultimatches = numMultimatches;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Returns an entry with no events, zero greedy counts and empty multimatches, reusing a pooled entry if available.
+     *
+     * @param matchBeginEventSeqNo the event number where the match started
+     * @param matchBeginEventTime  the time the first match occured
+     * @param state                the current match state
+     * @param partitionKey         key of partition
+     * @return entry
+     */
+    public RegexNFAStateEntry allocate(int matchBeginEventSeqNo, long matchBeginEventTime, RegexNFAState state, Object partitionKey) {
+        RegexNFAStateEntry entry = pooled.pollLast();
+        if (entry != null) {
+            entry.reuse(matchBeginEventSeqNo, matchBeginEventTime, state, partitionKey);
+            return entry;
+        }
+        MultimatchState[] multimatches = numMultimatches < 0 ? null : new MultimatchState[numMultimatches];
+        return new RegexNFAStateEntry(matchBeginEventSeqNo, matchBeginEventTime, state, new EventBean[numEventsPerStream], new int[numStates], multimatches, partitionKey);
+    }
+
+    /**
+     * Returns an entry of a terminated partial match to the pool, or leaves it to garbage collection when the pool is full.
+     *
+     * @param entry to recycle
+     */
+    public void recycle(RegexNFAStateEntry entry) {
+        if (pooled.size() >= maxPooled) {
+            return;
+        }
+        entry.clear();
+        pooled.addLast(entry);
+    }
+
+    /**
+     * Returns the number of entries held for reuse.
+     *
+     * @return count
+     */
+    public int getNumPooled() {
+        return pooled.size();
+    }
+}
@@ -11,7 +11,6 @@
 package com.espertech.esper.rowregex;
 
 import com.espertech.esper.client.EventBean;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
@@ -206,20 +205,20 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
             }
         }
 
+        ExprEvaluatorContext exprEvaluatorContext = meta.getExprEvaluatorContext();
+        if (!InstrumentationHelper.ENABLED) {
+            return meta.getPartitionKeyEvaluator().evaluate(eventsPerStream, true, exprEvaluatorContext);
+        }
+
         Object[] keys = new Object[partitionExpressions.length];
         int count = 0;
-        ExprEvaluatorContext exprEvaluatorContext = meta.getExprEvaluatorContext();
         for (ExprEvaluator node : partitionExpressions) {
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().qExprValue(meta.getPartitionExpressionNodes()[count], eventsPerStream);
-            }
+            InstrumentationHelper.get().qExprValue(meta.getPartitionExpressionNodes()[count], eventsPerStream);
             keys[count] = node.evaluate(eventsPerStream, true, exprEvaluatorContext);
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().aExprValue(keys[count]);
-            }
+            InstrumentationHelper.get().aExprValue(keys[count]);
             count++;
         }
-        return new MultiKeyUntyped(keys);
+        return meta.makePartitionKey(keys);
     }
 
     public void destroy() {
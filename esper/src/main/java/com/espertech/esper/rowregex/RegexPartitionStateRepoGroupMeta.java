@@ -11,15 +11,21 @@
 package com.espertech.esper.rowregex;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKeyObject;
+import com.espertech.esper.collection.MultiKeyPrimitiveFactory;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtilMultiKeyObjectEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNodeUtilMultiKeyPrimitiveEvaluator;
 
 public class RegexPartitionStateRepoGroupMeta {
     private final boolean hasInterval;
     private final ExprNode[] partitionExpressionNodes;
     private final ExprEvaluator[] partitionExpressions;
     private final ExprEvaluatorContext exprEvaluatorContext;
+    private final ExprEvaluator partitionKeyEvaluator;
+    private final MultiKeyPrimitiveFactory partitionKeyFactory;
     private final EventBean[] eventsPerStream = new EventBean[1];
 
     public RegexPartitionStateRepoGroupMeta(boolean hasInterval, ExprNode[] partitionExpressionNodes, ExprEvaluator[] partitionExpressions, ExprEvaluatorContext exprEvaluatorContext) {
@@ -27,6 +33,8 @@ public class RegexPartitionStateRepoGroupMeta {
         this.partitionExpressionNodes = partitionExpressionNodes;
         this.partitionExpressions = partitionExpressions;
         this.exprEvaluatorContext = exprEvaluatorContext;
+        this.partitionKeyEvaluator = ExprNodeUtilMultiKeyObjectEvaluator.getEvaluator(partitionExpressionNodes, partitionExpressions);
+        this.partitionKeyFactory = ExprNodeUtilMultiKeyPrimitiveEvaluator.getFactory(partitionExpressionNodes);
     }
 
     public boolean isHasInterval() {
@@ -48,4 +56,27 @@ public class RegexPartitionStateRepoGroupMeta {
     public EventBean[] getEventsPerStream() {
         return eventsPerStream;
     }
+
+    /**
+     * Returns the evaluator of the composite partition key, or null for a single partition expression.
+     *
+     * @return composite key evaluator
+     */
+    public ExprEvaluator getPartitionKeyEvaluator() {
+        return partitionKeyEvaluator;
+    }
+
+    /**
+     * Returns the composite partition key for partition expression values, of the same type as
+     * the key returned by the composite key evaluator.
+     *
+     * @param values partition expression values
+     * @return key
+     */
+    public Object makePartitionKey(Object[] values) {
+        if (partitionKeyFactory != null) {
+            return partitionKeyFactory.makeKey(values);
+        }
+        return MultiKeyObject.make(values);
+    }
 }
\ No newline at end of file
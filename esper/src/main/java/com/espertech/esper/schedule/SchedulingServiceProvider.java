@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.schedule;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.timer.TimeSourceService;
 
 /**
@@ -19,10 +20,14 @@ public final class SchedulingServiceProvider {
     /**
      * Creates an implementation of the SchedulingService interface.
      *
-     * @param timeSourceService time source provider
+     * @param schedulingServiceProfile config
+     * @param timeSourceService        time source provider
      * @return implementation
      */
-    public static SchedulingServiceSPI newService(TimeSourceService timeSourceService) {
+    public static SchedulingServiceSPI newService(ConfigurationEngineDefaults.SchedulingServiceProfile schedulingServiceProfile, TimeSourceService timeSourceService) {
+        if (schedulingServiceProfile == ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL) {
+            return new SchedulingServiceTimingWheelImpl(timeSourceService);
+        }
         return new SchedulingServiceImpl(timeSourceService);
     }
 }
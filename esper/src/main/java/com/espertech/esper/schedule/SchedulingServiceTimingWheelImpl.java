@@ -0,0 +1,588 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel.
+ * <p>
+ * The wheel has levels of 64 buckets each, a bucket of level n covering a time range of 64^n. A schedule
+ * is kept at the level of the highest 6-bit group in which its trigger time differs from the wheel cursor,
+ * and is cascaded to lower levels as the cursor advances. Bucket occupancy is kept as one bitmap per level
+ * so that the cursor jumps over empty time ranges. Callbacks triggering at the same time are returned
+ * ordered by slot, same as {@link SchedulingServiceImpl}.
+ * <p>
+ * Schedules are kept in parallel arrays that form doubly-linked bucket lists, and are indexed by handle
+ * in an open-addressing table. Adding and removing a handle therefore take constant time and do not allocate
+ * once the arrays have grown to the number of outstanding schedules.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheelImpl implements SchedulingServiceSPI {
+    private final static int BITS = 6;
+    private final static int WHEEL_SIZE = 1 << BITS;
+    private final static int MASK = WHEEL_SIZE - 1;
+    private final static int LEVELS = (64 + BITS - 1) / BITS;
+    private final static int LIST_PASTDUE = LEVELS * WHEEL_SIZE;
+    private final static int NONE = -1;
+    private final static int INITIAL_CAPACITY = 64;
+
+    // Schedule entries, each entry being an index into the arrays
+    private long[] entryTime;
+    private long[] entrySlot;
+    private ScheduleHandle[] entryHandle;
+    private int[] entryNext;
+    private int[] entryPrev;
+    private int[] entryList;
+    private int freeHead;
+    private int size;
+
+    // Heads of bucket lists, one per bucket per level plus the list of schedules that are past due
+    private final int[] listHead;
+    private final long[] occupied;
+
+    // Handle-to-entry index using linear probing
+    private ScheduleHandle[] indexKeys;
+    private int[] indexValues;
+
+    // Buffers for ordering triggered schedules
+    private int[] sortBuffer;
+    private int[] sortScratch;
+
+    // The earliest time not evaluated yet
+    private long cursor;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     *
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheelImpl(TimeSourceService timeSourceService) {
+        this.listHead = new int[LIST_PASTDUE + 1];
+        this.occupied = new long[LEVELS];
+        allocate();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.cursor = currentTime + 1;
+    }
+
+    public synchronized void destroy() {
+        log.debug("Destroying scheduling service");
+        allocate();
+    }
+
+    public long getTime() {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime) {
+        this.currentTime = currentTime;
+        if (currentTime < cursor - 1) {
+            // time moved backwards, re-anchor the wheel
+            int[] entries = collectEntries();
+            Arrays.fill(listHead, NONE);
+            Arrays.fill(occupied, 0);
+            cursor = currentTime + 1;
+            for (int entry : entries) {
+                place(entry);
+            }
+        }
+    }
+
+    public synchronized final void add(long afterTime, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleAdd(currentTime, afterTime, handle, slot);
+        }
+        int existing = indexRemove(handle);
+        if (existing != NONE) {
+            unlink(existing);
+            freeEntry(existing);
+        }
+
+        int entry = allocateEntry();
+        entryTime[entry] = currentTime + afterTime;
+        entrySlot[entry] = slot;
+        entryHandle[entry] = handle;
+        place(entry);
+        indexPut(handle, entry);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleAdd();
+        }
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleRemove(handle, slot);
+        }
+        // If it already has been removed then that's fine;
+        // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+        int entry = indexRemove(handle);
+        if (entry != NONE) {
+            unlink(entry);
+            freeEntry(entry);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleRemove();
+        }
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleEval(currentTime);
+        }
+        long time = currentTime;
+        if (listHead[LIST_PASTDUE] != NONE) {
+            triggerPastDue(time, handles);
+        }
+
+        while (cursor <= time) {
+            // trigger the next occupied bucket of the current level-zero range, if any
+            long bits = occupied[0] & (-1L << (int) (cursor & MASK));
+            if (bits != 0) {
+                int bucket = Long.numberOfTrailingZeros(bits);
+                long triggerTime = (cursor & ~((long) MASK)) | bucket;
+                if (triggerTime > time) {
+                    advance(time + 1);
+                    break;
+                }
+                triggerBucket(bucket, handles);
+                advance(triggerTime + 1);
+                continue;
+            }
+
+            // the lowest occupied level holds the earliest schedules, jump to the start of its first bucket
+            int level = 1;
+            while (level < LEVELS && occupied[level] == 0) {
+                level++;
+            }
+            if (level == LEVELS) {
+                advance(time + 1);
+                break;
+            }
+            int shift = level * BITS;
+            int bucket = Long.numberOfTrailingZeros(occupied[level]);
+            long rangeStart = clearBelow(cursor, shift + BITS) | ((long) bucket << shift);
+            if (rangeStart > time) {
+                advance(time + 1);
+                break;
+            }
+            advance(rangeStart);
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleEval(handles);
+        }
+    }
+
+    public synchronized ScheduleSet take(Set<Integer> statementIds) {
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>();
+        long currentTime = getTime();
+        for (int entry : collectEntries()) {
+            if (statementIds.contains(entryHandle[entry].getStatementId())) {
+                long relative = entryTime[entry] - currentTime;
+                list.add(new ScheduleSetEntry(relative, entrySlot[entry], entryHandle[entry]));
+            }
+        }
+
+        for (ScheduleSetEntry entry : list) {
+            remove(entry.getHandle(), entry.getScheduleSlot());
+        }
+
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet) {
+        for (ScheduleSetEntry entry : scheduleSet.getList()) {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount() {
+        int[] entries = collectEntries();
+        if (entries.length == 0) {
+            return 0;
+        }
+        long[] times = new long[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            times[i] = entryTime[entries[i]];
+        }
+        Arrays.sort(times);
+        int count = 1;
+        for (int i = 1; i < times.length; i++) {
+            if (times[i] != times[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate() {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate() {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle() {
+        if (size == 0) {
+            return null;
+        }
+        long furthest = Long.MIN_VALUE;
+        for (int entry : collectEntries()) {
+            furthest = Math.max(furthest, entryTime[entry]);
+        }
+        return furthest;
+    }
+
+    public synchronized int getScheduleHandleCount() {
+        return size;
+    }
+
+    public synchronized boolean isScheduled(ScheduleHandle handle) {
+        return indexFind(handle) != NONE;
+    }
+
+    @Override
+    public synchronized Long getNearestTimeHandle() {
+        if (size == 0) {
+            return null;
+        }
+        long nearest = Long.MAX_VALUE;
+        for (int entry = listHead[LIST_PASTDUE]; entry != NONE; entry = entryNext[entry]) {
+            nearest = Math.min(nearest, entryTime[entry]);
+        }
+        if (occupied[0] != 0) {
+            long time = (cursor & ~((long) MASK)) | Long.numberOfTrailingZeros(occupied[0]);
+            return Math.min(nearest, time);
+        }
+        for (int level = 1; level < LEVELS; level++) {
+            if (occupied[level] != 0) {
+                int list = level * WHEEL_SIZE + Long.numberOfTrailingZeros(occupied[level]);
+                for (int entry = listHead[list]; entry != NONE; entry = entryNext[entry]) {
+                    nearest = Math.min(nearest, entryTime[entry]);
+                }
+                break;
+            }
+        }
+        return nearest;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        ScheduleVisit visit = new ScheduleVisit();
+        for (int entry : collectEntries()) {
+            visit.setTimestamp(entryTime[entry]);
+            visit.setStatementId(entryHandle[entry].getStatementId());
+            visit.setAgentInstanceId(entryHandle[entry].getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    private void advance(long newCursor) {
+        long oldCursor = cursor;
+        cursor = newCursor;
+        // moving into a new bucket of a level requires cascading that bucket's schedules to lower levels
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = level * BITS;
+            if ((oldCursor >>> shift) != (newCursor >>> shift)) {
+                int list = level * WHEEL_SIZE + ((int) (newCursor >>> shift) & MASK);
+                int entry = listHead[list];
+                if (entry == NONE) {
+                    continue;
+                }
+                listHead[list] = NONE;
+                occupied[level] &= ~(1L << (list & MASK));
+                while (entry != NONE) {
+                    int next = entryNext[entry];
+                    place(entry);
+                    entry = next;
+                }
+            }
+        }
+    }
+
+    private void place(int entry) {
+        long time = entryTime[entry];
+        int list;
+        if (time < cursor) {
+            list = LIST_PASTDUE;
+        } else {
+            long diff = time ^ cursor;
+            int level = diff == 0 ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / BITS;
+            int bucket = (int) (time >>> (level * BITS)) & MASK;
+            list = level * WHEEL_SIZE + bucket;
+            occupied[level] |= 1L << bucket;
+        }
+        int head = listHead[list];
+        entryList[entry] = list;
+        entryPrev[entry] = NONE;
+        entryNext[entry] = head;
+        if (head != NONE) {
+            entryPrev[head] = entry;
+        }
+        listHead[list] = entry;
+    }
+
+    private void unlink(int entry) {
+        int list = entryList[entry];
+        int prev = entryPrev[entry];
+        int next = entryNext[entry];
+        if (prev == NONE) {
+            listHead[list] = next;
+            if (next == NONE && list != LIST_PASTDUE) {
+                occupied[list / WHEEL_SIZE] &= ~(1L << (list & MASK));
+            }
+        } else {
+            entryNext[prev] = next;
+        }
+        if (next != NONE) {
+            entryPrev[next] = prev;
+        }
+    }
+
+    private void triggerBucket(int bucket, Collection<ScheduleHandle> handles) {
+        int count = 0;
+        for (int entry = listHead[bucket]; entry != NONE; entry = entryNext[entry]) {
+            sortBuffer[count++] = entry;
+        }
+        listHead[bucket] = NONE;
+        occupied[0] &= ~(1L << bucket);
+        trigger(count, handles);
+    }
+
+    private void triggerPastDue(long time, Collection<ScheduleHandle> handles) {
+        int count = 0;
+        int entry = listHead[LIST_PASTDUE];
+        while (entry != NONE) {
+            int next = entryNext[entry];
+            if (entryTime[entry] <= time) {
+                unlink(entry);
+                sortBuffer[count++] = entry;
+            }
+            entry = next;
+        }
+        trigger(count, handles);
+    }
+
+    private void trigger(int count, Collection<ScheduleHandle> handles) {
+        if (count > 1) {
+            sort(0, count);
+        }
+        for (int i = 0; i < count; i++) {
+            int entry = sortBuffer[i];
+            ScheduleHandle handle = entryHandle[entry];
+            handles.add(handle);
+            indexRemove(handle);
+            freeEntry(entry);
+        }
+    }
+
+    // merge sort of the sort buffer by time and slot
+    private void sort(int from, int to) {
+        if (to - from <= 8) {
+            for (int i = from + 1; i < to; i++) {
+                int entry = sortBuffer[i];
+                int j = i - 1;
+                while (j >= from && compare(sortBuffer[j], entry) > 0) {
+                    sortBuffer[j + 1] = sortBuffer[j];
+                    j--;
+                }
+                sortBuffer[j + 1] = entry;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(from, mid);
+        sort(mid, to);
+        if (compare(sortBuffer[mid - 1], sortBuffer[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(sortBuffer, from, sortScratch, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && compare(sortScratch[left], sortScratch[right]) <= 0)) {
+                sortBuffer[i] = sortScratch[left++];
+            } else {
+                sortBuffer[i] = sortScratch[right++];
+            }
+        }
+    }
+
+    private int compare(int entryOne, int entryTwo) {
+        int result = Long.compare(entryTime[entryOne], entryTime[entryTwo]);
+        return result != 0 ? result : Long.compare(entrySlot[entryOne], entrySlot[entryTwo]);
+    }
+
+    private int[] collectEntries() {
+        int[] entries = new int[size];
+        int count = 0;
+        for (int list = 0; list < listHead.length; list++) {
+            for (int entry = listHead[list]; entry != NONE; entry = entryNext[entry]) {
+                entries[count++] = entry;
+            }
+        }
+        return entries;
+    }
+
+    private static long clearBelow(long value, int bit) {
+        return bit >= 64 ? 0 : (value >>> bit) << bit;
+    }
+
+    private void allocate() {
+        entryTime = new long[INITIAL_CAPACITY];
+        entrySlot = new long[INITIAL_CAPACITY];
+        entryHandle = new ScheduleHandle[INITIAL_CAPACITY];
+        entryNext = new int[INITIAL_CAPACITY];
+        entryPrev = new int[INITIAL_CAPACITY];
+        entryList = new int[INITIAL_CAPACITY];
+        sortBuffer = new int[INITIAL_CAPACITY];
+        sortScratch = new int[INITIAL_CAPACITY];
+        indexKeys = new ScheduleHandle[INITIAL_CAPACITY * 2];
+        indexValues = new int[INITIAL_CAPACITY * 2];
+        linkFree(0, INITIAL_CAPACITY);
+        size = 0;
+        Arrays.fill(listHead, NONE);
+        Arrays.fill(occupied, 0);
+    }
+
+    private void linkFree(int from, int to) {
+        for (int i = from; i < to - 1; i++) {
+            entryNext[i] = i + 1;
+        }
+        entryNext[to - 1] = NONE;
+        freeHead = from;
+    }
+
+    private int allocateEntry() {
+        if (freeHead == NONE) {
+            int capacity = entryTime.length;
+            int newCapacity = capacity * 2;
+            entryTime = Arrays.copyOf(entryTime, newCapacity);
+            entrySlot = Arrays.copyOf(entrySlot, newCapacity);
+            entryHandle = Arrays.copyOf(entryHandle, newCapacity);
+            entryNext = Arrays.copyOf(entryNext, newCapacity);
+            entryPrev = Arrays.copyOf(entryPrev, newCapacity);
+            entryList = Arrays.copyOf(entryList, newCapacity);
+            sortBuffer = new int[newCapacity];
+            sortScratch = new int[newCapacity];
+            linkFree(capacity, newCapacity);
+            rehash(newCapacity * 2);
+        }
+        int entry = freeHead;
+        freeHead = entryNext[entry];
+        size++;
+        return entry;
+    }
+
+    private void freeEntry(int entry) {
+        entryHandle[entry] = null;
+        entryNext[entry] = freeHead;
+        freeHead = entry;
+        size--;
+    }
+
+    private int indexHome(ScheduleHandle handle) {
+        int hash = handle.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (indexKeys.length - 1);
+    }
+
+    private int indexFind(ScheduleHandle handle) {
+        int mask = indexKeys.length - 1;
+        for (int pos = indexHome(handle); indexKeys[pos] != null; pos = (pos + 1) & mask) {
+            if (indexKeys[pos] == handle || indexKeys[pos].equals(handle)) {
+                return pos;
+            }
+        }
+        return NONE;
+    }
+
+    private void indexPut(ScheduleHandle handle, int entry) {
+        int mask = indexKeys.length - 1;
+        int pos = indexHome(handle);
+        while (indexKeys[pos] != null) {
+            pos = (pos + 1) & mask;
+        }
+        indexKeys[pos] = handle;
+        indexValues[pos] = entry;
+    }
+
+    private int indexRemove(ScheduleHandle handle) {
+        int pos = indexFind(handle);
+        if (pos == NONE) {
+            return NONE;
+        }
+        int entry = indexValues[pos];
+
+        // shift back following keys of the same probe sequence
+        int mask = indexKeys.length - 1;
+        int next = pos;
+        while (true) {
+            next = (next + 1) & mask;
+            ScheduleHandle key = indexKeys[next];
+            if (key == null) {
+                break;
+            }
+            int home = indexHome(key);
+            boolean movable = pos <= next ? (home <= pos || home > next) : (home <= pos && home > next);
+            if (movable) {
+                indexKeys[pos] = key;
+                indexValues[pos] = indexValues[next];
+                pos = next;
+            }
+        }
+        indexKeys[pos] = null;
+        return entry;
+    }
+
+    private void rehash(int capacity) {
+        ScheduleHandle[] oldKeys = indexKeys;
+        int[] oldValues = indexValues;
+        indexKeys = new ScheduleHandle[capacity];
+        indexValues = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                indexPut(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceTimingWheelImpl.class);
+}
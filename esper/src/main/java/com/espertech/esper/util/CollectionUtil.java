@@ -86,6 +86,20 @@ public class CollectionUtil {
         }
     }
 
+    /**
+     * Returns the type of a single sort criteria when it is a primitive type and thus provides non-null sort keys.
+     *
+     * @param sortCriteria sort criteria expressions
+     * @return primitive type or null if there are multiple criteria or the type is not primitive
+     */
+    public static Class getSortKeyPrimitiveType(ExprNode[] sortCriteria) {
+        if (sortCriteria.length != 1) {
+            return null;
+        }
+        Class type = sortCriteria[0].getForge().getEvaluationType();
+        return type != null && type.isPrimitive() ? type : null;
+    }
+
     public static String toString(Collection<Integer> stack, String delimiterChars) {
         if (stack.isEmpty()) {
             return "";
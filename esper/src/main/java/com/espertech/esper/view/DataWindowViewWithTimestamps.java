@@ -0,0 +1,35 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.view;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * A data window view that retains events according to their arrival time and that provides and accepts the arrival
+ * time of each event, so that an engine state snapshot can restore the events with their original arrival time.
+ */
+public interface DataWindowViewWithTimestamps extends DataWindowView {
+    /**
+     * Returns the arrival time of each event in the window, in the order of the view iterator.
+     *
+     * @return arrival times
+     */
+    public long[] getTimestamps();
+
+    /**
+     * Adds events with their arrival time to an empty window, schedules the expiry of the oldest event relative
+     * to its arrival time and posts the events as new data to child views.
+     *
+     * @param events     events to add, in ascending arrival time
+     * @param timestamps arrival time of each event
+     */
+    public void restore(EventBean[] events, long[] timestamps);
+}
@@ -10,13 +10,12 @@
  */
 package com.espertech.esper.view.ext;
 
+import com.espertech.esper.collection.BPlusTreeEventMap;
 import com.espertech.esper.view.window.RandomAccessByIndex;
 
-import java.util.TreeMap;
-
 /**
  * Provides random access into a rank-window's data.
  */
 public interface IStreamSortRankRandomAccess extends RandomAccessByIndex {
-    void refresh(TreeMap<Object, Object> sortedEvents, int currentSize, int maxSize);
+    void refresh(BPlusTreeEventMap sortedEvents, int currentSize, int maxSize);
 }
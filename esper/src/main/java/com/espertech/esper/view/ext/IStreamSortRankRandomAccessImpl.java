@@ -13,21 +13,22 @@ package com.espertech.esper.view.ext;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.ArrayMaxEventCollectionRO;
 import com.espertech.esper.collection.ArrayMaxEventIterator;
+import com.espertech.esper.collection.BPlusTreeEventMap;
 import com.espertech.esper.view.window.RandomAccessByIndex;
 import com.espertech.esper.view.window.RandomAccessByIndexObserver;
 
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.TreeMap;
 
 /**
  * Provides random access into a rank-window's data.
+ * Access by index uses the positional lookup of the sorted window's tree, while iteration fills a cache of the window contents.
  */
 public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, IStreamSortRankRandomAccess {
     private final RandomAccessByIndexObserver updateObserver;
 
-    private TreeMap<Object, Object> sortedEvents;
+    private BPlusTreeEventMap sortedEvents;
     private int currentSize;
 
     private Iterator<Object> iterator;
@@ -50,7 +51,7 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
      * @param currentSize  is the current size of the window
      * @param maxSize      is the maximum size of the window
      */
-    public void refresh(TreeMap<Object, Object> sortedEvents, int currentSize, int maxSize) {
+    public void refresh(BPlusTreeEventMap sortedEvents, int currentSize, int maxSize) {
         updateObserver.updated(this);
         this.sortedEvents = sortedEvents;
         this.currentSize = currentSize;
@@ -63,10 +64,6 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
     }
 
     public EventBean getNewData(int index) {
-        if (iterator == null) {
-            iterator = sortedEvents.values().iterator();
-        }
-
         // if asking for more then the sorted window currently holds, return no data
         if (index >= currentSize) {
             return null;
@@ -77,38 +74,8 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
             return cache[index];
         }
 
-        // Load more into cache
-        while (true) {
-            if (cacheFilledTo == currentSize) {
-                break;
-            }
-            if (!iterator.hasNext()) {
-                break;
-            }
-            Object entry = iterator.next();
-            if (entry instanceof List) {
-                List<EventBean> events = (List<EventBean>) entry;
-                for (EventBean theEvent : events) {
-                    cache[cacheFilledTo] = theEvent;
-                    cacheFilledTo++;
-                }
-            } else {
-                EventBean theEvent = (EventBean) entry;
-                cache[cacheFilledTo] = theEvent;
-                cacheFilledTo++;
-            }
-
-            if (cacheFilledTo > index) {
-                break;
-            }
-        }
-
-        // If we have it in cache, serve from cache
-        if (index <= cacheFilledTo) {
-            return cache[index];
-        }
-
-        return null;
+        // positional lookup in the tree
+        return sortedEvents.getEvent(index);
     }
 
     public EventBean getOldData(int index) {
@@ -116,10 +83,8 @@ public class IStreamSortRankRandomAccessImpl implements RandomAccessByIndex, ISt
     }
 
     public EventBean getNewDataTail(int index) {
-        initCache();
-
-        if ((index < cacheFilledTo) && (index >= 0)) {
-            return cache[cacheFilledTo - index - 1];
+        if ((index < currentSize) && (index >= 0)) {
+            return sortedEvents.getEvent(currentSize - index - 1);
         }
 
         return null;
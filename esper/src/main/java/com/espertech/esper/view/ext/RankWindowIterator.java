@@ -12,20 +12,20 @@ package com.espertech.esper.view.ext;
 
 import com.espertech.esper.collection.MixedEventBeanAndCollectionIteratorBase;
 
-import java.util.SortedMap;
+import java.util.Map;
 
 /**
  * Iterator for use by {@link com.espertech.esper.view.ext.RankWindowView}.
  */
 public final class RankWindowIterator extends MixedEventBeanAndCollectionIteratorBase {
-    private final SortedMap<Object, Object> window;
+    private final Map<Object, Object> window;
 
     /**
      * Ctor.
      *
      * @param window - sorted map with events
      */
-    public RankWindowIterator(SortedMap<Object, Object> window) {
+    public RankWindowIterator(Map<Object, Object> window) {
         super(window.keySet().iterator());
         this.window = window;
         init();
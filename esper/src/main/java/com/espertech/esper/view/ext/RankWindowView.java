@@ -12,13 +12,13 @@ package com.espertech.esper.view.ext;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.BPlusTreeEventMap;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
-import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.view.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,7 +43,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
     private final IStreamSortRankRandomAccess optionalRankedRandomAccess;
     protected final AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
 
-    protected TreeMap<Object, Object> sortedEvents;   // key is computed sort-key, value is either List<EventBean> or EventBean
+    protected BPlusTreeEventMap sortedEvents;   // key is computed sort-key, value is either List<EventBean> or EventBean
     protected Map<Object, Object> uniqueKeySortKeys;  // key is computed unique-key, value is computed sort-key
     protected int numberOfEvents;
 
@@ -56,7 +56,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
         this.optionalRankedRandomAccess = optionalRankedRandomAccess;
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
 
-        sortedEvents = new TreeMap<>(rankWindowViewFactory.comparator);
+        sortedEvents = new BPlusTreeEventMap(rankWindowViewFactory.comparator, rankWindowViewFactory.sortKeyType, rankWindowViewFactory.isDescendingValues[0]);
         uniqueKeySortKeys = new HashMap<>();
     }
 
@@ -145,6 +145,8 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                     }
                     if (existingList.isEmpty()) {
                         sortedEvents.remove(lastKey);
+                    } else {
+                        sortedEvents.put(lastKey, existingList);
                     }
                 } else {
                     EventBean lastSortedEvent = (EventBean) existing;
@@ -206,14 +208,14 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                 // this new event is higher in sort key then the last entry so we are interested
                 uniqueKeySortKeys.put(uniqueKey, newSortKey);
                 numberOfEvents++;
-                CollectionUtil.addEventByKeyLazyListMapBack(newSortKey, eventBean, sortedEvents);
+                sortedEvents.addEventBack(newSortKey, eventBean);
                 internalHandleAddedKey(newSortKey, eventBean);
             }
         } else {
             // not yet filled, need to add
             uniqueKeySortKeys.put(uniqueKey, newSortKey);
             numberOfEvents++;
-            CollectionUtil.addEventByKeyLazyListMapBack(newSortKey, eventBean, sortedEvents);
+            sortedEvents.addEventBack(newSortKey, eventBean);
             internalHandleAddedKey(newSortKey, eventBean);
         }
     }
@@ -237,6 +239,8 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
 
                 if (existingList.isEmpty()) {
                     sortedEvents.remove(sortKey);
+                } else {
+                    sortedEvents.put(sortKey, existingList);
                 }
             } else {
                 removedOldEvent = (EventBean) existing;
@@ -263,6 +267,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                     }
                 }
                 existingList.add(newData);  // add to back as this is now the newest event
+                sortedEvents.put(sortKey, existingList);
             } else {
                 replaced = (EventBean) existing;
                 sortedEvents.put(sortKey, newData);
@@ -60,6 +60,7 @@ public class RankWindowViewFactory implements DataWindowViewFactory, DataWindowV
     protected boolean useCollatorSort;
 
     protected Comparator<Object> comparator;
+    protected Class sortKeyType;
 
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> viewParams) throws ViewParameterException {
         this.viewParameters = viewParams;
@@ -132,6 +133,7 @@ public class RankWindowViewFactory implements DataWindowViewFactory, DataWindowV
         }
 
         comparator = CollectionUtil.getComparator(sortCriteriaExpressions, sortEvals, useCollatorSort, isDescendingValues);
+        sortKeyType = CollectionUtil.getSortKeyPrimitiveType(sortCriteriaExpressions);
     }
 
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext) {
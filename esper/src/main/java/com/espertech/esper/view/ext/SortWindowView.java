@@ -12,19 +12,18 @@ package com.espertech.esper.view.ext;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.BPlusTreeEventMap;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
-import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.view.*;
 
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.TreeMap;
 
 /**
  * Window sorting by values in the specified field extending a specified number of elements
@@ -47,7 +46,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
     private final IStreamSortRankRandomAccess optionalSortedRandomAccess;
     protected final AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
 
-    protected TreeMap<Object, Object> sortedEvents;
+    protected BPlusTreeEventMap sortedEvents;
     protected int eventCount;
 
     public SortWindowView(SortWindowViewFactory sortWindowViewFactory,
@@ -59,7 +58,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
         this.optionalSortedRandomAccess = optionalSortedRandomAccess;
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
 
-        sortedEvents = new TreeMap<Object, Object>(sortWindowViewFactory.comparator);
+        sortedEvents = new BPlusTreeEventMap(sortWindowViewFactory.comparator, sortWindowViewFactory.sortKeyType, sortWindowViewFactory.isDescendingValues[0]);
     }
 
     /**
@@ -110,7 +109,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
             for (int i = 0; i < oldData.length; i++) {
                 EventBean oldDataItem = oldData[i];
                 Object sortValues = getSortValues(oldDataItem);
-                boolean result = CollectionUtil.removeEventByKeyLazyListMap(sortValues, oldDataItem, sortedEvents);
+                boolean result = sortedEvents.removeEvent(sortValues, oldDataItem);
                 if (result) {
                     eventCount--;
                     if (removedEvents == null) {
@@ -127,7 +126,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
             for (int i = 0; i < newData.length; i++) {
                 EventBean newDataItem = newData[i];
                 Object sortValues = getSortValues(newDataItem);
-                CollectionUtil.addEventByKeyLazyListMapFront(sortValues, newDataItem, sortedEvents);
+                sortedEvents.addEventFront(sortValues, newDataItem);
                 eventCount++;
                 internalHandleAdd(sortValues, newDataItem);
             }
@@ -146,6 +145,8 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
                     eventCount--;
                     if (events.isEmpty()) {
                         sortedEvents.remove(lastKey);
+                    } else {
+                        sortedEvents.put(lastKey, events);
                     }
                     if (removedEvents == null) {
                         removedEvents = new OneEventCollection();
@@ -51,6 +51,7 @@ public class SortWindowViewFactory implements DataWindowViewFactory, DataWindowV
     protected ExprEvaluator sizeEvaluator;
 
     protected Comparator<Object> comparator;
+    protected Class sortKeyType;
 
     private EventType eventType;
     private boolean useCollatorSort = false;
@@ -92,6 +93,7 @@ public class SortWindowViewFactory implements DataWindowViewFactory, DataWindowV
         }
 
         comparator = CollectionUtil.getComparator(sortCriteriaExpressions, sortCriteriaEvaluators, useCollatorSort, isDescendingValues);
+        sortKeyType = CollectionUtil.getSortKeyPrimitiveType(sortCriteriaExpressions);
     }
 
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext) {
@@ -12,6 +12,7 @@ package com.espertech.esper.view.ext;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.BPlusTreeEventMap;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
 import com.espertech.esper.core.service.EngineLevelExtensionServicesContext;
@@ -29,7 +30,6 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.TreeMap;
 
 /**
  * Window retaining timestamped events up to a given number of seconds such that
@@ -56,7 +56,7 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
     protected final EPStatementHandleCallback handle;
 
     private EventBean[] eventsPerStream = new EventBean[1];
-    protected TreeMap<Object, Object> sortedEvents;
+    protected BPlusTreeEventMap sortedEvents;
     protected boolean isCallbackScheduled;
     protected int eventCount;
 
@@ -74,7 +74,7 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
         this.optionalSortedRandomAccess = optionalSortedRandomAccess;
         this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
 
-        sortedEvents = new TreeMap<Object, Object>();
+        sortedEvents = new BPlusTreeEventMap(null, Long.class, false);
 
         ScheduleHandleCallback callback = new ScheduleHandleCallback() {
             public void scheduledTrigger(EngineLevelExtensionServicesContext extensionServicesContext) {
@@ -125,7 +125,7 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
             for (int i = 0; i < oldData.length; i++) {
                 EventBean oldDataItem = oldData[i];
                 Object sortValues = getTimestamp(oldDataItem);
-                boolean result = CollectionUtil.removeEventByKeyLazyListMap(sortValues, oldDataItem, sortedEvents);
+                boolean result = sortedEvents.removeEvent(sortValues, oldDataItem);
                 if (result) {
                     eventCount--;
                     if (postOldEventsArray == null) {
@@ -168,7 +168,7 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
                     }
 
                     // add to list
-                    CollectionUtil.addEventByKeyLazyListMapBack(timestamp, newEvent, sortedEvents);
+                    sortedEvents.addEventBack(timestamp, newEvent);
                     eventCount++;
                     internalHandleAdd(timestamp, newEvent);
                 }
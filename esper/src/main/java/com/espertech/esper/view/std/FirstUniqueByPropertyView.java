@@ -12,7 +12,6 @@ package com.espertech.esper.view.std;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -153,11 +152,7 @@ public class FirstUniqueByPropertyView extends ViewSupport implements CloneableV
             return uniqueCriteriaEval[0].evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
         }
 
-        Object[] values = new Object[uniqueCriteriaEval.length];
-        for (int i = 0; i < uniqueCriteriaEval.length; i++) {
-            values[i] = uniqueCriteriaEval[i].evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
-        }
-        return new MultiKeyUntyped(values);
+        return viewFactory.criteriaKeyEval.evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
     }
 
     /**
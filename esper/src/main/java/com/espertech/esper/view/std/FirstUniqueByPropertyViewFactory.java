@@ -16,6 +16,7 @@ import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContex
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtilMultiKeyObjectEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.view.*;
 
@@ -38,6 +39,7 @@ public class FirstUniqueByPropertyViewFactory implements AsymetricDataWindowView
      */
     protected ExprNode[] criteriaExpressions;
     protected ExprEvaluator[] criteriaExpressionEvals;
+    protected ExprEvaluator criteriaKeyEval;
 
     private EventType eventType;
 
@@ -55,6 +57,7 @@ public class FirstUniqueByPropertyViewFactory implements AsymetricDataWindowView
 
         this.eventType = parentEventType;
         this.criteriaExpressionEvals = ExprNodeUtility.getEvaluatorsMayCompile(criteriaExpressions, statementContext.getEngineImportService(), this.getClass(), false, statementContext.getStatementName());
+        this.criteriaKeyEval = ExprNodeUtilMultiKeyObjectEvaluator.getEvaluator(criteriaExpressions, criteriaExpressionEvals);
     }
 
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext) {
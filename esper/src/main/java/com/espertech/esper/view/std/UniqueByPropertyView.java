@@ -12,7 +12,6 @@ package com.espertech.esper.view.std;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -169,11 +168,7 @@ public class UniqueByPropertyView extends ViewSupport implements CloneableView,
             return criteriaExpressionsEvals[0].evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
         }
 
-        Object[] values = new Object[criteriaExpressionsEvals.length];
-        for (int i = 0; i < criteriaExpressionsEvals.length; i++) {
-            values[i] = criteriaExpressionsEvals[i].evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
-        }
-        return new MultiKeyUntyped(values);
+        return viewFactory.criteriaKeyEval.evaluate(eventsPerStream, true, agentInstanceViewFactoryContext);
     }
 
     public void visitView(ViewDataVisitor viewDataVisitor) {
@@ -16,6 +16,7 @@ import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContex
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtilMultiKeyObjectEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.view.*;
 
@@ -38,6 +39,7 @@ public class UniqueByPropertyViewFactory implements DataWindowViewFactoryUniqueC
      */
     protected ExprNode[] criteriaExpressions;
     protected ExprEvaluator[] criteriaExpressionsEvals;
+    protected ExprEvaluator criteriaKeyEval;
     private EventType eventType;
 
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException {
@@ -54,6 +56,7 @@ public class UniqueByPropertyViewFactory implements DataWindowViewFactoryUniqueC
 
         this.eventType = parentEventType;
         this.criteriaExpressionsEvals = ExprNodeUtility.getEvaluatorsMayCompile(criteriaExpressions, statementContext.getEngineImportService(), this.getClass(), false, statementContext.getStatementName());
+        this.criteriaKeyEval = ExprNodeUtilMultiKeyObjectEvaluator.getEvaluator(criteriaExpressions, criteriaExpressionsEvals);
     }
 
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext) {
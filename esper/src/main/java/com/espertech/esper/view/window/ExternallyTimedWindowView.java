@@ -13,6 +13,8 @@ package com.espertech.esper.view.window;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.TimeWindow;
+import com.espertech.esper.collection.TimeWindowRing;
+import com.espertech.esper.collection.TimeWindowStorage;
 import com.espertech.esper.collection.ViewUpdatedCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -50,7 +52,7 @@ public class ExternallyTimedWindowView extends ViewSupport implements DataWindow
     private final ExprTimePeriodEvalDeltaConst timeDeltaComputation;
 
     private final EventBean[] eventsPerStream = new EventBean[1];
-    protected final TimeWindow timeWindow;
+    protected final TimeWindowStorage timeWindow;
     private ViewUpdatedCollection viewUpdatedCollection;
     protected AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
 
@@ -78,7 +80,7 @@ public class ExternallyTimedWindowView extends ViewSupport implements DataWindow
         this.timestampExpressionEval = timestampExpressionEval;
         this.timeDeltaComputation = timeDeltaComputation;
         this.viewUpdatedCollection = viewUpdatedCollection;
-        this.timeWindow = new TimeWindow(agentInstanceViewFactoryContext.isRemoveStream());
+        this.timeWindow = externallyTimedWindowViewFactory != null && externallyTimedWindowViewFactory.isTimeWindowRing() ? new TimeWindowRing(agentInstanceViewFactoryContext.isRemoveStream()) : new TimeWindow(agentInstanceViewFactoryContext.isRemoveStream());
         this.agentInstanceViewFactoryContext = agentInstanceViewFactoryContext;
     }
 
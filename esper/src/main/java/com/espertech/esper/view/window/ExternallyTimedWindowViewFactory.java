@@ -33,6 +33,7 @@ public class ExternallyTimedWindowViewFactory implements DataWindowViewFactory,
     private List<ExprNode> viewParameters;
 
     private EventType eventType;
+    private boolean timeWindowRing;
 
     /**
      * The timestamp property name.
@@ -64,6 +65,9 @@ public class ExternallyTimedWindowViewFactory implements DataWindowViewFactory,
 
         timeDeltaComputationFactory = ViewFactoryTimePeriodHelper.validateAndEvaluateTimeDeltaFactory(getViewName(), statementContext, viewParameters.get(1), getViewParamMessage(), 1);
         this.eventType = parentEventType;
+        if (statementContext.getConfigSnapshot() != null) {
+            timeWindowRing = statementContext.getConfigSnapshot().getEngineDefaults().getViewResources().isTimeWindowRing();
+        }
     }
 
     public Object makePreviousGetter() {
@@ -102,6 +106,10 @@ public class ExternallyTimedWindowViewFactory implements DataWindowViewFactory,
         return timestampExpressionEval;
     }
 
+    public boolean isTimeWindowRing() {
+        return timeWindowRing;
+    }
+
     private String getViewParamMessage() {
         return getViewName() + " view requires a timestamp expression and a numeric or time period parameter for window size";
     }
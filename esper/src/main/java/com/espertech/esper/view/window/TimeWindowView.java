@@ -13,6 +13,8 @@ package com.espertech.esper.view.window;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.TimeWindow;
+import com.espertech.esper.collection.TimeWindowRing;
+import com.espertech.esper.collection.TimeWindowStorage;
 import com.espertech.esper.collection.ViewUpdatedCollection;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
@@ -38,10 +40,10 @@ import java.util.Iterator;
  * as the system-time-based timeWindow moves on. However child views receive updates containing new data
  * as soon as the new data arrives.
  */
-public class TimeWindowView extends ViewSupport implements CloneableView, DataWindowView, ScheduleAdjustmentCallback, StoppableView, StopCallback {
+public class TimeWindowView extends ViewSupport implements CloneableView, DataWindowViewWithTimestamps, ScheduleAdjustmentCallback, StoppableView, StopCallback {
     private final TimeWindowViewFactory timeWindowViewFactory;
     private final ExprTimePeriodEvalDeltaConst timeDeltaComputation;
-    protected final TimeWindow timeWindow;
+    protected final TimeWindowStorage timeWindow;
     private final ViewUpdatedCollection viewUpdatedCollection;
     protected final AgentInstanceViewFactoryChainContext agentInstanceContext;
     private final long scheduleSlot;
@@ -62,7 +64,7 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
         this.timeDeltaComputation = timeDeltaComputation;
         this.viewUpdatedCollection = viewUpdatedCollection;
         this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
-        this.timeWindow = new TimeWindow(agentInstanceContext.isRemoveStream());
+        this.timeWindow = timeWindowViewFactory.isTimeWindowRing() ? new TimeWindowRing(agentInstanceContext.isRemoveStream()) : new TimeWindow(agentInstanceContext.isRemoveStream());
 
         ScheduleHandleCallback callback = new ScheduleHandleCallback() {
             public void scheduledTrigger(EngineLevelExtensionServicesContext extensionServicesContext) {
@@ -150,6 +152,26 @@ public class TimeWindowView extends ViewSupport implements CloneableView, DataWi
         }
     }
 
+    public long[] getTimestamps() {
+        return timeWindow.getTimestamps();
+    }
+
+    public void restore(EventBean[] events, long[] timestamps) {
+        for (int i = 0; i < events.length; i++) {
+            timeWindow.add(timestamps[i], events[i]);
+        }
+        if (viewUpdatedCollection != null) {
+            viewUpdatedCollection.update(events, null);
+        }
+
+        // the oldest event may already be due for expiry, in which case it expires with the next time advance
+        scheduleExpiryCallback();
+
+        if (this.hasViews()) {
+            updateChildren(events, null);
+        }
+    }
+
     /**
      * This method removes (expires) objects from the window and schedules a new callback for the
      * time when the next oldest message would expire from the window.
@@ -29,6 +29,7 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
     protected ExprTimePeriodEvalDeltaConstFactory timeDeltaComputationFactory;
 
     private EventType eventType;
+    private boolean timeWindowRing;
 
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException {
         if (expressionParameters.size() != 1) {
@@ -39,6 +40,9 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
 
     public void attach(EventType parentEventType, StatementContext statementContext, ViewFactory optionalParentFactory, List<ViewFactory> parentViewFactories) throws ViewParameterException {
         this.eventType = parentEventType;
+        if (statementContext.getConfigSnapshot() != null) {
+            timeWindowRing = statementContext.getConfigSnapshot().getEngineDefaults().getViewResources().isTimeWindowRing();
+        }
     }
 
     public Object makePreviousGetter() {
@@ -78,6 +82,10 @@ public class TimeWindowViewFactory implements DataWindowViewFactory, DataWindowV
         return timeDeltaComputationFactory;
     }
 
+    public boolean isTimeWindowRing() {
+        return timeWindowRing;
+    }
+
     private String getViewParamMessage() {
         return getViewName() + " view requires a single numeric or time period parameter";
     }
@@ -45,7 +45,9 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(100, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
         assertEquals(ConfigurationEngineDefaults.Threading.Locking.SPIN, config.getEngineDefaults().getThreading().getInsertIntoDispatchLocking());
         assertEquals(ConfigurationEngineDefaults.Threading.Locking.SPIN, config.getEngineDefaults().getThreading().getListenerDispatchLocking());
+        assertFalse(config.getEngineDefaults().getThreading().isListenerDispatchBatchCoalesce());
         assertFalse(config.getEngineDefaults().getThreading().isThreadPoolInbound());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolInboundPartitioned());
         assertFalse(config.getEngineDefaults().getThreading().isThreadPoolOutbound());
         assertFalse(config.getEngineDefaults().getThreading().isThreadPoolRouteExec());
         assertFalse(config.getEngineDefaults().getThreading().isThreadPoolTimerExec());
@@ -55,6 +57,8 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolTimerExecNumThreads());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolOutboundStatementAffine());
+        assertEquals(ConfigurationEngineDefaults.Threading.WaitStrategy.PARK, config.getEngineDefaults().getThreading().getThreadPoolOutboundWaitStrategy());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
@@ -65,6 +69,7 @@ public class TestConfigurationParser extends TestCase {
 
         assertEquals(Configuration.PropertyResolutionStyle.CASE_SENSITIVE, config.getEngineDefaults().getEventMeta().getClassPropertyResolutionStyle());
         assertEquals(ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN, config.getEngineDefaults().getEventMeta().getDefaultAccessorStyle());
+        assertEquals(ConfigurationEventTypeLegacy.CodeGeneration.ENABLED, config.getEngineDefaults().getEventMeta().getDefaultCodeGeneration());
         assertEquals(EventUnderlyingType.MAP, config.getEngineDefaults().getEventMeta().getDefaultEventRepresentation());
         assertEquals(5, config.getEngineDefaults().getEventMeta().getAnonymousCacheSize());
         assertTrue(config.getEngineDefaults().getEventMeta().getAvroSettings().isEnableAvro());
@@ -76,6 +81,7 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(config.getEngineDefaults().getViewResources().isShareViews());
         assertFalse(config.getEngineDefaults().getViewResources().isAllowMultipleExpiryPolicies());
         assertFalse(config.getEngineDefaults().getViewResources().isIterableUnbound());
+        assertFalse(config.getEngineDefaults().getViewResources().isTimeWindowRing());
         assertFalse(config.getEngineDefaults().getLogging().isEnableExecutionDebug());
         assertTrue(config.getEngineDefaults().getLogging().isEnableTimerDebug());
         assertFalse(config.getEngineDefaults().getLogging().isEnableQueryPlan());
@@ -95,10 +101,13 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.NORMAL, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(1, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
+        assertEquals(0, config.getEngineDefaults().getExecution().getParseCacheSize());
         ConfigurationEngineDefaults.CodeGeneration codegen = config.getEngineDefaults().getCodeGeneration();
         assertEquals(true, codegen.isEnableExpression());
         assertEquals(false, codegen.isEnablePropertyGetter());
+        assertEquals(false, codegen.isEnableResultSetProcessor());
         assertEquals(false, codegen.isIncludeComments());
         assertEquals(false, codegen.isIncludeDebugSymbols());
         assertEquals(true, codegen.isEnableFallback());
@@ -250,6 +259,8 @@ public class TestConfigurationParser extends TestCase {
         assertEquals("java:comp/env/jdbc/mydb", dsDef.getContextLookupName());
         assertEquals("{java.naming.provider.url=iiop://localhost:1050, java.naming.factory.initial=com.myclass.CtxFactory}", dsDef.getEnvProperties().toString());
         assertEquals(ConfigurationDBRef.ConnectionLifecycleEnum.POOLED, configDBRef.getConnectionLifecycleEnum());
+        assertEquals(1, configDBRef.getConnectionRetainPoolSize());
+        assertEquals(0, configDBRef.getPollBatchSize());
         assertNull(configDBRef.getConnectionSettings().getAutoCommit());
         assertNull(configDBRef.getConnectionSettings().getCatalog());
         assertNull(configDBRef.getConnectionSettings().getReadOnly());
@@ -271,6 +282,8 @@ public class TestConfigurationParser extends TestCase {
         assertEquals("mypassword1", dmDef.getOptionalPassword());
         assertEquals("{user=myuser2, password=mypassword2, somearg=someargvalue}", dmDef.getOptionalProperties().toString());
         assertEquals(ConfigurationDBRef.ConnectionLifecycleEnum.RETAIN, configDBRef.getConnectionLifecycleEnum());
+        assertEquals(4, configDBRef.getConnectionRetainPoolSize());
+        assertEquals(20, configDBRef.getPollBatchSize());
         assertEquals((Boolean) false, configDBRef.getConnectionSettings().getAutoCommit());
         assertEquals("test", configDBRef.getConnectionSettings().getCatalog());
         assertEquals(Boolean.TRUE, configDBRef.getConnectionSettings().getReadOnly());
@@ -402,7 +415,9 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(config.getEngineDefaults().getThreading().isListenerDispatchPreserveOrder());
         assertEquals(2000, config.getEngineDefaults().getThreading().getListenerDispatchTimeout());
         assertEquals(ConfigurationEngineDefaults.Threading.Locking.SUSPEND, config.getEngineDefaults().getThreading().getListenerDispatchLocking());
+        assertTrue(config.getEngineDefaults().getThreading().isListenerDispatchBatchCoalesce());
         assertTrue(config.getEngineDefaults().getThreading().isThreadPoolInbound());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolInboundPartitioned());
         assertTrue(config.getEngineDefaults().getThreading().isThreadPoolOutbound());
         assertTrue(config.getEngineDefaults().getThreading().isThreadPoolRouteExec());
         assertTrue(config.getEngineDefaults().getThreading().isThreadPoolTimerExec());
@@ -412,6 +427,8 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(4, config.getEngineDefaults().getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(1000, (int) config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolOutboundStatementAffine());
+        assertEquals(ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD, config.getEngineDefaults().getThreading().getThreadPoolOutboundWaitStrategy());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
 
@@ -420,8 +437,10 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(config.getEngineDefaults().getViewResources().isShareViews());
         assertTrue(config.getEngineDefaults().getViewResources().isAllowMultipleExpiryPolicies());
         assertTrue(config.getEngineDefaults().getViewResources().isIterableUnbound());
+        assertTrue(config.getEngineDefaults().getViewResources().isTimeWindowRing());
         assertEquals(Configuration.PropertyResolutionStyle.DISTINCT_CASE_INSENSITIVE, config.getEngineDefaults().getEventMeta().getClassPropertyResolutionStyle());
         assertEquals(ConfigurationEventTypeLegacy.AccessorStyle.PUBLIC, config.getEngineDefaults().getEventMeta().getDefaultAccessorStyle());
+        assertEquals(ConfigurationEventTypeLegacy.CodeGeneration.LAMBDA, config.getEngineDefaults().getEventMeta().getDefaultCodeGeneration());
         assertEquals(EventUnderlyingType.MAP, config.getEngineDefaults().getEventMeta().getDefaultEventRepresentation());
         assertEquals(100, config.getEngineDefaults().getEventMeta().getAnonymousCacheSize());
         assertFalse(config.getEngineDefaults().getEventMeta().getAvroSettings().isEnableAvro());
@@ -444,6 +463,7 @@ public class TestConfigurationParser extends TestCase {
         ConfigurationEngineDefaults.CodeGeneration codegen = config.getEngineDefaults().getCodeGeneration();
         assertEquals(false, codegen.isEnableExpression());
         assertEquals(true, codegen.isEnablePropertyGetter());
+        assertEquals(true, codegen.isEnableResultSetProcessor());
         assertEquals(true, codegen.isIncludeComments());
         assertEquals(true, codegen.isIncludeDebugSymbols());
         assertEquals(false, codegen.isEnableFallback());
@@ -457,7 +477,9 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.LARGE, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(101, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
+        assertEquals(500, config.getEngineDefaults().getExecution().getParseCacheSize());
 
         ConfigurationMetricsReporting metrics = config.getEngineDefaults().getMetricsReporting();
         assertTrue(metrics.isEnableMetricsReporting());
@@ -516,7 +538,7 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(variable.isConstant());
 
         // method references
-        assertEquals(2, config.getMethodInvocationReferences().size());
+        assertEquals(3, config.getMethodInvocationReferences().size());
         ConfigurationMethodRef methodRef = config.getMethodInvocationReferences().get("abc");
         expCache = (ConfigurationExpiryTimeCache) methodRef.getDataCacheDesc();
         assertEquals(91.0, expCache.getMaxAgeSeconds());
@@ -526,6 +548,15 @@ public class TestConfigurationParser extends TestCase {
         methodRef = config.getMethodInvocationReferences().get("def");
         lruCache = (ConfigurationLRUCache) methodRef.getDataCacheDesc();
         assertEquals(20, lruCache.getSize());
+        assertEquals(0, methodRef.getPollBatchSize());
+
+        methodRef = config.getMethodInvocationReferences().get("ghi");
+        ConfigurationConcurrentCache concurrentCache = (ConfigurationConcurrentCache) methodRef.getDataCacheDesc();
+        assertEquals(1000, concurrentCache.getMaxRows());
+        assertEquals(30.5, concurrentCache.getMaxAgeSeconds());
+        assertEquals(8, concurrentCache.getNumSegments());
+        assertFalse(concurrentCache.isAdmission());
+        assertEquals(50, methodRef.getPollBatchSize());
 
         // plug-in event representations
         assertEquals(2, config.getPlugInEventRepresentation().size());
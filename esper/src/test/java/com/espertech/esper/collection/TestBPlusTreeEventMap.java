@@ -0,0 +1,238 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.util.CollectionUtil;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestBPlusTreeEventMap extends TestCase {
+    private EventBean[] events;
+
+    public void setUp() {
+        events = new EventBean[2000];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean("E" + i, i));
+        }
+    }
+
+    public void testAddRemove() {
+        BPlusTreeEventMap map = new BPlusTreeEventMap(null);
+        assertTrue(map.isEmpty());
+        assertNull(map.getEvent(0));
+        try {
+            map.firstKey();
+            fail();
+        } catch (NoSuchElementException ex) {
+            // expected
+        }
+
+        map.addEventFront(20, events[0]);
+        map.addEventFront(10, events[1]);
+        map.addEventFront(20, events[2]);
+        map.addEventBack(20, events[3]);
+        assertEquals(2, map.size());
+        assertEquals(4, map.getEventCount());
+        assertEquals(10, map.firstKey());
+        assertEquals(20, map.lastKey());
+        assertEvents(map, new EventBean[]{events[1], events[2], events[0], events[3]});
+
+        assertFalse(map.removeEvent(20, events[1]));
+        assertFalse(map.removeEvent(30, events[1]));
+        assertTrue(map.removeEvent(20, events[0]));
+        assertTrue(map.removeEvent(10, events[1]));
+        assertEquals(1, map.size());
+        assertEvents(map, new EventBean[]{events[2], events[3]});
+
+        assertNull(map.put(30, events[4]));
+        assertSame(events[4], map.remove(30));
+        assertNull(map.remove(30));
+        assertEvents(map, new EventBean[]{events[2], events[3]});
+        assertNull(map.getEvent(2));
+        assertNull(map.getEvent(-1));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.getEventCount());
+    }
+
+    public void testComparator() {
+        BPlusTreeEventMap map = new BPlusTreeEventMap(Collections.reverseOrder());
+        for (int i = 0; i < 100; i++) {
+            map.addEventBack(i, events[i]);
+        }
+        assertEquals(99, map.firstKey());
+        assertEquals(0, map.lastKey());
+        for (int i = 0; i < 100; i++) {
+            assertSame(events[99 - i], map.getEvent(i));
+        }
+    }
+
+    public void testRandomized() {
+        runAssertionRandomized(new BPlusTreeEventMap(null), new TreeMap<Object, Object>(), false);
+    }
+
+    public void testRandomizedPrimitiveKeys() {
+        runAssertionRandomized(new BPlusTreeEventMap(null, int.class, false), new TreeMap<Object, Object>(), false);
+        runAssertionRandomized(new BPlusTreeEventMap(Collections.reverseOrder(), Integer.class, true), new TreeMap<Object, Object>(Collections.reverseOrder()), false);
+        runAssertionRandomized(new BPlusTreeEventMap(null, double.class, false), new TreeMap<Object, Object>(), true);
+        runAssertionRandomized(new BPlusTreeEventMap(Collections.reverseOrder(), Double.class, true), new TreeMap<Object, Object>(Collections.reverseOrder()), true);
+    }
+
+    public void testPrimitiveKeyOrder() {
+        BPlusTreeEventMap map = new BPlusTreeEventMap(null, double.class, false);
+        double[] keys = new double[]{Double.NaN, 1.5, -0.0, 0.0, Double.NEGATIVE_INFINITY, -2.5, Double.POSITIVE_INFINITY, -1e-300};
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], events[i]);
+        }
+        Object[] expected = new Object[]{Double.NEGATIVE_INFINITY, -2.5, -1e-300, -0.0, 0.0, 1.5, Double.POSITIVE_INFINITY, Double.NaN};
+        assertEquals(Arrays.asList(expected), new ArrayList<Object>(map.keySet()));
+
+        map = new BPlusTreeEventMap(null, long.class, true);
+        long[] longKeys = new long[]{0, Long.MIN_VALUE, Long.MAX_VALUE, -1, 1};
+        for (int i = 0; i < longKeys.length; i++) {
+            map.put(longKeys[i], events[i]);
+        }
+        assertEquals(Arrays.<Object>asList(Long.MAX_VALUE, 1L, 0L, -1L, Long.MIN_VALUE), new ArrayList<Object>(map.keySet()));
+        assertTrue(map.compareKeys(1L, 0L) < 0);
+    }
+
+    public void testRangeValues() {
+        for (BPlusTreeEventMap map : new BPlusTreeEventMap[]{new BPlusTreeEventMap(null), new BPlusTreeEventMap(null, Integer.class, false)}) {
+            Object[] keys = new Object[500];
+            Object[] values = new Object[500];
+            for (int i = 0; i < 500; i++) {
+                keys[i] = i * 2;
+                values[i] = events[i];
+            }
+            map.putAllSorted(keys, values, 500);
+            assertEquals(500, map.size());
+            assertEquals(500, map.getEventCount());
+            assertSame(events[250], map.getEvent(250));
+            assertSame(events[10], map.get(20));
+
+            assertRange(map.rangeValues(10, true, 20, true), 5, 10);
+            assertRange(map.rangeValues(10, false, 20, false), 6, 9);
+            assertRange(map.rangeValues(9, true, 21, true), 5, 10);
+            assertRange(map.rangeValues(null, false, 6, false), 0, 2);
+            assertRange(map.rangeValues(994, false, null, false), 498, 499);
+            assertRange(map.rangeValues(-10, true, -1, true), 0, -1);
+            assertRange(map.rangeValues(2000, true, null, false), 0, -1);
+            assertRange(map.rangeValues(20, false, 20, true), 0, -1);
+
+            map.remove(12);
+            map.put(13, events[1000]);
+            Iterator<Object> it = map.rangeValues(10, true, 14, true);
+            assertSame(events[5], it.next());
+            assertSame(events[1000], it.next());
+            assertSame(events[7], it.next());
+            assertFalse(it.hasNext());
+
+            try {
+                map.putAllSorted(keys, values, 1);
+                fail();
+            } catch (IllegalStateException ex) {
+                // expected
+            }
+        }
+    }
+
+    private void assertRange(Iterator<Object> it, int first, int last) {
+        for (int i = first; i <= last; i++) {
+            assertSame(events[i], it.next());
+        }
+        assertFalse(it.hasNext());
+    }
+
+    private void runAssertionRandomized(BPlusTreeEventMap map, TreeMap<Object, Object> reference, boolean doubleKeys) {
+        Random random = new Random(1234);
+        List<Object[]> added = new ArrayList<Object[]>();
+        int next = 0;
+
+        for (int step = 0; step < 20000; step++) {
+            boolean add = added.isEmpty() || (added.size() < 1500 && random.nextInt(10) < 6);
+            if (add) {
+                int value = random.nextInt(step % 1000 < 500 ? 3000 : 50) - 1000;
+                Object key = doubleKeys ? (Object) (value / 4d) : (Object) value;
+                EventBean theEvent = events[next++ % events.length];
+                if (contains(added, theEvent)) {
+                    continue;
+                }
+                if (random.nextBoolean()) {
+                    map.addEventFront(key, theEvent);
+                    CollectionUtil.addEventByKeyLazyListMapFront(key, theEvent, reference);
+                } else {
+                    map.addEventBack(key, theEvent);
+                    CollectionUtil.addEventByKeyLazyListMapBack(key, theEvent, reference);
+                }
+                added.add(new Object[]{key, theEvent});
+            } else {
+                Object[] entry = added.remove(random.nextInt(added.size()));
+                assertTrue(map.removeEvent(entry[0], (EventBean) entry[1]));
+                assertTrue(CollectionUtil.removeEventByKeyLazyListMap(entry[0], (EventBean) entry[1], reference));
+            }
+
+            if (step % 97 == 0) {
+                assertSameContent(reference, map);
+            }
+        }
+
+        // drain
+        while (!added.isEmpty()) {
+            Object[] entry = added.remove(added.size() - 1);
+            assertTrue(map.removeEvent(entry[0], (EventBean) entry[1]));
+            assertTrue(CollectionUtil.removeEventByKeyLazyListMap(entry[0], (EventBean) entry[1], reference));
+        }
+        assertSameContent(reference, map);
+        assertTrue(map.isEmpty());
+    }
+
+    private static boolean contains(List<Object[]> added, EventBean theEvent) {
+        for (Object[] entry : added) {
+            if (entry[1] == theEvent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertSameContent(TreeMap<Object, Object> reference, BPlusTreeEventMap map) {
+        assertEquals(reference.size(), map.size());
+        assertEquals(new ArrayList<Object>(reference.keySet()), new ArrayList<Object>(map.keySet()));
+        if (!reference.isEmpty()) {
+            assertEquals(reference.firstKey(), map.firstKey());
+            assertEquals(reference.lastKey(), map.lastKey());
+        }
+
+        List<EventBean> expected = new ArrayList<EventBean>();
+        for (Map.Entry<Object, Object> entry : reference.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+            if (entry.getValue() instanceof List) {
+                expected.addAll((List<EventBean>) entry.getValue());
+            } else {
+                expected.add((EventBean) entry.getValue());
+            }
+        }
+        assertEvents(map, expected.toArray(new EventBean[expected.size()]));
+    }
+
+    private static void assertEvents(BPlusTreeEventMap map, EventBean[] expected) {
+        assertEquals(expected.length, map.getEventCount());
+        for (int i = 0; i < expected.length; i++) {
+            assertSame("Failed for index " + i, expected[i], map.getEvent(i));
+        }
+        assertNull(map.getEvent(expected.length));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestLongObjectHashMap extends TestCase {
+    public void testPutGetRemove() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        assertTrue(map.isEmpty());
+        assertNull(map.put(1L, "a"));
+        assertNull(map.put(-1L, "b"));
+        assertNull(map.put(Long.MIN_VALUE, "c"));
+        assertEquals("a", map.put(1L, "d"));
+        assertEquals(3, map.size());
+        assertEquals("d", map.get(1L));
+        assertEquals("b", map.get(-1L));
+        assertEquals("c", map.get(Long.MIN_VALUE));
+        assertNull(map.get(0L));
+        assertTrue(map.containsKey(-1L));
+
+        assertEquals("b", map.remove(-1L));
+        assertNull(map.remove(-1L));
+        assertFalse(map.containsKey(-1L));
+        assertEquals(2, map.size());
+
+        try {
+            map.put(2L, null);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testCopy() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        map.put(10L, "a");
+        LongObjectHashMap<String> copy = new LongObjectHashMap<String>(map);
+        copy.put(20L, "b");
+        copy.remove(10L);
+        assertEquals("a", map.get(10L));
+        assertNull(map.get(20L));
+        assertEquals(1, map.size());
+        assertEquals("b", copy.get(20L));
+        assertNull(copy.get(10L));
+    }
+
+    public void testSlots() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>(100);
+        for (long i = 0; i < 100; i++) {
+            map.put(i * 1000, Long.toString(i));
+        }
+        int count = 0;
+        for (int i = 0; i < map.getCapacity(); i++) {
+            String value = map.getValueAt(i);
+            if (value != null) {
+                assertEquals(Long.parseLong(value) * 1000, map.getKeyAt(i));
+                count++;
+            }
+        }
+        assertEquals(100, count);
+    }
+
+    public void testCompareHashMap() {
+        Random random = new Random(1);
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<Integer>();
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        for (int i = 0; i < 100000; i++) {
+            // use a narrow key space with a stride to exercise collisions and removal chains
+            long key = random.nextInt(500) * 64L;
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (long key = 0; key < 500 * 64L; key += 64) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class TestMultiKeyObject extends TestCase {
+    public void testMake() {
+        assertTrue(MultiKeyObject.make(new Object[]{"a", 1}) instanceof MultiKeyObject2);
+        assertTrue(MultiKeyObject.make(new Object[]{"a", 1, null}) instanceof MultiKeyObject3);
+        assertTrue(MultiKeyObject.make(new Object[]{"a", 1, null, 2L}) instanceof MultiKeyObjectArray);
+        assertTrue(Arrays.equals(new Object[]{"a", null}, MultiKeyObject.make(new Object[]{"a", null}).getKeys()));
+        assertTrue(Arrays.equals(new Object[]{"a", 1, "b"}, MultiKeyObject.make(new Object[]{"a", 1, "b"}).getKeys()));
+        assertEquals("b", MultiKeyObject.make(new Object[]{"a", 1, "b"}).get(2));
+        assertEquals(4, MultiKeyObject.make(new Object[]{"a", 1, null, 2L}).size());
+    }
+
+    public void testEqualsHashCode() {
+        MultiKeyObject key = MultiKeyObject.make(new Object[]{"IBM", "NYSE"});
+        assertEquals(key, MultiKeyObject.make(new Object[]{"IBM", "NYSE"}));
+        assertEquals(key.hashCode(), MultiKeyObject.make(new Object[]{"IBM", "NYSE"}).hashCode());
+        assertFalse(key.equals(MultiKeyObject.make(new Object[]{"NYSE", "IBM"})));
+        assertFalse(key.equals(MultiKeyObject.make(new Object[]{"IBM", "NYSE", null})));
+        assertEquals(MultiKeyObject.make(new Object[]{null, null, null}), MultiKeyObject.make(new Object[]{null, null, null}));
+        assertFalse(MultiKeyObject.make(new Object[]{0, null}).equals(MultiKeyObject.make(new Object[]{0, 0})));
+        assertEquals(MultiKeyObject.make(new Object[]{"a", 1, 2, 3}), MultiKeyObject.make(new Object[]{"a", 1, 2, 3}));
+    }
+
+    public void testHashCodeDistribution() {
+        // symbol and exchange pairs wherein the symbol hash codes are consecutive should rarely collide in the lower bits used by hash maps
+        int mask = 1023;
+        Set<Integer> buckets = new HashSet<Integer>();
+        int count = 0;
+        for (int symbol = 0; symbol < 100; symbol++) {
+            for (int exchange = 0; exchange < 10; exchange++) {
+                buckets.add(MultiKeyObject.make(new Object[]{"S" + symbol, "X" + exchange}).hashCode() & mask);
+                count++;
+            }
+        }
+        assertTrue(buckets.size() > count / 2);
+    }
+}
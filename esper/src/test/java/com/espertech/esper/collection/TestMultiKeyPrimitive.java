@@ -0,0 +1,85 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class TestMultiKeyPrimitive extends TestCase {
+    private MultiKeyPrimitiveFactory intLong = MultiKeyPrimitiveFactory.make(new Class[]{int.class, Long.class});
+    private MultiKeyPrimitiveFactory doubleFloatBool = MultiKeyPrimitiveFactory.make(new Class[]{Double.class, float.class, Boolean.class});
+
+    public void testMake() {
+        assertNull(MultiKeyPrimitiveFactory.make(new Class[]{int.class}));
+        assertNull(MultiKeyPrimitiveFactory.make(new Class[]{int.class, int.class, int.class, int.class}));
+        assertNull(MultiKeyPrimitiveFactory.make(new Class[]{int.class, String.class}));
+        assertNull(MultiKeyPrimitiveFactory.make(new Class[]{int.class, Number.class}));
+        assertNull(MultiKeyPrimitiveFactory.make(new Class[]{int.class, null}));
+        assertEquals(2, intLong.size());
+        assertEquals(3, doubleFloatBool.size());
+    }
+
+    public void testEqualsHashCode() {
+        Object keyOne = intLong.makeKey(1, 2L);
+        assertTrue(keyOne instanceof MultiKeyPrimitive2);
+        assertEquals(keyOne, intLong.makeKey(1, 2L));
+        assertEquals(keyOne.hashCode(), intLong.makeKey(1, 2L).hashCode());
+        assertFalse(keyOne.equals(intLong.makeKey(2, 1L)));
+        assertFalse(keyOne.equals(intLong.makeKey(1, 3L)));
+
+        // null is not zero
+        assertFalse(intLong.makeKey(0, null).equals(intLong.makeKey(0, 0L)));
+        assertEquals(intLong.makeKey(null, null), intLong.makeKey(null, null));
+
+        // floating-point values compare as the boxed types do
+        assertEquals(doubleFloatBool.makeKey(Double.NaN, 1f, true), doubleFloatBool.makeKey(Double.NaN, 1f, true));
+        assertFalse(doubleFloatBool.makeKey(0d, 1f, true).equals(doubleFloatBool.makeKey(-0d, 1f, true)));
+        assertFalse(doubleFloatBool.makeKey(1d, 1f, true).equals(doubleFloatBool.makeKey(1d, 1f, false)));
+        assertFalse(doubleFloatBool.makeKey(1d, 1f, true).equals(intLong.makeKey(1, 1L)));
+    }
+
+    public void testNotEncodable() {
+        // a value not of the declared type makes an object key, which equals neither a primitive key nor a key of different boxed types
+        Object key = intLong.makeKey(1, 2);
+        assertEquals(new MultiKeyObject2(1, 2), key);
+        assertFalse(key.equals(intLong.makeKey(1, 2L)));
+        assertTrue(Arrays.equals(new Object[]{1, 2}, intLong.getKeys(key)));
+    }
+
+    public void testGetKeys() {
+        assertTrue(Arrays.equals(new Object[]{-1, null}, intLong.getKeys(intLong.makeKey(-1, null))));
+        assertTrue(Arrays.equals(new Object[]{Long.MIN_VALUE, 2L}, MultiKeyPrimitiveFactory.make(new Class[]{long.class, long.class}).getKeys(
+                MultiKeyPrimitiveFactory.make(new Class[]{long.class, long.class}).makeKey(Long.MIN_VALUE, 2L))));
+        assertTrue(Arrays.equals(new Object[]{-0d, 1.5f, false}, doubleFloatBool.getKeys(doubleFloatBool.makeKey(new Object[]{-0d, 1.5f, false}))));
+
+        MultiKeyPrimitiveFactory shortByteChar = MultiKeyPrimitiveFactory.make(new Class[]{short.class, Byte.class, char.class});
+        Object[] values = new Object[]{(short) -3, (byte) -4, 'x'};
+        assertTrue(Arrays.equals(values, shortByteChar.getKeys(shortByteChar.makeKey(values))));
+    }
+
+    public void testHashCodeDistribution() {
+        // correlated key pairs, such as an instrument and a venue number, should rarely collide in the lower bits used by hash maps
+        MultiKeyPrimitiveFactory factory = MultiKeyPrimitiveFactory.make(new Class[]{int.class, int.class});
+        int mask = 1023;
+        Set<Integer> buckets = new HashSet<Integer>();
+        int count = 0;
+        for (int instrument = 0; instrument < 100; instrument++) {
+            for (int venue = 0; venue < 10; venue++) {
+                buckets.add(factory.makeKey(instrument, instrument + venue).hashCode() & mask);
+                count++;
+            }
+        }
+        assertTrue(buckets.size() > count / 2);
+    }
+}
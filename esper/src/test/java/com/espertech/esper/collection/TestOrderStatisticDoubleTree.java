@@ -0,0 +1,117 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TestOrderStatisticDoubleTree extends TestCase {
+    private OrderStatisticDoubleTree tree;
+
+    public void setUp() {
+        tree = new OrderStatisticDoubleTree();
+    }
+
+    public void testAddRemove() {
+        assertEquals(0, tree.size());
+
+        tree.add(10);
+        tree.add(0);
+        tree.add(5);
+        compare(new double[]{0, 5, 10});
+
+        tree.add(10);
+        tree.add(1);
+        tree.add(5.5);
+        tree.add(Double.NaN);
+        compare(new double[]{0, 1, 5, 5.5, 10, 10});
+
+        tree.remove(10);
+        tree.remove(0);
+        tree.remove(Double.NaN);
+        compare(new double[]{1, 5, 5.5, 10});
+
+        tree.remove(5);
+        tree.remove(1);
+        tree.remove(10);
+        tree.remove(5.5);
+        compare(new double[0]);
+
+        try {
+            tree.remove(1);
+            fail();
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+    }
+
+    public void testRankPercentile() {
+        assertNull(tree.getPercentile(50));
+        tree.add(3);
+        assertEquals(3d, tree.getPercentile(0));
+        assertEquals(3d, tree.getPercentile(100));
+
+        tree.add(1);
+        tree.add(2);
+        tree.add(2);
+        tree.add(5);
+        assertEquals(0, tree.rank(1));
+        assertEquals(1, tree.rank(2));
+        assertEquals(3, tree.rank(3));
+        assertEquals(5, tree.rank(6));
+
+        assertEquals(1d, tree.getPercentile(0));
+        assertEquals(2d, tree.getPercentile(50));
+        assertEquals(5d, tree.getPercentile(100));
+        assertEquals(4d, tree.getPercentile(87.5));
+        assertEquals(1.4d, tree.getPercentile(10), 1e-9);
+
+        try {
+            tree.getValue(5);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+    }
+
+    public void testRandomized() {
+        Random random = new Random(1);
+        List<Double> expected = new ArrayList<Double>();
+        for (int i = 0; i < 5000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                double value = random.nextInt(200);
+                expected.add(value);
+                tree.add(value);
+            } else {
+                Double value = expected.remove(random.nextInt(expected.size()));
+                tree.remove(value);
+            }
+            if (i % 100 == 0) {
+                Collections.sort(expected);
+                assertEquals(expected.size(), tree.size());
+                for (int j = 0; j < expected.size(); j++) {
+                    assertEquals(expected.get(j), tree.getValue(j));
+                }
+            }
+        }
+    }
+
+    private void compare(double[] expected) {
+        assertEquals(expected.length, tree.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], tree.getValue(i));
+        }
+    }
+}
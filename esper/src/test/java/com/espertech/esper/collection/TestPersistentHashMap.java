@@ -0,0 +1,103 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestPersistentHashMap extends TestCase {
+    public void testPlusMinus() {
+        PersistentHashMap<String, String> empty = PersistentHashMap.empty();
+        PersistentHashMap<String, String> one = empty.plus("a", "1");
+        PersistentHashMap<String, String> two = one.plus(null, "2").plus("a", "3");
+
+        assertTrue(empty.isEmpty());
+        assertEquals(1, one.size());
+        assertEquals("1", one.get("a"));
+        assertFalse(one.containsKey(null));
+        assertEquals(2, two.size());
+        assertEquals("3", two.get("a"));
+        assertEquals("2", two.get(null));
+
+        PersistentHashMap<String, String> removed = two.minus("a");
+        assertEquals(1, removed.size());
+        assertNull(removed.get("a"));
+        assertEquals("3", two.get("a"));
+        assertSame(removed, removed.minus("x"));
+        assertTrue(removed.minus(null).isEmpty());
+
+        try {
+            two.put("b", "4");
+            fail();
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+    }
+
+    public void testCollidingHashCodes() {
+        Colliding a = new Colliding("a", 7);
+        Colliding b = new Colliding("b", 7);
+        Colliding c = new Colliding("c", 7 | (1 << 30));
+        PersistentHashMap<Colliding, Integer> map = PersistentHashMap.<Colliding, Integer>empty().plus(a, 1).plus(b, 2).plus(c, 3);
+        assertEquals(3, map.size());
+        assertEquals(1, (int) map.get(a));
+        assertEquals(2, (int) map.get(b));
+        assertEquals(3, (int) map.get(c));
+        assertEquals(3, map.entrySet().size());
+
+        PersistentHashMap<Colliding, Integer> changed = map.plus(b, 4).minus(a);
+        assertEquals(2, changed.size());
+        assertEquals(4, (int) changed.get(b));
+        assertEquals(3, (int) changed.get(c));
+        assertNull(changed.get(a));
+        assertEquals(1, (int) map.get(a));
+    }
+
+    public void testRandomAgainstHashMap() {
+        Random random = new Random(1);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextBoolean()) {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            } else {
+                expected.remove(key);
+                map = map.minus(key);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+        assertEquals(expected, new HashMap<Integer, Integer>(map));
+    }
+
+    private static class Colliding {
+        private final String name;
+        private final int hash;
+
+        private Colliding(String name, int hash) {
+            this.name = name;
+            this.hash = hash;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Colliding && ((Colliding) o).name.equals(name);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -18,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
 
 public class TestTimeWindow extends TestCase {
     private final TimeWindow window = new TimeWindow(false);
@@ -98,6 +99,7 @@ public class TestTimeWindow extends TestCase {
         windowRemovable.remove(beans[4]);
         windowRemovable.remove(beans[0]);
         windowRemovable.remove(beans[3]);
+        assertTrue(Arrays.equals(new long[]{19, 20, 22}, windowRemovable.getTimestamps()));
 
         ArrayDeque<EventBean> beanList = windowRemovable.expireEvents(19);
         assertTrue(beanList == null);
@@ -0,0 +1,190 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestTimeWindowRing extends TestCase {
+    private final TimeWindowRing window = new TimeWindowRing(false);
+    private final TimeWindowRing windowRemovable = new TimeWindowRing(true);
+    private final EventBean[] beans = new EventBean[6];
+
+    public void setUp() {
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = createBean();
+        }
+    }
+
+    public void testAdd() {
+        assertTrue(window.getOldestTimestamp() == null);
+        assertTrue(window.isEmpty());
+
+        window.add(19, beans[0]);
+        assertTrue(window.getOldestTimestamp() == 19L);
+        assertFalse(window.isEmpty());
+        window.add(19, beans[1]);
+        window.add(20, beans[2]);
+        window.add(20, beans[3]);
+        window.add(21, beans[4]);
+        window.add(22, beans[5]);
+        assertTrue(window.getOldestTimestamp() == 19L);
+        assertIterator(window, beans);
+
+        assertNull(window.expireEvents(19));
+
+        ArrayDeque<EventBean> beanList = window.expireEvents(20);
+        assertTrue(beanList.size() == 2);
+        assertTrue(beanList.poll() == beans[0]);
+        assertTrue(beanList.poll() == beans[1]);
+
+        beanList = window.expireEvents(22);
+        assertTrue(beanList.size() == 3);
+        assertTrue(beanList.poll() == beans[2]);
+        assertTrue(beanList.poll() == beans[3]);
+        assertTrue(beanList.poll() == beans[4]);
+        assertFalse(window.isEmpty());
+        assertTrue(window.getOldestTimestamp() == 22);
+
+        beanList = window.expireEvents(23);
+        assertTrue(beanList.size() == 1);
+        assertTrue(beanList.poll() == beans[5]);
+        assertTrue(window.isEmpty());
+        assertTrue(window.getOldestTimestamp() == null);
+
+        assertNull(window.expireEvents(23));
+        assertIterator(window, new EventBean[0]);
+
+        try {
+            window.remove(beans[0]);
+            fail();
+        } catch (UnsupportedOperationException ex) {
+            // expected
+        }
+    }
+
+    public void testAddRemove() {
+        windowRemovable.add(19, beans[0]);
+        windowRemovable.add(19, beans[1]);
+        windowRemovable.add(20, beans[2]);
+        windowRemovable.add(20, beans[3]);
+        windowRemovable.add(21, beans[4]);
+        assertNull(windowRemovable.getReverseIndex());
+
+        windowRemovable.remove(beans[4]);
+        assertEquals(4, windowRemovable.getReverseIndex().size());
+        windowRemovable.add(22, beans[5]);
+        windowRemovable.remove(beans[0]);
+        windowRemovable.remove(beans[3]);
+        assertTrue(windowRemovable.getOldestTimestamp() == 19L);
+        assertIterator(windowRemovable, new EventBean[]{beans[1], beans[2], beans[5]});
+        assertTrue(Arrays.equals(new long[]{19, 20, 22}, windowRemovable.getTimestamps()));
+
+        assertNull(windowRemovable.expireEvents(19));
+
+        ArrayDeque<EventBean> beanList = windowRemovable.expireEvents(20);
+        assertTrue(beanList.size() == 1);
+        assertTrue(beanList.getFirst() == beans[1]);
+
+        beanList = windowRemovable.expireEvents(21);
+        assertTrue(beanList.size() == 1);
+        assertTrue(beanList.getFirst() == beans[2]);
+        assertFalse(windowRemovable.isEmpty());
+        assertTrue(windowRemovable.getOldestTimestamp() == 22);
+
+        beanList = windowRemovable.expireEvents(23);
+        assertTrue(beanList.size() == 1);
+        assertTrue(beanList.getFirst() == beans[5]);
+        assertTrue(windowRemovable.isEmpty());
+        assertTrue(windowRemovable.getOldestTimestamp() == null);
+        assertEquals(0, windowRemovable.getReverseIndex().size());
+
+        // removing all events empties the window
+        windowRemovable.add(30, beans[0]);
+        windowRemovable.add(31, beans[1]);
+        windowRemovable.remove(beans[1]);
+        windowRemovable.remove(beans[0]);
+        assertTrue(windowRemovable.isEmpty());
+        assertNull(windowRemovable.getOldestTimestamp());
+        assertNull(windowRemovable.expireEvents(100));
+    }
+
+    public void testAdjust() {
+        window.add(10, beans[0]);
+        window.add(20, beans[1]);
+        window.adjust(5);
+        assertTrue(window.getOldestTimestamp() == 15);
+        assertNull(window.expireEvents(15));
+        assertEquals(1, window.expireEvents(16).size());
+        assertTrue(window.getOldestTimestamp() == 25);
+    }
+
+    public void testCompareTimeWindow() {
+        Random random = new Random(1);
+        for (int run = 0; run < 10; run++) {
+            TimeWindow expected = new TimeWindow(true);
+            TimeWindowRing ring = new TimeWindowRing(true);
+            List<EventBean> added = new ArrayList<EventBean>();
+            long time = 0;
+
+            for (int step = 0; step < 2000; step++) {
+                int action = random.nextInt(10);
+                if (action < 6) {
+                    // timestamps are mostly ascending, for some runs may go backwards
+                    time += run % 3 == 0 ? random.nextInt(5) - 1 : random.nextInt(3);
+                    EventBean bean = createBean();
+                    expected.add(time, bean);
+                    ring.add(time, bean);
+                    added.add(bean);
+                } else if (action < 8) {
+                    if (!added.isEmpty()) {
+                        EventBean bean = added.get(random.nextInt(added.size()));
+                        expected.remove(bean);
+                        ring.remove(bean);
+                    }
+                } else {
+                    long expireBefore = time - random.nextInt(20);
+                    assertEquals(toList(expected.expireEvents(expireBefore)), toList(ring.expireEvents(expireBefore)));
+                }
+
+                // the time window may retain a slot for removed events and thereby report an older timestamp
+                List<EventBean> contents = toList(ring.iterator());
+                assertEquals(toList(expected.iterator()), contents);
+                assertEquals(contents.isEmpty(), ring.isEmpty());
+                assertEquals(contents.isEmpty(), ring.getOldestTimestamp() == null);
+            }
+        }
+    }
+
+    private void assertIterator(TimeWindowRing window, EventBean[] expected) {
+        assertEquals(Arrays.asList(expected), toList(window.iterator()));
+    }
+
+    private static List<EventBean> toList(ArrayDeque<EventBean> deque) {
+        return deque == null ? Collections.<EventBean>emptyList() : new ArrayList<EventBean>(deque);
+    }
+
+    private static List<EventBean> toList(Iterator<EventBean> it) {
+        List<EventBean> result = new ArrayList<EventBean>();
+        while (it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    private EventBean createBean() {
+        return SupportEventBeanFactory.createObject(new SupportBean());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class TestOutboundRingBuffer extends TestCase {
+    public void testOfferPoll() {
+        OutboundRingBuffer buffer = new OutboundRingBuffer(3, ConfigurationEngineDefaults.Threading.WaitStrategy.BUSYSPIN);
+        assertEquals(4, buffer.getCapacity());
+        assertNull(buffer.poll());
+
+        MyUnit[] units = new MyUnit[5];
+        for (int i = 0; i < units.length; i++) {
+            units[i] = new MyUnit(i);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(units[i]));
+        }
+        assertFalse(buffer.offer(units[4]));
+        assertEquals(4, buffer.size());
+
+        assertSame(units[0], buffer.poll());
+        assertTrue(buffer.offer(units[4]));
+        for (int i = 1; i < 5; i++) {
+            assertSame(units[i], buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+
+    public void testCapacityDefault() {
+        assertEquals(1024, new OutboundRingBuffer(null, null).getCapacity());
+        assertEquals(1024, new OutboundRingBuffer(Integer.MAX_VALUE, null).getCapacity());
+        assertEquals(ConfigurationEngineDefaults.Threading.WaitStrategy.PARK, new OutboundRingBuffer(null, null).getWaitStrategy());
+        assertEquals(16, new OutboundRingBuffer(16, null).getCapacity());
+    }
+
+    public void testMultipleProducers() throws Exception {
+        final int numProducers = 4;
+        final int numPerProducer = 10000;
+        final OutboundRingBuffer buffer = new OutboundRingBuffer(8, ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD);
+
+        List<Thread> producers = new ArrayList<Thread>();
+        for (int p = 0; p < numProducers; p++) {
+            final int producer = p;
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < numPerProducer; i++) {
+                            buffer.put(new MyUnit(producer * numPerProducer + i));
+                        }
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+
+        // units of each producer must be consumed in the order produced
+        int[] lastPerProducer = new int[numProducers];
+        for (int p = 0; p < numProducers; p++) {
+            lastPerProducer[p] = -1;
+        }
+        int count = 0;
+        while (count < numProducers * numPerProducer) {
+            MyUnit unit = (MyUnit) buffer.poll();
+            if (unit == null) {
+                buffer.idle();
+                continue;
+            }
+            int producer = unit.getNum() / numPerProducer;
+            int seq = unit.getNum() % numPerProducer;
+            assertEquals(lastPerProducer[producer] + 1, seq);
+            lastPerProducer[producer] = seq;
+            count++;
+        }
+
+        for (Thread thread : producers) {
+            thread.join();
+        }
+        assertNull(buffer.poll());
+    }
+
+    public void testWorkerDrainsOnShutdown() throws Exception {
+        final OutboundRingBuffer buffer = new OutboundRingBuffer(16, ConfigurationEngineDefaults.Threading.WaitStrategy.YIELD);
+        final List<Integer> processed = new ArrayList<Integer>();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        buffer.offer(new Runnable() {
+            public void run() {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        for (int i = 0; i < 10; i++) {
+            final int num = i;
+            buffer.offer(new Runnable() {
+                public void run() {
+                    processed.add(num);
+                }
+            });
+        }
+
+        OutboundAffineWorker worker = new OutboundAffineWorker(buffer);
+        Thread thread = new Thread(worker);
+        thread.start();
+        blocked.await();
+
+        // units still in the buffer at shutdown are processed before the worker exits
+        worker.shutdown();
+        release.countDown();
+        thread.join(10000);
+        assertFalse(thread.isAlive());
+        assertEquals(10, processed.size());
+        assertEquals(0, buffer.size());
+    }
+
+    private static class MyUnit implements Runnable {
+        private final int num;
+
+        private MyUnit(int num) {
+            this.num = num;
+        }
+
+        public void run() {
+        }
+
+        public int getNum() {
+            return num;
+        }
+    }
+}
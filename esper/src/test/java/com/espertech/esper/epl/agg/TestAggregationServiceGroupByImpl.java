@@ -13,7 +13,9 @@ package com.espertech.esper.epl.agg;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.core.support.SupportStatementContextFactory;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.agg.service.AggSvcGroupByNoAccessImpl;
+import com.espertech.esper.epl.agg.service.AggregationMethodRowApplier;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.supportunit.epl.SupportAggregatorFactory;
@@ -21,18 +23,20 @@ import com.espertech.esper.supportunit.epl.SupportExprNode;
 import junit.framework.TestCase;
 
 public class TestAggregationServiceGroupByImpl extends TestCase {
+    private SupportAggregatorFactory aggregators[];
+    private ExprEvaluator[] evaluators;
     private AggSvcGroupByNoAccessImpl service;
     private MultiKeyUntyped groupOneKey;
     private MultiKeyUntyped groupTwoKey;
 
     public void setUp() {
-        SupportAggregatorFactory aggregators[] = new SupportAggregatorFactory[2];
+        aggregators = new SupportAggregatorFactory[2];
         for (int i = 0; i < aggregators.length; i++) {
             aggregators[i] = new SupportAggregatorFactory();
         }
-        ExprEvaluator[] evaluators = new ExprEvaluator[]{new SupportExprNode(5).getForge().getExprEvaluator(), new SupportExprNode(2).getForge().getExprEvaluator()};
+        evaluators = new ExprEvaluator[]{new SupportExprNode(5).getForge().getExprEvaluator(), new SupportExprNode(2).getForge().getExprEvaluator()};
 
-        service = new AggSvcGroupByNoAccessImpl(evaluators, aggregators);
+        service = new AggSvcGroupByNoAccessImpl(evaluators, aggregators, null);
 
         groupOneKey = new MultiKeyUntyped(new Object[]{"x", "y1"});
         groupTwoKey = new MultiKeyUntyped(new Object[]{"x", "y2"});
@@ -64,4 +68,31 @@ public class TestAggregationServiceGroupByImpl extends TestCase {
         assertEquals(5 - 15, service.getValue(0, -1, null, true, null));
         assertEquals(2 - 6, service.getValue(1, -1, null, true, null));
     }
+
+    public void testApplier() {
+        AggregationMethodRowApplier applier = new AggregationMethodRowApplier() {
+            public void applyEnter(AggregationMethod[] row, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+                row[0].enter(7);
+                row[1].enter(3);
+            }
+
+            public void applyLeave(AggregationMethod[] row, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+                row[0].leave(7);
+                row[1].leave(3);
+            }
+        };
+        service = new AggSvcGroupByNoAccessImpl(evaluators, aggregators, applier);
+        ExprEvaluatorContext exprEvaluatorContext = SupportStatementContextFactory.makeEvaluatorContext();
+
+        service.applyEnter(new EventBean[1], groupOneKey, exprEvaluatorContext);
+        service.applyEnter(new EventBean[1], groupOneKey, exprEvaluatorContext);
+        service.applyLeave(new EventBean[1], groupTwoKey, exprEvaluatorContext);
+
+        service.setCurrentAccess(groupOneKey, -1, null);
+        assertEquals(14, service.getValue(0, -1, null, true, null));
+        assertEquals(6, service.getValue(1, -1, null, true, null));
+        service.setCurrentAccess(groupTwoKey, -1, null);
+        assertEquals(-7, service.getValue(0, -1, null, true, null));
+        assertEquals(-3, service.getValue(1, -1, null, true, null));
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+public class TestHyperLogLogState extends TestCase {
+
+    public void testEstimate() {
+        HyperLogLogState state = new HyperLogLogState(HyperLogLogState.PRECISION_DEFAULT);
+        assertEquals(0, state.estimate());
+
+        state.add(null);
+        state.add("a");
+        state.add("a");
+        state.add("b");
+        state.add(10);
+        state.add(10L);
+        assertEquals(3, state.estimate());
+
+        for (int i = 0; i < 100000; i++) {
+            state.add("value" + i);
+            state.add("value" + i);
+        }
+        assertWithin(100003, state.estimate(), 0.05);
+    }
+
+    public void testSmallCardinalities() {
+        HyperLogLogState state = new HyperLogLogState(14);
+        for (int i = 1; i <= 1000; i++) {
+            state.add(i);
+            if (i % 100 == 0) {
+                assertWithin(i, state.estimate(), 0.02);
+            }
+        }
+    }
+
+    public void testMerge() {
+        HyperLogLogState one = new HyperLogLogState(10);
+        HyperLogLogState two = new HyperLogLogState(10);
+        HyperLogLogState union = new HyperLogLogState(10);
+        for (int i = 0; i < 20000; i++) {
+            one.add(i);
+            union.add(i);
+        }
+        for (int i = 10000; i < 50000; i++) {
+            two.add(i);
+            union.add(i);
+        }
+        HyperLogLogState small = new HyperLogLogState(10);
+        small.add(-1);
+        union.add(-1);
+
+        one.merge(two);
+        one.merge(small);
+        assertEquals(union.estimate(), one.estimate());
+        assertWithin(50001, one.estimate(), 0.1);
+
+        try {
+            one.merge(new HyperLogLogState(11));
+            fail();
+        } catch (IllegalArgumentException ex) {
+            assertEquals("Cannot merge states of precision 10 and 11", ex.getMessage());
+        }
+
+        one.clear();
+        assertEquals(0, one.estimate());
+    }
+
+    private static void assertWithin(long expected, long actual, double relativeError) {
+        assertTrue("expected " + expected + " but was " + actual, Math.abs(actual - expected) <= expected * relativeError);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class TestTDigestState extends TestCase {
+
+    public void testQuantile() {
+        TDigestState digest = new TDigestState(TDigestState.COMPRESSION_DEFAULT);
+        assertNull(digest.quantile(0.5));
+
+        digest.add(5);
+        assertEquals(5d, digest.quantile(0.5));
+        digest.add(Double.NaN);
+        digest.add(1);
+        digest.add(3);
+        assertEquals(3, digest.size());
+        assertEquals(1d, digest.quantile(0));
+        assertEquals(3d, digest.quantile(0.5));
+        assertEquals(5d, digest.quantile(1));
+
+        digest.clear();
+        Random random = new Random(1);
+        for (int i = 0; i < 100000; i++) {
+            digest.add(random.nextDouble() * 1000);
+        }
+        assertEquals(100000, digest.size());
+        assertEquals(10, digest.quantile(0.01), 2);
+        assertEquals(500, digest.quantile(0.5), 10);
+        assertEquals(990, digest.quantile(0.99), 2);
+        assertTrue(digest.quantile(0) >= 0);
+        assertTrue(digest.quantile(1) <= 1000);
+    }
+
+    public void testMerge() {
+        Random random = new Random(1);
+        TDigestState one = new TDigestState(TDigestState.COMPRESSION_DEFAULT);
+        TDigestState two = new TDigestState(TDigestState.COMPRESSION_DEFAULT);
+        for (int i = 0; i < 50000; i++) {
+            one.add(random.nextDouble() * 500);
+            two.add(500 + random.nextDouble() * 500);
+        }
+        one.merge(two);
+        assertEquals(100000, one.size());
+        assertEquals(250, one.quantile(0.25), 10);
+        assertEquals(500, one.quantile(0.5), 10);
+        assertEquals(750, one.quantile(0.75), 10);
+        assertTrue(one.quantile(1) <= 1000);
+    }
+}
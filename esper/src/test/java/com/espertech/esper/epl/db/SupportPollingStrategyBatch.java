@@ -0,0 +1,60 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKey;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class SupportPollingStrategyBatch extends SupportPollingStrategy implements PollExecStrategyBatch {
+    private final int pollBatchSize;
+    private final List<Integer> batchSizes = new ArrayList<Integer>();
+    private int numSinglePolls;
+
+    public SupportPollingStrategyBatch(Map<MultiKey<Object>, List<EventBean>> results, int pollBatchSize) {
+        super(results);
+        this.pollBatchSize = pollBatchSize;
+    }
+
+    public int getPollBatchSize() {
+        return pollBatchSize;
+    }
+
+    public List<EventBean> poll(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext) {
+        numSinglePolls++;
+        return super.poll(lookupValues, exprEvaluatorContext);
+    }
+
+    public List<EventBean>[] pollBatch(List<Object[]> lookupValuesPerKey, ExprEvaluatorContext exprEvaluatorContext) {
+        batchSizes.add(lookupValuesPerKey.size());
+        List<EventBean>[] results = (List<EventBean>[]) new List[lookupValuesPerKey.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = super.poll(lookupValuesPerKey.get(i), exprEvaluatorContext);
+        }
+        return results;
+    }
+
+    public List<Integer> getBatchSizesReset() {
+        List<Integer> sizes = new ArrayList<Integer>(batchSizes);
+        batchSizes.clear();
+        return sizes;
+    }
+
+    public int getNumSinglePollsReset() {
+        int num = numSinglePolls;
+        numSinglePolls = 0;
+        return num;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.core.support.SupportSchedulingServiceImpl;
+import com.espertech.esper.epl.expression.time.TimeAbacusMilliseconds;
+import com.espertech.esper.epl.join.table.EventTable;
+import com.espertech.esper.epl.join.table.UnindexedEventTableImpl;
+import com.espertech.esper.schedule.SchedulingServiceImpl;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+public class TestDataCacheConcurrentImpl extends TestCase {
+    private SchedulingServiceImpl scheduler;
+    private EventTable[] lists = new EventTable[10];
+
+    public void setUp() {
+        scheduler = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new UnindexedEventTableImpl(0);
+        }
+    }
+
+    public void testGetCounters() {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(100, 0, 4, true, scheduler, 1, null, TimeAbacusMilliseconds.INSTANCE);
+        assertTrue(cache.isActive());
+        assertNull(cache.getCached(make("a"), 1));
+
+        cache.put(make("a"), 1, new EventTable[]{lists[0]});
+        cache.put(make("b"), 1, new EventTable[]{lists[1]});
+        assertSame(lists[0], cache.getCached(make("a"), 1)[0]);
+        assertSame(lists[1], cache.getCached(make("b"), 1)[0]);
+        assertSame(lists[0], cache.getCached(make("a"), 1)[0]);
+        assertNull(cache.getCached(make("c"), 1));
+
+        assertEquals(3, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(2, cache.getSize());
+        assertEquals(2, cache.getNumRows());
+
+        cache.destroy();
+        assertEquals(0, cache.getSize());
+        assertNull(cache.getCached(make("a"), 1));
+    }
+
+    public void testBoundByRows() {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(10, 0, 1, false, scheduler, 1, null, TimeAbacusMilliseconds.INSTANCE);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put(make("k" + i), 1, new EventTable[]{lists[i]});
+        }
+        assertEquals(10, cache.getSize());
+        assertEquals(0, cache.getEvictionCount());
+
+        cache.put(make("k10"), 1, new EventTable[]{lists[0]});
+        assertEquals(10, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.getCached(make("k0"), 1));
+        assertSame(lists[1], cache.getCached(make("k1"), 1)[0]);
+
+        // weight is the number of rows
+        cache.destroy();
+        cache.put(make("x"), 1, new EventTable[]{makeRows(5)});
+        assertEquals(5, cache.getNumRows());
+        cache.put(make("y"), 1, new EventTable[]{makeRows(5)});
+        assertEquals(5, cache.getNumRows());
+        assertNull(cache.getCached(make("x"), 1));
+        assertNotNull(cache.getCached(make("y"), 1));
+
+        // too many rows to cache
+        cache.put(make("z"), 1, new EventTable[]{makeRows(11)});
+        assertNull(cache.getCached(make("z"), 1));
+        assertNotNull(cache.getCached(make("y"), 1));
+    }
+
+    public void testAdmission() {
+        // one segment with a window of one row and a main area of two rows
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(3, 0, 1, true, scheduler, 1, null, TimeAbacusMilliseconds.INSTANCE);
+        cache.put(make("a"), 1, new EventTable[]{lists[0]});
+        cache.put(make("b"), 1, new EventTable[]{lists[1]});
+        cache.put(make("c"), 1, new EventTable[]{lists[2]});
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(cache.getCached(make("a"), 1));
+            assertNotNull(cache.getCached(make("b"), 1));
+        }
+
+        // infrequently-used keys do not evict frequently-used keys
+        cache.put(make("d"), 1, new EventTable[]{lists[3]});
+        cache.put(make("e"), 1, new EventTable[]{lists[4]});
+        assertNull(cache.getCached(make("c"), 1));
+        assertNull(cache.getCached(make("d"), 1));
+        assertSame(lists[0], cache.getCached(make("a"), 1)[0]);
+        assertSame(lists[1], cache.getCached(make("b"), 1)[0]);
+        assertSame(lists[4], cache.getCached(make("e"), 1)[0]);
+        assertEquals(2, cache.getEvictionCount());
+
+        // without admission the least-recently-used key is evicted
+        cache = new DataCacheConcurrentImpl(3, 0, 1, false, scheduler, 1, null, TimeAbacusMilliseconds.INSTANCE);
+        cache.put(make("a"), 1, new EventTable[]{lists[0]});
+        cache.put(make("b"), 1, new EventTable[]{lists[1]});
+        cache.put(make("c"), 1, new EventTable[]{lists[2]});
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(cache.getCached(make("a"), 1));
+            assertNotNull(cache.getCached(make("b"), 1));
+        }
+        cache.put(make("d"), 1, new EventTable[]{lists[3]});
+        assertNull(cache.getCached(make("a"), 1));
+        assertSame(lists[2], cache.getCached(make("c"), 1)[0]);
+    }
+
+    public void testExpiry() {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(100, 10, 4, true, scheduler, 1, null, TimeAbacusMilliseconds.INSTANCE);
+
+        scheduler.setTime(1000);
+        cache.put(make("a"), 1, new EventTable[]{lists[0]});
+        scheduler.setTime(5000);
+        cache.put(make("b"), 1, new EventTable[]{lists[1]});
+
+        scheduler.setTime(10999);
+        assertSame(lists[0], cache.getCached(make("a"), 1)[0]);
+
+        scheduler.setTime(11000);
+        assertNull(cache.getCached(make("a"), 1));
+        assertSame(lists[1], cache.getCached(make("b"), 1)[0]);
+        assertEquals(1, cache.getExpiredCount());
+        assertEquals(1, cache.getSize());
+
+        scheduler.setTime(15000);
+        assertNull(cache.getCached(make("b"), 1));
+        assertEquals(2, cache.getExpiredCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    public void testPurge() {
+        DataCacheConcurrentImpl cache = new DataCacheConcurrentImpl(100, 10, 4, true, scheduler, 1, null, TimeAbacusMilliseconds.INSTANCE);
+
+        scheduler.setTime(1000);
+        cache.put(make("a"), 1, new EventTable[]{lists[0]});   // purge scheduled at 11 sec
+        scheduler.setTime(5000);
+        cache.put(make("b"), 1, new EventTable[]{makeRows(3)});
+
+        // expired entries are removed without a lookup
+        scheduler.setTime(11000);
+        SupportSchedulingServiceImpl.evaluateSchedule(scheduler);
+        assertEquals(1, cache.getSize());
+        assertEquals(3, cache.getNumRows());
+        assertEquals(1, cache.getExpiredCount());
+
+        // the next put schedules the next purge
+        scheduler.setTime(12000);
+        cache.put(make("c"), 1, new EventTable[]{lists[2]});   // purge scheduled at 22 sec
+        scheduler.setTime(22000);
+        SupportSchedulingServiceImpl.evaluateSchedule(scheduler);
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getNumRows());
+        assertEquals(3, cache.getExpiredCount());
+    }
+
+    public void testFrequencySketch() {
+        DataCacheConcurrentImpl.FrequencySketch sketch = new DataCacheConcurrentImpl.FrequencySketch(16);
+        assertEquals(0, sketch.frequency(100));
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(100);
+        }
+        assertEquals(15, sketch.frequency(100));
+
+        // counters are halved after the sample size
+        for (int i = 0; i < 160; i++) {
+            sketch.increment(i * 7919);
+        }
+        assertTrue(sketch.frequency(100) < 15);
+    }
+
+    private EventTable makeRows(int count) {
+        UnindexedEventTableImpl table = new UnindexedEventTableImpl(0);
+        for (int i = 0; i < count; i++) {
+            table.add(SupportEventBeanFactory.createObject(new Object()), null);
+        }
+        return table;
+    }
+
+    private Object[] make(String key) {
+        return new Object[]{key};
+    }
+}
@@ -75,6 +75,41 @@ public class TestDatabasePollingViewable extends TestCase {
         assertTrue(resultRows[1][0].isEmpty());
     }
 
+    public void testPollBatch() throws Exception {
+        List<String> inputProperties = Arrays.asList(new String[]{"s0.intPrimitive"});
+        EventType resultEventType = SupportEventAdapterService.getService().createAnonymousMapType("testbatch", Collections.<String, Object>singletonMap("myvarchar", String.class), true);
+
+        Map<MultiKey<Object>, List<EventBean>> pollResults = new HashMap<MultiKey<Object>, List<EventBean>>();
+        pollResults.put(new MultiKey<Object>(new Object[]{-1}), Collections.singletonList(makeEvent(0)));
+        pollResults.put(new MultiKey<Object>(new Object[]{500}), new LinkedList<EventBean>());
+        SupportPollingStrategyBatch strategy = new SupportPollingStrategyBatch(pollResults, 2);
+
+        DatabasePollingViewable viewable = new DatabasePollingViewable(1, inputProperties, strategy, new DataCacheLRUImpl(100), resultEventType);
+        Map<Integer, List<ExprNode>> sqlParameters = new HashMap<Integer, List<ExprNode>>();
+        sqlParameters.put(1, Collections.singletonList((ExprNode) new ExprIdentNodeImpl("intPrimitive", "s0")));
+        viewable.validate(SupportEngineImportServiceFactory.make(), new SupportStreamTypeSvc3Stream(), null, null, null, null, null, null, null, sqlParameters, null, SupportStatementContextFactory.makeContext());
+
+        // distinct keys are polled in batches of two, the last key by itself
+        EventBean[][] input = new EventBean[][]{
+            {makeEvent(-1), null}, {makeEvent(500), null}, {makeEvent(-1), null}, {makeEvent(7), null}, {makeEvent(8), null}, {makeEvent(9), null}};
+        EventTable[][] resultRows = viewable.poll(input, indexingStrategy, null);
+        assertEquals(6, resultRows.length);
+        assertEquals(1, (int) resultRows[0][0].getNumberOfEvents());
+        assertSame(resultRows[0], resultRows[2]);
+        assertTrue(resultRows[1][0].isEmpty());
+        assertNotNull(resultRows[3]);
+        assertNotNull(resultRows[5]);
+        assertEquals(Arrays.asList(2, 2), strategy.getBatchSizesReset());
+        assertEquals(1, strategy.getNumSinglePollsReset());
+
+        // cached keys are not polled
+        resultRows = viewable.poll(new EventBean[][]{{makeEvent(500), null}, {makeEvent(-1), null}}, indexingStrategy, null);
+        assertTrue(resultRows[0][0].isEmpty());
+        assertEquals(1, (int) resultRows[1][0].getNumberOfEvents());
+        assertTrue(strategy.getBatchSizesReset().isEmpty());
+        assertEquals(0, strategy.getNumSinglePollsReset());
+    }
+
     private EventBean makeEvent(int intPrimitive) {
         SupportBean bean = new SupportBean();
         bean.setIntPrimitive(intPrimitive);
@@ -66,6 +66,21 @@ public class TestPropertyIndexedEventTable extends TestCase {
         assertTrue(result.contains(testEvents[0]));
     }
 
+    public void testFindManyProperties() {
+        PropertyIndexedEventTableFactory factory = new PropertyIndexedEventTableFactory(1, eventType, new String[]{"intPrimitive", "theString", "longPrimitive", "boolPrimitive"}, false, null);
+        PropertyIndexedEventTable indexMany = (PropertyIndexedEventTable) factory.makeEventTables(null, null)[0];
+        indexMany.add(testEvents, null);
+
+        Set<EventBean> result = indexMany.lookup(new Object[]{1, "b", 0L, false});
+        assertEquals(2, result.size());
+        assertTrue(result.contains(testEvents[1]));
+        assertTrue(result.contains(testEvents[4]));
+        assertNull(indexMany.lookup(new Object[]{1, "b", 0L, true}));
+
+        indexMany.remove(new EventBean[]{testEvents[1]}, null);
+        assertEquals(1, indexMany.lookup(new Object[]{1, "b", 0L, false}).size());
+    }
+
     public void testAdd() {
         // Add event without these properties should fail
         EventBean theEvent = SupportEventBeanFactory.createObject(new SupportBean_A("d"));
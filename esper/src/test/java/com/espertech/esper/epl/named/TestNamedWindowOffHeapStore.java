@@ -0,0 +1,180 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.event.DecodingEventBean;
+import com.espertech.esper.event.EventTypeMetadata;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.event.MappedEventBean;
+import com.espertech.esper.event.arr.ObjectArrayEventBean;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestNamedWindowOffHeapStore extends TestCase {
+    private ObjectArrayEventType oaType;
+    private NamedWindowOffHeapStore store;
+
+    public void setUp() throws Exception {
+        Map<String, Object> typeRep = new LinkedHashMap<String, Object>();
+        typeRep.put("theString", String.class);
+        typeRep.put("intPrimitive", int.class);
+        typeRep.put("longBoxed", Long.class);
+        typeRep.put("doublePrimitive", double.class);
+        typeRep.put("boolBoxed", Boolean.class);
+        typeRep.put("charPrimitive", char.class);
+        EventTypeMetadata metadata = EventTypeMetadata.createNonPojoApplicationType(EventTypeMetadata.ApplicationType.OBJECTARR, "testtype", true, true, true, false, false);
+        oaType = new ObjectArrayEventType(metadata, "testtype", 1, SupportEventAdapterService.getService(), typeRep, null, null, null);
+        store = new NamedWindowOffHeapStore(NamedWindowOffHeapLayout.make(oaType), 64);
+    }
+
+    public void testObjectArrayRoundTrip() {
+        Object[][] rows = new Object[][]{
+            {"E1", 10, 100L, 1.5d, true, 'a'},
+            {null, -1, null, 0d, null, 'z'},
+            {"\u00e4\u00f6\u00fc", Integer.MAX_VALUE, Long.MIN_VALUE, Double.NaN, false, '\u00df'},
+        };
+        EventBean[] events = new EventBean[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            events[i] = new ObjectArrayEventBean(rows[i], oaType);
+        }
+
+        EventBean[] stored = store.store(events);
+        assertEquals(3, stored.length);
+        for (int i = 0; i < rows.length; i++) {
+            assertTrue(stored[i] instanceof NamedWindowOffHeapObjectArrayEventBean);
+            assertSame(oaType, stored[i].getEventType());
+            assertTrue(Arrays.equals(rows[i], ((ObjectArrayBackedEventBean) stored[i]).getProperties()));
+            assertEquals(rows[i][0], stored[i].get("theString"));
+            assertEquals(rows[i][1], stored[i].get("intPrimitive"));
+        }
+        assertEquals(3, store.getNumRows());
+
+        // flyweights are not stored again
+        assertSame(stored[0], store.store(new EventBean[]{stored[0]})[0]);
+    }
+
+    public void testSegments() {
+        EventBean[] stored = new EventBean[10];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = store.store(new EventBean[]{new ObjectArrayEventBean(new Object[]{"E" + i, i, (long) i, (double) i, true, 'x'}, oaType)})[0];
+        }
+        assertTrue(store.getNumSegments() > 1);
+        long allocated = store.getAllocatedBytes();
+
+        // releasing all rows of the first segment returns that segment
+        NamedWindowOffHeapSegment first = ((NamedWindowOffHeapEventBean) stored[0]).getSegment();
+        int numFirst = first.getLiveRows();
+        EventBean[] removed = Arrays.copyOf(stored, numFirst);
+        store.release(removed);
+        assertEquals(10 - numFirst, store.getNumRows());
+        assertEquals(allocated - first.getCapacity(), store.getAllocatedBytes());
+
+        // removed rows remain readable
+        assertEquals("E0", removed[0].get("theString"));
+        assertEquals(9, stored[9].get("intPrimitive"));
+
+        // rows larger than a segment receive a segment sized to the row
+        char[] large = new char[200];
+        Arrays.fill(large, 'a');
+        EventBean largeEvent = store.store(new EventBean[]{new ObjectArrayEventBean(new Object[]{new String(large), 1, 1L, 1d, true, 'x'}, oaType)})[0];
+        assertEquals(new String(large), largeEvent.get("theString"));
+    }
+
+    public void testCompactSparseSegment() throws Exception {
+        store = new NamedWindowOffHeapStore(NamedWindowOffHeapLayout.make(oaType), 256);
+        EventBean[] stored = new EventBean[20];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = store.store(new EventBean[]{new ObjectArrayEventBean(new Object[]{"E" + i, i, (long) i, (double) i, true, 'x'}, oaType)})[0];
+        }
+        NamedWindowOffHeapSegment first = ((NamedWindowOffHeapEventBean) stored[0]).getSegment();
+        int numFirst = first.getLiveRows();
+        assertTrue(numFirst > 1);
+        long allocated = store.getAllocatedBytes();
+
+        // removing all but one row of the first segment relocates the remaining row to the current segment
+        EventBean[] removed = Arrays.copyOf(stored, numFirst - 1);
+        store.release(removed);
+        assertEquals(1, store.getNumRelocatedRows());
+        assertEquals(0, first.getLiveRows());
+        assertEquals(allocated - first.getCapacity(), store.getAllocatedBytes());
+        EventBean relocated = stored[numFirst - 1];
+        assertNotSame(first, ((NamedWindowOffHeapEventBean) relocated).getSegment());
+        assertEquals("E" + (numFirst - 1), relocated.get("theString"));
+        assertTrue(Arrays.equals(new Object[]{"E" + (numFirst - 1), numFirst - 1, (long) (numFirst - 1), (double) (numFirst - 1), true, 'x'},
+                ((ObjectArrayBackedEventBean) relocated).getProperties()));
+
+        // removed rows remain readable, and a relocated row is released from its new segment
+        assertEquals("E0", removed[0].get("theString"));
+        assertEquals(0, removed[0].get("intPrimitive"));
+        store.release(new EventBean[]{relocated});
+        store.release(new EventBean[]{relocated});
+        assertEquals(stored.length - numFirst, store.getNumRows());
+    }
+
+    public void testDecodeSingleProperty() {
+        EventBean stored = store.store(new EventBean[]{new ObjectArrayEventBean(new Object[]{"E1", 10, null, 1.5d, true, 'a'}, oaType)})[0];
+        DecodingEventBean decoding = (DecodingEventBean) stored;
+        assertEquals("E1", decoding.getDecodedPropertyAt(oaType.getPropertiesIndexes().get("theString")));
+        assertNull(decoding.getDecodedPropertyAt(oaType.getPropertiesIndexes().get("longBoxed")));
+        assertEquals(1.5d, oaType.getGetter("doublePrimitive").get(stored));
+        assertEquals('a', decoding.getDecodedProperty("charPrimitive"));
+        assertNull(decoding.getDecodedProperty("dummy"));
+    }
+
+    public void testMap() throws Exception {
+        Map<String, Object> typeRep = new HashMap<String, Object>();
+        typeRep.put("p0", String.class);
+        typeRep.put("p1", float.class);
+        typeRep.put("p2", short.class);
+        EventType mapType = SupportEventTypeFactory.createMapType(typeRep);
+        NamedWindowOffHeapStore mapStore = new NamedWindowOffHeapStore(NamedWindowOffHeapLayout.make(mapType), NamedWindowOffHeapStore.SEGMENT_SIZE);
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("p0", "x");
+        values.put("p1", 1.5f);
+        values.put("p2", null);
+        EventBean stored = mapStore.store(new EventBean[]{SupportEventAdapterService.getService().adapterForTypedMap(values, mapType)})[0];
+        assertTrue(stored instanceof NamedWindowOffHeapMapEventBean);
+        assertEquals(values, ((MappedEventBean) stored).getProperties());
+        assertEquals(1.5f, stored.get("p1"));
+        assertEquals("x", mapType.getGetter("p0").get(stored));
+        assertNull(mapType.getGetter("p2").get(stored));
+    }
+
+    public void testInvalid() {
+        try {
+            NamedWindowOffHeapLayout.make(SupportEventTypeFactory.createBeanType(SupportBean.class));
+            fail();
+        } catch (ExprValidationException ex) {
+            assertEquals("Off-heap storage requires a Map or object-array event type for the named window", ex.getMessage());
+        }
+
+        Map<String, Object> typeRep = new HashMap<String, Object>();
+        typeRep.put("p0", SupportBean.class);
+        try {
+            NamedWindowOffHeapLayout.make(SupportEventTypeFactory.createMapType(typeRep));
+            fail();
+        } catch (ExprValidationException ex) {
+            assertTrue(ex.getMessage().startsWith("Off-heap storage does not support property 'p0'"));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.parse;
+
+import com.espertech.esper.core.service.EPAdministratorHelper;
+import junit.framework.TestCase;
+
+public class TestParseResultCache extends TestCase {
+    public void testLRU() {
+        ParseResultCache cache = new ParseResultCache(2);
+        ParseResult one = makeResult();
+        ParseResult two = makeResult();
+        ParseResult three = makeResult();
+
+        cache.put("a", one);
+        cache.put("b", two);
+        assertSame(one, cache.get("a"));    // "b" becomes eldest
+        cache.put("c", three);
+
+        assertSame(one, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertSame(three, cache.get("c"));
+    }
+
+    public void testDisabled() {
+        ParseResultCache cache = new ParseResultCache(0);
+        cache.put("a", makeResult());
+        assertNull(cache.get("a"));
+    }
+
+    public void testPinned() {
+        ParseResultCache cache = new ParseResultCache(0);
+        ParseResult one = makeResult();
+        ParseResult two = makeResult();
+
+        cache.pin("a", one);
+        assertSame(one, cache.get("a"));
+
+        cache.unpin("a", two);
+        assertSame(one, cache.get("a"));
+
+        cache.unpin("a", one);
+        assertNull(cache.get("a"));
+    }
+
+    public void testCopyForWalk() {
+        ParseResult result = EPAdministratorHelper.parseEPL("expression double js:f(num) [ num * 2 ] select f(1) from SupportBean", "", true);
+        assertEquals(1, result.getScripts().size());
+
+        ParseResult copyOne = result.copyForWalk();
+        ParseResult copyTwo = result.copyForWalk();
+        assertSame(result.getTree(), copyOne.getTree());
+        assertNotSame(result.getTokenStream(), copyOne.getTokenStream());
+        assertEquals(result.getTokenStream().getTokens(), copyOne.getTokenStream().getTokens());
+
+        // walking removes the scripts, other copies keep theirs
+        copyOne.getScripts().remove(0);
+        assertEquals(1, copyTwo.getScripts().size());
+        assertEquals(1, result.getScripts().size());
+
+        // positioning one token stream does not position others
+        copyOne.getTokenStream().consume();
+        assertEquals("expression", copyTwo.getTokenStream().LT(1).getText());
+    }
+
+    private static ParseResult makeResult() {
+        return new ParseResult(null, null, null, null);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.bean.SupportBeanComplexProps;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Method;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class TestLambdaPropertyGetter extends TestCase {
+    private EventBean unitTestBean;
+    private SupportBeanComplexProps complexBean;
+    private EventBean complexEvent;
+
+    public void setUp() {
+        SupportBean testEvent = new SupportBean();
+        testEvent.setIntPrimitive(10);
+        testEvent.setTheString("a");
+        testEvent.setDoubleBoxed(null);
+        unitTestBean = SupportEventBeanFactory.createObject(testEvent);
+
+        complexBean = SupportBeanComplexProps.makeDefaultBean();
+        complexEvent = SupportEventBeanFactory.createObject(complexBean);
+    }
+
+    public void testGetter() throws Exception {
+        LambdaPropertyGetter getter = makeGetter(SupportBean.class, "getIntPrimitive");
+        assertEquals(10, getter.get(unitTestBean));
+
+        getter = makeGetter(SupportBean.class, "getTheString");
+        assertEquals("a", getter.get(unitTestBean));
+
+        getter = makeGetter(SupportBean.class, "getDoubleBoxed");
+        assertEquals(null, getter.get(unitTestBean));
+
+        try {
+            EventBean eventBean = SupportEventBeanFactory.createObject(new Object());
+            getter.get(eventBean);
+            fail();
+        } catch (PropertyAccessException ex) {
+            // expected
+        }
+    }
+
+    public void testKeyedGetter() throws Exception {
+        Method method = SupportBeanComplexProps.class.getMethod("getIndexed", int.class);
+        BiFunction<Object, Object, Object> accessor = LambdaAccessorFactory.makeKeyedGetter(method);
+        KeyedLambdaPropertyGetter getter = new KeyedLambdaPropertyGetter(method, accessor, 1, SupportEventAdapterService.getService());
+        assertEquals(2, getter.get(complexEvent));
+
+        method = SupportBeanComplexProps.class.getMethod("getMapped", String.class);
+        accessor = LambdaAccessorFactory.makeKeyedGetter(method);
+        getter = new KeyedLambdaPropertyGetter(method, accessor, "keyOne", SupportEventAdapterService.getService());
+        assertEquals("valueOne", getter.get(complexEvent));
+    }
+
+    public void testArrayGetter() throws Exception {
+        Method method = SupportBeanComplexProps.class.getMethod("getArrayProperty");
+        Function<Object, Object> accessor = LambdaAccessorFactory.makeGetter(method);
+        ArrayLambdaPropertyGetter getter = new ArrayLambdaPropertyGetter(method, accessor, 0, SupportEventAdapterService.getService());
+        assertEquals(complexBean.getArrayProperty()[0], getter.get(complexEvent));
+
+        getter = new ArrayLambdaPropertyGetter(method, accessor, Integer.MAX_VALUE, SupportEventAdapterService.getService());
+        assertNull(getter.get(complexEvent));
+    }
+
+    public void testNotBindable() throws Exception {
+        // non-public class
+        Method method = NonPublicBean.class.getMethod("getValue");
+        assertNull(LambdaAccessorFactory.makeGetter(method));
+
+        // static method
+        method = SupportBeanComplexProps.class.getMethod("makeDefaultBean");
+        assertNull(LambdaAccessorFactory.makeGetter(method));
+    }
+
+    public void testConstructor() {
+        Supplier<Object> constructor = LambdaAccessorFactory.makeConstructor(SupportBean.class);
+        Object first = constructor.get();
+        assertTrue(first instanceof SupportBean);
+        assertNotSame(first, constructor.get());
+
+        assertNull(LambdaAccessorFactory.makeConstructor(NonPublicBean.class));
+    }
+
+    private LambdaPropertyGetter makeGetter(Class clazz, String methodName) throws Exception {
+        Method method = clazz.getMethod(methodName);
+        Function<Object, Object> accessor = LambdaAccessorFactory.makeGetter(method);
+        assertNotNull(accessor);
+        return new LambdaPropertyGetter(method, accessor, SupportEventAdapterService.getService());
+    }
+
+    static class NonPublicBean {
+        public String getValue() {
+            return "x";
+        }
+    }
+}
@@ -85,7 +85,7 @@ public class TestFilterCallbackSetNode extends TestCase {
         matches.clear();
 
         // Create, add and populate an index node
-        FilterParamIndexBase index = new FilterParamIndexEquals(makeLookupable("myString", eventBean.getEventType()), new ReentrantReadWriteLock());
+        FilterParamIndexBase index = new FilterParamIndexEquals(makeLookupable("myString", eventBean.getEventType()), new ReentrantReadWriteLock(), false);
         testNode.add(index);
         index.put("DepositEvent_1", testEvaluator);
 
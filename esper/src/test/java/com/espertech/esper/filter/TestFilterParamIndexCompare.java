@@ -126,7 +126,7 @@ public class TestFilterParamIndexCompare extends TestCase {
     }
 
     private FilterParamIndexCompare makeOne(String field, FilterOperator op) {
-        return new FilterParamIndexCompare(makeLookupable(field), new ReentrantReadWriteLock(), op);
+        return new FilterParamIndexCompare(makeLookupable(field), new ReentrantReadWriteLock(), op, false);
     }
 
     private void verifyDoublePrimitive(FilterParamIndexBase index, double testValue, int numExpected) {
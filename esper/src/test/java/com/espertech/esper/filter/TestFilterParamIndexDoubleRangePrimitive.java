@@ -0,0 +1,140 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.filter.SupportEventEvaluator;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterParamIndexDoubleRangePrimitive extends TestCase {
+    private SupportEventEvaluator testEvaluator;
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<FilterHandle> matchesList;
+
+    public void setUp() {
+        testEvaluator = new SupportEventEvaluator();
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        matchesList = new LinkedList<FilterHandle>();
+    }
+
+    public void testPutGetRemove() {
+        runAssertionPutGetRemove(true);
+        runAssertionPutGetRemove(false);
+    }
+
+    private void runAssertionPutGetRemove(boolean copyOnWrite) {
+        FilterParamIndexDoubleRangePrimitive index = makeOne("intPrimitive", FilterOperator.RANGE_CLOSED, copyOnWrite);
+        DoubleRange range = new DoubleRange(10d, 20d);
+        DoubleRange rangeNull = new DoubleRange(null, 20d);
+
+        index.put(range, testEvaluator);
+        index.put(new DoubleRange(10d, 20d), testEvaluator);
+        index.put(rangeNull, testEvaluator);
+        assertEquals(1, index.sizeExpensive());
+        assertEquals(testEvaluator, index.get(new DoubleRange(10d, 20d)));
+        assertEquals(testEvaluator, index.get(rangeNull));
+        assertNull(index.get(new DoubleRange(10d, 21d)));
+
+        verifyIntPrimitive(index, 9, 0);
+        verifyIntPrimitive(index, 10, 1);
+        verifyIntPrimitive(index, 20, 1);
+        verifyIntPrimitive(index, 21, 0);
+
+        index.remove(range);
+        index.remove(range);
+        index.remove(rangeNull);
+        assertNull(index.get(range));
+        assertNull(index.get(rangeNull));
+        assertTrue(index.isEmpty());
+        verifyIntPrimitive(index, 10, 0);
+
+        try {
+            index.put("a", testEvaluator);
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // Expected
+        }
+    }
+
+    public void testCompareTreeMap() {
+        for (FilterOperator operator : new FilterOperator[]{FilterOperator.RANGE_OPEN, FilterOperator.RANGE_CLOSED, FilterOperator.RANGE_HALF_OPEN, FilterOperator.RANGE_HALF_CLOSED}) {
+            runAssertionCompareTreeMap(operator, true);
+            runAssertionCompareTreeMap(operator, false);
+        }
+    }
+
+    private void runAssertionCompareTreeMap(FilterOperator operator, boolean copyOnWrite) {
+        Random random = new Random(1);
+        SupportEventEvaluator[] evaluators = new SupportEventEvaluator[200];
+        DoubleRange[] ranges = new DoubleRange[evaluators.length];
+        for (int i = 0; i < evaluators.length; i++) {
+            evaluators[i] = new SupportEventEvaluator();
+            double min = random.nextInt(100);
+            ranges[i] = new DoubleRange(min, min + random.nextInt(i % 10 == 0 ? 50 : 5));
+        }
+        FilterParamIndexDoubleRangePrimitive index = makeOne("doublePrimitive", operator, copyOnWrite);
+        FilterParamIndexDoubleRange expected = new FilterParamIndexDoubleRange(makeLookupable("doublePrimitive"), new ReentrantReadWriteLock(), operator, false);
+
+        for (int i = 0; i < 5000; i++) {
+            int num = random.nextInt(ranges.length);
+            if (random.nextInt(3) > 0) {
+                index.put(ranges[num], evaluators[num]);
+                expected.put(ranges[num], evaluators[num]);
+            } else {
+                index.remove(ranges[num]);
+                expected.remove(ranges[num]);
+            }
+            assertEquals(expected.sizeExpensive(), index.sizeExpensive());
+            assertEquals(expected.get(ranges[num]), index.get(ranges[num]));
+
+            testBean.setDoublePrimitive(random.nextInt(200) / 2d);
+            expected.matchEvent(testEventBean, matchesList);
+            int[] counts = getAndResetCounts(evaluators);
+            index.matchEvent(testEventBean, matchesList);
+            assertTrue(Arrays.equals(counts, getAndResetCounts(evaluators)));
+        }
+    }
+
+    private int[] getAndResetCounts(SupportEventEvaluator[] evaluators) {
+        int[] counts = new int[evaluators.length];
+        for (int i = 0; i < evaluators.length; i++) {
+            counts[i] = evaluators[i].getAndResetCountInvoked();
+        }
+        return counts;
+    }
+
+    private void verifyIntPrimitive(FilterParamIndexBase index, int testValue, int numExpected) {
+        testBean.setIntPrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private FilterParamIndexDoubleRangePrimitive makeOne(String fieldName, FilterOperator operatorType, boolean copyOnWrite) {
+        return new FilterParamIndexDoubleRangePrimitive(makeLookupable(fieldName), new ReentrantReadWriteLock(), operatorType, copyOnWrite);
+    }
+
+    private FilterSpecLookupable makeLookupable(String fieldName) {
+        return new FilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName), false);
+    }
+}
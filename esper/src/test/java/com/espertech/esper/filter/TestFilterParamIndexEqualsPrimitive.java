@@ -0,0 +1,168 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.filter.SupportEventEvaluator;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterParamIndexEqualsPrimitive extends TestCase {
+    private SupportEventEvaluator testEvaluator;
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<FilterHandle> matchesList;
+
+    public void setUp() {
+        testEvaluator = new SupportEventEvaluator();
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        matchesList = new LinkedList<FilterHandle>();
+    }
+
+    public void testEquals() {
+        for (boolean copyOnWrite : new boolean[]{false, true}) {
+            FilterParamIndexEqualsPrimitive index = new FilterParamIndexEqualsPrimitive(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), copyOnWrite);
+
+            index.put(1L, testEvaluator);
+            index.put(20L, testEvaluator);
+            index.put(5, testEvaluator);     // not of the property type, does not match
+            index.put(null, testEvaluator);
+
+            verifyLongBoxed(index, 10L, 0);
+            verifyLongBoxed(index, 1L, 1);
+            verifyLongBoxed(index, 20L, 1);
+            verifyLongBoxed(index, 5L, 0);
+            verifyLongBoxed(index, null, 0);
+            assertEquals(4, index.sizeExpensive());
+
+            assertEquals(testEvaluator, index.get(1L));
+            assertEquals(testEvaluator, index.get(5));
+            assertNull(index.get(5L));
+            index.remove(1L);
+            index.remove(1L);
+            index.remove(5);
+            index.remove(null);
+            assertNull(index.get(1L));
+            assertNull(index.get(5));
+            assertFalse(index.isEmpty());
+            index.remove(20L);
+            assertTrue(index.isEmpty());
+        }
+    }
+
+    public void testEqualsFloatingPoint() {
+        FilterParamIndexEqualsPrimitive index = new FilterParamIndexEqualsPrimitive(makeLookupable("doublePrimitive"), new ReentrantReadWriteLock(), false);
+
+        index.put(1.5d, testEvaluator);
+        index.put(Double.NaN, testEvaluator);
+        index.put(0d, testEvaluator);
+
+        verifyDoublePrimitive(index, 1.5d, 1);
+        verifyDoublePrimitive(index, 1.50001d, 0);
+        verifyDoublePrimitive(index, Double.NaN, 1);
+        verifyDoublePrimitive(index, 0d, 1);
+        verifyDoublePrimitive(index, -0d, 0);     // same as Double.equals
+    }
+
+    public void testNotEquals() {
+        for (boolean copyOnWrite : new boolean[]{false, true}) {
+            FilterParamIndexNotEqualsPrimitive index = new FilterParamIndexNotEqualsPrimitive(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), copyOnWrite);
+
+            index.put(1L, testEvaluator);
+            index.put(20L, testEvaluator);
+
+            verifyLongBoxed(index, 10L, 2);
+            verifyLongBoxed(index, 1L, 1);
+            verifyLongBoxed(index, 20L, 1);
+            verifyLongBoxed(index, null, 0);
+
+            index.put(5, testEvaluator);     // not of the property type, never equal
+            index.put(null, testEvaluator);  // null constant does not match
+            verifyLongBoxed(index, 5L, 3);
+
+            index.remove(20L);
+            index.remove(5);
+            verifyLongBoxed(index, 5L, 1);
+            assertEquals(testEvaluator, index.get(null));
+            assertNull(index.get(20L));
+        }
+    }
+
+    public void testCompareHashMap() {
+        Random random = new Random(1);
+        SupportEventEvaluator[] evaluators = new SupportEventEvaluator[50];
+        for (int i = 0; i < evaluators.length; i++) {
+            evaluators[i] = new SupportEventEvaluator();
+        }
+        FilterSpecLookupable lookupable = makeLookupable("intPrimitive");
+        FilterParamIndexLookupableBase[] primitive = new FilterParamIndexLookupableBase[]{
+            new FilterParamIndexEqualsPrimitive(lookupable, new ReentrantReadWriteLock(), false),
+            new FilterParamIndexNotEqualsPrimitive(lookupable, new ReentrantReadWriteLock(), true)};
+        FilterParamIndexLookupableBase[] expected = new FilterParamIndexLookupableBase[]{
+            new FilterParamIndexEquals(lookupable, new ReentrantReadWriteLock(), false),
+            new FilterParamIndexNotEquals(lookupable, new ReentrantReadWriteLock(), false)};
+
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(evaluators.length);
+            for (int index = 0; index < primitive.length; index++) {
+                if (random.nextBoolean()) {
+                    primitive[index].put(value, evaluators[value]);
+                    expected[index].put(value, evaluators[value]);
+                } else {
+                    primitive[index].remove(value);
+                    expected[index].remove(value);
+                }
+                assertEquals(expected[index].sizeExpensive(), primitive[index].sizeExpensive());
+
+                testBean.setIntPrimitive(random.nextInt(evaluators.length));
+                expected[index].matchEvent(testEventBean, matchesList);
+                int[] counts = getAndResetCounts(evaluators);
+                primitive[index].matchEvent(testEventBean, matchesList);
+                assertTrue(Arrays.equals(counts, getAndResetCounts(evaluators)));
+            }
+        }
+    }
+
+    private int[] getAndResetCounts(SupportEventEvaluator[] evaluators) {
+        int[] counts = new int[evaluators.length];
+        for (int i = 0; i < evaluators.length; i++) {
+            counts[i] = evaluators[i].getAndResetCountInvoked();
+        }
+        return counts;
+    }
+
+    private void verifyLongBoxed(FilterParamIndexBase index, Long testValue, int numExpected) {
+        testBean.setLongBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyDoublePrimitive(FilterParamIndexBase index, double testValue, int numExpected) {
+        testBean.setDoublePrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private FilterSpecLookupable makeLookupable(String fieldName) {
+        return new FilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName), false);
+    }
+}
@@ -38,7 +38,33 @@ public class TestFilterParamIndexIn extends TestCase {
     }
 
     public void testIndex() {
-        FilterParamIndexIn index = new FilterParamIndexIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock());
+        runAssertionIndex(new FilterParamIndexIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), false));
+        runAssertionIndex(new FilterParamIndexIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), true));
+        runAssertionIndex(new FilterParamIndexInPrimitive(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), false));
+        runAssertionIndex(new FilterParamIndexInPrimitive(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), true));
+    }
+
+    public void testIndexPrimitiveOtherType() {
+        FilterParamIndexInPrimitive index = new FilterParamIndexInPrimitive(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), false);
+        SupportEventEvaluator otherEvaluator = new SupportEventEvaluator();
+
+        // constants not of the property type do not match
+        MultiKeyUntyped inList = new MultiKeyUntyped(new Object[]{2L, 3, null});
+        index.put(inList, testEvaluator);
+        verify(index, 2L, 1);
+        verify(index, 3L, 0);
+        assertEquals(3, index.sizeExpensive());
+
+        // replacing the evaluator for the same list of constants
+        index.put(inList, otherEvaluator);
+        verify(index, 2L, 0);
+        assertEquals(1, otherEvaluator.getAndResetCountInvoked());
+
+        index.remove(inList);
+        assertTrue(index.isEmpty());
+    }
+
+    private void runAssertionIndex(FilterParamIndexLookupableBase index) {
         assertEquals(FilterOperator.IN_LIST_OF_VALUES, index.getFilterOperator());
 
         MultiKeyUntyped inList = new MultiKeyUntyped(new Object[]{2L, 5L});
@@ -42,7 +42,7 @@ public class TestFilterParamIndexNotIn extends TestCase {
     }
 
     public void testIndex() {
-        FilterParamIndexNotIn index = new FilterParamIndexNotIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock());
+        FilterParamIndexNotIn index = new FilterParamIndexNotIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), false);
         assertEquals(FilterOperator.NOT_IN_LIST_OF_VALUES, index.getFilterOperator());
 
         index.put(new MultiKeyUntyped(new Object[]{2L, 5L}), testEvaluators[0]);
@@ -82,6 +82,34 @@ public class TestFilterParamIndexNotIn extends TestCase {
         }
     }
 
+    public void testIndexCopyOnWrite() {
+        FilterParamIndexNotIn index = new FilterParamIndexNotIn(makeLookupable("longBoxed"), new ReentrantReadWriteLock(), true);
+
+        index.put(new MultiKeyUntyped(new Object[]{2L, 5L}), testEvaluators[0]);
+        index.put(new MultiKeyUntyped(new Object[]{3L, 4L, 5L}), testEvaluators[1]);
+        index.put(new MultiKeyUntyped(new Object[]{1L, 4L, 5L}), testEvaluators[2]);
+
+        verify(index, 0L, new boolean[]{true, true, true, false});
+        verify(index, 2L, new boolean[]{false, true, true, false});
+        verify(index, 4L, new boolean[]{true, false, false, false});
+
+        // same constants replace the evaluator
+        index.put(new MultiKeyUntyped(new Object[]{2L, 5L}), testEvaluators[3]);
+        assertEquals(testEvaluators[3], index.get(new MultiKeyUntyped(new Object[]{2L, 5L})));
+        verify(index, 0L, new boolean[]{false, true, true, true});
+        verify(index, 2L, new boolean[]{false, true, true, false});
+        verify(index, 5L, new boolean[]{false, false, false, false});
+
+        index.remove(new MultiKeyUntyped(new Object[]{3L, 4L, 5L}));
+        verify(index, 3L, new boolean[]{false, false, true, true});
+        verify(index, 4L, new boolean[]{false, false, false, true});
+
+        index.remove(new MultiKeyUntyped(new Object[]{2L, 5L}));
+        index.remove(new MultiKeyUntyped(new Object[]{1L, 4L, 5L}));
+        assertTrue(index.isEmpty());
+        verify(index, 0L, new boolean[]{false, false, false, false});
+    }
+
     private void verify(FilterParamIndexBase index, Long testValue, boolean[] expected) {
         testBean.setLongBoxed(testValue);
         index.matchEvent(testEventBean, matchesList);
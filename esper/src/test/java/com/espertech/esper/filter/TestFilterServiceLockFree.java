@@ -0,0 +1,191 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.event.bean.BeanEventBean;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import com.espertech.esper.supportunit.filter.SupportFilterHandle;
+import com.espertech.esper.supportunit.filter.SupportFilterSpecBuilder;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestFilterServiceLockFree extends TestCase {
+    private EventType eventType;
+    private FilterServiceLockFree filterService;
+
+    public void setUp() {
+        eventType = SupportEventTypeFactory.createBeanType(SupportBean.class);
+        filterService = new FilterServiceLockFree(false);
+    }
+
+    public void testAddRemove() {
+        SupportFilterHandle handleEquals = new SupportFilterHandle();
+        SupportFilterHandle handleRange = new SupportFilterHandle();
+        SupportFilterHandle handleNotIn = new SupportFilterHandle();
+        FilterServiceEntry entryEquals = filterService.add(makeFilter("theString", FilterOperator.EQUAL, "E1"), handleEquals);
+        FilterServiceEntry entryRange = filterService.add(makeFilter("theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.RANGE_CLOSED, 1, 5), handleRange);
+        FilterServiceEntry entryNotIn = filterService.add(makeFilter("intPrimitive", FilterOperator.NOT_IN_LIST_OF_VALUES, new MultiKeyUntyped(new Object[]{2, 3})), handleNotIn);
+
+        assertMatches(makeEvent("E1", 2), handleEquals, handleRange);
+        assertMatches(makeEvent("E1", 4), handleEquals, handleRange, handleNotIn);
+        assertMatches(makeEvent("E2", 4), handleNotIn);
+
+        filterService.remove(handleEquals, entryEquals);
+        assertMatches(makeEvent("E1", 4), handleRange, handleNotIn);
+
+        filterService.remove(handleRange, entryRange);
+        filterService.remove(handleNotIn, entryNotIn);
+        assertMatches(makeEvent("E1", 4));
+        assertEquals(5, filterService.getNumEventsEvaluated());
+    }
+
+    public void testEvaluateWhileWriteLocked() throws Exception {
+        SupportFilterHandle handle = new SupportFilterHandle();
+        filterService.add(makeFilter("theString", FilterOperator.EQUAL, "E1"), handle);
+
+        filterService.acquireWriteLock();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<List<FilterHandle>> future;
+        try {
+            future = executor.submit(new Callable<List<FilterHandle>>() {
+                public List<FilterHandle> call() throws Exception {
+                    List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                    filterService.evaluate(makeEvent("E1", 0), matches);
+                    return matches;
+                }
+            });
+            Thread.sleep(100);
+            assertFalse(future.isDone());
+
+            // the holder of the write lock evaluates as well
+            List<FilterHandle> matches = new ArrayList<FilterHandle>();
+            filterService.evaluate(makeEvent("E1", 0), matches);
+            assertEquals(1, matches.size());
+        } finally {
+            filterService.releaseWriteLock();
+        }
+        assertEquals(1, future.get(10, TimeUnit.SECONDS).size());
+        executor.shutdown();
+    }
+
+    public void testEvaluateRepeatedCountsOnce() {
+        SupportFilterHandle handle = new SupportFilterHandle();
+        filterService.add(makeFilter("theString", FilterOperator.EQUAL, "E1"), handle);
+
+        // the write lock is taken while the event is evaluated without locking, so the evaluation repeats under the read lock
+        SupportBean bean = new SupportBean("E1", 0) {
+            private boolean locked;
+
+            public String getTheString() {
+                if (!locked) {
+                    locked = true;
+                    filterService.acquireWriteLock();
+                    filterService.releaseWriteLock();
+                }
+                return super.getTheString();
+            }
+        };
+        assertMatches(new BeanEventBean(bean, eventType), handle);
+        assertEquals(1, filterService.getNumEventsEvaluated());
+    }
+
+    public void testEvaluateConcurrentChanges() throws Exception {
+        final SupportFilterHandle handleStable = new SupportFilterHandle();
+        filterService.add(makeFilter("theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.LESS, 100), handleStable);
+        final FilterValueSet[] changing = new FilterValueSet[]{
+            makeFilter("theString", FilterOperator.EQUAL, "E1"),
+            makeFilter("theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.GREATER, 0),
+            makeFilter("theString", FilterOperator.EQUAL, "E1", "intPrimitive", FilterOperator.IN_LIST_OF_VALUES, new MultiKeyUntyped(new Object[]{1, 2})),
+            makeFilter("intPrimitive", FilterOperator.NOT_IN_LIST_OF_VALUES, new MultiKeyUntyped(new Object[]{1, 2})),
+            makeFilter("theString", FilterOperator.EQUAL, "E2")
+        };
+        final AtomicBoolean done = new AtomicBoolean();
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        Future<Boolean> writer = executor.submit(new Callable<Boolean>() {
+            public Boolean call() throws Exception {
+                SupportFilterHandle[] handles = new SupportFilterHandle[changing.length];
+                FilterServiceEntry[] entries = new FilterServiceEntry[changing.length];
+                for (int i = 0; i < handles.length; i++) {
+                    handles[i] = new SupportFilterHandle();
+                }
+                for (int count = 0; count < 2000; count++) {
+                    for (int i = 0; i < changing.length; i++) {
+                        entries[i] = filterService.add(changing[i], handles[i]);
+                    }
+                    for (int i = 0; i < changing.length; i++) {
+                        filterService.remove(handles[i], entries[i]);
+                    }
+                }
+                done.set(true);
+                return true;
+            }
+        });
+
+        List<Future<Boolean>> readers = new ArrayList<Future<Boolean>>();
+        for (int i = 0; i < 2; i++) {
+            readers.add(executor.submit(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    EventBean theEvent = makeEvent("E1", 1);
+                    List<FilterHandle> matches = new ArrayList<FilterHandle>();
+                    while (!done.get()) {
+                        matches.clear();
+                        filterService.evaluate(theEvent, matches);
+                        int countStable = 0;
+                        for (FilterHandle match : matches) {
+                            if (match == handleStable) {
+                                countStable++;
+                            }
+                        }
+                        if (countStable != 1 || matches.size() > 4) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }));
+        }
+
+        assertTrue(writer.get(60, TimeUnit.SECONDS));
+        for (Future<Boolean> reader : readers) {
+            assertTrue(reader.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertMatches(makeEvent("E1", 1), handleStable);
+    }
+
+    private void assertMatches(EventBean theEvent, FilterHandle... expected) {
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        filterService.evaluate(theEvent, matches);
+        assertEquals(expected.length, matches.size());
+        for (FilterHandle handle : expected) {
+            assertTrue(matches.contains(handle));
+        }
+    }
+
+    private FilterValueSet makeFilter(Object... params) {
+        return SupportFilterSpecBuilder.build(eventType, params).getValueSet(null, null, null);
+    }
+
+    private EventBean makeEvent(String theString, int intPrimitive) {
+        return SupportEventBeanFactory.createObject(new SupportBean(theString, intPrimitive));
+    }
+}
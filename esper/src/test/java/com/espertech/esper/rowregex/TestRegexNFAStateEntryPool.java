@@ -0,0 +1,74 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.rowregex;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+public class TestRegexNFAStateEntryPool extends TestCase {
+    public void testRecycleClears() {
+        RegexNFAStateEntryPool pool = new RegexNFAStateEntryPool(2, 3, 1, 1);
+        EventBean e1 = SupportEventBeanFactory.createObject(new SupportBean("E1", 1));
+        EventBean e2 = SupportEventBeanFactory.createObject(new SupportBean("E2", 2));
+
+        RegexNFAStateEntry entry = pool.allocate(10, 100, null, "K1");
+        entry.getEventsPerStream()[0] = e1;
+        entry.getGreedycountPerState()[2] = 5;
+        entry.getOptionalMultiMatches()[0] = new MultimatchState(e1);
+        entry.getOptionalMultiMatches()[0].add(e2);
+        entry.setMatchEndEventSeqNo(12);
+        RegexNFAStateEntry other = pool.allocate(11, 110, null, "K2");
+
+        pool.recycle(entry);
+        pool.recycle(other);  // exceeds the maximum and is not pooled
+        assertEquals(1, pool.getNumPooled());
+
+        RegexNFAStateEntry reused = pool.allocate(20, 200, null, "K3");
+        assertSame(entry, reused);
+        assertEquals(0, pool.getNumPooled());
+        assertEquals(20, reused.getMatchBeginEventSeqNo());
+        assertEquals(200, reused.getMatchBeginEventTime());
+        assertEquals("K3", reused.getPartitionKey());
+        assertEquals(0, reused.getMatchEndEventSeqNo());
+        assertNull(reused.getEventsPerStream()[0]);
+        assertEquals(0, reused.getGreedycountPerState()[2]);
+        assertEquals(0, reused.getOptionalMultiMatches()[0].getCount());
+        assertEquals(0, reused.getOptionalMultiMatches()[0].getShrinkEventArray().length);
+
+        assertNotSame(other, pool.allocate(21, 210, null, "K4"));
+    }
+
+    public void testMultimatchCopyFrom() {
+        EventBean[] events = new EventBean[5];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean("E" + i, i));
+        }
+        MultimatchState large = new MultimatchState(events[0]);
+        for (int i = 1; i < events.length; i++) {
+            large.add(events[i]);
+        }
+        MultimatchState small = new MultimatchState(events[4]);
+
+        MultimatchState target = new MultimatchState(small);
+        target.copyFrom(large);
+        assertEquals(5, target.getCount());
+        assertSame(events[4], target.getBuffer()[4]);
+
+        target.copyFrom(small);
+        assertEquals(1, target.getCount());
+        assertSame(events[4], target.getBuffer()[0]);
+        assertNull(target.getBuffer()[1]);
+        assertFalse(target.containsEvent(events[1]));
+        assertEquals(1, target.getShrinkEventArray().length);
+    }
+}
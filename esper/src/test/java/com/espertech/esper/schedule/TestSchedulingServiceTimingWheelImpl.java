@@ -0,0 +1,157 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.supportunit.schedule.SupportScheduleCallback;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestSchedulingServiceTimingWheelImpl extends TestCase {
+    private SchedulingServiceTimingWheelImpl service;
+    private SupportScheduleCallback callbacks[];
+
+    public void setUp() {
+        service = new SchedulingServiceTimingWheelImpl(new TimeSourceServiceImpl());
+        callbacks = new SupportScheduleCallback[5];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbacks[i] = new SupportScheduleCallback();
+        }
+    }
+
+    public void testTriggerOrder() {
+        service.setTime(0);
+        service.add(20, callbacks[3], ScheduleBucket.toLong(1, 1));
+        service.add(20, callbacks[2], ScheduleBucket.toLong(1, 0));
+        service.add(20, callbacks[1], ScheduleBucket.toLong(0, 1));
+        service.add(21, callbacks[0], ScheduleBucket.toLong(0, 0));
+        service.add(5000, callbacks[4], ScheduleBucket.toLong(0, 0));
+        assertEquals(5, service.getScheduleHandleCount());
+        assertEquals(3, service.getTimeHandleCount());
+        assertEquals(20L, (long) service.getNearestTimeHandle());
+        assertEquals(5000L, (long) service.getFurthestTimeHandle());
+
+        assertEvaluate(19);
+        assertEvaluate(20, callbacks[1], callbacks[2], callbacks[3]);
+        assertFalse(service.isScheduled(callbacks[3]));
+        assertEvaluate(4999, callbacks[0]);
+        assertEquals(5000L, (long) service.getNearestTimeHandle());
+        assertEvaluate(5000, callbacks[4]);
+        assertNull(service.getNearestTimeHandle());
+        assertEquals(0, service.getScheduleHandleCount());
+    }
+
+    public void testAddRemove() {
+        service.setTime(1000);
+        service.add(100, callbacks[0], 1);
+        service.add(100, callbacks[0], 1);
+        service.add(200, callbacks[1], 2);
+        assertEquals(2, service.getScheduleHandleCount());
+
+        service.remove(callbacks[1], 2);
+        service.remove(callbacks[1], 2);
+        assertFalse(service.isScheduled(callbacks[1]));
+        assertEvaluate(1200, callbacks[0]);
+    }
+
+    public void testPastDueAndTimeBackwards() {
+        service.setTime(1000);
+        assertEvaluate(1000);
+
+        // zero delay after evaluation triggers at the next evaluation
+        service.add(0, callbacks[0], 1);
+        assertEvaluate(1000, callbacks[0]);
+
+        // time moving backwards keeps schedules that are not yet due
+        service.add(100, callbacks[1], 1);
+        service.setTime(500);
+        service.add(10, callbacks[2], 1);
+        assertEvaluate(510, callbacks[2]);
+        assertEvaluate(1099);
+        assertEvaluate(1100, callbacks[1]);
+    }
+
+    public void testTake() {
+        service.setTime(0);
+        service.add(10, callbacks[0], 1);
+        service.add(20, callbacks[1], 2);
+        service.setTime(5);
+        ScheduleSet set = service.take(Collections.singleton(1));
+        assertEquals(2, set.getList().size());
+        assertEquals(0, service.getScheduleHandleCount());
+
+        service.setTime(100);
+        service.apply(set);
+        assertEvaluate(104);
+        assertEvaluate(115, callbacks[0], callbacks[1]);
+    }
+
+    public void testCompareSorted() {
+        Random random = new Random(1);
+        SchedulingServiceImpl sorted = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        SupportScheduleCallback[] handles = new SupportScheduleCallback[500];
+        long[] slots = new long[handles.length];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new SupportScheduleCallback();
+            slots[i] = ScheduleBucket.toLong(i % 3, i);
+        }
+
+        long time = 1000000;
+        service.setTime(time);
+        sorted.setTime(time);
+        for (int i = 0; i < 20000; i++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                int index = random.nextInt(handles.length);
+                ScheduleHandle handle = handles[index];
+                long after = randomDelta(random);
+                service.add(after, handle, slots[index]);
+                sorted.add(after, handle, slots[index]);
+            } else if (action < 7) {
+                int index = random.nextInt(handles.length);
+                service.remove(handles[index], slots[index]);
+                sorted.remove(handles[index], slots[index]);
+            } else {
+                time += randomDelta(random);
+                service.setTime(time);
+                sorted.setTime(time);
+                List<ScheduleHandle> expected = new ArrayList<ScheduleHandle>();
+                List<ScheduleHandle> received = new ArrayList<ScheduleHandle>();
+                sorted.evaluate(expected);
+                service.evaluate(received);
+                assertEquals(expected, received);
+            }
+            assertEquals(sorted.getScheduleHandleCount(), service.getScheduleHandleCount());
+            assertEquals(sorted.getNearestTimeHandle(), service.getNearestTimeHandle());
+        }
+    }
+
+    private long randomDelta(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt(3);
+            case 1:
+                return random.nextInt(100);
+            case 2:
+                return random.nextInt(10000);
+            default:
+                return random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    private void assertEvaluate(long time, ScheduleHandle... expected) {
+        service.setTime(time);
+        List<ScheduleHandle> handles = new ArrayList<ScheduleHandle>();
+        service.evaluate(handles);
+        assertEquals(Arrays.asList(expected), handles);
+    }
+}
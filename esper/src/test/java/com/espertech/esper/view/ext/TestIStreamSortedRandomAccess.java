@@ -11,6 +11,7 @@
 package com.espertech.esper.view.ext;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.BPlusTreeEventMap;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.supportunit.bean.SupportBean;
 import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
@@ -22,11 +23,10 @@ import junit.framework.TestCase;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.TreeMap;
 
 public class TestIStreamSortedRandomAccess extends TestCase {
     private IStreamSortRankRandomAccess access;
-    private TreeMap<Object, Object> sortedEvents;
+    private BPlusTreeEventMap sortedEvents;
     private EventBean[] events;
 
     public void setUp() {
@@ -35,7 +35,7 @@ public class TestIStreamSortedRandomAccess extends TestCase {
             }
         };
         access = new IStreamSortRankRandomAccessImpl(updateObserver);
-        sortedEvents = new TreeMap<Object, Object>(new MultiKeyCastingComparator(new MultiKeyComparator(new boolean[]{false})));
+        sortedEvents = new BPlusTreeEventMap(new MultiKeyCastingComparator(new MultiKeyComparator(new boolean[]{false})));
 
         events = new EventBean[100];
         for (int i = 0; i < events.length; i++) {
@@ -89,8 +89,10 @@ public class TestIStreamSortedRandomAccess extends TestCase {
     private void assertData(EventBean[] events) {
         for (int i = 0; i < events.length; i++) {
             assertSame("Failed for index " + i, events[i], access.getNewData(i));
+            assertSame("Failed for tail index " + i, events[events.length - i - 1], access.getNewDataTail(i));
         }
         assertNull(access.getNewData(events.length));
+        assertNull(access.getNewDataTail(events.length));
     }
 
     private void add(String key, EventBean theEvent) {